@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.benchmarks;
+
+import com.hazelcast.simulator.protocol.core.AddressLevel;
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.protocol.core.SimulatorMessage;
+import com.hazelcast.simulator.protocol.operation.IntervalHistogramOperation;
+import com.hazelcast.simulator.protocol.operation.LogOperation;
+import com.hazelcast.simulator.protocol.operation.OperationType;
+import com.hazelcast.simulator.protocol.operation.PerformanceStateOperation;
+import com.hazelcast.simulator.protocol.operation.PingOperation;
+import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
+import com.hazelcast.simulator.protocol.operation.TestHistogramOperation;
+import com.hazelcast.simulator.worker.performance.PerformanceState;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.HdrHistogram.Histogram;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.probes.impl.HistogramUtils.toCompressedBytes;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
+import static com.hazelcast.simulator.protocol.core.SimulatorMessageCodec.decodeSimulatorMessage;
+import static com.hazelcast.simulator.protocol.core.SimulatorMessageCodec.encodeByteBuf;
+import static com.hazelcast.simulator.protocol.operation.OperationCodec.fromSimulatorMessage;
+import static com.hazelcast.simulator.protocol.operation.OperationType.getOperationType;
+
+/**
+ * Measures the encode and decode costs of the JSON and binary operation codecs per {@link OperationType}.
+ *
+ * Run the {@link #main(String[])} method from the IDE or with the classpath of the benchmarks module.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperationCodecBenchmark {
+
+    private static final SimulatorAddress WORKER = new SimulatorAddress(AddressLevel.WORKER, 1, 1, 0);
+
+    @Param({"PING", "LOG", "PERFORMANCE_STATE", "TEST_HISTOGRAMS", "INTERVAL_HISTOGRAMS"})
+    private OperationType operationType;
+
+    @Param({"true", "false"})
+    private boolean useBinaryCodec;
+
+    private SimulatorOperation operation;
+    private ByteBuf buffer;
+
+    @Setup
+    public void setUp() {
+        operation = createOperation(operationType);
+        buffer = Unpooled.directBuffer(64 * 1024);
+    }
+
+    @TearDown
+    public void tearDown() {
+        buffer.release();
+    }
+
+    @Benchmark
+    public ByteBuf encode() {
+        buffer.clear();
+        encodeByteBuf(createMessage(), buffer, useBinaryCodec);
+        return buffer;
+    }
+
+    @Benchmark
+    public SimulatorOperation encodeAndDecode() {
+        buffer.clear();
+        encodeByteBuf(createMessage(), buffer, useBinaryCodec);
+        return fromSimulatorMessage(decodeSimulatorMessage(buffer));
+    }
+
+    // a new message per invocation, since the message caches its JSON serialized operation
+    private SimulatorMessage createMessage() {
+        return new SimulatorMessage(SimulatorAddress.COORDINATOR, WORKER, 1, getOperationType(operation), operation);
+    }
+
+    private static SimulatorOperation createOperation(OperationType operationType) {
+        switch (operationType) {
+            case PING:
+                return new PingOperation();
+            case LOG:
+                return new LogOperation("WorkerPerformanceMonitorThread.run() took 1234 ms");
+            case PERFORMANCE_STATE:
+                PerformanceStateOperation performanceStateOperation = new PerformanceStateOperation();
+                performanceStateOperation.addPerformanceState("IntByteMapTest", new PerformanceState(12345678, 42123.5,
+                        41234.2, 812.3, 3400, 12000));
+                return performanceStateOperation;
+            case TEST_HISTOGRAMS:
+                Map<String, byte[]> probeHistograms = new HashMap<String, byte[]>();
+                probeHistograms.put("getLatency", toCompressedBytes(createHistogram()));
+                probeHistograms.put("putLatency", toCompressedBytes(createHistogram()));
+                return new TestHistogramOperation("IntByteMapTest", probeHistograms);
+            case INTERVAL_HISTOGRAMS:
+                Map<String, byte[]> intervalHistograms = new HashMap<String, byte[]>();
+                intervalHistograms.put("getLatency", toCompressedBytes(createHistogram()));
+                intervalHistograms.put("putLatency", toCompressedBytes(createHistogram()));
+                return new IntervalHistogramOperation("IntByteMapTest", 42, System.currentTimeMillis(), intervalHistograms,
+                        new HashMap<String, byte[]>());
+            default:
+                throw new IllegalArgumentException("Unsupported operation type " + operationType);
+        }
+    }
+
+    private static Histogram createHistogram() {
+        Histogram histogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        for (int i = 1; i <= 10000; i++) {
+            histogram.recordValue(i * 7 % 5000 + 100);
+        }
+        return histogram;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(OperationCodecBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.benchmarks;
+
+import com.hazelcast.simulator.worker.selector.OperationSelector;
+import com.hazelcast.simulator.worker.selector.OperationSelectorBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the alias table {@link OperationSelector} with the former selector, which used a 1000 slot array and a
+ * {@link Random} instance.
+ *
+ * Run the {@link #main(String[])} method from the IDE or with the classpath of the benchmarks module.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperationSelectorBenchmark {
+
+    private enum Operation {
+        OP1, OP2, OP3, OP4, OP5, DEFAULT
+    }
+
+    @Param({"2", "6"})
+    private int operationCount;
+
+    private OperationSelector<Operation> aliasSelector;
+    private ArraySelector arraySelector;
+
+    @Setup
+    public void setUp() {
+        OperationSelectorBuilder<Operation> builder = new OperationSelectorBuilder<Operation>();
+        Operation[] operations = Operation.values();
+        for (int i = 0; i < operationCount - 1; i++) {
+            builder.addOperation(operations[i], 0.1);
+        }
+        builder.addDefaultOperation(Operation.DEFAULT);
+
+        aliasSelector = builder.build();
+        arraySelector = new ArraySelector(builder);
+    }
+
+    @Benchmark
+    public Operation aliasSelector() {
+        return aliasSelector.select();
+    }
+
+    @Benchmark
+    public Operation arraySelector() {
+        return arraySelector.select();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(OperationSelectorBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * The former implementation of the {@link OperationSelector} with a precision of 0.001.
+     */
+    private static final class ArraySelector {
+
+        private static final int ARRAY_SIZE = 1000;
+
+        private final Random random = new Random();
+        private final Operation[] operations = new Operation[ARRAY_SIZE];
+
+        private ArraySelector(OperationSelectorBuilder<Operation> builder) {
+            OperationSelector<Operation> selector = builder.build();
+            // the alias selector is just used to fill the array with the configured distribution
+            for (int i = 0; i < ARRAY_SIZE; i++) {
+                operations[i] = selector.select();
+            }
+        }
+
+        private Operation select() {
+            return operations[random.nextInt(ARRAY_SIZE)];
+        }
+    }
+}
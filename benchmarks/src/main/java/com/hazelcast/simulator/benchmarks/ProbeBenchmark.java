@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.benchmarks;
+
+import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.probes.impl.ProbeImpl;
+import com.hazelcast.simulator.probes.impl.ThreadLocalProbeImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of recording a latency in a {@link ProbeImpl} and a {@link ThreadLocalProbeImpl}.
+ *
+ * The probe is shared by all benchmark threads, like the probe of a test is shared by all worker threads. So the contention
+ * can be measured with the JMH option <tt>-t</tt>, e.g. <tt>-t 8</tt>.
+ *
+ * Run the {@link #main(String[])} method from the IDE or with the classpath of the benchmarks module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProbeBenchmark {
+
+    private static final long LATENCY_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    @Param({"false", "true"})
+    private boolean threadLocalProbe;
+
+    private Probe probe;
+
+    @Setup
+    public void setUp() {
+        probe = (threadLocalProbe ? new ThreadLocalProbeImpl(true) : new ProbeImpl(true));
+    }
+
+    @Benchmark
+    public void recordValue() {
+        probe.recordValue(LATENCY_NANOS);
+    }
+
+    @Benchmark
+    public void doneWithStarted() {
+        probe.done(System.nanoTime() - LATENCY_NANOS);
+    }
+
+    @Benchmark
+    public void doneWithIntendedStarted() {
+        long started = System.nanoTime() - LATENCY_NANOS;
+        probe.done(started - LATENCY_NANOS, started);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ProbeBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
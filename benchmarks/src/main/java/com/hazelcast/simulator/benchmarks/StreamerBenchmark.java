@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.benchmarks;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.simulator.worker.loadsupport.Streamer;
+import com.hazelcast.simulator.worker.loadsupport.StreamerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.utils.GeneratorUtils.generateByteArray;
+import static com.hazelcast.simulator.utils.GeneratorUtils.generateString;
+
+/**
+ * Measures the time to load a map with synchronous {@link IMap#set(Object, Object)} calls, the default (asynchronous) and the
+ * batching {@link Streamer} implementations for different key and value sizes.
+ *
+ * The map is stored on a cluster of two Hazelcast members, the entries are streamed from one of them.
+ *
+ * Run the {@link #main(String[])} method from the IDE or with the classpath of the benchmarks module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StreamerBenchmark {
+
+    private static final int ENTRY_COUNT = 100000;
+    private static final int MEMBER_COUNT = 2;
+
+    @Param({"SYNC", "ASYNC", "BATCHING"})
+    private String streamerType;
+
+    @Param({"10", "100"})
+    private int keySize;
+
+    @Param({"10", "1000"})
+    private int valueSize;
+
+    private HazelcastInstance[] instances;
+    private IMap<String, byte[]> map;
+
+    private String[] keys;
+    private byte[][] values;
+
+    @Setup
+    public void setUp() {
+        Config config = new Config();
+        config.setProperty("hazelcast.logging.type", "none");
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+
+        instances = new HazelcastInstance[MEMBER_COUNT];
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            instances[i] = Hazelcast.newHazelcastInstance(config);
+        }
+        map = instances[0].getMap("streamerBenchmark");
+
+        Random random = new Random();
+        keys = new String[ENTRY_COUNT];
+        values = new byte[ENTRY_COUNT][];
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            // the index prefix makes the keys unique
+            keys[i] = i + "-" + generateString(keySize);
+            values[i] = generateByteArray(random, valueSize);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void clearMap() {
+        map.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        Hazelcast.shutdownAll();
+    }
+
+    @Benchmark
+    public int load() {
+        if ("SYNC".equals(streamerType)) {
+            // same as the synchronous Streamer, which is just used for Hazelcast versions without async API
+            for (int i = 0; i < ENTRY_COUNT; i++) {
+                map.set(keys[i], values[i]);
+            }
+            return map.size();
+        }
+
+        Streamer<String, byte[]> streamer = createStreamer();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            streamer.pushEntry(keys[i], values[i]);
+        }
+        streamer.await();
+        return map.size();
+    }
+
+    private Streamer<String, byte[]> createStreamer() {
+        if ("ASYNC".equals(streamerType)) {
+            return StreamerFactory.getInstance(map);
+        }
+        return StreamerFactory.getBatchingInstance(map, instances[0]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(StreamerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
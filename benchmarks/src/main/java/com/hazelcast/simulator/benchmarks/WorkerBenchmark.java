@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.benchmarks;
+
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.probes.impl.ProbeImpl;
+import com.hazelcast.simulator.test.TestContext;
+import com.hazelcast.simulator.test.TestContextImpl;
+import com.hazelcast.simulator.worker.metronome.Metronome;
+import com.hazelcast.simulator.worker.selector.OperationSelector;
+import com.hazelcast.simulator.worker.selector.OperationSelectorBuilder;
+import com.hazelcast.simulator.worker.tasks.AbstractAsyncWorker;
+import com.hazelcast.simulator.worker.tasks.AbstractBoundedAsyncWorker;
+import com.hazelcast.simulator.worker.tasks.AbstractMonotonicWorker;
+import com.hazelcast.simulator.worker.tasks.AbstractMonotonicWorkerWithProbeControl;
+import com.hazelcast.simulator.worker.tasks.AbstractWorker;
+import com.hazelcast.simulator.worker.tasks.AbstractWorkerWithMultipleProbes;
+import com.hazelcast.simulator.worker.tasks.AbstractWorkerWithProbeControl;
+import com.hazelcast.simulator.worker.tasks.IWorker;
+import com.hazelcast.simulator.worker.tasks.WorkerLoopFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.utils.ReflectionUtils.getField;
+import static com.hazelcast.simulator.utils.ReflectionUtils.setFieldValue;
+
+/**
+ * Measures the per-iteration overhead of the worker base classes, e.g. the {@link Metronome}, the {@link OperationSelector},
+ * the probe lookup and the latency recording.
+ *
+ * Each invocation runs a fresh worker for {@value #ITERATIONS} iterations with an empty time step, which just records the
+ * latency like a real test would do, so the score is the overhead of the framework per operation. Each worker type is
+ * measured in its own fork, so the JIT compiler just sees a single worker class. The <tt>generateWorkerLoop</tt> parameter
+ * compares the default loop with the loop of the {@link WorkerLoopFactory}.
+ *
+ * Run the {@link #main(String[])} method from the IDE or with the classpath of the benchmarks module.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OperationsPerInvocation(WorkerBenchmark.ITERATIONS)
+@Fork(1)
+public class WorkerBenchmark {
+
+    static final int ITERATIONS = 100000;
+
+    private static final double FIRST_OPERATION_PROBABILITY = 0.5;
+
+    private static final Field TEST_CONTEXT_FIELD = getField(AbstractWorker.class, "testContext", TestContext.class);
+    private static final Field WORKER_PROBE_FIELD = getField(AbstractWorker.class, "workerProbe", Probe.class);
+
+    // the worker classes and the operation type are public, so the generated loop can call the time step methods
+    public enum Operation {
+        FIRST,
+        SECOND
+    }
+
+    /**
+     * The worker base classes.
+     */
+    public enum WorkerType {
+        WORKER,
+        MONOTONIC_WORKER,
+        WORKER_WITH_PROBE_CONTROL,
+        MONOTONIC_WORKER_WITH_PROBE_CONTROL,
+        WORKER_WITH_MULTIPLE_PROBES,
+        ASYNC_WORKER,
+        BOUNDED_ASYNC_WORKER
+    }
+
+    @Param
+    private WorkerType workerType;
+
+    @Param({"false", "true"})
+    private boolean generateWorkerLoop;
+
+    private final TestContext testContext = new TestContextImpl("WorkerBenchmark");
+    private final Probe workerProbe = new ProbeImpl(true);
+    private final Map<Operation, Probe> operationProbes = new EnumMap<Operation, Probe>(Operation.class);
+    private final OperationSelectorBuilder<Operation> operationSelectorBuilder = new OperationSelectorBuilder<Operation>()
+            .addOperation(Operation.FIRST, FIRST_OPERATION_PROBABILITY)
+            .addDefaultOperation(Operation.SECOND);
+
+    private WorkerLoopFactory workerLoopFactory;
+    private IWorker worker;
+
+    @Setup
+    public void setUp() throws Exception {
+        for (Operation operation : Operation.values()) {
+            operationProbes.put(operation, new ProbeImpl(false));
+        }
+        if (generateWorkerLoop) {
+            workerLoopFactory = new WorkerLoopFactory(createWorker().getClass());
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        worker = createWorker();
+        setFieldValue(worker, TEST_CONTEXT_FIELD, testContext);
+        setFieldValue(worker, WORKER_PROBE_FIELD, workerProbe);
+        if (worker instanceof AbstractWorkerWithMultipleProbes) {
+            ((AbstractWorkerWithMultipleProbes) worker).setProbeMap(operationProbes);
+        }
+        if (workerLoopFactory != null) {
+            workerLoopFactory.injectWorkerLoop(worker);
+        }
+    }
+
+    @Benchmark
+    public void run() {
+        worker.run();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(WorkerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    private IWorker createWorker() {
+        switch (workerType) {
+            case WORKER:
+                return new Worker(operationSelectorBuilder);
+            case MONOTONIC_WORKER:
+                return new MonotonicWorker();
+            case WORKER_WITH_PROBE_CONTROL:
+                return new WorkerWithProbeControl(operationSelectorBuilder);
+            case MONOTONIC_WORKER_WITH_PROBE_CONTROL:
+                return new MonotonicWorkerWithProbeControl();
+            case WORKER_WITH_MULTIPLE_PROBES:
+                return new WorkerWithMultipleProbes(operationSelectorBuilder);
+            case ASYNC_WORKER:
+                return new AsyncWorker(operationSelectorBuilder);
+            case BOUNDED_ASYNC_WORKER:
+                return new BoundedAsyncWorker(operationSelectorBuilder);
+            default:
+                throw new UnsupportedOperationException("Unsupported worker type: " + workerType);
+        }
+    }
+
+    public static final class Worker extends AbstractWorker<Operation> {
+
+        private int remainingIterations = ITERATIONS;
+
+        private Worker(OperationSelectorBuilder<Operation> operationSelectorBuilder) {
+            super(operationSelectorBuilder);
+        }
+
+        @Override
+        public void timeStep(Operation operation) throws Exception {
+            if (--remainingIterations == 0) {
+                stopWorker();
+            }
+        }
+    }
+
+    public static final class MonotonicWorker extends AbstractMonotonicWorker {
+
+        private int remainingIterations = ITERATIONS;
+
+        @Override
+        public void timeStep() throws Exception {
+            if (--remainingIterations == 0) {
+                stopWorker();
+            }
+        }
+    }
+
+    public static final class WorkerWithProbeControl extends AbstractWorkerWithProbeControl<Operation> {
+
+        private int remainingIterations = ITERATIONS;
+
+        private WorkerWithProbeControl(OperationSelectorBuilder<Operation> operationSelectorBuilder) {
+            super(operationSelectorBuilder);
+        }
+
+        @Override
+        public void timeStep(Operation operation, Probe probe) throws Exception {
+            long started = System.nanoTime();
+            if (--remainingIterations == 0) {
+                stopWorker();
+            }
+            probe.done(started);
+        }
+    }
+
+    public static final class MonotonicWorkerWithProbeControl extends AbstractMonotonicWorkerWithProbeControl {
+
+        private int remainingIterations = ITERATIONS;
+
+        @Override
+        public void timeStep(Probe probe) throws Exception {
+            long started = System.nanoTime();
+            if (--remainingIterations == 0) {
+                stopWorker();
+            }
+            probe.done(started);
+        }
+    }
+
+    public static final class WorkerWithMultipleProbes extends AbstractWorkerWithMultipleProbes<Operation> {
+
+        private int remainingIterations = ITERATIONS;
+
+        private WorkerWithMultipleProbes(OperationSelectorBuilder<Operation> operationSelectorBuilder) {
+            super(operationSelectorBuilder);
+        }
+
+        @Override
+        public void timeStep(Operation operation, Probe probe) throws Exception {
+            long started = System.nanoTime();
+            if (--remainingIterations == 0) {
+                stopWorker();
+            }
+            probe.done(started);
+        }
+    }
+
+    private static final class AsyncWorker extends AbstractAsyncWorker<Operation, Object> {
+
+        private int remainingIterations = ITERATIONS;
+
+        private AsyncWorker(OperationSelectorBuilder<Operation> operationSelectorBuilder) {
+            super(operationSelectorBuilder);
+        }
+
+        @Override
+        protected void timeStep(Operation operation) throws Exception {
+            if (--remainingIterations == 0) {
+                stopWorker();
+            }
+            // the operation completes immediately on the calling thread
+            onResponse(null);
+        }
+
+        @Override
+        protected void handleResponse(Object response) {
+        }
+
+        @Override
+        protected void handleFailure(Throwable t) {
+        }
+    }
+
+    private static final class BoundedAsyncWorker extends AbstractBoundedAsyncWorker<Operation, Object> {
+
+        private final CompletedFuture completedFuture = new CompletedFuture();
+
+        private int remainingIterations = ITERATIONS;
+
+        private BoundedAsyncWorker(OperationSelectorBuilder<Operation> operationSelectorBuilder) {
+            super(operationSelectorBuilder);
+        }
+
+        @Override
+        protected ICompletableFuture<Object> timeStepAsync(Operation operation) throws Exception {
+            if (--remainingIterations == 0) {
+                stopWorker();
+            }
+            return completedFuture;
+        }
+    }
+
+    /**
+     * An {@link ICompletableFuture} which is already completed, so the callback is executed on the calling thread.
+     */
+    private static final class CompletedFuture implements ICompletableFuture<Object> {
+
+        @Override
+        public void andThen(ExecutionCallback<Object> callback) {
+            callback.onResponse(null);
+        }
+
+        @Override
+        public void andThen(ExecutionCallback<Object> callback, Executor executor) {
+            callback.onResponse(null);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return true;
+        }
+
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            return null;
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.benchmarks;
+
+import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.probes.impl.ProbeImpl;
+import com.hazelcast.simulator.test.TestContext;
+import com.hazelcast.simulator.test.TestContextImpl;
+import com.hazelcast.simulator.worker.tasks.AbstractMonotonicWorker;
+import com.hazelcast.simulator.worker.tasks.AbstractWorker;
+import com.hazelcast.simulator.worker.tasks.WorkerLoopFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.utils.ReflectionUtils.getField;
+import static com.hazelcast.simulator.utils.ReflectionUtils.setFieldValue;
+
+/**
+ * Compares the per-iteration overhead of the default loop of {@link AbstractWorker} with the loop, which is generated by the
+ * {@link WorkerLoopFactory}, for a worker which does nothing.
+ *
+ * With <tt>polluteProfile</tt> other worker classes are run through the default loop before the measurement, like in a worker
+ * JVM which has run several tests. The generated loop is compiled per worker class, so the calls of the time step method, the
+ * metronome and the probe are not affected by them.
+ *
+ * Run the {@link #main(String[])} method from the IDE or with the classpath of the benchmarks module.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OperationsPerInvocation(WorkerLoopBenchmark.ITERATIONS)
+@Fork(1)
+public class WorkerLoopBenchmark {
+
+    static final int ITERATIONS = 100000;
+
+    private static final int POLLUTION_ITERATIONS = 1000000;
+
+    @Param({"false", "true"})
+    private boolean generateWorkerLoop;
+
+    @Param({"false", "true"})
+    private boolean polluteProfile;
+
+    private final TestContext testContext = new TestContextImpl("WorkerLoopBenchmark");
+    private final Probe probe = new ProbeImpl(true);
+
+    private WorkerLoopFactory workerLoopFactory;
+    private AbstractWorker worker;
+
+    @Setup
+    public void setUp() throws Exception {
+        if (polluteProfile) {
+            run(new FirstPollutingWorker(), POLLUTION_ITERATIONS);
+            run(new SecondPollutingWorker(), POLLUTION_ITERATIONS);
+        }
+        if (generateWorkerLoop) {
+            workerLoopFactory = new WorkerLoopFactory(NoOperationBenchmarkWorker.class);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        worker = createWorker(new NoOperationBenchmarkWorker(), ITERATIONS);
+        if (workerLoopFactory != null) {
+            workerLoopFactory.injectWorkerLoop(worker);
+        }
+    }
+
+    @Benchmark
+    public void noOperationWorker() {
+        worker.run();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(WorkerLoopBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    private void run(CountingWorker countingWorker, int iterations) {
+        createWorker(countingWorker, iterations).run();
+    }
+
+    private AbstractWorker createWorker(CountingWorker countingWorker, int iterations) {
+        countingWorker.iterations = iterations;
+        setFieldValue(countingWorker, getField(AbstractWorker.class, "testContext", TestContext.class), testContext);
+        setFieldValue(countingWorker, getField(AbstractWorker.class, "workerProbe", Probe.class), probe);
+        return countingWorker;
+    }
+
+    public abstract static class CountingWorker extends AbstractMonotonicWorker {
+
+        private int iterations;
+
+        final void countIteration() {
+            if (--iterations == 0) {
+                stopWorker();
+            }
+        }
+    }
+
+    // the generated loop can only call the time step method of a public worker class
+    public static final class NoOperationBenchmarkWorker extends CountingWorker {
+
+        @Override
+        public void timeStep() throws Exception {
+            countIteration();
+        }
+    }
+
+    private static final class FirstPollutingWorker extends CountingWorker {
+
+        @Override
+        protected void timeStep() throws Exception {
+            countIteration();
+        }
+    }
+
+    private static final class SecondPollutingWorker extends CountingWorker {
+
+        @Override
+        protected void timeStep() throws Exception {
+            countIteration();
+        }
+    }
+}
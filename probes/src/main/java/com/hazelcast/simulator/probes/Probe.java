@@ -43,6 +43,20 @@ public interface Probe {
      */
     void done(long started);
 
+    /**
+     * Calculates the latency from the intended start time and the service time from the actual start time of an operation and
+     * records both values side by side.
+     *
+     * Should be used by rate-limited workers, which derive the intended start time from a fixed rate schedule. In contrast to the
+     * service time, the latency from the intended start time includes the time an operation had to wait until it could be
+     * started, so it is not affected by coordinated omission. It is recorded as regular latency value, the service time can be
+     * retrieved via {@link #getServiceTimeIntervalHistogram()}.
+     *
+     * @param intendedStarted intended start time from {@link System#nanoTime()}.
+     * @param started         actual start time from {@link System#nanoTime()}.
+     */
+    void done(long intendedStarted, long started);
+
     /**
      * Adds a latency value in nanoseconds to the probe result.
      *
@@ -53,6 +67,17 @@ public interface Probe {
      */
     void recordValue(long latencyNanos);
 
+    /**
+     * Adds all latency values of a {@link Histogram} to the probe result.
+     *
+     * Can be used to merge pre-aggregated latencies from an external source like a C++ client, which publishes interval
+     * histograms instead of single values. The values of the histogram have to be in microseconds, like the values of
+     * {@link #getIntervalHistogram()}.
+     *
+     * @param latencyHistogram {@link Histogram} with latency values in microseconds
+     */
+    void recordValues(Histogram latencyHistogram);
+
     /**
      * Get an interval {@link Histogram}, which will include a stable, consistent view of all latency values accumulated since the
      * last interval histogram was taken.
@@ -62,4 +87,15 @@ public interface Probe {
      * @return a {@link Histogram} containing the latency values accumulated since the last interval histogram was taken
      */
     Histogram getIntervalHistogram();
+
+    /**
+     * Get an interval {@link Histogram} of the service times, which will include a stable, consistent view of all service time
+     * values accumulated since the last interval histogram was taken.
+     *
+     * Resets the service time values and starts accumulating value counts for the next interval.
+     *
+     * @return a {@link Histogram} containing the service time values accumulated since the last interval histogram was taken or
+     * <tt>null</tt> if no service time was recorded by this probe
+     */
+    Histogram getServiceTimeIntervalHistogram();
 }
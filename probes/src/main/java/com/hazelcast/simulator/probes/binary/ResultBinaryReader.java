@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.probes.binary;
+
+import com.hazelcast.simulator.probes.Result;
+import com.hazelcast.simulator.probes.impl.ResultImpl;
+import org.HdrHistogram.Histogram;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+
+import static com.hazelcast.simulator.probes.binary.ResultBinaryWriter.FORMAT_VERSION;
+import static com.hazelcast.simulator.probes.binary.ResultBinaryWriter.MAGIC_NUMBER;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+
+/**
+ * Streaming reader for the binary probe result format, which is written by {@link ResultBinaryWriter}.
+ */
+public class ResultBinaryReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DataInputStream in;
+
+    private byte[] histogramBytes = new byte[0];
+
+    /**
+     * Creates a {@link ResultBinaryReader} and reads the header of the stream.
+     *
+     * @param inputStream the {@link InputStream} to read from
+     * @throws IOException              if the header could not be read
+     * @throws IllegalArgumentException if the stream is not in the binary probe result format or has an unsupported version
+     */
+    public ResultBinaryReader(InputStream inputStream) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(inputStream, BUFFER_SIZE));
+
+        int magicNumber = in.readInt();
+        if (magicNumber != MAGIC_NUMBER) {
+            throw new IllegalArgumentException(format("Not a binary probe result (magic number: 0x%08x)", magicNumber));
+        }
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException(format("Unsupported binary probe result version %d (supported: %d)", version,
+                    FORMAT_VERSION));
+        }
+    }
+
+    /**
+     * Reads the next {@link Result} of the stream.
+     *
+     * @return the next {@link Result} or {@code null} if the end of the stream is reached
+     * @throws IOException              if the result could not be read or the length of a histogram is invalid
+     * @throws IllegalArgumentException if a histogram of the result could not be decoded
+     */
+    public Result readResult() throws IOException {
+        String testName;
+        try {
+            testName = in.readUTF();
+        } catch (EOFException e) {
+            return null;
+        }
+        long invocations = in.readLong();
+        double throughput = in.readDouble();
+
+        Result result = new ResultImpl(testName, invocations, throughput);
+        int probeCount = in.readInt();
+        for (int i = 0; i < probeCount; i++) {
+            String probeName = in.readUTF();
+            result.addHistogram(probeName, readHistogram(probeName));
+        }
+        return result;
+    }
+
+    private Histogram readHistogram(String probeName) throws IOException {
+        int compressedLength = in.readInt();
+        if (compressedLength < 0) {
+            throw new IOException(format("Invalid length %d of histogram %s", compressedLength, probeName));
+        }
+        readHistogramBytes(probeName, compressedLength);
+
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(histogramBytes, 0, compressedLength), 0);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Could not decode histogram", e);
+        }
+    }
+
+    /**
+     * Reads the encoded histogram in chunks, so a corrupt length which exceeds the remaining stream doesn't allocate its size.
+     */
+    private void readHistogramBytes(String probeName, int compressedLength) throws IOException {
+        int offset = 0;
+        while (offset < compressedLength) {
+            int chunkLength = min(compressedLength - offset, BUFFER_SIZE);
+            if (histogramBytes.length < offset + chunkLength) {
+                byte[] newHistogramBytes = new byte[min(compressedLength, max(offset + chunkLength, histogramBytes.length * 2))];
+                System.arraycopy(histogramBytes, 0, newHistogramBytes, 0, offset);
+                histogramBytes = newHistogramBytes;
+            }
+            int bytesRead = in.read(histogramBytes, offset, chunkLength);
+            if (bytesRead < 0) {
+                throw new IOException(format("Invalid length %d of histogram %s, just %d bytes are remaining", compressedLength,
+                        probeName, offset));
+            }
+            offset += bytesRead;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
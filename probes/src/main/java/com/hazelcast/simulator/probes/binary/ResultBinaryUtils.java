@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.probes.binary;
+
+import com.hazelcast.simulator.probes.Result;
+import com.hazelcast.simulator.utils.FileUtilsException;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+
+/**
+ * Utility class to write and read a single {@link Result} in the binary probe result format.
+ *
+ * @see ResultBinaryWriter
+ * @see ResultBinaryReader
+ */
+public final class ResultBinaryUtils {
+
+    /**
+     * File extension of the binary probe result format.
+     */
+    public static final String FILE_EXTENSION = "bin";
+
+    private ResultBinaryUtils() {
+    }
+
+    public static void toBinary(Result result, File file) {
+        FileOutputStream outputStream = null;
+        try {
+            outputStream = new FileOutputStream(file);
+            ResultBinaryWriter writer = new ResultBinaryWriter(outputStream);
+            writer.writeResult(result);
+            writer.flush();
+        } catch (IOException e) {
+            throw new FileUtilsException("Could not write probe result to " + file.getAbsolutePath(), e);
+        } finally {
+            closeQuietly(outputStream);
+        }
+    }
+
+    public static Result fromBinary(File file) {
+        FileInputStream inputStream = null;
+        try {
+            inputStream = new FileInputStream(file);
+            ResultBinaryReader reader = new ResultBinaryReader(inputStream);
+            Result result = reader.readResult();
+            if (result == null) {
+                throw new IllegalArgumentException("No probe result found in " + file.getAbsolutePath());
+            }
+            return result;
+        } catch (IOException e) {
+            throw new FileUtilsException("Could not read probe result from " + file.getAbsolutePath(), e);
+        } finally {
+            closeQuietly(inputStream);
+        }
+    }
+}
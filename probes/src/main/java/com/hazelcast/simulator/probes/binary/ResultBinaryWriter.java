@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.probes.binary;
+
+import com.hazelcast.simulator.probes.Result;
+import org.HdrHistogram.Histogram;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Streaming writer for the binary probe result format.
+ *
+ * The format starts with a header of a magic number and the format version. It's followed by the results, each consisting of
+ * the test name, the number of invocations, the throughput and the number of probes. Each probe is written as its name and the
+ * length prefixed, compressed {@link Histogram}.
+ *
+ * The histograms are written one by one, so in contrast to the XML format no document of the whole result is built in memory.
+ */
+public class ResultBinaryWriter implements Closeable {
+
+    static final int MAGIC_NUMBER = 0x53505242;
+    static final int FORMAT_VERSION = 1;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DataOutputStream out;
+
+    private ByteBuffer histogramBuffer = ByteBuffer.allocate(0);
+
+    public ResultBinaryWriter(OutputStream outputStream) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(outputStream, BUFFER_SIZE));
+
+        out.writeInt(MAGIC_NUMBER);
+        out.writeInt(FORMAT_VERSION);
+    }
+
+    public void writeResult(Result result) throws IOException {
+        out.writeUTF(result.getTestName());
+        out.writeLong(result.getInvocations());
+        out.writeDouble(result.getThroughput());
+        out.writeInt(result.probeNames().size());
+        for (String probeName : result.probeNames()) {
+            out.writeUTF(probeName);
+            writeHistogram(result.getHistogram(probeName));
+        }
+    }
+
+    private void writeHistogram(Histogram histogram) throws IOException {
+        int neededCapacity = histogram.getNeededByteBufferCapacity();
+        if (histogramBuffer.capacity() < neededCapacity) {
+            histogramBuffer = ByteBuffer.allocate(neededCapacity);
+        }
+        histogramBuffer.clear();
+        int compressedLength = histogram.encodeIntoCompressedByteBuffer(histogramBuffer);
+
+        out.writeInt(compressedLength);
+        out.write(histogramBuffer.array(), 0, compressedLength);
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
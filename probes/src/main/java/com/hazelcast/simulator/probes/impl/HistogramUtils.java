@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.probes.impl;
+
+import org.HdrHistogram.Histogram;
+
+import javax.xml.bind.DatatypeConverter;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+
+/**
+ * Utility class to transfer {@link Histogram} instances in a compact binary or String representation.
+ */
+public final class HistogramUtils {
+
+    private HistogramUtils() {
+    }
+
+    /**
+     * Encodes a {@link Histogram} into a compressed Base64 String.
+     *
+     * @param histogram the {@link Histogram} to encode
+     * @return the compressed Base64 String
+     */
+    public static String encodeHistogram(Histogram histogram) {
+        return DatatypeConverter.printBase64Binary(toCompressedBytes(histogram));
+    }
+
+    /**
+     * Decodes a {@link Histogram} from a compressed Base64 String.
+     *
+     * @param encodedHistogram the compressed Base64 String created by {@link #encodeHistogram(Histogram)}
+     * @return the decoded {@link Histogram}
+     * @throws IllegalArgumentException if the String cannot be decoded
+     */
+    public static Histogram decodeHistogram(String encodedHistogram) {
+        return fromCompressedBytes(DatatypeConverter.parseBase64Binary(encodedHistogram));
+    }
+
+    /**
+     * Encodes a {@link Histogram} into a compressed byte array.
+     *
+     * @param histogram the {@link Histogram} to encode
+     * @return the compressed byte array
+     */
+    public static byte[] toCompressedBytes(Histogram histogram) {
+        ByteBuffer targetBuffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int compressedLength = histogram.encodeIntoCompressedByteBuffer(targetBuffer, Deflater.BEST_COMPRESSION);
+        return Arrays.copyOf(targetBuffer.array(), compressedLength);
+    }
+
+    /**
+     * Decodes a {@link Histogram} from a compressed byte array.
+     *
+     * @param compressedHistogram the compressed byte array created by {@link #toCompressedBytes(Histogram)}
+     * @return the decoded {@link Histogram}
+     * @throws IllegalArgumentException if the byte array cannot be decoded
+     */
+    public static Histogram fromCompressedBytes(byte[] compressedHistogram) {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(compressedHistogram), 0);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Could not decode histogram", e);
+        }
+    }
+}
@@ -17,6 +17,7 @@ package com.hazelcast.simulator.probes.impl;
 
 import com.hazelcast.simulator.probes.Probe;
 import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
 import org.HdrHistogram.Recorder;
 
 import java.util.concurrent.TimeUnit;
@@ -30,10 +31,13 @@ public class ProbeImpl implements Probe {
     public static final int LATENCY_PRECISION = 4;
 
     private final Recorder recorder = new Recorder(MAXIMUM_LATENCY, LATENCY_PRECISION);
+    private final Histogram addedHistogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
     private final ThreadLocal<Long> threadLocalStarted = new ThreadLocal<Long>();
 
     private final boolean isThroughputProbe;
 
+    private volatile Recorder serviceTimeRecorder;
+
     public ProbeImpl(boolean isThroughputProbe) {
         this.isThroughputProbe = isThroughputProbe;
     }
@@ -72,14 +76,90 @@ public class ProbeImpl implements Probe {
         recordValue(now - started);
     }
 
+    @Override
+    public void done(long intendedStarted, long started) {
+        long now = System.nanoTime();
+
+        if (intendedStarted <= 0 || started <= 0) {
+            throw new IllegalArgumentException("intendedStarted and started have to be positive numbers");
+        }
+
+        recordValue(now - intendedStarted);
+        getServiceTimeRecorder().recordValue(toLatencyMicros(now - started));
+    }
+
     @Override
     public void recordValue(long latencyNanos) {
-        int latencyMicros = (int) TimeUnit.NANOSECONDS.toMicros(latencyNanos);
-        recorder.recordValue(latencyMicros > MAXIMUM_LATENCY ? MAXIMUM_LATENCY : (latencyMicros < 0 ? 0 : latencyMicros));
+        recorder.recordValue(toLatencyMicros(latencyNanos));
+    }
+
+    @Override
+    public void recordValues(Histogram latencyHistogram) {
+        synchronized (addedHistogram) {
+            addLatencyValues(addedHistogram, latencyHistogram);
+        }
     }
 
     @Override
     public Histogram getIntervalHistogram() {
-        return recorder.getIntervalHistogram();
+        Histogram intervalHistogram = recorder.getIntervalHistogram();
+        addAndResetAddedHistogram(intervalHistogram, addedHistogram);
+        return intervalHistogram;
+    }
+
+    @Override
+    public Histogram getServiceTimeIntervalHistogram() {
+        Recorder tmpRecorder = serviceTimeRecorder;
+        return (tmpRecorder == null ? null : tmpRecorder.getIntervalHistogram());
+    }
+
+    private Recorder getServiceTimeRecorder() {
+        Recorder tmpRecorder = serviceTimeRecorder;
+        if (tmpRecorder == null) {
+            synchronized (this) {
+                tmpRecorder = serviceTimeRecorder;
+                if (tmpRecorder == null) {
+                    tmpRecorder = new Recorder(MAXIMUM_LATENCY, LATENCY_PRECISION);
+                    serviceTimeRecorder = tmpRecorder;
+                }
+            }
+        }
+        return tmpRecorder;
+    }
+
+    /**
+     * Merges a {@link Histogram} with latency values in microseconds into the target {@link Histogram}.
+     *
+     * The buckets are merged via {@link Histogram#add(org.HdrHistogram.AbstractHistogram)}. Only a histogram with values above
+     * {@link #MAXIMUM_LATENCY} is merged value by value, since its values have to be clamped.
+     */
+    static void addLatencyValues(Histogram target, Histogram latencyHistogram) {
+        if (latencyHistogram.getMaxValue() <= MAXIMUM_LATENCY) {
+            target.add(latencyHistogram);
+            return;
+        }
+        for (HistogramIterationValue value : latencyHistogram.recordedValues()) {
+            target.recordValueWithCount(clampLatencyMicros(value.getValueIteratedTo()), value.getCountAtValueIteratedTo());
+        }
+    }
+
+    /**
+     * Moves the values of the added {@link Histogram} into the interval {@link Histogram}.
+     */
+    static void addAndResetAddedHistogram(Histogram intervalHistogram, Histogram addedHistogram) {
+        synchronized (addedHistogram) {
+            if (addedHistogram.getTotalCount() > 0) {
+                intervalHistogram.add(addedHistogram);
+                addedHistogram.reset();
+            }
+        }
+    }
+
+    static long toLatencyMicros(long latencyNanos) {
+        return clampLatencyMicros(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+    }
+
+    static long clampLatencyMicros(long latencyMicros) {
+        return (latencyMicros > MAXIMUM_LATENCY ? MAXIMUM_LATENCY : (latencyMicros < 0 ? 0 : latencyMicros));
     }
 }
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.probes.impl;
+
+import com.hazelcast.simulator.probes.Probe;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.SingleWriterRecorder;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.addAndResetAddedHistogram;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.addLatencyValues;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.toLatencyMicros;
+
+/**
+ * Measures the latency distribution of a test with a thread-owned histogram per recording thread.
+ *
+ * In contrast to {@link ProbeImpl} the recording threads don't share a single {@link org.HdrHistogram.Recorder}, so there is no
+ * contention on its writer phaser and counts array. The histograms of all threads are just merged when
+ * {@link #getIntervalHistogram()} is called.
+ *
+ * The thread-owned histograms are auto-resizing, so their memory footprint depends on the recorded latencies. The histograms
+ * of terminated threads are removed, after their last values have been retrieved.
+ */
+public class ThreadLocalProbeImpl implements Probe {
+
+    private final List<ThreadState> threadStates = new CopyOnWriteArrayList<ThreadState>();
+    private final Histogram addedHistogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+    private final ThreadLocal<ThreadState> threadLocalState = new ThreadLocal<ThreadState>() {
+        @Override
+        protected ThreadState initialValue() {
+            ThreadState threadState = new ThreadState();
+            threadStates.add(threadState);
+            return threadState;
+        }
+    };
+
+    private final boolean isThroughputProbe;
+
+    public ThreadLocalProbeImpl(boolean isThroughputProbe) {
+        this.isThroughputProbe = isThroughputProbe;
+    }
+
+    @Override
+    public boolean isThroughputProbe() {
+        return isThroughputProbe;
+    }
+
+    @Override
+    public void started() {
+        long now = System.nanoTime();
+        threadLocalState.get().started = now;
+    }
+
+    @Override
+    public void done() {
+        long now = System.nanoTime();
+
+        ThreadState threadState = threadLocalState.get();
+        if (threadState.started == 0) {
+            throw new IllegalStateException("You have to call started() before done()");
+        }
+
+        threadState.recorder.recordValue(toLatencyMicros(now - threadState.started));
+    }
+
+    @Override
+    public void done(long started) {
+        long now = System.nanoTime();
+
+        if (started <= 0) {
+            throw new IllegalArgumentException("started has to be a positive number");
+        }
+
+        recordValue(now - started);
+    }
+
+    @Override
+    public void done(long intendedStarted, long started) {
+        long now = System.nanoTime();
+
+        if (intendedStarted <= 0 || started <= 0) {
+            throw new IllegalArgumentException("intendedStarted and started have to be positive numbers");
+        }
+
+        ThreadState threadState = threadLocalState.get();
+        threadState.recorder.recordValue(toLatencyMicros(now - intendedStarted));
+        threadState.getServiceTimeRecorder().recordValue(toLatencyMicros(now - started));
+    }
+
+    @Override
+    public void recordValue(long latencyNanos) {
+        threadLocalState.get().recorder.recordValue(toLatencyMicros(latencyNanos));
+    }
+
+    @Override
+    public void recordValues(Histogram latencyHistogram) {
+        // merged histograms are rare, so they share a single histogram instead of a thread-owned one
+        synchronized (addedHistogram) {
+            addLatencyValues(addedHistogram, latencyHistogram);
+        }
+    }
+
+    @Override
+    public Histogram getIntervalHistogram() {
+        Histogram intervalHistogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        for (ThreadState threadState : threadStates) {
+            boolean isOwnerAlive = threadState.owner.isAlive();
+            threadState.recycledHistogram = threadState.recorder.getIntervalHistogram(threadState.recycledHistogram);
+            intervalHistogram.add(threadState.recycledHistogram);
+            if (!isOwnerAlive) {
+                threadState.isLatencyDrained = true;
+                removeIfDrained(threadState);
+            }
+        }
+        addAndResetAddedHistogram(intervalHistogram, addedHistogram);
+        return intervalHistogram;
+    }
+
+    @Override
+    public Histogram getServiceTimeIntervalHistogram() {
+        Histogram intervalHistogram = null;
+        for (ThreadState threadState : threadStates) {
+            SingleWriterRecorder serviceTimeRecorder = threadState.serviceTimeRecorder;
+            if (serviceTimeRecorder == null) {
+                continue;
+            }
+            if (intervalHistogram == null) {
+                intervalHistogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+            }
+            boolean isOwnerAlive = threadState.owner.isAlive();
+            threadState.recycledServiceTimeHistogram
+                    = serviceTimeRecorder.getIntervalHistogram(threadState.recycledServiceTimeHistogram);
+            intervalHistogram.add(threadState.recycledServiceTimeHistogram);
+            if (!isOwnerAlive) {
+                threadState.isServiceTimeDrained = true;
+                removeIfDrained(threadState);
+            }
+        }
+        return intervalHistogram;
+    }
+
+    /**
+     * Removes the {@link ThreadState} of a terminated thread, once all of its recorders have been drained.
+     *
+     * The owner is checked before a recorder is drained, so no values recorded by the terminated thread can get lost.
+     */
+    private void removeIfDrained(ThreadState threadState) {
+        if (threadState.isLatencyDrained && (threadState.serviceTimeRecorder == null || threadState.isServiceTimeDrained)) {
+            threadStates.remove(threadState);
+        }
+    }
+
+    // just for testing
+    int getThreadCount() {
+        return threadStates.size();
+    }
+
+    /**
+     * Holds the recorders of a single thread.
+     *
+     * The recorders are just written by the owning thread, the recycled histograms and the drained flags are just accessed by
+     * the thread which retrieves the interval histograms.
+     */
+    private static final class ThreadState {
+
+        private final Thread owner = Thread.currentThread();
+
+        private final SingleWriterRecorder recorder = new SingleWriterRecorder(LATENCY_PRECISION);
+
+        private volatile SingleWriterRecorder serviceTimeRecorder;
+
+        private long started;
+
+        private Histogram recycledHistogram;
+        private Histogram recycledServiceTimeHistogram;
+
+        private boolean isLatencyDrained;
+        private boolean isServiceTimeDrained;
+
+        private SingleWriterRecorder getServiceTimeRecorder() {
+            SingleWriterRecorder tmpRecorder = serviceTimeRecorder;
+            if (tmpRecorder == null) {
+                tmpRecorder = new SingleWriterRecorder(LATENCY_PRECISION);
+                serviceTimeRecorder = tmpRecorder;
+            }
+            return tmpRecorder;
+        }
+    }
+}
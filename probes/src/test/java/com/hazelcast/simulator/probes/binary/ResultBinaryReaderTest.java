@@ -0,0 +1,123 @@
+package com.hazelcast.simulator.probes.binary;
+
+import com.hazelcast.simulator.probes.Result;
+import com.hazelcast.simulator.probes.impl.ResultImpl;
+import org.HdrHistogram.Histogram;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static com.hazelcast.simulator.probes.ProbeTestUtils.assertEqualsResult;
+import static com.hazelcast.simulator.probes.ProbeTestUtils.createProbeResult;
+import static com.hazelcast.simulator.probes.binary.ResultBinaryWriter.MAGIC_NUMBER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class ResultBinaryReaderTest {
+
+    @Test
+    public void testReadResult_multipleResults() throws Exception {
+        Result first = createProbeResult(2);
+        Result second = createProbeResult(1);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ResultBinaryWriter writer = new ResultBinaryWriter(outputStream);
+        writer.writeResult(first);
+        writer.writeResult(second);
+        writer.close();
+
+        ResultBinaryReader reader = new ResultBinaryReader(new ByteArrayInputStream(outputStream.toByteArray()));
+        assertEqualsResult(first, reader.readResult());
+        assertEqualsResult(second, reader.readResult());
+        assertNull(reader.readResult());
+        reader.close();
+    }
+
+    @Test
+    public void testReadResult_withoutResult() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new ResultBinaryWriter(outputStream).close();
+
+        ResultBinaryReader reader = new ResultBinaryReader(new ByteArrayInputStream(outputStream.toByteArray()));
+        assertNull(reader.readResult());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_invalidMagicNumber() throws Exception {
+        new ResultBinaryReader(new ByteArrayInputStream(createHeader(42, ResultBinaryWriter.FORMAT_VERSION)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_unsupportedVersion() throws Exception {
+        new ResultBinaryReader(new ByteArrayInputStream(createHeader(MAGIC_NUMBER, ResultBinaryWriter.FORMAT_VERSION + 1)));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadResult_truncatedStream() throws Exception {
+        Result result = new ResultImpl("test", 1000, 500.0);
+        result.addHistogram("probe", new Histogram(3));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ResultBinaryWriter writer = new ResultBinaryWriter(outputStream);
+        writer.writeResult(result);
+        writer.close();
+
+        byte[] bytes = outputStream.toByteArray();
+        byte[] truncatedBytes = Arrays.copyOf(bytes, bytes.length - 1);
+
+        new ResultBinaryReader(new ByteArrayInputStream(truncatedBytes)).readResult();
+    }
+
+    @Test
+    public void testReadResult_negativeHistogramLength() throws Exception {
+        ResultBinaryReader reader = new ResultBinaryReader(new ByteArrayInputStream(createResult(-1, new byte[0])));
+        try {
+            reader.readResult();
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertEquals("Invalid length -1 of histogram probe", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testReadResult_histogramLengthExceedsStream() throws Exception {
+        byte[] bytes = createResult(Integer.MAX_VALUE, new byte[10]);
+
+        ResultBinaryReader reader = new ResultBinaryReader(new ByteArrayInputStream(bytes));
+        try {
+            reader.readResult();
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertEquals("Invalid length 2147483647 of histogram probe, just 10 bytes are remaining", e.getMessage());
+        }
+    }
+
+    private static byte[] createResult(int histogramLength, byte[] histogramBytes) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.write(createHeader(MAGIC_NUMBER, ResultBinaryWriter.FORMAT_VERSION));
+        out.writeUTF("test");
+        out.writeLong(1000);
+        out.writeDouble(500.0);
+        out.writeInt(1);
+        out.writeUTF("probe");
+        out.writeInt(histogramLength);
+        out.write(histogramBytes);
+        out.close();
+        return outputStream.toByteArray();
+    }
+
+    private static byte[] createHeader(int magicNumber, int version) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(magicNumber);
+        out.writeInt(version);
+        out.close();
+        return outputStream.toByteArray();
+    }
+}
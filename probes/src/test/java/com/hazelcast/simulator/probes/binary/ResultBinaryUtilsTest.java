@@ -0,0 +1,70 @@
+package com.hazelcast.simulator.probes.binary;
+
+import com.hazelcast.simulator.probes.Result;
+import com.hazelcast.simulator.utils.FileUtilsException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+
+import static com.hazelcast.simulator.probes.ProbeTestUtils.assertEqualsResult;
+import static com.hazelcast.simulator.probes.ProbeTestUtils.createProbeResult;
+import static com.hazelcast.simulator.probes.binary.ResultBinaryUtils.fromBinary;
+import static com.hazelcast.simulator.probes.binary.ResultBinaryUtils.toBinary;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.writeText;
+import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
+
+public class ResultBinaryUtilsTest {
+
+    private final File resultFile = new File("tmpProbeResult." + ResultBinaryUtils.FILE_EXTENSION);
+
+    @After
+    public void tearDown() {
+        deleteQuiet(resultFile);
+    }
+
+    @Test
+    public void testConstructor() throws Exception {
+        invokePrivateConstructor(ResultBinaryUtils.class);
+    }
+
+    @Test
+    public void testProbeResult() {
+        assertSerialization(createProbeResult(1));
+    }
+
+    @Test
+    public void testProbeResult_multipleProbes() {
+        assertSerialization(createProbeResult(3));
+    }
+
+    @Test
+    public void testProbeResult_emptyResult() {
+        assertSerialization(createProbeResult(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromBinary_noBinaryFile() {
+        writeText("<probeResult></probeResult>", resultFile);
+
+        fromBinary(resultFile);
+    }
+
+    @Test(expected = FileUtilsException.class)
+    public void testFromBinary_fileNotFound() {
+        fromBinary(new File("notFound." + ResultBinaryUtils.FILE_EXTENSION));
+    }
+
+    @Test(expected = FileUtilsException.class)
+    public void testToBinary_directoryNotFound() {
+        toBinary(createProbeResult(1), new File("notExistingDirectory", "result." + ResultBinaryUtils.FILE_EXTENSION));
+    }
+
+    private void assertSerialization(Result expected) {
+        toBinary(expected, resultFile);
+        Result actual = fromBinary(resultFile);
+
+        assertEqualsResult(expected, actual);
+    }
+}
@@ -0,0 +1,57 @@
+package com.hazelcast.simulator.probes.impl;
+
+import org.HdrHistogram.Histogram;
+import org.junit.Test;
+
+import static com.hazelcast.simulator.probes.impl.HistogramUtils.decodeHistogram;
+import static com.hazelcast.simulator.probes.impl.HistogramUtils.encodeHistogram;
+import static com.hazelcast.simulator.probes.impl.HistogramUtils.fromCompressedBytes;
+import static com.hazelcast.simulator.probes.impl.HistogramUtils.toCompressedBytes;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
+import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
+import static org.junit.Assert.assertEquals;
+
+public class HistogramUtilsTest {
+
+    @Test
+    public void testConstructor() throws Exception {
+        invokePrivateConstructor(HistogramUtils.class);
+    }
+
+    @Test
+    public void testEncodeAndDecode() {
+        Histogram histogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        histogram.recordValueWithCount(100, 1000);
+        histogram.recordValue(10000);
+
+        Histogram decoded = decodeHistogram(encodeHistogram(histogram));
+
+        assertEquals(histogram, decoded);
+        assertEquals(1001, decoded.getTotalCount());
+        assertEquals(10000, decoded.getMaxValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecode_invalidHistogram() {
+        decodeHistogram("aW52YWxpZA==");
+    }
+
+    @Test
+    public void testToAndFromCompressedBytes() {
+        Histogram histogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        histogram.recordValueWithCount(100, 1000);
+        histogram.recordValue(10000);
+
+        Histogram decoded = fromCompressedBytes(toCompressedBytes(histogram));
+
+        assertEquals(histogram, decoded);
+        assertEquals(1001, decoded.getTotalCount());
+        assertEquals(10000, decoded.getMaxValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromCompressedBytes_invalidHistogram() {
+        fromCompressedBytes("invalid".getBytes());
+    }
+}
@@ -1,13 +1,18 @@
 package com.hazelcast.simulator.probes.impl;
 
 import com.hazelcast.simulator.probes.Probe;
+import org.HdrHistogram.Histogram;
 import org.junit.Test;
 
 import java.util.concurrent.TimeUnit;
 
 import static com.hazelcast.simulator.probes.ProbeTestUtils.assertHistogram;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepNanos;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class ProbeImplTest {
@@ -65,6 +70,34 @@ public class ProbeImplTest {
         probe.done(-23);
     }
 
+    @Test
+    public void testDone_withIntendedStarted() {
+        int expectedCount = 1;
+        long expectedLatency = 250;
+        long expectedServiceTime = 150;
+
+        long intendedStarted = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(expectedLatency - expectedServiceTime);
+        long started = System.nanoTime();
+        sleepNanos(TimeUnit.MILLISECONDS.toNanos(expectedServiceTime));
+        probe.done(intendedStarted, started);
+
+        assertHistogram(probe.getIntervalHistogram(), expectedCount, expectedLatency, expectedLatency, expectedLatency);
+        assertHistogram(probe.getServiceTimeIntervalHistogram(), expectedCount, expectedServiceTime, expectedServiceTime,
+                expectedServiceTime);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDone_withIntendedStarted_withZero() {
+        probe.done(0, System.nanoTime());
+    }
+
+    @Test
+    public void testGetServiceTimeIntervalHistogram_withoutServiceTime() {
+        probe.recordValue(TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertNull(probe.getServiceTimeIntervalHistogram());
+    }
+
     @Test
     public void testRecordValues() {
         int expectedCount = 3;
@@ -79,4 +112,43 @@ public class ProbeImplTest {
 
         assertHistogram(probe.getIntervalHistogram(), expectedCount, expectedMinValue, expectedMaxValue, expectedMeanValue);
     }
+
+    @Test
+    public void testRecordValues_withHistogram() {
+        long expectedMinValue = 200;
+        long expectedMaxValue = 1000;
+        long expectedMeanValue = 600;
+
+        Histogram latencyHistogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        latencyHistogram.recordValueWithCount(TimeUnit.MILLISECONDS.toMicros(expectedMinValue), 500);
+        latencyHistogram.recordValueWithCount(TimeUnit.MILLISECONDS.toMicros(expectedMaxValue), 500);
+
+        probe.recordValues(latencyHistogram);
+
+        assertHistogram(probe.getIntervalHistogram(), 1000, expectedMinValue, expectedMaxValue, expectedMeanValue);
+    }
+
+    @Test
+    public void testRecordValues_withHistogram_isResetAfterInterval() {
+        Histogram latencyHistogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        latencyHistogram.recordValueWithCount(TimeUnit.MILLISECONDS.toMicros(200), 500);
+
+        probe.recordValues(latencyHistogram);
+        probe.recordValue(TimeUnit.MILLISECONDS.toNanos(200));
+
+        assertEquals(501, probe.getIntervalHistogram().getTotalCount());
+        assertEquals(0, probe.getIntervalHistogram().getTotalCount());
+    }
+
+    @Test
+    public void testRecordValues_withHistogram_exceedingMaximumLatency() {
+        Histogram latencyHistogram = new Histogram(3);
+        latencyHistogram.recordValue(MAXIMUM_LATENCY * 2);
+
+        probe.recordValues(latencyHistogram);
+
+        Histogram intervalHistogram = probe.getIntervalHistogram();
+        assertEquals(1, intervalHistogram.getTotalCount());
+        assertTrue(intervalHistogram.valuesAreEquivalent(MAXIMUM_LATENCY, intervalHistogram.getMaxValue()));
+    }
 }
@@ -0,0 +1,213 @@
+package com.hazelcast.simulator.probes.impl;
+
+import com.hazelcast.simulator.probes.Probe;
+import org.HdrHistogram.Histogram;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.probes.ProbeTestUtils.assertHistogram;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
+import static com.hazelcast.simulator.utils.CommonUtils.sleepNanos;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ThreadLocalProbeImplTest {
+
+    private static final int THREAD_COUNT = 4;
+    private static final int RECORDS_PER_THREAD = 10000;
+
+    private ThreadLocalProbeImpl probe = new ThreadLocalProbeImpl(false);
+
+    @Test
+    public void testConstructor_throughputProbe() {
+        Probe tmpProbe = new ThreadLocalProbeImpl(true);
+        assertTrue(tmpProbe.isThroughputProbe());
+    }
+
+    @Test
+    public void testConstructor_noThroughputProbe() {
+        Probe tmpProbe = new ThreadLocalProbeImpl(false);
+        assertFalse(tmpProbe.isThroughputProbe());
+    }
+
+    @Test
+    public void testDone_withStarted() {
+        int expectedCount = 1;
+        long expectedLatency = 150;
+
+        probe.started();
+        sleepNanos(TimeUnit.MILLISECONDS.toNanos(expectedLatency));
+        probe.done();
+
+        assertHistogram(probe.getIntervalHistogram(), expectedCount, expectedLatency, expectedLatency, expectedLatency);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDone_withoutStarted() {
+        probe.done();
+    }
+
+    @Test
+    public void testDone_withExternalStarted() {
+        int expectedCount = 1;
+        long expectedLatency = 150;
+
+        long started = System.nanoTime();
+        sleepNanos(TimeUnit.MILLISECONDS.toNanos(expectedLatency));
+        probe.done(started);
+
+        assertHistogram(probe.getIntervalHistogram(), expectedCount, expectedLatency, expectedLatency, expectedLatency);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDone_withExternalStarted_withZero() {
+        probe.done(0);
+    }
+
+    @Test
+    public void testDone_withIntendedStarted() {
+        int expectedCount = 1;
+        long expectedLatency = 250;
+        long expectedServiceTime = 150;
+
+        long intendedStarted = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(expectedLatency - expectedServiceTime);
+        long started = System.nanoTime();
+        sleepNanos(TimeUnit.MILLISECONDS.toNanos(expectedServiceTime));
+        probe.done(intendedStarted, started);
+
+        assertHistogram(probe.getIntervalHistogram(), expectedCount, expectedLatency, expectedLatency, expectedLatency);
+        assertHistogram(probe.getServiceTimeIntervalHistogram(), expectedCount, expectedServiceTime, expectedServiceTime,
+                expectedServiceTime);
+    }
+
+    @Test
+    public void testGetServiceTimeIntervalHistogram_withoutServiceTime() {
+        probe.recordValue(TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertNull(probe.getServiceTimeIntervalHistogram());
+    }
+
+    @Test
+    public void testRecordValues() {
+        int expectedCount = 3;
+        long latencyValue = 500;
+        long expectedMinValue = 200;
+        long expectedMaxValue = 1000;
+        long expectedMeanValue = (long) ((latencyValue + expectedMinValue + expectedMaxValue) / (double) expectedCount);
+
+        probe.recordValue(TimeUnit.MILLISECONDS.toNanos(latencyValue));
+        probe.recordValue(TimeUnit.MILLISECONDS.toNanos(expectedMinValue));
+        probe.recordValue(TimeUnit.MILLISECONDS.toNanos(expectedMaxValue));
+
+        assertHistogram(probe.getIntervalHistogram(), expectedCount, expectedMinValue, expectedMaxValue, expectedMeanValue);
+    }
+
+    @Test
+    public void testRecordValues_withHistogram() {
+        long expectedMinValue = 200;
+        long expectedMaxValue = 1000;
+        long expectedMeanValue = 600;
+
+        Histogram latencyHistogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        latencyHistogram.recordValueWithCount(TimeUnit.MILLISECONDS.toMicros(expectedMinValue), 500);
+        latencyHistogram.recordValueWithCount(TimeUnit.MILLISECONDS.toMicros(expectedMaxValue), 500);
+
+        probe.recordValues(latencyHistogram);
+
+        assertHistogram(probe.getIntervalHistogram(), 1000, expectedMinValue, expectedMaxValue, expectedMeanValue);
+    }
+
+    @Test
+    public void testRecordValues_withHistogram_isResetAfterInterval() {
+        Histogram latencyHistogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        latencyHistogram.recordValueWithCount(TimeUnit.MILLISECONDS.toMicros(200), 500);
+
+        probe.recordValues(latencyHistogram);
+        probe.recordValue(TimeUnit.MILLISECONDS.toNanos(200));
+
+        assertEquals(501, probe.getIntervalHistogram().getTotalCount());
+        assertEquals(0, probe.getIntervalHistogram().getTotalCount());
+    }
+
+    @Test
+    public void testRecordValues_withHistogram_exceedingMaximumLatency() {
+        Histogram latencyHistogram = new Histogram(3);
+        latencyHistogram.recordValue(MAXIMUM_LATENCY * 2);
+
+        probe.recordValues(latencyHistogram);
+
+        Histogram intervalHistogram = probe.getIntervalHistogram();
+        assertEquals(1, intervalHistogram.getTotalCount());
+        assertTrue(intervalHistogram.valuesAreEquivalent(MAXIMUM_LATENCY, intervalHistogram.getMaxValue()));
+    }
+
+    @Test
+    public void testGetIntervalHistogram_mergesAllThreads() throws Exception {
+        Thread[] threads = new Thread[THREAD_COUNT];
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            final long latencyNanos = TimeUnit.MILLISECONDS.toNanos(i + 1);
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int record = 0; record < RECORDS_PER_THREAD; record++) {
+                        probe.recordValue(latencyNanos);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(THREAD_COUNT, probe.getThreadCount());
+
+        Histogram intervalHistogram = probe.getIntervalHistogram();
+        assertEquals(THREAD_COUNT * RECORDS_PER_THREAD, intervalHistogram.getTotalCount());
+        assertEquals(RECORDS_PER_THREAD, intervalHistogram.getCountAtValue(TimeUnit.MILLISECONDS.toMicros(1)));
+        assertEquals(RECORDS_PER_THREAD, intervalHistogram.getCountAtValue(TimeUnit.MILLISECONDS.toMicros(THREAD_COUNT)));
+
+        // the next interval starts empty
+        assertEquals(0, probe.getIntervalHistogram().getTotalCount());
+    }
+
+    @Test
+    public void testGetIntervalHistogram_removesTerminatedThreads() throws Exception {
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                probe.recordValue(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        };
+        thread.start();
+        thread.join();
+        probe.recordValue(TimeUnit.MILLISECONDS.toNanos(1));
+
+        assertEquals(2, probe.getThreadCount());
+        assertEquals(2, probe.getIntervalHistogram().getTotalCount());
+        assertEquals(1, probe.getThreadCount());
+    }
+
+    @Test
+    public void testGetIntervalHistogram_removesTerminatedThreadsAfterServiceTimeHasBeenRetrieved() throws Exception {
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                long started = System.nanoTime();
+                probe.done(started, started);
+            }
+        };
+        thread.start();
+        thread.join();
+
+        assertEquals(1, probe.getIntervalHistogram().getTotalCount());
+        assertEquals(1, probe.getThreadCount());
+
+        assertEquals(1, probe.getServiceTimeIntervalHistogram().getTotalCount());
+        assertEquals(0, probe.getThreadCount());
+    }
+}
@@ -15,8 +15,10 @@
  */
 package com.hazelcast.simulator.agent;
 
+import com.hazelcast.simulator.agent.workerjvm.WorkerClassDataSharing;
 import com.hazelcast.simulator.agent.workerjvm.WorkerJvmFailureMonitor;
 import com.hazelcast.simulator.agent.workerjvm.WorkerJvmManager;
+import com.hazelcast.simulator.agent.workerjvm.WorkerJvmPool;
 import com.hazelcast.simulator.common.CoordinatorLogger;
 import com.hazelcast.simulator.common.ShutdownThread;
 import com.hazelcast.simulator.protocol.connector.AgentConnector;
@@ -46,6 +48,8 @@ public class Agent {
     private final File pidFile = new File("agent.pid");
 
     private final WorkerJvmManager workerJvmManager = new WorkerJvmManager();
+    private final WorkerJvmPool workerJvmPool = new WorkerJvmPool();
+    private final WorkerClassDataSharing workerClassDataSharing = new WorkerClassDataSharing();
 
     private final int addressIndex;
     private final String publicAddress;
@@ -62,7 +66,7 @@ public class Agent {
     private volatile TestSuite testSuite;
 
     public Agent(int addressIndex, String publicAddress, int port, String cloudProvider, String cloudIdentity,
-                 String cloudCredential, int threadPoolSize, int workerLastSeenTimeoutSeconds) {
+                 String cloudCredential, int threadPoolSize, int workerLastSeenTimeoutSeconds, int maxInFlightMessages) {
         SHUTDOWN_STARTED.set(false);
 
         this.addressIndex = addressIndex;
@@ -75,7 +79,8 @@ public class Agent {
 
         this.workerJvmFailureMonitor = new WorkerJvmFailureMonitor(this, workerJvmManager, workerLastSeenTimeoutSeconds);
 
-        this.agentConnector = AgentConnector.createInstance(this, workerJvmManager, port, threadPoolSize);
+        this.agentConnector = AgentConnector.createInstance(this, workerJvmManager, port, threadPoolSize,
+                maxInFlightMessages);
         this.agentConnector.start();
 
         this.coordinatorLogger = new CoordinatorLogger(agentConnector);
@@ -116,7 +121,17 @@ public class Agent {
         return workerJvmFailureMonitor;
     }
 
+    public WorkerJvmPool getWorkerJvmPool() {
+        return workerJvmPool;
+    }
+
+    public WorkerClassDataSharing getWorkerClassDataSharing() {
+        return workerClassDataSharing;
+    }
+
     public void setTestSuite(TestSuite testSuite) {
+        // the pooled Worker JVMs have the libraries of the old testsuite on their classpath
+        workerJvmPool.clear();
         this.testSuite = testSuite;
     }
 
@@ -193,9 +208,14 @@ public class Agent {
 
         @Override
         public void doRun() {
+            LOGGER.info("Stopping pooled Worker JVMs...");
+            workerJvmPool.shutdown();
+
             LOGGER.info("Stopping workers...");
             workerJvmManager.shutdown();
 
+            workerClassDataSharing.shutdown();
+
             LOGGER.info("Stopping WorkerJvmFailureMonitor...");
             workerJvmFailureMonitor.shutdown();
 
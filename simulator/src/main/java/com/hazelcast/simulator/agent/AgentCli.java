@@ -24,6 +24,7 @@ import joptsimple.OptionSpec;
 final class AgentCli {
 
     private static final int DEFAULT_WORKER_LAST_SEEN_TIMEOUT_SECONDS = 180;
+    private static final int DEFAULT_MAX_IN_FLIGHT_MESSAGES = 32;
 
     private final OptionParser parser = new OptionParser();
 
@@ -47,6 +48,10 @@ final class AgentCli {
             "Timeout value for worker timeout detection.")
             .withRequiredArg().ofType(Integer.class).defaultsTo(DEFAULT_WORKER_LAST_SEEN_TIMEOUT_SECONDS);
 
+    private final OptionSpec<Integer> maxInFlightMessagesSpec = parser.accepts("maxInFlightMessages",
+            "Maximum number of messages to the Coordinator which wait for a response.")
+            .withRequiredArg().ofType(Integer.class).defaultsTo(DEFAULT_MAX_IN_FLIGHT_MESSAGES);
+
     private final OptionSpec<String> cloudProviderSpec = parser.accepts("cloudProvider",
             "The cloud provider for this Agent.")
             .withRequiredArg().ofType(String.class);
@@ -86,8 +91,9 @@ final class AgentCli {
         String cloudCredential = options.valueOf(agentCli.cloudCredentialSpec);
         Integer threadPoolSize = options.valueOf(agentCli.threadPoolSizeSpec);
         Integer workerLastSeenTimeoutSeconds = options.valueOf(agentCli.workerLastSeenTimeoutSecondsSpec);
+        Integer maxInFlightMessages = options.valueOf(agentCli.maxInFlightMessagesSpec);
 
         return new Agent(addressIndex, publicAddress, port, cloudProvider, cloudIdentity, cloudCredential, threadPoolSize,
-                workerLastSeenTimeoutSeconds);
+                workerLastSeenTimeoutSeconds, maxInFlightMessages);
     }
 }
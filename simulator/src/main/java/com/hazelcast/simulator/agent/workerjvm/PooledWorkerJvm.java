@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.agent.workerjvm;
+
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Properties;
+
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+
+/**
+ * An idle Worker JVM in the {@link WorkerJvmPool}, which runs the {@link com.hazelcast.simulator.worker.WorkerBootstrap}.
+ */
+final class PooledWorkerJvm {
+
+    private static final Logger LOGGER = Logger.getLogger(PooledWorkerJvm.class);
+
+    private final Process process;
+    private final File home;
+
+    PooledWorkerJvm(Process process, File home) {
+        this.process = process;
+        this.home = home;
+    }
+
+    Process getProcess() {
+        return process;
+    }
+
+    File getHome() {
+        return home;
+    }
+
+    boolean isAlive() {
+        try {
+            process.exitValue();
+            return false;
+        } catch (IllegalThreadStateException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Assigns the JVM to a Worker by writing the Worker settings to stdin of the JVM.
+     *
+     * @param workerProperties the system properties of the Worker
+     * @throws IOException if the settings could not be written, e.g. because the JVM has died
+     */
+    void assign(Map<String, String> workerProperties) throws IOException {
+        Properties settings = new Properties();
+        settings.putAll(workerProperties);
+
+        OutputStream outputStream = process.getOutputStream();
+        try {
+            settings.store(outputStream, null);
+        } finally {
+            closeQuietly(outputStream);
+        }
+    }
+
+    /**
+     * Stops the idle JVM and removes its directory.
+     *
+     * Closing stdin lets the {@link com.hazelcast.simulator.worker.WorkerBootstrap} exit on its own, the process is destroyed
+     * in addition in case it's still loading classes. The start script replaces the shell with the JVM, so the process is the
+     * JVM itself and not a wrapping shell, which would leave the JVM running.
+     */
+    void destroy() {
+        closeQuietly(process.getOutputStream());
+        try {
+            process.destroy();
+            process.waitFor();
+        } catch (InterruptedException e) {
+            LOGGER.warn("Interrupted while waiting for pooled Worker JVM in " + home);
+            Thread.currentThread().interrupt();
+        }
+        deleteQuiet(home);
+    }
+
+    @Override
+    public String toString() {
+        return "PooledWorkerJvm{home=" + home + '}';
+    }
+}
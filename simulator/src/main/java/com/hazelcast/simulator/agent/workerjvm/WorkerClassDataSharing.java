@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.agent.workerjvm;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static com.hazelcast.simulator.utils.ExecutorFactory.createCachedThreadPool;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
+import static com.hazelcast.simulator.utils.FileUtils.getSimulatorHome;
+import static com.hazelcast.simulator.utils.FormatUtils.NEW_LINE;
+import static java.lang.String.format;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+
+/**
+ * Creates and reuses Application Class-Data Sharing (AppCDS) archives for the Worker JVMs.
+ *
+ * An archive is created per Java installation, classpath and JVM options. The classpath is the Simulator and Hazelcast part
+ * of the Worker classpath, so the archive can be reused by later testsuites, which only append their own libraries.
+ *
+ * The first Worker JVM records its loaded classes with {@code -XX:DumpLoadedClassList}. When this JVM has exited, the archive
+ * is dumped from the recorded class list in the background. All Worker JVMs started afterwards map the archive with
+ * {@code -XX:SharedArchiveFile}. The JVM just ignores an archive which doesn't match its classpath, so a stale archive never
+ * prevents a Worker from starting.
+ *
+ * The JVM options are only supported since Java 11, for older Java versions no JVM options are added.
+ */
+public class WorkerClassDataSharing {
+
+    static final int MIN_JAVA_VERSION = 11;
+
+    private static final String RECORD_CLASS_LIST_OPTION = "-XX:DumpLoadedClassList=";
+
+    private static final Logger LOGGER = Logger.getLogger(WorkerClassDataSharing.class);
+
+    private enum State {
+        RECORDING,
+        DUMPING,
+        FAILED
+    }
+
+    private final Map<String, State> states = new HashMap<String, State>();
+    private final ExecutorService executorService = createCachedThreadPool(WorkerClassDataSharing.class);
+
+    private final File archiveDirectory;
+    private final String javaHome;
+    private final boolean isSupported;
+
+    public WorkerClassDataSharing() {
+        this(new File(getSimulatorHome(), "cds"), System.getProperty("java.home"),
+                getJavaVersion(System.getProperty("java.specification.version")));
+    }
+
+    WorkerClassDataSharing(File archiveDirectory, String javaHome, int javaVersion) {
+        this.archiveDirectory = archiveDirectory;
+        this.javaHome = javaHome;
+        this.isSupported = (javaVersion >= MIN_JAVA_VERSION);
+    }
+
+    /**
+     * Returns the JVM options for a new Worker JVM.
+     *
+     * If the archive exists, the options to map the archive are returned. Otherwise the options to record the loaded classes
+     * are returned, if requested and no other JVM is recording them yet.
+     *
+     * @param classpath       the Simulator and Hazelcast part of the Worker classpath
+     * @param jvmOptions      the JVM options of the Worker
+     * @param recordClassList {@code true} if the new JVM should record its loaded classes if needed
+     * @return the JVM options for class-data sharing
+     */
+    public synchronized List<String> getJvmOptions(String classpath, String jvmOptions, boolean recordClassList) {
+        if (!isSupported) {
+            return emptyList();
+        }
+
+        String archiveId = getArchiveId(classpath, jvmOptions);
+        File archive = getArchive(archiveId);
+        if (archive.exists()) {
+            return singletonList("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+        }
+        if (states.containsKey(archiveId)) {
+            return emptyList();
+        }
+
+        File classList = getClassList(archiveId);
+        if (classList.exists()) {
+            // the class list was recorded by an earlier Agent, so we can dump the archive right away
+            states.put(archiveId, State.DUMPING);
+            executorService.execute(new DumpTask(archiveId, classpath, jvmOptions, null));
+            return emptyList();
+        }
+        if (!recordClassList) {
+            return emptyList();
+        }
+
+        ensureExistingDirectory(archiveDirectory);
+        states.put(archiveId, State.RECORDING);
+        LOGGER.info(format("Recording class list for class-data sharing archive %s", archive));
+        return singletonList(RECORD_CLASS_LIST_OPTION + classList.getAbsolutePath());
+    }
+
+    /**
+     * Dumps the archive in the background, once the given Worker JVM has exited.
+     *
+     * Should be called for every started Worker JVM, whose JVM options contain the option to record the loaded classes.
+     *
+     * @param classpath  the Simulator and Hazelcast part of the Worker classpath
+     * @param jvmOptions the JVM options of the Worker
+     * @param process    the process of the Worker JVM which records the loaded classes
+     */
+    public synchronized void dumpArchiveOnExit(String classpath, String jvmOptions, Process process) {
+        String archiveId = getArchiveId(classpath, jvmOptions);
+        if (states.get(archiveId) != State.RECORDING) {
+            return;
+        }
+        states.put(archiveId, State.DUMPING);
+        executorService.execute(new DumpTask(archiveId, classpath, jvmOptions, process));
+    }
+
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    static boolean isRecordingClassList(List<String> jvmOptions) {
+        for (String jvmOption : jvmOptions) {
+            if (jvmOption.startsWith(RECORD_CLASS_LIST_OPTION)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static int getJavaVersion(String specificationVersion) {
+        if (specificationVersion == null) {
+            return 0;
+        }
+        // Java 8 and older use the 1.x scheme
+        String version = specificationVersion.startsWith("1.") ? specificationVersion.substring(2) : specificationVersion;
+        try {
+            return Integer.parseInt(version);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    String getArchiveId(String classpath, String jvmOptions) {
+        // a collision would map an archive of another classpath, so we use a cryptographic digest instead of the hash code
+        String key = javaHome + '|' + classpath + '|' + jvmOptions;
+        return "worker-" + DigestUtils.sha256Hex(key);
+    }
+
+    File getArchive(String archiveId) {
+        return new File(archiveDirectory, archiveId + ".jsa");
+    }
+
+    File getClassList(String archiveId) {
+        return new File(archiveDirectory, archiveId + ".classlist");
+    }
+
+    private synchronized void dumpFinished(String archiveId, boolean success) {
+        if (success) {
+            states.remove(archiveId);
+        } else {
+            states.put(archiveId, State.FAILED);
+            deleteQuiet(getClassList(archiveId));
+        }
+    }
+
+    private final class DumpTask implements Runnable {
+
+        private final String archiveId;
+        private final String classpath;
+        private final String jvmOptions;
+        private final Process recordingProcess;
+
+        private DumpTask(String archiveId, String classpath, String jvmOptions, Process recordingProcess) {
+            this.archiveId = archiveId;
+            this.classpath = classpath;
+            this.jvmOptions = jvmOptions;
+            this.recordingProcess = recordingProcess;
+        }
+
+        @Override
+        public void run() {
+            boolean success = false;
+            try {
+                if (recordingProcess != null) {
+                    recordingProcess.waitFor();
+                }
+                success = dump();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                LOGGER.warn(format("Could not create class-data sharing archive %s", getArchive(archiveId)), e);
+            } finally {
+                dumpFinished(archiveId, success);
+            }
+        }
+
+        private boolean dump() throws IOException, InterruptedException {
+            File archive = getArchive(archiveId);
+            File tmpArchive = new File(archiveDirectory, archiveId + ".jsa.tmp");
+
+            List<String> command = new ArrayList<String>();
+            command.add(new File(javaHome, "bin/java").getAbsolutePath());
+            command.add("-Xshare:dump");
+            command.add("-XX:SharedClassListFile=" + getClassList(archiveId).getAbsolutePath());
+            command.add("-XX:SharedArchiveFile=" + tmpArchive.getAbsolutePath());
+            if (jvmOptions != null && !jvmOptions.trim().isEmpty()) {
+                for (String jvmOption : jvmOptions.trim().split("\\s+")) {
+                    command.add(jvmOption);
+                }
+            }
+            command.add("-classpath");
+            command.add(classpath);
+
+            LOGGER.info(format("Dumping class-data sharing archive %s...", archive));
+            Process process = new ProcessBuilder(command)
+                    .directory(archiveDirectory)
+                    .redirectErrorStream(true)
+                    .start();
+            String output = readOutput(process);
+            int exitCode = process.waitFor();
+
+            if (exitCode != 0 || !tmpArchive.renameTo(archive)) {
+                LOGGER.warn(format("Could not create class-data sharing archive %s (exit code %d):%n%s", archive, exitCode,
+                        output));
+                deleteQuiet(tmpArchive);
+                return false;
+            }
+            LOGGER.info(format("Created class-data sharing archive %s", archive));
+            return true;
+        }
+
+        private String readOutput(Process process) throws IOException {
+            StringBuilder sb = new StringBuilder();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8"));
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    sb.append(line).append(NEW_LINE);
+                }
+            } finally {
+                closeQuietly(reader);
+            }
+            return sb.toString();
+        }
+    }
+}
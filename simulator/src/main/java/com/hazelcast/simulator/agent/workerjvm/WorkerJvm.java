@@ -18,18 +18,22 @@ package com.hazelcast.simulator.agent.workerjvm;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 
 import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class WorkerJvm {
 
     private final SimulatorAddress address;
     private final String id;
     private final File workerHome;
+    private final CountDownLatch startedLatch = new CountDownLatch(1);
 
     private volatile long lastSeen = System.currentTimeMillis();
     private volatile boolean oomeDetected;
     private volatile boolean isFinished;
     private volatile Process process;
     private volatile String hzAddress;
+    private volatile long workerHomeLastModified;
 
     WorkerJvm(SimulatorAddress address, String id, File workerHome) {
         this.address = address;
@@ -89,7 +93,20 @@ public class WorkerJvm {
         return hzAddress;
     }
 
-    public void setHzAddress(String memberAddress) {
+    public void setStarted(String memberAddress) {
         this.hzAddress = memberAddress;
+        startedLatch.countDown();
+    }
+
+    public boolean awaitStarted(long timeout, TimeUnit timeUnit) throws InterruptedException {
+        return startedLatch.await(timeout, timeUnit);
+    }
+
+    public long getWorkerHomeLastModified() {
+        return workerHomeLastModified;
+    }
+
+    public void setWorkerHomeLastModified(long workerHomeLastModified) {
+        this.workerHomeLastModified = workerHomeLastModified;
     }
 }
@@ -23,11 +23,14 @@ import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.core.SimulatorProtocolException;
 import com.hazelcast.simulator.protocol.operation.FailureOperation;
 import com.hazelcast.simulator.test.FailureType;
+import com.hazelcast.simulator.utils.FileUtilsException;
 import org.apache.log4j.Logger;
 
 import java.io.File;
 import java.io.FilenameFilter;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.simulator.test.FailureType.WORKER_EXCEPTION;
 import static com.hazelcast.simulator.test.FailureType.WORKER_EXIT;
@@ -35,9 +38,11 @@ import static com.hazelcast.simulator.test.FailureType.WORKER_FINISHED;
 import static com.hazelcast.simulator.test.FailureType.WORKER_OOM;
 import static com.hazelcast.simulator.test.FailureType.WORKER_TIMEOUT;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
+import static com.hazelcast.simulator.utils.ExecutorFactory.createFixedThreadPool;
 import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
 import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
 import static com.hazelcast.simulator.utils.FileUtils.rename;
+import static com.hazelcast.simulator.utils.FileUtils.writeText;
 import static com.hazelcast.simulator.utils.FormatUtils.NEW_LINE;
 import static java.lang.String.format;
 
@@ -45,24 +50,68 @@ public class WorkerJvmFailureMonitor {
 
     private static final int DEFAULT_CHECK_INTERVAL_MILLIS = (int) TimeUnit.SECONDS.toMillis(1);
 
+    // the modification time of a directory has a resolution of 2 seconds on some file systems
+    private static final long MODIFICATION_TIME_RESOLUTION_MILLIS = TimeUnit.SECONDS.toMillis(2);
+
     private static final Logger LOGGER = Logger.getLogger(WorkerJvmFailureMonitor.class);
 
-    private final MonitorThread monitorThread;
+    private final AtomicInteger failureCount = new AtomicInteger();
+    private final AtomicInteger exceptionFileCount = new AtomicInteger();
+
+    // a single thread keeps the order of the exceptions of a Worker
+    private final ExecutorService exceptionExecutor = createFixedThreadPool(1, WorkerJvmFailureMonitor.class);
 
-    private int failureCount;
+    private final Agent agent;
+    private final MonitorThread monitorThread;
 
     public WorkerJvmFailureMonitor(Agent agent, WorkerJvmManager workerJvmManager, int lastSeenTimeoutSeconds) {
         this(agent, workerJvmManager, lastSeenTimeoutSeconds, DEFAULT_CHECK_INTERVAL_MILLIS);
     }
 
     WorkerJvmFailureMonitor(Agent agent, WorkerJvmManager workerJvmManager, int lastSeenTimeoutSeconds, int checkIntervalMillis) {
-        monitorThread = new MonitorThread(agent, workerJvmManager, lastSeenTimeoutSeconds, checkIntervalMillis);
+        this.agent = agent;
+        this.monitorThread = new MonitorThread(workerJvmManager, lastSeenTimeoutSeconds, checkIntervalMillis);
         monitorThread.start();
     }
 
+    /**
+     * Forwards an exception, which has been sent in-band by a Worker, as failure to the Coordinator.
+     *
+     * @param workerJvm the {@link WorkerJvm} which reported the exception
+     * @param testId    the id of the test that caused the exception, can be {@code null}
+     * @param cause     the stacktrace of the exception
+     * @return {@code true} if the failure has been sent to the Coordinator, {@code false} otherwise
+     */
+    public boolean reportException(WorkerJvm workerJvm, String testId, String cause) {
+        return sendFailureOperation("Worked ran into an unhandled exception", WORKER_EXCEPTION, workerJvm, testId, cause);
+    }
+
+    /**
+     * Forwards an exception, which has been sent in-band by a Worker, asynchronously as failure to the Coordinator.
+     *
+     * The Worker gets its response right away, so it doesn't write the exception to a file on a slow Coordinator, which would
+     * report the failure twice. If the failure cannot be sent, the exception is written to a file in the Worker home, which is
+     * picked up by the monitor thread like an exception file of the Worker.
+     *
+     * @param workerJvm the {@link WorkerJvm} which reported the exception
+     * @param testId    the id of the test that caused the exception, can be {@code null}
+     * @param cause     the stacktrace of the exception
+     */
+    public void reportExceptionAsync(final WorkerJvm workerJvm, final String testId, final String cause) {
+        exceptionExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (!reportException(workerJvm, testId, cause)) {
+                    writeExceptionFile(workerJvm, testId, cause);
+                }
+            }
+        });
+    }
+
     public void shutdown() {
         monitorThread.running = false;
         monitorThread.interrupt();
+        exceptionExecutor.shutdown();
     }
 
     public void startTimeoutDetection() {
@@ -80,9 +129,65 @@ public class WorkerJvmFailureMonitor {
         }
     }
 
+    private void writeExceptionFile(WorkerJvm workerJvm, String testId, String cause) {
+        String targetFileName = "agent-" + exceptionFileCount.incrementAndGet() + ".exception";
+        File workerHome = workerJvm.getWorkerHome();
+
+        // the file is renamed when it's complete, so the monitor thread doesn't read a partial file
+        File tmpFile = new File(workerHome, targetFileName + ".tmp");
+        try {
+            writeText(testId + NEW_LINE + cause, tmpFile);
+            rename(tmpFile, new File(workerHome, targetFileName));
+        } catch (FileUtilsException e) {
+            LOGGER.fatal(format("Could not write exception file of Worker %s, the exception is lost", workerJvm.getId()), e);
+        }
+    }
+
+    private void sendFailureOperation(String message, FailureType type, WorkerJvm jvm) {
+        sendFailureOperation(message, type, jvm, null, null);
+    }
+
+    private boolean sendFailureOperation(String message, FailureType type, WorkerJvm jvm, String testId, String cause) {
+        boolean sentSuccessfully = true;
+        boolean isFailure = (type != WORKER_FINISHED);
+        SimulatorAddress workerAddress = jvm.getAddress();
+        FailureOperation operation = new FailureOperation(message, type, workerAddress, agent.getPublicAddress(),
+                jvm.getHazelcastAddress(), jvm.getId(), testId, agent.getTestSuite(), cause);
+        if (isFailure) {
+            LOGGER.error(format("Detected failure on Worker %s (%s): %s", jvm.getId(), jvm.getAddress(),
+                    operation.getLogMessage(failureCount.incrementAndGet())));
+        } else {
+            LOGGER.info(format("Worker %s (%s) finished.", jvm.getId(), jvm.getAddress()));
+        }
+
+        AgentConnector agentConnector = agent.getAgentConnector();
+        try {
+            Response response = agentConnector.write(SimulatorAddress.COORDINATOR, operation);
+            ResponseType firstErrorResponseType = response.getFirstErrorResponseType();
+            if (firstErrorResponseType != ResponseType.SUCCESS) {
+                LOGGER.error(format("Could not send failure to coordinator: %s", firstErrorResponseType));
+                sentSuccessfully = false;
+            } else if (isFailure) {
+                LOGGER.info("Failure successfully sent to Coordinator!");
+            }
+        } catch (SimulatorProtocolException e) {
+            if (!Thread.currentThread().isInterrupted() && !(e.getCause() instanceof InterruptedException)) {
+                LOGGER.error(format("Could not send failure to coordinator! %s", operation.getFileMessage()), e);
+                sentSuccessfully = false;
+            }
+        }
+
+        if (type.isWorkerFinishedFailure()) {
+            String finishedType = (isFailure) ? "failed" : "finished";
+            LOGGER.info(format("Removing %s Worker %s from configuration...", finishedType, workerAddress));
+            agentConnector.removeWorker(workerAddress.getWorkerIndex());
+        }
+
+        return sentSuccessfully;
+    }
+
     private final class MonitorThread extends Thread {
 
-        private final Agent agent;
         private final WorkerJvmManager workerJvmManager;
         private final int lastSeenTimeoutSeconds;
         private final int checkIntervalMillis;
@@ -90,12 +195,10 @@ public class WorkerJvmFailureMonitor {
         private volatile boolean running = true;
         private volatile boolean detectTimeouts;
 
-        private MonitorThread(Agent agent, WorkerJvmManager workerJvmManager, int lastSeenTimeoutSeconds,
-                              int checkIntervalMillis) {
+        private MonitorThread(WorkerJvmManager workerJvmManager, int lastSeenTimeoutSeconds, int checkIntervalMillis) {
             super("WorkerJvmFailureMonitorThread");
             setDaemon(true);
 
-            this.agent = agent;
             this.workerJvmManager = workerJvmManager;
             this.lastSeenTimeoutSeconds = lastSeenTimeoutSeconds;
             this.checkIntervalMillis = checkIntervalMillis;
@@ -124,21 +227,40 @@ public class WorkerJvmFailureMonitor {
             if (workerJvm.isFinished()) {
                 return;
             }
-            detectExceptions(workerJvm);
+            boolean isWorkerHomeChanged = isWorkerHomeChanged(workerJvm);
+            if (isWorkerHomeChanged) {
+                detectExceptions(workerJvm);
+            }
             if (workerJvm.isOomeDetected()) {
                 return;
             }
-            detectOomeFailure(workerJvm);
+            if (isWorkerHomeChanged) {
+                detectOomeFailure(workerJvm);
+            }
             detectInactivity(workerJvm);
             detectUnexpectedExit(workerJvm);
         }
 
-        private void detectExceptions(WorkerJvm workerJvm) {
-            File workerHome = workerJvm.getWorkerHome();
-            if (!workerHome.exists()) {
-                return;
+        /**
+         * Checks if a file has been created, renamed or deleted in the Worker home since the last check.
+         *
+         * Listing the files of a large Worker home every second is expensive, so we just compare the modification time of the
+         * directory. Since the modification time has a coarse resolution, a recently modified directory is always scanned.
+         */
+        private boolean isWorkerHomeChanged(WorkerJvm workerJvm) {
+            long lastModified = workerJvm.getWorkerHome().lastModified();
+            if (lastModified == 0) {
+                // the Worker home doesn't exist
+                return false;
             }
+            boolean isChanged = (lastModified != workerJvm.getWorkerHomeLastModified()
+                    || System.currentTimeMillis() - lastModified <= MODIFICATION_TIME_RESOLUTION_MILLIS);
+            workerJvm.setWorkerHomeLastModified(lastModified);
+            return isChanged;
+        }
 
+        private void detectExceptions(WorkerJvm workerJvm) {
+            File workerHome = workerJvm.getWorkerHome();
             File[] exceptionFiles = ExceptionExtensionFilter.listFiles(workerHome);
             for (File exceptionFile : exceptionFiles) {
                 String content = fileAsText(exceptionFile);
@@ -152,7 +274,7 @@ public class WorkerJvmFailureMonitor {
                 }
 
                 // we delete or rename the exception file so that we don't detect the same exception again
-                if (sendFailureOperation("Worked ran into an unhandled exception", WORKER_EXCEPTION, workerJvm, testId, cause)) {
+                if (reportException(workerJvm, testId, cause)) {
                     deleteQuiet(exceptionFile);
                 } else {
                     rename(exceptionFile, new File(exceptionFile.getName() + ".sendFailure"));
@@ -213,49 +335,6 @@ public class WorkerJvmFailureMonitor {
 
             sendFailureOperation(format("Worker terminated with exit code %d instead of 0", exitCode), WORKER_EXIT, workerJvm);
         }
-
-        private void sendFailureOperation(String message, FailureType type, WorkerJvm jvm) {
-            sendFailureOperation(message, type, jvm, null, null);
-        }
-
-        private boolean sendFailureOperation(String message, FailureType type, WorkerJvm jvm, String testId, String cause) {
-            boolean sentSuccessfully = true;
-            boolean isFailure = (type != WORKER_FINISHED);
-            SimulatorAddress workerAddress = jvm.getAddress();
-            FailureOperation operation = new FailureOperation(message, type, workerAddress, agent.getPublicAddress(),
-                    jvm.getHazelcastAddress(), jvm.getId(), testId, agent.getTestSuite(), cause);
-            if (isFailure) {
-                LOGGER.error(format("Detected failure on Worker %s (%s): %s", jvm.getId(), jvm.getAddress(),
-                        operation.getLogMessage(++failureCount)));
-            } else {
-                LOGGER.info(format("Worker %s (%s) finished.", jvm.getId(), jvm.getAddress()));
-            }
-
-            AgentConnector agentConnector = agent.getAgentConnector();
-            try {
-                Response response = agentConnector.write(SimulatorAddress.COORDINATOR, operation);
-                ResponseType firstErrorResponseType = response.getFirstErrorResponseType();
-                if (firstErrorResponseType != ResponseType.SUCCESS) {
-                    LOGGER.error(format("Could not send failure to coordinator: %s", firstErrorResponseType));
-                    sentSuccessfully = false;
-                } else if (isFailure) {
-                    LOGGER.info("Failure successfully sent to Coordinator!");
-                }
-            } catch (SimulatorProtocolException e) {
-                if (!isInterrupted() && !(e.getCause() instanceof InterruptedException)) {
-                    LOGGER.error(format("Could not send failure to coordinator! %s", operation.getFileMessage()), e);
-                    sentSuccessfully = false;
-                }
-            }
-
-            if (type.isWorkerFinishedFailure()) {
-                String finishedType = (isFailure) ? "failed" : "finished";
-                LOGGER.info(format("Removing %s Worker %s from configuration...", finishedType, workerAddress));
-                agentConnector.removeWorker(workerAddress.getWorkerIndex());
-            }
-
-            return sentSuccessfully;
-        }
     }
 
     static class ExceptionExtensionFilter implements FilenameFilter {
@@ -17,20 +17,26 @@ package com.hazelcast.simulator.agent.workerjvm;
 
 import com.hazelcast.simulator.agent.Agent;
 import com.hazelcast.simulator.agent.SpawnWorkerFailedException;
+import com.hazelcast.simulator.common.JavaProfiler;
+import com.hazelcast.simulator.protocol.connector.ClientConnector;
 import com.hazelcast.simulator.protocol.core.AddressLevel;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.worker.WorkerBootstrap;
 import com.hazelcast.simulator.worker.WorkerType;
 import org.apache.log4j.Logger;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
+import static com.hazelcast.simulator.agent.workerjvm.WorkerClassDataSharing.isRecordingClassList;
 import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
 import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
 import static com.hazelcast.simulator.utils.FileUtils.ensureExistingFile;
@@ -42,16 +48,20 @@ import static com.hazelcast.simulator.utils.NativeUtils.execute;
 import static com.hazelcast.simulator.utils.jars.HazelcastJARs.directoryForVersionSpec;
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 
 public class WorkerJvmLauncher {
 
     public static final String WORKERS_HOME_NAME = "workers";
 
     private static final int WAIT_FOR_WORKER_STARTUP_INTERVAL_MILLIS = 500;
+    private static final int CONNECT_TO_WORKER_INITIAL_INTERVAL_MILLIS = 10;
 
     private static final String CLASSPATH = System.getProperty("java.class.path");
     private static final String CLASSPATH_SEPARATOR = System.getProperty("path.separator");
 
+    private static final AtomicInteger POOLED_WORKER_INDEX = new AtomicInteger();
+
     private static final Logger LOGGER = Logger.getLogger(WorkerJvmLauncher.class);
 
     private final AtomicBoolean javaHomePrinted = new AtomicBoolean();
@@ -60,8 +70,6 @@ public class WorkerJvmLauncher {
     private final WorkerJvmManager workerJvmManager;
     private final WorkerJvmSettings workerJvmSettings;
 
-    private File hzConfigFile;
-    private File log4jFile;
     private File testSuiteDir;
 
     public WorkerJvmLauncher(Agent agent, WorkerJvmManager workerJvmManager, WorkerJvmSettings workerJvmSettings) {
@@ -70,7 +78,12 @@ public class WorkerJvmLauncher {
         this.workerJvmSettings = workerJvmSettings;
     }
 
-    public void launch() {
+    /**
+     * Starts the Worker JVM and connects to it.
+     *
+     * @return the {@link SimulatorAddress} of the started Worker
+     */
+    public SimulatorAddress launch() {
         try {
             testSuiteDir = agent.getTestSuiteDir();
             ensureExistingDirectory(testSuiteDir);
@@ -84,6 +97,7 @@ public class WorkerJvmLauncher {
             LOGGER.info(format("Finished starting a JVM for %s Worker #%d", type, workerIndex));
 
             waitForWorkersStartup(worker, workerJvmSettings.getWorkerStartupTimeout());
+            return worker.getAddress();
         } catch (Exception e) {
             LOGGER.error("Failed to start Worker", e);
 
@@ -98,18 +112,57 @@ public class WorkerJvmLauncher {
 
         SimulatorAddress workerAddress = new SimulatorAddress(AddressLevel.WORKER, agent.getAddressIndex(), workerIndex, 0);
         String workerId = "worker-" + workerAddress + '-' + agent.getPublicAddress() + '-' + type.toLowerCase();
-        File workerHome = ensureExistingDirectory(testSuiteDir, workerId);
+
+        PooledWorkerJvm pooledWorkerJvm = pollWorkerJvmPool();
+        File workerHome = (pooledWorkerJvm == null)
+                ? ensureExistingDirectory(testSuiteDir, workerId) : claimWorkerHome(pooledWorkerJvm, workerId);
 
         String hzConfigFileName = (type == WorkerType.MEMBER) ? "hazelcast" : "client-hazelcast";
-        hzConfigFile = ensureExistingFile(workerHome, hzConfigFileName + ".xml");
+        File hzConfigFile = ensureExistingFile(workerHome, hzConfigFileName + ".xml");
         writeText(workerJvmSettings.getHazelcastConfig(), hzConfigFile);
 
-        log4jFile = ensureExistingFile(workerHome, "log4j.xml");
+        File log4jFile = ensureExistingFile(workerHome, "log4j.xml");
         writeText(workerJvmSettings.getLog4jConfig(), log4jFile);
 
         WorkerJvm workerJvm = new WorkerJvm(workerAddress, workerId, workerHome);
+        Map<String, String> workerProperties = getWorkerProperties(workerJvm, type, hzConfigFile);
+
+        if (pooledWorkerJvm == null) {
+            List<String> args = buildArgs(workerJvm, type, log4jFile, workerProperties);
+            Process process = startProcess(workerHome, args);
+            workerJvm.setProcess(process);
+            copyResourcesToWorkerHome(workerHome);
+
+            if (isRecordingClassList(args)) {
+                agent.getWorkerClassDataSharing().dumpArchiveOnExit(getBaseClasspath(), workerJvmSettings.getJvmOptions(),
+                        process);
+            }
+        } else {
+            LOGGER.info(format("Using pooled JVM for %s Worker #%d", type, workerIndex));
+            copyResourcesToWorkerHome(workerHome);
+            pooledWorkerJvm.assign(workerProperties);
+            workerJvm.setProcess(pooledWorkerJvm.getProcess());
+        }
+        workerJvmManager.add(workerAddress, workerJvm);
+
+        return workerJvm;
+    }
+
+    private PooledWorkerJvm startPooledWorkerJvm() throws IOException {
+        File poolHome = createPooledWorkerHome();
 
-        generateWorkerStartScript(type, workerJvm);
+        File log4jFile = ensureExistingFile(poolHome, "log4j.xml");
+        writeText(workerJvmSettings.getLog4jConfig(), log4jFile);
+
+        List<String> args = buildJvmArgs(poolHome, log4jFile, true);
+        args.add(WorkerBootstrap.class.getName());
+
+        Process process = startProcess(poolHome, args);
+        return new PooledWorkerJvm(process, poolHome);
+    }
+
+    private Process startProcess(File workerHome, List<String> args) throws IOException {
+        generateWorkerStartScript(workerHome, args);
 
         ProcessBuilder processBuilder = new ProcessBuilder(new String[]{"bash", "worker.sh"})
                 .directory(workerHome)
@@ -121,36 +174,167 @@ public class WorkerJvmLauncher {
         environment.put("PATH", path);
         environment.put("JAVA_HOME", javaHome);
 
-        Process process = processBuilder.start();
-        workerJvm.setProcess(process);
-        copyResourcesToWorkerId(workerId);
-        workerJvmManager.add(workerAddress, workerJvm);
+        return processBuilder.start();
+    }
 
-        return workerJvm;
+    private boolean isPoolable() {
+        // the profiler settings can refer to the Worker home, so we cannot pre-start the JVM
+        if (workerJvmSettings.getWorkerJvmPoolSize() <= 0 || workerJvmSettings.getProfiler() != JavaProfiler.NONE) {
+            return false;
+        }
+        // an idle JVM with these options would commit its whole heap, so we don't pre-start it
+        for (String jvmOption : getJvmOptions()) {
+            if (jvmOption.startsWith("-Xms") || jvmOption.startsWith("-XX:InitialHeapSize=")
+                    || jvmOption.equals("-XX:+AlwaysPreTouch")) {
+                LOGGER.info(format("Worker JVM pool is not used, since the JVM option %s commits the heap of idle JVMs",
+                        jvmOption));
+                return false;
+            }
+        }
+        return true;
     }
 
-    private void waitForWorkersStartup(WorkerJvm worker, int workerTimeoutSec) {
-        int loopCount = (int) TimeUnit.SECONDS.toMillis(workerTimeoutSec) / WAIT_FOR_WORKER_STARTUP_INTERVAL_MILLIS;
-        for (int i = 0; i < loopCount; i++) {
-            if (hasExited(worker)) {
-                throw new SpawnWorkerFailedException(format(
-                        "Startup of Worker %s on Agent %s failed, check log files in %s for more information!",
-                        worker.getAddress(), agent.getPublicAddress(), worker.getWorkerHome()));
+    private String getPoolKey() {
+        return workerJvmSettings.getNumaCtl()
+                + '|' + getClasspath()
+                + '|' + workerJvmSettings.getJvmOptions()
+                + '|' + workerJvmSettings.isClassDataSharing()
+                + '|' + workerJvmSettings.getLog4jConfig();
+    }
+
+    private PooledWorkerJvm pollWorkerJvmPool() {
+        if (!isPoolable()) {
+            return null;
+        }
+        return agent.getWorkerJvmPool().poll(getPoolKey());
+    }
+
+    /**
+     * Starts idle Worker JVMs with the settings of this launcher, until the {@link WorkerJvmPool} has the configured size.
+     *
+     * Should be called once all Workers have been started, so the idle JVMs don't compete for CPU with the startup of the
+     * Workers. The caller should wait for the pool via {@link WorkerJvmPool#awaitPendingStarts(long, TimeUnit)}, so the idle
+     * JVMs are not started during the test phase.
+     */
+    public void fillWorkerJvmPool() {
+        if (!isPoolable()) {
+            return;
+        }
+        testSuiteDir = agent.getTestSuiteDir();
+        ensureExistingDirectory(testSuiteDir);
+        agent.getWorkerJvmPool().fill(getPoolKey(), workerJvmSettings.getWorkerJvmPoolSize(), new Callable<PooledWorkerJvm>() {
+            @Override
+            public PooledWorkerJvm call() throws Exception {
+                return startPooledWorkerJvm();
             }
+        });
+    }
+
+    private File createPooledWorkerHome() {
+        File poolHome;
+        do {
+            poolHome = new File(testSuiteDir, "pooled-worker-" + POOLED_WORKER_INDEX.incrementAndGet());
+        } while (poolHome.exists());
+        return ensureExistingDirectory(testSuiteDir, poolHome.getName());
+    }
 
-            String address = readAddress(worker);
-            if (address != null) {
-                worker.setHzAddress(address);
-                LOGGER.info(format("Worker %s started", worker.getId()));
-                return;
+    /**
+     * Moves the directory of a pooled JVM to the Worker home.
+     *
+     * The JVM keeps its working directory when it's renamed, so all files the Worker creates relative to its working
+     * directory end up in the Worker home, e.g. the log files and the {@code worker.address} file.
+     */
+    private File claimWorkerHome(PooledWorkerJvm pooledWorkerJvm, String workerId) {
+        File workerHome = new File(testSuiteDir, workerId);
+        for (int i = 1; workerHome.exists(); i++) {
+            workerHome = new File(testSuiteDir, workerId + '-' + i);
+        }
+
+        File poolHome = pooledWorkerJvm.getHome();
+        if (!poolHome.renameTo(workerHome)) {
+            LOGGER.warn(format("Could not rename %s to %s, the Worker will use the pooled directory", poolHome, workerHome));
+            return poolHome;
+        }
+        return workerHome;
+    }
+
+    /**
+     * Waits until the Worker has been started.
+     *
+     * We connect to the Worker as soon as it accepts connections, so the Worker can signal its start in-band via a
+     * {@link com.hazelcast.simulator.protocol.operation.WorkerStartedOperation}. The {@code worker.address} file is checked as
+     * fallback, e.g. for Workers which don't accept connections.
+     *
+     * The connection attempts use a single {@link ClientConnector} and back off exponentially, so a slowly starting Worker is
+     * not flooded with connection attempts.
+     */
+    private void waitForWorkersStartup(WorkerJvm worker, int workerTimeoutSec) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(workerTimeoutSec);
+        int workerIndex = workerJvmSettings.getWorkerIndex();
+        ClientConnector workerConnector = agent.getAgentConnector().createWorkerConnector(workerIndex, "127.0.0.1",
+                agent.getPort() + workerIndex);
+        long connectIntervalMillis = CONNECT_TO_WORKER_INITIAL_INTERVAL_MILLIS;
+        boolean isConnected = false;
+        boolean isStarted = false;
+        try {
+            while (System.currentTimeMillis() < deadline) {
+                if (hasExited(worker)) {
+                    throw new SpawnWorkerFailedException(format(
+                            "Startup of Worker %s on Agent %s failed, check log files in %s for more information!",
+                            worker.getAddress(), agent.getPublicAddress(), worker.getWorkerHome()));
+                }
+
+                long waitMillis = WAIT_FOR_WORKER_STARTUP_INTERVAL_MILLIS;
+                if (!isConnected) {
+                    isConnected = connectToWorker(worker, workerConnector);
+                    if (!isConnected) {
+                        waitMillis = connectIntervalMillis;
+                        connectIntervalMillis = Math.min(connectIntervalMillis * 2, WAIT_FOR_WORKER_STARTUP_INTERVAL_MILLIS);
+                    }
+                }
+                if (worker.awaitStarted(waitMillis, TimeUnit.MILLISECONDS)) {
+                    deleteQuiet(new File(worker.getWorkerHome(), "worker.address"));
+                    isStarted = true;
+                } else {
+                    String address = readAddress(worker);
+                    if (address != null) {
+                        if (!isConnected) {
+                            workerConnector.start();
+                            agent.getAgentConnector().addWorker(workerIndex, workerConnector);
+                            isConnected = true;
+                        }
+                        worker.setStarted(address);
+                        isStarted = true;
+                    }
+                }
+
+                if (isStarted) {
+                    LOGGER.info(format("Worker %s started", worker.getId()));
+                    return;
+                }
             }
 
-            sleepMillis(WAIT_FOR_WORKER_STARTUP_INTERVAL_MILLIS);
+            throw new SpawnWorkerFailedException(format(
+                    "Worker %s on Agent %s didn't start within %s seconds, check log files in %s for more information!",
+                    worker.getAddress(), agent.getPublicAddress(), workerTimeoutSec, worker.getWorkerHome()));
+        } finally {
+            if (isConnected && !isStarted) {
+                agent.getAgentConnector().removeWorker(workerIndex);
+            }
         }
+    }
 
-        throw new SpawnWorkerFailedException(format(
-                "Worker %s on Agent %s didn't start within %s seconds, check log files in %s for more information!",
-                worker.getAddress(), agent.getPublicAddress(), workerTimeoutSec, worker.getWorkerHome()));
+    /**
+     * Tries to connect to the Worker, which refuses the connection until it's almost started.
+     */
+    private boolean connectToWorker(WorkerJvm worker, ClientConnector workerConnector) {
+        if (!workerConnector.tryStart()) {
+            LOGGER.debug(format("Worker %s doesn't accept connections yet", worker.getId()));
+            return false;
+        }
+        agent.getAgentConnector().addWorker(workerJvmSettings.getWorkerIndex(), workerConnector);
+        LOGGER.info(format("Connected to Worker %s", worker.getId()));
+        return true;
     }
 
     private String getJavaHome() {
@@ -161,12 +345,13 @@ public class WorkerJvmLauncher {
         return javaHome;
     }
 
-    private void generateWorkerStartScript(WorkerType type, WorkerJvm workerJvm) {
-        String[] args = buildArgs(workerJvm, type);
-        File startScript = new File(workerJvm.getWorkerHome(), "worker.sh");
+    private void generateWorkerStartScript(File workerHome, List<String> args) {
+        File startScript = new File(workerHome, "worker.sh");
 
         StringBuilder sb = new StringBuilder();
         sb.append("#!/bin/bash").append(NEW_LINE);
+        // exec replaces the shell, so the started process is the Worker JVM and can be destroyed by the Agent
+        sb.append("exec ");
         for (String arg : args) {
             sb.append(arg).append(' ');
         }
@@ -175,7 +360,7 @@ public class WorkerJvmLauncher {
         writeText(sb.toString(), startScript);
     }
 
-    private void copyResourcesToWorkerId(String workerId) {
+    private void copyResourcesToWorkerHome(File workerHome) {
         File workersDir = new File(getSimulatorHome(), WORKERS_HOME_NAME);
         String testSuiteId = agent.getTestSuite().getId();
         File uploadDirectory = new File(workersDir, testSuiteId + "/upload/").getAbsoluteFile();
@@ -183,12 +368,9 @@ public class WorkerJvmLauncher {
             LOGGER.debug("Skip copying upload directory to workers since no upload directory was found");
             return;
         }
-        String copyCommand = format("cp -rfv %s/%s/upload/* %s/%s/%s/",
-                workersDir,
-                testSuiteId,
-                workersDir,
-                testSuiteId,
-                workerId);
+        String copyCommand = format("cp -rfv %s/* %s/",
+                uploadDirectory,
+                workerHome.getAbsolutePath());
         execute(copyCommand);
         LOGGER.info(format("Finished copying '%s' to Worker", workersDir));
     }
@@ -214,37 +396,61 @@ public class WorkerJvmLauncher {
         return address;
     }
 
-    private String[] buildArgs(WorkerJvm workerJvm, WorkerType type) {
-        List<String> args = new LinkedList<String>();
+    private List<String> buildArgs(WorkerJvm workerJvm, WorkerType type, File log4jFile,
+                                   Map<String, String> workerProperties) {
+        List<String> args = buildJvmArgs(workerJvm.getWorkerHome(), log4jFile, false);
+        for (Map.Entry<String, String> entry : workerProperties.entrySet()) {
+            args.add("-D" + entry.getKey() + '=' + entry.getValue());
+        }
 
-        int workerIndex = workerJvmSettings.getWorkerIndex();
-        int workerPort = agent.getPort() + workerIndex;
+        // add class name to start correct worker type
+        args.add(type.getClassName());
+
+        return args;
+    }
+
+    /**
+     * Builds the JVM arguments of a Worker JVM.
+     *
+     * The directory of a pooled JVM is renamed when the JVM is assigned to a Worker, so a pooled JVM must not refer to any
+     * absolute path in its directory. The log4j configuration is referred to relative to the working directory instead, which
+     * moves with the renamed directory.
+     */
+    private List<String> buildJvmArgs(File workerHome, File log4jFile, boolean isPooled) {
+        List<String> args = new LinkedList<String>();
 
         addNumaCtlSettings(args);
-        addProfilerSettings(workerJvm, args);
+        addProfilerSettings(workerHome, args);
 
         args.add("-classpath");
         args.add(getClasspath());
         args.addAll(getJvmOptions());
+        args.addAll(getClassDataSharingOptions(!isPooled));
         args.add("-XX:OnOutOfMemoryError=\"touch worker.oome\"");
         args.add("-Dhazelcast.logging.type=log4j");
-        args.add("-Dlog4j.configuration=file:" + log4jFile.getAbsolutePath());
-
+        args.add("-Dlog4j.configuration=file:" + (isPooled ? log4jFile.getName() : log4jFile.getAbsolutePath()));
         args.add("-DSIMULATOR_HOME=" + getSimulatorHome());
-        args.add("-DworkerId=" + workerJvm.getId());
-        args.add("-DworkerType=" + type);
-        args.add("-DpublicAddress=" + agent.getPublicAddress());
-        args.add("-DagentIndex=" + agent.getAddressIndex());
-        args.add("-DworkerIndex=" + workerIndex);
-        args.add("-DworkerPort=" + workerPort);
-        args.add("-DautoCreateHzInstance=" + workerJvmSettings.isAutoCreateHzInstance());
-        args.add("-DworkerPerformanceMonitorIntervalSeconds=" + workerJvmSettings.getWorkerPerformanceMonitorIntervalSeconds());
-        args.add("-DhzConfigFile=" + hzConfigFile.getAbsolutePath());
 
-        // add class name to start correct worker type
-        args.add(type.getClassName());
+        return args;
+    }
 
-        return args.toArray(new String[args.size()]);
+    private Map<String, String> getWorkerProperties(WorkerJvm workerJvm, WorkerType type, File hzConfigFile) {
+        int workerIndex = workerJvmSettings.getWorkerIndex();
+        int workerPort = agent.getPort() + workerIndex;
+
+        Map<String, String> properties = new LinkedHashMap<String, String>();
+        properties.put("workerId", workerJvm.getId());
+        properties.put("workerType", type.name());
+        properties.put("publicAddress", agent.getPublicAddress());
+        properties.put("agentIndex", String.valueOf(agent.getAddressIndex()));
+        properties.put("workerIndex", String.valueOf(workerIndex));
+        properties.put("workerPort", String.valueOf(workerPort));
+        properties.put("autoCreateHzInstance", String.valueOf(workerJvmSettings.isAutoCreateHzInstance()));
+        properties.put("workerPerformanceMonitorIntervalSeconds",
+                String.valueOf(workerJvmSettings.getWorkerPerformanceMonitorIntervalSeconds()));
+        properties.put("maxInFlightMessages", String.valueOf(workerJvmSettings.getMaxInFlightMessages()));
+        properties.put("hzConfigFile", hzConfigFile.getAbsolutePath());
+        return properties;
     }
 
     private void addNumaCtlSettings(List<String> args) {
@@ -254,14 +460,14 @@ public class WorkerJvmLauncher {
         }
     }
 
-    private void addProfilerSettings(WorkerJvm workerJvm, List<String> args) {
+    private void addProfilerSettings(File workerHome, List<String> args) {
         String javaExecutable = "java";
         switch (workerJvmSettings.getProfiler()) {
             case YOURKIT:
                 args.add(javaExecutable);
                 String agentSetting = workerJvmSettings.getProfilerSettings()
                         .replace("${SIMULATOR_HOME}", getSimulatorHome().getAbsolutePath())
-                        .replace("${WORKER_HOME}", workerJvm.getWorkerHome().getAbsolutePath());
+                        .replace("${WORKER_HOME}", workerHome.getAbsolutePath());
                 args.add(agentSetting);
                 break;
             case FLIGHTRECORDER:
@@ -281,12 +487,27 @@ public class WorkerJvmLauncher {
     }
 
     private String getClasspath() {
+        return getBaseClasspath()
+                + CLASSPATH_SEPARATOR + new File(agent.getTestSuiteDir(), "lib/*").getAbsolutePath();
+    }
+
+    /**
+     * Returns the Simulator and Hazelcast part of the Worker classpath, which doesn't depend on the testsuite.
+     */
+    private String getBaseClasspath() {
         String simulatorHome = getSimulatorHome().getAbsolutePath();
         String hzVersionDirectory = directoryForVersionSpec(workerJvmSettings.getHazelcastVersionSpec());
         return CLASSPATH
                 + CLASSPATH_SEPARATOR + simulatorHome + "/hz-lib/" + hzVersionDirectory + "/*"
-                + CLASSPATH_SEPARATOR + simulatorHome + "/user-lib/*"
-                + CLASSPATH_SEPARATOR + new File(agent.getTestSuiteDir(), "lib/*").getAbsolutePath();
+                + CLASSPATH_SEPARATOR + simulatorHome + "/user-lib/*";
+    }
+
+    private List<String> getClassDataSharingOptions(boolean recordClassList) {
+        if (!workerJvmSettings.isClassDataSharing()) {
+            return emptyList();
+        }
+        return agent.getWorkerClassDataSharing().getJvmOptions(getBaseClasspath(), workerJvmSettings.getJvmOptions(),
+                recordClassList);
     }
 
     private List<String> getJvmOptions() {
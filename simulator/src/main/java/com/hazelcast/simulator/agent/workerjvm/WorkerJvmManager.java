@@ -38,6 +38,10 @@ public class WorkerJvmManager {
         workerJVMs.put(workerAddress, workerJvm);
     }
 
+    public WorkerJvm get(SimulatorAddress workerAddress) {
+        return workerJVMs.get(workerAddress);
+    }
+
     public Collection<WorkerJvm> getWorkerJVMs() {
         return workerJVMs.values();
     }
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.agent.workerjvm;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.utils.ExecutorFactory.createFixedThreadPool;
+import static java.lang.String.format;
+
+/**
+ * Keeps pre-started idle Worker JVMs, so a Worker can be started without waiting for a JVM startup.
+ *
+ * The idle JVMs are grouped by a key of all settings which are not Worker specific, e.g. the classpath, the JVM options and
+ * the log4j configuration. Since the classpath contains the libraries of the testsuite, the pool is cleared when a new
+ * testsuite is initialized.
+ *
+ * The JVMs are started one after the other by a single thread. The pool is filled once all Workers have been started and
+ * before the test phase, so the startup of the idle JVMs doesn't compete for CPU with the Workers.
+ */
+public class WorkerJvmPool {
+
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private static final Logger LOGGER = Logger.getLogger(WorkerJvmPool.class);
+
+    private final ExecutorService executorService = createFixedThreadPool(1, WorkerJvmPool.class);
+
+    private final Map<String, LinkedList<PooledWorkerJvm>> idleWorkerJVMs = new HashMap<String, LinkedList<PooledWorkerJvm>>();
+    private final Map<String, Integer> pendingStarts = new HashMap<String, Integer>();
+
+    private int generation;
+    private boolean isShutdown;
+
+    /**
+     * Takes an idle Worker JVM from the pool.
+     *
+     * @param key the key of the Worker settings
+     * @return an idle {@link PooledWorkerJvm} or {@code null} if there is none
+     */
+    synchronized PooledWorkerJvm poll(String key) {
+        LinkedList<PooledWorkerJvm> queue = idleWorkerJVMs.get(key);
+        while (queue != null && !queue.isEmpty()) {
+            PooledWorkerJvm workerJvm = queue.poll();
+            if (workerJvm.isAlive()) {
+                return workerJvm;
+            }
+            LOGGER.warn(format("Discarding pooled Worker JVM which has exited, check log files in %s", workerJvm.getHome()));
+        }
+        return null;
+    }
+
+    /**
+     * Starts new idle Worker JVMs in the background, until the pool contains the given number of JVMs for the key.
+     *
+     * @param key     the key of the Worker settings
+     * @param size    the number of idle JVMs to keep
+     * @param factory starts a single idle JVM
+     */
+    void fill(String key, int size, Callable<PooledWorkerJvm> factory) {
+        int missing;
+        int currentGeneration;
+        synchronized (this) {
+            if (isShutdown) {
+                return;
+            }
+            int pending = getPendingStarts(key);
+            missing = size - getIdleCount(key) - pending;
+            if (missing <= 0) {
+                return;
+            }
+            pendingStarts.put(key, pending + missing);
+            currentGeneration = generation;
+        }
+        for (int i = 0; i < missing; i++) {
+            executorService.execute(new StartTask(key, currentGeneration, factory));
+        }
+    }
+
+    /**
+     * Waits until all idle Worker JVMs, which have been requested via {@link #fill(String, int, Callable)}, are started.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the {@link TimeUnit} of the timeout
+     * @return {@code true} if all JVMs are started, {@code false} if the timeout has elapsed before
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     */
+    public synchronized boolean awaitPendingStarts(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (getPendingStarts() > 0) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                return false;
+            }
+            wait(remainingMillis);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the total number of idle Worker JVMs.
+     *
+     * @return the number of idle Worker JVMs
+     */
+    public synchronized int getIdleCount() {
+        int count = 0;
+        for (LinkedList<PooledWorkerJvm> queue : idleWorkerJVMs.values()) {
+            count += queue.size();
+        }
+        return count;
+    }
+
+    /**
+     * Destroys all idle Worker JVMs.
+     *
+     * JVMs which are currently starting are destroyed as soon as they are started.
+     */
+    public void clear() {
+        List<PooledWorkerJvm> workerJVMs = new ArrayList<PooledWorkerJvm>();
+        synchronized (this) {
+            generation++;
+            pendingStarts.clear();
+            notifyAll();
+            for (LinkedList<PooledWorkerJvm> queue : idleWorkerJVMs.values()) {
+                workerJVMs.addAll(queue);
+            }
+            idleWorkerJVMs.clear();
+        }
+        if (!workerJVMs.isEmpty()) {
+            LOGGER.info(format("Destroying %d pooled Worker JVMs...", workerJVMs.size()));
+        }
+        for (PooledWorkerJvm workerJvm : workerJVMs) {
+            workerJvm.destroy();
+        }
+    }
+
+    public void shutdown() {
+        synchronized (this) {
+            isShutdown = true;
+        }
+        clear();
+
+        executorService.shutdown();
+        try {
+            executorService.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int getIdleCount(String key) {
+        LinkedList<PooledWorkerJvm> queue = idleWorkerJVMs.get(key);
+        return (queue == null) ? 0 : queue.size();
+    }
+
+    private int getPendingStarts() {
+        int count = 0;
+        for (int pending : pendingStarts.values()) {
+            count += pending;
+        }
+        return count;
+    }
+
+    private int getPendingStarts(String key) {
+        Integer pending = pendingStarts.get(key);
+        return (pending == null) ? 0 : pending;
+    }
+
+    private synchronized boolean add(String key, int startGeneration, PooledWorkerJvm workerJvm) {
+        if (startGeneration != generation || isShutdown) {
+            return false;
+        }
+        pendingStarts.put(key, getPendingStarts(key) - 1);
+
+        LinkedList<PooledWorkerJvm> queue = idleWorkerJVMs.get(key);
+        if (queue == null) {
+            queue = new LinkedList<PooledWorkerJvm>();
+            idleWorkerJVMs.put(key, queue);
+        }
+        queue.add(workerJvm);
+        notifyAll();
+        return true;
+    }
+
+    private synchronized void startFailed(String key, int startGeneration) {
+        if (startGeneration == generation) {
+            pendingStarts.put(key, getPendingStarts(key) - 1);
+            notifyAll();
+        }
+    }
+
+    private final class StartTask implements Runnable {
+
+        private final String key;
+        private final int startGeneration;
+        private final Callable<PooledWorkerJvm> factory;
+
+        private StartTask(String key, int startGeneration, Callable<PooledWorkerJvm> factory) {
+            this.key = key;
+            this.startGeneration = startGeneration;
+            this.factory = factory;
+        }
+
+        @Override
+        public void run() {
+            synchronized (WorkerJvmPool.this) {
+                if (startGeneration != generation || isShutdown) {
+                    return;
+                }
+            }
+            try {
+                PooledWorkerJvm workerJvm = factory.call();
+                if (add(key, startGeneration, workerJvm)) {
+                    LOGGER.info("Started pooled Worker JVM in " + workerJvm.getHome());
+                } else {
+                    workerJvm.destroy();
+                }
+            } catch (Exception e) {
+                LOGGER.warn("Could not start pooled Worker JVM", e);
+                startFailed(key, startGeneration);
+            }
+        }
+    }
+}
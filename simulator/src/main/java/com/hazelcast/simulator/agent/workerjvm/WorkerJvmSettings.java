@@ -42,6 +42,11 @@ public class WorkerJvmSettings {
     private final String profilerSettings;
     private final String numaCtl;
 
+    private final int workerJvmPoolSize;
+    private final boolean classDataSharing;
+
+    private final int maxInFlightMessages;
+
     public WorkerJvmSettings(int workerIndex, WorkerType workerType, WorkerParameters workerParameters) {
         this(workerIndex, workerType, workerParameters, workerParameters.getHazelcastVersionSpec(),
                 (workerType == MEMBER) ? workerParameters.getMemberJvmOptions() : workerParameters.getClientJvmOptions(),
@@ -65,6 +70,11 @@ public class WorkerJvmSettings {
         this.profiler = workerParameters.getProfiler().name();
         this.profilerSettings = workerParameters.getProfilerSettings();
         this.numaCtl = workerParameters.getNumaCtl();
+
+        this.workerJvmPoolSize = workerParameters.getWorkerJvmPoolSize();
+        this.classDataSharing = workerParameters.isClassDataSharing();
+
+        this.maxInFlightMessages = workerParameters.getMaxInFlightMessages();
     }
 
     private int initWorkerPerformanceMonitorIntervalSeconds(WorkerParameters workerParameters) {
@@ -122,6 +132,18 @@ public class WorkerJvmSettings {
         return numaCtl;
     }
 
+    public int getWorkerJvmPoolSize() {
+        return workerJvmPoolSize;
+    }
+
+    public boolean isClassDataSharing() {
+        return classDataSharing;
+    }
+
+    public int getMaxInFlightMessages() {
+        return maxInFlightMessages;
+    }
+
     @Override
     public String toString() {
         return "WorkerJvmSettings{"
@@ -136,6 +158,9 @@ public class WorkerJvmSettings {
                 + ", profiler='" + profiler + '\''
                 + ", profilerSettings='" + profilerSettings + '\''
                 + ", numaCtl='" + numaCtl + '\''
+                + ", workerJvmPoolSize=" + workerJvmPoolSize
+                + ", classDataSharing=" + classDataSharing
+                + ", maxInFlightMessages=" + maxInFlightMessages
                 + '}';
     }
 }
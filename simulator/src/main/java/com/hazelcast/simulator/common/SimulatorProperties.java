@@ -30,6 +30,7 @@ import static com.hazelcast.simulator.utils.FileUtils.getSimulatorHome;
 import static com.hazelcast.simulator.utils.FileUtils.newFile;
 import static com.hazelcast.simulator.utils.jars.HazelcastJARs.GIT_VERSION_PREFIX;
 import static com.hazelcast.simulator.utils.jars.HazelcastJARs.OUT_OF_THE_BOX;
+import static java.lang.Boolean.parseBoolean;
 import static java.lang.Integer.parseInt;
 import static java.lang.String.format;
 
@@ -138,6 +139,18 @@ public class SimulatorProperties {
         return parseInt(get("WAIT_FOR_WORKER_SHUTDOWN_TIMEOUT_SECONDS", "120"));
     }
 
+    public int getWorkerJvmPoolSize() {
+        return parseInt(get("WORKER_JVM_POOL_SIZE", "0"));
+    }
+
+    public boolean isWorkerClassDataSharing() {
+        return parseBoolean(get("WORKER_CLASS_DATA_SHARING", "false"));
+    }
+
+    public int getMaxInFlightMessages() {
+        return parseInt(get("MAX_IN_FLIGHT_MESSAGES", "32"));
+    }
+
     public int getAgentThreadPoolSize() {
         return parseInt(get("AGENT_THREAD_POOL_SIZE", "0"));
     }
@@ -69,7 +69,6 @@ public final class Coordinator {
 
     private final TestPhaseListenerContainer testPhaseListenerContainer = new TestPhaseListenerContainer();
     private final PerformanceStateContainer performanceStateContainer = new PerformanceStateContainer();
-    private final TestHistogramContainer testHistogramContainer = new TestHistogramContainer(performanceStateContainer);
 
     private final TestSuite testSuite;
     private final ComponentRegistry componentRegistry;
@@ -78,6 +77,8 @@ public final class Coordinator {
     private final ClusterLayoutParameters clusterLayoutParameters;
 
     private final FailureContainer failureContainer;
+    private final TestHistogramContainer testHistogramContainer;
+    private final IntervalHistogramContainer intervalHistogramContainer;
 
     private final SimulatorProperties simulatorProperties;
     private final Bash bash;
@@ -98,6 +99,10 @@ public final class Coordinator {
         this.clusterLayoutParameters = clusterLayoutParameters;
 
         this.failureContainer = new FailureContainer(testSuite, componentRegistry);
+        this.testHistogramContainer = new TestHistogramContainer(performanceStateContainer,
+                coordinatorParameters.isExportProbesXml());
+        this.intervalHistogramContainer = new IntervalHistogramContainer(testSuite.getId(),
+                workerParameters.getWorkerPerformanceMonitorIntervalSeconds());
 
         this.simulatorProperties = coordinatorParameters.getSimulatorProperties();
         this.bash = new Bash(simulatorProperties);
@@ -137,6 +142,10 @@ public final class Coordinator {
         return performanceStateContainer;
     }
 
+    IntervalHistogramContainer getIntervalHistogramContainer() {
+        return intervalHistogramContainer;
+    }
+
     RemoteClient getRemoteClient() {
         return remoteClient;
     }
@@ -208,7 +217,7 @@ public final class Coordinator {
     private void startCoordinatorConnector() {
         try {
             coordinatorConnector = new CoordinatorConnector(failureContainer, testPhaseListenerContainer,
-                    performanceStateContainer, testHistogramContainer);
+                    performanceStateContainer, testHistogramContainer, intervalHistogramContainer);
             ThreadSpawner spawner = new ThreadSpawner("startCoordinatorConnector", true);
             for (final AgentData agentData : componentRegistry.getAgents()) {
                 final int agentPort = simulatorProperties.getAgentPort();
@@ -299,6 +308,7 @@ public final class Coordinator {
             }
 
             performanceStateContainer.logDetailedPerformanceInfo();
+            intervalHistogramContainer.close();
             for (TestCase testCase : testSuite.getTestCaseList()) {
                 testHistogramContainer.createProbeResults(testSuite.getId(), testCase.getId());
             }
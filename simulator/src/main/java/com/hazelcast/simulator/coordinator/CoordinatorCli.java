@@ -65,6 +65,41 @@ final class CoordinatorCli {
     private final OptionSpec waitForTestCaseSpec = parser.accepts("waitForTestCaseCompletion",
             "Wait for the TestCase to finish its run phase. Can be combined with --duration to limit runtime.");
 
+    private final OptionSpec<Double> rampUpStartThroughputSpec = parser.accepts("rampUpStartThroughput",
+            "Enables the ramp-up mode, which increases the target throughput of each test step by step, instead of running it"
+                    + " for a fixed duration. Defines the target throughput of the first step in operations per second for the"
+                    + " whole cluster. The ramp-up stops if the latency exceeds --rampUpMaxLatencyMicros, if the measured"
+                    + " throughput flattens or if --rampUpMaxThroughput is reached. The throughput/latency curve is written"
+                    + " to rampup-<testSuiteId>_<testId>.txt")
+            .withRequiredArg().ofType(Double.class);
+
+    private final OptionSpec<Double> rampUpStepThroughputSpec = parser.accepts("rampUpStepThroughput",
+            "Defines the increment of the target throughput per ramp-up step in operations per second."
+                    + " Defaults to --rampUpStartThroughput.")
+            .withRequiredArg().ofType(Double.class);
+
+    private final OptionSpec<Double> rampUpMaxThroughputSpec = parser.accepts("rampUpMaxThroughput",
+            "Defines the maximum target throughput of the ramp-up in operations per second. The value 0 sets no limit.")
+            .withRequiredArg().ofType(Double.class).defaultsTo(0.0);
+
+    private final OptionSpec<String> rampUpStepDurationSpec = parser.accepts("rampUpStepDuration",
+            "Amount of time to measure each ramp-up step, e.g. 30s, 5m or 1h. Each step is preceded by a settle period of one"
+                    + " Worker performance monitor interval.")
+            .withRequiredArg().ofType(String.class).defaultsTo("60s");
+
+    private final OptionSpec<Double> rampUpLatencyPercentileSpec = parser.accepts("rampUpLatencyPercentile",
+            "Defines the latency percentile, which is checked against --rampUpMaxLatencyMicros.")
+            .withRequiredArg().ofType(Double.class).defaultsTo(RampUpParameters.DEFAULT_LATENCY_PERCENTILE);
+
+    private final OptionSpec<Long> rampUpMaxLatencyMicrosSpec = parser.accepts("rampUpMaxLatencyMicros",
+            "Defines the latency SLA of the ramp-up in microseconds. The value 0 disables the SLA.")
+            .withRequiredArg().ofType(Long.class).defaultsTo(0L);
+
+    private final OptionSpec<Double> rampUpMinThroughputGainSpec = parser.accepts("rampUpMinThroughputGain",
+            "Defines the minimum fraction of the step increment, by which the measured throughput has to increase per ramp-up"
+                    + " step. Otherwise the throughput has flattened and the ramp-up is stopped.")
+            .withRequiredArg().ofType(Double.class).defaultsTo(RampUpParameters.DEFAULT_MIN_THROUGHPUT_GAIN);
+
     private final OptionSpec<String> overridesSpec = parser.accepts("overrides",
             "Properties that override the properties in a given test-case, e.g. --overrides"
                     + " \"threadcount=20,writeProb=0.2\". This makes it easy to parametrize a test.")
@@ -111,6 +146,9 @@ final class CoordinatorCli {
     private final OptionSpec monitorPerformanceSpec = parser.accepts("monitorPerformance",
             "If defined performance of tests is tracked.");
 
+    private final OptionSpec exportProbesXmlSpec = parser.accepts("exportProbesXml",
+            "If defined the probe results are additionally written as probes-*.xml files.");
+
     private final OptionSpec<Boolean> verifyEnabledSpec = parser.accepts("verifyEnabled",
             "Defines if tests are verified.")
             .withRequiredArg().ofType(Boolean.class).defaultsTo(true);
@@ -232,7 +270,9 @@ final class CoordinatorCli {
                 options.valueOf(cli.workerRefreshSpec),
                 options.valueOf(cli.targetTypeSpec),
                 options.valueOf(cli.targetCountSpec),
-                options.valueOf(cli.syncToTestPhaseSpec)
+                options.valueOf(cli.syncToTestPhaseSpec),
+                getRampUpParameters(options, cli),
+                options.has(cli.exportProbesXmlSpec)
         );
 
         String memberHzConfig = loadMemberHzConfig(options, cli);
@@ -249,7 +289,7 @@ final class CoordinatorCli {
                 initMemberHzConfig(memberHzConfig, componentRegistry, defaultHzPort, licenseKey, simulatorProperties),
                 initClientHzConfig(clientHzConfig, componentRegistry, defaultHzPort, licenseKey),
                 loadLog4jConfig(),
-                options.has(cli.monitorPerformanceSpec)
+                options.has(cli.monitorPerformanceSpec) || options.has(cli.rampUpStartThroughputSpec)
         );
 
         WorkerConfigurationConverter workerConfigurationConverter = new WorkerConfigurationConverter(defaultHzPort, licenseKey,
@@ -277,12 +317,39 @@ final class CoordinatorCli {
         testSuite.setWaitForTestCase(options.has(cli.waitForTestCaseSpec));
         testSuite.setFailFast(options.valueOf(cli.failFastSpec));
         testSuite.setTolerableFailures(fromPropertyValue(options.valueOf(cli.tolerableFailureSpec)));
-        if (testSuite.getDurationSeconds() == 0 && !testSuite.isWaitForTestCase()) {
+        if (options.has(cli.rampUpStartThroughputSpec)) {
+            if (testSuite.getDurationSeconds() > 0) {
+                throw new CommandLineExitException("--rampUpStartThroughput cannot be combined with --duration");
+            }
+        } else if (testSuite.getDurationSeconds() == 0 && !testSuite.isWaitForTestCase()) {
             throw new CommandLineExitException("You need to define --duration or --waitForTestCase or both!");
         }
         return testSuite;
     }
 
+    private static RampUpParameters getRampUpParameters(OptionSet options, CoordinatorCli cli) {
+        if (!options.has(cli.rampUpStartThroughputSpec)) {
+            return null;
+        }
+
+        double startThroughput = options.valueOf(cli.rampUpStartThroughputSpec);
+        double stepThroughput = (options.has(cli.rampUpStepThroughputSpec)
+                ? options.valueOf(cli.rampUpStepThroughputSpec) : startThroughput);
+        try {
+            return new RampUpParameters(
+                    startThroughput,
+                    stepThroughput,
+                    options.valueOf(cli.rampUpMaxThroughputSpec),
+                    parseDurationSeconds(options.valueOf(cli.rampUpStepDurationSpec)),
+                    options.valueOf(cli.rampUpLatencyPercentileSpec),
+                    options.valueOf(cli.rampUpMaxLatencyMicrosSpec),
+                    options.valueOf(cli.rampUpMinThroughputGainSpec)
+            );
+        } catch (IllegalArgumentException e) {
+            throw new CommandLineExitException(e.getMessage(), e);
+        }
+    }
+
     private static ComponentRegistry getComponentRegistry(CoordinatorCli cli, OptionSet options, TestSuite testSuite,
                                                           SimulatorProperties simulatorProperties) {
         ComponentRegistry componentRegistry;
@@ -351,9 +418,11 @@ final class CoordinatorCli {
         if (!options.has(cli.durationSpec)) {
             return 0;
         }
+        return parseDurationSeconds(options.valueOf(cli.durationSpec));
+    }
 
+    private static int parseDurationSeconds(String value) {
         int duration;
-        String value = options.valueOf(cli.durationSpec);
         try {
             if (value.endsWith("s")) {
                 duration = parseDurationWithoutLastChar(TimeUnit.SECONDS, value);
@@ -38,9 +38,22 @@ class CoordinatorParameters {
 
     private final TestPhase lastTestPhaseToSync;
 
+    private final RampUpParameters rampUpParameters;
+
+    private final boolean exportProbesXml;
+
     CoordinatorParameters(SimulatorProperties properties, String workerClassPath, boolean uploadHazelcastJARs,
                           boolean enterpriseEnabled, boolean verifyEnabled, boolean parallel, boolean refreshJvm,
                           TargetType targetType, int targetCount, TestPhase lastTestPhaseToSync) {
+        this(properties, workerClassPath, uploadHazelcastJARs, enterpriseEnabled, verifyEnabled, parallel, refreshJvm, targetType,
+                targetCount, lastTestPhaseToSync, null, false);
+    }
+
+    @SuppressWarnings("checkstyle:parameternumber")
+    CoordinatorParameters(SimulatorProperties properties, String workerClassPath, boolean uploadHazelcastJARs,
+                          boolean enterpriseEnabled, boolean verifyEnabled, boolean parallel, boolean refreshJvm,
+                          TargetType targetType, int targetCount, TestPhase lastTestPhaseToSync,
+                          RampUpParameters rampUpParameters, boolean exportProbesXml) {
         this.simulatorProperties = properties;
         this.workerClassPath = workerClassPath;
 
@@ -54,6 +67,10 @@ class CoordinatorParameters {
         this.targetCount = targetCount;
 
         this.lastTestPhaseToSync = lastTestPhaseToSync;
+
+        this.rampUpParameters = rampUpParameters;
+
+        this.exportProbesXml = exportProbesXml;
     }
 
     SimulatorProperties getSimulatorProperties() {
@@ -95,4 +112,17 @@ class CoordinatorParameters {
     TestPhase getLastTestPhaseToSync() {
         return lastTestPhaseToSync;
     }
+
+    /**
+     * Returns the {@link RampUpParameters}.
+     *
+     * @return the {@link RampUpParameters} or {@code null} if the ramp-up mode is disabled
+     */
+    RampUpParameters getRampUpParameters() {
+        return rampUpParameters;
+    }
+
+    boolean isExportProbesXml() {
+        return exportProbesXml;
+    }
 }
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.coordinator;
+
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.utils.FileUtilsException;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static java.lang.Math.max;
+import static java.lang.String.format;
+
+/**
+ * Responsible for merging the interval histograms of all Simulator Workers into a cluster wide latency log per probe.
+ *
+ * The Workers send their interval histograms independently, so their intervals are not aligned to the wall clock. Each
+ * histogram is assigned to the interval of its sequence number, which is counted by each Worker from the first performance
+ * monitor interval of the test. So clock skew between the Workers or a delayed monitor run doesn't shift a histogram into a
+ * wrong interval. An interval is merged and written to the latency log of its probe, as soon as a histogram of a later interval
+ * has been received, which is {@link #PENDING_INTERVALS} ahead. So histograms of slower Workers are still merged into the
+ * correct interval. The pending intervals of a test are written and its latency logs are closed when the test has finished.
+ * The remaining latency logs are closed when the container is closed.
+ */
+public class IntervalHistogramContainer {
+
+    static final int PENDING_INTERVALS = 2;
+
+    private static final Logger LOGGER = Logger.getLogger(IntervalHistogramContainer.class);
+
+    private final Map<String, ProbeIntervalLog> probeIntervalLogMap = new HashMap<String, ProbeIntervalLog>();
+    private final Set<String> closedTestIds = new HashSet<String>();
+
+    private final String testSuiteId;
+    private final long intervalMillis;
+
+    public IntervalHistogramContainer(String testSuiteId, int intervalSeconds) {
+        this.testSuiteId = testSuiteId;
+        this.intervalMillis = TimeUnit.SECONDS.toMillis(intervalSeconds);
+    }
+
+    public synchronized void addIntervalHistograms(SimulatorAddress workerAddress, String testId, long sequence, long timestamp,
+                                                   Map<String, Histogram> histograms) {
+        if (closedTestIds.contains(testId)) {
+            LOGGER.warn(format("Interval histograms from %s of finished test %s were received too late and are dropped",
+                    workerAddress, testId));
+            return;
+        }
+        for (Map.Entry<String, Histogram> histogramEntry : histograms.entrySet()) {
+            String probeName = histogramEntry.getKey();
+            getOrCreateProbeIntervalLog(testId, probeName).add(workerAddress, sequence, timestamp, histogramEntry.getValue());
+        }
+    }
+
+    /**
+     * Writes all pending intervals of a finished test and closes its latency logs.
+     *
+     * @param testId the id of the finished test
+     */
+    public synchronized void closeTest(String testId) {
+        closedTestIds.add(testId);
+        Iterator<ProbeIntervalLog> iterator = probeIntervalLogMap.values().iterator();
+        while (iterator.hasNext()) {
+            ProbeIntervalLog probeIntervalLog = iterator.next();
+            if (probeIntervalLog.testId.equals(testId)) {
+                probeIntervalLog.close();
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void close() {
+        for (ProbeIntervalLog probeIntervalLog : probeIntervalLogMap.values()) {
+            probeIntervalLog.close();
+        }
+        probeIntervalLogMap.clear();
+    }
+
+    File getLatencyFile(String testId, String probeName) {
+        return new File("latency-" + testSuiteId + '_' + testId + '-' + probeName + ".txt");
+    }
+
+    private ProbeIntervalLog getOrCreateProbeIntervalLog(String testId, String probeName) {
+        String key = testId + '-' + probeName;
+        ProbeIntervalLog probeIntervalLog = probeIntervalLogMap.get(key);
+        if (probeIntervalLog == null) {
+            probeIntervalLog = new ProbeIntervalLog(testId, probeName);
+            probeIntervalLogMap.put(key, probeIntervalLog);
+        }
+        return probeIntervalLog;
+    }
+
+    /**
+     * Merges the histograms per interval and writes them in order to the latency log of a single probe.
+     */
+    private final class ProbeIntervalLog {
+
+        private final TreeMap<Long, Histogram> pendingIntervals = new TreeMap<Long, Histogram>();
+
+        private final String testId;
+        private final String name;
+        private final PrintStream stream;
+        private final HistogramLogWriter histogramLogWriter;
+
+        private long lastWrittenInterval = Long.MIN_VALUE;
+
+        private ProbeIntervalLog(String testId, String probeName) {
+            this.testId = testId;
+            this.name = testId + '.' + probeName;
+            this.stream = openStream(getLatencyFile(testId, probeName));
+            this.histogramLogWriter = new HistogramLogWriter(stream);
+
+            histogramLogWriter.outputComment("[Cluster latency histograms for " + name + ']');
+            histogramLogWriter.outputLogFormatVersion();
+            histogramLogWriter.outputLegend();
+        }
+
+        private void add(SimulatorAddress workerAddress, long interval, long timestamp, Histogram histogram) {
+            if (interval <= lastWrittenInterval) {
+                LOGGER.warn(format("Interval histogram from %s of %s was received too late and is dropped", workerAddress, name));
+                return;
+            }
+            Histogram mergedHistogram = pendingIntervals.get(interval);
+            if (mergedHistogram == null) {
+                mergedHistogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+                pendingIntervals.put(interval, mergedHistogram);
+            }
+            mergedHistogram.add(histogram);
+            // the merged interval ends with the latest Worker interval
+            mergedHistogram.setEndTimeStamp(max(mergedHistogram.getEndTimeStamp(), timestamp));
+
+            writeIntervals(pendingIntervals.lastKey() - PENDING_INTERVALS);
+        }
+
+        private void writeIntervals(long lastInterval) {
+            boolean written = false;
+            Iterator<Map.Entry<Long, Histogram>> iterator = pendingIntervals.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Long, Histogram> intervalEntry = iterator.next();
+                long interval = intervalEntry.getKey();
+                if (interval > lastInterval) {
+                    break;
+                }
+                Histogram mergedHistogram = intervalEntry.getValue();
+                mergedHistogram.setStartTimeStamp(mergedHistogram.getEndTimeStamp() - intervalMillis);
+                histogramLogWriter.outputIntervalHistogram(mergedHistogram);
+
+                lastWrittenInterval = interval;
+                written = true;
+                iterator.remove();
+            }
+            if (written) {
+                stream.flush();
+            }
+        }
+
+        private void close() {
+            writeIntervals(Long.MAX_VALUE);
+            closeQuietly(stream);
+        }
+    }
+
+    private static PrintStream openStream(File file) {
+        try {
+            return new PrintStream(new BufferedOutputStream(new FileOutputStream(file)), false);
+        } catch (FileNotFoundException e) {
+            throw new FileUtilsException("Could not open latency file " + file.getAbsolutePath(), e);
+        }
+    }
+}
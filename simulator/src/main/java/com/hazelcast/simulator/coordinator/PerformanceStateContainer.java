@@ -17,8 +17,10 @@ package com.hazelcast.simulator.coordinator;
 
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.worker.performance.PerformanceState;
+import org.HdrHistogram.Histogram;
 import org.apache.log4j.Logger;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Queue;
@@ -28,6 +30,8 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
 import static com.hazelcast.simulator.utils.FileUtils.appendText;
 import static com.hazelcast.simulator.utils.FormatUtils.NEW_LINE;
 import static com.hazelcast.simulator.utils.FormatUtils.formatDouble;
@@ -40,6 +44,10 @@ import static java.util.concurrent.TimeUnit.MICROSECONDS;
 
 /**
  * Responsible for storing and formatting performance metrics from Simulator workers.
+ *
+ * If the Simulator Workers send the latency histograms of their intervals (see {@link #addIntervalLatencyHistograms}), those are
+ * merged so the reported latency values are the real percentiles over all Simulator Workers. Otherwise the maximum latency values
+ * of all Simulator Workers are used.
  */
 public class PerformanceStateContainer {
 
@@ -62,6 +70,11 @@ public class PerformanceStateContainer {
     private final ConcurrentMap<String, AtomicReference<Queue<WorkerPerformanceState>>> testPerformanceStateQueueRefs
             = new ConcurrentHashMap<String, AtomicReference<Queue<WorkerPerformanceState>>>();
 
+    // holds a map per testCaseId with a latency histogram per Agent SimulatorAddress, which contains all received latency
+    // histograms of its Workers for this testCaseId (so the latencies of different tests are not mixed)
+    private final ConcurrentMap<String, ConcurrentMap<SimulatorAddress, Histogram>> testLatencyHistogramMap
+            = new ConcurrentHashMap<String, ConcurrentMap<SimulatorAddress, Histogram>>();
+
     public void init(String testCaseId) {
         Queue<WorkerPerformanceState> queue = new ConcurrentLinkedQueue<WorkerPerformanceState>();
         AtomicReference<Queue<WorkerPerformanceState>> reference = new AtomicReference<Queue<WorkerPerformanceState>>(queue);
@@ -76,16 +89,33 @@ public class PerformanceStateContainer {
             ConcurrentMap<String, PerformanceState> lastPerformanceStateMap = getOrCreateLastPerformanceStateMap(workerAddress);
             lastPerformanceStateMap.put(testCaseId, performanceState);
 
-            AtomicReference<Queue<WorkerPerformanceState>> atomicReference = testPerformanceStateQueueRefs.get(testCaseId);
-            if (atomicReference != null) {
-                Queue<WorkerPerformanceState> performanceStateQueue = atomicReference.get();
-                if (performanceStateQueue != null) {
-                    performanceStateQueue.add(new WorkerPerformanceState(workerAddress, performanceState));
-                }
-            }
+            addWorkerPerformanceState(testCaseId, new WorkerPerformanceState(workerAddress, performanceState, null));
         }
     }
 
+    /**
+     * Adds the interval latency histograms of the probes of a single Worker and testCaseId.
+     *
+     * The histograms are merged with the histograms of the other Workers of the same interval and in total per Agent.
+     *
+     * @param workerAddress   the {@link SimulatorAddress} of the Worker
+     * @param testCaseId      the testCaseId of the histograms
+     * @param probeHistograms the interval latency histograms of the probes
+     */
+    public void addIntervalLatencyHistograms(SimulatorAddress workerAddress, String testCaseId,
+                                             Collection<Histogram> probeHistograms) {
+        Histogram intervalLatencyHistogram = null;
+        for (Histogram probeHistogram : probeHistograms) {
+            intervalLatencyHistogram = addLatencyHistogram(intervalLatencyHistogram, probeHistogram);
+        }
+        if (intervalLatencyHistogram == null) {
+            return;
+        }
+
+        addAgentLatencyHistogram(testCaseId, workerAddress.getParent(), intervalLatencyHistogram);
+        addWorkerPerformanceState(testCaseId, new WorkerPerformanceState(workerAddress, null, intervalLatencyHistogram));
+    }
+
     public String getPerformanceNumbers(String testCaseId) {
         PerformanceState performanceState = getPerformanceStateForTestCase(testCaseId);
         if (performanceState.isEmpty() || performanceState.getOperationCount() < 1) {
@@ -114,20 +144,63 @@ public class PerformanceStateContainer {
         );
     }
 
+    /**
+     * Returns the total operation count of all Workers for the given testCaseId, as reported by their last performance state.
+     *
+     * @param testCaseId the testCaseId to return the operation count for
+     * @return the total operation count
+     */
+    long getOperationCount(String testCaseId) {
+        long operationCount = 0;
+        for (ConcurrentMap<String, PerformanceState> lastPerformanceStateMap : workerLastPerformanceStateMap.values()) {
+            PerformanceState performanceState = lastPerformanceStateMap.get(testCaseId);
+            if (performanceState != null && !performanceState.isEmpty()) {
+                operationCount += performanceState.getOperationCount();
+            }
+        }
+        return operationCount;
+    }
+
+    /**
+     * Returns the merged latency histogram of all Workers, which have been received for the given testCaseId since the last call.
+     *
+     * This method shares the interval with {@link #getPerformanceNumbers(String)}, so just one of them should be used per test.
+     *
+     * @param testCaseId the testCaseId to return the latency histogram for
+     * @return the merged latency histogram or {@code null} if no latency histograms have been received
+     */
+    Histogram getIntervalLatencyHistogram(String testCaseId) {
+        Queue<WorkerPerformanceState> performanceStateQueue = swapPerformanceStateQueue(testCaseId);
+        if (performanceStateQueue == null) {
+            return null;
+        }
+
+        Histogram intervalLatencyHistogram = null;
+        for (WorkerPerformanceState workerPerformanceState : performanceStateQueue) {
+            intervalLatencyHistogram = addLatencyHistogram(intervalLatencyHistogram,
+                    workerPerformanceState.intervalLatencyHistogram);
+        }
+        return intervalLatencyHistogram;
+    }
+
     PerformanceState getPerformanceStateForTestCase(String testCaseId) {
         // return if no queue of WorkerPerformanceState can be found (unknown testCaseId)
-        AtomicReference<Queue<WorkerPerformanceState>> atomicReference = testPerformanceStateQueueRefs.get(testCaseId);
-        if (atomicReference == null) {
+        Queue<WorkerPerformanceState> performanceStateQueue = swapPerformanceStateQueue(testCaseId);
+        if (performanceStateQueue == null) {
             return new PerformanceState();
         }
 
-        // swap queue of WorkerPerformanceState for this testCaseId
-        ConcurrentLinkedQueue<WorkerPerformanceState> newQueue = new ConcurrentLinkedQueue<WorkerPerformanceState>();
-        Queue<WorkerPerformanceState> performanceStateQueue = atomicReference.getAndSet(newQueue);
-
         // aggregate the PerformanceState instances per Worker by maximum values (since from same Worker)
+        // and merge all latency histograms of the interval
         Map<SimulatorAddress, PerformanceState> workerPerformanceStateMap = new HashMap<SimulatorAddress, PerformanceState>();
+        Histogram intervalLatencyHistogram = null;
         for (WorkerPerformanceState workerPerformanceState : performanceStateQueue) {
+            Histogram workerLatencyHistogram = workerPerformanceState.intervalLatencyHistogram;
+            intervalLatencyHistogram = addLatencyHistogram(intervalLatencyHistogram, workerLatencyHistogram);
+            if (workerPerformanceState.performanceState == null) {
+                continue;
+            }
+
             PerformanceState candidate = workerPerformanceStateMap.get(workerPerformanceState.simulatorAddress);
             if (candidate == null) {
                 workerPerformanceStateMap.put(workerPerformanceState.simulatorAddress, workerPerformanceState.performanceState);
@@ -141,7 +214,15 @@ public class PerformanceStateContainer {
         for (PerformanceState workerPerformanceState : workerPerformanceStateMap.values()) {
             performanceState.add(workerPerformanceState);
         }
-        return performanceState;
+        if (performanceState.isEmpty() || intervalLatencyHistogram == null) {
+            return performanceState;
+        }
+
+        // replace the maximum latency values with the real values over all Workers
+        return new PerformanceState(performanceState.getOperationCount(), performanceState.getIntervalThroughput(),
+                performanceState.getTotalThroughput(), intervalLatencyHistogram.getMean(),
+                intervalLatencyHistogram.getValueAtPercentile(INTERVAL_LATENCY_PERCENTILE),
+                intervalLatencyHistogram.getMaxValue());
     }
 
     void logDetailedPerformanceInfo() {
@@ -156,7 +237,7 @@ public class PerformanceStateContainer {
             return;
         }
 
-        appendText(totalOperationCount + NEW_LINE, PERFORMANCE_FILE_NAME);
+        StringBuilder performanceInfo = new StringBuilder().append(totalOperationCount).append(NEW_LINE);
         LOGGER.info(format("Total performance       %s%% %s ops %s ops/s",
                 formatPercentage(1, 1),
                 formatLong(totalOperationCount, OPERATION_COUNT_FORMAT_LENGTH),
@@ -173,6 +254,27 @@ public class PerformanceStateContainer {
                     formatLong(operationCount, OPERATION_COUNT_FORMAT_LENGTH),
                     formatDouble(performanceState.getTotalThroughput(), THROUGHPUT_FORMAT_LENGTH)));
         }
+
+        for (Map.Entry<String, ConcurrentMap<SimulatorAddress, Histogram>> testEntry : testLatencyHistogramMap.entrySet()) {
+            String testCaseId = testEntry.getKey();
+            Histogram testLatencyHistogram = getTotalLatencyHistogram(testCaseId);
+            if (testLatencyHistogram == null) {
+                continue;
+            }
+            String latencyInfo = getLatencyInfo(testLatencyHistogram);
+            LOGGER.info(format("Test %-18s %s", testCaseId, latencyInfo));
+            performanceInfo.append(format("Test %s latency %s", testCaseId, latencyInfo)).append(NEW_LINE);
+
+            for (Map.Entry<SimulatorAddress, Histogram> agentEntry : testEntry.getValue().entrySet()) {
+                SimulatorAddress agentAddress = agentEntry.getKey();
+                String agentLatencyInfo = getLatencyInfo(agentEntry.getValue());
+                LOGGER.info(format("  Agent %-15s %s", agentAddress, agentLatencyInfo));
+                performanceInfo.append(format("Test %s Agent %s latency %s", testCaseId, agentAddress, agentLatencyInfo))
+                        .append(NEW_LINE);
+            }
+        }
+
+        appendText(performanceInfo.toString(), PERFORMANCE_FILE_NAME);
     }
 
     void calculatePerformanceStates(PerformanceState totalPerformanceState,
@@ -198,6 +300,94 @@ public class PerformanceStateContainer {
         }
     }
 
+    /**
+     * Returns the merged latency histogram of all Workers, which have been received for the given testCaseId.
+     *
+     * @param testCaseId the testCaseId to return the latency histogram for
+     * @return the merged latency histogram or {@code null} if no latency histograms have been received
+     */
+    Histogram getTotalLatencyHistogram(String testCaseId) {
+        ConcurrentMap<SimulatorAddress, Histogram> agentLatencyHistogramMap = testLatencyHistogramMap.get(testCaseId);
+        if (agentLatencyHistogramMap == null) {
+            return null;
+        }
+
+        Histogram totalLatencyHistogram = null;
+        for (Histogram agentLatencyHistogram : agentLatencyHistogramMap.values()) {
+            if (totalLatencyHistogram == null) {
+                totalLatencyHistogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+            }
+            synchronized (agentLatencyHistogram) {
+                totalLatencyHistogram.add(agentLatencyHistogram);
+            }
+        }
+        return totalLatencyHistogram;
+    }
+
+    private void addWorkerPerformanceState(String testCaseId, WorkerPerformanceState workerPerformanceState) {
+        AtomicReference<Queue<WorkerPerformanceState>> atomicReference = testPerformanceStateQueueRefs.get(testCaseId);
+        if (atomicReference != null) {
+            Queue<WorkerPerformanceState> performanceStateQueue = atomicReference.get();
+            if (performanceStateQueue != null) {
+                performanceStateQueue.add(workerPerformanceState);
+            }
+        }
+    }
+
+    private Queue<WorkerPerformanceState> swapPerformanceStateQueue(String testCaseId) {
+        AtomicReference<Queue<WorkerPerformanceState>> atomicReference = testPerformanceStateQueueRefs.get(testCaseId);
+        if (atomicReference == null) {
+            return null;
+        }
+
+        // swap queue of WorkerPerformanceState for this testCaseId
+        return atomicReference.getAndSet(new ConcurrentLinkedQueue<WorkerPerformanceState>());
+    }
+
+    private static Histogram addLatencyHistogram(Histogram latencyHistogram, Histogram other) {
+        if (other == null) {
+            return latencyHistogram;
+        }
+        if (latencyHistogram == null) {
+            latencyHistogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        }
+        latencyHistogram.add(other);
+        return latencyHistogram;
+    }
+
+    private void addAgentLatencyHistogram(String testCaseId, SimulatorAddress agentAddress, Histogram intervalLatencyHistogram) {
+        ConcurrentMap<SimulatorAddress, Histogram> agentLatencyHistogramMap = testLatencyHistogramMap.get(testCaseId);
+        if (agentLatencyHistogramMap == null) {
+            ConcurrentMap<SimulatorAddress, Histogram> candidate = new ConcurrentHashMap<SimulatorAddress, Histogram>();
+            agentLatencyHistogramMap = testLatencyHistogramMap.putIfAbsent(testCaseId, candidate);
+            if (agentLatencyHistogramMap == null) {
+                agentLatencyHistogramMap = candidate;
+            }
+        }
+
+        Histogram agentLatencyHistogram = agentLatencyHistogramMap.get(agentAddress);
+        if (agentLatencyHistogram == null) {
+            Histogram candidate = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+            agentLatencyHistogram = agentLatencyHistogramMap.putIfAbsent(agentAddress, candidate);
+            if (agentLatencyHistogram == null) {
+                agentLatencyHistogram = candidate;
+            }
+        }
+        synchronized (agentLatencyHistogram) {
+            agentLatencyHistogram.add(intervalLatencyHistogram);
+        }
+    }
+
+    private static String getLatencyInfo(Histogram latencyHistogram) {
+        synchronized (latencyHistogram) {
+            return format("%s µs (avg) %s µs (%sth) %s µs (max)",
+                    formatDouble(latencyHistogram.getMean(), LATENCY_FORMAT_LENGTH),
+                    formatLong(latencyHistogram.getValueAtPercentile(INTERVAL_LATENCY_PERCENTILE), LATENCY_FORMAT_LENGTH),
+                    INTERVAL_LATENCY_PERCENTILE,
+                    formatLong(latencyHistogram.getMaxValue(), LATENCY_FORMAT_LENGTH));
+        }
+    }
+
     private ConcurrentMap<String, PerformanceState> getOrCreateLastPerformanceStateMap(SimulatorAddress workerAddress) {
         ConcurrentMap<String, PerformanceState> map = workerLastPerformanceStateMap.get(workerAddress);
         if (map != null) {
@@ -208,14 +398,20 @@ public class PerformanceStateContainer {
         return (map == null ? candidate : map);
     }
 
+    /**
+     * Holds either a {@link PerformanceState} or an interval latency {@link Histogram} of a Worker.
+     */
     private static final class WorkerPerformanceState {
 
         private final SimulatorAddress simulatorAddress;
         private final PerformanceState performanceState;
+        private final Histogram intervalLatencyHistogram;
 
-        WorkerPerformanceState(SimulatorAddress simulatorAddress, PerformanceState performanceState) {
+        WorkerPerformanceState(SimulatorAddress simulatorAddress, PerformanceState performanceState,
+                               Histogram intervalLatencyHistogram) {
             this.simulatorAddress = simulatorAddress;
             this.performanceState = performanceState;
+            this.intervalLatencyHistogram = intervalLatencyHistogram;
         }
     }
 }
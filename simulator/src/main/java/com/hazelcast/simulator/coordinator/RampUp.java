@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.coordinator;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+
+import static com.hazelcast.simulator.utils.FileUtils.appendText;
+import static com.hazelcast.simulator.utils.FileUtils.writeText;
+import static com.hazelcast.simulator.utils.FormatUtils.NEW_LINE;
+import static java.lang.String.format;
+
+/**
+ * Controls the steps of the ramp-up mode of a single test and writes its throughput/latency curve.
+ *
+ * Each step is evaluated with the measured throughput and the merged latency histogram of all Workers. The ramp-up is completed
+ * if the latency percentile exceeds the SLA, if the measured throughput increased by less than the configured fraction of the
+ * step increment or if the next step would exceed the maximum target throughput.
+ */
+final class RampUp {
+
+    private static final String CURVE_HEADER = "# step target(ops/s) throughput(ops/s) operations"
+            + " mean(us) p50(us) p90(us) p99(us) p99.9(us) max(us)";
+
+    private final RampUpParameters parameters;
+    private final File curveFile;
+
+    private int step = 1;
+    private double targetThroughput;
+    private double lastThroughput = -1;
+    private String stopReason;
+
+    RampUp(RampUpParameters parameters, File curveFile) {
+        this.parameters = parameters;
+        this.curveFile = curveFile;
+        this.targetThroughput = parameters.getStartThroughput();
+
+        writeText(CURVE_HEADER + NEW_LINE, curveFile);
+    }
+
+    int getStep() {
+        return step;
+    }
+
+    double getTargetThroughput() {
+        return targetThroughput;
+    }
+
+    boolean isCompleted() {
+        return (stopReason != null);
+    }
+
+    String getStopReason() {
+        return stopReason;
+    }
+
+    /**
+     * Adds the measurement of the current step, appends it to the curve file and decides if there is a next step.
+     *
+     * @param operationCount   the number of operations of all Workers during the step
+     * @param elapsedSeconds   the measured duration of the step in seconds
+     * @param latencyHistogram the merged latency histogram of all Workers or {@code null} if not available
+     * @return the measured throughput of the step in operations per second
+     */
+    double addStepResult(long operationCount, double elapsedSeconds, Histogram latencyHistogram) {
+        if (isCompleted()) {
+            throw new IllegalStateException("Ramp-up is already completed: " + stopReason);
+        }
+
+        double throughput = (elapsedSeconds > 0 ? operationCount / elapsedSeconds : 0);
+        appendText(format("%d %.2f %.2f %d %s", step, targetThroughput, throughput, operationCount,
+                getLatencyColumns(latencyHistogram)) + NEW_LINE, curveFile);
+
+        stopReason = checkLatency(latencyHistogram);
+        if (stopReason == null) {
+            stopReason = checkThroughputGain(throughput);
+        }
+        if (stopReason == null) {
+            stopReason = nextStep();
+        }
+        if (stopReason != null) {
+            appendText("# completed: " + stopReason + NEW_LINE, curveFile);
+        }
+
+        lastThroughput = throughput;
+        return throughput;
+    }
+
+    private String checkLatency(Histogram latencyHistogram) {
+        long maxLatencyMicros = parameters.getMaxLatencyMicros();
+        if (maxLatencyMicros <= 0 || latencyHistogram == null || latencyHistogram.getTotalCount() == 0) {
+            return null;
+        }
+        double percentile = parameters.getLatencyPercentile();
+        long latencyMicros = latencyHistogram.getValueAtPercentile(percentile);
+        if (latencyMicros <= maxLatencyMicros) {
+            return null;
+        }
+        return format("%sth percentile latency of %d us exceeds the SLA of %d us", percentile, latencyMicros, maxLatencyMicros);
+    }
+
+    private String checkThroughputGain(double throughput) {
+        if (lastThroughput < 0) {
+            return null;
+        }
+        double minGain = parameters.getMinThroughputGain() * parameters.getStepThroughput();
+        double gain = throughput - lastThroughput;
+        if (gain >= minGain) {
+            return null;
+        }
+        return format("throughput increased by %.2f ops/s, which is less than the minimum gain of %.2f ops/s", gain, minGain);
+    }
+
+    private String nextStep() {
+        double nextTargetThroughput = targetThroughput + parameters.getStepThroughput();
+        double maxThroughput = parameters.getMaxThroughput();
+        if (maxThroughput > 0 && nextTargetThroughput > maxThroughput) {
+            return format("maximum target throughput of %.2f ops/s reached", maxThroughput);
+        }
+        step++;
+        targetThroughput = nextTargetThroughput;
+        return null;
+    }
+
+    @SuppressWarnings("checkstyle:magicnumber")
+    private static String getLatencyColumns(Histogram histogram) {
+        if (histogram == null || histogram.getTotalCount() == 0) {
+            return "- - - - - -";
+        }
+        return format("%.2f %d %d %d %d %d", histogram.getMean(), histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(90), histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9),
+                histogram.getMaxValue());
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.coordinator;
+
+import static java.lang.String.format;
+
+/**
+ * Parameters for the ramp-up mode of the Simulator Coordinator.
+ *
+ * In this mode the target throughput of a test is increased step by step, until the latency exceeds the SLA, the measured
+ * throughput doesn't increase anymore or the maximum target throughput has been reached.
+ */
+class RampUpParameters {
+
+    static final double DEFAULT_LATENCY_PERCENTILE = 99;
+    static final double DEFAULT_MIN_THROUGHPUT_GAIN = 0.5;
+
+    private static final double MAX_PERCENTILE = 100;
+
+    private final double startThroughput;
+    private final double stepThroughput;
+    private final double maxThroughput;
+    private final int stepDurationSeconds;
+
+    private final double latencyPercentile;
+    private final long maxLatencyMicros;
+    private final double minThroughputGain;
+
+    /**
+     * Creates the {@link RampUpParameters}.
+     *
+     * @param startThroughput     the target throughput of the first step in operations per second
+     * @param stepThroughput      the increment of the target throughput per step in operations per second
+     * @param maxThroughput       the maximum target throughput in operations per second, <tt>0</tt> for no limit
+     * @param stepDurationSeconds the measured duration of a step in seconds
+     * @param latencyPercentile   the latency percentile which is checked against the SLA
+     * @param maxLatencyMicros    the SLA for the latency percentile in microseconds, <tt>0</tt> for no SLA
+     * @param minThroughputGain   the minimum fraction of the step increment, by which the measured throughput has to increase
+     */
+    RampUpParameters(double startThroughput, double stepThroughput, double maxThroughput, int stepDurationSeconds,
+                     double latencyPercentile, long maxLatencyMicros, double minThroughputGain) {
+        if (startThroughput <= 0 || stepThroughput <= 0 || maxThroughput < 0) {
+            throw new IllegalArgumentException(format("Invalid ramp-up throughput (start: %.2f, step: %.2f, max: %.2f)",
+                    startThroughput, stepThroughput, maxThroughput));
+        }
+        if (stepDurationSeconds < 1) {
+            throw new IllegalArgumentException("Ramp-up step duration must be a positive number, but was " + stepDurationSeconds);
+        }
+        if (latencyPercentile <= 0 || latencyPercentile > MAX_PERCENTILE) {
+            throw new IllegalArgumentException("Ramp-up latency percentile must be in (0, 100], but was " + latencyPercentile);
+        }
+
+        this.startThroughput = startThroughput;
+        this.stepThroughput = stepThroughput;
+        this.maxThroughput = maxThroughput;
+        this.stepDurationSeconds = stepDurationSeconds;
+
+        this.latencyPercentile = latencyPercentile;
+        this.maxLatencyMicros = maxLatencyMicros;
+        this.minThroughputGain = minThroughputGain;
+    }
+
+    double getStartThroughput() {
+        return startThroughput;
+    }
+
+    double getStepThroughput() {
+        return stepThroughput;
+    }
+
+    double getMaxThroughput() {
+        return maxThroughput;
+    }
+
+    int getStepDurationSeconds() {
+        return stepDurationSeconds;
+    }
+
+    double getLatencyPercentile() {
+        return latencyPercentile;
+    }
+
+    long getMaxLatencyMicros() {
+        return maxLatencyMicros;
+    }
+
+    double getMinThroughputGain() {
+        return minThroughputGain;
+    }
+}
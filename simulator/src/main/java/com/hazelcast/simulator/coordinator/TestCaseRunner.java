@@ -16,6 +16,7 @@
 package com.hazelcast.simulator.coordinator;
 
 import com.hazelcast.simulator.protocol.operation.CreateTestOperation;
+import com.hazelcast.simulator.protocol.operation.SetTargetThroughputOperation;
 import com.hazelcast.simulator.protocol.operation.StartTestOperation;
 import com.hazelcast.simulator.protocol.operation.StartTestPhaseOperation;
 import com.hazelcast.simulator.protocol.operation.StopTestOperation;
@@ -24,8 +25,10 @@ import com.hazelcast.simulator.protocol.registry.TargetType;
 import com.hazelcast.simulator.test.TestCase;
 import com.hazelcast.simulator.test.TestPhase;
 import com.hazelcast.simulator.test.TestSuite;
+import org.HdrHistogram.Histogram;
 import org.apache.log4j.Logger;
 
+import java.io.File;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -48,11 +51,16 @@ import static com.hazelcast.simulator.utils.FormatUtils.formatPercentage;
 import static com.hazelcast.simulator.utils.FormatUtils.padRight;
 import static com.hazelcast.simulator.utils.FormatUtils.secondsToHuman;
 import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * Responsible for running a single {@link TestCase}.
  *
  * Multiple TestCases can be run in parallel, by having multiple TestCaseRunners in parallel.
+ *
+ * If the ramp-up mode is enabled, the RUN phase is not limited by a duration. Instead the target throughput of the test is
+ * increased step by step, until a stop condition of the {@link RampUp} is met. Each step starts with a settle period of one
+ * performance monitor interval, which is not measured. The throughput/latency curve is written to a file per test.
  */
 final class TestCaseRunner implements TestPhaseListener {
 
@@ -73,6 +81,7 @@ final class TestCaseRunner implements TestPhaseListener {
     private final RemoteClient remoteClient;
     private final FailureContainer failureContainer;
     private final PerformanceStateContainer performanceStateContainer;
+    private final IntervalHistogramContainer intervalHistogramContainer;
     private final ComponentRegistry componentRegistry;
 
     private final String prefix;
@@ -86,6 +95,10 @@ final class TestCaseRunner implements TestPhaseListener {
     private final int logPerformanceIntervalSeconds;
     private final int logRunPhaseIntervalSeconds;
 
+    private final RampUpParameters rampUpParameters;
+    private RampUp rampUp;
+
+    @SuppressWarnings("checkstyle:executablestatementcount")
     TestCaseRunner(int testIndex, TestCase testCase, Coordinator coordinator, int paddingLength,
                    Map<TestPhase, CountDownLatch> testPhaseSyncMap) {
         this.testIndex = testIndex;
@@ -96,6 +109,7 @@ final class TestCaseRunner implements TestPhaseListener {
         this.remoteClient = coordinator.getRemoteClient();
         this.failureContainer = coordinator.getFailureContainer();
         this.performanceStateContainer = coordinator.getPerformanceStateContainer();
+        this.intervalHistogramContainer = coordinator.getIntervalHistogramContainer();
         this.componentRegistry = coordinator.getComponentRegistry();
 
         this.prefix = padRight(testCaseId, paddingLength + 1);
@@ -105,6 +119,7 @@ final class TestCaseRunner implements TestPhaseListener {
         this.isVerifyEnabled = coordinatorParameters.isVerifyEnabled();
         this.targetType = coordinatorParameters.getTargetType(componentRegistry.hasClientWorkers());
         this.targetCount = coordinatorParameters.getTargetCount();
+        this.rampUpParameters = coordinatorParameters.getRampUpParameters();
 
         WorkerParameters workerParameters = coordinator.getWorkerParameters();
         this.monitorPerformance = workerParameters.isMonitorPerformance();
@@ -142,6 +157,8 @@ final class TestCaseRunner implements TestPhaseListener {
 
             runPhase(GLOBAL_TEARDOWN);
             runPhase(LOCAL_TEARDOWN);
+
+            intervalHistogramContainer.closeTest(testCaseId);
         } catch (Exception e) {
             throw rethrow(e);
         }
@@ -178,15 +195,25 @@ final class TestCaseRunner implements TestPhaseListener {
     }
 
     private void startTest() {
+        if (rampUpParameters != null) {
+            rampUp = new RampUp(rampUpParameters, new File("rampup-" + testSuite.getId() + '_' + testCaseId + ".txt"));
+            setTargetThroughput(rampUp.getTargetThroughput());
+        }
+
         echo(format("Starting Test start on %s", targetType.toString(targetCount)));
         List<String> targetWorkers = componentRegistry.getWorkerAddresses(targetType, targetCount);
-        remoteClient.sendToTestOnAllWorkers(testCaseId, new StartTestOperation(targetType, targetWorkers));
+        int targetWorkerCount = (targetWorkers.isEmpty() ? componentRegistry.workerCount(targetType) : targetWorkers.size());
+        remoteClient.sendToTestOnAllWorkers(testCaseId, new StartTestOperation(targetType, targetWorkers, targetWorkerCount));
         echo("Completed Test start");
     }
 
+    private void setTargetThroughput(double targetThroughput) {
+        remoteClient.sendToTestOnAllWorkers(testCaseId, new SetTargetThroughputOperation(targetThroughput));
+    }
+
     private void waitForTestCompletion() throws Exception {
         StopThread stopThread = null;
-        if (testSuite.getDurationSeconds() > 0) {
+        if (testSuite.getDurationSeconds() > 0 || rampUp != null) {
             stopThread = new StopThread();
             stopThread.start();
         }
@@ -275,8 +302,12 @@ final class TestCaseRunner implements TestPhaseListener {
         @Override
         public void run() {
             try {
-                echo(format("Test will run for %s", secondsToHuman(testSuite.getDurationSeconds())));
-                sleepUntilFailure(testSuite.getDurationSeconds());
+                if (rampUp != null) {
+                    runRampUp();
+                } else {
+                    echo(format("Test will run for %s", secondsToHuman(testSuite.getDurationSeconds())));
+                    sleepUntilFailure(testSuite.getDurationSeconds());
+                }
                 echo("Test finished running");
 
                 echo("Starting Test stop");
@@ -291,12 +322,7 @@ final class TestCaseRunner implements TestPhaseListener {
         private void sleepUntilFailure(int sleepSeconds) {
             int sleepLoops = sleepSeconds / logRunPhaseIntervalSeconds;
             for (int i = 1; i <= sleepLoops && isRunning; i++) {
-                if (failureContainer.hasCriticalFailure(testCaseId)) {
-                    echo("Critical failure detected, aborting run phase");
-                    return;
-                }
-                if (failureContainer.hasCriticalFailure() && testSuite.isFailFast()) {
-                    echo("Aborting run phase due to failure");
+                if (hasFailure()) {
                     return;
                 }
 
@@ -313,6 +339,69 @@ final class TestCaseRunner implements TestPhaseListener {
             }
         }
 
+        private void runRampUp() {
+            echo(format("Test will ramp up from %.2f ops/s in steps of %.2f ops/s", rampUpParameters.getStartThroughput(),
+                    rampUpParameters.getStepThroughput()));
+            while (isRunning) {
+                // the settle period covers the transition to the new target throughput, so it's not measured
+                if (!sleepStep(logPerformanceIntervalSeconds)) {
+                    return;
+                }
+                performanceStateContainer.getIntervalLatencyHistogram(testCaseId);
+                long startOperationCount = performanceStateContainer.getOperationCount(testCaseId);
+                long started = System.nanoTime();
+
+                if (!sleepStep(rampUpParameters.getStepDurationSeconds())) {
+                    return;
+                }
+                Histogram latencyHistogram = performanceStateContainer.getIntervalLatencyHistogram(testCaseId);
+                long operationCount = performanceStateContainer.getOperationCount(testCaseId) - startOperationCount;
+                double elapsedSeconds = (System.nanoTime() - started) / (double) SECONDS.toNanos(1);
+
+                int step = rampUp.getStep();
+                double targetThroughput = rampUp.getTargetThroughput();
+                double throughput = rampUp.addStepResult(operationCount, elapsedSeconds, latencyHistogram);
+                echo(format("Ramp-up step %d with target %.2f ops/s: %.2f ops/s%s", step, targetThroughput, throughput,
+                        getLatencyInfo(latencyHistogram)));
+
+                if (rampUp.isCompleted()) {
+                    echo("Completed ramp-up: " + rampUp.getStopReason());
+                    return;
+                }
+                setTargetThroughput(rampUp.getTargetThroughput());
+            }
+        }
+
+        private boolean sleepStep(int sleepSeconds) {
+            for (int i = 0; i < sleepSeconds; i++) {
+                if (!isRunning || hasFailure()) {
+                    return false;
+                }
+                sleepSeconds(1);
+            }
+            return isRunning;
+        }
+
+        private boolean hasFailure() {
+            if (failureContainer.hasCriticalFailure(testCaseId)) {
+                echo("Critical failure detected, aborting run phase");
+                return true;
+            }
+            if (failureContainer.hasCriticalFailure() && testSuite.isFailFast()) {
+                echo("Aborting run phase due to failure");
+                return true;
+            }
+            return false;
+        }
+
+        private String getLatencyInfo(Histogram latencyHistogram) {
+            if (latencyHistogram == null || latencyHistogram.getTotalCount() == 0) {
+                return "";
+            }
+            double percentile = rampUpParameters.getLatencyPercentile();
+            return format(" %d us (%sth)", latencyHistogram.getValueAtPercentile(percentile), percentile);
+        }
+
         private void logProgress(int elapsed, int sleepSeconds) {
             String msg = format("Running %s (%s%%)", secondsToHuman(elapsed), formatPercentage(elapsed, sleepSeconds));
             if (monitorPerformance && elapsed % logPerformanceIntervalSeconds == 0) {
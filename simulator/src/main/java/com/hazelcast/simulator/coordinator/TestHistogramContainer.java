@@ -16,6 +16,7 @@
 package com.hazelcast.simulator.coordinator;
 
 import com.hazelcast.simulator.probes.Result;
+import com.hazelcast.simulator.probes.binary.ResultBinaryUtils;
 import com.hazelcast.simulator.probes.impl.ResultImpl;
 import com.hazelcast.simulator.probes.xml.ResultXmlUtils;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
@@ -24,41 +25,47 @@ import org.HdrHistogram.Histogram;
 import org.apache.log4j.Logger;
 
 import java.io.File;
-import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+import static com.hazelcast.simulator.probes.impl.HistogramUtils.fromCompressedBytes;
 import static java.lang.String.format;
-import static javax.xml.bind.DatatypeConverter.parseBase64Binary;
-import static org.HdrHistogram.Histogram.decodeFromCompressedByteBuffer;
 
 /**
  * Responsible for storing and aggregating test histograms from Simulator workers.
+ *
+ * The aggregated probe results are written in the binary probe result format, optionally they are exported as XML.
  */
 public class TestHistogramContainer {
 
     private static final Logger LOGGER = Logger.getLogger(TestHistogramContainer.class);
 
-    private final ConcurrentMap<SimulatorAddress, ConcurrentMap<String, Map<String, String>>> workerTestProbeHistogramMap
-            = new ConcurrentHashMap<SimulatorAddress, ConcurrentMap<String, Map<String, String>>>();
+    private final ConcurrentMap<SimulatorAddress, ConcurrentMap<String, Map<String, byte[]>>> workerTestProbeHistogramMap
+            = new ConcurrentHashMap<SimulatorAddress, ConcurrentMap<String, Map<String, byte[]>>>();
 
     private final PerformanceStateContainer performanceStateContainer;
+    private final boolean exportXml;
 
     public TestHistogramContainer(PerformanceStateContainer performanceStateContainer) {
+        this(performanceStateContainer, false);
+    }
+
+    public TestHistogramContainer(PerformanceStateContainer performanceStateContainer, boolean exportXml) {
         this.performanceStateContainer = performanceStateContainer;
+        this.exportXml = exportXml;
     }
 
-    public synchronized void addTestHistograms(SimulatorAddress workerAddress, String testId, Map<String, String> histograms) {
-        ConcurrentMap<String, Map<String, String>> testHistogramMap = workerTestProbeHistogramMap.get(workerAddress);
+    public synchronized void addTestHistograms(SimulatorAddress workerAddress, String testId, Map<String, byte[]> histograms) {
+        ConcurrentMap<String, Map<String, byte[]>> testHistogramMap = workerTestProbeHistogramMap.get(workerAddress);
         if (testHistogramMap == null) {
-            testHistogramMap = new ConcurrentHashMap<String, Map<String, String>>();
+            testHistogramMap = new ConcurrentHashMap<String, Map<String, byte[]>>();
             workerTestProbeHistogramMap.put(workerAddress, testHistogramMap);
         }
         testHistogramMap.put(testId, histograms);
     }
 
-    public ConcurrentMap<String, Map<String, String>> getTestHistograms(SimulatorAddress workerAddress) {
+    public ConcurrentMap<String, Map<String, byte[]>> getTestHistograms(SimulatorAddress workerAddress) {
         return workerTestProbeHistogramMap.get(workerAddress);
     }
 
@@ -66,8 +73,11 @@ public class TestHistogramContainer {
         PerformanceState performanceState = performanceStateContainer.getPerformanceStateForTestCase(testCaseId);
         Result result = aggregateHistogramsForTestCase(testCaseId, performanceState);
         if (!result.isEmpty()) {
-            String fileName = "probes-" + testSuiteId + '_' + testCaseId + ".xml";
-            ResultXmlUtils.toXml(result, new File(fileName));
+            String fileName = "probes-" + testSuiteId + '_' + testCaseId;
+            ResultBinaryUtils.toBinary(result, new File(fileName + '.' + ResultBinaryUtils.FILE_EXTENSION));
+            if (exportXml) {
+                ResultXmlUtils.toXml(result, new File(fileName + ".xml"));
+            }
             logProbesResultInHumanReadableFormat(testCaseId, result);
         }
     }
@@ -77,17 +87,16 @@ public class TestHistogramContainer {
             return new ResultImpl(testCaseId, 0, 0.0d);
         }
         Result result = new ResultImpl(testCaseId, state.getOperationCount(), state.getTotalThroughput());
-        for (ConcurrentMap<String, Map<String, String>> testHistogramMap : workerTestProbeHistogramMap.values()) {
-            Map<String, String> probeHistogramMap = testHistogramMap.get(testCaseId);
+        for (ConcurrentMap<String, Map<String, byte[]>> testHistogramMap : workerTestProbeHistogramMap.values()) {
+            Map<String, byte[]> probeHistogramMap = testHistogramMap.get(testCaseId);
             if (probeHistogramMap == null) {
                 continue;
             }
-            for (Map.Entry<String, String> mapEntry : probeHistogramMap.entrySet()) {
+            for (Map.Entry<String, byte[]> mapEntry : probeHistogramMap.entrySet()) {
                 String probeName = mapEntry.getKey();
-                String encodedHistogram = mapEntry.getValue();
+                byte[] compressedHistogram = mapEntry.getValue();
                 try {
-                    ByteBuffer buffer = ByteBuffer.wrap(parseBase64Binary(encodedHistogram));
-                    Histogram histogram = decodeFromCompressedByteBuffer(buffer, 0);
+                    Histogram histogram = fromCompressedBytes(compressedHistogram);
                     result.addHistogram(probeName, histogram);
                 } catch (Exception e) {
                     LOGGER.warn("Could not decode histogram from test " + testCaseId + " of probe " + probeName);
@@ -49,6 +49,11 @@ public class WorkerParameters {
     private final String profilerSettings;
     private final String numaCtl;
 
+    private final int workerJvmPoolSize;
+    private final boolean classDataSharing;
+
+    private final int maxInFlightMessages;
+
     public WorkerParameters(SimulatorProperties properties, boolean autoCreateHzInstance, int workerStartupTimeout,
                             String memberJvmOptions, String clientJvmOptions, String memberHzConfig, String clientHzConfig,
                             String log4jConfig, boolean monitorPerformance) {
@@ -70,6 +75,11 @@ public class WorkerParameters {
         this.profiler = initProfiler(properties);
         this.profilerSettings = initProfilerSettings(properties);
         this.numaCtl = properties.get("NUMA_CONTROL", "none");
+
+        this.workerJvmPoolSize = properties.getWorkerJvmPoolSize();
+        this.classDataSharing = properties.isWorkerClassDataSharing();
+
+        this.maxInFlightMessages = properties.getMaxInFlightMessages();
     }
 
     private int initWorkerPerformanceMonitorIntervalSeconds(SimulatorProperties properties) {
@@ -161,6 +171,18 @@ public class WorkerParameters {
         return numaCtl;
     }
 
+    public int getWorkerJvmPoolSize() {
+        return workerJvmPoolSize;
+    }
+
+    public boolean isClassDataSharing() {
+        return classDataSharing;
+    }
+
+    public int getMaxInFlightMessages() {
+        return maxInFlightMessages;
+    }
+
     public static String initMemberHzConfig(String memberHzConfig, ComponentRegistry componentRegistry, int port,
                                             String licenseKey, SimulatorProperties properties) {
         String addressConfig = createAddressConfig("member", componentRegistry, port);
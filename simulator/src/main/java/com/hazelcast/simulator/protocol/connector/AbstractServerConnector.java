@@ -17,6 +17,8 @@ package com.hazelcast.simulator.protocol.connector;
 
 import com.hazelcast.simulator.protocol.core.Response;
 import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureMap;
+import com.hazelcast.simulator.protocol.core.ResponseListener;
 import com.hazelcast.simulator.protocol.core.ResponseType;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.core.SimulatorMessage;
@@ -37,16 +39,13 @@ import org.apache.log4j.Logger;
 
 import java.net.InetSocketAddress;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
-import static com.hazelcast.simulator.protocol.core.ResponseFuture.createFutureKey;
 import static com.hazelcast.simulator.protocol.core.ResponseFuture.createInstance;
-import static com.hazelcast.simulator.protocol.operation.OperationCodec.toJson;
 import static com.hazelcast.simulator.protocol.operation.OperationType.getOperationType;
 import static com.hazelcast.simulator.utils.CommonUtils.joinThread;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
@@ -55,18 +54,30 @@ import static java.lang.String.format;
 
 /**
  * Abstract {@link ServerConnector} class for Simulator Agent and Worker.
+ *
+ * Messages which are submitted via {@link #submit(SimulatorAddress, SimulatorOperation)} are sent by a single thread in the
+ * order of submission. The sender doesn't wait for the response of a message before sending the next one, it just limits the
+ * number of messages which wait for a response (see {@link #DEFAULT_MAX_IN_FLIGHT_MESSAGES}). The responses are handled by a
+ * {@link ResponseListener}, so a slow receiver doesn't serialize all messages behind a single round-trip.
  */
 abstract class AbstractServerConnector implements ServerConnector {
 
+    static final int DEFAULT_MAX_IN_FLIGHT_MESSAGES = 32;
+
+    private static final int WAIT_FOR_IN_FLIGHT_MESSAGES_SECONDS = 60;
+
     private static final Logger LOGGER = Logger.getLogger(AbstractServerConnector.class);
-    private static final SimulatorMessage POISON_PILL = new SimulatorMessage(null, null, 0, null, null);
+    private static final SimulatorMessage POISON_PILL = new SimulatorMessage(null, null, 0, null, (String) null);
 
     private final AtomicLong messageIds = new AtomicLong();
-    private final ConcurrentMap<String, ResponseFuture> messageQueueFutures = new ConcurrentHashMap<String, ResponseFuture>();
+    private final ResponseFutureMap messageQueueFutures = new ResponseFutureMap();
     private final BlockingQueue<SimulatorMessage> messageQueue = new LinkedBlockingQueue<SimulatorMessage>();
     private final MessageQueueThread messageQueueThread = new MessageQueueThread();
 
-    private final ConcurrentMap<String, ResponseFuture> futureMap;
+    private final int maxInFlightMessages;
+    private final Semaphore inFlightMessages;
+
+    private final ResponseFutureMap futureMap;
     private final SimulatorAddress localAddress;
     private final int addressIndex;
     private final int port;
@@ -76,13 +87,20 @@ abstract class AbstractServerConnector implements ServerConnector {
 
     private Channel channel;
 
-    AbstractServerConnector(ConcurrentMap<String, ResponseFuture> futureMap, SimulatorAddress localAddress, int port,
-                            int threadPoolSize) {
-        this(futureMap, localAddress, port, threadPoolSize, createFixedThreadPool(threadPoolSize, "AbstractServerConnector"));
+    AbstractServerConnector(ResponseFutureMap futureMap, SimulatorAddress localAddress, int port,
+                            int threadPoolSize, int maxInFlightMessages) {
+        this(futureMap, localAddress, port, threadPoolSize, maxInFlightMessages,
+                createFixedThreadPool(threadPoolSize, "AbstractServerConnector"));
     }
 
-    AbstractServerConnector(ConcurrentMap<String, ResponseFuture> futureMap, SimulatorAddress localAddress, int port,
-                            int threadPoolSize, ExecutorService executorService) {
+    AbstractServerConnector(ResponseFutureMap futureMap, SimulatorAddress localAddress, int port,
+                            int threadPoolSize, int maxInFlightMessages, ExecutorService executorService) {
+        if (maxInFlightMessages < 1) {
+            throw new IllegalArgumentException("maxInFlightMessages must be at least 1, but was " + maxInFlightMessages);
+        }
+        this.maxInFlightMessages = maxInFlightMessages;
+        this.inFlightMessages = new Semaphore(maxInFlightMessages);
+
         this.futureMap = futureMap;
         this.localAddress = localAddress;
         this.addressIndex = localAddress.getAddressIndex();
@@ -146,7 +164,7 @@ abstract class AbstractServerConnector implements ServerConnector {
     }
 
     @Override
-    public ConcurrentMap<String, ResponseFuture> getFutureMap() {
+    public ResponseFutureMap getFutureMap() {
         return futureMap;
     }
 
@@ -192,24 +210,26 @@ abstract class AbstractServerConnector implements ServerConnector {
         return messageQueue.size();
     }
 
+    int getInFlightMessageCountInternal() {
+        return maxInFlightMessages - inFlightMessages.availablePermits();
+    }
+
     ResponseFuture submit(SimulatorAddress source, SimulatorAddress destination, SimulatorOperation operation) {
         SimulatorMessage message = createSimulatorMessage(source, destination, operation);
-        String futureKey = createFutureKey(source, message.getMessageId(), 0);
-        ResponseFuture responseFuture = createInstance(messageQueueFutures, futureKey);
+        ResponseFuture responseFuture = createInstance(messageQueueFutures, source, message.getMessageId(), 0);
         messageQueue.add(message);
         return responseFuture;
     }
 
     private SimulatorMessage createSimulatorMessage(SimulatorAddress src, SimulatorAddress dst, SimulatorOperation op) {
-        return new SimulatorMessage(dst, src, messageIds.incrementAndGet(), getOperationType(op), toJson(op));
+        return new SimulatorMessage(dst, src, messageIds.incrementAndGet(), getOperationType(op), op);
     }
 
     private ResponseFuture writeAsync(SimulatorMessage message) {
         long messageId = message.getMessageId();
-        String futureKey = createFutureKey(message.getSource(), messageId, addressIndex);
-        ResponseFuture future = createInstance(futureMap, futureKey);
+        ResponseFuture future = createInstance(futureMap, message.getSource(), messageId, addressIndex);
         if (LOGGER.isTraceEnabled()) {
-            LOGGER.trace(format("[%d] %s created ResponseFuture %s", messageId, localAddress, futureKey));
+            LOGGER.trace(format("[%d] %s created %s", messageId, localAddress, future));
         }
         OperationTypeCounter.sent(message.getOperationType());
         getChannelGroup().writeAndFlush(message);
@@ -232,21 +252,12 @@ abstract class AbstractServerConnector implements ServerConnector {
                     SimulatorMessage message = messageQueue.take();
                     if (POISON_PILL.equals(message)) {
                         LOGGER.info("ServerConnectorMessageQueueThread received POISON_PILL and will stop...");
+                        awaitInFlightMessages();
                         break;
                     }
 
-                    Response response = writeAsync(message).get();
-
-                    String futureKey = createFutureKey(message.getSource(), message.getMessageId(), 0);
-                    ResponseFuture responseFuture = messageQueueFutures.get(futureKey);
-                    if (responseFuture != null) {
-                        responseFuture.set(response);
-                    }
-
-                    ResponseType responseType = response.getFirstErrorResponseType();
-                    if (!responseType.equals(ResponseType.SUCCESS)) {
-                        LOGGER.error("Got response type " + responseType + " for " + message);
-                    }
+                    inFlightMessages.acquire();
+                    writeAsync(message).addListener(new MessageQueueResponseListener(message));
                 } catch (Exception e) {
                     LOGGER.error("Error while sending message from messageQueue", e);
                     throw new SimulatorProtocolException("Error while sending message from messageQueue", e);
@@ -254,6 +265,15 @@ abstract class AbstractServerConnector implements ServerConnector {
             }
         }
 
+        private void awaitInFlightMessages() throws InterruptedException {
+            if (!inFlightMessages.tryAcquire(maxInFlightMessages, WAIT_FOR_IN_FLIGHT_MESSAGES_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn(format("%d messages from messageQueue are still waiting for a response",
+                        getInFlightMessageCountInternal()));
+                return;
+            }
+            inFlightMessages.release(maxInFlightMessages);
+        }
+
         public void shutdown() {
             messageQueue.add(POISON_PILL);
 
@@ -270,4 +290,28 @@ abstract class AbstractServerConnector implements ServerConnector {
             joinThread(messageQueueThread);
         }
     }
+
+    private final class MessageQueueResponseListener implements ResponseListener {
+
+        private final SimulatorMessage message;
+
+        private MessageQueueResponseListener(SimulatorMessage message) {
+            this.message = message;
+        }
+
+        @Override
+        public void onResponse(Response response) {
+            inFlightMessages.release();
+
+            ResponseFuture responseFuture = messageQueueFutures.get(message.getSource(), message.getMessageId(), 0);
+            if (responseFuture != null) {
+                responseFuture.set(response);
+            }
+
+            ResponseType responseType = response.getFirstErrorResponseType();
+            if (!responseType.equals(ResponseType.SUCCESS)) {
+                LOGGER.error("Got response type " + responseType + " for " + message);
+            }
+        }
+    }
 }
@@ -20,7 +20,7 @@ import com.hazelcast.simulator.agent.workerjvm.WorkerJvmManager;
 import com.hazelcast.simulator.protocol.core.ClientConnectorManager;
 import com.hazelcast.simulator.protocol.core.ConnectionManager;
 import com.hazelcast.simulator.protocol.core.Response;
-import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureMap;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.exception.RemoteExceptionLogger;
 import com.hazelcast.simulator.protocol.handler.ConnectionListenerHandler;
@@ -39,8 +39,6 @@ import com.hazelcast.simulator.protocol.processors.AgentOperationProcessor;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.group.ChannelGroup;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 import static com.hazelcast.simulator.protocol.core.AddressLevel.AGENT;
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
@@ -59,7 +57,7 @@ public class AgentConnector extends AbstractServerConnector implements ClientPip
     private final ClientConnectorManager clientConnectorManager = new ClientConnectorManager();
 
     private final AgentOperationProcessor processor;
-    private final ConcurrentMap<String, ResponseFuture> futureMap;
+    private final ResponseFutureMap futureMap;
 
     private final SimulatorAddress localAddress;
     private final int addressIndex;
@@ -67,9 +65,10 @@ public class AgentConnector extends AbstractServerConnector implements ClientPip
     private final ConnectionManager connectionManager;
     private final WorkerJvmManager workerJvmManager;
 
-    AgentConnector(ConcurrentMap<String, ResponseFuture> futureMap, SimulatorAddress localAddress, int port, Agent agent,
-                   WorkerJvmManager workerJvmManager, ConnectionManager connectionManager, int threadPoolSize) {
-        super(futureMap, localAddress, port, threadPoolSize);
+    AgentConnector(ResponseFutureMap futureMap, SimulatorAddress localAddress, int port, Agent agent,
+                   WorkerJvmManager workerJvmManager, ConnectionManager connectionManager, int threadPoolSize,
+                   int maxInFlightMessages) {
+        super(futureMap, localAddress, port, threadPoolSize, maxInFlightMessages);
 
         RemoteExceptionLogger exceptionLogger = new RemoteExceptionLogger(localAddress, AGENT_EXCEPTION, this);
         this.processor = new AgentOperationProcessor(exceptionLogger, agent, workerJvmManager, getExecutorService());
@@ -85,7 +84,7 @@ public class AgentConnector extends AbstractServerConnector implements ClientPip
 
     @Override
     public void configureClientPipeline(ChannelPipeline pipeline, SimulatorAddress remoteAddress,
-                                        ConcurrentMap<String, ResponseFuture> futureMap) {
+                                        ResponseFutureMap futureMap) {
         pipeline.addLast("responseEncoder", new ResponseEncoder(localAddress));
         pipeline.addLast("messageEncoder", new MessageEncoder(localAddress, remoteAddress));
         pipeline.addLast("frameDecoder", new SimulatorFrameDecoder());
@@ -105,8 +104,7 @@ public class AgentConnector extends AbstractServerConnector implements ClientPip
         pipeline.addLast("messageEncoder", new MessageEncoder(localAddress, COORDINATOR));
         pipeline.addLast("frameDecoder", new SimulatorFrameDecoder());
         pipeline.addLast("protocolDecoder", new SimulatorProtocolDecoder(localAddress));
-        pipeline.addLast("forwardToWorkerHandler", new ForwardToWorkerHandler(localAddress, clientConnectorManager,
-                getExecutorService()));
+        pipeline.addLast("forwardToWorkerHandler", new ForwardToWorkerHandler(localAddress, clientConnectorManager));
         pipeline.addLast("messageConsumeHandler", new MessageConsumeHandler(localAddress, processor, getExecutorService()));
         pipeline.addLast("responseHandler", new ResponseHandler(localAddress, COORDINATOR, futureMap, addressIndex));
         pipeline.addLast("exceptionHandler", new ExceptionHandler(this));
@@ -132,13 +130,28 @@ public class AgentConnector extends AbstractServerConnector implements ClientPip
      * @param threadPoolSize   size of the Netty thread pool to connect to Worker instances
      */
     public static AgentConnector createInstance(Agent agent, WorkerJvmManager workerJvmManager, int port, int threadPoolSize) {
-        ConcurrentMap<String, ResponseFuture> futureMap = new ConcurrentHashMap<String, ResponseFuture>();
+        return createInstance(agent, workerJvmManager, port, threadPoolSize, DEFAULT_MAX_IN_FLIGHT_MESSAGES);
+    }
+
+    /**
+     * Creates an {@link AgentConnector} instance.
+     *
+     * @param agent               instance of this Simulator Agent
+     * @param workerJvmManager    manager for WorkerJVM instances
+     * @param port                the port for incoming connections
+     * @param threadPoolSize      size of the Netty thread pool to connect to Worker instances
+     * @param maxInFlightMessages maximum number of messages to the Coordinator which wait for a response
+     */
+    public static AgentConnector createInstance(Agent agent, WorkerJvmManager workerJvmManager, int port, int threadPoolSize,
+                                                int maxInFlightMessages) {
+        ResponseFutureMap futureMap = new ResponseFutureMap();
         SimulatorAddress localAddress = new SimulatorAddress(AGENT, agent.getAddressIndex(), 0, 0);
         ConnectionManager connectionManager = new ConnectionManager();
 
         threadPoolSize = max(DEFAULT_THREAD_POOL_SIZE, threadPoolSize);
 
-        return new AgentConnector(futureMap, localAddress, port, agent, workerJvmManager, connectionManager, threadPoolSize);
+        return new AgentConnector(futureMap, localAddress, port, agent, workerJvmManager, connectionManager, threadPoolSize,
+                maxInFlightMessages);
     }
 
     /**
@@ -150,14 +163,40 @@ public class AgentConnector extends AbstractServerConnector implements ClientPip
      * @return the {@link SimulatorAddress} of the Simulator Worker
      */
     public SimulatorAddress addWorker(int workerIndex, String workerHost, int workerPort) {
-        SimulatorAddress remoteAddress = localAddress.getChild(workerIndex);
-        ClientConnector clientConnector = new ClientConnector(this, getEventLoopGroup(), futureMap, localAddress, remoteAddress,
-                workerIndex, workerHost, workerPort);
+        ClientConnector clientConnector = createWorkerConnector(workerIndex, workerHost, workerPort);
         clientConnector.start();
 
+        return addWorker(workerIndex, clientConnector);
+    }
+
+    /**
+     * Creates a {@link ClientConnector} for a Simulator Worker, without connecting to it.
+     *
+     * The connection can be established via {@link ClientConnector#tryStart()}, so a Worker which doesn't accept connections
+     * yet can be polled without creating a new {@link ClientConnector} for each attempt.
+     *
+     * @param workerIndex the index of the Simulator Worker
+     * @param workerHost  the host of the Simulator Worker
+     * @param workerPort  the port of the Simulator Worker
+     * @return the {@link ClientConnector} for the Simulator Worker
+     */
+    public ClientConnector createWorkerConnector(int workerIndex, String workerHost, int workerPort) {
+        SimulatorAddress remoteAddress = localAddress.getChild(workerIndex);
+        return new ClientConnector(this, getEventLoopGroup(), futureMap, localAddress, remoteAddress, workerIndex, workerHost,
+                workerPort);
+    }
+
+    /**
+     * Adds a Simulator Worker, which is already connected.
+     *
+     * @param workerIndex     the index of the Simulator Worker
+     * @param clientConnector the started {@link ClientConnector} of the Simulator Worker
+     * @return the {@link SimulatorAddress} of the Simulator Worker
+     */
+    public SimulatorAddress addWorker(int workerIndex, ClientConnector clientConnector) {
         clientConnectorManager.addClient(workerIndex, clientConnector);
 
-        return remoteAddress;
+        return clientConnector.getRemoteAddress();
     }
 
     /**
@@ -17,6 +17,7 @@ package com.hazelcast.simulator.protocol.connector;
 
 import com.hazelcast.simulator.protocol.core.Response;
 import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureMap;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.core.SimulatorMessage;
 import com.hazelcast.simulator.protocol.core.SimulatorProtocolException;
@@ -33,10 +34,8 @@ import io.netty.channel.socket.nio.NioSocketChannel;
 import org.apache.log4j.Logger;
 
 import java.net.InetSocketAddress;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
-import static com.hazelcast.simulator.protocol.core.ResponseFuture.createFutureKey;
 import static com.hazelcast.simulator.protocol.core.ResponseFuture.createInstance;
 import static com.hazelcast.simulator.protocol.core.SimulatorMessageCodec.getMessageId;
 import static com.hazelcast.simulator.protocol.core.SimulatorMessageCodec.getSourceAddress;
@@ -53,7 +52,7 @@ public class ClientConnector {
 
     private final ClientPipelineConfigurator pipelineConfigurator;
     private final EventLoopGroup group;
-    private final ConcurrentMap<String, ResponseFuture> futureMap;
+    private final ResponseFutureMap futureMap;
 
     private final SimulatorAddress localAddress;
     private final SimulatorAddress remoteAddress;
@@ -62,10 +61,11 @@ public class ClientConnector {
     private final String remoteHost;
     private final int remotePort;
 
+    private Bootstrap bootstrap;
     private Channel channel;
 
     ClientConnector(ClientPipelineConfigurator pipelineConfigurator, EventLoopGroup group,
-                    ConcurrentMap<String, ResponseFuture> futureMap, SimulatorAddress localAddress,
+                    ResponseFutureMap futureMap, SimulatorAddress localAddress,
                     SimulatorAddress remoteAddress, int remoteIndex, String remoteHost, int remotePort) {
         this.pipelineConfigurator = pipelineConfigurator;
         this.group = group;
@@ -80,15 +80,37 @@ public class ClientConnector {
     }
 
     public void start() {
-        Bootstrap bootstrap = getBootstrap();
-        ChannelFuture future = bootstrap.connect().syncUninterruptibly();
+        ChannelFuture future = getBootstrap().connect().syncUninterruptibly();
         channel = future.channel();
 
         LOGGER.info(format("ClientConnector %s -> %s sends to %s", localAddress, remoteAddress, channel.remoteAddress()));
     }
 
+    /**
+     * Tries to connect to the remote side once.
+     *
+     * In contrast to {@link #start()} a refused connection is not an error, so the same {@link ClientConnector} can be used to
+     * retry the connection until the remote side accepts it.
+     *
+     * @return {@code true} if the connection has been established, {@code false} otherwise
+     */
+    public boolean tryStart() {
+        ChannelFuture future = getBootstrap().connect().awaitUninterruptibly();
+        if (!future.isSuccess()) {
+            LOGGER.debug(format("ClientConnector %s -> %s could not connect: %s", localAddress, remoteAddress, future.cause()));
+            return false;
+        }
+        channel = future.channel();
+
+        LOGGER.info(format("ClientConnector %s -> %s sends to %s", localAddress, remoteAddress, channel.remoteAddress()));
+        return true;
+    }
+
     private Bootstrap getBootstrap() {
-        Bootstrap bootstrap = new Bootstrap();
+        if (bootstrap != null) {
+            return bootstrap;
+        }
+        bootstrap = new Bootstrap();
         bootstrap
                 .group(group)
                 .channel(NioSocketChannel.class)
@@ -110,7 +132,7 @@ public class ClientConnector {
         }
     }
 
-    public ConcurrentMap<String, ResponseFuture> getFutureMap() {
+    public ResponseFutureMap getFutureMap() {
         return futureMap;
     }
 
@@ -137,10 +159,9 @@ public class ClientConnector {
     }
 
     private ResponseFuture writeAsync(SimulatorAddress source, long messageId, Object msg) {
-        String futureKey = createFutureKey(source, messageId, remoteIndex);
-        ResponseFuture future = createInstance(futureMap, futureKey);
+        ResponseFuture future = createInstance(futureMap, source, messageId, remoteIndex);
         if (LOGGER.isTraceEnabled()) {
-            LOGGER.trace(format("[%d] %s created ResponseFuture %s", messageId, localAddress, futureKey));
+            LOGGER.trace(format("[%d] %s created %s", messageId, localAddress, future));
         }
         channel.writeAndFlush(msg);
 
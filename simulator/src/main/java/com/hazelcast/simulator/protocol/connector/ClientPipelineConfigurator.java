@@ -15,14 +15,12 @@
  */
 package com.hazelcast.simulator.protocol.connector;
 
-import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureMap;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import io.netty.channel.ChannelPipeline;
 
-import java.util.concurrent.ConcurrentMap;
 
 interface ClientPipelineConfigurator {
 
-    void configureClientPipeline(ChannelPipeline pipeline, SimulatorAddress remoteAddress, ConcurrentMap<String,
-            ResponseFuture> futureMap);
+    void configureClientPipeline(ChannelPipeline pipeline, SimulatorAddress remoteAddress, ResponseFutureMap futureMap);
 }
@@ -16,11 +16,13 @@
 package com.hazelcast.simulator.protocol.connector;
 
 import com.hazelcast.simulator.coordinator.FailureContainer;
+import com.hazelcast.simulator.coordinator.IntervalHistogramContainer;
 import com.hazelcast.simulator.coordinator.PerformanceStateContainer;
 import com.hazelcast.simulator.coordinator.TestHistogramContainer;
 import com.hazelcast.simulator.coordinator.TestPhaseListenerContainer;
 import com.hazelcast.simulator.protocol.core.Response;
 import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureMap;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.core.SimulatorMessage;
 import com.hazelcast.simulator.protocol.core.SimulatorProtocolException;
@@ -51,7 +53,6 @@ import static com.hazelcast.simulator.protocol.connector.ServerConnector.DEFAULT
 import static com.hazelcast.simulator.protocol.connector.ServerConnector.DEFAULT_SHUTDOWN_TIMEOUT;
 import static com.hazelcast.simulator.protocol.core.ResponseType.FAILURE_AGENT_NOT_FOUND;
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
-import static com.hazelcast.simulator.protocol.operation.OperationCodec.toJson;
 import static com.hazelcast.simulator.protocol.operation.OperationType.getOperationType;
 import static com.hazelcast.simulator.utils.ExecutorFactory.createFixedThreadPool;
 import static java.lang.String.format;
@@ -76,22 +77,23 @@ public class CoordinatorConnector implements ClientPipelineConfigurator {
 
     public CoordinatorConnector(FailureContainer failureContainer, TestPhaseListenerContainer testPhaseListenerContainer,
                                 PerformanceStateContainer performanceStateContainer,
-                                TestHistogramContainer testHistogramContainer) {
+                                TestHistogramContainer testHistogramContainer,
+                                IntervalHistogramContainer intervalHistogramContainer) {
         this(failureContainer, testPhaseListenerContainer, performanceStateContainer, testHistogramContainer,
-                createFixedThreadPool(EXECUTOR_POOL_SIZE, "CoordinatorConnector"));
+                intervalHistogramContainer, createFixedThreadPool(EXECUTOR_POOL_SIZE, "CoordinatorConnector"));
     }
 
     CoordinatorConnector(FailureContainer failureContainer, TestPhaseListenerContainer testPhaseListenerContainer,
                          PerformanceStateContainer performanceStateContainer, TestHistogramContainer testHistogramContainer,
-                         ExecutorService executorService) {
+                         IntervalHistogramContainer intervalHistogramContainer, ExecutorService executorService) {
         this.processor = new CoordinatorOperationProcessor(exceptionLogger, failureContainer, testPhaseListenerContainer,
-                performanceStateContainer, testHistogramContainer);
+                performanceStateContainer, testHistogramContainer, intervalHistogramContainer);
         this.executorService = executorService;
     }
 
     @Override
     public void configureClientPipeline(ChannelPipeline pipeline, SimulatorAddress remoteAddress,
-                                        ConcurrentMap<String, ResponseFuture> futureMap) {
+                                        ResponseFutureMap futureMap) {
         pipeline.addLast("messageEncoder", new MessageEncoder(COORDINATOR, remoteAddress));
         pipeline.addLast("responseEncoder", new ResponseEncoder(COORDINATOR));
         pipeline.addLast("frameDecoder", new SimulatorFrameDecoder());
@@ -133,7 +135,7 @@ public class CoordinatorConnector implements ClientPipelineConfigurator {
      * @param agentPort  the port of the Simulator Agent
      */
     public void addAgent(int agentIndex, String agentHost, int agentPort) {
-        ConcurrentHashMap<String, ResponseFuture> futureMap = new ConcurrentHashMap<String, ResponseFuture>();
+        ResponseFutureMap futureMap = new ResponseFutureMap();
         ClientConnector client = new ClientConnector(this, group, futureMap, COORDINATOR, COORDINATOR.getChild(agentIndex),
                 agentIndex, agentHost, agentPort);
         client.start();
@@ -162,7 +164,7 @@ public class CoordinatorConnector implements ClientPipelineConfigurator {
      */
     public Response write(SimulatorAddress destination, SimulatorOperation operation) {
         SimulatorMessage message = new SimulatorMessage(destination, COORDINATOR, messageIds.incrementAndGet(),
-                getOperationType(operation), toJson(operation));
+                getOperationType(operation), operation);
 
         int agentAddressIndex = destination.getAgentIndex();
         Response response = new Response(message);
@@ -203,7 +205,7 @@ public class CoordinatorConnector implements ClientPipelineConfigurator {
      */
     public void assertEmptyFutureMaps() {
         for (ClientConnector clientConnector : agents.values()) {
-            ConcurrentMap<String, ResponseFuture> futureMap = clientConnector.getFutureMap();
+            ResponseFutureMap futureMap = clientConnector.getFutureMap();
             SimulatorAddress remoteAddress = clientConnector.getRemoteAddress();
             int futureMapSize = futureMap.size();
             if (futureMapSize > 0) {
@@ -17,10 +17,10 @@ package com.hazelcast.simulator.protocol.connector;
 
 import com.hazelcast.simulator.protocol.core.Response;
 import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureMap;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
 
-import java.util.concurrent.ConcurrentMap;
 
 /**
  * Connector which listens for incoming Simulator component connections.
@@ -59,7 +59,7 @@ public interface ServerConnector {
      *
      * @return the {@link ResponseFuture} map
      */
-    ConcurrentMap<String, ResponseFuture> getFutureMap();
+    ResponseFutureMap getFutureMap();
 
     /**
      * Submits a {@link SimulatorOperation} to a {@link SimulatorAddress}.
@@ -18,6 +18,7 @@ package com.hazelcast.simulator.protocol.connector;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.simulator.protocol.core.ConnectionManager;
 import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureMap;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.core.TestProcessorManager;
 import com.hazelcast.simulator.protocol.exception.ExceptionLogger;
@@ -42,8 +43,6 @@ import com.hazelcast.simulator.worker.WorkerType;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.group.ChannelGroup;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 import static com.hazelcast.simulator.protocol.core.AddressLevel.WORKER;
 import static com.hazelcast.simulator.protocol.exception.ExceptionType.WORKER_EXCEPTION;
@@ -63,12 +62,12 @@ public class WorkerConnector extends AbstractServerConnector {
 
     private final ConnectionManager connectionManager;
     private final TestProcessorManager testProcessorManager;
-    private final ConcurrentMap<String, ResponseFuture> futureMap;
+    private final ResponseFutureMap futureMap;
 
-    WorkerConnector(ConcurrentMap<String, ResponseFuture> futureMap, SimulatorAddress localAddress, int port,
+    WorkerConnector(ResponseFutureMap futureMap, SimulatorAddress localAddress, int port,
                     boolean useRemoteLogger, WorkerType type, HazelcastInstance hazelcastInstance, Worker worker,
-                    ConnectionManager connectionManager) {
-        super(futureMap, localAddress, port, DEFAULT_THREAD_POOL_SIZE);
+                    ConnectionManager connectionManager, int maxInFlightMessages) {
+        super(futureMap, localAddress, port, DEFAULT_THREAD_POOL_SIZE, maxInFlightMessages);
 
         ExceptionLogger exceptionLogger = createExceptionLogger(localAddress, useRemoteLogger);
         this.processor = new WorkerOperationProcessor(exceptionLogger, type, hazelcastInstance, worker, localAddress);
@@ -131,12 +130,31 @@ public class WorkerConnector extends AbstractServerConnector {
      */
     public static WorkerConnector createInstance(int parentAddressIndex, int addressIndex, int port, WorkerType type,
                                                  HazelcastInstance hazelcastInstance, Worker worker, boolean useRemoteLogger) {
-        ConcurrentMap<String, ResponseFuture> futureMap = new ConcurrentHashMap<String, ResponseFuture>();
+        return createInstance(parentAddressIndex, addressIndex, port, type, hazelcastInstance, worker, useRemoteLogger,
+                DEFAULT_MAX_IN_FLIGHT_MESSAGES);
+    }
+
+    /**
+     * Creates a {@link WorkerConnector} instance.
+     *
+     * @param parentAddressIndex  the index of the parent Simulator Agent
+     * @param addressIndex        the index of this Simulator Worker
+     * @param port                the port for incoming connections
+     * @param type                the {@link WorkerType} of this Simulator Worker
+     * @param hazelcastInstance   the {@link HazelcastInstance} for this Simulator Worker
+     * @param worker              the {@link Worker} instance of this Simulator Worker
+     * @param useRemoteLogger     determines if the {@link RemoteExceptionLogger} or {@link FileExceptionLogger} should be used
+     * @param maxInFlightMessages maximum number of messages to the Agent which wait for a response
+     */
+    public static WorkerConnector createInstance(int parentAddressIndex, int addressIndex, int port, WorkerType type,
+                                                 HazelcastInstance hazelcastInstance, Worker worker, boolean useRemoteLogger,
+                                                 int maxInFlightMessages) {
+        ResponseFutureMap futureMap = new ResponseFutureMap();
         SimulatorAddress localAddress = new SimulatorAddress(WORKER, parentAddressIndex, addressIndex, 0);
         ConnectionManager connectionManager = new ConnectionManager();
 
         return new WorkerConnector(futureMap, localAddress, port, useRemoteLogger, type, hazelcastInstance, worker,
-                connectionManager);
+                connectionManager, maxInFlightMessages);
     }
 
     /**
@@ -186,6 +204,31 @@ public class WorkerConnector extends AbstractServerConnector {
         return submit(testAddress, destination, operation);
     }
 
+    /**
+     * Submits a {@link SimulatorOperation} to the Simulator Agent, as soon as the Agent has connected to this Worker.
+     *
+     * The {@link SimulatorOperation} is never sent if the Agent doesn't connect.
+     *
+     * @param operation the {@link SimulatorOperation} to send
+     */
+    public void submitToAgentOnConnect(final SimulatorOperation operation) {
+        connectionManager.runOnFirstConnection(new Runnable() {
+            @Override
+            public void run() {
+                submit(localAddress.getParent(), operation);
+            }
+        });
+    }
+
+    /**
+     * Checks if the Simulator Agent is connected to this Worker.
+     *
+     * @return {@code true} if the Agent is connected, {@code false} otherwise
+     */
+    public boolean isAgentConnected() {
+        return !connectionManager.getChannels().isEmpty();
+    }
+
     /**
      * Returns the size of the internal message queue used by {@link #submit(SimulatorAddress, SimulatorOperation)}.
      *
@@ -23,6 +23,7 @@ public final class BaseCodec {
 
     public static final int INT_SIZE = 4;
     public static final int LONG_SIZE = 8;
+    public static final int BYTE_SIZE = 1;
 
     public static final int ADDRESS_SIZE = 4 * INT_SIZE;
 
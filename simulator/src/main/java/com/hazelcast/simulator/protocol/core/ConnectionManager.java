@@ -21,6 +21,8 @@ import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.util.concurrent.GlobalEventExecutor;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 
 /**
@@ -31,10 +33,14 @@ public class ConnectionManager implements ConnectionListener {
     private final ChannelGroup channels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
     private final CountDownLatch countDownLatch = new CountDownLatch(1);
 
+    private final List<Runnable> firstConnectionTasks = new ArrayList<Runnable>();
+    private boolean isFirstConnectionDone;
+
     @Override
     public void connected(Channel channel) {
         if (channels.add(channel)) {
             countDownLatch.countDown();
+            runFirstConnectionTasks();
         }
     }
 
@@ -51,7 +57,39 @@ public class ConnectionManager implements ConnectionListener {
         }
     }
 
+    /**
+     * Runs a task as soon as the first client has connected.
+     *
+     * If a client has already connected, the task is run right away. The task is run on a Netty thread, so it must not block.
+     *
+     * @param task the task to run
+     */
+    public void runOnFirstConnection(Runnable task) {
+        synchronized (firstConnectionTasks) {
+            if (!isFirstConnectionDone) {
+                firstConnectionTasks.add(task);
+                return;
+            }
+        }
+        task.run();
+    }
+
     public ChannelGroup getChannels() {
         return channels;
     }
+
+    private void runFirstConnectionTasks() {
+        List<Runnable> tasks;
+        synchronized (firstConnectionTasks) {
+            if (isFirstConnectionDone) {
+                return;
+            }
+            isFirstConnectionDone = true;
+            tasks = new ArrayList<Runnable>(firstConnectionTasks);
+            firstConnectionTasks.clear();
+        }
+        for (Runnable task : tasks) {
+            task.run();
+        }
+    }
 }
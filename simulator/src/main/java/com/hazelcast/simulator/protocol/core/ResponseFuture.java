@@ -15,65 +15,74 @@
  */
 package com.hazelcast.simulator.protocol.core;
 
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 
-import static java.lang.Long.parseLong;
 import static java.lang.String.format;
 
 /**
  * A {@link Future} implementation to wait asynchronously for the {@link Response} to a {@link SimulatorMessage}.
+ *
+ * Instead of blocking on {@link #get()} a {@link ResponseListener} can be added, which is notified when the response is set.
+ * The future is removed from its {@link ResponseFutureMap} as soon as the response is set.
+ *
+ * The completion is lock-free: the state of the future is either a stack of waiting threads and listeners or the
+ * {@link Response}, which is swapped via CAS. Waiting threads are parked and unparked by the thread which sets the response.
+ * A thread which stops waiting due to a timeout or an interrupt removes itself from the stack.
  */
 public final class ResponseFuture implements Future<Response> {
 
-    private static final long ONE_MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final AtomicReferenceFieldUpdater<ResponseFuture, Object> STATE
+            = AtomicReferenceFieldUpdater.newUpdater(ResponseFuture.class, Object.class, "state");
 
-    private final ConcurrentMap<String, ResponseFuture> futureMap;
-    private final String key;
+    // is guarded by the segment lock of the ResponseFutureMap
+    ResponseFuture next;
 
-    private volatile Response response;
+    private final ResponseFutureMap futureMap;
+    private final SimulatorAddress source;
+    private final long messageId;
+    private final int addressIndex;
 
-    private ResponseFuture(ConcurrentMap<String, ResponseFuture> futureMap, String key) {
+    // is either null, a WaitNode or the Response
+    private volatile Object state;
+
+    private ResponseFuture(ResponseFutureMap futureMap, SimulatorAddress source, long messageId, int addressIndex) {
         this.futureMap = futureMap;
-        this.key = key;
+        this.source = source;
+        this.messageId = messageId;
+        this.addressIndex = addressIndex;
     }
 
     /**
      * Creates a {@link ResponseFuture} instance.
      *
-     * @param futureMap the map of {@link ResponseFuture} where we add this one to
-     * @param key       the key for this {@link ResponseFuture} in the map
+     * @param futureMap    the {@link ResponseFutureMap} where we add this one to
+     * @param source       the source {@link SimulatorAddress} of the {@link SimulatorMessage}
+     * @param messageId    the messageId of the {@link SimulatorMessage}
+     * @param addressIndex the address index of the remote Simulator component
      * @return the {@link ResponseFuture} instance
      */
-    public static ResponseFuture createInstance(ConcurrentMap<String, ResponseFuture> futureMap, String key) {
-        ResponseFuture future = new ResponseFuture(futureMap, key);
-        futureMap.put(key, future);
+    public static ResponseFuture createInstance(ResponseFutureMap futureMap, SimulatorAddress source, long messageId,
+                                                int addressIndex) {
+        ResponseFuture future = new ResponseFuture(futureMap, source, messageId, addressIndex);
+        futureMap.put(future);
 
         return future;
     }
 
-    /**
-     * Creates a map key for a {@link ResponseFuture}.
-     *
-     * @param source             the source {@link SimulatorAddress} of a {@link SimulatorMessage}
-     * @param messageId          the messageId of a {@link SimulatorMessage}
-     * @param remoteAddressIndex the address index of a remote Simulator component
-     * @return the key for the {@link ResponseFuture} map
-     */
-    public static String createFutureKey(SimulatorAddress source, long messageId, int remoteAddressIndex) {
-        return source.toString() + '-' + messageId + '-' + remoteAddressIndex;
+    public SimulatorAddress getSource() {
+        return source;
     }
 
-    public static SimulatorAddress getSourceFromFutureKey(String futureKey) {
-        String sourceString = futureKey.substring(0, futureKey.indexOf('-'));
-        return SimulatorAddress.fromString(sourceString);
+    public long getMessageId() {
+        return messageId;
     }
 
-    public static long getMessageIdFromFutureKey(String futureKey) {
-        String messageIdString = futureKey.substring(futureKey.indexOf('-') + 1, futureKey.lastIndexOf('-'));
-        return parseLong(messageIdString);
+    public int getAddressIndex() {
+        return addressIndex;
     }
 
     @Override
@@ -88,30 +97,69 @@ public final class ResponseFuture implements Future<Response> {
 
     @Override
     public boolean isDone() {
-        return (response != null);
+        return (state instanceof Response);
     }
 
+    /**
+     * Sets the {@link Response} of this future.
+     *
+     * Just the first {@link Response} is set, subsequent calls are ignored.
+     *
+     * @param response the {@link Response} to set
+     */
     public void set(Response response) {
         if (response == null) {
             throw new IllegalArgumentException("response is null");
         }
 
-        synchronized (this) {
-            this.response = response;
-            notifyAll();
+        Object oldState;
+        do {
+            oldState = state;
+            if (oldState instanceof Response) {
+                return;
+            }
+        } while (!STATE.compareAndSet(this, oldState, response));
+
+        futureMap.remove(this);
+        notifyWaitNodes((WaitNode) oldState, response);
+    }
+
+    /**
+     * Adds a {@link ResponseListener} which is notified when the {@link Response} is set.
+     *
+     * If the {@link Response} has already been set, the listener is notified directly by the calling thread.
+     *
+     * @param listener the {@link ResponseListener} to add
+     */
+    public void addListener(ResponseListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener is null");
+        }
+
+        Response response = push(null, listener);
+        if (response != null) {
+            listener.onResponse(response);
         }
     }
 
     @Override
     public Response get() throws InterruptedException {
-        synchronized (this) {
-            while (response == null) {
-                wait();
-            }
+        Object currentState = state;
+        if (currentState instanceof Response) {
+            return (Response) currentState;
+        }
 
-            futureMap.remove(key);
-            return response;
+        Thread thread = Thread.currentThread();
+        Response response = push(thread, null);
+        while (response == null) {
+            if (Thread.interrupted()) {
+                removeWaiter(thread);
+                throw new InterruptedException();
+            }
+            LockSupport.park(this);
+            response = getResponse();
         }
+        return response;
     }
 
     @Override
@@ -120,21 +168,131 @@ public final class ResponseFuture implements Future<Response> {
             throw new IllegalArgumentException("Invalid timeout or timeUnit for ResponseFuture.get()");
         }
 
-        long remainingTimeoutNanos = timeUnit.toNanos(timeout);
-        synchronized (this) {
-            while (response == null && remainingTimeoutNanos > ONE_MILLISECOND) {
-                long started = System.nanoTime();
-                wait(TimeUnit.NANOSECONDS.toMillis(remainingTimeoutNanos));
-                remainingTimeoutNanos -= System.nanoTime() - started;
-            }
+        Object currentState = state;
+        if (currentState instanceof Response) {
+            return (Response) currentState;
+        }
 
-            Response tmpResponse = response;
-            if (tmpResponse == null) {
+        long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        Thread thread = Thread.currentThread();
+        Response response = push(thread, null);
+        while (response == null) {
+            if (Thread.interrupted()) {
+                removeWaiter(thread);
+                throw new InterruptedException();
+            }
+            long remainingTimeoutNanos = deadline - System.nanoTime();
+            if (remainingTimeoutNanos <= 0) {
+                removeWaiter(thread);
                 throw new TimeoutException(format("Timeout while waiting for response (%d ms)", timeUnit.toMillis(timeout)));
             }
+            LockSupport.parkNanos(this, remainingTimeoutNanos);
+            response = getResponse();
+        }
+        return response;
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseFuture{"
+                + "source=" + source
+                + ", messageId=" + messageId
+                + ", addressIndex=" + addressIndex
+                + ", isDone=" + isDone()
+                + '}';
+    }
+
+    // just for testing
+    int getWaitNodeCountInternal() {
+        Object currentState = state;
+        int count = 0;
+        if (currentState instanceof WaitNode) {
+            for (WaitNode waitNode = (WaitNode) currentState; waitNode != null; waitNode = waitNode.next) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private Response getResponse() {
+        Object currentState = state;
+        return (currentState instanceof Response) ? (Response) currentState : null;
+    }
+
+    /**
+     * Pushes a {@link WaitNode} on the stack, if the {@link Response} is not set yet.
+     *
+     * @return the {@link Response} if it has been set already, {@code null} otherwise
+     */
+    private Response push(Thread thread, ResponseListener listener) {
+        for (; ; ) {
+            Object currentState = state;
+            if (currentState instanceof Response) {
+                return (Response) currentState;
+            }
+            WaitNode waitNode = new WaitNode(thread, listener, (WaitNode) currentState);
+            if (STATE.compareAndSet(this, currentState, waitNode)) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Removes the {@link WaitNode} of a thread which gave up waiting, so timed out calls don't pile up on the stack.
+     *
+     * The nodes are immutable, so the nodes above the removed one are copied. A thread waits at most once per future at a
+     * time, so the node is identified by its thread.
+     */
+    private void removeWaiter(Thread thread) {
+        for (; ; ) {
+            Object currentState = state;
+            if (!(currentState instanceof WaitNode)) {
+                return;
+            }
+            WaitNode stack = (WaitNode) currentState;
+            WaitNode newStack = removeWaiter(stack, thread);
+            if (newStack == stack || STATE.compareAndSet(this, currentState, newStack)) {
+                return;
+            }
+        }
+    }
+
+    private static WaitNode removeWaiter(WaitNode stack, Thread thread) {
+        if (stack == null) {
+            return null;
+        }
+        if (stack.thread == thread) {
+            return stack.next;
+        }
+        WaitNode next = removeWaiter(stack.next, thread);
+        return (next == stack.next) ? stack : new WaitNode(stack.thread, stack.listener, next);
+    }
+
+    private static void notifyWaitNodes(WaitNode stack, Response response) {
+        // the stack is reversed, so the listeners are notified in the order they have been added
+        WaitNode reversed = null;
+        for (WaitNode waitNode = stack; waitNode != null; waitNode = waitNode.next) {
+            reversed = new WaitNode(waitNode.thread, waitNode.listener, reversed);
+        }
+        for (WaitNode waitNode = reversed; waitNode != null; waitNode = waitNode.next) {
+            if (waitNode.thread != null) {
+                LockSupport.unpark(waitNode.thread);
+            } else {
+                waitNode.listener.onResponse(response);
+            }
+        }
+    }
+
+    private static final class WaitNode {
+
+        private final Thread thread;
+        private final ResponseListener listener;
+        private final WaitNode next;
 
-            futureMap.remove(key);
-            return tmpResponse;
+        private WaitNode(Thread thread, ResponseListener listener, WaitNode next) {
+            this.thread = thread;
+            this.listener = listener;
+            this.next = next;
         }
     }
 }
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.protocol.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Concurrent map for {@link ResponseFuture} instances, which are looked up by the source {@link SimulatorAddress}, the
+ * messageId and the address index of the remote Simulator component.
+ *
+ * The key values are stored in the {@link ResponseFuture} itself, which is also used as entry of the hash chains. So adding,
+ * looking up and removing a {@link ResponseFuture} doesn't create any garbage. The map is split into segments with their own
+ * lock, so concurrent access to different keys is hardly contended.
+ */
+public final class ResponseFutureMap {
+
+    private static final int SEGMENT_COUNT = 16;
+    private static final int SEGMENT_SHIFT = 28;
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    public ResponseFutureMap() {
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Returns the {@link ResponseFuture} for the given key values.
+     *
+     * @param source       the source {@link SimulatorAddress} of the {@link SimulatorMessage}
+     * @param messageId    the messageId of the {@link SimulatorMessage}
+     * @param addressIndex the address index of the remote Simulator component
+     * @return the {@link ResponseFuture} or {@code null} if no {@link ResponseFuture} was found
+     */
+    public ResponseFuture get(SimulatorAddress source, long messageId, int addressIndex) {
+        int hash = hash(source, messageId, addressIndex);
+        return segmentFor(hash).get(hash, source, messageId, addressIndex);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return (size() == 0);
+    }
+
+    /**
+     * Returns a snapshot of all contained {@link ResponseFuture} instances.
+     *
+     * @return a {@link List} with all {@link ResponseFuture} instances
+     */
+    public List<ResponseFuture> values() {
+        List<ResponseFuture> values = new ArrayList<ResponseFuture>();
+        for (Segment segment : segments) {
+            segment.addValues(values);
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return values().toString();
+    }
+
+    void put(ResponseFuture future) {
+        int hash = hash(future.getSource(), future.getMessageId(), future.getAddressIndex());
+        segmentFor(hash).put(hash, future);
+    }
+
+    void remove(ResponseFuture future) {
+        int hash = hash(future.getSource(), future.getMessageId(), future.getAddressIndex());
+        segmentFor(hash).remove(hash, future);
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[(hash >>> SEGMENT_SHIFT) & (SEGMENT_COUNT - 1)];
+    }
+
+    @SuppressWarnings("checkstyle:magicnumber")
+    private static int hash(SimulatorAddress source, long messageId, int addressIndex) {
+        int hash = source.hashCode();
+        hash = 31 * hash + (int) (messageId ^ (messageId >>> 32));
+        hash = 31 * hash + addressIndex;
+        // spreads the bits, so the segment index and the bucket index depend on all key values
+        hash ^= (hash >>> 16);
+        hash *= 0x85ebca6b;
+        hash ^= (hash >>> 13);
+        return hash;
+    }
+
+    private static boolean matches(ResponseFuture future, SimulatorAddress source, long messageId, int addressIndex) {
+        return (future.getMessageId() == messageId && future.getAddressIndex() == addressIndex
+                && future.getSource().equals(source));
+    }
+
+    /**
+     * A hash table with chaining via {@link ResponseFuture#next}, which is guarded by the lock of the segment.
+     */
+    private static final class Segment {
+
+        private ResponseFuture[] table = new ResponseFuture[INITIAL_SEGMENT_CAPACITY];
+        private int count;
+
+        synchronized ResponseFuture get(int hash, SimulatorAddress source, long messageId, int addressIndex) {
+            ResponseFuture future = table[hash & (table.length - 1)];
+            while (future != null) {
+                if (matches(future, source, messageId, addressIndex)) {
+                    return future;
+                }
+                future = future.next;
+            }
+            return null;
+        }
+
+        synchronized void put(int hash, ResponseFuture future) {
+            // an existing future with the same key is replaced
+            removeMatching(hash, future.getSource(), future.getMessageId(), future.getAddressIndex());
+
+            if (count >= table.length - (table.length >>> 2)) {
+                resize();
+            }
+            int index = hash & (table.length - 1);
+            future.next = table[index];
+            table[index] = future;
+            count++;
+        }
+
+        synchronized void remove(int hash, ResponseFuture future) {
+            int index = hash & (table.length - 1);
+            ResponseFuture previous = null;
+            ResponseFuture current = table[index];
+            while (current != null) {
+                if (current == future) {
+                    unlink(index, previous, current);
+                    return;
+                }
+                previous = current;
+                current = current.next;
+            }
+        }
+
+        synchronized int size() {
+            return count;
+        }
+
+        synchronized void addValues(List<ResponseFuture> values) {
+            for (ResponseFuture future : table) {
+                while (future != null) {
+                    values.add(future);
+                    future = future.next;
+                }
+            }
+        }
+
+        private void removeMatching(int hash, SimulatorAddress source, long messageId, int addressIndex) {
+            int index = hash & (table.length - 1);
+            ResponseFuture previous = null;
+            ResponseFuture current = table[index];
+            while (current != null) {
+                if (matches(current, source, messageId, addressIndex)) {
+                    unlink(index, previous, current);
+                    return;
+                }
+                previous = current;
+                current = current.next;
+            }
+        }
+
+        private void unlink(int index, ResponseFuture previous, ResponseFuture current) {
+            if (previous == null) {
+                table[index] = current.next;
+            } else {
+                previous.next = current.next;
+            }
+            current.next = null;
+            count--;
+        }
+
+        private void resize() {
+            ResponseFuture[] oldTable = table;
+            ResponseFuture[] newTable = new ResponseFuture[oldTable.length << 1];
+            for (ResponseFuture future : oldTable) {
+                while (future != null) {
+                    ResponseFuture next = future.next;
+                    int hash = hash(future.getSource(), future.getMessageId(), future.getAddressIndex());
+                    int index = hash & (newTable.length - 1);
+                    future.next = newTable[index];
+                    newTable[index] = future;
+                    future = next;
+                }
+            }
+            table = newTable;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.protocol.core;
+
+/**
+ * Listener which is notified when the {@link Response} of a {@link ResponseFuture} has been set.
+ */
+public interface ResponseListener {
+
+    /**
+     * Is called with the {@link Response} of a {@link ResponseFuture}.
+     *
+     * The listener is either called by the thread which sets the response, or directly by the thread which adds the listener
+     * to an already completed {@link ResponseFuture}. So it should not block.
+     *
+     * @param response the received {@link Response}
+     */
+    void onResponse(Response response);
+}
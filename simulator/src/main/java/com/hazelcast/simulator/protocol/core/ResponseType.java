@@ -55,7 +55,12 @@ public enum ResponseType {
      * Is returned when an exception occurs during the execution of a
      * {@link com.hazelcast.simulator.protocol.operation.SimulatorOperation}.
      */
-    EXCEPTION_DURING_OPERATION_EXECUTION(6);
+    EXCEPTION_DURING_OPERATION_EXECUTION(6),
+
+    /**
+     * Is returned when the addressed Worker did not respond in time to a message forwarded by an Agent component.
+     */
+    FAILURE_WORKER_TIMEOUT(7);
 
     private final int ordinal;
 
@@ -16,10 +16,15 @@
 package com.hazelcast.simulator.protocol.core;
 
 import com.hazelcast.simulator.protocol.operation.OperationType;
+import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
+
+import static com.hazelcast.simulator.protocol.operation.OperationCodec.toJson;
 
 /**
- * Message with a JSON serialized {@link com.hazelcast.simulator.protocol.operation.SimulatorOperation} which can be sent
- * from any Simulator component to another.
+ * Message with a {@link SimulatorOperation} which can be sent from any Simulator component to another.
+ *
+ * The message either holds the JSON serialized operation or the {@link SimulatorOperation} instance itself. The latter is
+ * encoded when the message is written to the wire, so the binary operation codec can be used without an intermediate String.
  */
 public class SimulatorMessage {
 
@@ -28,7 +33,8 @@ public class SimulatorMessage {
     private final long messageId;
 
     private final OperationType operationType;
-    private final String operationData;
+    private final SimulatorOperation operation;
+    private String operationData;
 
     public SimulatorMessage(SimulatorAddress destination, SimulatorAddress source, long messageId,
                             OperationType operationType, String operationData) {
@@ -36,9 +42,19 @@ public class SimulatorMessage {
         this.source = source;
         this.messageId = messageId;
         this.operationType = operationType;
+        this.operation = null;
         this.operationData = operationData;
     }
 
+    public SimulatorMessage(SimulatorAddress destination, SimulatorAddress source, long messageId,
+                            OperationType operationType, SimulatorOperation operation) {
+        this.destination = destination;
+        this.source = source;
+        this.messageId = messageId;
+        this.operationType = operationType;
+        this.operation = operation;
+    }
+
     public SimulatorAddress getDestination() {
         return destination;
     }
@@ -55,7 +71,26 @@ public class SimulatorMessage {
         return operationType;
     }
 
+    /**
+     * Returns the {@link SimulatorOperation} instance of this message.
+     *
+     * @return the {@link SimulatorOperation} or {@code null} if the message was created with JSON serialized operation data
+     */
+    public SimulatorOperation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Returns the JSON serialized {@link SimulatorOperation} of this message.
+     *
+     * If the message was created with a {@link SimulatorOperation} instance, the JSON is created on the first call.
+     *
+     * @return the JSON serialized {@link SimulatorOperation}
+     */
     public String getOperationData() {
+        if (operationData == null && operation != null) {
+            operationData = toJson(operation);
+        }
         return operationData;
     }
 
@@ -66,7 +101,7 @@ public class SimulatorMessage {
                 + ", source=" + source
                 + ", messageId=" + messageId
                 + ", operationType=" + operationType
-                + ", operationData='" + operationData + '\''
+                + ", operationData='" + getOperationData() + '\''
                 + '}';
     }
 }
@@ -16,16 +16,26 @@
 package com.hazelcast.simulator.protocol.core;
 
 import com.hazelcast.simulator.protocol.operation.OperationType;
+import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 
 import static com.hazelcast.simulator.protocol.core.BaseCodec.ADDRESS_SIZE;
+import static com.hazelcast.simulator.protocol.core.BaseCodec.BYTE_SIZE;
 import static com.hazelcast.simulator.protocol.core.BaseCodec.INT_SIZE;
 import static com.hazelcast.simulator.protocol.core.BaseCodec.LONG_SIZE;
 import static com.hazelcast.simulator.protocol.core.SimulatorAddressCodec.decodeSimulatorAddress;
+import static com.hazelcast.simulator.protocol.operation.OperationCodec.decodeBinary;
+import static com.hazelcast.simulator.protocol.operation.OperationCodec.encodeBinary;
+import static com.hazelcast.simulator.protocol.operation.OperationCodec.hasBinaryCodec;
 import static io.netty.util.CharsetUtil.UTF_8;
 
 /**
  * Encodes and decodes a {@link SimulatorMessage}.
+ *
+ * The operation data is either JSON or written by a {@link com.hazelcast.simulator.protocol.operation.BinaryOperationCodec},
+ * which is defined by the codec flags of each frame. The flags also announce if the sender is able to decode binary operation
+ * data, so the receiver of a connection can switch to the binary codec.
  */
 public final class SimulatorMessageCodec {
 
@@ -35,25 +45,53 @@ public final class SimulatorMessageCodec {
     private static final int OFFSET_DST_ADDRESS = 2 * INT_SIZE;
     private static final int OFFSET_SRC_ADDRESS = OFFSET_DST_ADDRESS + ADDRESS_SIZE;
     private static final int OFFSET_MESSAGE_ID = OFFSET_SRC_ADDRESS + ADDRESS_SIZE;
+    private static final int OFFSET_CODEC_FLAGS = OFFSET_MESSAGE_ID + LONG_SIZE + INT_SIZE;
+
+    private static final int HEADER_SIZE = 2 * INT_SIZE + LONG_SIZE + 2 * ADDRESS_SIZE + BYTE_SIZE;
 
-    private static final int HEADER_SIZE = 2 * INT_SIZE + LONG_SIZE + 2 * ADDRESS_SIZE;
+    private static final int FLAG_BINARY_DATA = 1;
+    private static final int FLAG_BINARY_CODEC_SUPPORTED = 1 << 1;
 
     private SimulatorMessageCodec() {
     }
 
     public static void encodeByteBuf(SimulatorMessage msg, ByteBuf buffer) {
-        byte[] data = msg.getOperationData().getBytes(UTF_8);
+        encodeByteBuf(msg, buffer, false);
+    }
 
-        buffer.writeInt(HEADER_SIZE + data.length);
+    /**
+     * Encodes a {@link SimulatorMessage} into a {@link ByteBuf}.
+     *
+     * @param msg            the {@link SimulatorMessage} to encode
+     * @param buffer         the {@link ByteBuf} to write to
+     * @param useBinaryCodec {@code true} if the operation should be written with its binary codec (if there is one),
+     *                       {@code false} if the operation should be written as JSON
+     */
+    public static void encodeByteBuf(SimulatorMessage msg, ByteBuf buffer, boolean useBinaryCodec) {
+        OperationType operationType = msg.getOperationType();
+        SimulatorOperation operation = msg.getOperation();
+        boolean isBinaryData = useBinaryCodec && operation != null && hasBinaryCodec(operationType);
+
+        // the frame length is written when the size of the operation data is known
+        int frameLengthIndex = buffer.writerIndex();
+        buffer.writeInt(0);
         buffer.writeInt(MAGIC_BYTES);
 
         SimulatorAddressCodec.encodeByteBuf(msg.getDestination(), buffer);
         SimulatorAddressCodec.encodeByteBuf(msg.getSource(), buffer);
 
         buffer.writeLong(msg.getMessageId());
-        buffer.writeInt(msg.getOperationType().toInt());
+        buffer.writeInt(operationType.toInt());
+
+        if (isBinaryData) {
+            buffer.writeByte(FLAG_BINARY_CODEC_SUPPORTED | FLAG_BINARY_DATA);
+            encodeBinary(operation, operationType, buffer);
+        } else {
+            buffer.writeByte(FLAG_BINARY_CODEC_SUPPORTED);
+            ByteBufUtil.writeUtf8(buffer, msg.getOperationData());
+        }
 
-        buffer.writeBytes(data);
+        buffer.setInt(frameLengthIndex, buffer.writerIndex() - frameLengthIndex - INT_SIZE);
     }
 
     public static SimulatorMessage decodeSimulatorMessage(ByteBuf buffer) {
@@ -69,9 +107,15 @@ public final class SimulatorMessageCodec {
 
         long messageId = buffer.readLong();
         OperationType operationType = OperationType.fromInt(buffer.readInt());
+        int codecFlags = buffer.readByte();
 
-        String operationData = buffer.readSlice(dataLength).toString(UTF_8);
+        ByteBuf operationBuffer = buffer.readSlice(dataLength);
+        if ((codecFlags & FLAG_BINARY_DATA) != 0) {
+            SimulatorOperation operation = decodeBinary(operationType, operationBuffer);
+            return new SimulatorMessage(destination, source, messageId, operationType, operation);
+        }
 
+        String operationData = operationBuffer.toString(UTF_8);
         return new SimulatorMessage(destination, source, messageId, operationType, operationData);
     }
 
@@ -79,6 +123,10 @@ public final class SimulatorMessageCodec {
         return (in.getInt(OFFSET_MAGIC_BYTES) == MAGIC_BYTES);
     }
 
+    public static boolean isBinaryCodecSupported(ByteBuf in) {
+        return ((in.getByte(OFFSET_CODEC_FLAGS) & FLAG_BINARY_CODEC_SUPPORTED) != 0);
+    }
+
     public static long getMessageId(ByteBuf in) {
         return in.getLong(OFFSET_MESSAGE_ID);
     }
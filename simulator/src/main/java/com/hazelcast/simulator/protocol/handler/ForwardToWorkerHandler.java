@@ -20,19 +20,15 @@ import com.hazelcast.simulator.protocol.core.AddressLevel;
 import com.hazelcast.simulator.protocol.core.ClientConnectorManager;
 import com.hazelcast.simulator.protocol.core.Response;
 import com.hazelcast.simulator.protocol.core.ResponseCodec;
-import com.hazelcast.simulator.protocol.core.ResponseFuture;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.core.SimulatorMessageCodec;
-import com.hazelcast.simulator.protocol.core.SimulatorProtocolException;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.util.AttributeKey;
 import org.apache.log4j.Logger;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static com.hazelcast.simulator.protocol.core.ResponseCodec.isResponse;
 import static com.hazelcast.simulator.protocol.core.ResponseType.FAILURE_WORKER_NOT_FOUND;
@@ -42,9 +38,14 @@ import static java.lang.String.format;
 
 /**
  * A {@link SimpleChannelInboundHandler} to forward a received {@link ByteBuf} to a connected Simulator Worker.
+ *
+ * The responses of the Workers are aggregated asynchronously by a {@link ResponseAggregator}, so no thread is blocked while
+ * waiting for them.
  */
 public class ForwardToWorkerHandler extends SimpleChannelInboundHandler<ByteBuf> {
 
+    public static final long DEFAULT_WORKER_RESPONSE_TIMEOUT_SECONDS = TimeUnit.MINUTES.toSeconds(5);
+
     private static final Logger LOGGER = Logger.getLogger(ForwardToWorkerHandler.class);
 
     private final AttributeKey<Integer> forwardAddressIndex = AttributeKey.valueOf("forwardAddressIndex");
@@ -53,15 +54,19 @@ public class ForwardToWorkerHandler extends SimpleChannelInboundHandler<ByteBuf>
     private final AddressLevel addressLevel;
 
     private final ClientConnectorManager clientConnectorManager;
-    private final ExecutorService executorService;
+    private final long workerResponseTimeoutMillis;
+
+    public ForwardToWorkerHandler(SimulatorAddress localAddress, ClientConnectorManager clientConnectorManager) {
+        this(localAddress, clientConnectorManager, DEFAULT_WORKER_RESPONSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
 
     public ForwardToWorkerHandler(SimulatorAddress localAddress, ClientConnectorManager clientConnectorManager,
-                                  ExecutorService executorService) {
+                                  long workerResponseTimeout, TimeUnit timeUnit) {
         this.localAddress = localAddress;
         this.addressLevel = localAddress.getAddressLevel();
 
         this.clientConnectorManager = clientConnectorManager;
-        this.executorService = executorService;
+        this.workerResponseTimeoutMillis = timeUnit.toMillis(workerResponseTimeout);
     }
 
     @Override
@@ -78,18 +83,18 @@ public class ForwardToWorkerHandler extends SimpleChannelInboundHandler<ByteBuf>
         }
     }
 
-    private void forwardSimulatorMessage(final ChannelHandlerContext ctx, ByteBuf buffer, int workerAddressIndex) {
-        final long messageId = SimulatorMessageCodec.getMessageId(buffer);
+    private void forwardSimulatorMessage(ChannelHandlerContext ctx, ByteBuf buffer, int workerAddressIndex) {
+        long messageId = SimulatorMessageCodec.getMessageId(buffer);
 
-        final List<ResponseFuture> futureList = new ArrayList<ResponseFuture>();
-        final Response response = new Response(messageId, getSourceAddress(buffer));
+        Response response = new Response(messageId, getSourceAddress(buffer));
+        ResponseAggregator responseAggregator = new ResponseAggregator(ctx, response);
         if (workerAddressIndex == 0) {
             if (LOGGER.isTraceEnabled()) {
                 LOGGER.trace(format("[%d] %s forwarding message to all workers", messageId, addressLevel));
             }
             for (ClientConnector clientConnector : clientConnectorManager.getClientConnectors()) {
                 buffer.retain();
-                futureList.add(clientConnector.writeAsync(buffer));
+                responseAggregator.add(clientConnector.writeAsync(buffer), clientConnector.getRemoteAddress());
             }
         } else {
             ClientConnector clientConnector = clientConnectorManager.get(workerAddressIndex);
@@ -103,22 +108,9 @@ public class ForwardToWorkerHandler extends SimpleChannelInboundHandler<ByteBuf>
                 LOGGER.trace(format("[%d] %s forwarding message to Worker %d", messageId, addressLevel, workerAddressIndex));
             }
             buffer.retain();
-            futureList.add(clientConnector.writeAsync(buffer));
+            responseAggregator.add(clientConnector.writeAsync(buffer), clientConnector.getRemoteAddress());
         }
-        executorService.submit(new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    for (ResponseFuture future : futureList) {
-                        response.addResponse(future.get());
-                    }
-                    ctx.writeAndFlush(response);
-                } catch (InterruptedException e) {
-                    LOGGER.warn("ResponseFuture.get() got interrupted!", e);
-                    throw new SimulatorProtocolException("ResponseFuture.get() got interrupted!", e);
-                }
-            }
-        });
+        responseAggregator.start(ctx.executor(), workerResponseTimeoutMillis, TimeUnit.MILLISECONDS);
     }
 
     private void forwardResponse(ChannelHandlerContext ctx, ByteBuf buffer, int workerAddressIndex) {
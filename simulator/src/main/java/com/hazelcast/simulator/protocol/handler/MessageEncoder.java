@@ -20,6 +20,7 @@ import com.hazelcast.simulator.protocol.core.SimulatorMessage;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.util.AttributeKey;
 import org.apache.log4j.Logger;
 
 import static com.hazelcast.simulator.protocol.core.SimulatorMessageCodec.encodeByteBuf;
@@ -27,9 +28,17 @@ import static java.lang.String.format;
 
 /**
  * A {@link MessageToByteEncoder} to encode a {@link SimulatorMessage} to a {@link ByteBuf}.
+ *
+ * The operations are serialized as JSON, until a message was received on the connection which announces that the remote side
+ * supports the binary operation codec (see {@link #BINARY_CODEC_SUPPORTED}).
  */
 public class MessageEncoder extends MessageToByteEncoder<SimulatorMessage> {
 
+    /**
+     * Channel attribute which is set by the {@link SimulatorProtocolDecoder} if the remote side supports the binary codec.
+     */
+    public static final AttributeKey<Boolean> BINARY_CODEC_SUPPORTED = AttributeKey.valueOf("binaryCodecSupported");
+
     private static final Logger LOGGER = Logger.getLogger(MessageEncoder.class);
 
     private final SimulatorAddress localAddress;
@@ -46,6 +55,6 @@ public class MessageEncoder extends MessageToByteEncoder<SimulatorMessage> {
             LOGGER.trace(format("[%d] MessageEncoder.encode() %s -> %s %s", msg.getMessageId(), localAddress, targetAddress,
                     msg));
         }
-        encodeByteBuf(msg, out);
+        encodeByteBuf(msg, out, Boolean.TRUE.equals(ctx.channel().attr(BINARY_CODEC_SUPPORTED).get()));
     }
 }
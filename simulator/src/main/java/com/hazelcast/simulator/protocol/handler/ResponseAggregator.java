@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.protocol.handler;
+
+import com.hazelcast.simulator.protocol.core.Response;
+import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseListener;
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import io.netty.channel.ChannelHandlerContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.protocol.core.ResponseType.FAILURE_WORKER_TIMEOUT;
+
+/**
+ * Aggregates the {@link Response} instances of forwarded messages to a single {@link Response} without blocking a thread.
+ *
+ * The combined {@link Response} is written to the {@link ChannelHandlerContext} as soon as the last Worker has responded. Workers
+ * which don't respond within the timeout are added with
+ * {@link com.hazelcast.simulator.protocol.core.ResponseType#FAILURE_WORKER_TIMEOUT}.
+ */
+final class ResponseAggregator implements ResponseListener, Runnable {
+
+    private final List<ResponseFuture> futures = new ArrayList<ResponseFuture>();
+    private final List<SimulatorAddress> workerAddresses = new ArrayList<SimulatorAddress>();
+
+    private final ChannelHandlerContext ctx;
+    private final Response response;
+
+    private int pendingResponses;
+    private ScheduledFuture<?> timeoutFuture;
+
+    ResponseAggregator(ChannelHandlerContext ctx, Response response) {
+        this.ctx = ctx;
+        this.response = response;
+    }
+
+    /**
+     * Adds the {@link ResponseFuture} of a forwarded message.
+     *
+     * Must be called before {@link #start(ScheduledExecutorService, long, TimeUnit)}.
+     *
+     * @param future        the {@link ResponseFuture} of the forwarded message
+     * @param workerAddress the {@link SimulatorAddress} of the addressed Worker
+     */
+    void add(ResponseFuture future, SimulatorAddress workerAddress) {
+        futures.add(future);
+        workerAddresses.add(workerAddress);
+    }
+
+    /**
+     * Registers the aggregator on all added {@link ResponseFuture} instances and schedules the timeout.
+     *
+     * @param scheduler the {@link ScheduledExecutorService} to schedule the timeout
+     * @param timeout   the timeout for the Worker responses
+     * @param timeUnit  the {@link TimeUnit} of the timeout
+     */
+    void start(ScheduledExecutorService scheduler, long timeout, TimeUnit timeUnit) {
+        synchronized (this) {
+            pendingResponses = futures.size();
+            if (pendingResponses == 0) {
+                ctx.writeAndFlush(response);
+                return;
+            }
+            timeoutFuture = scheduler.schedule(this, timeout, timeUnit);
+        }
+        for (ResponseFuture future : futures) {
+            future.addListener(this);
+        }
+    }
+
+    @Override
+    public void onResponse(Response workerResponse) {
+        synchronized (this) {
+            response.addResponse(workerResponse);
+            if (--pendingResponses > 0) {
+                return;
+            }
+            timeoutFuture.cancel(false);
+        }
+        ctx.writeAndFlush(response);
+    }
+
+    /**
+     * Is called on timeout and completes all pending {@link ResponseFuture} instances with a timeout {@link Response}.
+     */
+    @Override
+    public void run() {
+        for (int i = 0; i < futures.size(); i++) {
+            ResponseFuture future = futures.get(i);
+            if (!future.isDone()) {
+                future.set(new Response(future.getMessageId(), response.getDestination(), workerAddresses.get(i),
+                        FAILURE_WORKER_TIMEOUT));
+            }
+        }
+    }
+}
@@ -17,14 +17,13 @@ package com.hazelcast.simulator.protocol.handler;
 
 import com.hazelcast.simulator.protocol.core.Response;
 import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureMap;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import org.apache.log4j.Logger;
 
-import java.util.concurrent.ConcurrentMap;
 
-import static com.hazelcast.simulator.protocol.core.ResponseFuture.createFutureKey;
 import static java.lang.String.format;
 
 /**
@@ -37,16 +36,16 @@ public class ResponseHandler extends SimpleChannelInboundHandler<Response> {
     private final SimulatorAddress localAddress;
     private final SimulatorAddress remoteAddress;
 
-    private final ConcurrentMap<String, ResponseFuture> futureMap;
+    private final ResponseFutureMap futureMap;
     private final int futureKeyIndex;
 
     public ResponseHandler(SimulatorAddress localAddress, SimulatorAddress remoteAddress,
-                           ConcurrentMap<String, ResponseFuture> futureMap) {
+                           ResponseFutureMap futureMap) {
         this(localAddress, remoteAddress, futureMap, remoteAddress.getAddressIndex());
     }
 
     public ResponseHandler(SimulatorAddress localAddress, SimulatorAddress remoteAddress,
-                           ConcurrentMap<String, ResponseFuture> futureMap, int futureKeyIndex) {
+                           ResponseFutureMap futureMap, int futureKeyIndex) {
         this.localAddress = localAddress;
         this.remoteAddress = remoteAddress;
 
@@ -57,18 +56,20 @@ public class ResponseHandler extends SimpleChannelInboundHandler<Response> {
     @Override
     public void channelRead0(ChannelHandlerContext ctx, Response response) {
         long messageId = response.getMessageId();
-        String key = createFutureKey(response.getDestination(), messageId, futureKeyIndex);
+        SimulatorAddress destination = response.getDestination();
         if (LOGGER.isTraceEnabled()) {
-            LOGGER.trace(format("[%d] %s <- %s received %s for %s", messageId, localAddress, remoteAddress, response, key));
+            LOGGER.trace(format("[%d] %s <- %s received %s for %s", messageId, localAddress, remoteAddress, response,
+                    destination));
         }
 
-        ResponseFuture future = futureMap.get(key);
+        ResponseFuture future = futureMap.get(destination, messageId, futureKeyIndex);
         if (future != null) {
             future.set(response);
             return;
         }
 
-        String msg = format("[%d] %s <- %s futureKey %s not found for %s", messageId, localAddress, remoteAddress, key, response);
+        String msg = format("[%d] %s <- %s ResponseFuture for %s with index %d not found for %s", messageId, localAddress,
+                remoteAddress, destination, futureKeyIndex, response);
         LOGGER.error(msg);
         throw new IllegalArgumentException(msg);
     }
@@ -32,7 +32,9 @@ import org.apache.log4j.Logger;
 import java.util.List;
 
 import static com.hazelcast.simulator.protocol.core.ResponseCodec.isResponse;
+import static com.hazelcast.simulator.protocol.core.SimulatorMessageCodec.isBinaryCodecSupported;
 import static com.hazelcast.simulator.protocol.core.SimulatorMessageCodec.isSimulatorMessage;
+import static com.hazelcast.simulator.protocol.handler.MessageEncoder.BINARY_CODEC_SUPPORTED;
 import static io.netty.buffer.Unpooled.EMPTY_BUFFER;
 import static java.lang.String.format;
 
@@ -41,6 +43,9 @@ import static java.lang.String.format;
  *
  * If the destination address of a received {@link SimulatorMessage} is not for the {@link AddressLevel} of this Simulator
  * component, the {@link ByteBuf} is passed to the next handler.
+ *
+ * Sets the {@link MessageEncoder#BINARY_CODEC_SUPPORTED} attribute of the channel, if a received {@link SimulatorMessage}
+ * announces that the remote side supports the binary operation codec.
  */
 public class SimulatorProtocolDecoder extends ByteToMessageDecoder {
 
@@ -88,6 +93,10 @@ public class SimulatorProtocolDecoder extends ByteToMessageDecoder {
     }
 
     private void decodeSimulatorMessage(ChannelHandlerContext ctx, ByteBuf buffer, List<Object> out) {
+        if (isBinaryCodecSupported(buffer)) {
+            ctx.channel().attr(BINARY_CODEC_SUPPORTED).set(true);
+        }
+
         long messageId = SimulatorMessageCodec.getMessageId(buffer);
         AddressLevel dstAddressLevel = AddressLevel.fromInt(SimulatorMessageCodec.getDestinationAddressLevel(buffer));
         if (LOGGER.isTraceEnabled()) {
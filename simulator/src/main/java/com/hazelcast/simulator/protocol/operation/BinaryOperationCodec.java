@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.protocol.operation;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.netty.util.CharsetUtil.UTF_8;
+
+/**
+ * Encodes and decodes a {@link SimulatorOperation} of a single {@link OperationType} directly into a {@link ByteBuf}.
+ *
+ * This is an alternative to the JSON serialization of {@link OperationCodec} for high frequency operations, which avoids the
+ * reflection of Gson and the intermediate String. Binary payloads like compressed histograms are written as length-prefixed
+ * byte arrays.
+ *
+ * @param <O> the type of the {@link SimulatorOperation}
+ */
+public abstract class BinaryOperationCodec<O extends SimulatorOperation> {
+
+    private static final int NULL_LENGTH = -1;
+
+    /**
+     * Writes the {@link SimulatorOperation} into the {@link ByteBuf}.
+     *
+     * @param operation the {@link SimulatorOperation} to encode
+     * @param buffer    the {@link ByteBuf} to write to
+     */
+    public abstract void encode(O operation, ByteBuf buffer);
+
+    /**
+     * Reads a {@link SimulatorOperation} from the {@link ByteBuf}.
+     *
+     * @param buffer the {@link ByteBuf} to read from
+     * @return the decoded {@link SimulatorOperation}
+     */
+    public abstract O decode(ByteBuf buffer);
+
+    protected static void writeString(ByteBuf buffer, String value) {
+        if (value == null) {
+            buffer.writeInt(NULL_LENGTH);
+            return;
+        }
+        int lengthIndex = buffer.writerIndex();
+        buffer.writeInt(0);
+        int length = ByteBufUtil.writeUtf8(buffer, value);
+        buffer.setInt(lengthIndex, length);
+    }
+
+    protected static String readString(ByteBuf buffer) {
+        int length = buffer.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        String value = buffer.toString(buffer.readerIndex(), length, UTF_8);
+        buffer.skipBytes(length);
+        return value;
+    }
+
+    protected static void writeBytes(ByteBuf buffer, byte[] value) {
+        if (value == null) {
+            buffer.writeInt(NULL_LENGTH);
+            return;
+        }
+        buffer.writeInt(value.length);
+        buffer.writeBytes(value);
+    }
+
+    protected static byte[] readBytes(ByteBuf buffer) {
+        int length = buffer.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.readBytes(value);
+        return value;
+    }
+
+    protected static void writeBytesMap(ByteBuf buffer, Map<String, byte[]> map) {
+        buffer.writeInt(map.size());
+        for (Map.Entry<String, byte[]> entry : map.entrySet()) {
+            writeString(buffer, entry.getKey());
+            writeBytes(buffer, entry.getValue());
+        }
+    }
+
+    protected static Map<String, byte[]> readBytesMap(ByteBuf buffer) {
+        int size = buffer.readInt();
+        Map<String, byte[]> map = new HashMap<String, byte[]>(size);
+        for (int i = 0; i < size; i++) {
+            String key = readString(buffer);
+            map.put(key, readBytes(buffer));
+        }
+        return map;
+    }
+}
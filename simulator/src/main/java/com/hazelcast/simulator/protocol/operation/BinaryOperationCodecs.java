@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.protocol.operation;
+
+import com.hazelcast.simulator.worker.performance.PerformanceState;
+import io.netty.buffer.ByteBuf;
+import org.apache.log4j.Level;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Contains the {@link BinaryOperationCodec} implementations for the high frequency {@link OperationType} entries.
+ *
+ * All other operations are serialized with JSON.
+ */
+final class BinaryOperationCodecs {
+
+    private BinaryOperationCodecs() {
+    }
+
+    static Map<OperationType, BinaryOperationCodec<? extends SimulatorOperation>> createBinaryOperationCodecs() {
+        Map<OperationType, BinaryOperationCodec<? extends SimulatorOperation>> codecs
+                = new EnumMap<OperationType, BinaryOperationCodec<? extends SimulatorOperation>>(OperationType.class);
+        codecs.put(OperationType.LOG, new LogOperationCodec());
+        codecs.put(OperationType.PERFORMANCE_STATE, new PerformanceStateOperationCodec());
+        codecs.put(OperationType.TEST_HISTOGRAMS, new TestHistogramOperationCodec());
+        codecs.put(OperationType.INTERVAL_HISTOGRAMS, new IntervalHistogramOperationCodec());
+        codecs.put(OperationType.PING, new PingOperationCodec());
+        return codecs;
+    }
+
+    static final class LogOperationCodec extends BinaryOperationCodec<LogOperation> {
+
+        @Override
+        public void encode(LogOperation operation, ByteBuf buffer) {
+            writeString(buffer, operation.getMessage());
+            writeString(buffer, operation.getLevel().toString());
+        }
+
+        @Override
+        public LogOperation decode(ByteBuf buffer) {
+            String message = readString(buffer);
+            Level level = Level.toLevel(readString(buffer), Level.INFO);
+            return new LogOperation(message, level);
+        }
+    }
+
+    static final class PerformanceStateOperationCodec extends BinaryOperationCodec<PerformanceStateOperation> {
+
+        @Override
+        public void encode(PerformanceStateOperation operation, ByteBuf buffer) {
+            Map<String, PerformanceState> performanceStates = operation.getPerformanceStates();
+            buffer.writeInt(performanceStates.size());
+            for (Map.Entry<String, PerformanceState> entry : performanceStates.entrySet()) {
+                PerformanceState performanceState = entry.getValue();
+
+                writeString(buffer, entry.getKey());
+                buffer.writeLong(performanceState.getOperationCount());
+                buffer.writeDouble(performanceState.getIntervalThroughput());
+                buffer.writeDouble(performanceState.getTotalThroughput());
+                buffer.writeDouble(performanceState.getIntervalAvgLatency());
+                buffer.writeLong(performanceState.getIntervalPercentileLatency());
+                buffer.writeLong(performanceState.getIntervalMaxLatency());
+            }
+        }
+
+        @Override
+        public PerformanceStateOperation decode(ByteBuf buffer) {
+            PerformanceStateOperation operation = new PerformanceStateOperation();
+            int size = buffer.readInt();
+            for (int i = 0; i < size; i++) {
+                String testId = readString(buffer);
+                long operationCount = buffer.readLong();
+                double intervalThroughput = buffer.readDouble();
+                double totalThroughput = buffer.readDouble();
+                double intervalAvgLatency = buffer.readDouble();
+                long intervalPercentileLatency = buffer.readLong();
+                long intervalMaxLatency = buffer.readLong();
+
+                operation.addPerformanceState(testId, new PerformanceState(operationCount, intervalThroughput, totalThroughput,
+                        intervalAvgLatency, intervalPercentileLatency, intervalMaxLatency));
+            }
+            return operation;
+        }
+    }
+
+    static final class TestHistogramOperationCodec extends BinaryOperationCodec<TestHistogramOperation> {
+
+        @Override
+        public void encode(TestHistogramOperation operation, ByteBuf buffer) {
+            writeString(buffer, operation.getTestId());
+            writeBytesMap(buffer, operation.getProbeHistograms());
+        }
+
+        @Override
+        public TestHistogramOperation decode(ByteBuf buffer) {
+            String testId = readString(buffer);
+            return new TestHistogramOperation(testId, readBytesMap(buffer));
+        }
+    }
+
+    static final class IntervalHistogramOperationCodec extends BinaryOperationCodec<IntervalHistogramOperation> {
+
+        @Override
+        public void encode(IntervalHistogramOperation operation, ByteBuf buffer) {
+            writeString(buffer, operation.getTestId());
+            buffer.writeLong(operation.getSequence());
+            buffer.writeLong(operation.getTimestamp());
+            writeBytesMap(buffer, operation.getProbeHistograms());
+            writeBytesMap(buffer, operation.getServiceTimeHistograms());
+        }
+
+        @Override
+        public IntervalHistogramOperation decode(ByteBuf buffer) {
+            String testId = readString(buffer);
+            long sequence = buffer.readLong();
+            long timestamp = buffer.readLong();
+            Map<String, byte[]> probeHistograms = readBytesMap(buffer);
+            Map<String, byte[]> serviceTimeHistograms = readBytesMap(buffer);
+            return new IntervalHistogramOperation(testId, sequence, timestamp, probeHistograms, serviceTimeHistograms);
+        }
+    }
+
+    static final class PingOperationCodec extends BinaryOperationCodec<PingOperation> {
+
+        @Override
+        public void encode(PingOperation operation, ByteBuf buffer) {
+        }
+
+        @Override
+        public PingOperation decode(ByteBuf buffer) {
+            return new PingOperation();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.protocol.operation;
+
+import java.util.Map;
+
+/**
+ * Sends the compressed binary representation of the interval {@link org.HdrHistogram.Histogram} of all
+ * {@link com.hazelcast.simulator.probes.Probe} instances of a Simulator Test to the Coordinator.
+ *
+ * There is one operation sent per Simulator Test and performance monitor interval. The Coordinator aligns the histograms of
+ * all Workers by their interval sequence number and merges them into a cluster wide latency log per probe. The latency
+ * histograms of the probes are also the source of the cluster wide interval latency of the performance monitor, so they are
+ * not part of the {@link com.hazelcast.simulator.worker.performance.PerformanceState}.
+ */
+public class IntervalHistogramOperation implements SimulatorOperation {
+
+    /**
+     * Id of the Simulator Test.
+     */
+    private final String testId;
+
+    /**
+     * Sequence number of the interval, which starts with zero for the first performance monitor interval of the test.
+     */
+    private final long sequence;
+
+    /**
+     * Wall clock timestamp in milliseconds when the interval has ended.
+     */
+    private final long timestamp;
+
+    /**
+     * Map of interval latency {@link org.HdrHistogram.Histogram} data per {@link com.hazelcast.simulator.probes.Probe}.
+     */
+    private final Map<String, byte[]> probeHistograms;
+
+    /**
+     * Map of interval service time {@link org.HdrHistogram.Histogram} data per {@link com.hazelcast.simulator.probes.Probe}.
+     */
+    private final Map<String, byte[]> serviceTimeHistograms;
+
+    public IntervalHistogramOperation(String testId, long sequence, long timestamp, Map<String, byte[]> probeHistograms,
+                                      Map<String, byte[]> serviceTimeHistograms) {
+        this.testId = testId;
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.probeHistograms = probeHistograms;
+        this.serviceTimeHistograms = serviceTimeHistograms;
+    }
+
+    public String getTestId() {
+        return testId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Map<String, byte[]> getProbeHistograms() {
+        return probeHistograms;
+    }
+
+    public Map<String, byte[]> getServiceTimeHistograms() {
+        return serviceTimeHistograms;
+    }
+}
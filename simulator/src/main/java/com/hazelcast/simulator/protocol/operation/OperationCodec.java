@@ -17,14 +17,26 @@ package com.hazelcast.simulator.protocol.operation;
 
 import com.google.gson.Gson;
 import com.hazelcast.simulator.protocol.core.SimulatorMessage;
+import io.netty.buffer.ByteBuf;
+
+import java.util.Map;
+
+import static com.hazelcast.simulator.protocol.operation.BinaryOperationCodecs.createBinaryOperationCodecs;
+import static java.lang.String.format;
 
 /**
  * Encodes and decodes a {@link SimulatorOperation}.
+ *
+ * All operations can be serialized with JSON. The high frequency operations can additionally be written directly into a
+ * {@link ByteBuf} via a {@link BinaryOperationCodec}.
  */
 public final class OperationCodec {
 
     private static final Gson GSON = new Gson();
 
+    private static final Map<OperationType, BinaryOperationCodec<? extends SimulatorOperation>> BINARY_CODECS
+            = createBinaryOperationCodecs();
+
     private OperationCodec() {
     }
 
@@ -37,6 +49,32 @@ public final class OperationCodec {
     }
 
     public static SimulatorOperation fromSimulatorMessage(SimulatorMessage message) {
+        SimulatorOperation operation = message.getOperation();
+        if (operation != null) {
+            return operation;
+        }
         return fromJson(message.getOperationData(), message.getOperationType().getClassType());
     }
+
+    public static boolean hasBinaryCodec(OperationType operationType) {
+        return BINARY_CODECS.containsKey(operationType);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void encodeBinary(SimulatorOperation operation, OperationType operationType, ByteBuf buffer) {
+        BinaryOperationCodec<SimulatorOperation> codec = (BinaryOperationCodec<SimulatorOperation>) getBinaryCodec(operationType);
+        codec.encode(operation, buffer);
+    }
+
+    public static SimulatorOperation decodeBinary(OperationType operationType, ByteBuf buffer) {
+        return getBinaryCodec(operationType).decode(buffer);
+    }
+
+    private static BinaryOperationCodec<? extends SimulatorOperation> getBinaryCodec(OperationType operationType) {
+        BinaryOperationCodec<? extends SimulatorOperation> codec = BINARY_CODECS.get(operationType);
+        if (codec == null) {
+            throw new IllegalArgumentException(format("OperationType %s has no binary codec", operationType));
+        }
+        return codec;
+    }
 }
@@ -36,12 +36,15 @@ public enum OperationType {
     PHASE_COMPLETED(PhaseCompletedOperation.class, 5),
     PERFORMANCE_STATE(PerformanceStateOperation.class, 6),
     TEST_HISTOGRAMS(TestHistogramOperation.class, 7),
+    INTERVAL_HISTOGRAMS(IntervalHistogramOperation.class, 19),
 
     // AgentOperationProcessor
     INIT_TEST_SUITE(InitTestSuiteOperation.class, 8),
     CREATE_WORKER(CreateWorkerOperation.class, 9),
     START_TIMEOUT_DETECTION(StartTimeoutDetectionOperation.class, 10),
     STOP_TIMEOUT_DETECTION(StopTimeoutDetectionOperation.class, 11),
+    WORKER_STARTED(WorkerStartedOperation.class, 20),
+    WORKER_EXCEPTION(WorkerExceptionOperation.class, 21),
 
     // WorkerOperationProcessor
     PING(PingOperation.class, 12),
@@ -51,7 +54,8 @@ public enum OperationType {
     // TestOperationProcessor
     START_TEST_PHASE(StartTestPhaseOperation.class, 15),
     START_TEST(StartTestOperation.class, 16),
-    STOP_TEST(StopTestOperation.class, 17);
+    STOP_TEST(StopTestOperation.class, 17),
+    SET_TARGET_THROUGHPUT(SetTargetThroughputOperation.class, 18);
 
     private final Class<? extends SimulatorOperation> classType;
     private final int classId;
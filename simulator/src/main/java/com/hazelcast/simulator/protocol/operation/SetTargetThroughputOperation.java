@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.protocol.operation;
+
+/**
+ * Sets the target throughput of a Simulator Test, which is used to clock its worker threads.
+ *
+ * Can be sent before or during the {@link com.hazelcast.simulator.test.TestPhase#RUN} phase, e.g. to ramp up the load step by
+ * step. The throughput is defined in operations per second for the whole cluster.
+ */
+public class SetTargetThroughputOperation implements SimulatorOperation {
+
+    /**
+     * Defines the target throughput in operations per second for the whole cluster.
+     */
+    private final double targetThroughput;
+
+    public SetTargetThroughputOperation(double targetThroughput) {
+        this.targetThroughput = targetThroughput;
+    }
+
+    public double getTargetThroughput() {
+        return targetThroughput;
+    }
+}
@@ -37,6 +37,11 @@ public class StartTestOperation implements SimulatorOperation {
      */
     private final List<String> targetWorkers;
 
+    /**
+     * Defines the number of Workers which execute the RUN phase, used to split the <tt>targetThroughput</tt> of a test.
+     */
+    private final int targetWorkerCount;
+
     public StartTestOperation() {
         this(TargetType.ALL);
     }
@@ -46,8 +51,13 @@ public class StartTestOperation implements SimulatorOperation {
     }
 
     public StartTestOperation(TargetType targetType, List<String> targetWorkers) {
+        this(targetType, targetWorkers, targetWorkers.size());
+    }
+
+    public StartTestOperation(TargetType targetType, List<String> targetWorkers, int targetWorkerCount) {
         this.targetType = targetType;
         this.targetWorkers = targetWorkers;
+        this.targetWorkerCount = targetWorkerCount;
     }
 
     public boolean matchesTargetType(WorkerType workerType) {
@@ -61,4 +71,8 @@ public class StartTestOperation implements SimulatorOperation {
     public TargetType getTargetType() {
         return targetType;
     }
+
+    public int getTargetWorkerCount() {
+        return targetWorkerCount;
+    }
 }
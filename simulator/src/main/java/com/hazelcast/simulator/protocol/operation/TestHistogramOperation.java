@@ -18,8 +18,8 @@ package com.hazelcast.simulator.protocol.operation;
 import java.util.Map;
 
 /**
- * Sends a binary representation of {@link org.HdrHistogram.Histogram} of all {@link com.hazelcast.simulator.probes.Probe}
- * instances of a Simulator Test to the Coordinator.
+ * Sends the compressed binary representation of {@link org.HdrHistogram.Histogram}
+ * of all {@link com.hazelcast.simulator.probes.Probe} instances of a Simulator Test to the Coordinator.
  *
  * There is one operation sent per Simulator Test, which contains all probes of that test.
  */
@@ -33,9 +33,9 @@ public class TestHistogramOperation implements SimulatorOperation {
     /**
      * Map of {@link org.HdrHistogram.Histogram} data per {@link com.hazelcast.simulator.probes.Probe}.
      */
-    private final Map<String, String> probeHistograms;
+    private final Map<String, byte[]> probeHistograms;
 
-    public TestHistogramOperation(String testId, Map<String, String> probeHistograms) {
+    public TestHistogramOperation(String testId, Map<String, byte[]> probeHistograms) {
         this.testId = testId;
         this.probeHistograms = probeHistograms;
     }
@@ -44,7 +44,7 @@ public class TestHistogramOperation implements SimulatorOperation {
         return testId;
     }
 
-    public Map<String, String> getProbeHistograms() {
+    public Map<String, byte[]> getProbeHistograms() {
         return probeHistograms;
     }
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.protocol.operation;
+
+/**
+ * Reports an exception of a Simulator Worker to the Agent, which forwards it as failure to the Coordinator.
+ */
+public class WorkerExceptionOperation implements SimulatorOperation {
+
+    /**
+     * Defines the id of the Simulator Test which caused the exception, can be {@code null}.
+     */
+    private final String testId;
+
+    /**
+     * Defines the stacktrace of the exception.
+     */
+    private final String cause;
+
+    public WorkerExceptionOperation(String testId, String cause) {
+        this.testId = testId;
+        this.cause = cause;
+    }
+
+    public String getTestId() {
+        return testId;
+    }
+
+    public String getCause() {
+        return cause;
+    }
+}
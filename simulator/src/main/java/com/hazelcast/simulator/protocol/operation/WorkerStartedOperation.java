@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.protocol.operation;
+
+/**
+ * Signals the Agent that a Simulator Worker has been started.
+ */
+public class WorkerStartedOperation implements SimulatorOperation {
+
+    /**
+     * Defines the address of the Hazelcast instance of the Worker.
+     */
+    private final String hzAddress;
+
+    public WorkerStartedOperation(String hzAddress) {
+        this.hzAddress = hzAddress;
+    }
+
+    public String getHzAddress() {
+        return hzAddress;
+    }
+}
@@ -16,6 +16,7 @@
 package com.hazelcast.simulator.protocol.processors;
 
 import com.hazelcast.simulator.agent.Agent;
+import com.hazelcast.simulator.agent.workerjvm.WorkerJvm;
 import com.hazelcast.simulator.agent.workerjvm.WorkerJvmLauncher;
 import com.hazelcast.simulator.agent.workerjvm.WorkerJvmManager;
 import com.hazelcast.simulator.agent.workerjvm.WorkerJvmSettings;
@@ -30,6 +31,8 @@ import com.hazelcast.simulator.protocol.operation.IntegrationTestOperation;
 import com.hazelcast.simulator.protocol.operation.LogOperation;
 import com.hazelcast.simulator.protocol.operation.OperationType;
 import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
+import com.hazelcast.simulator.protocol.operation.WorkerExceptionOperation;
+import com.hazelcast.simulator.protocol.operation.WorkerStartedOperation;
 import com.hazelcast.simulator.worker.WorkerType;
 import org.apache.log4j.Logger;
 
@@ -38,7 +41,9 @@ import java.util.ArrayList;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+import static com.hazelcast.simulator.protocol.core.ResponseType.FAILURE_WORKER_NOT_FOUND;
 import static com.hazelcast.simulator.protocol.core.ResponseType.SUCCESS;
 import static com.hazelcast.simulator.protocol.core.ResponseType.UNSUPPORTED_OPERATION_ON_THIS_PROCESSOR;
 import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
@@ -81,6 +86,10 @@ public class AgentOperationProcessor extends OperationProcessor {
             case STOP_TIMEOUT_DETECTION:
                 processStopTimeoutDetection();
                 break;
+            case WORKER_STARTED:
+                return processWorkerStarted((WorkerStartedOperation) operation, sourceAddress);
+            case WORKER_EXCEPTION:
+                return processWorkerException((WorkerExceptionOperation) operation, sourceAddress);
             default:
                 return UNSUPPORTED_OPERATION_ON_THIS_PROCESSOR;
         }
@@ -140,9 +149,22 @@ public class AgentOperationProcessor extends OperationProcessor {
                 return ResponseType.EXCEPTION_DURING_OPERATION_EXECUTION;
             }
         }
+        fillWorkerJvmPool(operation);
         return SUCCESS;
     }
 
+    private void fillWorkerJvmPool(CreateWorkerOperation operation) throws InterruptedException {
+        int timeoutSeconds = 0;
+        for (WorkerJvmSettings workerJvmSettings : operation.getWorkerJvmSettings()) {
+            new WorkerJvmLauncher(agent, workerJvmManager, workerJvmSettings).fillWorkerJvmPool();
+            timeoutSeconds = Math.max(timeoutSeconds, workerJvmSettings.getWorkerStartupTimeout());
+        }
+        // the idle JVMs are started before the test phase, so they don't disturb the measurements
+        if (!agent.getWorkerJvmPool().awaitPendingStarts(timeoutSeconds, TimeUnit.SECONDS)) {
+            LOGGER.warn(format("Pooled Worker JVMs didn't start within %d seconds", timeoutSeconds));
+        }
+    }
+
     private void processStartTimeoutDetection() {
         agent.getWorkerJvmFailureMonitor().startTimeoutDetection();
     }
@@ -151,6 +173,27 @@ public class AgentOperationProcessor extends OperationProcessor {
         agent.getWorkerJvmFailureMonitor().stopTimeoutDetection();
     }
 
+    private ResponseType processWorkerStarted(WorkerStartedOperation operation, SimulatorAddress sourceAddress) {
+        WorkerJvm workerJvm = workerJvmManager.get(sourceAddress);
+        if (workerJvm == null) {
+            LOGGER.warn("Received start signal from unknown Worker " + sourceAddress);
+            return FAILURE_WORKER_NOT_FOUND;
+        }
+        workerJvm.setStarted(operation.getHzAddress());
+        return SUCCESS;
+    }
+
+    private ResponseType processWorkerException(WorkerExceptionOperation operation, SimulatorAddress sourceAddress) {
+        WorkerJvm workerJvm = workerJvmManager.get(sourceAddress);
+        if (workerJvm == null) {
+            LOGGER.warn("Received exception from unknown Worker " + sourceAddress);
+            return FAILURE_WORKER_NOT_FOUND;
+        }
+        // we forward the exception asynchronously, so the Worker gets the response before it writes its own exception file
+        agent.getWorkerJvmFailureMonitor().reportExceptionAsync(workerJvm, operation.getTestId(), operation.getCause());
+        return SUCCESS;
+    }
+
     private final class LaunchWorkerCallable implements Callable<Boolean> {
 
         private final WorkerJvmLauncher launcher;
@@ -164,11 +207,7 @@ public class AgentOperationProcessor extends OperationProcessor {
         @Override
         public Boolean call() {
             try {
-                launcher.launch();
-
-                int workerIndex = workerJvmSettings.getWorkerIndex();
-                int workerPort = agent.getPort() + workerIndex;
-                SimulatorAddress workerAddress = agent.getAgentConnector().addWorker(workerIndex, "127.0.0.1", workerPort);
+                SimulatorAddress workerAddress = launcher.launch();
 
                 WorkerType workerType = workerJvmSettings.getWorkerType();
                 agent.getCoordinatorLogger().debug(format("Created %s Worker %s", workerType, workerAddress));
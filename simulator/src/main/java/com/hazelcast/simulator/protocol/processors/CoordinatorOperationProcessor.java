@@ -16,6 +16,7 @@
 package com.hazelcast.simulator.protocol.processors;
 
 import com.hazelcast.simulator.coordinator.FailureContainer;
+import com.hazelcast.simulator.coordinator.IntervalHistogramContainer;
 import com.hazelcast.simulator.coordinator.PerformanceStateContainer;
 import com.hazelcast.simulator.coordinator.TestHistogramContainer;
 import com.hazelcast.simulator.coordinator.TestPhaseListenerContainer;
@@ -24,13 +25,19 @@ import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.exception.LocalExceptionLogger;
 import com.hazelcast.simulator.protocol.operation.ExceptionOperation;
 import com.hazelcast.simulator.protocol.operation.FailureOperation;
+import com.hazelcast.simulator.protocol.operation.IntervalHistogramOperation;
 import com.hazelcast.simulator.protocol.operation.OperationType;
 import com.hazelcast.simulator.protocol.operation.PerformanceStateOperation;
 import com.hazelcast.simulator.protocol.operation.PhaseCompletedOperation;
 import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
 import com.hazelcast.simulator.protocol.operation.TestHistogramOperation;
+import org.HdrHistogram.Histogram;
 import org.apache.log4j.Logger;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hazelcast.simulator.probes.impl.HistogramUtils.fromCompressedBytes;
 import static com.hazelcast.simulator.protocol.core.AddressLevel.TEST;
 import static com.hazelcast.simulator.protocol.core.ResponseType.EXCEPTION_DURING_OPERATION_EXECUTION;
 import static com.hazelcast.simulator.protocol.core.ResponseType.SUCCESS;
@@ -49,17 +56,20 @@ public class CoordinatorOperationProcessor extends OperationProcessor {
     private final TestPhaseListenerContainer testPhaseListenerContainer;
     private final PerformanceStateContainer performanceStateContainer;
     private final TestHistogramContainer testHistogramContainer;
+    private final IntervalHistogramContainer intervalHistogramContainer;
 
     public CoordinatorOperationProcessor(LocalExceptionLogger exceptionLogger,
                                          FailureContainer failureContainer, TestPhaseListenerContainer testPhaseListenerContainer,
                                          PerformanceStateContainer performanceStateContainer,
-                                         TestHistogramContainer testHistogramContainer) {
+                                         TestHistogramContainer testHistogramContainer,
+                                         IntervalHistogramContainer intervalHistogramContainer) {
         super(exceptionLogger);
         this.exceptionLogger = exceptionLogger;
         this.failureContainer = failureContainer;
         this.testPhaseListenerContainer = testPhaseListenerContainer;
         this.performanceStateContainer = performanceStateContainer;
         this.testHistogramContainer = testHistogramContainer;
+        this.intervalHistogramContainer = intervalHistogramContainer;
     }
 
     @Override
@@ -80,6 +90,9 @@ public class CoordinatorOperationProcessor extends OperationProcessor {
             case TEST_HISTOGRAMS:
                 processTestHistogram((TestHistogramOperation) operation, sourceAddress);
                 break;
+            case INTERVAL_HISTOGRAMS:
+                processIntervalHistogram((IntervalHistogramOperation) operation, sourceAddress);
+                break;
             default:
                 return UNSUPPORTED_OPERATION_ON_THIS_PROCESSOR;
         }
@@ -111,4 +124,33 @@ public class CoordinatorOperationProcessor extends OperationProcessor {
     private void processTestHistogram(TestHistogramOperation operation, SimulatorAddress sourceAddress) {
         testHistogramContainer.addTestHistograms(sourceAddress, operation.getTestId(), operation.getProbeHistograms());
     }
+
+    private void processIntervalHistogram(IntervalHistogramOperation operation, SimulatorAddress sourceAddress) {
+        String testId = operation.getTestId();
+        Map<String, Histogram> probeHistograms = decodeHistograms(sourceAddress, testId, operation.getProbeHistograms());
+        Map<String, Histogram> serviceTimeHistograms = decodeHistograms(sourceAddress, testId,
+                operation.getServiceTimeHistograms());
+
+        performanceStateContainer.addIntervalLatencyHistograms(sourceAddress, testId, probeHistograms.values());
+
+        long sequence = operation.getSequence();
+        long timestamp = operation.getTimestamp();
+        intervalHistogramContainer.addIntervalHistograms(sourceAddress, testId, sequence, timestamp, probeHistograms);
+        intervalHistogramContainer.addIntervalHistograms(sourceAddress, testId, sequence, timestamp, serviceTimeHistograms);
+    }
+
+    private static Map<String, Histogram> decodeHistograms(SimulatorAddress sourceAddress, String testId,
+                                                           Map<String, byte[]> compressedHistograms) {
+        Map<String, Histogram> histograms = new HashMap<String, Histogram>(compressedHistograms.size());
+        for (Map.Entry<String, byte[]> histogramEntry : compressedHistograms.entrySet()) {
+            String probeName = histogramEntry.getKey();
+            try {
+                histograms.put(probeName, fromCompressedBytes(histogramEntry.getValue()));
+            } catch (Exception e) {
+                LOGGER.warn(format("Could not decode interval histogram from %s of test %s of probe %s", sourceAddress, testId,
+                        probeName));
+            }
+        }
+        return histograms;
+    }
 }
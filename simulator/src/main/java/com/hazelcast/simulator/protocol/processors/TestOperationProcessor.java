@@ -24,6 +24,7 @@ import com.hazelcast.simulator.protocol.operation.IntegrationTestOperation;
 import com.hazelcast.simulator.protocol.operation.LogOperation;
 import com.hazelcast.simulator.protocol.operation.OperationType;
 import com.hazelcast.simulator.protocol.operation.PhaseCompletedOperation;
+import com.hazelcast.simulator.protocol.operation.SetTargetThroughputOperation;
 import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
 import com.hazelcast.simulator.protocol.operation.StartTestOperation;
 import com.hazelcast.simulator.protocol.operation.StartTestPhaseOperation;
@@ -107,6 +108,9 @@ public class TestOperationProcessor extends OperationProcessor {
             case STOP_TEST:
                 processStopTest();
                 break;
+            case SET_TARGET_THROUGHPUT:
+                processSetTargetThroughput((SetTargetThroughputOperation) operation);
+                break;
             default:
                 return UNSUPPORTED_OPERATION_ON_THIS_PROCESSOR;
         }
@@ -170,6 +174,7 @@ public class TestOperationProcessor extends OperationProcessor {
         }
 
         LOGGER.info(format("%s Starting run of %s %s", DASHES, testId, DASHES));
+        testContainer.setTargetWorkerCount(operation.getTargetWorkerCount());
         OperationThread operationThread = new OperationThread(TestPhase.RUN) {
             @Override
             public void doRun() throws Exception {
@@ -194,6 +199,12 @@ public class TestOperationProcessor extends OperationProcessor {
         testContainer.getTestContext().stop();
     }
 
+    private void processSetTargetThroughput(SetTargetThroughputOperation operation) {
+        LOGGER.info(format("%s Setting target throughput of %s to %.2f ops/s %s", DASHES, testId, operation.getTargetThroughput(),
+                DASHES));
+        testContainer.setTargetThroughput(operation.getTargetThroughput());
+    }
+
     private boolean skipRunPhase(StartTestOperation operation) {
         if (!operation.matchesTargetType(type)) {
             TargetType targetType = operation.getTargetType();
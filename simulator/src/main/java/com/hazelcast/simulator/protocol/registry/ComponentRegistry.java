@@ -104,6 +104,16 @@ public class ComponentRegistry {
         return workers.size();
     }
 
+    public int workerCount(TargetType targetType) {
+        int count = 0;
+        for (WorkerData workerData : workers) {
+            if (targetType.matches(workerData.isMemberWorker())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     public boolean hasClientWorkers() {
         for (WorkerData workerData : workers) {
             if (!workerData.isMemberWorker()) {
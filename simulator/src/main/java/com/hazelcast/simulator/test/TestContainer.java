@@ -18,6 +18,7 @@ package com.hazelcast.simulator.test;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.simulator.probes.Probe;
 import com.hazelcast.simulator.probes.impl.ProbeImpl;
+import com.hazelcast.simulator.probes.impl.ThreadLocalProbeImpl;
 import com.hazelcast.simulator.test.annotations.InjectHazelcastInstance;
 import com.hazelcast.simulator.test.annotations.InjectProbe;
 import com.hazelcast.simulator.test.annotations.InjectTestContext;
@@ -25,6 +26,7 @@ import com.hazelcast.simulator.test.annotations.Run;
 import com.hazelcast.simulator.test.annotations.RunWithWorker;
 import com.hazelcast.simulator.test.annotations.Setup;
 import com.hazelcast.simulator.test.annotations.Teardown;
+import com.hazelcast.simulator.test.annotations.TimeStep;
 import com.hazelcast.simulator.test.annotations.Verify;
 import com.hazelcast.simulator.test.annotations.Warmup;
 import com.hazelcast.simulator.utils.AnnotationFilter;
@@ -32,15 +34,29 @@ import com.hazelcast.simulator.utils.AnnotationFilter.TeardownFilter;
 import com.hazelcast.simulator.utils.AnnotationFilter.VerifyFilter;
 import com.hazelcast.simulator.utils.AnnotationFilter.WarmupFilter;
 import com.hazelcast.simulator.utils.ThreadSpawner;
+import com.hazelcast.simulator.worker.distribution.KeyDistribution;
+import com.hazelcast.simulator.worker.distribution.KeyDistributionType;
+import com.hazelcast.simulator.worker.metronome.MetronomeType;
+import com.hazelcast.simulator.worker.tasks.IKeyDistributionWorker;
+import com.hazelcast.simulator.worker.tasks.IMetronomeWorker;
 import com.hazelcast.simulator.worker.tasks.IMultipleProbesWorker;
 import com.hazelcast.simulator.worker.tasks.IWorker;
+import com.hazelcast.simulator.worker.tasks.IWorkloadPhaseWorker;
+import com.hazelcast.simulator.worker.tasks.WorkerLoopFactory;
+import com.hazelcast.simulator.worker.timestep.TimeStepLoop;
+import com.hazelcast.simulator.worker.timestep.TimeStepLoopFactory;
+import com.hazelcast.simulator.worker.timestep.TimeStepModel;
+import com.hazelcast.simulator.worker.workload.WorkloadPhase;
+import com.hazelcast.simulator.worker.workload.WorkloadSchedule;
 import org.apache.log4j.Logger;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -48,15 +64,25 @@ import java.util.concurrent.ConcurrentHashMap;
 import static com.hazelcast.simulator.utils.AnnotationReflectionUtils.getAtMostOneMethodWithoutArgs;
 import static com.hazelcast.simulator.utils.AnnotationReflectionUtils.getAtMostOneVoidMethodSkipArgsCheck;
 import static com.hazelcast.simulator.utils.AnnotationReflectionUtils.getAtMostOneVoidMethodWithoutArgs;
+import static com.hazelcast.simulator.utils.AnnotationReflectionUtils.getMethods;
 import static com.hazelcast.simulator.utils.AnnotationReflectionUtils.getProbeName;
 import static com.hazelcast.simulator.utils.AnnotationReflectionUtils.isThroughputProbe;
 import static com.hazelcast.simulator.utils.PropertyBindingSupport.bindProperties;
 import static com.hazelcast.simulator.utils.PropertyBindingSupport.getPropertyValue;
+import static com.hazelcast.simulator.utils.ReflectionUtils.getField;
 import static com.hazelcast.simulator.utils.ReflectionUtils.invokeMethod;
 import static com.hazelcast.simulator.utils.ReflectionUtils.setFieldValue;
+import static com.hazelcast.simulator.worker.distribution.KeyDistributionFactory.checkSkew;
+import static com.hazelcast.simulator.worker.distribution.KeyDistributionFactory.createKeyDistribution;
+import static com.hazelcast.simulator.worker.distribution.KeyDistributionFactory.getDefaultSkew;
+import static com.hazelcast.simulator.worker.metronome.MetronomeFactory.withFixedRateFrequency;
 import static com.hazelcast.simulator.worker.tasks.IWorker.DEFAULT_WORKER_PROBE_NAME;
+import static java.lang.Boolean.parseBoolean;
+import static java.lang.Double.parseDouble;
 import static java.lang.Integer.parseInt;
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableSet;
 import static org.apache.commons.lang3.text.WordUtils.capitalizeFully;
 
 /**
@@ -69,31 +95,94 @@ import static org.apache.commons.lang3.text.WordUtils.capitalizeFully;
  * <li>Analyses the test class instance for annotated test phase methods.</li>
  * <li>Provides a method to invoke test methods.</li>
  * </ul>
+ *
+ * If the optional test property <tt>targetThroughput</tt> is set, the worker threads of {@link RunWithWorker} annotated methods
+ * are clocked by a fixed rate {@link com.hazelcast.simulator.worker.metronome.Metronome}. The target throughput is defined in
+ * operations per second for the whole cluster and is split evenly over all Workers and their worker threads. The type of the
+ * metronome can be chosen with the optional test property <tt>metronomeType</tt>, e.g. to create an open-loop load with
+ * {@link MetronomeType#POISSON} arrivals. The target throughput can also be changed while the worker threads are running.
+ *
+ * If the optional test property <tt>keyDistribution</tt> is set, a {@link KeyDistribution} of that type is injected into the
+ * worker threads of {@link RunWithWorker} annotated methods, which implement {@link IKeyDistributionWorker}. So the key access of
+ * a test can be skewed without code changes. The skew can be defined with the optional test property
+ * <tt>keyDistributionSkew</tt>. The {@link KeyDistribution} is created once per test for the <tt>keyCount</tt> field of the test
+ * class and shared by all worker threads.
+ *
+ * If the optional test property <tt>workloadSchedule</tt> is set, the worker threads of {@link RunWithWorker} annotated methods,
+ * which implement {@link IWorkloadPhaseWorker}, follow the phases of a {@link WorkloadSchedule}. Each phase can change the
+ * operation mix and the target throughput. The built-in worker probe and the operation probes are created per phase, so the
+ * latency of the phases can be compared.
+ *
+ * If the optional test property <tt>generateWorkerLoop</tt> is set to <tt>true</tt>, the loop of the worker threads is generated
+ * and compiled per worker class by the {@link WorkerLoopFactory}, so the JIT compiler can inline the calls of the hot path. If
+ * the worker class is not supported, e.g. because the worker class or its time step method is not public, or the loop cannot be
+ * compiled, the default loop of the worker is used.
+ *
+ * Instead of a {@link Run} or {@link RunWithWorker} method, a test can declare {@link TimeStep} methods with their probabilities.
+ * The worker threads select the time step methods by their probabilities and call them with a per-thread state object. Each time
+ * step method gets its own {@link Probe}. The loop of the worker threads is generated per test class by the
+ * {@link TimeStepLoopFactory}, so the time step methods are called directly. Without a JDK or if the test class, the time step
+ * methods or the thread state class are not public, they are called via reflection. The loop is always generated, so the test
+ * property <tt>generateWorkerLoop</tt> is not needed. The test properties <tt>keyDistribution</tt> and
+ * <tt>workloadSchedule</tt> are not supported and fail the test.
  */
+@SuppressWarnings("checkstyle:methodcount")
 public class TestContainer {
 
     private static final int DEFAULT_RUN_WITH_WORKER_THREAD_COUNT = 10;
     private static final String THREAD_COUNT_PROPERTY_NAME = "threadCount";
-    private static final Set<String> OPTIONAL_TEST_PROPERTIES = Collections.singleton(THREAD_COUNT_PROPERTY_NAME);
+    private static final String THREAD_LOCAL_PROBES_PROPERTY_NAME = "threadLocalProbes";
+    private static final String TARGET_THROUGHPUT_PROPERTY_NAME = "targetThroughput";
+    private static final String METRONOME_TYPE_PROPERTY_NAME = "metronomeType";
+    private static final String KEY_DISTRIBUTION_PROPERTY_NAME = "keyDistribution";
+    private static final String KEY_DISTRIBUTION_SKEW_PROPERTY_NAME = "keyDistributionSkew";
+    private static final String KEY_COUNT_FIELD_NAME = "keyCount";
+    private static final String WORKLOAD_SCHEDULE_PROPERTY_NAME = "workloadSchedule";
+    private static final String GENERATE_WORKER_LOOP_PROPERTY_NAME = "generateWorkerLoop";
+    private static final Set<String> OPTIONAL_TEST_PROPERTIES = unmodifiableSet(new HashSet<String>(asList(
+            THREAD_COUNT_PROPERTY_NAME,
+            THREAD_LOCAL_PROBES_PROPERTY_NAME,
+            TARGET_THROUGHPUT_PROPERTY_NAME,
+            METRONOME_TYPE_PROPERTY_NAME,
+            KEY_DISTRIBUTION_PROPERTY_NAME,
+            KEY_DISTRIBUTION_SKEW_PROPERTY_NAME,
+            WORKLOAD_SCHEDULE_PROPERTY_NAME,
+            GENERATE_WORKER_LOOP_PROPERTY_NAME
+    )));
 
     private static final Logger LOGGER = Logger.getLogger(TestContainer.class);
 
     private final Map<String, Probe> probeMap = new ConcurrentHashMap<String, Probe>();
     private final Map<TestPhase, Method> testMethods = new HashMap<TestPhase, Method>();
+    private final List<IMetronomeWorker> metronomeWorkers = new ArrayList<IMetronomeWorker>();
 
     private final TestContext testContext;
     private final Object testClassInstance;
     private final Class testClassType;
     private final int runWithWorkerThreadCount;
+    private final boolean threadLocalProbes;
+
+    private volatile double targetThroughput;
+    private volatile MetronomeType metronomeType = MetronomeType.SLEEPING;
+    private volatile int targetWorkerCount = 1;
+    private volatile KeyDistributionType keyDistributionType;
+    private volatile double keyDistributionSkew;
+    private volatile WorkloadSchedule workloadSchedule;
+    private volatile boolean generateWorkerLoop;
 
     private boolean runWithWorker;
+    private TimeStepModel timeStepModel;
     private Object[] setupArguments;
 
     private long testStartedTimestamp;
     private volatile boolean isRunning;
 
     public TestContainer(TestContext testContext, TestCase testCase) {
-        this(testContext, getTestClassInstance(testCase), getThreadCount(testCase));
+        this(testContext, getTestClassInstance(testCase), getThreadCount(testCase), isThreadLocalProbes(testCase));
+        setTargetThroughput(getTargetThroughput(testCase), getMetronomeType(testCase));
+        setKeyDistribution(testCase);
+        setWorkloadSchedule(getWorkloadSchedule(testCase));
+        setGenerateWorkerLoop(isGenerateWorkerLoop(testCase));
     }
 
     public TestContainer(TestContext testContext, Object testClassInstance) {
@@ -101,6 +190,20 @@ public class TestContainer {
     }
 
     public TestContainer(TestContext testContext, Object testClassInstance, int runWithWorkerThreadCount) {
+        this(testContext, testClassInstance, runWithWorkerThreadCount, false);
+    }
+
+    /**
+     * Creates a {@link TestContainer}.
+     *
+     * @param testContext              the {@link TestContext} of the test
+     * @param testClassInstance        the instance of the test class
+     * @param runWithWorkerThreadCount the number of worker threads for {@link RunWithWorker} annotated methods
+     * @param threadLocalProbes        <tt>true</tt> if {@link ThreadLocalProbeImpl} instances should be created, which scale
+     *                                 better with a high number of worker threads, <tt>false</tt> for {@link ProbeImpl}
+     */
+    public TestContainer(TestContext testContext, Object testClassInstance, int runWithWorkerThreadCount,
+                         boolean threadLocalProbes) {
         if (testContext == null) {
             throw new NullPointerException("testContext cannot be null!");
         }
@@ -112,6 +215,7 @@ public class TestContainer {
         this.testClassInstance = testClassInstance;
         this.testClassType = testClassInstance.getClass();
         this.runWithWorkerThreadCount = runWithWorkerThreadCount;
+        this.threadLocalProbes = threadLocalProbes;
 
         injectDependencies();
         initTestMethods();
@@ -137,6 +241,94 @@ public class TestContainer {
         return probeMap;
     }
 
+    /**
+     * Sets the target throughput of the test, which is injected as fixed rate metronome into {@link IMetronomeWorker} instances.
+     *
+     * If the worker threads are already running, their metronomes are replaced.
+     *
+     * @param targetThroughput the target throughput in operations per second for the whole cluster, <tt>0</tt> to disable
+     */
+    public void setTargetThroughput(double targetThroughput) {
+        setTargetThroughput(targetThroughput, metronomeType);
+    }
+
+    /**
+     * Sets the target throughput of the test, which is injected as fixed rate metronome into {@link IMetronomeWorker} instances.
+     *
+     * If the worker threads are already running, their metronomes are replaced.
+     *
+     * @param targetThroughput the target throughput in operations per second for the whole cluster, <tt>0</tt> to disable
+     * @param metronomeType    the {@link MetronomeType} of the injected metronome
+     */
+    public void setTargetThroughput(double targetThroughput, MetronomeType metronomeType) {
+        if (targetThroughput < 0) {
+            throw new IllegalArgumentException("targetThroughput cannot be negative, but was " + targetThroughput);
+        }
+        synchronized (metronomeWorkers) {
+            this.targetThroughput = targetThroughput;
+            this.metronomeType = metronomeType;
+
+            if (!metronomeWorkers.isEmpty()) {
+                logWorkerFrequency(metronomeWorkers.size());
+                for (IMetronomeWorker worker : metronomeWorkers) {
+                    worker.setMetronome(withFixedRateFrequency(getWorkerFrequency(), metronomeType));
+                }
+            }
+        }
+    }
+
+    public double getTargetThroughput() {
+        return targetThroughput;
+    }
+
+    /**
+     * Sets the number of Workers which execute the RUN phase of this test, to split the target throughput.
+     *
+     * @param targetWorkerCount the number of Workers, values smaller than <tt>1</tt> are treated as a single Worker
+     */
+    public void setTargetWorkerCount(int targetWorkerCount) {
+        this.targetWorkerCount = Math.max(1, targetWorkerCount);
+    }
+
+    /**
+     * Sets the {@link KeyDistributionType} of the test, which is used to create the {@link KeyDistribution} for
+     * {@link IKeyDistributionWorker} instances.
+     *
+     * Has to be called before the worker threads are started.
+     *
+     * @param type the {@link KeyDistributionType} to inject
+     * @param skew the skew of the key distribution, see {@link KeyDistributionType}
+     * @throws IllegalArgumentException if the skew is invalid for the given type
+     */
+    public void setKeyDistribution(KeyDistributionType type, double skew) {
+        checkSkew(type, skew);
+        this.keyDistributionType = type;
+        this.keyDistributionSkew = skew;
+    }
+
+    /**
+     * Sets the {@link WorkloadSchedule} of the test, which is followed by {@link IWorkloadPhaseWorker} instances.
+     *
+     * Has to be called before the worker threads are started.
+     *
+     * @param workloadSchedule the {@link WorkloadSchedule} to follow, <tt>null</tt> to disable
+     */
+    public void setWorkloadSchedule(WorkloadSchedule workloadSchedule) {
+        this.workloadSchedule = workloadSchedule;
+    }
+
+    /**
+     * Enables the generated loop for the worker threads, see {@link WorkerLoopFactory}.
+     *
+     * Has to be called before the worker threads are started.
+     *
+     * @param generateWorkerLoop <tt>true</tt> to generate the loop of the worker threads, <tt>false</tt> to use their default
+     *                           loop
+     */
+    public void setGenerateWorkerLoop(boolean generateWorkerLoop) {
+        this.generateWorkerLoop = generateWorkerLoop;
+    }
+
     public void invoke(TestPhase testPhase) throws Exception {
         switch (testPhase) {
             case RUN:
@@ -161,17 +353,8 @@ public class TestContainer {
     }
 
     private void initTestMethods() {
-        Method runMethod;
-        Method runWithWorkerMethod;
         try {
-            runMethod = getAtMostOneVoidMethodWithoutArgs(testClassType, Run.class);
-            runWithWorkerMethod = getAtMostOneMethodWithoutArgs(testClassType, RunWithWorker.class, IWorker.class);
-            if (runWithWorkerMethod != null) {
-                runWithWorker = true;
-                testMethods.put(TestPhase.RUN, runWithWorkerMethod);
-            } else {
-                testMethods.put(TestPhase.RUN, runMethod);
-            }
+            initRunMethods();
 
             Method setupMethod = getAtMostOneVoidMethodSkipArgsCheck(testClassType, Setup.class);
             if (setupMethod != null) {
@@ -187,11 +370,32 @@ public class TestContainer {
 
             setTestMethod(Teardown.class, new TeardownFilter(false), TestPhase.LOCAL_TEARDOWN);
             setTestMethod(Teardown.class, new TeardownFilter(true), TestPhase.GLOBAL_TEARDOWN);
+        } catch (IllegalTestException e) {
+            throw e;
         } catch (Exception e) {
             throw new IllegalTestException("Error during search for annotated test methods in" + testClassType.getName(), e);
         }
-        if ((runMethod == null) == (runWithWorkerMethod == null)) {
-            throw new IllegalTestException(format("Test must contain either %s or %s method", Run.class, RunWithWorker.class));
+    }
+
+    private void initRunMethods() {
+        Method runMethod = getAtMostOneVoidMethodWithoutArgs(testClassType, Run.class);
+        Method runWithWorkerMethod = getAtMostOneMethodWithoutArgs(testClassType, RunWithWorker.class, IWorker.class);
+        List<Method> timeStepMethods = getMethods(testClassType, TimeStep.class);
+
+        int runMethodTypeCount = (runMethod == null ? 0 : 1) + (runWithWorkerMethod == null ? 0 : 1)
+                + (timeStepMethods.isEmpty() ? 0 : 1);
+        if (runMethodTypeCount != 1) {
+            throw new IllegalTestException(format("Test must contain either %s or %s method or %s methods", Run.class,
+                    RunWithWorker.class, TimeStep.class));
+        }
+
+        if (!timeStepMethods.isEmpty()) {
+            timeStepModel = new TimeStepModel(testClassType, timeStepMethods);
+        } else if (runWithWorkerMethod != null) {
+            runWithWorker = true;
+            testMethods.put(TestPhase.RUN, runWithWorkerMethod);
+        } else {
+            testMethods.put(TestPhase.RUN, runMethod);
         }
     }
 
@@ -221,7 +425,9 @@ public class TestContainer {
     private void invokeRun() throws Exception {
         try {
             Method method = testMethods.get(TestPhase.RUN);
-            if (runWithWorker) {
+            if (timeStepModel != null) {
+                invokeTimeStepMethods();
+            } else if (runWithWorker) {
                 invokeRunWithWorkerMethod(method);
             } else {
                 testStartedTimestamp = System.currentTimeMillis();
@@ -242,21 +448,74 @@ public class TestContainer {
         // create instance to get the class of the IWorker implementation
         IWorker workerInstance = invokeMethod(testClassInstance, runMethod);
         Class<? extends IWorker> workerClass = workerInstance.getClass();
+        checkWorkerClass(workerClass);
 
         Map<Field, Object> injectMap = getInjectMap(workerClass);
         Map<Enum, Probe> operationProbeMap = getOperationProbeMap(workerClass, workerInstance);
+        KeyDistribution keyDistribution = createTestKeyDistribution(workerClass);
+        WorkloadScheduler scheduler = createWorkloadScheduler(workerInstance, operationProbeMap);
+        WorkerLoopFactory workerLoopFactory = createWorkerLoopFactory(workerClass);
 
         // everything is prepared, we can notify the outside world now
         testStartedTimestamp = System.currentTimeMillis();
         isRunning = true;
 
         // spawn workers and wait for completion
-        IWorker worker = spawnWorkerThreads(runWithWorkerThreadCount, runMethod, injectMap, operationProbeMap);
+        IWorker worker;
+        try {
+            if (scheduler != null) {
+                scheduler.start();
+            }
+            worker = spawnWorkerThreads(runWithWorkerThreadCount, runMethod, injectMap, operationProbeMap, keyDistribution,
+                    scheduler, workerLoopFactory);
+        } finally {
+            if (scheduler != null) {
+                scheduler.stop();
+            }
+            synchronized (metronomeWorkers) {
+                metronomeWorkers.clear();
+            }
+        }
 
         // call the afterCompletion() method on a single instance of the worker
         worker.afterCompletion();
     }
 
+    private void invokeTimeStepMethods() throws Exception {
+        LOGGER.info(format("Spawning %d worker threads for time step methods of test %s", runWithWorkerThreadCount,
+                testContext.getTestId()));
+        if (runWithWorkerThreadCount <= 0) {
+            return;
+        }
+        checkTimeStepProperties();
+        checkWorkerClass(TimeStepLoop.class);
+
+        Probe[] probes = new Probe[timeStepModel.getTimeStepCount()];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = getOrCreateProbe(timeStepModel.getProbeName(i), true);
+        }
+        TimeStepLoopFactory timeStepLoopFactory = createTimeStepLoopFactory();
+
+        // everything is prepared, we can notify the outside world now
+        testStartedTimestamp = System.currentTimeMillis();
+        isRunning = true;
+
+        // spawn workers and wait for completion
+        try {
+            ThreadSpawner spawner = new ThreadSpawner(testContext.getTestId());
+            for (int i = 0; i < runWithWorkerThreadCount; i++) {
+                TimeStepLoop timeStepLoop = timeStepLoopFactory.createLoop(testContext, testClassInstance, probes);
+                addMetronomeWorker(timeStepLoop);
+                spawner.spawn(timeStepLoop);
+            }
+            spawner.awaitCompletion();
+        } finally {
+            synchronized (metronomeWorkers) {
+                metronomeWorkers.clear();
+            }
+        }
+    }
+
     private Map<Field, Object> getInjectMap(Class classType) {
         Map<Field, Object> injectMap = new HashMap<Field, Object>();
         do {
@@ -280,6 +539,135 @@ public class TestContainer {
         return injectMap;
     }
 
+    private void checkWorkerClass(Class<? extends IWorker> workerClass) {
+        if (targetThroughput > 0 && !IMetronomeWorker.class.isAssignableFrom(workerClass)) {
+            logIgnoredProperty(TARGET_THROUGHPUT_PROPERTY_NAME, workerClass, IMetronomeWorker.class);
+        }
+        if (keyDistributionType != null && !IKeyDistributionWorker.class.isAssignableFrom(workerClass)) {
+            logIgnoredProperty(KEY_DISTRIBUTION_PROPERTY_NAME, workerClass, IKeyDistributionWorker.class);
+        }
+        if (workloadSchedule != null && !IWorkloadPhaseWorker.class.isAssignableFrom(workerClass)) {
+            logIgnoredProperty(WORKLOAD_SCHEDULE_PROPERTY_NAME, workerClass, IWorkloadPhaseWorker.class);
+        }
+    }
+
+    private void checkTimeStepProperties() {
+        if (keyDistributionType != null) {
+            throw new IllegalTestException(format("%s is not supported by test %s with %s methods",
+                    KEY_DISTRIBUTION_PROPERTY_NAME, testContext.getTestId(), TimeStep.class.getSimpleName()));
+        }
+        if (workloadSchedule != null) {
+            throw new IllegalTestException(format("%s is not supported by test %s with %s methods",
+                    WORKLOAD_SCHEDULE_PROPERTY_NAME, testContext.getTestId(), TimeStep.class.getSimpleName()));
+        }
+    }
+
+    private void logIgnoredProperty(String propertyName, Class<? extends IWorker> workerClass, Class<?> requiredInterface) {
+        LOGGER.warn(format("Ignoring %s of test %s, since %s doesn't implement %s", propertyName, testContext.getTestId(),
+                workerClass.getName(), requiredInterface.getSimpleName()));
+    }
+
+    private KeyDistribution createTestKeyDistribution(Class<? extends IWorker> workerClass) {
+        if (keyDistributionType == null || !IKeyDistributionWorker.class.isAssignableFrom(workerClass)) {
+            return null;
+        }
+
+        Class<?> testClass = testClassInstance.getClass();
+        Field keyCountField = getField(testClass, KEY_COUNT_FIELD_NAME, int.class);
+        if (keyCountField == null) {
+            throw new IllegalTestException(format("Test %s uses %s, but %s has no int field %s", testContext.getTestId(),
+                    KEY_DISTRIBUTION_PROPERTY_NAME, testClass.getName(), KEY_COUNT_FIELD_NAME));
+        }
+        int keyCount;
+        try {
+            keyCountField.setAccessible(true);
+            keyCount = keyCountField.getInt(testClassInstance);
+        } catch (IllegalAccessException e) {
+            throw new IllegalTestException(format("Could not read %s.%s", testClass.getName(), KEY_COUNT_FIELD_NAME), e);
+        }
+
+        LOGGER.info(format("Selecting %d keys of test %s with %s key distribution (skew %s)", keyCount, testContext.getTestId(),
+                keyDistributionType, keyDistributionSkew));
+        return createKeyDistribution(keyDistributionType, keyCount, keyDistributionSkew);
+    }
+
+    private WorkloadScheduler createWorkloadScheduler(IWorker workerInstance, Map<Enum, Probe> operationProbeMap) {
+        WorkloadSchedule schedule = workloadSchedule;
+        if (schedule == null || !(workerInstance instanceof IWorkloadPhaseWorker)) {
+            return null;
+        }
+        // fails fast if the schedule contains unknown operations
+        ((IWorkloadPhaseWorker) workerInstance).setWorkloadSchedule(schedule);
+
+        List<Probe> phaseWorkerProbes = null;
+        List<Map<Enum, Probe>> phaseOperationProbes = null;
+        if (operationProbeMap != null) {
+            Set<? extends Enum> operations = ((IMultipleProbesWorker) workerInstance).getOperations();
+            for (Enum operation : operationProbeMap.keySet()) {
+                probeMap.remove(getOperationProbeName(operation));
+            }
+            phaseOperationProbes = new ArrayList<Map<Enum, Probe>>(schedule.getPhaseCount());
+            for (WorkloadPhase phase : schedule.getPhases()) {
+                phaseOperationProbes.add(createOperationProbeMap(phase.getOperations(operations), phase));
+            }
+        } else {
+            probeMap.remove(DEFAULT_WORKER_PROBE_NAME);
+            phaseWorkerProbes = new ArrayList<Probe>(schedule.getPhaseCount());
+            for (WorkloadPhase phase : schedule.getPhases()) {
+                phaseWorkerProbes.add(getOrCreateProbe(phase.getProbeName(DEFAULT_WORKER_PROBE_NAME), true));
+            }
+        }
+        LOGGER.info(format("Test %s follows a workload schedule with %d phases", testContext.getTestId(),
+                schedule.getPhaseCount()));
+        return new WorkloadScheduler(this, schedule, phaseWorkerProbes, phaseOperationProbes);
+    }
+
+    private WorkerLoopFactory createWorkerLoopFactory(Class<? extends IWorker> workerClass) throws Exception {
+        if (!generateWorkerLoop) {
+            return null;
+        }
+        if (!WorkerLoopFactory.isSupported(workerClass)) {
+            LOGGER.warn(format("Ignoring %s of test %s, since no loop can be generated for %s (requires an AbstractWorker)",
+                    GENERATE_WORKER_LOOP_PROPERTY_NAME, testContext.getTestId(), workerClass.getName()));
+            return null;
+        }
+        WorkerLoopFactory workerLoopFactory = new WorkerLoopFactory(workerClass);
+        if (!workerLoopFactory.isGenerated()) {
+            return null;
+        }
+        LOGGER.info(format("Running worker threads of test %s with generated loop %s", testContext.getTestId(),
+                workerLoopFactory.getClassName()));
+        return workerLoopFactory;
+    }
+
+    private TimeStepLoopFactory createTimeStepLoopFactory() {
+        TimeStepLoopFactory timeStepLoopFactory = new TimeStepLoopFactory(timeStepModel, true);
+        LOGGER.info(format("Running time step methods of test %s with %s", testContext.getTestId(),
+                timeStepLoopFactory.isGenerated() ? "generated loop " + timeStepLoopFactory.getClassName() : "reflection"));
+        return timeStepLoopFactory;
+    }
+
+    private void addMetronomeWorker(IMetronomeWorker worker) {
+        synchronized (metronomeWorkers) {
+            metronomeWorkers.add(worker);
+            if (targetThroughput > 0) {
+                if (metronomeWorkers.size() == 1) {
+                    logWorkerFrequency(runWithWorkerThreadCount);
+                }
+                worker.setMetronome(withFixedRateFrequency(getWorkerFrequency(), metronomeType));
+            }
+        }
+    }
+
+    private float getWorkerFrequency() {
+        return (float) (targetThroughput / ((double) targetWorkerCount * runWithWorkerThreadCount));
+    }
+
+    private void logWorkerFrequency(int threadCount) {
+        LOGGER.info(format("Clocking %d worker threads of test %s with %.2f ops/s each (%s metronome, %d Workers)",
+                threadCount, testContext.getTestId(), getWorkerFrequency(), metronomeType, targetWorkerCount));
+    }
+
     private Map<Enum, Probe> getOperationProbeMap(Class<? extends IWorker> workerClass, IWorker worker) {
         if (!IMultipleProbesWorker.class.isAssignableFrom(workerClass)) {
             return null;
@@ -288,25 +676,37 @@ public class TestContainer {
         // remove the default worker probe
         probeMap.remove(DEFAULT_WORKER_PROBE_NAME);
 
+        return createOperationProbeMap(((IMultipleProbesWorker) worker).getOperations(), null);
+    }
+
+    private Map<Enum, Probe> createOperationProbeMap(Set<? extends Enum> operations, WorkloadPhase phase) {
         Map<Enum, Probe> operationProbes = new HashMap<Enum, Probe>();
-        for (Enum operation : ((IMultipleProbesWorker) worker).getOperations()) {
-            String probeName = capitalizeFully(operation.name(), '_').replace("_", "") + "Probe";
+        for (Enum operation : operations) {
+            String probeName = getOperationProbeName(operation);
+            if (phase != null) {
+                probeName = phase.getProbeName(probeName);
+            }
             operationProbes.put(operation, getOrCreateProbe(probeName, true));
         }
         return operationProbes;
     }
 
+    private static String getOperationProbeName(Enum operation) {
+        return capitalizeFully(operation.name(), '_').replace("_", "") + "Probe";
+    }
+
     private Probe getOrCreateProbe(String probeName, boolean isThroughputProbe) {
         Probe probe = probeMap.get(probeName);
         if (probe == null) {
-            probe = new ProbeImpl(isThroughputProbe);
+            probe = (threadLocalProbes ? new ThreadLocalProbeImpl(isThroughputProbe) : new ProbeImpl(isThroughputProbe));
             probeMap.put(probeName, probe);
         }
         return probe;
     }
 
     private IWorker spawnWorkerThreads(int threadCount, Method runMethod, Map<Field, Object> injectMap,
-                                       Map<Enum, Probe> operationProbes) throws Exception {
+                                       Map<Enum, Probe> operationProbes, KeyDistribution keyDistribution,
+                                       WorkloadScheduler scheduler, WorkerLoopFactory workerLoopFactory) throws Exception {
         IWorker worker = null;
 
         ThreadSpawner spawner = new ThreadSpawner(testContext.getTestId());
@@ -316,6 +716,18 @@ public class TestContainer {
             if (operationProbes != null) {
                 ((IMultipleProbesWorker) worker).setProbeMap(operationProbes);
             }
+            if (worker instanceof IMetronomeWorker) {
+                addMetronomeWorker((IMetronomeWorker) worker);
+            }
+            if (keyDistribution != null) {
+                ((IKeyDistributionWorker) worker).setKeyDistribution(keyDistribution);
+            }
+            if (scheduler != null) {
+                scheduler.addWorker((IWorkloadPhaseWorker) worker);
+            }
+            if (workerLoopFactory != null) {
+                workerLoopFactory.injectWorkerLoop(worker);
+            }
             spawner.spawn(worker);
         }
         spawner.awaitCompletion();
@@ -344,6 +756,41 @@ public class TestContainer {
         return (threadCountProperty == null ? DEFAULT_RUN_WITH_WORKER_THREAD_COUNT : parseInt(threadCountProperty));
     }
 
+    private static boolean isThreadLocalProbes(TestCase testCase) {
+        String threadLocalProbesProperty = getPropertyValue(testCase, THREAD_LOCAL_PROBES_PROPERTY_NAME);
+        return (threadLocalProbesProperty != null && parseBoolean(threadLocalProbesProperty));
+    }
+
+    private static double getTargetThroughput(TestCase testCase) {
+        String targetThroughputProperty = getPropertyValue(testCase, TARGET_THROUGHPUT_PROPERTY_NAME);
+        return (targetThroughputProperty == null ? 0 : parseDouble(targetThroughputProperty));
+    }
+
+    private static MetronomeType getMetronomeType(TestCase testCase) {
+        String metronomeTypeProperty = getPropertyValue(testCase, METRONOME_TYPE_PROPERTY_NAME);
+        return (metronomeTypeProperty == null ? MetronomeType.SLEEPING : MetronomeType.valueOf(metronomeTypeProperty.trim()));
+    }
+
+    private void setKeyDistribution(TestCase testCase) {
+        String keyDistributionProperty = getPropertyValue(testCase, KEY_DISTRIBUTION_PROPERTY_NAME);
+        if (keyDistributionProperty == null) {
+            return;
+        }
+        KeyDistributionType type = KeyDistributionType.valueOf(keyDistributionProperty.trim());
+        String skewProperty = getPropertyValue(testCase, KEY_DISTRIBUTION_SKEW_PROPERTY_NAME);
+        setKeyDistribution(type, skewProperty == null ? getDefaultSkew(type) : parseDouble(skewProperty));
+    }
+
+    private static WorkloadSchedule getWorkloadSchedule(TestCase testCase) {
+        String workloadScheduleProperty = getPropertyValue(testCase, WORKLOAD_SCHEDULE_PROPERTY_NAME);
+        return (workloadScheduleProperty == null ? null : WorkloadSchedule.parse(workloadScheduleProperty));
+    }
+
+    private static boolean isGenerateWorkerLoop(TestCase testCase) {
+        String generateWorkerLoopProperty = getPropertyValue(testCase, GENERATE_WORKER_LOOP_PROPERTY_NAME);
+        return (generateWorkerLoopProperty != null && parseBoolean(generateWorkerLoopProperty));
+    }
+
     private static void assertFieldType(Class fieldType, Class expectedFieldType, Class<? extends Annotation> annotation) {
         if (!expectedFieldType.equals(fieldType)) {
             throw new IllegalTestException(format("Found %s annotation on field of type %s, but %s is required!",
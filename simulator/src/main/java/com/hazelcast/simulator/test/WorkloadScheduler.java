@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test;
+
+import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.worker.tasks.IMultipleProbesWorker;
+import com.hazelcast.simulator.worker.tasks.IWorkloadPhaseWorker;
+import com.hazelcast.simulator.worker.workload.WorkloadPhase;
+import com.hazelcast.simulator.worker.workload.WorkloadSchedule;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.simulator.utils.CommonUtils.joinThread;
+import static java.lang.String.format;
+
+/**
+ * Switches the {@link IWorkloadPhaseWorker} instances of a {@link TestContainer} through the phases of a
+ * {@link WorkloadSchedule}.
+ *
+ * On each phase change the workers get the operation mix and the probes of the new phase, and the target throughput of the
+ * {@link TestContainer} is set to the target throughput of the phase. Phases without a target throughput restore the target
+ * throughput, which was configured when the scheduler was created.
+ */
+final class WorkloadScheduler {
+
+    private static final Logger LOGGER = Logger.getLogger(WorkloadScheduler.class);
+
+    private final List<IWorkloadPhaseWorker> workers = new ArrayList<IWorkloadPhaseWorker>();
+
+    private final TestContainer testContainer;
+    private final String testId;
+    private final WorkloadSchedule schedule;
+    private final List<Probe> phaseWorkerProbes;
+    private final List<Map<Enum, Probe>> phaseOperationProbes;
+    private final double defaultTargetThroughput;
+    private final SchedulerThread thread = new SchedulerThread();
+
+    private int phaseIndex;
+
+    /**
+     * Creates a {@link WorkloadScheduler}.
+     *
+     * @param testContainer        the {@link TestContainer} of the workers
+     * @param schedule             the {@link WorkloadSchedule} to follow
+     * @param phaseWorkerProbes    the built-in worker {@link Probe} per phase, <tt>null</tt> for {@link IMultipleProbesWorker}
+     * @param phaseOperationProbes the operation probes per phase, <tt>null</tt> if the workers use the built-in worker probe
+     */
+    WorkloadScheduler(TestContainer testContainer, WorkloadSchedule schedule, List<Probe> phaseWorkerProbes,
+                      List<Map<Enum, Probe>> phaseOperationProbes) {
+        this.testContainer = testContainer;
+        this.testId = testContainer.getTestContext().getTestId();
+        this.schedule = schedule;
+        this.phaseWorkerProbes = phaseWorkerProbes;
+        this.phaseOperationProbes = phaseOperationProbes;
+        this.defaultTargetThroughput = testContainer.getTargetThroughput();
+    }
+
+    /**
+     * Starts the first phase and the scheduler thread.
+     */
+    void start() {
+        synchronized (workers) {
+            applyPhase(0);
+        }
+        thread.start();
+    }
+
+    /**
+     * Stops the scheduler thread and restores the target throughput.
+     */
+    void stop() {
+        thread.interrupt();
+        joinThread(thread);
+        testContainer.setTargetThroughput(defaultTargetThroughput);
+    }
+
+    /**
+     * Adds a worker, which is switched to the current phase.
+     *
+     * @param worker the {@link IWorkloadPhaseWorker} to add
+     */
+    void addWorker(IWorkloadPhaseWorker worker) {
+        worker.setWorkloadSchedule(schedule);
+        synchronized (workers) {
+            workers.add(worker);
+            setWorkloadPhase(worker);
+        }
+    }
+
+    private void applyPhase(int newPhaseIndex) {
+        phaseIndex = newPhaseIndex;
+        WorkloadPhase phase = schedule.getPhase(phaseIndex);
+        LOGGER.info(format("Starting workload phase %s of test %s (%d workers)", phase.getName(), testId, workers.size()));
+
+        for (IWorkloadPhaseWorker worker : workers) {
+            setWorkloadPhase(worker);
+        }
+        testContainer.setTargetThroughput(phase.hasTargetThroughput() ? phase.getTargetThroughput() : defaultTargetThroughput);
+    }
+
+    private void setWorkloadPhase(IWorkloadPhaseWorker worker) {
+        if (phaseOperationProbes != null) {
+            worker.setWorkloadPhase(phaseIndex, null, phaseOperationProbes.get(phaseIndex));
+        } else {
+            worker.setWorkloadPhase(phaseIndex, phaseWorkerProbes.get(phaseIndex), null);
+        }
+    }
+
+    private final class SchedulerThread extends Thread {
+
+        private SchedulerThread() {
+            super("WorkloadScheduler-" + testId);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            int nextPhaseIndex = 0;
+            long phaseEnd = System.currentTimeMillis();
+            while (!isInterrupted()) {
+                phaseEnd += schedule.getPhase(nextPhaseIndex).getDurationMillis();
+                nextPhaseIndex = (nextPhaseIndex + 1) % schedule.getPhaseCount();
+                try {
+                    sleepUntil(phaseEnd);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                synchronized (workers) {
+                    applyPhase(nextPhaseIndex);
+                }
+            }
+        }
+
+        private void sleepUntil(long timestamp) throws InterruptedException {
+            long sleepMillis = timestamp - System.currentTimeMillis();
+            while (sleepMillis > 0) {
+                Thread.sleep(sleepMillis);
+                sleepMillis = timestamp - System.currentTimeMillis();
+            }
+        }
+    }
+}
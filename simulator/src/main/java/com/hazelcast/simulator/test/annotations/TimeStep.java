@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.test.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotates the time step methods of a test, which are called by the worker threads in a loop.
+ *
+ * Each iteration selects one of the time step methods by its probability. A time step method can declare a single parameter,
+ * which is a per-thread state object. It's created for each worker thread, either with a constructor without arguments or
+ * with a constructor which takes the test instance, e.g. for a non-static inner class of the test.
+ *
+ * The latency of each time step method is measured with its own {@link com.hazelcast.simulator.probes.Probe}, which is
+ * named after the method, e.g. <tt>PutProbe</tt> for the method <tt>put()</tt>.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface TimeStep {
+
+    double DEFAULT_PROBABILITY = -1;
+
+    /**
+     * Defines the probability (0.0 to 1.0) of the time step method.
+     *
+     * The total sum of probabilities has to be exactly 1.0. A single time step method can omit its probability, then it
+     * consumes the remaining probability.
+     *
+     * @return the probability of the time step method
+     */
+    double prob() default DEFAULT_PROBABILITY;
+}
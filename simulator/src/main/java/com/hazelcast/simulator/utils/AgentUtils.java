@@ -83,9 +83,10 @@ public final class AgentUtils {
             this.ip = agentData.getPublicAddress();
             this.mandatoryParameters = format("--addressIndex %d --publicAddress %s --port %s",
                     agentData.getAddressIndex(), ip, agentPort);
-            this.optionalParameters = format(" --threadPoolSize %d --workerLastSeenTimeoutSeconds %d",
+            this.optionalParameters = format(" --threadPoolSize %d --workerLastSeenTimeoutSeconds %d --maxInFlightMessages %d",
                     simulatorProperties.getAgentThreadPoolSize(),
-                    simulatorProperties.getWorkerLastSeenTimeoutSeconds());
+                    simulatorProperties.getWorkerLastSeenTimeoutSeconds(),
+                    simulatorProperties.getMaxInFlightMessages());
             if (isEC2(simulatorProperties)) {
                 this.ec2Parameters = format(" --cloudProvider %s --cloudIdentity %s --cloudCredential %s",
                         simulatorProperties.getCloudProvider(),
@@ -25,6 +25,7 @@ import java.util.LinkedList;
 import java.util.List;
 
 import static java.lang.String.format;
+import static java.util.Collections.emptyList;
 
 public final class AnnotationReflectionUtils {
 
@@ -105,6 +106,25 @@ public final class AnnotationReflectionUtils {
         return getAtMostOneMethod(classType, annotationType, ALWAYS_FILTER, returnType, false);
     }
 
+    /**
+     * Searches for all methods of the given annotation type.
+     *
+     * @param classType      Class to scan
+     * @param annotationType Type of the annotation
+     * @return the found methods or an empty list if no method was found
+     */
+    public static List<Method> getMethods(Class classType, Class<? extends Annotation> annotationType) {
+        List<Method> methods = findMethod(classType, annotationType, ALWAYS_FILTER);
+        if (methods == null) {
+            return emptyList();
+        }
+        for (Method method : methods) {
+            method.setAccessible(true);
+            assertNotStatic(method);
+        }
+        return methods;
+    }
+
     /**
      * Searches for an optional method of the given annotation type.
      *
@@ -19,6 +19,7 @@ import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.simulator.common.ShutdownThread;
 import com.hazelcast.simulator.protocol.connector.WorkerConnector;
 import com.hazelcast.simulator.protocol.operation.OperationTypeCounter;
+import com.hazelcast.simulator.protocol.operation.WorkerStartedOperation;
 import com.hazelcast.simulator.protocol.processors.WorkerOperationProcessor;
 import com.hazelcast.simulator.utils.ExceptionReporter;
 import com.hazelcast.simulator.worker.performance.WorkerPerformanceMonitor;
@@ -58,13 +59,15 @@ public final class MemberWorker implements Worker {
 
     private final HazelcastInstance hazelcastInstance;
     private final WorkerConnector workerConnector;
+    private final WorkerExceptionSender exceptionSender;
 
     private final WorkerPerformanceMonitor workerPerformanceMonitor;
 
     private ShutdownThread shutdownThread;
 
     MemberWorker(WorkerType type, String publicAddress, int agentIndex, int workerIndex, int workerPort, String hzConfigFile,
-                 boolean autoCreateHzInstance, int workerPerformanceMonitorIntervalSeconds) throws Exception {
+                 boolean autoCreateHzInstance, int workerPerformanceMonitorIntervalSeconds, int maxInFlightMessages)
+            throws Exception {
         SHUTDOWN_STARTED.set(false);
 
         this.type = type;
@@ -75,9 +78,13 @@ public final class MemberWorker implements Worker {
 
         this.hazelcastInstance = getHazelcastInstance();
 
-        this.workerConnector = WorkerConnector.createInstance(agentIndex, workerIndex, workerPort, type, hazelcastInstance, this);
+        this.workerConnector = WorkerConnector.createInstance(agentIndex, workerIndex, workerPort, type, hazelcastInstance, this,
+                false, maxInFlightMessages);
         this.workerConnector.start();
 
+        this.exceptionSender = new WorkerExceptionSender(workerConnector);
+        ExceptionReporter.setExceptionSender(exceptionSender);
+
         this.workerPerformanceMonitor = initWorkerPerformanceMonitor(workerPerformanceMonitorIntervalSeconds);
 
         Runtime.getRuntime().addShutdownHook(new WorkerShutdownThread(true));
@@ -151,8 +158,12 @@ public final class MemberWorker implements Worker {
 
     private void signalStartToAgent() {
         String address = getHazelcastAddress(type, publicAddress, hazelcastInstance);
+
+        // the address file is the fallback for the in-band signal, which is sent as soon as the Agent has connected
         File file = new File("worker.address");
         writeText(address, file);
+
+        workerConnector.submitToAgentOnConnect(new WorkerStartedOperation(address));
     }
 
     public static void main(String[] args) {
@@ -178,6 +189,7 @@ public final class MemberWorker implements Worker {
 
         boolean autoCreateHzInstance = parseBoolean(System.getProperty("autoCreateHzInstance", "true"));
         int workerPerformanceMonitorIntervalSeconds = parseInt(System.getProperty("workerPerformanceMonitorIntervalSeconds"));
+        int maxInFlightMessages = parseInt(System.getProperty("maxInFlightMessages"));
 
         logHeader("Hazelcast Worker #" + workerIndex + " (" + type + ')');
         logInputArguments();
@@ -194,9 +206,10 @@ public final class MemberWorker implements Worker {
 
         LOGGER.info("autoCreateHzInstance: " + autoCreateHzInstance);
         LOGGER.info("workerPerformanceMonitorIntervalSeconds: " + workerPerformanceMonitorIntervalSeconds);
+        LOGGER.info("maxInFlightMessages: " + maxInFlightMessages);
 
         MemberWorker worker = new MemberWorker(type, publicAddress, agentIndex, workerIndex, workerPort, hzConfigFile,
-                autoCreateHzInstance, workerPerformanceMonitorIntervalSeconds);
+                autoCreateHzInstance, workerPerformanceMonitorIntervalSeconds, maxInFlightMessages);
 
         logHeader("Successfully started Hazelcast Worker #" + workerIndex);
 
@@ -257,6 +270,11 @@ public final class MemberWorker implements Worker {
                 workerPerformanceMonitor.shutdown();
             }
 
+            ExceptionReporter.setExceptionSender(null);
+            if (exceptionSender != null) {
+                exceptionSender.shutdown();
+            }
+
             if (workerConnector != null) {
                 LOGGER.info("Stopping WorkerConnector...");
                 workerConnector.shutdown();
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker;
+
+import com.hazelcast.simulator.utils.ExceptionReporter;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Properties;
+
+import static com.hazelcast.simulator.utils.CommonUtils.exitWithError;
+import static java.lang.String.format;
+
+/**
+ * Main class of a pre-started Worker JVM from the {@link com.hazelcast.simulator.agent.workerjvm.WorkerJvmPool}.
+ *
+ * The JVM is started without any Worker specific settings. It loads the Simulator and Hazelcast classes and then blocks until
+ * the Agent assigns it to a Worker, by writing the Worker settings as properties to stdin and closing it. The settings are
+ * applied as system properties and the main class of the configured {@link WorkerType} is started, so the Worker doesn't
+ * notice that it was started by the pool.
+ *
+ * If stdin is closed without any Worker settings, e.g. when the Agent shuts down the pool, the JVM just exits.
+ */
+public final class WorkerBootstrap {
+
+    private static final String[] WARMUP_CLASS_NAMES = {
+            "com.hazelcast.simulator.worker.MemberWorker",
+            "com.hazelcast.simulator.protocol.connector.WorkerConnector",
+            "com.hazelcast.simulator.protocol.processors.WorkerOperationProcessor",
+            "com.hazelcast.simulator.test.TestContainer",
+            "com.hazelcast.simulator.utils.HazelcastUtils",
+            "com.hazelcast.core.Hazelcast",
+            "com.hazelcast.client.HazelcastClient",
+    };
+
+    private static final Logger LOGGER = Logger.getLogger(WorkerBootstrap.class);
+
+    private WorkerBootstrap() {
+    }
+
+    public static void main(String[] args) {
+        try {
+            warmup();
+
+            LOGGER.info("Waiting for Worker settings...");
+            Properties settings = readSettings(System.in);
+            if (!settings.containsKey("workerType")) {
+                LOGGER.info("No Worker settings received, exiting");
+                return;
+            }
+
+            startWorker(settings, args);
+        } catch (Exception e) {
+            ExceptionReporter.report(null, e);
+            exitWithError(LOGGER, "Could not start Hazelcast Simulator Worker!", e);
+        }
+    }
+
+    /**
+     * Loads and initializes the main Simulator and Hazelcast classes.
+     *
+     * The classes are initialized and not just loaded, so their static initializers have already run and the classes they
+     * refer to have already been loaded and verified, when the Worker is assigned.
+     */
+    static void warmup() {
+        ClassLoader classLoader = WorkerBootstrap.class.getClassLoader();
+        for (String className : WARMUP_CLASS_NAMES) {
+            try {
+                Class.forName(className, true, classLoader);
+            } catch (ClassNotFoundException e) {
+                LOGGER.debug(format("Skipping warmup of %s, since it's not on the classpath", className));
+            }
+        }
+    }
+
+    static Properties readSettings(InputStream in) throws IOException {
+        Properties settings = new Properties();
+        settings.load(in);
+        return settings;
+    }
+
+    static void startWorker(Properties settings, String[] args) throws Exception {
+        for (String name : settings.stringPropertyNames()) {
+            System.setProperty(name, settings.getProperty(name));
+        }
+
+        WorkerType type = WorkerType.valueOf(settings.getProperty("workerType"));
+        LOGGER.info(format("Starting %s Worker %s", type, settings.getProperty("workerId")));
+
+        Method mainMethod = Class.forName(type.getClassName()).getMethod("main", String[].class);
+        try {
+            mainMethod.invoke(null, (Object) args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+}
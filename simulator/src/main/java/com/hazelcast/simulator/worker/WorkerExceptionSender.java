@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker;
+
+import com.hazelcast.simulator.protocol.connector.WorkerConnector;
+import com.hazelcast.simulator.protocol.core.Response;
+import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseListener;
+import com.hazelcast.simulator.protocol.core.ResponseType;
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.protocol.operation.WorkerExceptionOperation;
+import com.hazelcast.simulator.utils.ExceptionSender;
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.hazelcast.simulator.utils.ExecutorFactory.createScheduledThreadPool;
+import static java.lang.String.format;
+
+/**
+ * Sends exceptions via the {@link WorkerConnector} to the Agent, so they don't have to be picked up from the file system.
+ *
+ * The exceptions are sent fire-and-forget, so the reporting thread is not blocked by a slow or lost connection. If the Agent
+ * doesn't confirm an exception within a short timeout, the exception is written to a file as fallback.
+ */
+final class WorkerExceptionSender implements ExceptionSender {
+
+    private static final long SEND_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    private static final Logger LOGGER = Logger.getLogger(WorkerExceptionSender.class);
+
+    private final ScheduledExecutorService scheduler = createScheduledThreadPool(1, WorkerExceptionSender.class);
+
+    private final WorkerConnector workerConnector;
+    private final SimulatorAddress agentAddress;
+    private final long sendTimeoutMillis;
+
+    WorkerExceptionSender(WorkerConnector workerConnector) {
+        this(workerConnector, SEND_TIMEOUT_MILLIS);
+    }
+
+    WorkerExceptionSender(WorkerConnector workerConnector, long sendTimeoutMillis) {
+        this.workerConnector = workerConnector;
+        this.agentAddress = workerConnector.getAddress().getParent();
+        this.sendTimeoutMillis = sendTimeoutMillis;
+    }
+
+    @Override
+    public void send(String testId, String cause, Runnable fallback) {
+        if (!workerConnector.isAgentConnected()) {
+            fallback.run();
+            return;
+        }
+
+        SendCallback callback = new SendCallback(fallback);
+        try {
+            WorkerExceptionOperation operation = new WorkerExceptionOperation(testId, cause);
+            ResponseFuture future = workerConnector.writeAsync(agentAddress, operation);
+            scheduler.schedule(callback, sendTimeoutMillis, TimeUnit.MILLISECONDS);
+            future.addListener(callback);
+        } catch (Exception e) {
+            LOGGER.warn("Could not send exception to Agent", e);
+            callback.fail();
+        }
+    }
+
+    /**
+     * Stops the timeout detection.
+     *
+     * Exceptions which are still waiting for a confirmation are written to a file, once their timeout has elapsed.
+     */
+    void shutdown() {
+        scheduler.shutdown();
+    }
+
+    /**
+     * Runs the fallback of a single exception, if the Agent responds with an error or doesn't respond in time.
+     */
+    private final class SendCallback implements ResponseListener, Runnable {
+
+        private final AtomicBoolean isDone = new AtomicBoolean();
+        private final Runnable fallback;
+
+        private SendCallback(Runnable fallback) {
+            this.fallback = fallback;
+        }
+
+        @Override
+        public void onResponse(Response response) {
+            if (!isDone.compareAndSet(false, true)) {
+                return;
+            }
+            ResponseType responseType = response.getFirstErrorResponseType();
+            if (responseType != ResponseType.SUCCESS) {
+                LOGGER.warn(format("Could not send exception to Agent: %s", responseType));
+                // the listener is called by a network thread, so the file is written by the scheduler
+                runFallback();
+            }
+        }
+
+        @Override
+        public void run() {
+            if (isDone.compareAndSet(false, true)) {
+                LOGGER.warn(format("Agent didn't confirm the exception within %d ms", sendTimeoutMillis));
+                fallback.run();
+            }
+        }
+
+        private void fail() {
+            if (isDone.compareAndSet(false, true)) {
+                fallback.run();
+            }
+        }
+
+        private void runFallback() {
+            try {
+                scheduler.execute(fallback);
+            } catch (RejectedExecutionException e) {
+                fallback.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.distribution;
+
+import java.util.Random;
+
+/**
+ * {@link KeyDistribution} implementation which sends a fraction of the operations to a hot set of keys.
+ *
+ * The hot set contains the lowest key indexes. Within the hot set and within the remaining cold keys, the keys are selected
+ * uniformly.
+ */
+final class HotspotKeyDistribution implements KeyDistribution {
+
+    private final int keyCount;
+    private final int hotKeyCount;
+    private final int coldKeyCount;
+    private final double hotOperationFraction;
+
+    HotspotKeyDistribution(int keyCount, double hotOperationFraction) {
+        this.keyCount = keyCount;
+        this.hotKeyCount = (int) Math.max(1, Math.round(keyCount * (1.0 - hotOperationFraction)));
+        this.coldKeyCount = keyCount - hotKeyCount;
+        this.hotOperationFraction = hotOperationFraction;
+    }
+
+    @Override
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    @Override
+    public int nextKeyIndex(Random random) {
+        if (coldKeyCount == 0 || random.nextDouble() < hotOperationFraction) {
+            return random.nextInt(hotKeyCount);
+        }
+        return hotKeyCount + random.nextInt(coldKeyCount);
+    }
+
+    int getHotKeyCount() {
+        return hotKeyCount;
+    }
+}
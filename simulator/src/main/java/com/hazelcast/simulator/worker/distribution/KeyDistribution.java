@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.distribution;
+
+import java.util.Random;
+
+/**
+ * Selects the index of the next key a worker operates on, e.g. to pick a key from a pre-generated key array.
+ *
+ * Implementations are immutable and don't allocate on {@link #nextKeyIndex(Random)}, so a single instance can be shared by
+ * worker threads and used in the hot path. All randomness is drawn from the given {@link Random} instance.
+ */
+public interface KeyDistribution {
+
+    /**
+     * Returns the number of keys this distribution selects from.
+     *
+     * @return the number of keys
+     */
+    int getKeyCount();
+
+    /**
+     * Returns the index of the next key.
+     *
+     * @param random the {@link Random} instance of the calling worker
+     * @return the key index between {@code 0} (inclusive) and {@link #getKeyCount()} (exclusive)
+     */
+    int nextKeyIndex(Random random);
+}
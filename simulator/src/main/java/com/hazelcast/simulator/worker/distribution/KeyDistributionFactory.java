@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.distribution;
+
+import static java.lang.String.format;
+
+public final class KeyDistributionFactory {
+
+    /**
+     * Default zipfian constant of {@link KeyDistributionType#ZIPFIAN}, {@link KeyDistributionType#SCRAMBLED_ZIPFIAN} and
+     * {@link KeyDistributionType#LATEST} key distributions.
+     */
+    public static final double DEFAULT_ZIPFIAN_CONSTANT = 0.99;
+
+    /**
+     * Default fraction of operations which hit the hot set of a {@link KeyDistributionType#HOTSPOT} key distribution.
+     */
+    public static final double DEFAULT_HOT_OPERATION_FRACTION = 0.8;
+
+    private KeyDistributionFactory() {
+    }
+
+    /**
+     * Returns the default skew of the given {@link KeyDistributionType}.
+     *
+     * @param type the {@link KeyDistributionType}
+     * @return the default skew
+     */
+    public static double getDefaultSkew(KeyDistributionType type) {
+        switch (type) {
+            case UNIFORM:
+                return 0;
+            case HOTSPOT:
+                return DEFAULT_HOT_OPERATION_FRACTION;
+            default:
+                return DEFAULT_ZIPFIAN_CONSTANT;
+        }
+    }
+
+    /**
+     * Checks if the skew is valid for the given {@link KeyDistributionType}.
+     *
+     * The skew is ignored by {@link KeyDistributionType#UNIFORM}, all other types require a skew between 0 and 1 (both
+     * exclusive).
+     *
+     * @param type the {@link KeyDistributionType}
+     * @param skew the skew to check
+     * @throws IllegalArgumentException if the skew is invalid
+     */
+    public static void checkSkew(KeyDistributionType type, double skew) {
+        if (type != KeyDistributionType.UNIFORM && !(skew > 0 && skew < 1)) {
+            throw new IllegalArgumentException(format("Skew of %s key distribution has to be between 0 and 1, but was %s",
+                    type, skew));
+        }
+    }
+
+    /**
+     * Creates a {@link KeyDistribution} instance with the default skew of its type.
+     *
+     * @param type     {@link KeyDistributionType} to create
+     * @param keyCount the number of keys to select from
+     * @return a {@link KeyDistribution} instance
+     */
+    public static KeyDistribution createKeyDistribution(KeyDistributionType type, int keyCount) {
+        return createKeyDistribution(type, keyCount, getDefaultSkew(type));
+    }
+
+    /**
+     * Creates a {@link KeyDistribution} instance.
+     *
+     * The zipfian types compute their parameters in linear time of the key count, so the instance should be created once and
+     * reused for all operations.
+     *
+     * @param type     {@link KeyDistributionType} to create
+     * @param keyCount the number of keys to select from
+     * @param skew     the skew of the distribution, see {@link KeyDistributionType}
+     * @return a {@link KeyDistribution} instance
+     * @throws IllegalArgumentException if the key count or skew is invalid
+     */
+    public static KeyDistribution createKeyDistribution(KeyDistributionType type, int keyCount, double skew) {
+        if (keyCount <= 0) {
+            throw new IllegalArgumentException("keyCount has to be positive, but was " + keyCount);
+        }
+        checkSkew(type, skew);
+        switch (type) {
+            case ZIPFIAN:
+                return new ZipfianKeyDistribution(keyCount, skew);
+            case SCRAMBLED_ZIPFIAN:
+                return new ScrambledZipfianKeyDistribution(keyCount, skew);
+            case HOTSPOT:
+                return new HotspotKeyDistribution(keyCount, skew);
+            case LATEST:
+                return new LatestKeyDistribution(keyCount, skew);
+            default:
+                return new UniformKeyDistribution(keyCount);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.distribution;
+
+/**
+ * Defines the type of a {@link KeyDistribution}.
+ */
+public enum KeyDistributionType {
+
+    /**
+     * Every key is selected with the same probability.
+     */
+    UNIFORM,
+
+    /**
+     * The key popularity follows a zipfian distribution, the popular keys are clustered at the lowest key indexes.
+     *
+     * The skew is the zipfian constant, which has to be between 0 and 1 (both exclusive).
+     */
+    ZIPFIAN,
+
+    /**
+     * The key popularity follows a zipfian distribution, the popular keys are scattered over the whole key space.
+     *
+     * The skew is the zipfian constant, which has to be between 0 and 1 (both exclusive).
+     */
+    SCRAMBLED_ZIPFIAN,
+
+    /**
+     * A fraction of the operations goes to a small hot set of keys at the lowest key indexes, the remaining operations are
+     * spread uniformly over the other keys.
+     *
+     * The skew is the fraction of operations which hit the hot set, the hot set contains the remaining fraction of the keys.
+     * So the default skew of 0.8 sends 80% of the operations to 20% of the keys.
+     */
+    HOTSPOT,
+
+    /**
+     * The key popularity follows a zipfian distribution, the popular keys are clustered at the highest key indexes.
+     *
+     * This simulates a workload which favors the most recently inserted keys, if the keys are inserted in index order.
+     * The skew is the zipfian constant, which has to be between 0 and 1 (both exclusive).
+     */
+    LATEST
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.distribution;
+
+import java.util.Random;
+
+/**
+ * {@link KeyDistribution} implementation which selects the keys according to a zipfian distribution, with the most popular
+ * keys at the highest key indexes.
+ */
+final class LatestKeyDistribution implements KeyDistribution {
+
+    private final ZipfianKeyDistribution zipfian;
+    private final int lastKeyIndex;
+
+    LatestKeyDistribution(int keyCount, double zipfianConstant) {
+        this.zipfian = new ZipfianKeyDistribution(keyCount, zipfianConstant);
+        this.lastKeyIndex = keyCount - 1;
+    }
+
+    @Override
+    public int getKeyCount() {
+        return lastKeyIndex + 1;
+    }
+
+    @Override
+    public int nextKeyIndex(Random random) {
+        return lastKeyIndex - zipfian.nextKeyIndex(random);
+    }
+}
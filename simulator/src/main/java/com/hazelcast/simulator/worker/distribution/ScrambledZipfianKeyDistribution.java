@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.distribution;
+
+import java.util.Random;
+
+/**
+ * {@link KeyDistribution} implementation which selects the keys according to a zipfian distribution, but scatters the popular
+ * keys over the whole key space.
+ *
+ * The key index of the {@link ZipfianKeyDistribution} is hashed with FNV-1a, so the popular keys don't share the same partitions
+ * just because they are adjacent in a key array. Hash collisions merge the popularity of some keys, so the distribution is only
+ * approximately zipfian.
+ */
+final class ScrambledZipfianKeyDistribution implements KeyDistribution {
+
+    private static final long FNV_OFFSET_BASIS_64 = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME_64 = 1099511628211L;
+    private static final int BYTE_MASK = 0xFF;
+
+    private final ZipfianKeyDistribution zipfian;
+    private final int keyCount;
+
+    ScrambledZipfianKeyDistribution(int keyCount, double zipfianConstant) {
+        this.zipfian = new ZipfianKeyDistribution(keyCount, zipfianConstant);
+        this.keyCount = keyCount;
+    }
+
+    @Override
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    @Override
+    public int nextKeyIndex(Random random) {
+        long hash = fnvHash64(zipfian.nextKeyIndex(random));
+        return (int) ((hash & Long.MAX_VALUE) % keyCount);
+    }
+
+    static long fnvHash64(int value) {
+        long hash = FNV_OFFSET_BASIS_64;
+        for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE) {
+            hash ^= (value >>> shift) & BYTE_MASK;
+            hash *= FNV_PRIME_64;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.distribution;
+
+import java.util.Random;
+
+import static java.lang.Math.pow;
+
+/**
+ * {@link KeyDistribution} implementation which selects the keys according to a zipfian distribution.
+ *
+ * Key index 0 is the most popular one, key index 1 the second most popular one and so on. All parameters are computed in the
+ * constructor, which is linear in the number of keys, so {@link #nextKeyIndex(Random)} is constant time.
+ *
+ * The algorithm is from "Quickly Generating Billion-Record Synthetic Databases", Jim Gray et al, SIGMOD 1994.
+ */
+final class ZipfianKeyDistribution implements KeyDistribution {
+
+    private static final double HALF = 0.5;
+
+    private final int keyCount;
+    private final double zetaN;
+    private final double alpha;
+    private final double eta;
+    private final double secondKeyThreshold;
+
+    ZipfianKeyDistribution(int keyCount, double zipfianConstant) {
+        this.keyCount = keyCount;
+        this.zetaN = zeta(keyCount, zipfianConstant);
+        this.alpha = 1.0 / (1.0 - zipfianConstant);
+        this.secondKeyThreshold = 1.0 + pow(HALF, zipfianConstant);
+        this.eta = (1.0 - pow(2.0 / keyCount, 1.0 - zipfianConstant)) / (1.0 - secondKeyThreshold / zetaN);
+    }
+
+    @Override
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    @Override
+    public int nextKeyIndex(Random random) {
+        double u = random.nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1.0) {
+            return 0;
+        }
+        if (uz < secondKeyThreshold) {
+            return 1;
+        }
+        int keyIndex = (int) (keyCount * pow(eta * u - eta + 1.0, alpha));
+        return (keyIndex < keyCount) ? keyIndex : keyCount - 1;
+    }
+
+    static double zeta(int keyCount, double zipfianConstant) {
+        double sum = 0;
+        for (int i = 1; i <= keyCount; i++) {
+            sum += 1.0 / pow(i, zipfianConstant);
+        }
+        return sum;
+    }
+}
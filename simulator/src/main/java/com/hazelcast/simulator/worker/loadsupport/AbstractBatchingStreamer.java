@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.loadsupport;
+
+import com.hazelcast.core.Member;
+import com.hazelcast.core.PartitionService;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+
+import static com.hazelcast.simulator.utils.CommonUtils.rethrow;
+import static com.hazelcast.simulator.utils.ExecutorFactory.createFixedThreadPool;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+/**
+ * Base class for {@link Streamer} implementations, which store the entries in batches with a single bulk operation.
+ *
+ * The entries are grouped by the owner of their partition, so each batch is sent to a single member. A batch is stored as soon
+ * as it has reached the batch size, all remaining entries are stored on {@link #await()}. Since the bulk operations are
+ * synchronous, the batches are stored by a thread pool, which is bounded by the maximum number of in-flight batches.
+ *
+ * This implementation is not thread-safe, {@link #pushEntry(Object, Object)} and {@link #await()} have to be called from the
+ * same thread.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+abstract class AbstractBatchingStreamer<K, V> implements Streamer<K, V> {
+
+    static final int DEFAULT_BATCH_SIZE = 1000;
+    static final int DEFAULT_MAX_IN_FLIGHT_BATCHES = 8;
+
+    private static final long DEFAULT_TIMEOUT_MINUTES = 2;
+
+    private final Map<Member, Map<K, V>> batches = new HashMap<Member, Map<K, V>>();
+
+    private final PartitionService partitionService;
+    private final int batchSize;
+    private final int maxInFlightBatches;
+    private final Semaphore semaphore;
+
+    private ExecutorService executorService;
+
+    private volatile Throwable storedException;
+
+    AbstractBatchingStreamer(PartitionService partitionService, int batchSize, int maxInFlightBatches) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive, but was " + batchSize);
+        }
+        if (maxInFlightBatches < 1) {
+            throw new IllegalArgumentException("maxInFlightBatches must be positive, but was " + maxInFlightBatches);
+        }
+        this.partitionService = partitionService;
+        this.batchSize = batchSize;
+        this.maxInFlightBatches = maxInFlightBatches;
+        this.semaphore = new Semaphore(maxInFlightBatches);
+    }
+
+    abstract void storeAll(Map<K, V> batch);
+
+    @Override
+    public void pushEntry(K key, V value) {
+        Member owner = partitionService.getPartition(key).getOwner();
+        Map<K, V> batch = batches.get(owner);
+        if (batch == null) {
+            batch = new HashMap<K, V>();
+            batches.put(owner, batch);
+        }
+        batch.put(key, value);
+
+        if (batch.size() >= batchSize) {
+            batches.remove(owner);
+            submitBatch(batch);
+        }
+    }
+
+    @Override
+    public void await() {
+        try {
+            for (Map<K, V> batch : batches.values()) {
+                submitBatch(batch);
+            }
+            batches.clear();
+
+            waitForInFlightBatchesFinished();
+            releasePermit(maxInFlightBatches);
+        } finally {
+            shutdownExecutor();
+        }
+        rethrowExceptionIfAny();
+    }
+
+    private void submitBatch(final Map<K, V> batch) {
+        // we don't continue to load data, if a batch has already failed
+        rethrowExceptionIfAny();
+
+        acquirePermit(1);
+        try {
+            getExecutorService().execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        storeAll(batch);
+                    } catch (Throwable t) {
+                        storedException = t;
+                    } finally {
+                        releasePermit(1);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            releasePermit(1);
+            throw e;
+        }
+    }
+
+    private ExecutorService getExecutorService() {
+        if (executorService == null) {
+            executorService = createFixedThreadPool(maxInFlightBatches, "BatchingStreamer");
+        }
+        return executorService;
+    }
+
+    private void shutdownExecutor() {
+        // the in-flight batches of a failed await() are still finished, the idle threads are stopped
+        if (executorService != null) {
+            executorService.shutdown();
+            executorService = null;
+        }
+    }
+
+    private void waitForInFlightBatchesFinished() {
+        acquirePermit(maxInFlightBatches);
+    }
+
+    private void rethrowExceptionIfAny() {
+        if (storedException != null) {
+            throw rethrow(storedException);
+        }
+    }
+
+    private void releasePermit(int count) {
+        semaphore.release(count);
+    }
+
+    private void acquirePermit(int count) {
+        try {
+            if (!semaphore.tryAcquire(count, DEFAULT_TIMEOUT_MINUTES, MINUTES)) {
+                throw new IllegalStateException("Timeout when trying to acquire a permit!");
+            }
+        } catch (InterruptedException e) {
+            throw rethrow(e);
+        }
+    }
+}
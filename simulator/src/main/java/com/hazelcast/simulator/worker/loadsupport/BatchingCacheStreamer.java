@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.loadsupport;
+
+import com.hazelcast.core.PartitionService;
+
+import javax.cache.Cache;
+import java.util.Map;
+
+/**
+ * Batching implementation of {@link Streamer} for {@link Cache}, which stores the entries via {@link Cache#putAll(Map)}.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+final class BatchingCacheStreamer<K, V> extends AbstractBatchingStreamer<K, V> {
+
+    private final Cache<K, V> cache;
+
+    BatchingCacheStreamer(Cache<K, V> cache, PartitionService partitionService, int batchSize, int maxInFlightBatches) {
+        super(partitionService, batchSize, maxInFlightBatches);
+        this.cache = cache;
+    }
+
+    @Override
+    void storeAll(Map<K, V> batch) {
+        cache.putAll(batch);
+    }
+}
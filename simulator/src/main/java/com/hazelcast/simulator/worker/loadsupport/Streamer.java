@@ -23,6 +23,9 @@ package com.hazelcast.simulator.worker.loadsupport;
  *
  * For older Hazelcast versions a synchronous version is created by the factory.
  *
+ * For large data sets a batching version can be created by the factory, which groups the entries by their partition owner and
+ * stores them with {@code putAll()} batches, e.g. {@code StreamerFactory.getBatchingInstance(map, hazelcastInstance)}.
+ *
  * <pre>
  * {@code
  *   Streamer<String, Person> streamer = StreamerFactory.getInstance(map);
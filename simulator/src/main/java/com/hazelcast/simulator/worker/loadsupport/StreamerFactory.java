@@ -16,6 +16,7 @@
 package com.hazelcast.simulator.worker.loadsupport;
 
 import com.hazelcast.cache.ICache;
+import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
 import com.hazelcast.instance.BuildInfo;
 import com.hazelcast.instance.BuildInfoProvider;
@@ -25,11 +26,15 @@ import javax.cache.Cache;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.hazelcast.simulator.utils.VersionUtils.isMinVersion;
+import static com.hazelcast.simulator.worker.loadsupport.AbstractBatchingStreamer.DEFAULT_BATCH_SIZE;
+import static com.hazelcast.simulator.worker.loadsupport.AbstractBatchingStreamer.DEFAULT_MAX_IN_FLIGHT_BATCHES;
 
 /**
  * Creates {@link Streamer} instances for {@link IMap} and {@link Cache}.
  *
  * If possible an asynchronous variant is created, otherwise it will be synchronous.
+ *
+ * For bulk loads a batching variant can be created, which stores the entries with {@code putAll()} batches per partition owner.
  */
 public final class StreamerFactory {
 
@@ -67,6 +72,24 @@ public final class StreamerFactory {
         return new SyncCacheStreamer<K, V>(cache);
     }
 
+    public static <K, V> Streamer<K, V> getBatchingInstance(IMap<K, V> map, HazelcastInstance hazelcastInstance) {
+        return getBatchingInstance(map, hazelcastInstance, DEFAULT_BATCH_SIZE, DEFAULT_MAX_IN_FLIGHT_BATCHES);
+    }
+
+    public static <K, V> Streamer<K, V> getBatchingInstance(IMap<K, V> map, HazelcastInstance hazelcastInstance, int batchSize,
+                                                            int maxInFlightBatches) {
+        return new BatchingMapStreamer<K, V>(map, hazelcastInstance.getPartitionService(), batchSize, maxInFlightBatches);
+    }
+
+    public static <K, V> Streamer<K, V> getBatchingInstance(Cache<K, V> cache, HazelcastInstance hazelcastInstance) {
+        return getBatchingInstance(cache, hazelcastInstance, DEFAULT_BATCH_SIZE, DEFAULT_MAX_IN_FLIGHT_BATCHES);
+    }
+
+    public static <K, V> Streamer<K, V> getBatchingInstance(Cache<K, V> cache, HazelcastInstance hazelcastInstance,
+                                                            int batchSize, int maxInFlightBatches) {
+        return new BatchingCacheStreamer<K, V>(cache, hazelcastInstance.getPartitionService(), batchSize, maxInFlightBatches);
+    }
+
     static void enforceAsync(boolean enforceAsync) {
         CREATE_ASYNC.set(enforceAsync);
     }
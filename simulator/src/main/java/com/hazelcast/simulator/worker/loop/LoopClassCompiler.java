@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.loop;
+
+import com.hazelcast.simulator.utils.compiler.InMemoryJavaCompiler;
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.simulator.utils.compiler.InMemoryJavaCompiler.compile;
+import static java.lang.String.format;
+
+/**
+ * Compiles the loop classes, which are generated by a {@link LoopCodeGenerator}.
+ *
+ * Each loop class is compiled with the {@link InMemoryJavaCompiler} and defined in its own child of the given
+ * {@link ClassLoader}, so it can be unloaded after the test. If the loop class cannot be generated, e.g. because no JDK is
+ * available, the reason is logged and the caller falls back to its loop without code generation.
+ */
+public final class LoopClassCompiler {
+
+    private static final Logger LOGGER = Logger.getLogger(LoopClassCompiler.class);
+
+    private static final AtomicInteger CLASS_ID_GENERATOR = new AtomicInteger();
+
+    private LoopClassCompiler() {
+    }
+
+    /**
+     * Checks if loop classes can be compiled, which requires a JDK.
+     *
+     * @return <tt>true</tt> if a Java compiler is available, <tt>false</tt> otherwise
+     */
+    public static boolean isAvailable() {
+        return InMemoryJavaCompiler.isAvailable();
+    }
+
+    /**
+     * Creates a unique simple class name for a loop class, e.g. <tt>GeneratedWorkerLoop_MyTest_1</tt>.
+     *
+     * @param prefix the prefix of the class name
+     * @param type   the class the loop is generated for
+     * @return the simple class name
+     */
+    public static String createSimpleClassName(String prefix, Class<?> type) {
+        String typeName = type.getName();
+        String simpleName = typeName.substring(typeName.lastIndexOf('.') + 1);
+        StringBuilder sb = new StringBuilder(prefix);
+        for (char character : simpleName.toCharArray()) {
+            sb.append(Character.isJavaIdentifierPart(character) && character != '$' ? character : '_');
+        }
+        return sb.append('_').append(CLASS_ID_GENERATOR.incrementAndGet()).toString();
+    }
+
+    /**
+     * Returns the package name of a class, which is used for the loop class of that class.
+     *
+     * @param type the class the loop is generated for
+     * @return the package name or an empty string for the default package
+     */
+    public static String getPackageName(Class<?> type) {
+        String typeName = type.getName();
+        int index = typeName.lastIndexOf('.');
+        return (index == -1 ? "" : typeName.substring(0, index));
+    }
+
+    /**
+     * Generates and compiles a loop class.
+     *
+     * @param className the fully qualified name of the loop class
+     * @param generator the {@link LoopCodeGenerator} of the loop class
+     * @param loopType  the base class of the loop class
+     * @param parent    the parent {@link ClassLoader} of the loop class
+     * @param fallback  the description of the loop, which is used if no loop class can be generated
+     * @param <T>       the type of the base class
+     * @return the loop class or <tt>null</tt> if it cannot be generated
+     */
+    public static <T> Class<? extends T> compileLoopClass(String className, LoopCodeGenerator generator, Class<T> loopType,
+                                                          ClassLoader parent, String fallback) {
+        if (!isAvailable()) {
+            LOGGER.warn(format("Using %s instead of %s, since no Java compiler is available (requires a JDK)", fallback,
+                    className));
+            return null;
+        }
+        try {
+            return compile(className, generator.generate(), parent).asSubclass(loopType);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn(format("Using %s instead of %s: %s", fallback, className, e.getMessage()));
+            return null;
+        } catch (Exception e) {
+            LOGGER.warn(format("Could not compile %s, using %s", className, fallback), e);
+            return null;
+        }
+    }
+}
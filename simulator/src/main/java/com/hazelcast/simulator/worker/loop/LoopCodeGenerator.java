@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.loop;
+
+import static com.hazelcast.simulator.utils.FormatUtils.NEW_LINE;
+import static java.lang.String.format;
+import static java.lang.reflect.Modifier.isPublic;
+
+/**
+ * Base class of the source code generators for the loop classes, which are compiled by the {@link LoopClassCompiler}.
+ */
+public abstract class LoopCodeGenerator {
+
+    private static final String INDENT = "    ";
+
+    private final StringBuilder sb = new StringBuilder();
+
+    /**
+     * Generates the source code of the loop class.
+     *
+     * @return the source code
+     * @throws IllegalArgumentException if no loop class can be generated, e.g. because a used class is not public
+     */
+    public final String generate() {
+        sb.setLength(0);
+        appendSourceCode();
+        return sb.toString();
+    }
+
+    /**
+     * Appends the source code of the loop class with {@link #appendLine(int, String)}.
+     *
+     * @throws IllegalArgumentException if no loop class can be generated
+     */
+    protected abstract void appendSourceCode();
+
+    /**
+     * Appends a line of source code.
+     *
+     * @param indentLevel the indentation level of the line
+     * @param line        the line without indentation, an empty line is not indented
+     */
+    protected final void appendLine(int indentLevel, String line) {
+        if (!line.isEmpty()) {
+            for (int i = 0; i < indentLevel; i++) {
+                sb.append(INDENT);
+            }
+            sb.append(line);
+        }
+        sb.append(NEW_LINE);
+    }
+
+    /**
+     * Returns the name of a type, which can be used in the source code of the loop class.
+     *
+     * @param type the type
+     * @return the canonical name of the type
+     * @throws IllegalArgumentException if the type has no canonical name
+     */
+    protected static String getTypeName(Class<?> type) {
+        String canonicalName = type.getCanonicalName();
+        if (canonicalName == null) {
+            throw new IllegalArgumentException(format("Type %s has no canonical name, e.g. it's an anonymous or local class",
+                    type.getName()));
+        }
+        return canonicalName;
+    }
+
+    /**
+     * Checks if a class and all its enclosing classes are public, since the loop class is not part of their runtime package.
+     *
+     * @param type the class
+     * @throws IllegalArgumentException if the class or one of its enclosing classes is not public
+     */
+    protected static void checkPublicClass(Class<?> type) {
+        for (Class<?> classType = type; classType != null; classType = classType.getEnclosingClass()) {
+            if (!isPublic(classType.getModifiers())) {
+                throw new IllegalArgumentException(format("Class %s is not public", classType.getName()));
+            }
+        }
+    }
+}
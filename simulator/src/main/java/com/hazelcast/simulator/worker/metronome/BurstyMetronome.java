@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.metronome;
+
+import static com.hazelcast.simulator.utils.CommonUtils.sleepNanos;
+import static java.lang.Math.max;
+import static java.lang.Math.round;
+import static org.apache.commons.lang3.RandomUtils.nextLong;
+
+/**
+ * {@link Metronome} implementation which sleeps until the intended start times of an on/off arrival process.
+ *
+ * The operations are executed in bursts with a fixed interval, separated by pauses without any operations. The interval within
+ * a burst is shortened, so the average rate over a burst and a pause matches the configured interval.
+ *
+ * The first burst is started with a random offset. The metronome always works with a fixed rate, so a delayed operation doesn't
+ * shift all subsequent operations.
+ *
+ * It is recommended to create a new instance for each worker thread, so they are clocked interleaved.
+ */
+final class BurstyMetronome implements Metronome {
+
+    private final long burstIntervalNanos;
+    private final long burstNanos;
+    private final long periodNanos;
+
+    private long firstBurstStart;
+    private long activeNanos;
+
+    BurstyMetronome(long intervalNanos, long burstNanos, long pauseNanos) {
+        this.periodNanos = burstNanos + pauseNanos;
+        this.burstIntervalNanos = max(1, round(intervalNanos * burstNanos / (double) periodNanos));
+        this.burstNanos = burstNanos;
+    }
+
+    @Override
+    public long waitForNext() {
+        if (firstBurstStart == 0) {
+            firstBurstStart = System.nanoTime() + nextLong(0, periodNanos);
+        }
+
+        // the schedule runs on the active time of the bursts, which is mapped to the wall clock by inserting the pauses
+        long intendedStart = firstBurstStart + (activeNanos / burstNanos) * periodNanos + activeNanos % burstNanos;
+        sleepNanos(intendedStart - System.nanoTime());
+
+        // the schedule is not shifted if we are behind
+        activeNanos += burstIntervalNanos;
+        return intendedStart;
+    }
+}
@@ -22,20 +22,25 @@ import static org.apache.commons.lang3.RandomUtils.nextLong;
  *
  * The wait interval on the first {@link #waitForNext()} call is randomized.
  *
+ * If the metronome works with a fixed rate, the intended start times are calculated from the schedule instead of the actual
+ * wake up times, so a delayed operation doesn't shift all subsequent operations.
+ *
  * It is recommended to create a new instance for each worker thread, so they are clocked interleaved.
  */
 final class BusySpinningMetronome implements Metronome {
 
     private final long intervalNanos;
+    private final boolean fixedRate;
 
     private long waitUntil;
 
-    BusySpinningMetronome(long intervalNanos) {
+    BusySpinningMetronome(long intervalNanos, boolean fixedRate) {
         this.intervalNanos = intervalNanos;
+        this.fixedRate = fixedRate;
     }
 
     @Override
-    public void waitForNext() {
+    public long waitForNext() {
         // set random interval on the first run
         if (waitUntil == 0) {
             waitUntil = System.nanoTime() + nextLong(0, intervalNanos);
@@ -47,7 +52,15 @@ final class BusySpinningMetronome implements Metronome {
             now = System.nanoTime();
         } while (now < waitUntil);
 
+        if (fixedRate) {
+            // the schedule is not shifted if we are behind
+            long intendedStart = waitUntil;
+            waitUntil = intendedStart + intervalNanos;
+            return intendedStart;
+        }
+
         // set regular interval for next call
         waitUntil = now + intervalNanos;
+        return 0;
     }
 }
@@ -18,6 +18,7 @@ package com.hazelcast.simulator.worker.metronome;
 class EmptyMetronome implements Metronome {
 
     @Override
-    public void waitForNext() {
+    public long waitForNext() {
+        return 0;
     }
 }
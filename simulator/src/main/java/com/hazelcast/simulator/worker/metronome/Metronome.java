@@ -22,6 +22,13 @@ public interface Metronome {
 
     /**
      * Waits for the defined interval.
+     *
+     * A fixed rate metronome returns the intended start time of the next operation, which is derived from its schedule and
+     * doesn't depend on how long previous operations took. This can be used to record the latency from the intended start
+     * time, which is not affected by coordinated omission.
+     *
+     * @return the intended start time of the next operation from {@link System#nanoTime()} or <tt>0</tt> if the metronome
+     * doesn't work with a fixed rate
      */
-    void waitForNext();
+    long waitForNext();
 }
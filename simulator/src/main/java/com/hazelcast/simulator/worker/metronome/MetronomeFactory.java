@@ -18,9 +18,20 @@ package com.hazelcast.simulator.worker.metronome;
 import java.util.concurrent.TimeUnit;
 
 import static java.lang.Math.round;
+import static java.lang.String.format;
 
 public final class MetronomeFactory {
 
+    /**
+     * Default duration of a burst of a {@link MetronomeType#BURSTY} metronome.
+     */
+    public static final int DEFAULT_BURST_MS = 100;
+
+    /**
+     * Default duration of a pause between two bursts of a {@link MetronomeType#BURSTY} metronome.
+     */
+    public static final int DEFAULT_PAUSE_MS = 400;
+
     private static final Metronome EMPTY_METRONOME = new EmptyMetronome();
 
     private MetronomeFactory() {
@@ -59,12 +70,7 @@ public final class MetronomeFactory {
         if (intervalMs == 0) {
             return EMPTY_METRONOME;
         }
-        switch (type) {
-            case SLEEPING:
-                return new SleepingMetronome(TimeUnit.MILLISECONDS.toNanos(intervalMs));
-            default:
-                return new BusySpinningMetronome(TimeUnit.MILLISECONDS.toNanos(intervalMs));
-        }
+        return createMetronome(TimeUnit.MILLISECONDS.toNanos(intervalMs), type, false);
     }
 
     /**
@@ -80,12 +86,81 @@ public final class MetronomeFactory {
         if (frequency == 0) {
             return EMPTY_METRONOME;
         }
-        long intervalNanos = round((double) TimeUnit.SECONDS.toNanos(1) / frequency);
+        return createMetronome(getIntervalNanos(frequency), type, false);
+    }
+
+    /**
+     * Creates a fixed rate {@link Metronome} instance with a millisecond interval.
+     *
+     * The returned {@link Metronome} returns the intended start time of each operation, which is derived from its schedule.
+     *
+     * @param intervalMs interval between two intended start times in milliseconds
+     * @param type       {@link MetronomeType} to create
+     * @return a {@link Metronome} instance
+     */
+    public static Metronome withFixedRateIntervalMs(int intervalMs, MetronomeType type) {
+        if (intervalMs == 0) {
+            return EMPTY_METRONOME;
+        }
+        return createMetronome(TimeUnit.MILLISECONDS.toNanos(intervalMs), type, true);
+    }
+
+    /**
+     * Creates a fixed rate {@link Metronome} instance with a frequency in Hz.
+     *
+     * The returned {@link Metronome} returns the intended start time of each operation, which is derived from its schedule.
+     * If the frequency is 0 Hz the method {@link Metronome#waitForNext()} will have no delay.
+     *
+     * @param frequency frequency in Hz
+     * @param type      {@link MetronomeType} to create
+     * @return a {@link Metronome} instance
+     */
+    public static Metronome withFixedRateFrequency(float frequency, MetronomeType type) {
+        if (frequency == 0) {
+            return EMPTY_METRONOME;
+        }
+        return createMetronome(getIntervalNanos(frequency), type, true);
+    }
+
+    /**
+     * Creates a {@link MetronomeType#BURSTY} {@link Metronome} instance with an average frequency in Hz.
+     *
+     * The operations are executed in bursts of the given duration, which are separated by pauses of the given duration. The
+     * frequency within a burst is increased, so the average frequency matches the given one. If the frequency is 0 Hz the method
+     * {@link Metronome#waitForNext()} will have no delay.
+     *
+     * @param frequency average frequency in Hz
+     * @param burstMs   duration of a burst in milliseconds
+     * @param pauseMs   duration of a pause between two bursts in milliseconds
+     * @return a {@link Metronome} instance
+     */
+    public static Metronome withBurstyFrequency(float frequency, int burstMs, int pauseMs) {
+        if (burstMs <= 0 || pauseMs < 0) {
+            throw new IllegalArgumentException(format("Invalid burst (%d ms) or pause (%d ms) duration", burstMs, pauseMs));
+        }
+        if (frequency == 0) {
+            return EMPTY_METRONOME;
+        }
+        long burstNanos = TimeUnit.MILLISECONDS.toNanos(burstMs);
+        long pauseNanos = TimeUnit.MILLISECONDS.toNanos(pauseMs);
+        return new BurstyMetronome(getIntervalNanos(frequency), burstNanos, pauseNanos);
+    }
+
+    private static long getIntervalNanos(float frequency) {
+        return round((double) TimeUnit.SECONDS.toNanos(1) / frequency);
+    }
+
+    private static Metronome createMetronome(long intervalNanos, MetronomeType type, boolean fixedRate) {
         switch (type) {
             case SLEEPING:
-                return new SleepingMetronome(intervalNanos);
+                return new SleepingMetronome(intervalNanos, fixedRate);
+            case POISSON:
+                return new PoissonMetronome(intervalNanos);
+            case BURSTY:
+                return new BurstyMetronome(intervalNanos, TimeUnit.MILLISECONDS.toNanos(DEFAULT_BURST_MS),
+                        TimeUnit.MILLISECONDS.toNanos(DEFAULT_PAUSE_MS));
             default:
-                return new BusySpinningMetronome(intervalNanos);
+                return new BusySpinningMetronome(intervalNanos, fixedRate);
         }
     }
 }
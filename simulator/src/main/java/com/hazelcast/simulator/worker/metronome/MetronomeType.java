@@ -15,8 +15,32 @@
  */
 package com.hazelcast.simulator.worker.metronome;
 
+/**
+ * Defines the type of a {@link Metronome}.
+ */
 public enum MetronomeType {
 
+    /**
+     * Busy loops until the next interval, for very short intervals.
+     */
     BUSY_SPINNING,
-    SLEEPING
+
+    /**
+     * Sleeps until the next interval.
+     */
+    SLEEPING,
+
+    /**
+     * Sleeps until the next arrival of a Poisson process, the intervals are exponentially distributed around the mean interval.
+     *
+     * Always works with a fixed rate.
+     */
+    POISSON,
+
+    /**
+     * Sleeps until the next arrival of an on/off process, which executes the operations in bursts separated by pauses.
+     *
+     * Always works with a fixed rate.
+     */
+    BURSTY
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.metronome;
+
+import java.util.Random;
+
+import static com.hazelcast.simulator.utils.CommonUtils.sleepNanos;
+import static java.lang.Math.log;
+import static java.lang.Math.round;
+
+/**
+ * {@link Metronome} implementation which sleeps until the intended start times of a Poisson arrival process.
+ *
+ * The intervals between two intended start times are exponentially distributed with the configured interval as mean value, so
+ * the operations arrive independently of each other like requests of many uncoordinated users.
+ *
+ * The metronome always works with a fixed rate, so a delayed operation doesn't shift all subsequent operations.
+ *
+ * It is recommended to create a new instance for each worker thread, so they are clocked independently.
+ */
+final class PoissonMetronome implements Metronome {
+
+    private final Random random = new Random();
+    private final long intervalNanos;
+
+    private long nextIntendedStart;
+
+    PoissonMetronome(long intervalNanos) {
+        this.intervalNanos = intervalNanos;
+    }
+
+    @Override
+    public long waitForNext() {
+        if (nextIntendedStart == 0) {
+            nextIntendedStart = System.nanoTime() + nextIntervalNanos();
+        }
+
+        long intendedStart = nextIntendedStart;
+        sleepNanos(intendedStart - System.nanoTime());
+
+        // the schedule is not shifted if we are behind
+        nextIntendedStart = intendedStart + nextIntervalNanos();
+        return intendedStart;
+    }
+
+    long nextIntervalNanos() {
+        // inverse transform sampling of the exponential distribution, 1.0 - nextDouble() is never 0
+        return round(-log(1.0 - random.nextDouble()) * intervalNanos);
+    }
+}
@@ -23,27 +23,53 @@ import static org.apache.commons.lang3.RandomUtils.nextLong;
  *
  * The wait interval on the first {@link #waitForNext()} call is randomized.
  *
+ * If the metronome works with a fixed rate, the intended start times are calculated from the schedule instead of the actual
+ * wake up times, so a delayed operation doesn't shift all subsequent operations.
+ *
  * It is recommended to create a new instance for each worker thread, so they are clocked interleaved.
  */
 final class SleepingMetronome implements Metronome {
 
     private final long intervalNanos;
+    private final boolean fixedRate;
 
     private boolean isFirstSleep = true;
+    private long nextIntendedStart;
 
-    SleepingMetronome(long intervalNanos) {
+    SleepingMetronome(long intervalNanos, boolean fixedRate) {
         this.intervalNanos = intervalNanos;
+        this.fixedRate = fixedRate;
     }
 
     @Override
-    public void waitForNext() {
+    public long waitForNext() {
+        if (fixedRate) {
+            return waitForNextIntendedStart();
+        }
+
         // sleep random interval on the first run
         if (isFirstSleep) {
             sleepNanos(nextLong(0, intervalNanos));
             isFirstSleep = false;
-            return;
+            return 0;
         }
 
         sleepNanos(intervalNanos);
+        return 0;
+    }
+
+    private long waitForNextIntendedStart() {
+        // set random intended start on the first run
+        if (isFirstSleep) {
+            nextIntendedStart = System.nanoTime() + nextLong(0, intervalNanos);
+            isFirstSleep = false;
+        }
+
+        long intendedStart = nextIntendedStart;
+        sleepNanos(intendedStart - System.nanoTime());
+
+        // the schedule is not shifted if we are behind
+        nextIntendedStart = intendedStart + intervalNanos;
+        return intendedStart;
     }
 }
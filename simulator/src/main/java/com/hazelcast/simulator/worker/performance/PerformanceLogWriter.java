@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.performance;
+
+import com.hazelcast.simulator.utils.FileUtilsException;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static com.hazelcast.simulator.utils.CommonUtils.joinThread;
+import static com.hazelcast.simulator.utils.CommonUtils.sleepNanos;
+
+/**
+ * Writes the performance log files of a Worker via long-lived buffered streams.
+ *
+ * The {@link WorkerPerformanceMonitor} just writes into the buffers, so it doesn't open, write and close a file for each line of
+ * each test in each interval. The buffers are flushed asynchronously by an internal thread, so the file I/O is done off the
+ * monitor thread.
+ *
+ * A file is created or truncated when its stream is requested for the first time and stays open until {@link #close(File)} or
+ * {@link #close()}. Since a {@link PrintStream} doesn't throw an {@link java.io.IOException}, its error state is checked on each
+ * flush and a failed file is logged once.
+ */
+final class PerformanceLogWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Logger LOGGER = Logger.getLogger(PerformanceLogWriter.class);
+
+    private final ConcurrentMap<File, PrintStream> streams = new ConcurrentHashMap<File, PrintStream>();
+    private final Set<File> failedFiles = Collections.newSetFromMap(new ConcurrentHashMap<File, Boolean>());
+
+    private final FlushThread flushThread;
+
+    PerformanceLogWriter(long flushIntervalNanos) {
+        this.flushThread = new FlushThread(flushIntervalNanos);
+    }
+
+    void start() {
+        flushThread.start();
+    }
+
+    /**
+     * Returns the buffered stream of a file, which is opened on the first call.
+     *
+     * @param file the {@link File} to write to
+     * @return the {@link PrintStream} of the file
+     * @throws FileUtilsException if the file cannot be opened
+     */
+    PrintStream getStream(File file) {
+        PrintStream stream = streams.get(file);
+        if (stream != null) {
+            return stream;
+        }
+        synchronized (streams) {
+            stream = streams.get(file);
+            if (stream == null) {
+                stream = openStream(file);
+                streams.put(file, stream);
+            }
+            return stream;
+        }
+    }
+
+    void write(File file, String text) {
+        getStream(file).print(text);
+    }
+
+    void flush() {
+        for (Map.Entry<File, PrintStream> entry : streams.entrySet()) {
+            checkError(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Flushes and closes the stream of a single file, e.g. when its test has been finished.
+     *
+     * @param file the {@link File} to close
+     */
+    void close(File file) {
+        synchronized (streams) {
+            PrintStream stream = streams.remove(file);
+            if (stream != null) {
+                checkError(file, stream);
+                closeQuietly(stream);
+            }
+        }
+    }
+
+    void close() {
+        flushThread.isRunning = false;
+        flushThread.interrupt();
+        joinThread(flushThread);
+
+        synchronized (streams) {
+            for (Map.Entry<File, PrintStream> entry : streams.entrySet()) {
+                checkError(entry.getKey(), entry.getValue());
+                closeQuietly(entry.getValue());
+            }
+            streams.clear();
+        }
+    }
+
+    boolean hasWriteError(File file) {
+        return failedFiles.contains(file);
+    }
+
+    private void checkError(File file, PrintStream stream) {
+        // checkError() flushes the stream and returns true if an IOException has occurred on this stream
+        if (stream.checkError() && failedFiles.add(file)) {
+            LOGGER.error("Could not write performance log file " + file.getAbsolutePath());
+        }
+    }
+
+    private static PrintStream openStream(File file) {
+        try {
+            return new PrintStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE), false);
+        } catch (FileNotFoundException e) {
+            throw new FileUtilsException("Could not open performance log file " + file.getAbsolutePath(), e);
+        }
+    }
+
+    private final class FlushThread extends Thread {
+
+        private final long flushIntervalNanos;
+
+        private volatile boolean isRunning = true;
+
+        private FlushThread(long flushIntervalNanos) {
+            super("WorkerPerformanceLogWriterThread");
+            setDaemon(true);
+
+            this.flushIntervalNanos = flushIntervalNanos;
+        }
+
+        @Override
+        public void run() {
+            while (isRunning) {
+                sleepNanos(flushIntervalNanos);
+                flush();
+            }
+        }
+    }
+}
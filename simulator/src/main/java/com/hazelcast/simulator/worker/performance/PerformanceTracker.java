@@ -16,22 +16,22 @@
 package com.hazelcast.simulator.worker.performance;
 
 import com.hazelcast.simulator.test.TestException;
+import com.hazelcast.simulator.utils.FileUtilsException;
 import org.HdrHistogram.Histogram;
-import org.HdrHistogram.HistogramLogReader;
 import org.HdrHistogram.HistogramLogWriter;
 
-import javax.xml.bind.DatatypeConverter;
 import java.io.File;
-import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.util.Arrays;
+import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.zip.Deflater;
 
+import static com.hazelcast.simulator.probes.impl.HistogramUtils.toCompressedBytes;
 import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
 import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
+import static com.hazelcast.simulator.worker.performance.PerformanceState.INTERVAL_LATENCY_PERCENTILE;
 import static com.hazelcast.simulator.worker.performance.PerformanceUtils.ONE_SECOND_IN_MILLIS;
 import static com.hazelcast.simulator.worker.performance.PerformanceUtils.writeThroughputHeader;
 import static com.hazelcast.simulator.worker.performance.PerformanceUtils.writeThroughputStats;
@@ -39,18 +39,36 @@ import static com.hazelcast.simulator.worker.performance.PerformanceUtils.writeT
 /**
  * Container for performance related values for a single Simulator Test.
  *
- * Has methods to update the performance values and write them to files.
+ * Has methods to update the performance values and write them to files. The files are written via the
+ * {@link PerformanceLogWriter} of the Worker.
  *
  * Holds a map of {@link Histogram} for each {@link com.hazelcast.simulator.probes.Probe} of a Simulator Test.
+ *
+ * The interval histograms of all probes are merged into a single latency histogram, which is used to calculate the latency
+ * values of the interval.
+ *
+ * The interval histograms of each probe are sent compressed with their interval sequence number to the Coordinator,
+ * which merges them into a cluster wide latency log and the cluster wide interval latency.
+ *
+ * The interval histograms of each probe are also added to a cumulative histogram, so the aggregated histograms of the whole test
+ * are available without reading the latency files again.
  */
 final class PerformanceTracker {
 
     private final Map<String, HistogramLogWriter> histogramLogWriterMap = new HashMap<String, HistogramLogWriter>();
+    private final Map<String, Histogram> cumulativeHistogramMap = new HashMap<String, Histogram>();
+    private final Histogram intervalLatencyHistogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
 
+    private final List<String> probeNames;
+
+    private final PerformanceLogWriter logWriter;
     private final File throughputFile;
+    private final PrintStream throughputStream;
+    private final String testId;
     private final long testStartedTimestamp;
 
     private long lastTimestamp;
+    private long intervalSequence = -1;
 
     private Map<String, Histogram> intervalHistogramMap;
 
@@ -65,16 +83,21 @@ final class PerformanceTracker {
     private double totalThroughput;
 
     private boolean isUpdated;
+    private boolean isClosed;
 
-    PerformanceTracker(String testId, Collection<String> probeNames, long testStartedTimestamp) {
+    PerformanceTracker(PerformanceLogWriter logWriter, String testId, Collection<String> probeNames, long testStartedTimestamp) {
+        this.logWriter = logWriter;
         this.throughputFile = new File("throughput-" + testId + ".txt");
+        this.throughputStream = logWriter.getStream(throughputFile);
+        this.testId = testId;
         this.testStartedTimestamp = testStartedTimestamp;
         this.lastTimestamp = testStartedTimestamp;
+        this.probeNames = new ArrayList<String>(probeNames);
 
-        writeThroughputHeader(throughputFile, false);
+        writeThroughputHeader(throughputStream, false);
 
         for (String probeName : probeNames) {
-            histogramLogWriterMap.put(probeName, createHistogramLogWriter(testId, probeName, testStartedTimestamp));
+            histogramLogWriterMap.put(probeName, createHistogramLogWriter(logWriter, testId, probeName, testStartedTimestamp));
         }
     }
 
@@ -90,6 +113,10 @@ final class PerformanceTracker {
         return intervalThroughput;
     }
 
+    long getIntervalSequence() {
+        return intervalSequence;
+    }
+
     boolean isUpdated() {
         return isUpdated;
     }
@@ -100,13 +127,26 @@ final class PerformanceTracker {
         return oldIsUpdated;
     }
 
-    void update(Map<String, Histogram> intervalHistograms, long intervalPercentileLatency, double intervalAvgLatency,
-                long intervalMaxLatency, long intervalOperationCount, long currentTimestamp) {
+    void update(Map<String, Histogram> intervalHistograms, long intervalOperationCount, long currentTimestamp) {
         this.intervalHistogramMap = intervalHistograms;
+        this.intervalSequence++;
+
+        for (Map.Entry<String, Histogram> histogramEntry : intervalHistograms.entrySet()) {
+            getOrCreateCumulativeHistogram(histogramEntry.getKey()).add(histogramEntry.getValue());
+        }
+
+        // additional histograms like service times are not part of the latency of the test
+        intervalLatencyHistogram.reset();
+        for (String probeName : probeNames) {
+            Histogram intervalHistogram = intervalHistograms.get(probeName);
+            if (intervalHistogram != null) {
+                intervalLatencyHistogram.add(intervalHistogram);
+            }
+        }
 
-        this.intervalPercentileLatency = intervalPercentileLatency;
-        this.intervalAvgLatency = intervalAvgLatency;
-        this.intervalMaxLatency = intervalMaxLatency;
+        this.intervalPercentileLatency = intervalLatencyHistogram.getValueAtPercentile(INTERVAL_LATENCY_PERCENTILE);
+        this.intervalAvgLatency = intervalLatencyHistogram.getMean();
+        this.intervalMaxLatency = intervalLatencyHistogram.getMaxValue();
 
         this.intervalOperationCount = intervalOperationCount;
         this.totalOperationCount += intervalOperationCount;
@@ -122,77 +162,115 @@ final class PerformanceTracker {
     }
 
     void writeStatsToFile(String timestamp) {
-        writeThroughputStats(throughputFile, timestamp, totalOperationCount, intervalOperationCount, intervalThroughput, 0, 0);
+        if (isClosed) {
+            return;
+        }
+        writeThroughputStats(throughputStream, timestamp, totalOperationCount, intervalOperationCount, intervalThroughput, 0, 0);
 
         for (Map.Entry<String, Histogram> histogramEntry : intervalHistogramMap.entrySet()) {
             String probeName = histogramEntry.getKey();
-            HistogramLogWriter histogramLogWriter = histogramLogWriterMap.get(probeName);
+            HistogramLogWriter histogramLogWriter = getOrCreateHistogramLogWriter(probeName);
 
             Histogram intervalHistogram = histogramEntry.getValue();
             histogramLogWriter.outputIntervalHistogram(intervalHistogram);
         }
     }
 
+    /**
+     * Closes the throughput and latency files of the test, which are not written anymore after the test has been finished.
+     *
+     * The cumulative histograms are kept, so the aggregated histograms can still be created.
+     */
+    void close() {
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+
+        logWriter.close(throughputFile);
+        for (String probeName : histogramLogWriterMap.keySet()) {
+            logWriter.close(getLatencyFile(testId, probeName));
+        }
+        histogramLogWriterMap.clear();
+    }
+
+    private HistogramLogWriter getOrCreateHistogramLogWriter(String probeName) {
+        // additional histograms like service times are just known after they have been recorded for the first time
+        HistogramLogWriter histogramLogWriter = histogramLogWriterMap.get(probeName);
+        if (histogramLogWriter == null) {
+            histogramLogWriter = createHistogramLogWriter(logWriter, testId, probeName, testStartedTimestamp);
+            histogramLogWriterMap.put(probeName, histogramLogWriter);
+        }
+        return histogramLogWriter;
+    }
+
+    private Histogram getOrCreateCumulativeHistogram(String probeName) {
+        Histogram cumulativeHistogram = cumulativeHistogramMap.get(probeName);
+        if (cumulativeHistogram == null) {
+            cumulativeHistogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+            cumulativeHistogramMap.put(probeName, cumulativeHistogram);
+        }
+        return cumulativeHistogram;
+    }
+
     PerformanceState createPerformanceState() {
         return new PerformanceState(totalOperationCount, intervalThroughput, totalThroughput,
                 intervalAvgLatency, intervalPercentileLatency, intervalMaxLatency);
     }
 
-    Map<String, String> aggregateIntervalHistograms(String testId) {
-        Map<String, String> probeResults = new HashMap<String, String>();
+    Map<String, byte[]> encodeIntervalHistograms() {
+        return encodeIntervalHistograms(false);
+    }
+
+    Map<String, byte[]> encodeServiceTimeIntervalHistograms() {
+        return encodeIntervalHistograms(true);
+    }
 
-        HistogramLogWriter histogramLogWriter = createHistogramLogWriter(testId, "aggregated", 0);
+    private Map<String, byte[]> encodeIntervalHistograms(boolean serviceTimeHistograms) {
+        Map<String, byte[]> probeHistograms = new HashMap<String, byte[]>();
         for (Map.Entry<String, Histogram> histogramEntry : intervalHistogramMap.entrySet()) {
             String probeName = histogramEntry.getKey();
-            HistogramLogReader histogramLogReader = createHistogramLogReader(testId, probeName);
-            Histogram combined = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
-
-            Histogram histogram = (Histogram) histogramLogReader.nextIntervalHistogram();
-            while (histogram != null) {
-                combined.add(histogram);
-                histogram = (Histogram) histogramLogReader.nextIntervalHistogram();
+            Histogram intervalHistogram = histogramEntry.getValue();
+            // additional histograms like service times are not part of the latency of the test
+            if (probeNames.contains(probeName) != serviceTimeHistograms && intervalHistogram.getTotalCount() > 0) {
+                probeHistograms.put(probeName, toCompressedBytes(intervalHistogram));
             }
+        }
+        return probeHistograms;
+    }
+
+    Map<String, byte[]> aggregateIntervalHistograms(String testId) {
+        Map<String, byte[]> probeResults = new HashMap<String, byte[]>();
+
+        HistogramLogWriter histogramLogWriter = createHistogramLogWriter(logWriter, testId, "aggregated", 0);
+        for (Map.Entry<String, Histogram> histogramEntry : cumulativeHistogramMap.entrySet()) {
+            String probeName = histogramEntry.getKey();
+            Histogram cumulativeHistogram = histogramEntry.getValue();
 
             histogramLogWriter.outputComment("probeName=" + probeName);
-            histogramLogWriter.outputIntervalHistogram(combined);
+            histogramLogWriter.outputIntervalHistogram(cumulativeHistogram);
 
-            String encodedHistogram = getEncodedHistogram(combined);
-            probeResults.put(probeName, encodedHistogram);
+            probeResults.put(probeName, toCompressedBytes(cumulativeHistogram));
         }
 
         return probeResults;
     }
 
-    static HistogramLogWriter createHistogramLogWriter(String testId, String probeName, long baseTime) {
+    static HistogramLogWriter createHistogramLogWriter(PerformanceLogWriter logWriter, String testId, String probeName,
+                                                       long baseTime) {
         try {
             File latencyFile = getLatencyFile(testId, probeName);
-            HistogramLogWriter histogramLogWriter = new HistogramLogWriter(latencyFile);
+            HistogramLogWriter histogramLogWriter = new HistogramLogWriter(logWriter.getStream(latencyFile));
             histogramLogWriter.setBaseTime(baseTime);
             histogramLogWriter.outputComment("[Latency histograms for " + testId + '.' + probeName + ']');
             histogramLogWriter.outputLogFormatVersion();
             histogramLogWriter.outputLegend();
             return histogramLogWriter;
-        } catch (IOException e) {
+        } catch (FileUtilsException e) {
             throw new TestException("Could not initialize HistogramLogWriter for test " + testId, e);
         }
     }
 
-    static HistogramLogReader createHistogramLogReader(String testName, String probeName) {
-        try {
-            File latencyFile = getLatencyFile(testName, probeName);
-            return new HistogramLogReader(latencyFile);
-        } catch (IOException e) {
-            throw new TestException("Could not initialize HistogramLogReader for test " + testName, e);
-        }
-    }
-
-    private static String getEncodedHistogram(Histogram combined) {
-        ByteBuffer targetBuffer = ByteBuffer.allocate(combined.getNeededByteBufferCapacity());
-        int compressedLength = combined.encodeIntoCompressedByteBuffer(targetBuffer, Deflater.BEST_COMPRESSION);
-        byte[] compressedArray = Arrays.copyOf(targetBuffer.array(), compressedLength);
-        return DatatypeConverter.printBase64Binary(compressedArray);
-    }
-
     private static File getLatencyFile(String testId, String probeName) {
         return new File("latency-" + testId + '-' + probeName + ".txt");
     }
@@ -15,9 +15,8 @@
  */
 package com.hazelcast.simulator.worker.performance;
 
-import java.io.File;
+import java.io.PrintStream;
 
-import static com.hazelcast.simulator.utils.FileUtils.appendText;
 import static com.hazelcast.simulator.utils.FormatUtils.fillString;
 import static com.hazelcast.simulator.utils.FormatUtils.formatDouble;
 import static com.hazelcast.simulator.utils.FormatUtils.formatLong;
@@ -42,15 +41,15 @@ final class PerformanceUtils {
     private PerformanceUtils() {
     }
 
-    static void writeThroughputHeader(File file, boolean isGlobal) {
+    static void writeThroughputHeader(PrintStream out, boolean isGlobal) {
         String columns = "Timestamp                      Ops (sum)        Ops (delta)                Ops/s";
         if (isGlobal) {
             columns += " Number of tests";
         }
-        appendText(format("%s%n%s%n", columns, fillString(columns.length(), '-')), file);
+        out.print(format("%s%n%s%n", columns, fillString(columns.length(), '-')));
     }
 
-    static void writeThroughputStats(File file, String timestamp, long opsSum, long opsDelta, double opsPerSecDelta,
+    static void writeThroughputStats(PrintStream out, String timestamp, long opsSum, long opsDelta, double opsPerSecDelta,
                                      long numberOfTests, long totalTests) {
         String dataString = "[%s] %s ops %s ops %s ops/s";
         if (totalTests > 0) {
@@ -58,13 +57,12 @@ final class PerformanceUtils {
         }
         dataString += "%n";
         int fieldLength = getNumberOfDigits(totalTests);
-        appendText(format(dataString, timestamp,
+        out.print(format(dataString, timestamp,
                 formatLong(opsSum, NUMBER_FORMAT_LENGTH),
                 formatLong(opsDelta, NUMBER_FORMAT_LENGTH),
                 formatDouble(opsPerSecDelta, NUMBER_FORMAT_LENGTH),
                 formatLong(numberOfTests, NUMBER_FORMAT_LENGTH - fieldLength),
-                formatLong(totalTests, fieldLength)),
-                file);
+                formatLong(totalTests, fieldLength)));
     }
 
     static int getNumberOfDigits(long number) {
@@ -18,6 +18,7 @@ package com.hazelcast.simulator.worker.performance;
 import com.hazelcast.simulator.probes.Probe;
 import com.hazelcast.simulator.protocol.connector.ServerConnector;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.protocol.operation.IntervalHistogramOperation;
 import com.hazelcast.simulator.protocol.operation.PerformanceStateOperation;
 import com.hazelcast.simulator.protocol.operation.TestHistogramOperation;
 import com.hazelcast.simulator.test.TestContainer;
@@ -25,6 +26,7 @@ import org.HdrHistogram.Histogram;
 import org.apache.log4j.Logger;
 
 import java.io.File;
+import java.io.PrintStream;
 import java.text.SimpleDateFormat;
 import java.util.Collection;
 import java.util.Date;
@@ -36,7 +38,6 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.hazelcast.simulator.utils.CommonUtils.joinThread;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepNanos;
-import static com.hazelcast.simulator.worker.performance.PerformanceState.INTERVAL_LATENCY_PERCENTILE;
 import static com.hazelcast.simulator.worker.performance.PerformanceUtils.writeThroughputHeader;
 import static com.hazelcast.simulator.worker.performance.PerformanceUtils.writeThroughputStats;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
@@ -62,40 +63,46 @@ public class WorkerPerformanceMonitor {
             return false;
         }
 
+        thread.logWriter.start();
         thread.start();
         return true;
     }
 
     public void shutdown() {
-        thread.sendTestHistograms();
-
         thread.isRunning = false;
         thread.interrupt();
         joinThread(thread);
+
+        // the cumulative histograms are not updated anymore, since the monitor thread is stopped
+        thread.sendTestHistograms();
+
+        thread.logWriter.close();
     }
 
     /**
      * Internal thread to monitor the performance of Simulator Tests.
      *
      * Iterates over all {@link TestContainer} to retrieve performance values from all {@link Probe} instances.
-     * Sends performance numbers as {@link PerformanceState} to the Coordinator.
-     * Writes performance stats to files.
+     * Sends performance numbers as {@link PerformanceState} and the compressed interval histograms to the Coordinator.
+     * Writes performance stats to files via a {@link PerformanceLogWriter}, which flushes them asynchronously.
      *
      * Holds one {@link PerformanceTracker} instance per Simulator Test.
      */
     private static final class MonitorThread extends Thread {
 
+        private static final String SERVICE_TIME_PROBE_SUFFIX = "ServiceTime";
         private static final long WAIT_FOR_TEST_CONTAINERS_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
 
         private static final Logger LOGGER = Logger.getLogger(MonitorThread.class);
 
-        private final File globalThroughputFile = new File("throughput.txt");
         private final SimpleDateFormat simpleDateFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
         private final Map<String, PerformanceTracker> trackerMap = new HashMap<String, PerformanceTracker>();
 
         private final ServerConnector serverConnector;
         private final Collection<TestContainer> testContainers;
         private final long intervalNanos;
+        private final PerformanceLogWriter logWriter;
+        private final PrintStream globalThroughputStream;
 
         private volatile boolean isRunning = true;
 
@@ -106,8 +113,10 @@ public class WorkerPerformanceMonitor {
             this.serverConnector = serverConnector;
             this.testContainers = testContainers;
             this.intervalNanos = intervalNanos;
+            this.logWriter = new PerformanceLogWriter(intervalNanos);
+            this.globalThroughputStream = logWriter.getStream(new File("throughput.txt"));
 
-            writeThroughputHeader(globalThroughputFile, true);
+            writeThroughputHeader(globalThroughputStream, true);
         }
 
         @Override
@@ -118,6 +127,7 @@ public class WorkerPerformanceMonitor {
 
                 boolean runningTestContainerFound = updatePerformanceStates(currentTimestamp);
                 sendPerformanceStates();
+                sendIntervalHistograms(currentTimestamp);
                 writeStatsToFiles(currentTimestamp);
 
                 long elapsedNanos = System.nanoTime() - startedNanos;
@@ -138,7 +148,7 @@ public class WorkerPerformanceMonitor {
                 String testId = trackerEntry.getKey();
                 PerformanceTracker tracker = trackerEntry.getValue();
 
-                Map<String, String> histograms = tracker.aggregateIntervalHistograms(testId);
+                Map<String, byte[]> histograms = tracker.aggregateIntervalHistograms(testId);
                 if (!histograms.isEmpty()) {
                     TestHistogramOperation operation = new TestHistogramOperation(testId, histograms);
                     serverConnector.write(SimulatorAddress.COORDINATOR, operation);
@@ -150,6 +160,7 @@ public class WorkerPerformanceMonitor {
             boolean runningTestContainerFound = false;
             for (TestContainer testContainer : testContainers) {
                 if (!testContainer.isRunning()) {
+                    closePerformanceTracker(testContainer);
                     continue;
                 }
                 runningTestContainerFound = true;
@@ -157,9 +168,6 @@ public class WorkerPerformanceMonitor {
                 Map<String, Probe> probeMap = testContainer.getProbeMap();
                 Map<String, Histogram> intervalHistograms = new HashMap<String, Histogram>(probeMap.size());
 
-                long intervalPercentileLatency = Long.MIN_VALUE;
-                double intervalAvgLatency = Long.MIN_VALUE;
-                long intervalMaxLatency = Long.MIN_VALUE;
                 long intervalOperationalCount = 0;
 
                 for (Map.Entry<String, Probe> entry : probeMap.entrySet()) {
@@ -168,19 +176,8 @@ public class WorkerPerformanceMonitor {
 
                     Histogram intervalHistogram = probe.getIntervalHistogram();
                     intervalHistograms.put(probeName, intervalHistogram);
+                    addServiceTimeIntervalHistogram(intervalHistograms, probeName, probe);
 
-                    long percentileValue = intervalHistogram.getValueAtPercentile(INTERVAL_LATENCY_PERCENTILE);
-                    if (percentileValue > intervalPercentileLatency) {
-                        intervalPercentileLatency = percentileValue;
-                    }
-                    double avgValue = intervalHistogram.getMean();
-                    if (avgValue > intervalAvgLatency) {
-                        intervalAvgLatency = avgValue;
-                    }
-                    long maxValue = intervalHistogram.getMaxValue();
-                    if (maxValue > intervalMaxLatency) {
-                        intervalMaxLatency = maxValue;
-                    }
                     if (probe.isThroughputProbe()) {
                         intervalOperationalCount += intervalHistogram.getTotalCount();
                     }
@@ -188,17 +185,31 @@ public class WorkerPerformanceMonitor {
 
                 String testId = testContainer.getTestContext().getTestId();
                 PerformanceTracker tracker = getOrCreatePerformanceTracker(testId, testContainer);
-                tracker.update(intervalHistograms, intervalPercentileLatency, intervalAvgLatency, intervalMaxLatency,
-                        intervalOperationalCount, currentTimestamp);
+                tracker.update(intervalHistograms, intervalOperationalCount, currentTimestamp);
             }
             return runningTestContainerFound;
         }
 
+        private void addServiceTimeIntervalHistogram(Map<String, Histogram> intervalHistograms, String probeName, Probe probe) {
+            Histogram serviceTimeIntervalHistogram = probe.getServiceTimeIntervalHistogram();
+            if (serviceTimeIntervalHistogram != null) {
+                intervalHistograms.put(probeName + SERVICE_TIME_PROBE_SUFFIX, serviceTimeIntervalHistogram);
+            }
+        }
+
+        private void closePerformanceTracker(TestContainer testContainer) {
+            // the tracker of a finished test is kept for its aggregated histograms, but its files are closed
+            PerformanceTracker tracker = trackerMap.get(testContainer.getTestContext().getTestId());
+            if (tracker != null) {
+                tracker.close();
+            }
+        }
+
         private PerformanceTracker getOrCreatePerformanceTracker(String testId, TestContainer testContainer) {
             PerformanceTracker tracker = trackerMap.get(testId);
             if (tracker == null) {
                 Set<String> probeNames = testContainer.getProbeMap().keySet();
-                tracker = new PerformanceTracker(testId, probeNames, testContainer.getTestStartedTimestamp());
+                tracker = new PerformanceTracker(logWriter, testId, probeNames, testContainer.getTestStartedTimestamp());
                 trackerMap.put(testId, tracker);
             }
             return tracker;
@@ -218,6 +229,23 @@ public class WorkerPerformanceMonitor {
             }
         }
 
+        private void sendIntervalHistograms(long currentTimestamp) {
+            for (Map.Entry<String, PerformanceTracker> trackerEntry : trackerMap.entrySet()) {
+                PerformanceTracker tracker = trackerEntry.getValue();
+                if (!tracker.isUpdated()) {
+                    continue;
+                }
+                Map<String, byte[]> histograms = tracker.encodeIntervalHistograms();
+                Map<String, byte[]> serviceTimeHistograms = tracker.encodeServiceTimeIntervalHistograms();
+                if (!histograms.isEmpty() || !serviceTimeHistograms.isEmpty()) {
+                    String testId = trackerEntry.getKey();
+                    IntervalHistogramOperation operation = new IntervalHistogramOperation(testId, tracker.getIntervalSequence(),
+                            currentTimestamp, histograms, serviceTimeHistograms);
+                    serverConnector.submit(SimulatorAddress.COORDINATOR, operation);
+                }
+            }
+        }
+
         private void writeStatsToFiles(long currentTimestamp) {
             if (trackerMap.isEmpty()) {
                 return;
@@ -240,7 +268,7 @@ public class WorkerPerformanceMonitor {
             }
 
             // global performance stats
-            writeThroughputStats(globalThroughputFile, dateString, globalOperationsCount, globalIntervalOperationCount,
+            writeThroughputStats(globalThroughputStream, dateString, globalOperationsCount, globalIntervalOperationCount,
                     globalIntervalThroughput, trackerMap.size(), testContainers.size());
         }
     }
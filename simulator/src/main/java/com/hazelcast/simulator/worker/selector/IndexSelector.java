@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.selector;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.simulator.worker.selector.OperationSelectorBuilder.PROBABILITY_INTERVAL;
+import static com.hazelcast.simulator.worker.selector.OperationSelectorBuilder.PROBABILITY_TOLERANCE;
+import static java.lang.String.format;
+
+/**
+ * Facility to select an index based on probabilities, e.g. the index of an operation.
+ *
+ * Calling {@link #selectIndex()} method will select an index according to the configured probabilities. The selection uses the
+ * alias method of Walker and Vose, so it takes constant time regardless of the number of indexes and the precision of the
+ * probabilities.
+ *
+ * This class does not give any thread-safety guarantees. It is strongly recommended to construct a new instance for each thread.
+ * Each instance has its own random generator, which doesn't use any atomic operations. Use {@link #IndexSelector(IndexSelector)}
+ * to create a new instance for each thread, which shares the alias table.
+ */
+public class IndexSelector {
+
+    private static final AtomicLong SEED_UNIQUIFIER = new AtomicLong(8682522807148012L);
+    private static final long SEED_MULTIPLIER = 181783497276652981L;
+    private static final long XORSHIFT_MULTIPLIER = 2685821657736338717L;
+    private static final long FALLBACK_SEED = 0x9E3779B97F4A7C15L;
+    private static final int DOUBLE_SHIFT = 11;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+    private static final int SIGN_BIT_SHIFT = 63;
+
+    private final int[] aliases;
+    private final double[] probabilities;
+    private final int length;
+
+    private long seed;
+
+    /**
+     * Creates a selector for the given probabilities.
+     *
+     * The total sum of probabilities has to be 1.0, a sum mismatch up to {@value OperationSelectorBuilder#PROBABILITY_INTERVAL}
+     * is tolerated. The probabilities are normalized by their sum.
+     *
+     * @param probabilities the probabilities (0.0 to 1.0) of the indexes
+     * @throws IllegalArgumentException if a probability is invalid or the sum of probabilities is not 1.0
+     */
+    public IndexSelector(double[] probabilities) {
+        this(new int[probabilities.length], new double[probabilities.length]);
+        populateAliasTable(checkProbabilities(probabilities), aliases, this.probabilities);
+    }
+
+    /**
+     * Creates a selector with the alias table of another selector, but with its own random generator.
+     *
+     * @param selector the selector to copy the alias table from
+     */
+    public IndexSelector(IndexSelector selector) {
+        this(selector.aliases, selector.probabilities);
+    }
+
+    IndexSelector(int[] aliases, double[] probabilities) {
+        this.aliases = aliases;
+        this.probabilities = probabilities;
+        this.length = aliases.length;
+        this.seed = createSeed();
+    }
+
+    /**
+     * Select an index according to configured probabilities.
+     *
+     * @return selected index
+     */
+    public final int selectIndex() {
+        // the integer part selects the column of the alias table, the fractional part is the biased coin toss
+        double random = nextDouble() * length;
+        int column = (int) random;
+        int alias = aliases[column];
+        // the coin toss cannot be predicted by the CPU, so we select the column or its alias via the sign bit instead of a branch
+        int mask = (int) (Double.doubleToRawLongBits(random - column - probabilities[column]) >> SIGN_BIT_SHIFT);
+        return alias ^ ((column ^ alias) & mask);
+    }
+
+    /**
+     * Creates the alias table with the algorithm of Vose, see "A Linear Algorithm For Generating Random Numbers With a Given
+     * Distribution" (1991).
+     *
+     * Each column of the table contains an index and an alias index. The index is selected with the probability stored in the
+     * column, otherwise the alias index is selected.
+     *
+     * @param scaledProbabilities the probabilities multiplied by the number of indexes, is modified by this method
+     * @param aliases             the array for the alias indexes
+     * @param probabilities       the array for the probabilities of the columns
+     */
+    static void populateAliasTable(double[] scaledProbabilities, int[] aliases, double[] probabilities) {
+        int length = scaledProbabilities.length;
+        int[] small = new int[length];
+        int[] large = new int[length];
+        int smallCount = 0;
+        int largeCount = 0;
+
+        for (int index = 0; index < length; index++) {
+            if (scaledProbabilities[index] < 1.0) {
+                small[smallCount++] = index;
+            } else {
+                large[largeCount++] = index;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int smallIndex = small[--smallCount];
+            int largeIndex = large[--largeCount];
+
+            probabilities[smallIndex] = scaledProbabilities[smallIndex];
+            aliases[smallIndex] = largeIndex;
+
+            scaledProbabilities[largeIndex] = (scaledProbabilities[largeIndex] + scaledProbabilities[smallIndex]) - 1.0;
+            if (scaledProbabilities[largeIndex] < 1.0) {
+                small[smallCount++] = largeIndex;
+            } else {
+                large[largeCount++] = largeIndex;
+            }
+        }
+
+        // the remaining columns are (within floating point errors) exactly full
+        while (largeCount > 0) {
+            fillColumn(large[--largeCount], aliases, probabilities);
+        }
+        while (smallCount > 0) {
+            fillColumn(small[--smallCount], aliases, probabilities);
+        }
+    }
+
+    private static void fillColumn(int index, int[] aliases, double[] probabilities) {
+        probabilities[index] = 1.0;
+        aliases[index] = index;
+    }
+
+    private static double[] checkProbabilities(double[] probabilities) {
+        if (probabilities.length == 0) {
+            throw new IllegalArgumentException("At least one probability is required");
+        }
+        double probSum = 0;
+        for (double probability : probabilities) {
+            if (probability < 0.0 || Double.isNaN(probability)) {
+                throw new IllegalArgumentException("Probability has to be between 0.0 and 1.0, but was " + probability);
+            }
+            probSum += probability;
+        }
+        if (Math.abs(probSum - 1.0) > PROBABILITY_INTERVAL) {
+            throw new IllegalArgumentException(format("Sum of probabilities should be exactly 1.0, but is %f", probSum));
+        }
+        return scaleProbabilities(probabilities, probSum);
+    }
+
+    /**
+     * Normalizes the probabilities by their sum and multiplies them by the number of indexes, as required by
+     * {@link #populateAliasTable(double[], int[], double[])}.
+     *
+     * The normalization makes the selection follow the ratio of the probabilities, even if their sum is not exactly 1.0.
+     *
+     * @param probabilities the probabilities of the indexes
+     * @param probSum       the sum of the probabilities
+     * @return the scaled probabilities, which add up to the number of indexes
+     */
+    static double[] scaleProbabilities(double[] probabilities, double probSum) {
+        int length = probabilities.length;
+        double[] scaledProbabilities = new double[length];
+        double scaledSum = 0;
+        for (int i = 0; i < length; i++) {
+            scaledProbabilities[i] = probabilities[i] * length / probSum;
+            scaledSum += scaledProbabilities[i];
+        }
+        // consistency check, the normalized probabilities may just differ by floating point errors
+        if (Math.abs(scaledSum / length - 1.0) > PROBABILITY_TOLERANCE) {
+            throw new IllegalStateException(format("Sum of normalized probabilities should be 1.0, but is %s",
+                    scaledSum / length));
+        }
+        return scaledProbabilities;
+    }
+
+    @SuppressWarnings("checkstyle:magicnumber")
+    private double nextDouble() {
+        // xorshift64* generator, see http://xorshift.di.unimi.it
+        long x = seed;
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        seed = x;
+        return ((x * XORSHIFT_MULTIPLIER) >>> DOUBLE_SHIFT) * DOUBLE_UNIT;
+    }
+
+    private static long createSeed() {
+        long newSeed = SEED_UNIQUIFIER.addAndGet(SEED_MULTIPLIER) ^ System.nanoTime();
+        return (newSeed == 0) ? FALLBACK_SEED : newSeed;
+    }
+}
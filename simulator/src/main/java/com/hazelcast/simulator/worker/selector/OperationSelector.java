@@ -15,28 +15,26 @@
  */
 package com.hazelcast.simulator.worker.selector;
 
-import java.util.Random;
-
 /**
  * Facility to select different operations based on probabilities. Each operations is represented as an enum item.
  *
- * Calling {@link #select()} method will select an operation according to the configured probabilities.
+ * Calling {@link #select()} method will select an operation according to the configured probabilities. The selection uses the
+ * alias method of Walker and Vose, so it takes constant time regardless of the number of operations and the precision of the
+ * probabilities, see {@link IndexSelector}.
  *
- * This class does not give any thread-safety guarantees. It is strongly recommended to construct a new instance for each thread,
- * at least to prevent contention on the random generator. Just use a single builder and call the
+ * This class does not give any thread-safety guarantees. It is strongly recommended to construct a new instance for each thread.
+ * Each instance has its own random generator, which doesn't use any atomic operations. Just use a single builder and call the
  * {@link OperationSelectorBuilder#build()} method in each thread constructor.
  *
  * @param <T> enum of operations
  */
-public class OperationSelector<T extends Enum<T>> {
+public class OperationSelector<T extends Enum<T>> extends IndexSelector {
 
-    private final Random random = new Random();
     private final Object[] operations;
-    private final int length;
 
-    OperationSelector(Object[] operations) {
-        this.operations = operations.clone();
-        this.length = operations.length;
+    OperationSelector(Object[] operations, int[] aliases, double[] probabilities) {
+        super(aliases, probabilities);
+        this.operations = operations;
     }
 
     /**
@@ -46,7 +44,6 @@ public class OperationSelector<T extends Enum<T>> {
      */
     @SuppressWarnings("unchecked")
     public T select() {
-        int chance = random.nextInt(length);
-        return (T) operations[chance];
+        return (T) operations[selectIndex()];
     }
 }
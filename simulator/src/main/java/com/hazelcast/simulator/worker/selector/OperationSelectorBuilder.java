@@ -27,7 +27,9 @@ import static java.lang.String.format;
  * with its probability (0.0 to 1.0) via the {@link #addOperation(Enum, double)} method.
  *
  * The total sum of probabilities has to be exactly 1.0. You can use {@link #addDefaultOperation(Enum)} to add a default operation
- * which automatically consumes the remaining probability. The probability precision is {@value #PROBABILITY_PRECISION}.
+ * which automatically consumes the remaining probability. The probabilities can be defined with full double precision, a sum
+ * mismatch up to {@value #PROBABILITY_INTERVAL} is tolerated, e.g. for three operations with a probability of 0.333 each. The
+ * probabilities are normalized by their sum, so the operations are selected in the ratio of their probabilities.
  *
  * This builder class is not thread-safe. The created {@link OperationSelector} does not give any thread-safety guarantees. It is
  * strongly recommended to construct a new instance for each thread, at least to prevent contention on the random generator. Just
@@ -37,14 +39,15 @@ import static java.lang.String.format;
  */
 public class OperationSelectorBuilder<T extends Enum<T>> {
 
-    static final int PROBABILITY_PRECISION = 3;
-    static final double PROBABILITY_LENGTH = Math.pow(10, PROBABILITY_PRECISION);
-    static final double PROBABILITY_INTERVAL = 1.0 / PROBABILITY_LENGTH;
+    static final double PROBABILITY_INTERVAL = 0.001;
+    static final double PROBABILITY_TOLERANCE = 1.0E-9;
 
     private final Map<T, Double> operations = new HashMap<T, Double>();
 
     private double probSum;
     private Object[] operationsArray;
+    private int[] aliasArray;
+    private double[] probabilitiesArray;
 
     /**
      * Register a new operation for selection.
@@ -81,7 +84,7 @@ public class OperationSelectorBuilder<T extends Enum<T>> {
      * @return this instance to allow method-chaining
      */
     public OperationSelectorBuilder<T> addDefaultOperation(T operation) {
-        addOperation(operation, 1.0 - probSum);
+        addOperation(operation, Math.max(0.0, 1.0 - probSum));
         return this;
     }
 
@@ -104,20 +107,15 @@ public class OperationSelectorBuilder<T extends Enum<T>> {
             probabilityMismatch();
         }
         if (operationsArray == null) {
-            populateOperationsArray();
+            populateAliasTable();
         }
-        return new OperationSelector<T>(operationsArray);
+        return new OperationSelector<T>(operationsArray, aliasArray, probabilitiesArray);
     }
 
     private void checkProbabilityArgument(double probability) {
-        if (probability < 0.0) {
+        if (probability < 0.0 || Double.isNaN(probability)) {
             throw new IllegalArgumentException("Probability has to be between 0.0 and 1.0, but was " + probability);
         }
-        double probabilityDecimalPlaces = probability - Math.floor(probability);
-        if (probabilityDecimalPlaces > 0.0 && probabilityDecimalPlaces < PROBABILITY_INTERVAL) {
-            throw new IllegalArgumentException(format("Maximum probability precision is %f, but was %f",
-                    PROBABILITY_INTERVAL, probability));
-        }
     }
 
     private void probabilityMismatch() {
@@ -128,18 +126,20 @@ public class OperationSelectorBuilder<T extends Enum<T>> {
         throw new IllegalStateException(sb.toString());
     }
 
-    private void populateOperationsArray() {
-        int arraySize = (int) PROBABILITY_LENGTH;
-        operationsArray = new Object[arraySize];
+    private void populateAliasTable() {
+        int length = operations.size();
+        operationsArray = new Object[length];
+        aliasArray = new int[length];
+        probabilitiesArray = new double[length];
+
+        double[] probabilities = new double[length];
         int index = 0;
         for (Map.Entry<T, Double> entry : operations.entrySet()) {
-            T operation = entry.getKey();
-            for (int i = 0; i < Math.round(entry.getValue() * arraySize); i++) {
-                if (index < arraySize) {
-                    operationsArray[index] = operation;
-                    index++;
-                }
-            }
+            operationsArray[index] = entry.getKey();
+            probabilities[index] = entry.getValue();
+            index++;
         }
+        double[] scaledProbabilities = IndexSelector.scaleProbabilities(probabilities, probSum);
+        IndexSelector.populateAliasTable(scaledProbabilities, aliasArray, probabilitiesArray);
     }
 }
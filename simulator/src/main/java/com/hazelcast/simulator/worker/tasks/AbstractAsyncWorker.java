@@ -25,20 +25,39 @@ import com.hazelcast.simulator.worker.selector.OperationSelectorBuilder;
  * The operation counter is automatically increased after each call of {@link ExecutionCallback#onResponse}.
  * The {@link Throwable} is automatically reported after each call of {@link ExecutionCallback#onFailure(Throwable)}
  *
+ * This worker doesn't limit the number of outstanding calls and doesn't record their latency. Use
+ * {@link AbstractBoundedAsyncWorker} for a bounded pipeline with per-call latency. Workers which record the latency themselves
+ * can use {@link #getIntendedStarted()} as start time, if a fixed rate metronome is used.
+ *
  * @param <O> Type of {@link Enum} used by the {@link com.hazelcast.simulator.worker.selector.OperationSelector}
  * @param <V> Type of {@link ExecutionCallback}
  */
 public abstract class AbstractAsyncWorker<O extends Enum<O>, V> extends AbstractWorker<O> implements ExecutionCallback<V> {
 
+    private long intendedStarted;
+
     public AbstractAsyncWorker(OperationSelectorBuilder<O> operationSelectorBuilder) {
         super(operationSelectorBuilder);
     }
 
     @Override
     public final void doRun() throws Exception {
+        intendedStarted = getMetronome().waitForNext();
         timeStep(getRandomOperation());
     }
 
+    /**
+     * Returns the intended start time of the current time step.
+     *
+     * Can be passed to {@link com.hazelcast.simulator.probes.Probe#done(long, long)} by workers which record the latency of
+     * their asynchronous calls, so the latency is not affected by coordinated omission.
+     *
+     * @return the intended start time from {@link System#nanoTime()} or <tt>0</tt> if no fixed rate metronome is used
+     */
+    protected final long getIntendedStarted() {
+        return intendedStarted;
+    }
+
     @Override
     public final void onResponse(V response) {
         try {
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.tasks;
+
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.utils.ExceptionReporter;
+import com.hazelcast.simulator.worker.selector.OperationSelectorBuilder;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+/**
+ * Asynchronous version of {@link AbstractWorker}, which bounds the number of outstanding calls of each worker thread.
+ *
+ * Each call of {@link #timeStepAsync(Enum)} issues an asynchronous operation and returns its {@link ICompletableFuture}. The
+ * worker keeps at most <tt>maxInFlight</tt> futures outstanding. If the limit is reached, the next operation is issued as soon
+ * as an outstanding one has completed, so the test cannot overload the cluster.
+ *
+ * The built-in {@link Probe} records the latency of each call from its issue to its completion. If the worker is clocked by a
+ * fixed rate {@link com.hazelcast.simulator.worker.metronome.Metronome}, e.g. via the test property <tt>targetThroughput</tt>,
+ * the operations are issued open-loop on their schedule and the latency is recorded from the intended start time. So the time
+ * an operation waits for a free slot is included and the latency is not affected by coordinated omission.
+ *
+ * The operation counter is increased after each issued operation. A {@link Throwable} of a failed call is automatically
+ * reported. When the worker is stopped, it waits for its outstanding calls before {@link #afterRun()} is called.
+ *
+ * @param <O> Type of {@link Enum} used by the {@link com.hazelcast.simulator.worker.selector.OperationSelector}
+ * @param <V> Type of the result of the asynchronous calls
+ */
+public abstract class AbstractBoundedAsyncWorker<O extends Enum<O>, V> extends AbstractWorker<O> {
+
+    /**
+     * Default number of outstanding calls per worker thread.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 16;
+
+    private static final int AWAIT_IN_FLIGHT_TIMEOUT_SECONDS = 60;
+
+    private final int maxInFlight;
+    private final Semaphore inFlightPermits;
+
+    public AbstractBoundedAsyncWorker(OperationSelectorBuilder<O> operationSelectorBuilder) {
+        this(operationSelectorBuilder, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Creates a worker with a bounded number of outstanding calls.
+     *
+     * @param operationSelectorBuilder the {@link OperationSelectorBuilder} to select the operations
+     * @param maxInFlight              the maximum number of outstanding calls of this worker
+     */
+    public AbstractBoundedAsyncWorker(OperationSelectorBuilder<O> operationSelectorBuilder, int maxInFlight) {
+        super(operationSelectorBuilder);
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight has to be at least 1, but was " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+        this.inFlightPermits = new Semaphore(maxInFlight);
+    }
+
+    @Override
+    protected final void doRun() throws Exception {
+        long intendedStarted = getMetronome().waitForNext();
+        inFlightPermits.acquire();
+
+        long started = System.nanoTime();
+        PhaseState<O> state = getPhaseState();
+        Probe probe = getWorkerProbe(state);
+        O operation = state.selectOperation();
+        ICompletableFuture<V> future;
+        try {
+            future = timeStepAsync(operation);
+        } catch (Exception e) {
+            inFlightPermits.release();
+            throw e;
+        }
+        increaseIteration();
+
+        if (future == null) {
+            inFlightPermits.release();
+            return;
+        }
+        future.andThen(new LatencyCallback(operation, probe, intendedStarted, started));
+    }
+
+    /**
+     * Fake implementation of abstract method, should not be used.
+     *
+     * @param operation ignored
+     */
+    @Override
+    protected final void timeStep(O operation) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * This method is called for each iteration of {@link #run()}, as soon as the number of outstanding calls is below the limit.
+     *
+     * Won't be called if an error occurs in {@link #beforeRun()}.
+     *
+     * @param operation The selected operation for this iteration
+     * @return the {@link ICompletableFuture} of the issued call, or <tt>null</tt> if no asynchronous call was issued
+     */
+    protected abstract ICompletableFuture<V> timeStepAsync(O operation) throws Exception;
+
+    /**
+     * Override this method if you need to execute code after an asynchronous call has completed successfully.
+     *
+     * Is called by the thread which completes the call, so the implementation has to be thread-safe.
+     *
+     * @param operation the operation of the call
+     * @param response  the result of the call
+     */
+    protected void handleResponse(O operation, V response) {
+    }
+
+    /**
+     * Override this method if you need to execute code after an asynchronous call has failed and the {@link Throwable} has
+     * been reported.
+     *
+     * Is called by the thread which completes the call, so the implementation has to be thread-safe.
+     *
+     * @param operation the operation of the call
+     * @param t         the exception of the call
+     */
+    protected void handleFailure(O operation, Throwable t) {
+    }
+
+    /**
+     * Returns the maximum number of outstanding calls of this worker.
+     *
+     * @return the maximum number of outstanding calls
+     */
+    protected final int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Returns the current number of outstanding calls of this worker.
+     *
+     * @return the number of outstanding calls
+     */
+    protected final int getInFlightCount() {
+        return maxInFlight - inFlightPermits.availablePermits();
+    }
+
+    @Override
+    void afterRunLoop() throws Exception {
+        if (!inFlightPermits.tryAcquire(maxInFlight, AWAIT_IN_FLIGHT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            LOGGER.warning(format("%d asynchronous calls of test %s did not complete within %d seconds", getInFlightCount(),
+                    getTestId(), AWAIT_IN_FLIGHT_TIMEOUT_SECONDS));
+            return;
+        }
+        inFlightPermits.release(maxInFlight);
+    }
+
+    private final class LatencyCallback implements ExecutionCallback<V> {
+
+        private final O operation;
+        private final Probe probe;
+        private final long intendedStarted;
+        private final long started;
+
+        private LatencyCallback(O operation, Probe probe, long intendedStarted, long started) {
+            this.operation = operation;
+            this.probe = probe;
+            this.intendedStarted = intendedStarted;
+            this.started = started;
+        }
+
+        @Override
+        public void onResponse(V response) {
+            try {
+                recordLatency(probe, intendedStarted, started);
+                handleResponse(operation, response);
+            } finally {
+                inFlightPermits.release();
+            }
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            try {
+                ExceptionReporter.report(getTestId(), t);
+                handleFailure(operation, t);
+            } finally {
+                inFlightPermits.release();
+            }
+        }
+    }
+}
@@ -15,6 +15,9 @@
  */
 package com.hazelcast.simulator.worker.tasks;
 
+import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.worker.metronome.Metronome;
+
 /**
  * Monotonic version of {@link AbstractWorker}.
  *
@@ -23,11 +26,25 @@ package com.hazelcast.simulator.worker.tasks;
  */
 public abstract class AbstractMonotonicWorker extends AbstractWorker {
 
+    public AbstractMonotonicWorker() {
+    }
+
+    /**
+     * Creates a worker which is clocked by the given {@link Metronome}.
+     *
+     * @param metronome the {@link Metronome} which is called before each {@link #timeStep()}
+     */
+    public AbstractMonotonicWorker(Metronome metronome) {
+        super(metronome);
+    }
+
     @Override
     public final void doRun() throws Exception {
+        long intendedStarted = getMetronome().waitForNext();
         long started = System.nanoTime();
+        Probe probe = getWorkerProbe();
         timeStep();
-        getWorkerProbe().recordValue(System.nanoTime() - started);
+        recordLatency(probe, intendedStarted, started);
 
         increaseIteration();
     }
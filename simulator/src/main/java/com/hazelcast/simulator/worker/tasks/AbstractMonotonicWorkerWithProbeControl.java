@@ -22,12 +22,14 @@ import com.hazelcast.simulator.probes.Probe;
  *
  * This worker provides no {@link com.hazelcast.simulator.worker.selector.OperationSelector}, but a {@link #timeStep(Probe)}
  * method with the built-in {@link Probe} as parameter. This can be used to make a finer selection of the measured code block.
+ * If a fixed rate metronome is used, the latencies are recorded from the intended start time of each iteration.
  */
 public abstract class AbstractMonotonicWorkerWithProbeControl extends AbstractWorker {
 
     @Override
     public final void doRun() throws Exception {
-        timeStep(getWorkerProbe());
+        long intendedStarted = getMetronome().waitForNext();
+        timeStep(withIntendedStart(getWorkerProbe(), intendedStarted));
 
         increaseIteration();
     }
@@ -21,12 +21,20 @@ import com.hazelcast.simulator.probes.Probe;
 import com.hazelcast.simulator.test.TestContext;
 import com.hazelcast.simulator.test.annotations.InjectProbe;
 import com.hazelcast.simulator.test.annotations.InjectTestContext;
+import com.hazelcast.simulator.worker.distribution.KeyDistribution;
+import com.hazelcast.simulator.worker.metronome.Metronome;
 import com.hazelcast.simulator.worker.selector.OperationSelector;
 import com.hazelcast.simulator.worker.selector.OperationSelectorBuilder;
+import com.hazelcast.simulator.worker.workload.WorkloadPhase;
+import com.hazelcast.simulator.worker.workload.WorkloadSchedule;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 import static com.hazelcast.simulator.utils.CommonUtils.rethrow;
+import static com.hazelcast.simulator.worker.metronome.MetronomeFactory.withFixedIntervalMs;
 
 /**
  * Base implementation of {@link IWorker} which is returned by {@link com.hazelcast.simulator.test.annotations.RunWithWorker}
@@ -35,14 +43,40 @@ import static com.hazelcast.simulator.utils.CommonUtils.rethrow;
  * Implicitly measures throughput and latency with a built-in {@link Probe}.
  * The operation counter is automatically increased after each call of {@link #timeStep(Enum)}.
  *
+ * Can be clocked by a {@link Metronome}, which is called before each {@link #timeStep(Enum)}. If a fixed rate {@link Metronome}
+ * is used, the built-in {@link Probe} records the latency from the intended start time of each operation, side by side with
+ * its service time. So the latency is not affected by coordinated omission, e.g. if the cluster stalls.
+ *
+ * If the test property <tt>targetThroughput</tt> is set, the {@link com.hazelcast.simulator.test.TestContainer} replaces the
+ * {@link Metronome} with a fixed rate one, which clocks the worker with its share of the target throughput.
+ *
+ * Keys should be selected with {@link #randomKeyIndex(int)}. It's uniformly distributed by default, but can be skewed with the
+ * test properties <tt>keyDistribution</tt> and <tt>keyDistributionSkew</tt>, e.g. to simulate hot keys.
+ *
+ * If the test property <tt>workloadSchedule</tt> is set, the worker follows the phases of a {@link WorkloadSchedule}. Each phase
+ * can change the operation mix and the target throughput, and the built-in {@link Probe} is tagged with the phase name.
+ *
+ * If the test property <tt>generateWorkerLoop</tt> is set, the loop of {@link #run()} is replaced by a loop, which is generated
+ * for the worker class by the {@link WorkerLoopFactory}.
+ *
  * @param <O> Type of {@link Enum} used by the {@link com.hazelcast.simulator.worker.selector.OperationSelector}
  */
-public abstract class AbstractWorker<O extends Enum<O>> implements IWorker {
+public abstract class AbstractWorker<O extends Enum<O>> implements IMetronomeWorker, IKeyDistributionWorker,
+        IWorkloadPhaseWorker {
 
     protected static final ILogger LOGGER = Logger.getLogger(AbstractWorker.class);
 
+    private static final Metronome EMPTY_METRONOME = withFixedIntervalMs(0);
+
     private final Random random = new Random();
-    private final OperationSelector<O> selector;
+    private final IntendedStartProbe intendedStartProbe = new IntendedStartProbe();
+    private final OperationSelectorBuilder<O> operationSelectorBuilder;
+    private final List<OperationSelector<O>> phaseSelectors = new ArrayList<OperationSelector<O>>();
+
+    private volatile PhaseState<O> phaseState;
+    private volatile Metronome metronome;
+
+    private KeyDistribution keyDistribution;
 
     @InjectTestContext
     private TestContext testContext;
@@ -51,25 +85,54 @@ public abstract class AbstractWorker<O extends Enum<O>> implements IWorker {
 
     private long iteration;
     private boolean isWorkerStopped;
+    private WorkerLoop workerLoop;
 
     public AbstractWorker(OperationSelectorBuilder<O> operationSelectorBuilder) {
-        this.selector = operationSelectorBuilder.build();
+        this(operationSelectorBuilder, EMPTY_METRONOME);
+    }
+
+    /**
+     * Creates a worker which is clocked by the given {@link Metronome}.
+     *
+     * @param operationSelectorBuilder the {@link OperationSelectorBuilder} to select the operations
+     * @param metronome                the {@link Metronome} which is called before each {@link #timeStep(Enum)}
+     */
+    public AbstractWorker(OperationSelectorBuilder<O> operationSelectorBuilder, Metronome metronome) {
+        this.operationSelectorBuilder = operationSelectorBuilder;
+        this.phaseState = new PhaseState<O>(operationSelectorBuilder.build(), null, null);
+        this.metronome = metronome;
     }
 
     /**
      * This constructor is for inherited classes which don't use the {@link OperationSelectorBuilder}.
      */
     AbstractWorker() {
-        this.selector = null;
+        this(EMPTY_METRONOME);
+    }
+
+    /**
+     * This constructor is for inherited classes which don't use the {@link OperationSelectorBuilder}.
+     *
+     * @param metronome the {@link Metronome} which is called before each iteration
+     */
+    AbstractWorker(Metronome metronome) {
+        this.operationSelectorBuilder = null;
+        this.phaseState = new PhaseState<O>(null, null, null);
+        this.metronome = metronome;
     }
 
     @Override
     public final void run() {
         try {
             beforeRun();
-            while ((!testContext.isStopped() && !isWorkerStopped)) {
-                doRun();
+            if (workerLoop != null) {
+                workerLoop.runLoop(this);
+            } else {
+                while ((!testContext.isStopped() && !isWorkerStopped)) {
+                    doRun();
+                }
             }
+            afterRunLoop();
             afterRun();
         } catch (Exception e) {
             throw rethrow(e);
@@ -77,13 +140,44 @@ public abstract class AbstractWorker<O extends Enum<O>> implements IWorker {
     }
 
     protected void doRun() throws Exception {
+        long intendedStarted = metronome.waitForNext();
         long started = System.nanoTime();
-        timeStep(selector.select());
-        workerProbe.recordValue(System.nanoTime() - started);
+        PhaseState<O> state = phaseState;
+        Probe probe = getWorkerProbe(state);
+        timeStep(state.selectOperation());
+        recordLatency(probe, intendedStarted, started);
 
         increaseIteration();
     }
 
+    @Override
+    public final void setMetronome(Metronome metronome) {
+        this.metronome = metronome;
+    }
+
+    @Override
+    public final void setKeyDistribution(KeyDistribution keyDistribution) {
+        this.keyDistribution = keyDistribution;
+    }
+
+    @Override
+    public final void setWorkloadSchedule(WorkloadSchedule schedule) {
+        phaseSelectors.clear();
+        if (operationSelectorBuilder == null) {
+            return;
+        }
+        for (WorkloadPhase phase : schedule.getPhases()) {
+            phaseSelectors.add(phase.createOperationSelectorBuilder(operationSelectorBuilder).build());
+        }
+    }
+
+    @Override
+    public final void setWorkloadPhase(int phaseIndex, Probe workerProbe, Map<? extends Enum, Probe> probeMap) {
+        PhaseState<O> state = phaseState;
+        OperationSelector<O> selector = (phaseSelectors.isEmpty() ? state.getSelector() : phaseSelectors.get(phaseIndex));
+        phaseState = new PhaseState<O>(selector, workerProbe, (probeMap == null ? state.getProbeMap() : probeMap));
+    }
+
     /**
      * Stops the local worker, regardless of the {@link TestContext} stopped status.
      *
@@ -117,6 +211,13 @@ public abstract class AbstractWorker<O extends Enum<O>> implements IWorker {
      */
     protected abstract void timeStep(O operation) throws Exception;
 
+    /**
+     * Is called after the last iteration of {@link #run()} and before {@link #afterRun()}, e.g. to complete outstanding
+     * operations of inherited classes.
+     */
+    void afterRunLoop() throws Exception {
+    }
+
     /**
      * Override this method if you need to execute code on each worker after {@link #run()} is called.
      *
@@ -164,6 +265,29 @@ public abstract class AbstractWorker<O extends Enum<O>> implements IWorker {
         return random.nextInt(upperBond);
     }
 
+    /**
+     * Returns the index of the next key, selected by the configured {@link KeyDistribution}.
+     *
+     * The keys are selected uniformly, unless the {@link com.hazelcast.simulator.test.TestContainer} has injected a
+     * {@link KeyDistribution}. It's created once per test for the <tt>keyCount</tt> property of the test, so the key count has
+     * to match it, e.g. the length of a pre-generated key array.
+     *
+     * @param keyCount the number of keys to select from
+     * @return the key index between {@code 0} (inclusive) and {@code keyCount} (exclusive)
+     * @throws IllegalArgumentException if the key count doesn't match the injected {@link KeyDistribution}
+     */
+    protected final int randomKeyIndex(int keyCount) {
+        KeyDistribution distribution = keyDistribution;
+        if (distribution == null) {
+            return random.nextInt(keyCount);
+        }
+        if (distribution.getKeyCount() != keyCount) {
+            throw new IllegalArgumentException("keyCount has to match the keyCount of the key distribution ("
+                    + distribution.getKeyCount() + "), but was " + keyCount);
+        }
+        return distribution.nextKeyIndex(random);
+    }
+
     /**
      * Returns the inner {@link Random} instance to call methods which are not implemented.
      *
@@ -182,15 +306,79 @@ public abstract class AbstractWorker<O extends Enum<O>> implements IWorker {
         return iteration;
     }
 
+    void recordLatency(Probe probe, long intendedStarted, long started) {
+        if (intendedStarted == 0) {
+            probe.recordValue(System.nanoTime() - started);
+        } else {
+            probe.done(intendedStarted, started);
+        }
+    }
+
+    void setWorkerLoop(WorkerLoop workerLoop) {
+        this.workerLoop = workerLoop;
+    }
+
+    TestContext getTestContext() {
+        return testContext;
+    }
+
+    boolean isWorkerStopped() {
+        return isWorkerStopped;
+    }
+
+    Metronome getMetronome() {
+        return metronome;
+    }
+
     void increaseIteration() {
         iteration++;
     }
 
     O getRandomOperation() {
-        return selector.select();
+        return phaseState.selectOperation();
     }
 
     Probe getWorkerProbe() {
-        return workerProbe;
+        return getWorkerProbe(phaseState);
+    }
+
+    /**
+     * Returns the built-in {@link Probe} of the given {@link PhaseState}.
+     *
+     * @param state the {@link PhaseState} which was read for the current iteration
+     * @return the {@link Probe} of the phase or the injected worker {@link Probe} if no workload schedule is used
+     */
+    Probe getWorkerProbe(PhaseState<O> state) {
+        Probe probe = state.getWorkerProbe();
+        return (probe == null ? workerProbe : probe);
+    }
+
+    /**
+     * Returns the {@link PhaseState} of the current workload phase.
+     *
+     * Should be read once per iteration, so the selected operation and its probe belong to the same phase.
+     *
+     * @return the current {@link PhaseState}
+     */
+    PhaseState<O> getPhaseState() {
+        return phaseState;
+    }
+
+    void setPhaseProbeMap(Map<? extends Enum, Probe> probeMap) {
+        phaseState = phaseState.withProbeMap(probeMap);
+    }
+
+    /**
+     * Returns the {@link Probe} to pass to a time step with probe control.
+     *
+     * @param probe           the {@link Probe} of the operation
+     * @param intendedStarted the intended start time from {@link Metronome#waitForNext()}
+     * @return the {@link Probe} itself or a {@link IntendedStartProbe} if a fixed rate metronome is used
+     */
+    Probe withIntendedStart(Probe probe, long intendedStarted) {
+        if (intendedStarted == 0) {
+            return probe;
+        }
+        return intendedStartProbe.init(probe, intendedStarted);
     }
 }
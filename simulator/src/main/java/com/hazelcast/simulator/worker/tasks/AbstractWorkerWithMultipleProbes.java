@@ -25,7 +25,8 @@ import java.util.Set;
  * Version of {@link AbstractWorker} with an individual {@link Probe} per operation.
  *
  * This worker provides a {@link #timeStep(Enum, Probe)} method with the operation specific {@link Probe} as additional parameter.
- * This can be used to make a finer selection of the measured code block.
+ * This can be used to make a finer selection of the measured code block. If a fixed rate metronome is used, the latencies are
+ * recorded from the intended start time of each iteration.
  *
  * @param <O> Type of {@link Enum} used by the {@link com.hazelcast.simulator.worker.selector.OperationSelector}
  */
@@ -34,8 +35,6 @@ public abstract class AbstractWorkerWithMultipleProbes<O extends Enum<O>> extend
 
     private final OperationSelectorBuilder<O> operationSelectorBuilder;
 
-    private Map<? extends Enum, Probe> probeMap;
-
     public AbstractWorkerWithMultipleProbes(OperationSelectorBuilder<O> operationSelectorBuilder) {
         super(operationSelectorBuilder);
         this.operationSelectorBuilder = operationSelectorBuilder;
@@ -48,15 +47,21 @@ public abstract class AbstractWorkerWithMultipleProbes<O extends Enum<O>> extend
 
     @Override
     public void setProbeMap(Map<? extends Enum, Probe> probeMap) {
-        this.probeMap = probeMap;
+        setPhaseProbeMap(probeMap);
+    }
+
+    Map<? extends Enum, Probe> getProbeMap() {
+        return getPhaseState().getProbeMap();
     }
 
     @Override
     protected void doRun() throws Exception {
-        O operation = getRandomOperation();
-        Probe probe = probeMap.get(operation);
+        long intendedStarted = getMetronome().waitForNext();
+        PhaseState<O> state = getPhaseState();
+        O operation = state.selectOperation();
+        Probe probe = state.getProbe(operation);
 
-        timeStep(operation, probe);
+        timeStep(operation, withIntendedStart(probe, intendedStarted));
 
         increaseIteration();
     }
@@ -22,7 +22,8 @@ import com.hazelcast.simulator.worker.selector.OperationSelectorBuilder;
  * Version of {@link AbstractWorker} which allows full control over the built-in {@link Probe}.
  *
  * This worker provides a {@link #timeStep(Enum, Probe)} method with the built-in {@link Probe} as additional parameter.
- * This can be used to make a finer selection of the measured code block.
+ * This can be used to make a finer selection of the measured code block. If a fixed rate metronome is used, the latencies are
+ * recorded from the intended start time of each iteration.
  *
  * @param <O> Type of {@link Enum} used by the {@link com.hazelcast.simulator.worker.selector.OperationSelector}
  */
@@ -34,7 +35,9 @@ public abstract class AbstractWorkerWithProbeControl<O extends Enum<O>> extends
 
     @Override
     protected void doRun() throws Exception {
-        timeStep(getRandomOperation(), getWorkerProbe());
+        long intendedStarted = getMetronome().waitForNext();
+        PhaseState<O> state = getPhaseState();
+        timeStep(state.selectOperation(), withIntendedStart(getWorkerProbe(state), intendedStarted));
 
         increaseIteration();
     }
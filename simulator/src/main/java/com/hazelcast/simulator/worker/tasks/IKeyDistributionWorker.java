@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.tasks;
+
+import com.hazelcast.simulator.worker.distribution.KeyDistribution;
+
+/**
+ * Interface for {@link IWorker} implementations, which select their keys with a configurable {@link KeyDistribution}.
+ *
+ * The {@link com.hazelcast.simulator.test.TestContainer} injects the key distribution if the test property
+ * <tt>keyDistribution</tt> is set. The {@link KeyDistribution} is created once per test and shared by all worker threads.
+ */
+public interface IKeyDistributionWorker extends IWorker {
+
+    /**
+     * Sets the {@link KeyDistribution}, which is used to select the key indexes.
+     *
+     * Is used by the {@link com.hazelcast.simulator.test.TestContainer} before the worker is started and should not be called
+     * by the user.
+     *
+     * @param keyDistribution the shared {@link KeyDistribution} of the test
+     */
+    void setKeyDistribution(KeyDistribution keyDistribution);
+}
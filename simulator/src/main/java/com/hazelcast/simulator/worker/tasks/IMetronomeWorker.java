@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.tasks;
+
+import com.hazelcast.simulator.worker.metronome.Metronome;
+
+/**
+ * Interface for {@link IWorker} implementations, which can be clocked by an injected {@link Metronome}.
+ *
+ * The {@link com.hazelcast.simulator.test.TestContainer} injects a fixed rate {@link Metronome} if the test property
+ * <tt>targetThroughput</tt> is set or the target throughput is changed by the Coordinator.
+ */
+public interface IMetronomeWorker extends IWorker {
+
+    /**
+     * Sets the {@link Metronome} which is called before each iteration.
+     *
+     * Can be called while the worker is running, e.g. to change the target throughput of a test.
+     *
+     * Is used by the {@link com.hazelcast.simulator.test.TestContainer} and should not be called by the user.
+     *
+     * @param metronome the {@link Metronome} for this worker
+     */
+    void setMetronome(Metronome metronome);
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.tasks;
+
+import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.worker.workload.WorkloadSchedule;
+
+import java.util.Map;
+
+/**
+ * Interface for {@link IWorker} implementations, which follow a {@link WorkloadSchedule} during the run phase.
+ *
+ * The {@link com.hazelcast.simulator.test.TestContainer} injects the {@link WorkloadSchedule} if the test property
+ * <tt>workloadSchedule</tt> is set and switches the workers to the next phase when the current phase has elapsed.
+ */
+public interface IWorkloadPhaseWorker extends IWorker {
+
+    /**
+     * Sets the {@link WorkloadSchedule} of this worker.
+     *
+     * Is called once before the worker is started, so the worker can prepare the operation mix of each phase.
+     *
+     * Is used by the {@link com.hazelcast.simulator.test.TestContainer} and should not be called by the user.
+     *
+     * @param schedule the {@link WorkloadSchedule} for this worker
+     * @throws IllegalArgumentException if the schedule contains an unknown operation
+     */
+    void setWorkloadSchedule(WorkloadSchedule schedule);
+
+    /**
+     * Switches the worker to a phase of its {@link WorkloadSchedule}.
+     *
+     * Can be called while the worker is running. The operation mix and the probes of the phase have to be switched atomically,
+     * so the worker never selects an operation of the new phase without finding its probe.
+     *
+     * Is used by the {@link com.hazelcast.simulator.test.TestContainer} and should not be called by the user.
+     *
+     * @param phaseIndex  the index of the phase in the {@link WorkloadSchedule}
+     * @param workerProbe the built-in {@link Probe} for this phase, <tt>null</tt> if the worker uses individual probes per
+     *                    operation
+     * @param probeMap    the operation probes for this phase, <tt>null</tt> if the worker uses the built-in {@link Probe}
+     */
+    void setWorkloadPhase(int phaseIndex, Probe workerProbe, Map<? extends Enum, Probe> probeMap);
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.tasks;
+
+import com.hazelcast.simulator.probes.Probe;
+import org.HdrHistogram.Histogram;
+
+/**
+ * A {@link Probe} which records the latencies of an iteration from the intended start time of a fixed rate
+ * {@link com.hazelcast.simulator.worker.metronome.Metronome}, so workers with probe control are not affected by coordinated
+ * omission.
+ *
+ * The start times passed by the worker are used as service time start, see {@link Probe#done(long, long)}. A latency value
+ * passed to {@link #recordValue(long)} is extended by the delay between the intended start and the invocation of the time step.
+ *
+ * Each worker thread reuses a single instance, which is re-initialized for every iteration. So the probe must not be used
+ * after the time step has returned.
+ */
+final class IntendedStartProbe implements Probe {
+
+    private Probe probe;
+    private long intendedStarted;
+    private long invoked;
+    private long started;
+
+    Probe init(Probe probe, long intendedStarted) {
+        this.probe = probe;
+        this.intendedStarted = intendedStarted;
+        this.invoked = System.nanoTime();
+        this.started = 0;
+        return this;
+    }
+
+    @Override
+    public boolean isThroughputProbe() {
+        return probe.isThroughputProbe();
+    }
+
+    @Override
+    public void started() {
+        started = System.nanoTime();
+    }
+
+    @Override
+    public void done() {
+        if (started == 0) {
+            throw new IllegalStateException("You have to call started() before done()");
+        }
+        probe.done(intendedStarted, started);
+    }
+
+    @Override
+    public void done(long started) {
+        probe.done(intendedStarted, started);
+    }
+
+    @Override
+    public void done(long intendedStarted, long started) {
+        probe.done(intendedStarted, started);
+    }
+
+    @Override
+    public void recordValue(long latencyNanos) {
+        probe.recordValue(latencyNanos + invoked - intendedStarted);
+    }
+
+    @Override
+    public void recordValues(Histogram latencyHistogram) {
+        probe.recordValues(latencyHistogram);
+    }
+
+    @Override
+    public Histogram getIntervalHistogram() {
+        return probe.getIntervalHistogram();
+    }
+
+    @Override
+    public Histogram getServiceTimeIntervalHistogram() {
+        return probe.getServiceTimeIntervalHistogram();
+    }
+}
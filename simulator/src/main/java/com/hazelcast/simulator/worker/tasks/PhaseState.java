@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.tasks;
+
+import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.worker.selector.OperationSelector;
+
+import java.util.Map;
+
+/**
+ * Immutable state of the current workload phase of an {@link AbstractWorker}.
+ *
+ * The {@link OperationSelector} and the probes of a phase are published together with a single volatile write. So a worker
+ * thread, which reads the state once per iteration, always finds the probe of the selected operation, even if the phase is
+ * switched concurrently.
+ *
+ * The class is public, so the {@link WorkerLoop} implementations can read it, but its members are package private.
+ *
+ * @param <O> Type of {@link Enum} used by the {@link OperationSelector}
+ */
+public final class PhaseState<O extends Enum<O>> {
+
+    private final OperationSelector<O> selector;
+    private final Probe workerProbe;
+    private final Map<? extends Enum, Probe> probeMap;
+
+    /**
+     * Creates a {@link PhaseState}.
+     *
+     * @param selector    the {@link OperationSelector} of the phase, <tt>null</tt> if the worker doesn't select operations
+     * @param workerProbe the built-in {@link Probe} of the phase, <tt>null</tt> to use the injected worker probe
+     * @param probeMap    the operation probes of the phase, <tt>null</tt> if the worker uses the built-in {@link Probe}
+     */
+    PhaseState(OperationSelector<O> selector, Probe workerProbe, Map<? extends Enum, Probe> probeMap) {
+        this.selector = selector;
+        this.workerProbe = workerProbe;
+        this.probeMap = probeMap;
+    }
+
+    PhaseState<O> withProbeMap(Map<? extends Enum, Probe> probeMap) {
+        return new PhaseState<O>(selector, workerProbe, probeMap);
+    }
+
+    OperationSelector<O> getSelector() {
+        return selector;
+    }
+
+    O selectOperation() {
+        return selector.select();
+    }
+
+    Probe getWorkerProbe() {
+        return workerProbe;
+    }
+
+    Map<? extends Enum, Probe> getProbeMap() {
+        return probeMap;
+    }
+
+    Probe getProbe(O operation) {
+        return probeMap.get(operation);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.tasks;
+
+import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.test.TestContext;
+import com.hazelcast.simulator.worker.metronome.Metronome;
+
+import java.util.Map;
+
+/**
+ * Loop of a worker thread, which replaces the default loop of {@link AbstractWorker#run()}.
+ *
+ * The implementations are generated per worker class by the {@link WorkerLoopFactory}. They are stateless, so a single instance
+ * is shared by all worker threads of a test.
+ *
+ * Each generated class is defined in its own {@link ClassLoader}, so it's not part of the runtime package of the worker base
+ * classes. It calls their package private methods via the static helper methods of this class. The time step method of the
+ * worker is called directly by the generated class, so the JIT compiler sees a single implementation at this call.
+ */
+public abstract class WorkerLoop {
+
+    /**
+     * Runs the iterations of the worker until the worker or its {@link TestContext} is stopped.
+     *
+     * @param worker the worker of the current thread, is an {@link AbstractWorker}
+     */
+    protected abstract void runLoop(IWorker worker) throws Exception;
+
+    protected static TestContext getTestContext(AbstractWorker worker) {
+        return worker.getTestContext();
+    }
+
+    protected static boolean isWorkerStopped(AbstractWorker worker) {
+        return worker.isWorkerStopped();
+    }
+
+    protected static Metronome getMetronome(AbstractWorker worker) {
+        return worker.getMetronome();
+    }
+
+    protected static PhaseState getPhaseState(AbstractWorker worker) {
+        return worker.getPhaseState();
+    }
+
+    protected static Enum selectOperation(PhaseState state) {
+        return state.selectOperation();
+    }
+
+    protected static Map<? extends Enum, Probe> getProbeMap(PhaseState state) {
+        return state.getProbeMap();
+    }
+
+    protected static Probe getWorkerProbe(AbstractWorker worker) {
+        return worker.getWorkerProbe();
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static Probe getWorkerProbe(AbstractWorker worker, PhaseState state) {
+        return worker.getWorkerProbe(state);
+    }
+
+    protected static Probe withIntendedStart(AbstractWorker worker, Probe probe, long intendedStarted) {
+        return worker.withIntendedStart(probe, intendedStarted);
+    }
+
+    protected static void increaseIteration(AbstractWorker worker) {
+        worker.increaseIteration();
+    }
+
+    /**
+     * Creates a lookup table of the operation probes of an {@link AbstractWorkerWithMultipleProbes}, which is indexed by the
+     * ordinal of the operation.
+     *
+     * @param operation an operation of the worker, to determine the number of operations
+     * @param probeMap  the operation probes of the worker, can be <tt>null</tt>
+     * @return the lookup table of the operation probes
+     */
+    protected static Probe[] createProbeTable(Enum operation, Map<? extends Enum, Probe> probeMap) {
+        Probe[] probeTable = new Probe[operation.getDeclaringClass().getEnumConstants().length];
+        if (probeMap != null) {
+            for (Map.Entry<? extends Enum, Probe> entry : probeMap.entrySet()) {
+                probeTable[entry.getKey().ordinal()] = entry.getValue();
+            }
+        }
+        return probeTable;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.tasks;
+
+import com.hazelcast.simulator.worker.loop.LoopCodeGenerator;
+
+import java.lang.reflect.Method;
+
+import static java.lang.String.format;
+import static java.lang.reflect.Modifier.isPublic;
+
+/**
+ * Generates the source code of a {@link WorkerLoop} for a worker class.
+ *
+ * The generated loop is a copy of the default loop of the worker class, but the call of the time step method and each call to
+ * the {@link com.hazelcast.simulator.worker.metronome.Metronome} and the {@link com.hazelcast.simulator.probes.Probe} is
+ * located in the generated class. So the JIT compiler profiles them per worker class. The package private methods of the
+ * worker base classes are called via the static helper methods of {@link WorkerLoop}.
+ *
+ * The loop class is not part of the runtime package of the worker, so the worker class, its time step method and the operation
+ * type have to be public. Workers which override {@link AbstractWorker#doRun()} are not supported, since their loop has no time
+ * step call which could be specialized.
+ */
+final class WorkerLoopCodeGenerator extends LoopCodeGenerator {
+
+    private final String packageName;
+    private final String simpleClassName;
+    private final Class<?> workerClass;
+    private final WorkerLoopType loopType;
+
+    WorkerLoopCodeGenerator(String packageName, String simpleClassName, Class<?> workerClass, WorkerLoopType loopType) {
+        this.packageName = packageName;
+        this.simpleClassName = simpleClassName;
+        this.workerClass = workerClass;
+        this.loopType = loopType;
+    }
+
+    @Override
+    protected void appendSourceCode() {
+        Method timeStepMethod = getTimeStepMethod();
+        String workerType = getTypeName(workerClass);
+        if (!packageName.isEmpty()) {
+            appendLine(0, "package " + packageName + ";");
+            appendLine(0, "");
+        }
+        appendLine(0, "import com.hazelcast.simulator.probes.Probe;");
+        appendLine(0, "import com.hazelcast.simulator.test.TestContext;");
+        appendLine(0, "import com.hazelcast.simulator.worker.tasks.IWorker;");
+        appendLine(0, "import com.hazelcast.simulator.worker.tasks.PhaseState;");
+        appendLine(0, "import com.hazelcast.simulator.worker.tasks.WorkerLoop;");
+        appendLine(0, "");
+        appendLine(0, "import java.util.Map;");
+        appendLine(0, "");
+        appendLine(0, "/**");
+        appendLine(0, format(" * Worker loop for {@code %s}, generated by the WorkerLoopFactory.", workerClass.getName()));
+        appendLine(0, " */");
+        appendLine(0, "@SuppressWarnings(\"unchecked\")");
+        appendLine(0, format("public final class %s extends WorkerLoop {", simpleClassName));
+        appendLine(0, "");
+        appendLine(1, "@Override");
+        appendLine(1, "protected void runLoop(IWorker iWorker) throws Exception {");
+        appendLine(2, format("%s worker = (%s) iWorker;", workerType, workerType));
+        appendLine(2, "TestContext testContext = getTestContext(worker);");
+        if (loopType == WorkerLoopType.MULTIPLE_PROBES) {
+            appendLine(2, "Map probeMap = null;");
+            appendLine(2, "Probe[] probeTable = null;");
+        }
+        appendLine(2, "while (!testContext.isStopped() && !isWorkerStopped(worker)) {");
+        appendIteration(timeStepMethod);
+        appendLine(3, "increaseIteration(worker);");
+        appendLine(2, "}");
+        appendLine(1, "}");
+        appendLine(0, "}");
+    }
+
+    @SuppressWarnings("checkstyle:magicnumber")
+    private void appendIteration(Method timeStepMethod) {
+        String operationType = (loopType.hasOperation() ? getTypeName(timeStepMethod.getParameterTypes()[0]) : null);
+        switch (loopType) {
+            case OPERATION:
+                appendTimedTimeStep(format("worker.timeStep((%s) selectOperation(state));", operationType));
+                break;
+            case MONOTONIC:
+                appendTimedTimeStep("worker.timeStep();");
+                break;
+            case PROBE_CONTROL:
+                appendLine(3, "long intendedStarted = getMetronome(worker).waitForNext();");
+                appendLine(3, "PhaseState state = getPhaseState(worker);");
+                appendLine(3, "Probe probe = getWorkerProbe(worker, state);");
+                appendLine(3, format("worker.timeStep((%s) selectOperation(state), "
+                        + "withIntendedStart(worker, probe, intendedStarted));", operationType));
+                break;
+            case MONOTONIC_PROBE_CONTROL:
+                appendLine(3, "long intendedStarted = getMetronome(worker).waitForNext();");
+                appendLine(3, "worker.timeStep(withIntendedStart(worker, getWorkerProbe(worker), intendedStarted));");
+                break;
+            case MULTIPLE_PROBES:
+                // the operation and the probe map are read from the same phase state, so the probe is never missing
+                appendLine(3, "long intendedStarted = getMetronome(worker).waitForNext();");
+                appendLine(3, "PhaseState state = getPhaseState(worker);");
+                appendLine(3, "Enum operation = selectOperation(state);");
+                appendLine(3, "Map currentProbeMap = getProbeMap(state);");
+                appendLine(3, "if (currentProbeMap != probeMap) {");
+                appendLine(4, "probeMap = currentProbeMap;");
+                appendLine(4, "probeTable = createProbeTable(operation, probeMap);");
+                appendLine(3, "}");
+                appendLine(3, "Probe probe = probeTable[operation.ordinal()];");
+                appendLine(3, format("worker.timeStep((%s) operation, withIntendedStart(worker, probe, intendedStarted));",
+                        operationType));
+                break;
+            default:
+                throw new IllegalStateException("Unsupported loop type " + loopType);
+        }
+    }
+
+    @SuppressWarnings("checkstyle:magicnumber")
+    private void appendTimedTimeStep(String timeStepCall) {
+        appendLine(3, "long intendedStarted = getMetronome(worker).waitForNext();");
+        appendLine(3, "long started = System.nanoTime();");
+        appendLine(3, "PhaseState state = getPhaseState(worker);");
+        appendLine(3, "Probe probe = getWorkerProbe(worker, state);");
+        appendLine(3, timeStepCall);
+        appendLine(3, "if (intendedStarted == 0) {");
+        appendLine(4, "probe.recordValue(System.nanoTime() - started);");
+        appendLine(3, "} else {");
+        appendLine(4, "probe.done(intendedStarted, started);");
+        appendLine(3, "}");
+    }
+
+    /**
+     * Finds the implementation of the time step method of the loop type, which is called directly by the generated loop.
+     */
+    private Method getTimeStepMethod() {
+        if (loopType == WorkerLoopType.DO_RUN) {
+            throw new IllegalArgumentException(format("%s overrides doRun(), so there is no time step call to generate",
+                    workerClass.getName()));
+        }
+        checkPublicClass(workerClass);
+        for (Class<?> classType = workerClass; classType != null && classType != loopType.getBaseClass();
+                classType = classType.getSuperclass()) {
+            for (Method method : classType.getDeclaredMethods()) {
+                if (!"timeStep".equals(method.getName()) || method.isBridge() || !loopType.isTimeStepMethod(method)) {
+                    continue;
+                }
+                if (!isPublic(method.getModifiers())) {
+                    throw new IllegalArgumentException(format("Time step method %s.%s() is not public",
+                            classType.getName(), method.getName()));
+                }
+                checkPublicClass(classType);
+                if (loopType.hasOperation()) {
+                    checkPublicClass(method.getParameterTypes()[0]);
+                }
+                return method;
+            }
+        }
+        throw new IllegalArgumentException(format("No time step method found in %s", workerClass.getName()));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.tasks;
+
+import com.hazelcast.simulator.worker.loop.LoopClassCompiler;
+
+import static com.hazelcast.simulator.worker.loop.LoopClassCompiler.compileLoopClass;
+import static com.hazelcast.simulator.worker.loop.LoopClassCompiler.createSimpleClassName;
+import static com.hazelcast.simulator.worker.loop.LoopClassCompiler.getPackageName;
+import static java.lang.String.format;
+
+/**
+ * Generates a specialized loop for the worker threads of a test, which replaces the default loop of {@link AbstractWorker}.
+ *
+ * The default loop is shared by all worker classes. As soon as a worker JVM runs several tests, the JIT compiler sees many
+ * implementations at the calls of the time step method, the {@link com.hazelcast.simulator.worker.metronome.Metronome} and the
+ * {@link com.hazelcast.simulator.probes.Probe}, so it cannot inline them. The generated loop class is compiled per worker
+ * class by the {@link LoopClassCompiler}, so those calls stay monomorphic. The loop of an
+ * {@link AbstractWorkerWithMultipleProbes} looks up the operation probes in a table, which is indexed by the ordinal of the
+ * operation, instead of a map.
+ *
+ * The loop class is defined in its own child of the {@link ClassLoader} of the worker class, so it can be unloaded after the
+ * test. Therefore it can only call the time step method if the worker class, the time step method and the operation type are
+ * public. If no loop class can be generated, e.g. because no JDK is available, a class is not public or the worker overrides
+ * {@link AbstractWorker#doRun()}, the default loop of the worker is used.
+ */
+public final class WorkerLoopFactory {
+
+    private static final String CLASS_NAME_PREFIX = "GeneratedWorkerLoop_";
+
+    private final WorkerLoopType loopType;
+    private final String className;
+    private final WorkerLoop workerLoop;
+
+    /**
+     * Generates and compiles the loop for a worker class.
+     *
+     * @param workerClass the worker class, has to extend {@link AbstractWorker}
+     * @throws IllegalArgumentException if the worker class is not supported
+     * @throws Exception                if the loop could not be instantiated
+     */
+    public WorkerLoopFactory(Class<? extends IWorker> workerClass) throws Exception {
+        if (!isSupported(workerClass)) {
+            throw new IllegalArgumentException(format("%s doesn't extend %s", workerClass.getName(),
+                    AbstractWorker.class.getSimpleName()));
+        }
+
+        String packageName = getPackageName(workerClass);
+        String simpleClassName = createSimpleClassName(CLASS_NAME_PREFIX, workerClass);
+        this.loopType = WorkerLoopType.getLoopType(workerClass);
+        this.className = (packageName.isEmpty() ? simpleClassName : packageName + '.' + simpleClassName);
+
+        WorkerLoopCodeGenerator generator = new WorkerLoopCodeGenerator(packageName, simpleClassName, workerClass, loopType);
+        Class<? extends WorkerLoop> loopClass = compileLoopClass(className, generator, WorkerLoop.class,
+                workerClass.getClassLoader(), "the default loop");
+        this.workerLoop = (loopClass == null ? null : loopClass.newInstance());
+    }
+
+    /**
+     * Checks if a loop can be generated for a worker class.
+     *
+     * @param workerClass the worker class
+     * @return <tt>true</tt> if the worker class extends {@link AbstractWorker}, <tt>false</tt> otherwise
+     */
+    public static boolean isSupported(Class<? extends IWorker> workerClass) {
+        return AbstractWorker.class.isAssignableFrom(workerClass);
+    }
+
+    /**
+     * Sets the generated loop on a worker, which is used instead of the default loop in {@link AbstractWorker#run()}. Does
+     * nothing if the loop could not be generated.
+     *
+     * Is used by the {@link com.hazelcast.simulator.test.TestContainer} and should not be called by the user.
+     *
+     * @param worker the worker, has to be an instance of the worker class of this factory
+     */
+    public void injectWorkerLoop(IWorker worker) {
+        if (workerLoop != null) {
+            ((AbstractWorker) worker).setWorkerLoop(workerLoop);
+        }
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public boolean isGenerated() {
+        return workerLoop != null;
+    }
+
+    WorkerLoopType getLoopType() {
+        return loopType;
+    }
+
+    WorkerLoop getWorkerLoop() {
+        return workerLoop;
+    }
+}
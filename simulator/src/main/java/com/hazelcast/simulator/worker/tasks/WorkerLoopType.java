@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.tasks;
+
+import com.hazelcast.simulator.probes.Probe;
+
+import java.lang.reflect.Method;
+
+import static com.hazelcast.simulator.utils.EmptyStatement.ignore;
+
+/**
+ * Defines the loop, which is generated by the {@link WorkerLoopFactory} for a worker class.
+ *
+ * The loop type is selected by the class which implements {@link AbstractWorker#doRun()}, so the generated loop does the same as
+ * the default loop of the worker.
+ */
+enum WorkerLoopType {
+
+    /**
+     * Loop of an {@link AbstractWorker}, which calls {@link AbstractWorker#timeStep(Enum)} with the selected operation.
+     */
+    OPERATION(AbstractWorker.class, Enum.class),
+
+    /**
+     * Loop of an {@link AbstractMonotonicWorker}, which calls {@link AbstractMonotonicWorker#timeStep()}.
+     */
+    MONOTONIC(AbstractMonotonicWorker.class),
+
+    /**
+     * Loop of an {@link AbstractWorkerWithProbeControl}, which passes the worker probe to the time step.
+     */
+    PROBE_CONTROL(AbstractWorkerWithProbeControl.class, Enum.class, Probe.class),
+
+    /**
+     * Loop of an {@link AbstractMonotonicWorkerWithProbeControl}, which passes the worker probe to the time step.
+     */
+    MONOTONIC_PROBE_CONTROL(AbstractMonotonicWorkerWithProbeControl.class, Probe.class),
+
+    /**
+     * Loop of an {@link AbstractWorkerWithMultipleProbes}, which looks up the operation probes in a table.
+     */
+    MULTIPLE_PROBES(AbstractWorkerWithMultipleProbes.class, Enum.class, Probe.class),
+
+    /**
+     * Loop of all other workers, e.g. asynchronous workers or workers which override {@link AbstractWorker#doRun()}. No loop is
+     * generated for them.
+     */
+    DO_RUN(null);
+
+    private final Class<? extends AbstractWorker> baseClass;
+    private final Class<?>[] timeStepParameterTypes;
+
+    WorkerLoopType(Class<? extends AbstractWorker> baseClass, Class<?>... timeStepParameterTypes) {
+        this.baseClass = baseClass;
+        this.timeStepParameterTypes = timeStepParameterTypes;
+    }
+
+    Class<? extends AbstractWorker> getBaseClass() {
+        return baseClass;
+    }
+
+    /**
+     * Checks if the time step method of this loop type passes the operation as first argument.
+     *
+     * @return <tt>true</tt> if the time step method has an operation parameter, <tt>false</tt> otherwise
+     */
+    boolean hasOperation() {
+        return timeStepParameterTypes.length > 0 && timeStepParameterTypes[0] == Enum.class;
+    }
+
+    /**
+     * Checks if a method has the parameters of the time step method of this loop type. The operation parameter can have any
+     * enum type.
+     *
+     * @param method the method to check
+     * @return <tt>true</tt> if the method matches the time step method, <tt>false</tt> otherwise
+     */
+    boolean isTimeStepMethod(Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        if (parameterTypes.length != timeStepParameterTypes.length) {
+            return false;
+        }
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (!timeStepParameterTypes[i].isAssignableFrom(parameterTypes[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static WorkerLoopType getLoopType(Class<?> workerClass) {
+        Class<?> declaringClass = getDoRunDeclaringClass(workerClass);
+        for (WorkerLoopType loopType : values()) {
+            if (loopType.baseClass == declaringClass) {
+                return loopType;
+            }
+        }
+        return DO_RUN;
+    }
+
+    private static Class<?> getDoRunDeclaringClass(Class<?> workerClass) {
+        for (Class<?> classType = workerClass; classType != null; classType = classType.getSuperclass()) {
+            try {
+                classType.getDeclaredMethod("doRun");
+                return classType;
+            } catch (NoSuchMethodException e) {
+                ignore(e);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.timestep;
+
+import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.test.TestContext;
+import com.hazelcast.simulator.worker.selector.IndexSelector;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static com.hazelcast.simulator.utils.CommonUtils.rethrow;
+
+/**
+ * {@link TimeStepLoop} which calls the time step methods via reflection.
+ *
+ * Is used if no loop class can be generated for a test, e.g. if the Worker is running on a JRE.
+ */
+final class ReflectionTimeStepLoop extends TimeStepLoop {
+
+    private final Method[] methods;
+
+    ReflectionTimeStepLoop(Method[] methods) {
+        this.methods = methods;
+    }
+
+    @Override
+    protected void runLoop() throws Exception {
+        Object[][] arguments = new Object[methods.length][];
+        for (int i = 0; i < methods.length; i++) {
+            arguments[i] = (methods[i].getParameterTypes().length == 0 ? new Object[0] : new Object[]{getThreadState()});
+        }
+        TestContext testContext = getTestContext();
+        Object testInstance = getTestInstance();
+        IndexSelector selector = getSelector();
+        while (!testContext.isStopped()) {
+            long intendedStarted = getMetronome().waitForNext();
+            int index = selector.selectIndex();
+            Probe probe = getProbe(index);
+            long started = System.nanoTime();
+            try {
+                methods[index].invoke(testInstance, arguments[index]);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw rethrow(cause);
+            }
+            recordLatency(probe, intendedStarted, started);
+        }
+    }
+}
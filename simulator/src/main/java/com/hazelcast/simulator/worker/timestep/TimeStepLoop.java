@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.timestep;
+
+import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.test.TestContext;
+import com.hazelcast.simulator.worker.metronome.Metronome;
+import com.hazelcast.simulator.worker.selector.IndexSelector;
+import com.hazelcast.simulator.worker.tasks.IMetronomeWorker;
+
+import static com.hazelcast.simulator.utils.CommonUtils.rethrow;
+import static com.hazelcast.simulator.worker.metronome.MetronomeFactory.withFixedIntervalMs;
+
+/**
+ * Loop of a worker thread, which calls the {@link com.hazelcast.simulator.test.annotations.TimeStep} methods of a test.
+ *
+ * Each iteration selects a time step method by its probability, calls it with the thread state object of the worker thread and
+ * records its latency with the {@link Probe} of the method. Can be clocked by a {@link Metronome}. If a fixed rate
+ * {@link Metronome} is used, the latency is recorded from the intended start time of each call, side by side with its service
+ * time.
+ *
+ * The implementations are created per test class by the {@link TimeStepLoopFactory}. Each worker thread has its own instance.
+ */
+public abstract class TimeStepLoop implements IMetronomeWorker {
+
+    private static final Metronome EMPTY_METRONOME = withFixedIntervalMs(0);
+
+    private volatile Metronome metronome = EMPTY_METRONOME;
+
+    private TestContext testContext;
+    private Object testInstance;
+    private TimeStepModel model;
+    private IndexSelector selector;
+    private Probe[] probes;
+    private Object threadState;
+
+    @Override
+    public final void run() {
+        try {
+            // the thread state is created by the worker thread, so it's allocated close to the thread which uses it
+            threadState = model.createThreadState(testInstance);
+            runLoop();
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public final void setMetronome(Metronome metronome) {
+        this.metronome = metronome;
+    }
+
+    @Override
+    public void afterCompletion() throws Exception {
+    }
+
+    /**
+     * Calls the time step methods until the {@link TestContext} is stopped.
+     */
+    protected abstract void runLoop() throws Exception;
+
+    protected final TestContext getTestContext() {
+        return testContext;
+    }
+
+    protected final Metronome getMetronome() {
+        return metronome;
+    }
+
+    protected final Object getTestInstance() {
+        return testInstance;
+    }
+
+    protected final Object getThreadState() {
+        return threadState;
+    }
+
+    protected final IndexSelector getSelector() {
+        return selector;
+    }
+
+    protected final Probe getProbe(int index) {
+        return probes[index];
+    }
+
+    protected static void recordLatency(Probe probe, long intendedStarted, long started) {
+        if (intendedStarted == 0) {
+            probe.recordValue(System.nanoTime() - started);
+        } else {
+            probe.done(intendedStarted, started);
+        }
+    }
+
+    void init(TestContext testContext, Object testInstance, TimeStepModel model, Probe[] probes) {
+        this.testContext = testContext;
+        this.testInstance = testInstance;
+        this.model = model;
+        this.selector = model.newSelector();
+        this.probes = probes;
+    }
+}
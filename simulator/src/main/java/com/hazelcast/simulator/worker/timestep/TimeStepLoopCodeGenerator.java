@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.timestep;
+
+import com.hazelcast.simulator.worker.loop.LoopCodeGenerator;
+
+import java.lang.reflect.Method;
+
+import static java.lang.String.format;
+import static java.lang.reflect.Modifier.isPublic;
+
+/**
+ * Generates the source code of a {@link TimeStepLoop} for a test class.
+ *
+ * The generated loop calls the time step methods directly on the test instance. The time step method is selected by its index
+ * and each call is followed by the latency recording with its own {@link com.hazelcast.simulator.probes.Probe}, so there is no
+ * operation enum, no switch over the operations in the test and no probe lookup per call. If the test has a single time step
+ * method, there is no selection at all.
+ *
+ * The loop class is not part of the runtime package of the test, so the test class, the time step methods and the thread state
+ * class have to be public.
+ */
+final class TimeStepLoopCodeGenerator extends LoopCodeGenerator {
+
+    private final String packageName;
+    private final String simpleClassName;
+    private final TimeStepModel model;
+
+    TimeStepLoopCodeGenerator(String packageName, String simpleClassName, TimeStepModel model) {
+        this.packageName = packageName;
+        this.simpleClassName = simpleClassName;
+        this.model = model;
+    }
+
+    @Override
+    @SuppressWarnings("checkstyle:magicnumber")
+    protected void appendSourceCode() {
+        checkPublicAccess();
+        if (!packageName.isEmpty()) {
+            appendLine(0, "package " + packageName + ";");
+            appendLine(0, "");
+        }
+        appendLine(0, "import com.hazelcast.simulator.probes.Probe;");
+        appendLine(0, "import com.hazelcast.simulator.test.TestContext;");
+        appendLine(0, "import com.hazelcast.simulator.worker.selector.IndexSelector;");
+        appendLine(0, "import com.hazelcast.simulator.worker.timestep.TimeStepLoop;");
+        appendLine(0, "");
+        appendLine(0, "/**");
+        appendLine(0, format(" * Time step loop for {@code %s}, generated by the TimeStepLoopFactory.",
+                model.getTestClass().getName()));
+        appendLine(0, " */");
+        appendLine(0, format("public final class %s extends TimeStepLoop {", simpleClassName));
+        appendLine(0, "");
+        appendLine(1, "@Override");
+        appendLine(1, "protected void runLoop() throws Exception {");
+        appendLocalVariables();
+        appendLine(2, "while (!testContext.isStopped()) {");
+        appendLine(3, "long intendedStarted = getMetronome().waitForNext();");
+        appendLine(3, "long started;");
+        if (model.getTimeStepCount() == 1) {
+            appendTimeStep(3, 0);
+        } else {
+            appendLine(3, "switch (selector.selectIndex()) {");
+            for (int index = 0; index < model.getTimeStepCount(); index++) {
+                appendLine(4, format("case %d:", index));
+                appendTimeStep(5, index);
+                appendLine(5, "break;");
+            }
+            appendLine(4, "default:");
+            appendLine(5, "throw new IllegalStateException(\"Unknown time step index\");");
+            appendLine(3, "}");
+        }
+        appendLine(2, "}");
+        appendLine(1, "}");
+        appendLine(0, "}");
+    }
+
+    private void appendLocalVariables() {
+        String testType = getTypeName(model.getTestClass());
+        appendLine(2, "TestContext testContext = getTestContext();");
+        appendLine(2, format("%s testInstance = (%s) getTestInstance();", testType, testType));
+        Class<?> threadStateClass = model.getThreadStateClass();
+        if (threadStateClass != null) {
+            String threadStateType = getTypeName(threadStateClass);
+            appendLine(2, format("%s threadState = (%s) getThreadState();", threadStateType, threadStateType));
+        }
+        if (model.getTimeStepCount() > 1) {
+            appendLine(2, "IndexSelector selector = getSelector();");
+        }
+        for (int index = 0; index < model.getTimeStepCount(); index++) {
+            appendLine(2, format("Probe probe%d = getProbe(%d);", index, index));
+        }
+    }
+
+    private void appendTimeStep(int indentLevel, int index) {
+        Method method = model.getTimeStepMethods().get(index);
+        String argument = (method.getParameterTypes().length == 0 ? "" : "threadState");
+        appendLine(indentLevel, "started = System.nanoTime();");
+        appendLine(indentLevel, format("testInstance.%s(%s);", method.getName(), argument));
+        appendLine(indentLevel, format("recordLatency(probe%d, intendedStarted, started);", index));
+    }
+
+    private void checkPublicAccess() {
+        checkPublicClass(model.getTestClass());
+        if (model.getThreadStateClass() != null) {
+            checkPublicClass(model.getThreadStateClass());
+        }
+        for (Method method : model.getTimeStepMethods()) {
+            if (!isPublic(method.getModifiers())) {
+                throw new IllegalArgumentException(format("Time step method %s.%s() is not public",
+                        method.getDeclaringClass().getName(), method.getName()));
+            }
+        }
+    }
+}
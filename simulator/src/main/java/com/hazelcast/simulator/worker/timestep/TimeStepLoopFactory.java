@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.timestep;
+
+import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.test.TestContext;
+import com.hazelcast.simulator.worker.loop.LoopClassCompiler;
+
+import java.lang.reflect.Method;
+
+import static com.hazelcast.simulator.worker.loop.LoopClassCompiler.compileLoopClass;
+import static com.hazelcast.simulator.worker.loop.LoopClassCompiler.createSimpleClassName;
+import static com.hazelcast.simulator.worker.loop.LoopClassCompiler.getPackageName;
+
+/**
+ * Creates the {@link TimeStepLoop} instances for the worker threads of a test with
+ * {@link com.hazelcast.simulator.test.annotations.TimeStep} methods.
+ *
+ * The loop class is generated per test class by the {@link TimeStepLoopCodeGenerator} and compiled by the
+ * {@link LoopClassCompiler}. It's defined in its own child of the {@link ClassLoader} of the test class, so it can be unloaded
+ * after the test, but it can just call public time step methods of public classes. If no loop class can be generated, the time
+ * step methods are called via reflection.
+ */
+public final class TimeStepLoopFactory {
+
+    private static final String CLASS_NAME_PREFIX = "GeneratedTimeStepLoop_";
+
+    private final TimeStepModel model;
+    private final String className;
+    private final Class<? extends TimeStepLoop> loopClass;
+
+    /**
+     * Creates the factory for the time step loops of a test.
+     *
+     * @param model        the {@link TimeStepModel} of the test class
+     * @param generateLoop <tt>true</tt> if the loop class should be generated, <tt>false</tt> to call the time step methods via
+     *                     reflection
+     */
+    public TimeStepLoopFactory(TimeStepModel model, boolean generateLoop) {
+        this.model = model;
+        this.loopClass = (generateLoop ? generateLoopClass(model) : null);
+        this.className = (loopClass == null ? ReflectionTimeStepLoop.class.getName() : loopClass.getName());
+    }
+
+    /**
+     * Creates the {@link TimeStepLoop} for a worker thread, which creates its own thread state object.
+     *
+     * @param testContext  the {@link TestContext} of the test
+     * @param testInstance the test instance
+     * @param probes       the {@link Probe} of each time step method, in the order of {@link TimeStepModel#getTimeStepMethods()}
+     * @return the {@link TimeStepLoop}
+     * @throws Exception if the {@link TimeStepLoop} could not be created
+     */
+    public TimeStepLoop createLoop(TestContext testContext, Object testInstance, Probe[] probes) throws Exception {
+        TimeStepLoop loop;
+        if (loopClass != null) {
+            loop = loopClass.newInstance();
+        } else {
+            loop = new ReflectionTimeStepLoop(model.getTimeStepMethods().toArray(new Method[0]));
+        }
+        loop.init(testContext, testInstance, model, probes);
+        return loop;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public boolean isGenerated() {
+        return loopClass != null;
+    }
+
+    private static Class<? extends TimeStepLoop> generateLoopClass(TimeStepModel model) {
+        Class<?> testClass = model.getTestClass();
+        String packageName = getPackageName(testClass);
+        String simpleClassName = createSimpleClassName(CLASS_NAME_PREFIX, testClass);
+        String className = (packageName.isEmpty() ? simpleClassName : packageName + '.' + simpleClassName);
+
+        TimeStepLoopCodeGenerator generator = new TimeStepLoopCodeGenerator(packageName, simpleClassName, model);
+        return compileLoopClass(className, generator, TimeStepLoop.class, testClass.getClassLoader(), "reflection");
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.timestep;
+
+import com.hazelcast.simulator.test.IllegalTestException;
+import com.hazelcast.simulator.test.annotations.TimeStep;
+import com.hazelcast.simulator.worker.selector.IndexSelector;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Analyses the {@link TimeStep} annotated methods of a test class.
+ *
+ * The time step methods are sorted by name, so the index of a time step method is the same on all Workers. Methods with a
+ * probability of <tt>0</tt> are skipped.
+ */
+public final class TimeStepModel {
+
+    private static final Comparator<Method> METHOD_NAME_COMPARATOR = new Comparator<Method>() {
+        @Override
+        public int compare(Method method1, Method method2) {
+            return method1.getName().compareTo(method2.getName());
+        }
+    };
+
+    private final List<Method> timeStepMethods = new ArrayList<Method>();
+    private final List<Double> probabilities = new ArrayList<Double>();
+
+    private final Class<?> testClass;
+    private final Class<?> threadStateClass;
+    private final Constructor<?> threadStateConstructor;
+    private final IndexSelector selector;
+
+    /**
+     * Creates the model of the time step methods of a test class.
+     *
+     * @param testClass the test class
+     * @param methods   the {@link TimeStep} annotated methods of the test class
+     * @throws IllegalTestException if the time step methods are invalid
+     */
+    public TimeStepModel(Class<?> testClass, List<Method> methods) {
+        this.testClass = testClass;
+
+        List<Method> sortedMethods = new ArrayList<Method>(methods);
+        Collections.sort(sortedMethods, METHOD_NAME_COMPARATOR);
+        initTimeStepMethods(sortedMethods);
+
+        this.threadStateClass = getThreadStateClass(sortedMethods);
+        this.threadStateConstructor = getThreadStateConstructor();
+        this.selector = createSelector();
+    }
+
+    public Class<?> getTestClass() {
+        return testClass;
+    }
+
+    public List<Method> getTimeStepMethods() {
+        return timeStepMethods;
+    }
+
+    public int getTimeStepCount() {
+        return timeStepMethods.size();
+    }
+
+    public double getProbability(int index) {
+        return probabilities.get(index);
+    }
+
+    /**
+     * Returns the class of the per-thread state object of the time step methods.
+     *
+     * @return the thread state class or <tt>null</tt> if no time step method has a thread state parameter
+     */
+    public Class<?> getThreadStateClass() {
+        return threadStateClass;
+    }
+
+    /**
+     * Returns the name of the {@link com.hazelcast.simulator.probes.Probe} of a time step method, e.g. <tt>PutProbe</tt> for
+     * the method <tt>put()</tt>.
+     *
+     * @param index the index of the time step method
+     * @return the probe name
+     */
+    public String getProbeName(int index) {
+        String methodName = timeStepMethods.get(index).getName();
+        return Character.toUpperCase(methodName.charAt(0)) + methodName.substring(1) + "Probe";
+    }
+
+    /**
+     * Creates a new {@link IndexSelector} to select the index of the next time step method.
+     *
+     * The alias table is shared, but each worker thread needs its own instance.
+     *
+     * @return the {@link IndexSelector}
+     */
+    public IndexSelector newSelector() {
+        return new IndexSelector(selector);
+    }
+
+    /**
+     * Creates a new per-thread state object.
+     *
+     * @param testInstance the test instance, which is passed to the constructor if required
+     * @return the thread state object or <tt>null</tt> if the time step methods have no thread state parameter
+     * @throws IllegalTestException if the thread state object cannot be created
+     */
+    public Object createThreadState(Object testInstance) {
+        if (threadStateConstructor == null) {
+            return null;
+        }
+        try {
+            if (threadStateConstructor.getParameterTypes().length == 0) {
+                return threadStateConstructor.newInstance();
+            }
+            return threadStateConstructor.newInstance(testInstance);
+        } catch (Exception e) {
+            throw new IllegalTestException("Could not create thread state of type " + threadStateClass.getName(), e);
+        }
+    }
+
+    private void initTimeStepMethods(List<Method> methods) {
+        Method defaultMethod = null;
+        double probSum = 0;
+        for (Method method : methods) {
+            double probability = method.getAnnotation(TimeStep.class).prob();
+            if (probability == TimeStep.DEFAULT_PROBABILITY) {
+                if (defaultMethod != null) {
+                    throw new IllegalTestException(format("Only a single time step method can omit its probability, but found"
+                            + " %s and %s in %s", defaultMethod.getName(), method.getName(), testClass.getName()));
+                }
+                defaultMethod = method;
+                continue;
+            }
+            if (probability < 0 || probability > 1 || Double.isNaN(probability)) {
+                throw new IllegalTestException(format("Probability of time step method %s.%s() has to be between 0.0 and 1.0,"
+                        + " but was %s", testClass.getName(), method.getName(), probability));
+            }
+            probSum += probability;
+        }
+
+        for (Method method : methods) {
+            double probability = method.getAnnotation(TimeStep.class).prob();
+            if (method == defaultMethod) {
+                probability = Math.max(0.0, 1.0 - probSum);
+            }
+            if (probability > 0) {
+                timeStepMethods.add(method);
+                probabilities.add(probability);
+            }
+        }
+    }
+
+    private Class<?> getThreadStateClass(List<Method> methods) {
+        Class<?> stateClass = null;
+        for (Method method : methods) {
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            if (parameterTypes.length == 0) {
+                continue;
+            }
+            if (parameterTypes.length > 1) {
+                throw new IllegalTestException(format("Time step method %s.%s() can have at most one argument (the thread state)",
+                        testClass.getName(), method.getName()));
+            }
+            if (stateClass != null && !stateClass.equals(parameterTypes[0])) {
+                throw new IllegalTestException(format("All time step methods of %s must have the same thread state type, but"
+                        + " found %s and %s", testClass.getName(), stateClass.getName(), parameterTypes[0].getName()));
+            }
+            stateClass = parameterTypes[0];
+        }
+        return stateClass;
+    }
+
+    private Constructor<?> getThreadStateConstructor() {
+        if (threadStateClass == null) {
+            return null;
+        }
+        if (threadStateClass.isPrimitive() || threadStateClass.isInterface()
+                || Modifier.isAbstract(threadStateClass.getModifiers())) {
+            throw new IllegalTestException(format("Thread state type %s of test %s has to be a concrete class",
+                    threadStateClass.getName(), testClass.getName()));
+        }
+        for (Constructor<?> constructor : threadStateClass.getDeclaredConstructors()) {
+            Class<?>[] parameterTypes = constructor.getParameterTypes();
+            if (parameterTypes.length == 0
+                    || (parameterTypes.length == 1 && parameterTypes[0].isAssignableFrom(testClass))) {
+                constructor.setAccessible(true);
+                return constructor;
+            }
+        }
+        throw new IllegalTestException(format("Thread state type %s of test %s needs a constructor without arguments or with"
+                + " the test instance as argument", threadStateClass.getName(), testClass.getName()));
+    }
+
+    private IndexSelector createSelector() {
+        double[] probabilityArray = new double[probabilities.size()];
+        for (int i = 0; i < probabilityArray.length; i++) {
+            probabilityArray[i] = probabilities.get(i);
+        }
+        try {
+            return new IndexSelector(probabilityArray);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalTestException(format("Invalid probabilities of the time step methods of %s: %s",
+                    testClass.getName(), e.getMessage()));
+        }
+    }
+}
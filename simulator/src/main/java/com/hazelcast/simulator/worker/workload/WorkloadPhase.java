@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.workload;
+
+import com.hazelcast.simulator.worker.selector.OperationSelectorBuilder;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.String.format;
+
+/**
+ * A single phase of a {@link WorkloadSchedule}.
+ *
+ * A phase has a name, a duration, an optional operation mix and an optional target throughput. Without an operation mix the
+ * workers use the {@link OperationSelectorBuilder} of the test. Without a target throughput the test runs with its configured
+ * target throughput.
+ */
+public final class WorkloadPhase {
+
+    /**
+     * Value of {@link #getTargetThroughput()} if the phase doesn't define a target throughput.
+     */
+    public static final double NO_TARGET_THROUGHPUT = -1;
+
+    private final String name;
+    private final long durationMillis;
+    private final Map<String, Double> operationProbabilities;
+    private final double targetThroughput;
+
+    public WorkloadPhase(String name, long durationMillis, Map<String, Double> operationProbabilities, double targetThroughput) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Name of a workload phase cannot be empty");
+        }
+        if (durationMillis <= 0) {
+            throw new IllegalArgumentException(format("Duration of workload phase %s has to be positive, but was %d ms", name,
+                    durationMillis));
+        }
+        if (targetThroughput < 0 && targetThroughput != NO_TARGET_THROUGHPUT) {
+            throw new IllegalArgumentException(format("Target throughput of workload phase %s cannot be negative, but was %s",
+                    name, targetThroughput));
+        }
+        this.name = name;
+        this.durationMillis = durationMillis;
+        this.operationProbabilities = Collections.unmodifiableMap(new LinkedHashMap<String, Double>(operationProbabilities));
+        this.targetThroughput = targetThroughput;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Returns the operation probabilities of this phase by operation name.
+     *
+     * @return the operation probabilities, an empty map if the phase uses the operation mix of the test
+     */
+    public Map<String, Double> getOperationProbabilities() {
+        return operationProbabilities;
+    }
+
+    public boolean hasOperationMix() {
+        return !operationProbabilities.isEmpty();
+    }
+
+    /**
+     * Returns the target throughput of this phase in operations per second for the whole cluster.
+     *
+     * @return the target throughput or {@link #NO_TARGET_THROUGHPUT}
+     */
+    public double getTargetThroughput() {
+        return targetThroughput;
+    }
+
+    public boolean hasTargetThroughput() {
+        return targetThroughput != NO_TARGET_THROUGHPUT;
+    }
+
+    /**
+     * Returns the name of a probe, which is tagged with the name of this phase.
+     *
+     * @param probeName the name of the probe
+     * @return the tagged probe name
+     */
+    public String getProbeName(String probeName) {
+        return probeName + "-" + name;
+    }
+
+    /**
+     * Returns the operations which are selected in this phase.
+     *
+     * @param defaultOperations the operations of the {@link OperationSelectorBuilder} of the test
+     * @return the operations of this phase
+     * @throws IllegalArgumentException if the operation mix contains an unknown operation
+     */
+    public Set<Enum> getOperations(Set<? extends Enum> defaultOperations) {
+        Set<Enum> operations = new HashSet<Enum>();
+        if (!hasOperationMix()) {
+            operations.addAll(defaultOperations);
+            return operations;
+        }
+        Class<? extends Enum> operationType = getOperationType(defaultOperations);
+        for (Map.Entry<String, Double> entry : operationProbabilities.entrySet()) {
+            if (entry.getValue() > 0) {
+                operations.add(getOperation(operationType, entry.getKey()));
+            }
+        }
+        return operations;
+    }
+
+    /**
+     * Creates an {@link OperationSelectorBuilder} with the operation mix of this phase.
+     *
+     * The operation names are resolved against the operation type of the given builder.
+     *
+     * @param defaultBuilder the {@link OperationSelectorBuilder} of the test
+     * @param <T>            enum of operations
+     * @return a new {@link OperationSelectorBuilder} for this phase, or the given builder if this phase has no operation mix
+     * @throws IllegalArgumentException if the operation mix contains an unknown operation
+     * @throws IllegalStateException    if the probabilities of the operation mix don't sum up to 1.0
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Enum<T>> OperationSelectorBuilder<T> createOperationSelectorBuilder(
+            OperationSelectorBuilder<T> defaultBuilder) {
+        if (!hasOperationMix()) {
+            return defaultBuilder;
+        }
+        Class<T> operationType = (Class<T>) getOperationType(defaultBuilder.getOperations());
+        OperationSelectorBuilder<T> builder = new OperationSelectorBuilder<T>();
+        for (Map.Entry<String, Double> entry : operationProbabilities.entrySet()) {
+            builder.addOperation((T) getOperation(operationType, entry.getKey()), entry.getValue());
+        }
+        return builder;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkloadPhase{"
+                + "name='" + name + '\''
+                + ", durationMillis=" + durationMillis
+                + ", operationProbabilities=" + operationProbabilities
+                + ", targetThroughput=" + targetThroughput
+                + '}';
+    }
+
+    private Class<? extends Enum> getOperationType(Set<? extends Enum> operations) {
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException(format("Workload phase %s defines an operation mix, but the test has no"
+                    + " operations", name));
+        }
+        return operations.iterator().next().getDeclaringClass();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Enum getOperation(Class<? extends Enum> operationType, String operationName) {
+        try {
+            return Enum.valueOf(operationType, operationName);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(format("Workload phase %s contains unknown operation %s of %s", name,
+                    operationName, operationType.getName()), e);
+        }
+    }
+}
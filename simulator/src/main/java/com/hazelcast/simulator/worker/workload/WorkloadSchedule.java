@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.worker.workload;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+/**
+ * A sequence of {@link WorkloadPhase} instances, which is followed by the workers during the run phase of a test.
+ *
+ * The phases are executed in order and the schedule starts over after the last phase, until the test is stopped. So a test
+ * can alternate e.g. between read-heavy and write-heavy periods.
+ *
+ * A schedule is parsed from a String with the phases separated by <tt>;</tt>. Each phase is defined as
+ * <tt>name:duration[:operationMix[:targetThroughput]]</tt>:
+ * <ul>
+ * <li>the duration is defined in seconds, or with one of the suffixes <tt>s</tt>, <tt>m</tt> or <tt>h</tt></li>
+ * <li>the operation mix is a comma separated list of <tt>OPERATION=probability</tt> entries, which uses the names of the
+ * operation enum of the test and has to sum up to 1.0; it can be left empty to use the operation mix of the test</li>
+ * <li>the target throughput is defined in operations per second for the whole cluster</li>
+ * </ul>
+ *
+ * Example: <tt>readHeavy:5m:GET=0.9,PUT=0.1;writeHeavy:1m:GET=0.2,PUT=0.8:5000</tt>
+ */
+public final class WorkloadSchedule {
+
+    private static final String PHASE_SEPARATOR = ";";
+    private static final String FIELD_SEPARATOR = ":";
+    private static final String OPERATION_SEPARATOR = ",";
+    private static final String PROBABILITY_SEPARATOR = "=";
+    private static final int MIN_FIELD_COUNT = 2;
+    private static final int MAX_FIELD_COUNT = 4;
+    private static final int OPERATION_MIX_FIELD = 2;
+    private static final int TARGET_THROUGHPUT_FIELD = 3;
+
+    private final List<WorkloadPhase> phases;
+
+    public WorkloadSchedule(List<WorkloadPhase> phases) {
+        if (phases.isEmpty()) {
+            throw new IllegalArgumentException("A workload schedule needs at least one phase");
+        }
+        Set<String> phaseNames = new HashSet<String>();
+        for (WorkloadPhase phase : phases) {
+            if (!phaseNames.add(phase.getName())) {
+                throw new IllegalArgumentException("Duplicate workload phase " + phase.getName());
+            }
+        }
+        this.phases = Collections.unmodifiableList(new ArrayList<WorkloadPhase>(phases));
+    }
+
+    public List<WorkloadPhase> getPhases() {
+        return phases;
+    }
+
+    public int getPhaseCount() {
+        return phases.size();
+    }
+
+    public WorkloadPhase getPhase(int phaseIndex) {
+        return phases.get(phaseIndex);
+    }
+
+    /**
+     * Parses a {@link WorkloadSchedule}, see the class documentation for the format.
+     *
+     * @param schedule the String to parse
+     * @return the {@link WorkloadSchedule}
+     * @throws IllegalArgumentException if the String cannot be parsed
+     */
+    public static WorkloadSchedule parse(String schedule) {
+        List<WorkloadPhase> phases = new ArrayList<WorkloadPhase>();
+        for (String phase : schedule.split(PHASE_SEPARATOR)) {
+            if (!phase.trim().isEmpty()) {
+                phases.add(parsePhase(phase.trim()));
+            }
+        }
+        return new WorkloadSchedule(phases);
+    }
+
+    private static WorkloadPhase parsePhase(String phase) {
+        String[] fields = phase.split(FIELD_SEPARATOR, -1);
+        if (fields.length < MIN_FIELD_COUNT || fields.length > MAX_FIELD_COUNT) {
+            throw new IllegalArgumentException(format("Workload phase '%s' has to be defined as"
+                    + " name:duration[:operationMix[:targetThroughput]]", phase));
+        }
+        try {
+            String name = fields[0].trim();
+            long durationMillis = parseDurationMillis(fields[1].trim());
+            Map<String, Double> operationProbabilities = new LinkedHashMap<String, Double>();
+            if (fields.length > OPERATION_MIX_FIELD) {
+                parseOperationMix(fields[OPERATION_MIX_FIELD].trim(), operationProbabilities);
+            }
+            double targetThroughput = WorkloadPhase.NO_TARGET_THROUGHPUT;
+            if (fields.length > TARGET_THROUGHPUT_FIELD && !fields[TARGET_THROUGHPUT_FIELD].trim().isEmpty()) {
+                targetThroughput = Double.parseDouble(fields[TARGET_THROUGHPUT_FIELD].trim());
+            }
+            return new WorkloadPhase(name, durationMillis, operationProbabilities, targetThroughput);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(format("Could not parse workload phase '%s'", phase), e);
+        }
+    }
+
+    private static long parseDurationMillis(String duration) {
+        if (duration.endsWith("s")) {
+            return TimeUnit.SECONDS.toMillis(parseDurationWithoutLastChar(duration));
+        } else if (duration.endsWith("m")) {
+            return TimeUnit.MINUTES.toMillis(parseDurationWithoutLastChar(duration));
+        } else if (duration.endsWith("h")) {
+            return TimeUnit.HOURS.toMillis(parseDurationWithoutLastChar(duration));
+        }
+        return TimeUnit.SECONDS.toMillis(Long.parseLong(duration));
+    }
+
+    private static long parseDurationWithoutLastChar(String duration) {
+        return Long.parseLong(duration.substring(0, duration.length() - 1));
+    }
+
+    private static void parseOperationMix(String operationMix, Map<String, Double> operationProbabilities) {
+        if (operationMix.isEmpty()) {
+            return;
+        }
+        for (String operation : operationMix.split(OPERATION_SEPARATOR)) {
+            String[] entry = operation.split(PROBABILITY_SEPARATOR);
+            if (entry.length != 2) {
+                throw new IllegalArgumentException(format("Operation '%s' has to be defined as OPERATION=probability",
+                        operation));
+            }
+            operationProbabilities.put(entry[0].trim(), Double.parseDouble(entry[1].trim()));
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.hazelcast.simulator.agent.workerjvm;
+
+import com.hazelcast.simulator.utils.AssertTask;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+
+import static com.hazelcast.simulator.agent.workerjvm.WorkerClassDataSharing.MIN_JAVA_VERSION;
+import static com.hazelcast.simulator.agent.workerjvm.WorkerClassDataSharing.getJavaVersion;
+import static com.hazelcast.simulator.agent.workerjvm.WorkerClassDataSharing.isRecordingClassList;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingFile;
+import static com.hazelcast.simulator.utils.TestUtils.assertTrueEventually;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class WorkerClassDataSharingTest {
+
+    private static final String CLASSPATH = "simulator.jar:hz-lib/outofthebox/*";
+    private static final String JVM_OPTIONS = "-Xmx1g";
+
+    private final File archiveDirectory = new File("workerClassDataSharingTest").getAbsoluteFile();
+    private final File notExistingJavaHome = new File(archiveDirectory, "notExistingJavaHome");
+
+    private WorkerClassDataSharing classDataSharing;
+
+    @Before
+    public void setUp() {
+        classDataSharing = new WorkerClassDataSharing(archiveDirectory, notExistingJavaHome.getPath(), MIN_JAVA_VERSION);
+    }
+
+    @After
+    public void tearDown() {
+        classDataSharing.shutdown();
+        deleteQuiet(archiveDirectory);
+    }
+
+    @Test
+    public void testGetJavaVersion() {
+        assertEquals(6, getJavaVersion("1.6"));
+        assertEquals(8, getJavaVersion("1.8"));
+        assertEquals(11, getJavaVersion("11"));
+        assertEquals(17, getJavaVersion("17"));
+    }
+
+    @Test
+    public void testGetJavaVersion_invalid() {
+        assertEquals(0, getJavaVersion(null));
+        assertEquals(0, getJavaVersion("invalid"));
+    }
+
+    @Test
+    public void testGetArchiveId_dependsOnClasspathAndJvmOptions() {
+        String archiveId = classDataSharing.getArchiveId(CLASSPATH, JVM_OPTIONS);
+
+        assertEquals(archiveId, classDataSharing.getArchiveId(CLASSPATH, JVM_OPTIONS));
+        assertNotEquals(archiveId, classDataSharing.getArchiveId(CLASSPATH + ":other.jar", JVM_OPTIONS));
+        assertNotEquals(archiveId, classDataSharing.getArchiveId(CLASSPATH, "-Xmx2g"));
+    }
+
+    @Test
+    public void testGetArchiveId_isDigest() {
+        String archiveId = classDataSharing.getArchiveId(CLASSPATH, JVM_OPTIONS);
+
+        assertTrue(archiveId, archiveId.matches("worker-[0-9a-f]{64}"));
+    }
+
+    @Test
+    public void testGetJvmOptions_unsupportedJavaVersion() {
+        classDataSharing = new WorkerClassDataSharing(archiveDirectory, notExistingJavaHome.getPath(), MIN_JAVA_VERSION - 1);
+
+        List<String> jvmOptions = classDataSharing.getJvmOptions(CLASSPATH, JVM_OPTIONS, true);
+
+        assertTrue(jvmOptions.isEmpty());
+    }
+
+    @Test
+    public void testGetJvmOptions_recordsClassListOnce() {
+        List<String> jvmOptions = classDataSharing.getJvmOptions(CLASSPATH, JVM_OPTIONS, true);
+
+        File classList = classDataSharing.getClassList(classDataSharing.getArchiveId(CLASSPATH, JVM_OPTIONS));
+        assertEquals(singletonList("-XX:DumpLoadedClassList=" + classList.getAbsolutePath()), jvmOptions);
+        assertTrue(isRecordingClassList(jvmOptions));
+
+        assertTrue(classDataSharing.getJvmOptions(CLASSPATH, JVM_OPTIONS, true).isEmpty());
+    }
+
+    @Test
+    public void testGetJvmOptions_withoutRecordClassList() {
+        List<String> jvmOptions = classDataSharing.getJvmOptions(CLASSPATH, JVM_OPTIONS, false);
+
+        assertTrue(jvmOptions.isEmpty());
+        assertTrue(isRecordingClassList(classDataSharing.getJvmOptions(CLASSPATH, JVM_OPTIONS, true)));
+    }
+
+    @Test
+    public void testGetJvmOptions_withExistingArchive() {
+        File archive = classDataSharing.getArchive(classDataSharing.getArchiveId(CLASSPATH, JVM_OPTIONS));
+        ensureExistingDirectory(archiveDirectory);
+        ensureExistingFile(archive);
+
+        List<String> jvmOptions = classDataSharing.getJvmOptions(CLASSPATH, JVM_OPTIONS, true);
+
+        assertEquals(singletonList("-XX:SharedArchiveFile=" + archive.getAbsolutePath()), jvmOptions);
+        assertFalse(isRecordingClassList(jvmOptions));
+    }
+
+    @Test
+    public void testGetJvmOptions_withExistingClassList_failedDumpDeletesClassList() {
+        final File classList = classDataSharing.getClassList(classDataSharing.getArchiveId(CLASSPATH, JVM_OPTIONS));
+        ensureExistingDirectory(archiveDirectory);
+        ensureExistingFile(classList);
+
+        // the dump fails, since the Java installation doesn't exist
+        assertTrue(classDataSharing.getJvmOptions(CLASSPATH, JVM_OPTIONS, true).isEmpty());
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertFalse(classList.exists());
+            }
+        });
+        // a failed archive is not recorded again
+        assertTrue(classDataSharing.getJvmOptions(CLASSPATH, JVM_OPTIONS, true).isEmpty());
+    }
+
+    @Test
+    public void testDumpArchiveOnExit_withoutRecording() {
+        Process process = mock(Process.class);
+
+        classDataSharing.dumpArchiveOnExit(CLASSPATH, JVM_OPTIONS, process);
+
+        assertTrue(isRecordingClassList(classDataSharing.getJvmOptions(CLASSPATH, JVM_OPTIONS, true)));
+    }
+
+    @Test
+    public void testIsRecordingClassList() {
+        assertFalse(isRecordingClassList(asList("-Xmx1g", "-XX:SharedArchiveFile=worker.jsa")));
+        assertTrue(isRecordingClassList(asList("-Xmx1g", "-XX:DumpLoadedClassList=worker.classlist")));
+    }
+}
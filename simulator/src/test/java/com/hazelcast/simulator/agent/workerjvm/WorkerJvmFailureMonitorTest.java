@@ -182,6 +182,62 @@ public class WorkerJvmFailureMonitorTest {
         assertThatExceptionFileDoesNotExist(exceptionFile);
     }
 
+    @Test
+    public void testReportException() {
+        String cause = throwableToString(new RuntimeException());
+
+        boolean success = workerJvmFailureMonitor.reportException(workerJvm, "WorkerJvmFailureMonitorTest", cause);
+
+        assertTrue(success);
+        assertThatFailureOperationHasBeenSent(agentConnector, 1);
+        verifyNoMoreInteractions(agentConnector);
+    }
+
+    @Test
+    public void testReportException_withErrorResponse() {
+        Response failureResponse = mock(Response.class);
+        when(failureResponse.getFirstErrorResponseType()).thenReturn(FAILURE_COORDINATOR_NOT_FOUND);
+        when(agentConnector.write(eq(COORDINATOR), any(FailureOperation.class))).thenReturn(failureResponse);
+
+        String cause = throwableToString(new RuntimeException());
+
+        boolean success = workerJvmFailureMonitor.reportException(workerJvm, "WorkerJvmFailureMonitorTest", cause);
+
+        assertFalse(success);
+        assertThatFailureOperationHasBeenSent(agentConnector, 1);
+        verifyNoMoreInteractions(agentConnector);
+    }
+
+    @Test
+    public void testReportExceptionAsync() {
+        String cause = throwableToString(new RuntimeException());
+
+        workerJvmFailureMonitor.reportExceptionAsync(workerJvm, "WorkerJvmFailureMonitorTest", cause);
+
+        sleepMillis(DEFAULT_SLEEP_TIME);
+
+        assertThatFailureOperationHasBeenSent(agentConnector, 1);
+        verifyNoMoreInteractions(agentConnector);
+        assertEquals(0, ExceptionExtensionFilter.listFiles(workerHome).length);
+    }
+
+    @Test
+    public void testReportExceptionAsync_withErrorResponse_shouldBeSentAgainFromExceptionFile() {
+        Response failOnceResponse = mock(Response.class);
+        when(failOnceResponse.getFirstErrorResponseType()).thenReturn(FAILURE_COORDINATOR_NOT_FOUND).thenReturn(SUCCESS);
+        when(agentConnector.write(eq(COORDINATOR), any(FailureOperation.class))).thenReturn(failOnceResponse);
+
+        String cause = throwableToString(new RuntimeException());
+
+        workerJvmFailureMonitor.reportExceptionAsync(workerJvm, "WorkerJvmFailureMonitorTest", cause);
+
+        sleepMillis(DEFAULT_SLEEP_TIME);
+
+        assertThatFailureOperationHasBeenSent(agentConnector, 2);
+        verifyNoMoreInteractions(agentConnector);
+        assertEquals(0, ExceptionExtensionFilter.listFiles(workerHome).length);
+    }
+
     @Test
     public void testRun_shouldDetectException_shouldRenameFileIfFailureOperationCouldNotBeSent_withErrorResponse() {
         Response failOnceResponse = mock(Response.class);
@@ -0,0 +1,232 @@
+package com.hazelcast.simulator.agent.workerjvm;
+
+import com.hazelcast.simulator.utils.AssertTask;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
+import static com.hazelcast.simulator.utils.TestUtils.assertTrueEventually;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WorkerJvmPoolTest {
+
+    private static final String KEY = "key";
+    private static final int AWAIT_TIMEOUT_SECONDS = 60;
+
+    private final File poolDir = new File("workerJvmPoolTest").getAbsoluteFile();
+    private final AtomicInteger startedCount = new AtomicInteger();
+    private final List<PooledWorkerJvm> createdJVMs = new CopyOnWriteArrayList<PooledWorkerJvm>();
+    private final WorkerJvmPool pool = new WorkerJvmPool();
+
+    private volatile boolean isAlive = true;
+
+    @Before
+    public void setUp() {
+        ensureExistingDirectory(poolDir);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+        deleteQuiet(poolDir);
+    }
+
+    @Test
+    public void testFill() {
+        pool.fill(KEY, 2, new MockFactory());
+
+        assertIdleCountEventually(2);
+        assertEquals(2, startedCount.get());
+    }
+
+    @Test
+    public void testFill_doesNotExceedSize() {
+        pool.fill(KEY, 2, new MockFactory());
+        pool.fill(KEY, 2, new MockFactory());
+        assertIdleCountEventually(2);
+
+        pool.fill(KEY, 2, new MockFactory());
+
+        assertEquals(2, pool.getIdleCount());
+        assertEquals(2, startedCount.get());
+    }
+
+    @Test
+    public void testFill_withFailingFactory() {
+        pool.fill(KEY, 1, new Callable<PooledWorkerJvm>() {
+            @Override
+            public PooledWorkerJvm call() throws Exception {
+                throw new IllegalStateException("expected");
+            }
+        });
+
+        // as soon as the failed start is not pending anymore, the pool is filled again
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                pool.fill(KEY, 1, new MockFactory());
+                assertEquals(1, pool.getIdleCount());
+            }
+        });
+    }
+
+    @Test
+    public void testFill_afterShutdown() {
+        pool.shutdown();
+
+        pool.fill(KEY, 1, new MockFactory());
+
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(0, startedCount.get());
+    }
+
+    @Test
+    public void testPoll() {
+        pool.fill(KEY, 1, new MockFactory());
+        assertIdleCountEventually(1);
+
+        PooledWorkerJvm workerJvm = pool.poll(KEY);
+
+        assertNotNull(workerJvm);
+        assertEquals(0, pool.getIdleCount());
+        assertNull(pool.poll(KEY));
+    }
+
+    @Test
+    public void testPoll_withUnknownKey() {
+        pool.fill(KEY, 1, new MockFactory());
+        assertIdleCountEventually(1);
+
+        assertNull(pool.poll("unknown"));
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    public void testPoll_discardsExitedJVMs() {
+        pool.fill(KEY, 1, new MockFactory());
+        assertIdleCountEventually(1);
+
+        isAlive = false;
+
+        assertNull(pool.poll(KEY));
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    public void testClear() {
+        pool.fill(KEY, 1, new MockFactory());
+        assertIdleCountEventually(1);
+        PooledWorkerJvm workerJvm = createdJVMs.get(0);
+
+        pool.clear();
+
+        assertEquals(0, pool.getIdleCount());
+        verify(workerJvm.getProcess()).destroy();
+        assertFalse(workerJvm.getHome().exists());
+    }
+
+    @Test
+    public void testClear_allowsRefill() {
+        pool.fill(KEY, 1, new MockFactory());
+        assertIdleCountEventually(1);
+
+        pool.clear();
+        pool.fill(KEY, 1, new MockFactory());
+
+        assertIdleCountEventually(1);
+    }
+
+    @Test
+    public void testAwaitPendingStarts() throws Exception {
+        pool.fill(KEY, 2, new MockFactory());
+
+        assertTrue(pool.awaitPendingStarts(AWAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(2, pool.getIdleCount());
+    }
+
+    @Test
+    public void testAwaitPendingStarts_withoutFill() throws Exception {
+        assertTrue(pool.awaitPendingStarts(0, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testAwaitPendingStarts_withFailingFactory() throws Exception {
+        pool.fill(KEY, 1, new Callable<PooledWorkerJvm>() {
+            @Override
+            public PooledWorkerJvm call() throws Exception {
+                throw new IllegalStateException("expected");
+            }
+        });
+
+        assertTrue(pool.awaitPendingStarts(AWAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    public void testAwaitPendingStarts_withTimeout() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        pool.fill(KEY, 1, new Callable<PooledWorkerJvm>() {
+            @Override
+            public PooledWorkerJvm call() throws Exception {
+                latch.await();
+                return new MockFactory().call();
+            }
+        });
+
+        try {
+            assertFalse(pool.awaitPendingStarts(100, TimeUnit.MILLISECONDS));
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    private void assertIdleCountEventually(final int expectedCount) {
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(expectedCount, pool.getIdleCount());
+            }
+        });
+    }
+
+    private class MockFactory implements Callable<PooledWorkerJvm> {
+
+        @Override
+        public PooledWorkerJvm call() throws Exception {
+            Process process = mock(Process.class);
+            when(process.exitValue()).thenAnswer(new Answer<Integer>() {
+                @Override
+                public Integer answer(InvocationOnMock invocation) throws Throwable {
+                    if (isAlive) {
+                        throw new IllegalThreadStateException();
+                    }
+                    return 0;
+                }
+            });
+
+            File home = ensureExistingDirectory(poolDir, "pooled-worker-" + startedCount.incrementAndGet());
+            PooledWorkerJvm workerJvm = new PooledWorkerJvm(process, home);
+            createdJVMs.add(workerJvm);
+            return workerJvm;
+        }
+    }
+}
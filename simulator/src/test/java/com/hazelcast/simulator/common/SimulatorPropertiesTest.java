@@ -15,6 +15,7 @@ import static com.hazelcast.simulator.utils.FileUtils.appendText;
 import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
 import static com.hazelcast.simulator.utils.jars.HazelcastJARs.OUT_OF_THE_BOX;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -198,6 +199,21 @@ public class SimulatorPropertiesTest {
         assertEquals(180, simulatorProperties.getWorkerLastSeenTimeoutSeconds());
     }
 
+    @Test
+    public void testGetWorkerJvmPoolSize() {
+        assertEquals(0, simulatorProperties.getWorkerJvmPoolSize());
+    }
+
+    @Test
+    public void testIsWorkerClassDataSharing() {
+        assertFalse(simulatorProperties.isWorkerClassDataSharing());
+    }
+
+    @Test
+    public void testGetMaxInFlightMessages() {
+        assertEquals(32, simulatorProperties.getMaxInFlightMessages());
+    }
+
     @Test
     public void testGetAgentThreadPoolSize() {
         assertEquals(0, simulatorProperties.getAgentThreadPoolSize());
@@ -23,6 +23,7 @@ import static com.hazelcast.simulator.utils.FileUtils.writeText;
 import static com.hazelcast.simulator.utils.FormatUtils.NEW_LINE;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class CoordinatorCliTest {
@@ -148,6 +149,8 @@ public class CoordinatorCliTest {
 
         assertTrue(coordinator.getTestSuite().isWaitForTestCase());
         assertEquals(0, coordinator.getTestSuite().getDurationSeconds());
+        assertNull(coordinator.getCoordinatorParameters().getRampUpParameters());
+        assertFalse(coordinator.getCoordinatorParameters().isExportProbesXml());
     }
 
     @Test
@@ -162,6 +165,75 @@ public class CoordinatorCliTest {
         assertEquals(42, coordinator.getTestSuite().getDurationSeconds());
     }
 
+    @Test
+    public void testInit_rampUp() {
+        args.add("--rampUpStartThroughput");
+        args.add("1000");
+        args.add("--rampUpStepDuration");
+        args.add("2m");
+        args.add("--rampUpMaxLatencyMicros");
+        args.add("5000");
+
+        Coordinator coordinator = createCoordinator();
+
+        RampUpParameters rampUpParameters = coordinator.getCoordinatorParameters().getRampUpParameters();
+        assertEquals(1000, rampUpParameters.getStartThroughput(), 0);
+        assertEquals(1000, rampUpParameters.getStepThroughput(), 0);
+        assertEquals(0, rampUpParameters.getMaxThroughput(), 0);
+        assertEquals(TimeUnit.MINUTES.toSeconds(2), rampUpParameters.getStepDurationSeconds());
+        assertEquals(RampUpParameters.DEFAULT_LATENCY_PERCENTILE, rampUpParameters.getLatencyPercentile(), 0);
+        assertEquals(5000, rampUpParameters.getMaxLatencyMicros());
+        assertEquals(RampUpParameters.DEFAULT_MIN_THROUGHPUT_GAIN, rampUpParameters.getMinThroughputGain(), 0);
+        assertTrue(coordinator.getWorkerParameters().isMonitorPerformance());
+    }
+
+    @Test
+    public void testInit_rampUp_withStepAndMaxThroughput() {
+        args.add("--rampUpStartThroughput");
+        args.add("500");
+        args.add("--rampUpStepThroughput");
+        args.add("250");
+        args.add("--rampUpMaxThroughput");
+        args.add("5000");
+
+        Coordinator coordinator = createCoordinator();
+
+        RampUpParameters rampUpParameters = coordinator.getCoordinatorParameters().getRampUpParameters();
+        assertEquals(500, rampUpParameters.getStartThroughput(), 0);
+        assertEquals(250, rampUpParameters.getStepThroughput(), 0);
+        assertEquals(5000, rampUpParameters.getMaxThroughput(), 0);
+    }
+
+    @Test(expected = CommandLineExitException.class)
+    public void testInit_rampUp_withDuration() {
+        args.add("--rampUpStartThroughput");
+        args.add("1000");
+        args.add("--duration");
+        args.add("42");
+
+        createCoordinator();
+    }
+
+    @Test(expected = CommandLineExitException.class)
+    public void testInit_rampUp_withInvalidStepThroughput() {
+        args.add("--rampUpStartThroughput");
+        args.add("1000");
+        args.add("--rampUpStepThroughput");
+        args.add("-1");
+
+        createCoordinator();
+    }
+
+    @Test
+    public void testInit_exportProbesXml() {
+        args.add("--waitForTestCaseCompletion");
+        args.add("--exportProbesXml");
+
+        Coordinator coordinator = createCoordinator();
+
+        assertTrue(coordinator.getCoordinatorParameters().isExportProbesXml());
+    }
+
     @Test
     public void testInit_workerClassPath() {
         args.add("--waitForTestCaseCompletion");
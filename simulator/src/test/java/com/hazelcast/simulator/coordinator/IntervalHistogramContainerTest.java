@@ -0,0 +1,173 @@
+package com.hazelcast.simulator.coordinator;
+
+import com.hazelcast.simulator.protocol.core.AddressLevel;
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class IntervalHistogramContainerTest {
+
+    private final SimulatorAddress workerAddress1 = new SimulatorAddress(AddressLevel.WORKER, 1, 1, 0);
+    private final SimulatorAddress workerAddress2 = new SimulatorAddress(AddressLevel.WORKER, 1, 2, 0);
+
+    private final IntervalHistogramContainer container = new IntervalHistogramContainer("testSuiteId", 1);
+    private final File latencyFile = container.getLatencyFile("testId", "probe");
+
+    @After
+    public void tearDown() {
+        container.close();
+
+        deleteQuiet(latencyFile);
+    }
+
+    @Test
+    public void testAddIntervalHistograms_mergesWorkersOfSameInterval() throws Exception {
+        container.addIntervalHistograms(workerAddress1, "testId", 0, 2000, createProbeHistograms(100, 10));
+        container.addIntervalHistograms(workerAddress2, "testId", 0, 1900, createProbeHistograms(200, 20));
+        container.close();
+
+        List<Histogram> histograms = readHistograms();
+        assertEquals(1, histograms.size());
+        assertInterval(histograms.get(0), 2000, 30);
+        assertEquals(200, histograms.get(0).getMaxValue(), 1);
+    }
+
+    @Test
+    public void testAddIntervalHistograms_mergesBySequenceInsteadOfTimestamp() throws Exception {
+        // the clock of the second Worker is ahead, so its timestamp is already in the next wall clock interval
+        container.addIntervalHistograms(workerAddress1, "testId", 0, 1900, createProbeHistograms(100, 10));
+        container.addIntervalHistograms(workerAddress2, "testId", 0, 2100, createProbeHistograms(100, 20));
+        container.addIntervalHistograms(workerAddress1, "testId", 1, 2900, createProbeHistograms(100, 1));
+        container.close();
+
+        List<Histogram> histograms = readHistograms();
+        assertEquals(2, histograms.size());
+        assertInterval(histograms.get(0), 2100, 30);
+        assertInterval(histograms.get(1), 2900, 1);
+    }
+
+    @Test
+    public void testAddIntervalHistograms_writesIntervalsInOrder() throws Exception {
+        container.addIntervalHistograms(workerAddress1, "testId", 2, 3000, createProbeHistograms(100, 3));
+        container.addIntervalHistograms(workerAddress2, "testId", 0, 1000, createProbeHistograms(100, 1));
+        container.addIntervalHistograms(workerAddress2, "testId", 1, 2000, createProbeHistograms(100, 2));
+        container.addIntervalHistograms(workerAddress1, "testId", 4, 5000, createProbeHistograms(100, 5));
+
+        // interval 4 is still pending
+        List<Histogram> histograms = readHistograms();
+        assertEquals(3, histograms.size());
+        assertInterval(histograms.get(0), 1000, 1);
+        assertInterval(histograms.get(1), 2000, 2);
+        assertInterval(histograms.get(2), 3000, 3);
+
+        container.close();
+
+        histograms = readHistograms();
+        assertEquals(4, histograms.size());
+        assertInterval(histograms.get(3), 5000, 5);
+    }
+
+    @Test
+    public void testAddIntervalHistograms_dropsLateHistograms() throws Exception {
+        container.addIntervalHistograms(workerAddress1, "testId", 0, 1000, createProbeHistograms(100, 1));
+        container.addIntervalHistograms(workerAddress1, "testId", 3, 4000, createProbeHistograms(100, 4));
+        container.addIntervalHistograms(workerAddress2, "testId", 0, 1000, createProbeHistograms(100, 1));
+        container.close();
+
+        List<Histogram> histograms = readHistograms();
+        assertEquals(2, histograms.size());
+        assertInterval(histograms.get(0), 1000, 1);
+        assertInterval(histograms.get(1), 4000, 4);
+    }
+
+    @Test
+    public void testCloseTest_writesPendingIntervals() throws Exception {
+        container.addIntervalHistograms(workerAddress1, "testId", 0, 1000, createProbeHistograms(100, 1));
+        container.addIntervalHistograms(workerAddress1, "testId", 1, 2000, createProbeHistograms(100, 2));
+        container.closeTest("testId");
+
+        List<Histogram> histograms = readHistograms();
+        assertEquals(2, histograms.size());
+        assertInterval(histograms.get(0), 1000, 1);
+        assertInterval(histograms.get(1), 2000, 2);
+    }
+
+    @Test
+    public void testCloseTest_dropsHistogramsOfFinishedTest() throws Exception {
+        container.addIntervalHistograms(workerAddress1, "testId", 0, 1000, createProbeHistograms(100, 1));
+        container.closeTest("testId");
+        container.addIntervalHistograms(workerAddress2, "testId", 1, 2000, createProbeHistograms(100, 2));
+        container.close();
+
+        List<Histogram> histograms = readHistograms();
+        assertEquals(1, histograms.size());
+        assertInterval(histograms.get(0), 1000, 1);
+    }
+
+    @Test
+    public void testCloseTest_keepsLatencyLogsOfOtherTests() throws Exception {
+        File otherLatencyFile = container.getLatencyFile("otherTestId", "probe");
+        try {
+            container.addIntervalHistograms(workerAddress1, "otherTestId", 0, 1000, createProbeHistograms(100, 1));
+            container.closeTest("testId");
+            container.addIntervalHistograms(workerAddress1, "otherTestId", 1, 2000, createProbeHistograms(100, 2));
+            container.close();
+
+            List<Histogram> histograms = readHistograms(otherLatencyFile);
+            assertEquals(2, histograms.size());
+            assertInterval(histograms.get(0), 1000, 1);
+            assertInterval(histograms.get(1), 2000, 2);
+        } finally {
+            deleteQuiet(otherLatencyFile);
+        }
+    }
+
+    @Test
+    public void testAddIntervalHistograms_withoutHistograms() {
+        container.addIntervalHistograms(workerAddress1, "testId", 0, 1000, Collections.<String, Histogram>emptyMap());
+        container.close();
+
+        assertFalse(latencyFile.exists());
+    }
+
+    private static Map<String, Histogram> createProbeHistograms(long latency, int count) {
+        Histogram histogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        histogram.recordValueWithCount(latency, count);
+        return singletonMap("probe", histogram);
+    }
+
+    private List<Histogram> readHistograms() throws Exception {
+        return readHistograms(latencyFile);
+    }
+
+    private static List<Histogram> readHistograms(File file) throws Exception {
+        List<Histogram> histograms = new ArrayList<Histogram>();
+        HistogramLogReader reader = new HistogramLogReader(file);
+        Histogram histogram;
+        while ((histogram = (Histogram) reader.nextIntervalHistogram()) != null) {
+            histograms.add(histogram);
+        }
+        return histograms;
+    }
+
+    private static void assertInterval(Histogram histogram, long endTimestamp, long expectedCount) {
+        assertEquals(endTimestamp - 1000, histogram.getStartTimeStamp());
+        assertEquals(endTimestamp, histogram.getEndTimeStamp());
+        assertEquals(expectedCount, histogram.getTotalCount());
+    }
+}
@@ -4,6 +4,7 @@ import com.hazelcast.simulator.protocol.core.AddressLevel;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.utils.FormatUtils;
 import com.hazelcast.simulator.worker.performance.PerformanceState;
+import org.HdrHistogram.Histogram;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -13,10 +14,14 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
 import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
 import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
+import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class PerformanceStateContainerTest {
@@ -154,6 +159,21 @@ public class PerformanceStateContainerTest {
         assertEquals(2900, performanceState.getIntervalMaxLatency());
     }
 
+    @Test
+    public void testGetPerformanceStateForTestCase_withLatencyHistograms() {
+        PerformanceStateContainer container = createPerformanceStateContainerWithLatencyHistograms();
+
+        PerformanceState performanceState = container.getPerformanceStateForTestCase(TEST_CASE_ID_1);
+
+        // the latency values are calculated from the merged histograms, not by using the maximum values
+        assertFalse(performanceState.isEmpty());
+        assertEquals(1001, performanceState.getOperationCount());
+        assertEquals(110, performanceState.getIntervalThroughput(), ASSERT_EQUALS_DELTA);
+        assertEquals(100, performanceState.getIntervalPercentileLatency());
+        assertEquals((1000 * 100 + 10000) / 1001.0d, performanceState.getIntervalAvgLatency(), ASSERT_EQUALS_DELTA);
+        assertEquals(10000, performanceState.getIntervalMaxLatency());
+    }
+
     @Test
     public void testGetPerformanceStateForTestCase_testCaseNotFound() {
         PerformanceState performanceState = performanceStateContainer.getPerformanceStateForTestCase("notFound");
@@ -168,6 +188,39 @@ public class PerformanceStateContainerTest {
         assertTrue(performanceState.isEmpty());
     }
 
+    @Test
+    public void testGetOperationCount() {
+        assertEquals(2300, performanceStateContainer.getOperationCount(TEST_CASE_ID_1));
+        assertEquals(3200, performanceStateContainer.getOperationCount(TEST_CASE_ID_2));
+    }
+
+    @Test
+    public void testGetOperationCount_testCaseNotFound() {
+        assertEquals(0, performanceStateContainer.getOperationCount("notFound"));
+    }
+
+    @Test
+    public void testGetIntervalLatencyHistogram() {
+        PerformanceStateContainer container = createPerformanceStateContainerWithLatencyHistograms();
+
+        Histogram intervalLatencyHistogram = container.getIntervalLatencyHistogram(TEST_CASE_ID_1);
+        assertEquals(1001, intervalLatencyHistogram.getTotalCount());
+        assertEquals(10000, intervalLatencyHistogram.getMaxValue());
+
+        // the next interval starts empty
+        assertNull(container.getIntervalLatencyHistogram(TEST_CASE_ID_1));
+    }
+
+    @Test
+    public void testGetIntervalLatencyHistogram_withoutLatencyHistograms() {
+        assertNull(performanceStateContainer.getIntervalLatencyHistogram(TEST_CASE_ID_1));
+    }
+
+    @Test
+    public void testGetIntervalLatencyHistogram_testCaseNotFound() {
+        assertNull(performanceStateContainer.getIntervalLatencyHistogram("notFound"));
+    }
+
     @Test
     public void testLogDetailedPerformanceInfo() {
         performanceStateContainer.logDetailedPerformanceInfo();
@@ -176,6 +229,21 @@ public class PerformanceStateContainerTest {
         assertEquals("5500" + FormatUtils.NEW_LINE, performance);
     }
 
+    @Test
+    public void testLogDetailedPerformanceInfo_withLatencyHistograms() {
+        PerformanceStateContainer container = createPerformanceStateContainerWithLatencyHistograms();
+
+        container.logDetailedPerformanceInfo();
+
+        String[] lines = fileAsText(PERFORMANCE_FILE).split(FormatUtils.NEW_LINE);
+        assertEquals(4, lines.length);
+        assertEquals("1001", lines[0]);
+        assertTrue(lines[1].startsWith("Test " + TEST_CASE_ID_1 + " latency"));
+        assertTrue(lines[1].contains("(max)"));
+        assertTrue(lines[2].startsWith("Test " + TEST_CASE_ID_1 + " Agent"));
+        assertTrue(lines[3].startsWith("Test " + TEST_CASE_ID_1 + " Agent"));
+    }
+
     @Test
     public void testLogDetailedPerformanceInfo_onEmptyContainer() {
         emptyPerformanceStateContainer.logDetailedPerformanceInfo();
@@ -214,6 +282,58 @@ public class PerformanceStateContainerTest {
         assertEquals(2900, totalPerformanceState.getIntervalMaxLatency());
     }
 
+    @Test
+    public void testGetTotalLatencyHistogram() {
+        PerformanceStateContainer container = createPerformanceStateContainerWithLatencyHistograms();
+
+        Histogram totalLatencyHistogram = container.getTotalLatencyHistogram(TEST_CASE_ID_1);
+
+        assertEquals(1001, totalLatencyHistogram.getTotalCount());
+        assertEquals(10000, totalLatencyHistogram.getMaxValue());
+    }
+
+    @Test
+    public void testGetTotalLatencyHistogram_withoutLatencyHistograms() {
+        assertNull(performanceStateContainer.getTotalLatencyHistogram(TEST_CASE_ID_1));
+    }
+
+    @Test
+    public void testGetTotalLatencyHistogram_testsBackToBack() {
+        Histogram histogram1 = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        histogram1.recordValueWithCount(100, 1000);
+
+        Histogram histogram2 = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        histogram2.recordValue(10000);
+
+        Map<String, PerformanceState> performanceStates1 = new HashMap<String, PerformanceState>();
+        performanceStates1.put(TEST_CASE_ID_1, new PerformanceState(1000, 100, 100, 100.0d, 100, 100));
+
+        Map<String, PerformanceState> performanceStates2 = new HashMap<String, PerformanceState>();
+        performanceStates2.put(TEST_CASE_ID_2, new PerformanceState(1, 10, 10, 10000.0d, 10000, 10000));
+
+        PerformanceStateContainer container = new PerformanceStateContainer();
+        container.init(TEST_CASE_ID_1);
+        container.updatePerformanceState(worker1, performanceStates1);
+        container.addIntervalLatencyHistograms(worker1, TEST_CASE_ID_1, singletonList(histogram1));
+        container.init(TEST_CASE_ID_2);
+        container.updatePerformanceState(worker1, performanceStates2);
+        container.addIntervalLatencyHistograms(worker1, TEST_CASE_ID_2, singletonList(histogram2));
+
+        Histogram latencyHistogram1 = container.getTotalLatencyHistogram(TEST_CASE_ID_1);
+        assertEquals(1000, latencyHistogram1.getTotalCount());
+        assertEquals(100, latencyHistogram1.getMaxValue());
+
+        Histogram latencyHistogram2 = container.getTotalLatencyHistogram(TEST_CASE_ID_2);
+        assertEquals(1, latencyHistogram2.getTotalCount());
+        assertEquals(10000, latencyHistogram2.getMaxValue());
+
+        container.logDetailedPerformanceInfo();
+
+        String performance = fileAsText(PERFORMANCE_FILE);
+        assertTrue(performance.contains("Test " + TEST_CASE_ID_1 + " latency"));
+        assertTrue(performance.contains("Test " + TEST_CASE_ID_2 + " latency"));
+    }
+
     @Test
     public void testCalculatePerformanceStates_onEmptyContainer() {
         PerformanceState totalPerformanceState = new PerformanceState();
@@ -224,4 +344,26 @@ public class PerformanceStateContainerTest {
         assertEquals(0, agentPerformanceStateMap.size());
         assertTrue(totalPerformanceState.isEmpty());
     }
+
+    private PerformanceStateContainer createPerformanceStateContainerWithLatencyHistograms() {
+        Histogram histogram1 = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        histogram1.recordValueWithCount(100, 1000);
+
+        Histogram histogram2 = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        histogram2.recordValue(10000);
+
+        Map<String, PerformanceState> performanceStates1 = new HashMap<String, PerformanceState>();
+        performanceStates1.put(TEST_CASE_ID_1, new PerformanceState(1000, 100, 100, 100.0d, 100, 100));
+
+        Map<String, PerformanceState> performanceStates2 = new HashMap<String, PerformanceState>();
+        performanceStates2.put(TEST_CASE_ID_1, new PerformanceState(1, 10, 10, 10000.0d, 10000, 10000));
+
+        PerformanceStateContainer container = new PerformanceStateContainer();
+        container.init(TEST_CASE_ID_1);
+        container.updatePerformanceState(worker1, performanceStates1);
+        container.addIntervalLatencyHistograms(worker1, TEST_CASE_ID_1, singletonList(histogram1));
+        container.updatePerformanceState(worker2, performanceStates2);
+        container.addIntervalLatencyHistograms(worker2, TEST_CASE_ID_1, singletonList(histogram2));
+        return container;
+    }
 }
@@ -0,0 +1,144 @@
+package com.hazelcast.simulator.coordinator;
+
+import org.HdrHistogram.Histogram;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RampUpTest {
+
+    private final File curveFile = new File("rampUpTest.txt");
+
+    @After
+    public void tearDown() {
+        deleteQuiet(curveFile);
+    }
+
+    @Test
+    public void testConstructor() {
+        RampUp rampUp = new RampUp(new RampUpParameters(100, 50, 0, 10, 99, 0, 0.5), curveFile);
+
+        assertEquals(1, rampUp.getStep());
+        assertEquals(100, rampUp.getTargetThroughput(), 0);
+        assertFalse(rampUp.isCompleted());
+        assertNull(rampUp.getStopReason());
+        assertTrue(fileAsText(curveFile).startsWith("# step target(ops/s) throughput(ops/s)"));
+    }
+
+    @Test
+    public void testAddStepResult_nextStep() {
+        RampUp rampUp = new RampUp(new RampUpParameters(100, 50, 0, 10, 99, 0, 0.5), curveFile);
+
+        double throughput = rampUp.addStepResult(1000, 10, createHistogram(100));
+
+        assertEquals(100, throughput, 0.01);
+        assertEquals(2, rampUp.getStep());
+        assertEquals(150, rampUp.getTargetThroughput(), 0);
+        assertFalse(rampUp.isCompleted());
+
+        String curve = fileAsText(curveFile);
+        assertTrue(curve.contains("1 100.00 100.00 1000 100.00 100 100 100 100 100"));
+    }
+
+    @Test
+    public void testAddStepResult_withoutHistogram() {
+        RampUp rampUp = new RampUp(new RampUpParameters(100, 50, 0, 10, 99, 1000, 0.5), curveFile);
+
+        rampUp.addStepResult(1000, 10, null);
+
+        assertFalse(rampUp.isCompleted());
+        assertTrue(fileAsText(curveFile).contains("1 100.00 100.00 1000 - - - - - -"));
+    }
+
+    @Test
+    public void testAddStepResult_latencyExceedsSla() {
+        RampUp rampUp = new RampUp(new RampUpParameters(100, 50, 0, 10, 99, 1000, 0.5), curveFile);
+
+        rampUp.addStepResult(1000, 10, createHistogram(500));
+        assertFalse(rampUp.isCompleted());
+
+        rampUp.addStepResult(1500, 10, createHistogram(5000));
+        assertTrue(rampUp.isCompleted());
+        assertEquals(2, rampUp.getStep());
+        assertTrue(rampUp.getStopReason().contains("exceeds the SLA"));
+        assertTrue(fileAsText(curveFile).contains("# completed: "));
+    }
+
+    @Test
+    public void testAddStepResult_throughputFlattens() {
+        RampUp rampUp = new RampUp(new RampUpParameters(100, 100, 0, 10, 99, 0, 0.5), curveFile);
+
+        rampUp.addStepResult(1000, 10, null);
+        rampUp.addStepResult(2000, 10, null);
+        assertFalse(rampUp.isCompleted());
+
+        // 240 ops/s is a gain of 40 ops/s, which is less than half of the step increment
+        rampUp.addStepResult(2400, 10, null);
+        assertTrue(rampUp.isCompleted());
+        assertEquals(3, rampUp.getStep());
+        assertTrue(rampUp.getStopReason().contains("minimum gain"));
+    }
+
+    @Test
+    public void testAddStepResult_maxThroughputReached() {
+        RampUp rampUp = new RampUp(new RampUpParameters(100, 100, 200, 10, 99, 0, 0.5), curveFile);
+
+        rampUp.addStepResult(1000, 10, null);
+        assertFalse(rampUp.isCompleted());
+        assertEquals(200, rampUp.getTargetThroughput(), 0);
+
+        rampUp.addStepResult(2000, 10, null);
+        assertTrue(rampUp.isCompleted());
+        assertEquals(2, rampUp.getStep());
+        assertTrue(rampUp.getStopReason().contains("maximum target throughput"));
+    }
+
+    @Test
+    public void testAddStepResult_withZeroElapsedSeconds() {
+        RampUp rampUp = new RampUp(new RampUpParameters(100, 100, 0, 10, 99, 0, 0.5), curveFile);
+
+        assertEquals(0, rampUp.addStepResult(1000, 0, null), 0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAddStepResult_whenCompleted() {
+        RampUp rampUp = new RampUp(new RampUpParameters(100, 100, 100, 10, 99, 0, 0.5), curveFile);
+
+        rampUp.addStepResult(1000, 10, null);
+        rampUp.addStepResult(1000, 10, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRampUpParameters_invalidStartThroughput() {
+        new RampUpParameters(0, 100, 0, 10, 99, 0, 0.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRampUpParameters_invalidStepThroughput() {
+        new RampUpParameters(100, -1, 0, 10, 99, 0, 0.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRampUpParameters_invalidStepDuration() {
+        new RampUpParameters(100, 100, 0, 0, 99, 0, 0.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRampUpParameters_invalidLatencyPercentile() {
+        new RampUpParameters(100, 100, 0, 10, 101, 0, 0.5);
+    }
+
+    private static Histogram createHistogram(long latencyMicros) {
+        Histogram histogram = new Histogram(3);
+        histogram.recordValueWithCount(latencyMicros, 100);
+        return histogram;
+    }
+}
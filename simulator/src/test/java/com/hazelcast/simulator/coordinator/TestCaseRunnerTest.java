@@ -61,6 +61,7 @@ public class TestCaseRunnerTest {
     private boolean parallel = false;
     private boolean verifyEnabled = true;
     private boolean monitorPerformance = false;
+    private RampUpParameters rampUpParameters;
 
     @BeforeClass
     public static void prepareEnvironment() {
@@ -105,6 +106,10 @@ public class TestCaseRunnerTest {
         deleteQuiet("failures-" + testSuite.getId() + ".txt");
         deleteQuiet("probes-" + testSuite.getId() + "_CoordinatorTest1.xml");
         deleteQuiet("probes-" + testSuite.getId() + "_CoordinatorTest2.xml");
+        deleteQuiet("probes-" + testSuite.getId() + "_CoordinatorTest1.bin");
+        deleteQuiet("probes-" + testSuite.getId() + "_CoordinatorTest2.bin");
+        deleteQuiet("rampup-" + testSuite.getId() + "_CoordinatorTest1.txt");
+        deleteQuiet("rampup-" + testSuite.getId() + "_CoordinatorTest2.txt");
     }
 
     @Test
@@ -144,6 +149,19 @@ public class TestCaseRunnerTest {
         verifyRemoteClient(coordinator);
     }
 
+    @Test
+    public void runTestSuiteParallel_withRampUp() {
+        testSuite.setDurationSeconds(0);
+        parallel = true;
+        monitorPerformance = true;
+        rampUpParameters = new RampUpParameters(100, 100, 100, 1, 99, 0, 0.5);
+
+        Coordinator coordinator = createCoordinator();
+        coordinator.runTestSuite();
+
+        verifyRemoteClient(coordinator);
+    }
+
     @Test
     public void runTestSuiteParallel_withTargetCount() {
         testSuite.setWaitForTestCase(true);
@@ -295,6 +313,7 @@ public class TestCaseRunnerTest {
         when(coordinatorParameters.isRefreshJvm()).thenReturn(false);
         when(coordinatorParameters.getTargetType(anyBoolean())).thenReturn(TargetType.ALL);
         when(coordinatorParameters.getTargetCount()).thenReturn(targetCount);
+        when(coordinatorParameters.getRampUpParameters()).thenReturn(rampUpParameters);
 
         ClusterLayoutParameters clusterLayoutParameters = mock(ClusterLayoutParameters.class);
         when(clusterLayoutParameters.getDedicatedMemberMachineCount()).thenReturn(0);
@@ -341,7 +360,10 @@ public class TestCaseRunnerTest {
             sendToTestOnFirstWorkerTimes--;
             sendToTestOnAllWorkersTimes--;
         }
-        if (testSuite.getDurationSeconds() == 0) {
+        if (rampUpParameters != null) {
+            // the SetTargetThroughputOperation of the single ramp-up step is sent, the test is stopped after the ramp-up
+            sendToTestOnAllWorkersTimes++;
+        } else if (testSuite.getDurationSeconds() == 0) {
             // no StopTestOperation is sent
             sendToTestOnAllWorkersTimes--;
         } else if (testSuite.isWaitForTestCase()) {
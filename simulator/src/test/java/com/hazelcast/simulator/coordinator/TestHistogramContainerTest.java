@@ -1,5 +1,8 @@
 package com.hazelcast.simulator.coordinator;
 
+import com.hazelcast.simulator.probes.Result;
+import com.hazelcast.simulator.probes.binary.ResultBinaryUtils;
+import com.hazelcast.simulator.probes.xml.ResultXmlUtils;
 import com.hazelcast.simulator.protocol.core.AddressLevel;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.worker.performance.PerformanceState;
@@ -8,17 +11,16 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
-import javax.xml.bind.DatatypeConverter;
 import java.io.File;
-import java.nio.ByteBuffer;
-import java.util.Arrays;
 import java.util.Random;
-import java.util.zip.Deflater;
 
+import static com.hazelcast.simulator.probes.impl.HistogramUtils.toCompressedBytes;
 import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
 import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
 import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -26,17 +28,19 @@ import static org.mockito.Mockito.when;
 
 public class TestHistogramContainerTest {
 
-    private File probeFile = new File("probes-testSuiteId_testId.xml");
+    private File probeFile = new File("probes-testSuiteId_testId.bin");
+    private File xmlProbeFile = new File("probes-testSuiteId_testId.xml");
     private SimulatorAddress workerAddress1 = new SimulatorAddress(AddressLevel.WORKER, 1, 1, 0);
     private SimulatorAddress workerAddress2 = new SimulatorAddress(AddressLevel.WORKER, 1, 2, 0);
 
+    private PerformanceStateContainer performanceStateContainer;
     private TestHistogramContainer testHistogramContainer;
 
     @Before
     public void setUp() {
         PerformanceState performanceState = new PerformanceState();
 
-        PerformanceStateContainer performanceStateContainer = mock(PerformanceStateContainer.class);
+        performanceStateContainer = mock(PerformanceStateContainer.class);
         when(performanceStateContainer.getPerformanceStateForTestCase("testId")).thenReturn(performanceState);
 
         testHistogramContainer = new TestHistogramContainer(performanceStateContainer);
@@ -45,23 +49,44 @@ public class TestHistogramContainerTest {
     @After
     public void tearDown() {
         deleteQuiet(probeFile);
+        deleteQuiet(xmlProbeFile);
     }
 
     @Test
     public void testCreateProbeResults() {
-        String histogram1 = createEncodedHistogram();
+        byte[] histogram1 = createCompressedHistogram();
         testHistogramContainer.addTestHistograms(workerAddress1, "testId", singletonMap("workerProbe", histogram1));
 
-        String histogram2 = createEncodedHistogram();
+        byte[] histogram2 = createCompressedHistogram();
         testHistogramContainer.addTestHistograms(workerAddress2, "testId", singletonMap("workerProbe", histogram2));
 
         testHistogramContainer.createProbeResults("testSuiteId", "testId");
         assertTrue(probeFile.exists());
+        assertFalse(xmlProbeFile.exists());
+
+        Result result = ResultBinaryUtils.fromBinary(probeFile);
+        assertEquals("testId", result.getTestName());
+        assertEquals(singleton("workerProbe"), result.probeNames());
+        assertEquals(20, result.getHistogram("workerProbe").getTotalCount());
+    }
+
+    @Test
+    public void testCreateProbeResults_withXmlExport() {
+        testHistogramContainer = new TestHistogramContainer(performanceStateContainer, true);
+        byte[] histogram = createCompressedHistogram();
+        testHistogramContainer.addTestHistograms(workerAddress1, "testId", singletonMap("workerProbe", histogram));
+
+        testHistogramContainer.createProbeResults("testSuiteId", "testId");
+        assertTrue(probeFile.exists());
+        assertTrue(xmlProbeFile.exists());
+
+        Result result = ResultXmlUtils.fromXml(xmlProbeFile);
+        assertEquals(10, result.getHistogram("workerProbe").getTotalCount());
     }
 
     @Test
     public void testCreateProbeResults_noHistogramForTestId() {
-        String histogram = createEncodedHistogram();
+        byte[] histogram = createCompressedHistogram();
         testHistogramContainer.addTestHistograms(workerAddress1, "anotherTestId", singletonMap("workerProbe", histogram));
 
         testHistogramContainer.createProbeResults("testSuiteId", "testId");
@@ -70,7 +95,8 @@ public class TestHistogramContainerTest {
 
     @Test
     public void testCreateProbeResults_invalidHistogram() {
-        testHistogramContainer.addTestHistograms(workerAddress1, "testId", singletonMap("workerProbe", "invalidHistogram"));
+        byte[] histogram = "invalidHistogram".getBytes();
+        testHistogramContainer.addTestHistograms(workerAddress1, "testId", singletonMap("workerProbe", histogram));
 
         testHistogramContainer.createProbeResults("testSuiteId", "testId");
         assertFalse(probeFile.exists());
@@ -82,20 +108,13 @@ public class TestHistogramContainerTest {
         assertFalse(probeFile.exists());
     }
 
-    private static String createEncodedHistogram() {
+    private static byte[] createCompressedHistogram() {
         Random random = new Random();
 
         Histogram histogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
         for (int i = 0; i < 10; i++) {
             histogram.recordValue(random.nextInt((int) MAXIMUM_LATENCY));
         }
-        return getEncodedHistogram(histogram);
-    }
-
-    private static String getEncodedHistogram(Histogram combined) {
-        ByteBuffer targetBuffer = ByteBuffer.allocate(combined.getNeededByteBufferCapacity());
-        int compressedLength = combined.encodeIntoCompressedByteBuffer(targetBuffer, Deflater.BEST_COMPRESSION);
-        byte[] compressedArray = Arrays.copyOf(targetBuffer.array(), compressedLength);
-        return DatatypeConverter.printBase64Binary(compressedArray);
+        return toCompressedBytes(histogram);
     }
 }
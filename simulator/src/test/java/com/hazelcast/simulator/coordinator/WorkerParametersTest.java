@@ -39,6 +39,9 @@ public class WorkerParametersTest {
         when(properties.get(eq("WORKER_PERFORMANCE_MONITOR_INTERVAL_SECONDS"))).thenReturn("1234");
         when(properties.get("PROFILER")).thenReturn(JavaProfiler.NONE.name());
         when(properties.get(eq("NUMA_CONTROL"), anyString())).thenReturn("none");
+        when(properties.getWorkerJvmPoolSize()).thenReturn(2);
+        when(properties.isWorkerClassDataSharing()).thenReturn(true);
+        when(properties.getMaxInFlightMessages()).thenReturn(16);
 
         componentRegistry = getComponentRegistryMock();
 
@@ -67,6 +70,10 @@ public class WorkerParametersTest {
         assertEquals(JavaProfiler.NONE, workerParameters.getProfiler());
         assertEquals("", workerParameters.getProfilerSettings());
         assertEquals("none", workerParameters.getNumaCtl());
+
+        assertEquals(2, workerParameters.getWorkerJvmPoolSize());
+        assertTrue(workerParameters.isClassDataSharing());
+        assertEquals(16, workerParameters.getMaxInFlightMessages());
     }
 
     @Test
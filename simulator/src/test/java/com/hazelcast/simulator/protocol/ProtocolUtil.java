@@ -3,6 +3,7 @@ package com.hazelcast.simulator.protocol;
 import com.hazelcast.simulator.agent.Agent;
 import com.hazelcast.simulator.agent.workerjvm.WorkerJvmManager;
 import com.hazelcast.simulator.coordinator.FailureContainer;
+import com.hazelcast.simulator.coordinator.IntervalHistogramContainer;
 import com.hazelcast.simulator.coordinator.PerformanceStateContainer;
 import com.hazelcast.simulator.coordinator.TestHistogramContainer;
 import com.hazelcast.simulator.coordinator.TestPhaseListenerContainer;
@@ -12,7 +13,7 @@ import com.hazelcast.simulator.protocol.connector.ServerConnector;
 import com.hazelcast.simulator.protocol.connector.WorkerConnector;
 import com.hazelcast.simulator.protocol.core.AddressLevel;
 import com.hazelcast.simulator.protocol.core.Response;
-import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureMap;
 import com.hazelcast.simulator.protocol.core.ResponseType;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.exception.ExceptionLogger;
@@ -29,7 +30,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
-import java.util.concurrent.ConcurrentMap;
 
 import static com.hazelcast.simulator.TestEnvironmentUtils.deleteLogs;
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
@@ -163,7 +163,7 @@ class ProtocolUtil {
         TestHistogramContainer testHistogramContainer = new TestHistogramContainer(performanceStateContainer);
         FailureContainer failureContainer = new FailureContainer("ProtocolUtil", null);
         CoordinatorConnector coordinatorConnector = new CoordinatorConnector(failureContainer, testPhaseListenerContainer,
-                performanceStateContainer, testHistogramContainer);
+                performanceStateContainer, testHistogramContainer, mock(IntervalHistogramContainer.class));
         for (int i = 1; i <= numberOfAgents; i++) {
             coordinatorConnector.addAgent(i, agentHost, agentStartPort + i);
         }
@@ -248,7 +248,7 @@ class ProtocolUtil {
 
     private static <C extends ServerConnector> void assertEmptyFutureMaps(List<C> connectorList, String connectorName) {
         for (C connector : connectorList) {
-            ConcurrentMap<String, ResponseFuture> futureMap = connector.getFutureMap();
+            ResponseFutureMap futureMap = connector.getFutureMap();
             int futureMapSize = futureMap.size();
             if (futureMapSize > 0) {
                 LOGGER.error("Future entries: " + futureMap.toString());
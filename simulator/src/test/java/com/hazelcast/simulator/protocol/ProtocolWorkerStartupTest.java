@@ -0,0 +1,105 @@
+package com.hazelcast.simulator.protocol;
+
+import com.hazelcast.simulator.agent.Agent;
+import com.hazelcast.simulator.agent.workerjvm.WorkerJvm;
+import com.hazelcast.simulator.agent.workerjvm.WorkerJvmManager;
+import com.hazelcast.simulator.protocol.connector.AgentConnector;
+import com.hazelcast.simulator.protocol.connector.ClientConnector;
+import com.hazelcast.simulator.protocol.connector.WorkerConnector;
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.protocol.operation.WorkerStartedOperation;
+import com.hazelcast.simulator.worker.Worker;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.hazelcast.simulator.TestEnvironmentUtils.deleteLogs;
+import static com.hazelcast.simulator.protocol.ProtocolUtil.AGENT_START_PORT;
+import static com.hazelcast.simulator.protocol.ProtocolUtil.DEFAULT_TEST_TIMEOUT_MILLIS;
+import static com.hazelcast.simulator.protocol.core.AddressLevel.WORKER;
+import static com.hazelcast.simulator.worker.WorkerType.MEMBER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the in-band startup signal of a Worker, from the first refused connection of the Agent until the Agent has received
+ * the {@link WorkerStartedOperation}.
+ */
+public class ProtocolWorkerStartupTest {
+
+    private static final int AGENT_PORT = AGENT_START_PORT + 2000;
+    private static final int WORKER_PORT = AGENT_START_PORT + 2001;
+    private static final String HZ_ADDRESS = "127.0.0.1:5701";
+
+    private final SimulatorAddress workerAddress = new SimulatorAddress(WORKER, 1, 1, 0);
+    private final WorkerJvmManager workerJvmManager = new WorkerJvmManager();
+    private final WorkerJvm workerJvm = mock(WorkerJvm.class);
+
+    private AgentConnector agentConnector;
+    private WorkerConnector workerConnector;
+
+    @Before
+    public void setUp() {
+        Agent agent = mock(Agent.class);
+        when(agent.getAddressIndex()).thenReturn(1);
+
+        agentConnector = AgentConnector.createInstance(agent, workerJvmManager, AGENT_PORT, 0);
+        agentConnector.start();
+
+        workerJvmManager.add(workerAddress, workerJvm);
+    }
+
+    @After
+    public void tearDown() {
+        if (workerConnector != null) {
+            workerConnector.shutdown();
+        }
+        agentConnector.shutdown();
+
+        deleteLogs();
+    }
+
+    @Test(timeout = DEFAULT_TEST_TIMEOUT_MILLIS)
+    public void testWorkerStarted() {
+        ClientConnector clientConnector = agentConnector.createWorkerConnector(1, "127.0.0.1", WORKER_PORT);
+
+        // the Worker doesn't accept connections yet
+        assertFalse(clientConnector.tryStart());
+
+        workerConnector = startWorker();
+        workerConnector.submitToAgentOnConnect(new WorkerStartedOperation(HZ_ADDRESS));
+
+        // the same ClientConnector is used to retry the connection
+        assertTrue(clientConnector.tryStart());
+        assertEquals(workerAddress, agentConnector.addWorker(1, clientConnector));
+
+        verify(workerJvm, timeout(DEFAULT_TEST_TIMEOUT_MILLIS)).setStarted(HZ_ADDRESS);
+    }
+
+    @Test(timeout = DEFAULT_TEST_TIMEOUT_MILLIS)
+    public void testWorkerStarted_whenSubmittedAfterConnect() {
+        workerConnector = startWorker();
+
+        ClientConnector clientConnector = agentConnector.createWorkerConnector(1, "127.0.0.1", WORKER_PORT);
+        assertTrue(clientConnector.tryStart());
+        agentConnector.addWorker(1, clientConnector);
+
+        workerConnector.submitToAgentOnConnect(new WorkerStartedOperation(HZ_ADDRESS));
+
+        verify(workerJvm, timeout(DEFAULT_TEST_TIMEOUT_MILLIS)).setStarted(HZ_ADDRESS);
+    }
+
+    private WorkerConnector startWorker() {
+        Worker worker = mock(Worker.class);
+        WorkerConnector connector = WorkerConnector.createInstance(1, 1, WORKER_PORT, MEMBER, null, worker, false);
+        when(worker.getWorkerConnector()).thenReturn(connector);
+
+        connector.start();
+        return connector;
+    }
+}
@@ -3,6 +3,7 @@ package com.hazelcast.simulator.protocol.connector;
 import com.hazelcast.simulator.protocol.core.AddressLevel;
 import com.hazelcast.simulator.protocol.core.Response;
 import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureMap;
 import com.hazelcast.simulator.protocol.core.ResponseType;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.operation.IntegrationTestOperation;
@@ -12,14 +13,10 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
-import java.util.Map;
 import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
-import static com.hazelcast.simulator.protocol.core.ResponseFuture.getMessageIdFromFutureKey;
 import static com.hazelcast.simulator.protocol.core.ResponseType.EXCEPTION_DURING_OPERATION_EXECUTION;
 import static com.hazelcast.simulator.protocol.core.ResponseType.SUCCESS;
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
@@ -35,23 +32,25 @@ public class AbstractServerConnectorTest {
 
     private static final int PORT = 10000 + new Random().nextInt(1000);
     private static final int THREAD_POOL_SIZE = 3;
+    private static final int MAX_IN_FLIGHT_MESSAGES = 3;
     private static final IntegrationTestOperation DEFAULT_OPERATION = new IntegrationTestOperation();
 
     private boolean shutdownAfterTest = true;
 
     private SimulatorAddress connectorAddress;
-    private ConcurrentMap<String, ResponseFuture> futureMap;
+    private ResponseFutureMap futureMap;
     private ExecutorService executorService;
 
     private TestServerConnector testServerConnector;
 
     @Before
     public void setUp() {
-        futureMap = new ConcurrentHashMap<String, ResponseFuture>();
+        futureMap = new ResponseFutureMap();
         connectorAddress = new SimulatorAddress(AddressLevel.WORKER, 1, 1, 0);
         executorService = mock(ExecutorService.class);
 
-        testServerConnector = new TestServerConnector(futureMap, connectorAddress, PORT, THREAD_POOL_SIZE, executorService);
+        testServerConnector = new TestServerConnector(futureMap, connectorAddress, PORT, THREAD_POOL_SIZE, MAX_IN_FLIGHT_MESSAGES,
+                executorService);
     }
 
     @After
@@ -61,6 +60,11 @@ public class AbstractServerConnectorTest {
         }
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_invalidMaxInFlightMessages() {
+        new TestServerConnector(futureMap, connectorAddress, PORT, THREAD_POOL_SIZE, 0, executorService);
+    }
+
     @Test
     public void testShutdown() throws Exception {
         shutdownAfterTest = false;
@@ -123,6 +127,51 @@ public class AbstractServerConnectorTest {
         assertEquals(SUCCESS, response.getFirstErrorResponseType());
     }
 
+    @Test
+    public void testSubmit_sendsMessagesWithoutWaitingForResponses() throws Exception {
+        testServerConnector.start();
+
+        testServerConnector.submit(COORDINATOR, DEFAULT_OPERATION);
+        testServerConnector.submit(COORDINATOR, DEFAULT_OPERATION);
+        ResponseFuture future = testServerConnector.submit(COORDINATOR, DEFAULT_OPERATION);
+
+        int tries = 0;
+        while (testServerConnector.getInFlightMessageCountInternal() < 3 && tries++ < 50) {
+            sleepMillis(50);
+        }
+        assertEquals(3, testServerConnector.getInFlightMessageCountInternal());
+        assertEquals(0, testServerConnector.getMessageQueueSizeInternal());
+
+        setResponse(SUCCESS, 3);
+
+        Response response = future.get();
+        assertEquals(SUCCESS, response.getFirstErrorResponseType());
+        assertEquals(0, testServerConnector.getInFlightMessageCountInternal());
+    }
+
+    @Test
+    public void testSubmit_limitsInFlightMessages() throws Exception {
+        testServerConnector.start();
+
+        for (int i = 0; i < MAX_IN_FLIGHT_MESSAGES; i++) {
+            testServerConnector.submit(COORDINATOR, DEFAULT_OPERATION);
+        }
+        ResponseFuture future = testServerConnector.submit(COORDINATOR, DEFAULT_OPERATION);
+
+        int tries = 0;
+        while (testServerConnector.getInFlightMessageCountInternal() < MAX_IN_FLIGHT_MESSAGES && tries++ < 50) {
+            sleepMillis(50);
+        }
+        assertEquals(MAX_IN_FLIGHT_MESSAGES, testServerConnector.getInFlightMessageCountInternal());
+        assertEquals(1, testServerConnector.getMessageQueueSizeInternal());
+
+        setResponse(SUCCESS, MAX_IN_FLIGHT_MESSAGES + 1);
+
+        Response response = future.get();
+        assertEquals(SUCCESS, response.getFirstErrorResponseType());
+        assertEquals(0, testServerConnector.getInFlightMessageCountInternal());
+    }
+
     @Test
     public void testSubmit_withFailureResponse() throws Exception {
         testServerConnector.start();
@@ -138,10 +187,9 @@ public class AbstractServerConnectorTest {
         int responseSetCounter = 0;
         int tries = 0;
         do {
-            for (Map.Entry<String, ResponseFuture> entry : futureMap.entrySet()) {
-                long messageId = getMessageIdFromFutureKey(entry.getKey());
-                Response response = new Response(messageId, connectorAddress, COORDINATOR, responseType);
-                entry.getValue().set(response);
+            for (ResponseFuture future : futureMap.values()) {
+                Response response = new Response(future.getMessageId(), connectorAddress, COORDINATOR, responseType);
+                future.set(response);
                 responseSetCounter++;
             }
             sleepMillis(50);
@@ -152,9 +200,9 @@ public class AbstractServerConnectorTest {
 
         private final ChannelGroup channelGroup = mock(ChannelGroup.class);
 
-        TestServerConnector(ConcurrentMap<String, ResponseFuture> futureMap, SimulatorAddress localAddress, int port,
-                            int threadPoolSize, ExecutorService executorService) {
-            super(futureMap, localAddress, port, threadPoolSize, executorService);
+        TestServerConnector(ResponseFutureMap futureMap, SimulatorAddress localAddress, int port,
+                            int threadPoolSize, int maxInFlightMessages, ExecutorService executorService) {
+            super(futureMap, localAddress, port, threadPoolSize, maxInFlightMessages, executorService);
         }
 
         @Override
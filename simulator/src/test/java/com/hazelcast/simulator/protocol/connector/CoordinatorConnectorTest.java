@@ -1,6 +1,7 @@
 package com.hazelcast.simulator.protocol.connector;
 
 import com.hazelcast.simulator.coordinator.FailureContainer;
+import com.hazelcast.simulator.coordinator.IntervalHistogramContainer;
 import com.hazelcast.simulator.coordinator.PerformanceStateContainer;
 import com.hazelcast.simulator.coordinator.TestHistogramContainer;
 import com.hazelcast.simulator.coordinator.TestPhaseListenerContainer;
@@ -30,7 +31,7 @@ public class CoordinatorConnectorTest {
         executorService = mock(ExecutorService.class);
 
         coordinatorConnector = new CoordinatorConnector(failureContainer, testPhaseListenerContainer, performanceStateContainer,
-                testHistogramContainer, executorService);
+                testHistogramContainer, mock(IntervalHistogramContainer.class), executorService);
     }
 
     @Test
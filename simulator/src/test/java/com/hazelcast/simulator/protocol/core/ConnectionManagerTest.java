@@ -5,6 +5,8 @@ import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static com.hazelcast.simulator.utils.CommonUtils.rethrow;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
 import static org.junit.Assert.assertEquals;
@@ -26,6 +28,30 @@ public class ConnectionManagerTest {
         assertEquals(0, channelGroup.size());
     }
 
+    @Test
+    public void testRunOnFirstConnection() {
+        CountingTask task = new CountingTask();
+
+        connectionManager.runOnFirstConnection(task);
+        assertEquals(0, task.count.get());
+
+        connectionManager.connected(channel);
+        assertEquals(1, task.count.get());
+
+        connectionManager.disconnected(channel);
+        connectionManager.connected(channel);
+        assertEquals(1, task.count.get());
+    }
+
+    @Test
+    public void testRunOnFirstConnection_whenAlreadyConnected() {
+        CountingTask task = new CountingTask();
+        connectionManager.connected(channel);
+
+        connectionManager.runOnFirstConnection(task);
+        assertEquals(1, task.count.get());
+    }
+
     @Test(timeout = 5000)
     public void testWaitForAtLeastOneChannel() throws Exception {
         Thread addChannelThread = new Thread() {
@@ -60,4 +86,14 @@ public class ConnectionManagerTest {
         connectionManager.waitForAtLeastOneChannel();
         interruptThread.join();
     }
+
+    private static final class CountingTask implements Runnable {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public void run() {
+            count.incrementAndGet();
+        }
+    }
 }
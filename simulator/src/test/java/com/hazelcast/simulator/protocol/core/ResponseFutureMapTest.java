@@ -0,0 +1,117 @@
+package com.hazelcast.simulator.protocol.core;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.hazelcast.simulator.protocol.core.ResponseFuture.createInstance;
+import static com.hazelcast.simulator.protocol.core.ResponseType.SUCCESS;
+import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ResponseFutureMapTest {
+
+    private static final int FUTURE_COUNT = 1000;
+
+    private final SimulatorAddress workerAddress = new SimulatorAddress(AddressLevel.WORKER, 1, 2, 0);
+
+    private final ResponseFutureMap futureMap = new ResponseFutureMap();
+
+    @Test
+    public void testGet() {
+        ResponseFuture future = createInstance(futureMap, COORDINATOR, 42, 1);
+
+        assertEquals(future, futureMap.get(COORDINATOR, 42, 1));
+        assertEquals(future, futureMap.get(new SimulatorAddress(AddressLevel.COORDINATOR, 0, 0, 0), 42, 1));
+    }
+
+    @Test
+    public void testGet_differentKeys() {
+        createInstance(futureMap, COORDINATOR, 42, 1);
+
+        assertNull(futureMap.get(workerAddress, 42, 1));
+        assertNull(futureMap.get(COORDINATOR, 23, 1));
+        assertNull(futureMap.get(COORDINATOR, 42, 2));
+    }
+
+    @Test
+    public void testPut_replacesFutureWithSameKey() {
+        createInstance(futureMap, COORDINATOR, 42, 1);
+        ResponseFuture future = createInstance(futureMap, COORDINATOR, 42, 1);
+
+        assertEquals(1, futureMap.size());
+        assertEquals(future, futureMap.get(COORDINATOR, 42, 1));
+    }
+
+    @Test
+    public void testRemove() {
+        ResponseFuture future = createInstance(futureMap, COORDINATOR, 42, 1);
+        createInstance(futureMap, workerAddress, 42, 1);
+
+        futureMap.remove(future);
+
+        assertNull(futureMap.get(COORDINATOR, 42, 1));
+        assertNotNull(futureMap.get(workerAddress, 42, 1));
+        assertEquals(1, futureMap.size());
+    }
+
+    @Test
+    public void testRemove_replacedFuture() {
+        ResponseFuture oldFuture = createInstance(futureMap, COORDINATOR, 42, 1);
+        ResponseFuture newFuture = createInstance(futureMap, COORDINATOR, 42, 1);
+
+        futureMap.remove(oldFuture);
+
+        assertEquals(newFuture, futureMap.get(COORDINATOR, 42, 1));
+    }
+
+    @Test
+    public void testManyFutures() {
+        for (int messageId = 0; messageId < FUTURE_COUNT; messageId++) {
+            createInstance(futureMap, workerAddress, messageId, messageId % 3);
+        }
+        assertEquals(FUTURE_COUNT, futureMap.size());
+
+        for (int messageId = 0; messageId < FUTURE_COUNT; messageId++) {
+            ResponseFuture future = futureMap.get(workerAddress, messageId, messageId % 3);
+            assertNotNull(future);
+            future.set(new Response(messageId, workerAddress, COORDINATOR, SUCCESS));
+        }
+        assertTrue(futureMap.isEmpty());
+    }
+
+    @Test
+    public void testValues() {
+        ResponseFuture future1 = createInstance(futureMap, COORDINATOR, 1, 0);
+        ResponseFuture future2 = createInstance(futureMap, COORDINATOR, 2, 0);
+
+        List<ResponseFuture> values = futureMap.values();
+
+        Set<ResponseFuture> expected = new HashSet<ResponseFuture>();
+        expected.add(future1);
+        expected.add(future2);
+        assertEquals(expected, new HashSet<ResponseFuture>(values));
+    }
+
+    @Test
+    public void testIsEmpty() {
+        assertTrue(futureMap.isEmpty());
+
+        createInstance(futureMap, COORDINATOR, 1, 0);
+
+        assertFalse(futureMap.isEmpty());
+    }
+
+    @Test
+    public void testToString() {
+        createInstance(futureMap, COORDINATOR, 1, 0);
+
+        assertTrue(futureMap.toString().contains("messageId=1"));
+    }
+}
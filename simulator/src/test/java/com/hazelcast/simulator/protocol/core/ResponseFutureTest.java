@@ -3,19 +3,22 @@ package com.hazelcast.simulator.protocol.core;
 import com.hazelcast.util.EmptyStatement;
 import org.junit.Test;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
-import static com.hazelcast.simulator.protocol.core.ResponseFuture.createFutureKey;
 import static com.hazelcast.simulator.protocol.core.ResponseFuture.createInstance;
-import static com.hazelcast.simulator.protocol.core.ResponseFuture.getMessageIdFromFutureKey;
-import static com.hazelcast.simulator.protocol.core.ResponseFuture.getSourceFromFutureKey;
 import static com.hazelcast.simulator.protocol.core.ResponseType.SUCCESS;
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -23,32 +26,23 @@ public class ResponseFutureTest {
 
     private static final Response DEFAULT_RESULT = new Response(1L, COORDINATOR, COORDINATOR, SUCCESS);
     private static final int DEFAULT_TIMEOUT_MS = 500;
+    private static final int WAITING_THREAD_COUNT = 4;
 
-    private final ResponseFuture future = createInstance(new ConcurrentHashMap<String, ResponseFuture>(), "key");
+    private final ResponseFutureMap futureMap = new ResponseFutureMap();
+    private final ResponseFuture future = createInstance(futureMap, COORDINATOR, 42, 23);
     private final FutureSetter futureSetter = new FutureSetter(DEFAULT_RESULT, DEFAULT_TIMEOUT_MS);
 
     @Test
-    public void testCreateFutureKey() {
-        String futureKey = createFutureKey(COORDINATOR, 42, 23);
-        assertTrue(futureKey.contains(COORDINATOR.toString()));
-        assertTrue(futureKey.contains("42"));
-        assertTrue(futureKey.contains("23"));
+    public void testCreateInstance() {
+        assertEquals(COORDINATOR, future.getSource());
+        assertEquals(42, future.getMessageId());
+        assertEquals(23, future.getAddressIndex());
+        assertEquals(future, futureMap.get(COORDINATOR, 42, 23));
     }
 
     @Test
-    public void testGetSourceFromFutureKey() {
-        SimulatorAddress expectedAddress = new SimulatorAddress(AddressLevel.WORKER, 4, 8, 0);
-        String futureKey = createFutureKey(expectedAddress, 42, 23);
-        SimulatorAddress actualAddress = getSourceFromFutureKey(futureKey);
-        assertEquals(expectedAddress, actualAddress);
-    }
-
-    @Test
-    public void testGetMessageIdFromFutureKey() {
-        SimulatorAddress expectedAddress = new SimulatorAddress(AddressLevel.TEST, 4, 8, 23);
-        String futureKey = createFutureKey(expectedAddress, 42, 23);
-        long messageId = getMessageIdFromFutureKey(futureKey);
-        assertEquals(42, messageId);
+    public void testToString() {
+        assertNotNull(future.toString());
     }
 
     @Test(expected = UnsupportedOperationException.class)
@@ -76,6 +70,70 @@ public class ResponseFutureTest {
         future.set(null);
     }
 
+    @Test
+    public void testSet_removesFutureFromFutureMap() {
+        assertEquals(future, futureMap.get(COORDINATOR, 42, 23));
+
+        future.set(DEFAULT_RESULT);
+
+        assertNull(futureMap.get(COORDINATOR, 42, 23));
+        assertTrue(futureMap.isEmpty());
+    }
+
+    @Test
+    public void testSet_twice() throws Exception {
+        Response otherResult = new Response(2L, COORDINATOR, COORDINATOR, SUCCESS);
+
+        future.set(DEFAULT_RESULT);
+        future.set(otherResult);
+
+        assertEquals(DEFAULT_RESULT, future.get());
+    }
+
+    @Test
+    public void testAddListener() {
+        ResponseRecorder listener = new ResponseRecorder();
+        future.addListener(listener);
+        assertNull(listener.response.get());
+
+        future.set(DEFAULT_RESULT);
+
+        assertEquals(DEFAULT_RESULT, listener.response.get());
+    }
+
+    @Test
+    public void testAddListener_afterSet() {
+        future.set(DEFAULT_RESULT);
+
+        ResponseRecorder listener = new ResponseRecorder();
+        future.addListener(listener);
+
+        assertEquals(DEFAULT_RESULT, listener.response.get());
+    }
+
+    @Test
+    public void testAddListener_notifiesInRegistrationOrder() {
+        final List<Integer> notifications = new ArrayList<Integer>();
+        for (int i = 0; i < 3; i++) {
+            final int listenerIndex = i;
+            future.addListener(new ResponseListener() {
+                @Override
+                public void onResponse(Response response) {
+                    notifications.add(listenerIndex);
+                }
+            });
+        }
+
+        future.set(DEFAULT_RESULT);
+
+        assertEquals(asList(0, 1, 2), notifications);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddListener_null() {
+        future.addListener(null);
+    }
+
     @Test(timeout = 10000)
     public void testGet() throws Exception {
         futureSetter.start();
@@ -109,6 +167,25 @@ public class ResponseFutureTest {
         future.get(10, TimeUnit.MILLISECONDS);
     }
 
+    @Test(timeout = 10000)
+    public void testGet_withTimeout_removesWaitNode() throws Exception {
+        ResponseRecorder listener = new ResponseRecorder();
+        future.addListener(listener);
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                future.get(1, TimeUnit.MILLISECONDS);
+                fail("Expected TimeoutException!");
+            } catch (TimeoutException ignored) {
+                EmptyStatement.ignore(ignored);
+            }
+        }
+        assertEquals(1, future.getWaitNodeCountInternal());
+
+        future.set(DEFAULT_RESULT);
+        assertEquals(DEFAULT_RESULT, listener.response.get());
+    }
+
     @Test(timeout = 10000, expected = IllegalArgumentException.class)
     public void testGet_withTimeout_illegalTimeout() throws Exception {
         future.get(-1, TimeUnit.SECONDS);
@@ -119,6 +196,34 @@ public class ResponseFutureTest {
         future.get(0, null);
     }
 
+    @Test(timeout = 10000)
+    public void testGet_withMultipleWaitingThreads() throws Exception {
+        Thread[] threads = new Thread[WAITING_THREAD_COUNT];
+        final AtomicInteger responseCounter = new AtomicInteger();
+        for (int i = 0; i < WAITING_THREAD_COUNT; i++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        if (DEFAULT_RESULT.equals(future.get())) {
+                            responseCounter.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        EmptyStatement.ignore(e);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+
+        futureSetter.start();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(WAITING_THREAD_COUNT, responseCounter.get());
+    }
+
     @Test
     public void testGet_interrupted() throws Exception {
         Thread thread = new Thread() {
@@ -136,6 +241,18 @@ public class ResponseFutureTest {
         thread.start();
         thread.interrupt();
         thread.join();
+
+        assertEquals(0, future.getWaitNodeCountInternal());
+    }
+
+    private static class ResponseRecorder implements ResponseListener {
+
+        private final AtomicReference<Response> response = new AtomicReference<Response>();
+
+        @Override
+        public void onResponse(Response response) {
+            this.response.set(response);
+        }
     }
 
     private class FutureSetter extends Thread {
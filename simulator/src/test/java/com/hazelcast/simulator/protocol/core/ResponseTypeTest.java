@@ -5,6 +5,7 @@ import org.junit.Test;
 import static com.hazelcast.simulator.protocol.core.ResponseType.FAILURE_AGENT_NOT_FOUND;
 import static com.hazelcast.simulator.protocol.core.ResponseType.FAILURE_TEST_NOT_FOUND;
 import static com.hazelcast.simulator.protocol.core.ResponseType.FAILURE_WORKER_NOT_FOUND;
+import static com.hazelcast.simulator.protocol.core.ResponseType.FAILURE_WORKER_TIMEOUT;
 import static com.hazelcast.simulator.protocol.core.ResponseType.SUCCESS;
 import static com.hazelcast.simulator.protocol.core.ResponseType.fromInt;
 import static org.junit.Assert.assertEquals;
@@ -31,6 +32,11 @@ public class ResponseTypeTest {
         assertEquals(FAILURE_TEST_NOT_FOUND, fromInt(FAILURE_TEST_NOT_FOUND.toInt()));
     }
 
+    @Test
+    public void testFromInt_FAILURE_WORKER_TIMEOUT() {
+        assertEquals(FAILURE_WORKER_TIMEOUT, fromInt(FAILURE_WORKER_TIMEOUT.toInt()));
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testFromInt_invalid() {
         fromInt(-1);
@@ -1,12 +1,23 @@
 package com.hazelcast.simulator.protocol.core;
 
+import com.hazelcast.simulator.protocol.operation.LogOperation;
+import com.hazelcast.simulator.protocol.operation.OperationType;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import org.junit.After;
 import org.junit.Test;
 
+import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
 import static com.hazelcast.simulator.protocol.core.SimulatorMessageCodec.decodeSimulatorMessage;
+import static com.hazelcast.simulator.protocol.core.SimulatorMessageCodec.encodeByteBuf;
+import static com.hazelcast.simulator.protocol.core.SimulatorMessageCodec.getMessageId;
+import static com.hazelcast.simulator.protocol.core.SimulatorMessageCodec.isBinaryCodecSupported;
+import static com.hazelcast.simulator.protocol.core.SimulatorMessageCodec.isSimulatorMessage;
 import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class SimulatorMessageCodecTest {
 
@@ -33,4 +44,64 @@ public class SimulatorMessageCodecTest {
 
         decodeSimulatorMessage(buffer);
     }
+
+    @Test
+    public void testEncodeAndDecode_withJson() {
+        SimulatorMessage message = createLogMessage();
+        buffer = Unpooled.buffer();
+
+        encodeByteBuf(message, buffer, false);
+
+        assertTrue(isSimulatorMessage(buffer));
+        assertTrue(isBinaryCodecSupported(buffer));
+        assertEquals(42, getMessageId(buffer));
+
+        SimulatorMessage decoded = decodeSimulatorMessage(buffer);
+        assertNull(decoded.getOperation());
+        assertEquals(message.getOperationData(), decoded.getOperationData());
+        assertDecodedMessage(decoded);
+    }
+
+    @Test
+    public void testEncodeAndDecode_withBinaryCodec() {
+        SimulatorMessage message = createLogMessage();
+        buffer = Unpooled.buffer();
+
+        encodeByteBuf(message, buffer, true);
+
+        assertTrue(isSimulatorMessage(buffer));
+        assertTrue(isBinaryCodecSupported(buffer));
+        assertEquals(42, getMessageId(buffer));
+
+        SimulatorMessage decoded = decodeSimulatorMessage(buffer);
+        assertNotNull(decoded.getOperation());
+        assertEquals("codecTest", ((LogOperation) decoded.getOperation()).getMessage());
+        assertDecodedMessage(decoded);
+    }
+
+    @Test
+    public void testEncodeAndDecode_withBinaryCodec_withJsonOperationData() {
+        String operationData = createLogMessage().getOperationData();
+        SimulatorMessage message = new SimulatorMessage(COORDINATOR, COORDINATOR, 42, OperationType.LOG, operationData);
+        buffer = Unpooled.buffer();
+
+        encodeByteBuf(message, buffer, true);
+
+        SimulatorMessage decoded = decodeSimulatorMessage(buffer);
+        assertNull(decoded.getOperation());
+        assertEquals(operationData, decoded.getOperationData());
+        assertDecodedMessage(decoded);
+    }
+
+    private static SimulatorMessage createLogMessage() {
+        return new SimulatorMessage(COORDINATOR, COORDINATOR, 42, OperationType.LOG, new LogOperation("codecTest"));
+    }
+
+    private void assertDecodedMessage(SimulatorMessage decoded) {
+        assertEquals(COORDINATOR, decoded.getDestination());
+        assertEquals(COORDINATOR, decoded.getSource());
+        assertEquals(42, decoded.getMessageId());
+        assertEquals(OperationType.LOG, decoded.getOperationType());
+        assertEquals(0, buffer.readableBytes());
+    }
 }
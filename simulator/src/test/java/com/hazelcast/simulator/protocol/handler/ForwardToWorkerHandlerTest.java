@@ -5,7 +5,6 @@ import com.hazelcast.simulator.protocol.core.ClientConnectorManager;
 import com.hazelcast.simulator.protocol.core.Response;
 import com.hazelcast.simulator.protocol.core.ResponseCodec;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
-import com.hazelcast.simulator.utils.ExecutorFactory;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
@@ -18,9 +17,6 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.TimeUnit;
-
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -30,7 +26,6 @@ import static org.mockito.Mockito.when;
 public class ForwardToWorkerHandlerTest {
 
     private final AttributeKey<Integer> forwardAddressIndex = AttributeKey.valueOf("forwardAddressIndex");
-    private final ExecutorService executorService = ExecutorFactory.createFixedThreadPool(2, "ForwardToWorkerHandlerTest");
 
     @Mock
     private Attribute<Integer> forwardAddressIndexAttribute;
@@ -50,18 +45,14 @@ public class ForwardToWorkerHandlerTest {
 
         ClientConnectorManager clientConnectorManager = new ClientConnectorManager();
 
-        forwardToWorkerHandler = new ForwardToWorkerHandler(SimulatorAddress.COORDINATOR, clientConnectorManager,
-                executorService);
+        forwardToWorkerHandler = new ForwardToWorkerHandler(SimulatorAddress.COORDINATOR, clientConnectorManager);
     }
 
     @After
-    public void tearDown() throws Exception {
+    public void tearDown() {
         if (buffer != null) {
             buffer.release();
         }
-
-        executorService.shutdown();
-        executorService.awaitTermination(1, TimeUnit.SECONDS);
     }
 
     @Test
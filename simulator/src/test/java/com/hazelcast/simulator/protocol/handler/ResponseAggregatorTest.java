@@ -0,0 +1,109 @@
+package com.hazelcast.simulator.protocol.handler;
+
+import com.hazelcast.simulator.protocol.core.AddressLevel;
+import com.hazelcast.simulator.protocol.core.Response;
+import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureMap;
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import io.netty.channel.ChannelHandlerContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.protocol.core.ResponseFuture.createInstance;
+import static com.hazelcast.simulator.protocol.core.ResponseType.FAILURE_WORKER_TIMEOUT;
+import static com.hazelcast.simulator.protocol.core.ResponseType.SUCCESS;
+import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class ResponseAggregatorTest {
+
+    private static final long MESSAGE_ID = 42;
+
+    private final SimulatorAddress worker1 = new SimulatorAddress(AddressLevel.WORKER, 1, 1, 0);
+    private final SimulatorAddress worker2 = new SimulatorAddress(AddressLevel.WORKER, 1, 2, 0);
+
+    private final ResponseFutureMap futureMap = new ResponseFutureMap();
+    private final ChannelHandlerContext ctx = mock(ChannelHandlerContext.class);
+    private final Response response = new Response(MESSAGE_ID, COORDINATOR);
+
+    private ScheduledExecutorService scheduler;
+    private ResponseAggregator aggregator;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        aggregator = new ResponseAggregator(ctx, response);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        scheduler.shutdownNow();
+        scheduler.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testStart_noFutures() {
+        aggregator.start(scheduler, 1, TimeUnit.MINUTES);
+
+        verify(ctx).writeAndFlush(response);
+        assertEquals(0, response.size());
+    }
+
+    @Test
+    public void testOnResponse_writesResponseAfterLastWorker() {
+        ResponseFuture future1 = addFuture(worker1, 1);
+        ResponseFuture future2 = addFuture(worker2, 2);
+        aggregator.start(scheduler, 1, TimeUnit.MINUTES);
+
+        future1.set(new Response(MESSAGE_ID, COORDINATOR, worker1, SUCCESS));
+        verify(ctx, never()).writeAndFlush(response);
+
+        future2.set(new Response(MESSAGE_ID, COORDINATOR, worker2, SUCCESS));
+        verify(ctx).writeAndFlush(response);
+
+        assertEquals(2, response.size());
+        assertEquals(SUCCESS, response.getFirstErrorResponseType());
+        assertTrue(futureMap.isEmpty());
+    }
+
+    @Test
+    public void testOnResponse_futureDoneBeforeStart() {
+        ResponseFuture future = addFuture(worker1, 1);
+        future.set(new Response(MESSAGE_ID, COORDINATOR, worker1, SUCCESS));
+
+        aggregator.start(scheduler, 1, TimeUnit.MINUTES);
+
+        verify(ctx).writeAndFlush(response);
+        assertEquals(1, response.size());
+    }
+
+    @Test
+    public void testRun_timeoutOfPendingWorker() {
+        ResponseFuture future1 = addFuture(worker1, 1);
+        addFuture(worker2, 2);
+        aggregator.start(scheduler, 50, TimeUnit.MILLISECONDS);
+
+        future1.set(new Response(MESSAGE_ID, COORDINATOR, worker1, SUCCESS));
+
+        verify(ctx, timeout(TimeUnit.SECONDS.toMillis(10))).writeAndFlush(response);
+        assertEquals(2, response.size());
+        assertEquals(FAILURE_WORKER_TIMEOUT, response.getFirstErrorResponseType());
+        assertTrue(futureMap.isEmpty());
+    }
+
+    private ResponseFuture addFuture(SimulatorAddress workerAddress, int remoteIndex) {
+        ResponseFuture future = createInstance(futureMap, COORDINATOR, MESSAGE_ID, remoteIndex);
+        aggregator.add(future, workerAddress);
+        return future;
+    }
+}
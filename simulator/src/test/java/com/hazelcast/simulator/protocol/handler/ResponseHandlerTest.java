@@ -3,15 +3,13 @@ package com.hazelcast.simulator.protocol.handler;
 import com.hazelcast.simulator.protocol.core.AddressLevel;
 import com.hazelcast.simulator.protocol.core.Response;
 import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureMap;
 import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import org.junit.Before;
 import org.junit.Test;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
-import static com.hazelcast.simulator.protocol.core.ResponseFuture.createFutureKey;
 import static com.hazelcast.simulator.protocol.core.ResponseFuture.createInstance;
 import static org.junit.Assert.assertEquals;
 
@@ -20,13 +18,13 @@ public class ResponseHandlerTest {
     private final SimulatorAddress localAddress = SimulatorAddress.COORDINATOR;
     private final SimulatorAddress remoteAddress = new SimulatorAddress(AddressLevel.WORKER, 1, 1, 0);
 
-    private ConcurrentMap<String, ResponseFuture> futureMap;
+    private ResponseFutureMap futureMap;
 
     private ResponseHandler responseHandler;
 
     @Before
     public void setUp() {
-        futureMap = new ConcurrentHashMap<String, ResponseFuture>();
+        futureMap = new ResponseFutureMap();
 
         responseHandler = new ResponseHandler(localAddress, remoteAddress, futureMap);
     }
@@ -36,8 +34,8 @@ public class ResponseHandlerTest {
         long messageId = 2948;
         Response response = new Response(messageId, remoteAddress);
 
-        String futureKey = createFutureKey(response.getDestination(), messageId, remoteAddress.getAddressIndex());
-        ResponseFuture responseFuture = createInstance(futureMap, futureKey);
+        ResponseFuture responseFuture = createInstance(futureMap, response.getDestination(), messageId,
+                remoteAddress.getAddressIndex());
 
         responseHandler.channelRead0(null, response);
 
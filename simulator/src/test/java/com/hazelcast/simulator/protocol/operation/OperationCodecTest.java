@@ -5,26 +5,47 @@ import com.hazelcast.simulator.common.SimulatorProperties;
 import com.hazelcast.simulator.coordinator.WorkerParameters;
 import com.hazelcast.simulator.protocol.core.SimulatorMessage;
 import com.hazelcast.simulator.worker.WorkerType;
+import com.hazelcast.simulator.worker.performance.PerformanceState;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
+import org.junit.After;
 import org.junit.Test;
 
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
 import static com.hazelcast.simulator.protocol.operation.IntegrationTestOperation.Type.EQUALS;
 import static com.hazelcast.simulator.protocol.operation.OperationCodec.fromJson;
+import static com.hazelcast.simulator.protocol.operation.OperationCodec.decodeBinary;
+import static com.hazelcast.simulator.protocol.operation.OperationCodec.encodeBinary;
 import static com.hazelcast.simulator.protocol.operation.OperationCodec.fromSimulatorMessage;
+import static com.hazelcast.simulator.protocol.operation.OperationCodec.hasBinaryCodec;
 import static com.hazelcast.simulator.protocol.operation.OperationCodec.toJson;
 import static com.hazelcast.simulator.utils.FormatUtils.NEW_LINE;
 import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 public class OperationCodecTest {
 
     private static final Logger LOGGER = Logger.getLogger(OperationCodecTest.class);
 
+    private final ByteBuf buffer = Unpooled.buffer();
+
+    @After
+    public void tearDown() {
+        buffer.release();
+    }
+
     @Test
     public void testConstructor() throws Exception {
         invokePrivateConstructor(OperationCodec.class);
@@ -51,6 +72,99 @@ public class OperationCodecTest {
         assertEquals(operation.getTestData(), decoded.getTestData());
     }
 
+    @Test
+    public void testCodec_fromSimulatorMessage_withOperation() {
+        IntegrationTestOperation operation = new IntegrationTestOperation(EQUALS, "codecTest_fromSimulatorMessage");
+
+        SimulatorMessage message = new SimulatorMessage(COORDINATOR, COORDINATOR, 0, OperationType.INTEGRATION_TEST, operation);
+        assertSame(operation, fromSimulatorMessage(message));
+    }
+
+    @Test
+    public void testHasBinaryCodec() {
+        assertTrue(hasBinaryCodec(OperationType.PERFORMANCE_STATE));
+        assertFalse(hasBinaryCodec(OperationType.CREATE_WORKER));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEncodeBinary_withoutBinaryCodec() {
+        encodeBinary(new IntegrationTestOperation(EQUALS, "noBinaryCodec"), OperationType.INTEGRATION_TEST, buffer);
+    }
+
+    @Test
+    public void testBinaryCodec_pingOperation() {
+        encodeBinary(new PingOperation(), OperationType.PING, buffer);
+
+        assertNotNull(decodeBinary(OperationType.PING, buffer));
+        assertEquals(0, buffer.readableBytes());
+    }
+
+    @Test
+    public void testBinaryCodec_logOperation() {
+        encodeBinary(new LogOperation("binaryCodecTest", Level.WARN), OperationType.LOG, buffer);
+
+        LogOperation decoded = (LogOperation) decodeBinary(OperationType.LOG, buffer);
+        assertEquals("binaryCodecTest", decoded.getMessage());
+        assertEquals(Level.WARN, decoded.getLevel());
+        assertEquals(0, buffer.readableBytes());
+    }
+
+    @Test
+    public void testBinaryCodec_performanceStateOperation() {
+        PerformanceStateOperation operation = new PerformanceStateOperation();
+        operation.addPerformanceState("testId1", new PerformanceState(1000, 50.0, 1234.56, 33.0d, 23, 42));
+        operation.addPerformanceState("testId2", new PerformanceState(2000, 60.0, 2345.67, 44.0d, 34, 53));
+
+        encodeBinary(operation, OperationType.PERFORMANCE_STATE, buffer);
+
+        PerformanceStateOperation decoded = (PerformanceStateOperation) decodeBinary(OperationType.PERFORMANCE_STATE, buffer);
+        assertEquals(2, decoded.getPerformanceStates().size());
+
+        PerformanceState performanceState = decoded.getPerformanceStates().get("testId1");
+        assertEquals(1000, performanceState.getOperationCount());
+        assertEquals(50.0, performanceState.getIntervalThroughput(), 0.0001);
+        assertEquals(1234.56, performanceState.getTotalThroughput(), 0.0001);
+        assertEquals(33.0, performanceState.getIntervalAvgLatency(), 0.0001);
+        assertEquals(23, performanceState.getIntervalPercentileLatency());
+        assertEquals(42, performanceState.getIntervalMaxLatency());
+        assertEquals(0, buffer.readableBytes());
+    }
+
+    @Test
+    public void testBinaryCodec_testHistogramOperation() {
+        Map<String, byte[]> probeHistograms = new HashMap<String, byte[]>();
+        probeHistograms.put("probe1", "histogram1".getBytes());
+        probeHistograms.put("probe2", "histogram2".getBytes());
+
+        encodeBinary(new TestHistogramOperation("testId", probeHistograms), OperationType.TEST_HISTOGRAMS, buffer);
+
+        TestHistogramOperation decoded = (TestHistogramOperation) decodeBinary(OperationType.TEST_HISTOGRAMS, buffer);
+        assertEquals("testId", decoded.getTestId());
+        assertProbeHistograms(probeHistograms, decoded.getProbeHistograms());
+        assertEquals(0, buffer.readableBytes());
+    }
+
+    @Test
+    public void testBinaryCodec_intervalHistogramOperation() {
+        Map<String, byte[]> probeHistograms = new HashMap<String, byte[]>();
+        probeHistograms.put("probe1", "histogram1".getBytes());
+        probeHistograms.put("probe2", "histogram2".getBytes());
+        Map<String, byte[]> serviceTimeHistograms = new HashMap<String, byte[]>();
+        serviceTimeHistograms.put("probe1ServiceTime", "histogram3".getBytes());
+        IntervalHistogramOperation operation = new IntervalHistogramOperation("testId", 42, 1234, probeHistograms,
+                serviceTimeHistograms);
+
+        encodeBinary(operation, OperationType.INTERVAL_HISTOGRAMS, buffer);
+
+        IntervalHistogramOperation decoded = (IntervalHistogramOperation) decodeBinary(OperationType.INTERVAL_HISTOGRAMS, buffer);
+        assertEquals("testId", decoded.getTestId());
+        assertEquals(42, decoded.getSequence());
+        assertEquals(1234, decoded.getTimestamp());
+        assertProbeHistograms(probeHistograms, decoded.getProbeHistograms());
+        assertProbeHistograms(serviceTimeHistograms, decoded.getServiceTimeHistograms());
+        assertEquals(0, buffer.readableBytes());
+    }
+
     @Test
     public void testCodec_withComplexOperation() {
         SimulatorProperties properties = mock(SimulatorProperties.class);
@@ -88,5 +202,15 @@ public class OperationCodecTest {
         assertEquals(workerJvmSettings.getProfiler(), decodedSettings.getProfiler());
         assertEquals(workerJvmSettings.getProfilerSettings(), decodedSettings.getProfilerSettings());
         assertEquals(workerJvmSettings.getNumaCtl(), decodedSettings.getNumaCtl());
+        assertEquals(workerJvmSettings.getWorkerJvmPoolSize(), decodedSettings.getWorkerJvmPoolSize());
+        assertEquals(workerJvmSettings.isClassDataSharing(), decodedSettings.isClassDataSharing());
+        assertEquals(workerJvmSettings.getMaxInFlightMessages(), decodedSettings.getMaxInFlightMessages());
+    }
+
+    private static void assertProbeHistograms(Map<String, byte[]> expected, Map<String, byte[]> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<String, byte[]> entry : expected.entrySet()) {
+            assertArrayEquals(entry.getValue(), actual.get(entry.getKey()));
+        }
     }
 }
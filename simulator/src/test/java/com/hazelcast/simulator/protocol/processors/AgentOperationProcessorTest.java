@@ -4,11 +4,14 @@ import com.hazelcast.simulator.agent.Agent;
 import com.hazelcast.simulator.agent.workerjvm.WorkerJvm;
 import com.hazelcast.simulator.agent.workerjvm.WorkerJvmFailureMonitor;
 import com.hazelcast.simulator.agent.workerjvm.WorkerJvmManager;
+import com.hazelcast.simulator.agent.workerjvm.WorkerJvmPool;
 import com.hazelcast.simulator.agent.workerjvm.WorkerJvmSettings;
 import com.hazelcast.simulator.common.CoordinatorLogger;
 import com.hazelcast.simulator.common.JavaProfiler;
 import com.hazelcast.simulator.protocol.connector.AgentConnector;
+import com.hazelcast.simulator.protocol.connector.ClientConnector;
 import com.hazelcast.simulator.protocol.core.ResponseType;
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
 import com.hazelcast.simulator.protocol.exception.ExceptionLogger;
 import com.hazelcast.simulator.protocol.operation.CreateTestOperation;
 import com.hazelcast.simulator.protocol.operation.CreateWorkerOperation;
@@ -17,6 +20,8 @@ import com.hazelcast.simulator.protocol.operation.IntegrationTestOperation;
 import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
 import com.hazelcast.simulator.protocol.operation.StartTimeoutDetectionOperation;
 import com.hazelcast.simulator.protocol.operation.StopTimeoutDetectionOperation;
+import com.hazelcast.simulator.protocol.operation.WorkerExceptionOperation;
+import com.hazelcast.simulator.protocol.operation.WorkerStartedOperation;
 import com.hazelcast.simulator.test.TestCase;
 import com.hazelcast.simulator.test.TestSuite;
 import com.hazelcast.simulator.utils.jars.HazelcastJARs;
@@ -38,7 +43,9 @@ import static com.hazelcast.simulator.common.JavaProfiler.HPROF;
 import static com.hazelcast.simulator.common.JavaProfiler.PERF;
 import static com.hazelcast.simulator.common.JavaProfiler.VTUNE;
 import static com.hazelcast.simulator.common.JavaProfiler.YOURKIT;
+import static com.hazelcast.simulator.protocol.core.AddressLevel.WORKER;
 import static com.hazelcast.simulator.protocol.core.ResponseType.EXCEPTION_DURING_OPERATION_EXECUTION;
+import static com.hazelcast.simulator.protocol.core.ResponseType.FAILURE_WORKER_NOT_FOUND;
 import static com.hazelcast.simulator.protocol.core.ResponseType.SUCCESS;
 import static com.hazelcast.simulator.protocol.core.ResponseType.UNSUPPORTED_OPERATION_ON_THIS_PROCESSOR;
 import static com.hazelcast.simulator.protocol.core.SimulatorAddress.COORDINATOR;
@@ -55,6 +62,8 @@ import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -67,6 +76,7 @@ public class AgentOperationProcessorTest {
     private final ExceptionLogger exceptionLogger = mock(ExceptionLogger.class);
     private final WorkerJvmFailureMonitor failureMonitor = mock(WorkerJvmFailureMonitor.class);
     private final WorkerJvmManager workerJvmManager = new WorkerJvmManager();
+    private final WorkerJvmPool workerJvmPool = new WorkerJvmPool();
     private final ExecutorService executorService = createFixedThreadPool(3, "AgentOperationProcessorTest");
 
     private TestSuite testSuite;
@@ -82,7 +92,11 @@ public class AgentOperationProcessorTest {
         testSuite = new TestSuite("AgentOperationProcessorTest");
         testSuiteDir = new File(workersDir, testSuite.getId()).getAbsoluteFile();
 
+        ClientConnector workerConnector = mock(ClientConnector.class);
+        when(workerConnector.tryStart()).thenReturn(true);
+
         AgentConnector agentConnector = mock(AgentConnector.class);
+        when(agentConnector.createWorkerConnector(anyInt(), anyString(), anyInt())).thenReturn(workerConnector);
         CoordinatorLogger coordinatorLogger = mock(CoordinatorLogger.class);
 
         Agent agent = mock(Agent.class);
@@ -93,12 +107,15 @@ public class AgentOperationProcessorTest {
         when(agent.getAgentConnector()).thenReturn(agentConnector);
         when(agent.getCoordinatorLogger()).thenReturn(coordinatorLogger);
         when(agent.getWorkerJvmFailureMonitor()).thenReturn(failureMonitor);
+        when(agent.getWorkerJvmPool()).thenReturn(workerJvmPool);
 
         processor = new AgentOperationProcessor(exceptionLogger, agent, workerJvmManager, executorService);
     }
 
     @After
     public void tearDown() throws Exception {
+        workerJvmPool.shutdown();
+
         resetUserDir();
         deleteLogs();
 
@@ -229,6 +246,76 @@ public class AgentOperationProcessorTest {
         }
     }
 
+    @Test(timeout = DEFAULT_TEST_TIMEOUT)
+    public void testCreateWorkerOperation_withWorkerJvmPool() throws Exception {
+        ResponseType responseType = testCreateWorkerOperation(1, 1);
+        assertEquals(SUCCESS, responseType);
+        assertWorkerLifecycle();
+        workerJvmManager.getWorkerJVMs().clear();
+
+        // the pool is filled before the operation returns, so the idle JVMs are not started during the test phase
+        assertEquals(1, workerJvmPool.getIdleCount());
+
+        // the second Worker is started in the pooled JVM, which has to create its files in the Worker home
+        responseType = testCreateWorkerOperation(2, 1);
+        assertEquals(SUCCESS, responseType);
+        assertWorkerLifecycle();
+    }
+
+    @Test(timeout = DEFAULT_TEST_TIMEOUT)
+    public void testCreateWorkerOperation_withWorkerJvmPool_withInitialHeapSize() throws Exception {
+        ResponseType responseType = testCreateWorkerOperation(1, 1, "-Xms64m");
+        assertEquals(SUCCESS, responseType);
+        assertWorkerLifecycle();
+
+        // an idle JVM would commit its initial heap, so the pool is not used
+        assertEquals(0, workerJvmPool.getIdleCount());
+    }
+
+    @Test
+    public void testWorkerStartedOperation() throws Exception {
+        SimulatorAddress workerAddress = new SimulatorAddress(WORKER, 1, 1, 0);
+        WorkerJvm workerJvm = mock(WorkerJvm.class);
+        workerJvmManager.add(workerAddress, workerJvm);
+
+        SimulatorOperation operation = new WorkerStartedOperation("127.0.0.1:5701");
+        ResponseType responseType = processor.processOperation(getOperationType(operation), operation, workerAddress);
+
+        assertEquals(SUCCESS, responseType);
+        verify(workerJvm).setStarted("127.0.0.1:5701");
+    }
+
+    @Test
+    public void testWorkerStartedOperation_withUnknownWorker() throws Exception {
+        SimulatorOperation operation = new WorkerStartedOperation("127.0.0.1:5701");
+        ResponseType responseType = processor.processOperation(getOperationType(operation), operation,
+                new SimulatorAddress(WORKER, 1, 1, 0));
+
+        assertEquals(FAILURE_WORKER_NOT_FOUND, responseType);
+    }
+
+    @Test
+    public void testWorkerExceptionOperation() throws Exception {
+        SimulatorAddress workerAddress = new SimulatorAddress(WORKER, 1, 1, 0);
+        WorkerJvm workerJvm = mock(WorkerJvm.class);
+        workerJvmManager.add(workerAddress, workerJvm);
+
+        SimulatorOperation operation = new WorkerExceptionOperation("testId", "cause");
+        ResponseType responseType = processor.processOperation(getOperationType(operation), operation, workerAddress);
+
+        assertEquals(SUCCESS, responseType);
+        verify(failureMonitor).reportExceptionAsync(workerJvm, "testId", "cause");
+    }
+
+    @Test
+    public void testWorkerExceptionOperation_withUnknownWorker() throws Exception {
+        SimulatorOperation operation = new WorkerExceptionOperation("testId", "cause");
+        ResponseType responseType = processor.processOperation(getOperationType(operation), operation,
+                new SimulatorAddress(WORKER, 1, 1, 0));
+
+        assertEquals(FAILURE_WORKER_NOT_FOUND, responseType);
+    }
+
     @Test
     public void testStartTimeoutDetectionOperation() throws Exception {
         SimulatorOperation operation = new StartTimeoutDetectionOperation();
@@ -253,11 +340,28 @@ public class AgentOperationProcessorTest {
         return testCreateWorkerOperation(withStartupException, startupTimeout, JavaProfiler.NONE, null);
     }
 
+    private ResponseType testCreateWorkerOperation(int workerIndex, int workerJvmPoolSize) throws Exception {
+        return testCreateWorkerOperation(workerIndex, workerJvmPoolSize, "-verbose:gc");
+    }
+
+    private ResponseType testCreateWorkerOperation(int workerIndex, int workerJvmPoolSize, String jvmOptions) throws Exception {
+        return testCreateWorkerOperation(false, DEFAULT_STARTUP_TIMEOUT, JavaProfiler.NONE, null, workerIndex, workerJvmPoolSize,
+                jvmOptions);
+    }
+
     private ResponseType testCreateWorkerOperation(boolean withStartupException, int startupTimeout, JavaProfiler javaProfiler,
                                                    String profilerSettings) throws Exception {
+        return testCreateWorkerOperation(withStartupException, startupTimeout, javaProfiler, profilerSettings, 1, 0,
+                "-verbose:gc");
+    }
+
+    private ResponseType testCreateWorkerOperation(boolean withStartupException, int startupTimeout, JavaProfiler javaProfiler,
+                                                   String profilerSettings, int workerIndex, int workerJvmPoolSize,
+                                                   String jvmOptions) throws Exception {
         WorkerJvmSettings workerJvmSettings = mock(WorkerJvmSettings.class);
         when(workerJvmSettings.getWorkerType()).thenReturn(WorkerType.INTEGRATION_TEST);
-        when(workerJvmSettings.getWorkerIndex()).thenReturn(1);
+        when(workerJvmSettings.getWorkerIndex()).thenReturn(workerIndex);
+        when(workerJvmSettings.getWorkerJvmPoolSize()).thenReturn(workerJvmPoolSize);
         when(workerJvmSettings.getHazelcastConfig()).thenReturn("");
         when(workerJvmSettings.getLog4jConfig()).thenReturn(fileAsText("dist/src/main/dist/conf/worker-log4j.xml"));
         when(workerJvmSettings.getProfiler()).thenReturn(javaProfiler);
@@ -265,7 +369,7 @@ public class AgentOperationProcessorTest {
         when(workerJvmSettings.getNumaCtl()).thenReturn(withStartupException ? null : "none");
         when(workerJvmSettings.getHazelcastVersionSpec()).thenReturn(HazelcastJARs.BRING_MY_OWN);
         when(workerJvmSettings.getWorkerStartupTimeout()).thenReturn(startupTimeout);
-        when(workerJvmSettings.getJvmOptions()).thenReturn("-verbose:gc");
+        when(workerJvmSettings.getJvmOptions()).thenReturn(jvmOptions);
 
         SimulatorOperation operation = new CreateWorkerOperation(singletonList(workerJvmSettings));
         return processor.processOperation(getOperationType(operation), operation, COORDINATOR);
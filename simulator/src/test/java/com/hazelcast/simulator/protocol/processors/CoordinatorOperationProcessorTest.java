@@ -2,6 +2,7 @@ package com.hazelcast.simulator.protocol.processors;
 
 import com.hazelcast.simulator.coordinator.FailureContainer;
 import com.hazelcast.simulator.coordinator.FailureListener;
+import com.hazelcast.simulator.coordinator.IntervalHistogramContainer;
 import com.hazelcast.simulator.coordinator.PerformanceStateContainer;
 import com.hazelcast.simulator.coordinator.TestHistogramContainer;
 import com.hazelcast.simulator.coordinator.TestPhaseListener;
@@ -12,6 +13,7 @@ import com.hazelcast.simulator.protocol.exception.LocalExceptionLogger;
 import com.hazelcast.simulator.protocol.operation.ExceptionOperation;
 import com.hazelcast.simulator.protocol.operation.FailureOperation;
 import com.hazelcast.simulator.protocol.operation.IntegrationTestOperation;
+import com.hazelcast.simulator.protocol.operation.IntervalHistogramOperation;
 import com.hazelcast.simulator.protocol.operation.PerformanceStateOperation;
 import com.hazelcast.simulator.protocol.operation.PhaseCompletedOperation;
 import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
@@ -21,6 +23,7 @@ import com.hazelcast.simulator.test.FailureType;
 import com.hazelcast.simulator.test.TestException;
 import com.hazelcast.simulator.test.TestPhase;
 import com.hazelcast.simulator.worker.performance.PerformanceState;
+import org.HdrHistogram.Histogram;
 import org.apache.log4j.Level;
 import org.junit.After;
 import org.junit.AfterClass;
@@ -40,6 +43,9 @@ import static com.hazelcast.simulator.TestEnvironmentUtils.setLogLevel;
 import static com.hazelcast.simulator.coordinator.PerformanceStateContainer.LATENCY_FORMAT_LENGTH;
 import static com.hazelcast.simulator.coordinator.PerformanceStateContainer.OPERATION_COUNT_FORMAT_LENGTH;
 import static com.hazelcast.simulator.coordinator.PerformanceStateContainer.THROUGHPUT_FORMAT_LENGTH;
+import static com.hazelcast.simulator.probes.impl.HistogramUtils.toCompressedBytes;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
 import static com.hazelcast.simulator.protocol.core.AddressLevel.TEST;
 import static com.hazelcast.simulator.protocol.core.AddressLevel.WORKER;
 import static com.hazelcast.simulator.protocol.core.ResponseType.EXCEPTION_DURING_OPERATION_EXECUTION;
@@ -53,9 +59,15 @@ import static com.hazelcast.simulator.utils.FormatUtils.formatDouble;
 import static com.hazelcast.simulator.utils.FormatUtils.formatLong;
 import static java.lang.String.format;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 public class CoordinatorOperationProcessorTest implements FailureListener {
 
@@ -67,6 +79,7 @@ public class CoordinatorOperationProcessorTest implements FailureListener {
     private TestPhaseListenerContainer testPhaseListenerContainer;
     private PerformanceStateContainer performanceStateContainer;
     private TestHistogramContainer testHistogramContainer;
+    private IntervalHistogramContainer intervalHistogramContainer;
     private FailureContainer failureContainer;
 
     private CoordinatorOperationProcessor processor;
@@ -91,10 +104,11 @@ public class CoordinatorOperationProcessorTest implements FailureListener {
         testPhaseListenerContainer = new TestPhaseListenerContainer();
         performanceStateContainer = new PerformanceStateContainer();
         testHistogramContainer = new TestHistogramContainer(performanceStateContainer);
+        intervalHistogramContainer = mock(IntervalHistogramContainer.class);
         failureContainer = new FailureContainer("CoordinatorOperationProcessorTest", componentRegistry);
 
         processor = new CoordinatorOperationProcessor(exceptionLogger, failureContainer, testPhaseListenerContainer,
-                performanceStateContainer, testHistogramContainer);
+                performanceStateContainer, testHistogramContainer, intervalHistogramContainer);
     }
 
     @After
@@ -194,22 +208,55 @@ public class CoordinatorOperationProcessorTest implements FailureListener {
 
     @Test
     public void processTestHistogram() {
-        Map<String, String> probeHistograms = new HashMap<String, String>();
-        probeHistograms.put("probe1", "histogram1");
-        probeHistograms.put("probe2", "histogram2");
+        byte[] histogram1 = "histogram1".getBytes();
+        byte[] histogram2 = "histogram2".getBytes();
+        Map<String, byte[]> probeHistograms = new HashMap<String, byte[]>();
+        probeHistograms.put("probe1", histogram1);
+        probeHistograms.put("probe2", histogram2);
         TestHistogramOperation operation = new TestHistogramOperation("testId", probeHistograms);
 
         ResponseType responseType = processor.process(operation, workerAddress);
         assertEquals(SUCCESS, responseType);
 
-        ConcurrentMap<String, Map<String, String>> testHistograms = testHistogramContainer.getTestHistograms(workerAddress);
+        ConcurrentMap<String, Map<String, byte[]>> testHistograms = testHistogramContainer.getTestHistograms(workerAddress);
         assertNotNull(testHistograms);
         assertEquals(1, testHistograms.size());
 
-        Map<String, String> actualProbeHistograms = testHistograms.get("testId");
+        Map<String, byte[]> actualProbeHistograms = testHistograms.get("testId");
         assertNotNull(actualProbeHistograms);
-        assertEquals("histogram1", actualProbeHistograms.get("probe1"));
-        assertEquals("histogram2", actualProbeHistograms.get("probe2"));
+        assertEquals(histogram1, actualProbeHistograms.get("probe1"));
+        assertEquals(histogram2, actualProbeHistograms.get("probe2"));
+    }
+
+    @Test
+    public void processIntervalHistogram() {
+        Histogram histogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        histogram.recordValueWithCount(100, 10);
+        Map<String, byte[]> probeHistograms = new HashMap<String, byte[]>();
+        probeHistograms.put("probe1", toCompressedBytes(histogram));
+        probeHistograms.put("invalid", "invalid".getBytes());
+        Map<String, byte[]> serviceTimeHistograms = new HashMap<String, byte[]>();
+        serviceTimeHistograms.put("probe1ServiceTime", toCompressedBytes(histogram));
+
+        PerformanceStateOperation performanceStateOperation = new PerformanceStateOperation();
+        performanceStateOperation.addPerformanceState("testId", new PerformanceState(1000, 50.0, 1234.56, 33.0d, 23, 42));
+        performanceStateContainer.init("testId");
+        processor.process(performanceStateOperation, workerAddress);
+
+        IntervalHistogramOperation operation = new IntervalHistogramOperation("testId", 5, 1000, probeHistograms,
+                serviceTimeHistograms);
+
+        ResponseType responseType = processor.process(operation, workerAddress);
+        assertEquals(SUCCESS, responseType);
+
+        verify(intervalHistogramContainer, times(2)).addIntervalHistograms(eq(workerAddress), eq("testId"), eq(5L), eq(1000L),
+                anyMapOf(String.class, Histogram.class));
+
+        // the latency values are calculated from the interval histograms instead of the pre-calculated worker values
+        String performanceNumbers = performanceStateContainer.getPerformanceNumbers("testId");
+        assertTrue(performanceNumbers.contains(formatLong(1000, OPERATION_COUNT_FORMAT_LENGTH)));
+        assertTrue(performanceNumbers.contains(formatLong(100, LATENCY_FORMAT_LENGTH)));
+        assertFalse(performanceNumbers.contains(formatLong(42, LATENCY_FORMAT_LENGTH)));
     }
 
     private static void assertExceptionClassInFailure(FailureOperation failure, Class<? extends Throwable> failureClass) {
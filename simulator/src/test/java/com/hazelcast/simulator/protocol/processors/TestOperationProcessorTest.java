@@ -10,6 +10,7 @@ import com.hazelcast.simulator.protocol.operation.IntegrationTestOperation;
 import com.hazelcast.simulator.protocol.operation.SimulatorOperation;
 import com.hazelcast.simulator.protocol.operation.StartTestOperation;
 import com.hazelcast.simulator.protocol.operation.StartTestPhaseOperation;
+import com.hazelcast.simulator.protocol.operation.SetTargetThroughputOperation;
 import com.hazelcast.simulator.protocol.operation.StopTestOperation;
 import com.hazelcast.simulator.protocol.registry.TargetType;
 import com.hazelcast.simulator.test.TestCase;
@@ -127,6 +128,17 @@ public class TestOperationProcessorTest {
         exceptionLogger.assertNoException();
     }
 
+    @Test
+    public void process_SetTargetThroughput() throws Exception {
+        createTestOperationProcessor();
+
+        SimulatorOperation operation = new SetTargetThroughputOperation(1000);
+        ResponseType responseType = processor.processOperation(getOperationType(operation), operation, COORDINATOR);
+
+        assertEquals(SUCCESS, responseType);
+        exceptionLogger.assertNoException();
+    }
+
     @Test
     public void process_StartTestPhase_failingTest() throws Exception {
         createTestOperationProcessor(FailingTest.class);
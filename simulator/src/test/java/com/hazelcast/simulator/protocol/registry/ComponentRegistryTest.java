@@ -133,6 +133,17 @@ public class ComponentRegistryTest {
         assertTrue(componentRegistry.hasClientWorkers());
     }
 
+    @Test
+    public void testWorkerCount_withTargetType() {
+        SimulatorAddress parentAddress = getSingleAgent();
+        componentRegistry.addWorkers(parentAddress, getWorkerJvmSettingsList(3));
+        componentRegistry.addWorkers(parentAddress, getWorkerJvmSettingsList(2, WorkerType.CLIENT));
+
+        assertEquals(5, componentRegistry.workerCount(TargetType.ALL));
+        assertEquals(3, componentRegistry.workerCount(TargetType.MEMBER));
+        assertEquals(2, componentRegistry.workerCount(TargetType.CLIENT));
+    }
+
     @Test
     public void testGetWorkers() {
         SimulatorAddress parentAddress = getSingleAgent();
@@ -1,6 +1,8 @@
 package com.hazelcast.simulator.test;
 
 import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.probes.impl.ProbeImpl;
+import com.hazelcast.simulator.probes.impl.ThreadLocalProbeImpl;
 import com.hazelcast.simulator.test.annotations.InjectProbe;
 import com.hazelcast.simulator.test.annotations.InjectTestContext;
 import com.hazelcast.simulator.test.annotations.Run;
@@ -31,6 +33,23 @@ public class TestContainer_InjectProbeTest extends AbstractTestContainerTest {
         assertTrue(probeMap.containsKey("probe"));
     }
 
+    @Test
+    public void testInjectProbe_withDefaultProbeImplementation() {
+        ProbeTest test = new ProbeTest();
+        testContainer = createTestContainer(test);
+
+        assertTrue(test.probe instanceof ProbeImpl);
+    }
+
+    @Test
+    public void testInjectProbe_withThreadLocalProbes() {
+        ProbeTest test = new ProbeTest();
+        testContainer = new TestContainer(testContext, test, 1, true);
+
+        assertTrue(test.probe instanceof ThreadLocalProbeImpl);
+        assertTrue(test.throughputProbe.isThroughputProbe());
+    }
+
     @Test
     public void testInjectProbe_withName() {
         ProbeTest test = new ProbeTest();
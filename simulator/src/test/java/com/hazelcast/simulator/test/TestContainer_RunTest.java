@@ -6,19 +6,31 @@ import com.hazelcast.simulator.test.annotations.InjectHazelcastInstance;
 import com.hazelcast.simulator.test.annotations.Run;
 import com.hazelcast.simulator.test.annotations.RunWithWorker;
 import com.hazelcast.simulator.test.annotations.Setup;
+import com.hazelcast.simulator.worker.distribution.KeyDistributionType;
+import com.hazelcast.simulator.worker.metronome.MetronomeType;
 import com.hazelcast.simulator.worker.selector.OperationSelectorBuilder;
 import com.hazelcast.simulator.worker.tasks.AbstractMonotonicWorker;
+import com.hazelcast.simulator.worker.tasks.AbstractWorker;
 import com.hazelcast.simulator.worker.tasks.AbstractWorkerWithMultipleProbes;
 import com.hazelcast.simulator.worker.tasks.IWorker;
+import com.hazelcast.simulator.worker.workload.WorkloadPhase;
+import com.hazelcast.simulator.worker.workload.WorkloadSchedule;
 import org.junit.Test;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.simulator.test.TestContainer_RunTest.MultiProbeWorkerTest.Operation.FIRST_OPERATION;
 import static com.hazelcast.simulator.test.TestContainer_RunTest.MultiProbeWorkerTest.Operation.SECOND_OPERATION;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
+import static com.hazelcast.simulator.worker.workload.WorkloadPhase.NO_TARGET_THROUGHPUT;
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 public class TestContainer_RunTest extends AbstractTestContainerTest {
@@ -161,9 +173,105 @@ public class TestContainer_RunTest extends AbstractTestContainerTest {
         assertEquals(THREAD_COUNT * ITERATION_COUNT, totalCount);
     }
 
-    static class MultiProbeWorkerTest {
+    @Test
+    public void testRunWithWorker_withAbstractWorkerWithMultipleProbesWorker_withGeneratedWorkerLoop() throws Exception {
+        MultiProbeWorkerTest test = new MultiProbeWorkerTest();
+        testContainer = new TestContainer(testContext, test, THREAD_COUNT);
+        testContainer.setGenerateWorkerLoop(true);
+
+        testContainer.invoke(TestPhase.SETUP);
+        testContainer.invoke(TestPhase.RUN);
+
+        assertTrue(test.runWithWorkerCalled);
+
+        long totalCount = 0;
+        for (Probe probe : testContainer.getProbeMap().values()) {
+            totalCount += probe.getIntervalHistogram().getTotalCount();
+        }
+        assertEquals(THREAD_COUNT * ITERATION_COUNT, totalCount);
+    }
+
+    @Test
+    public void testRunWithWorker_withLocalIWorkerImplementation_withGeneratedWorkerLoop() throws Exception {
+        final RunWithIWorkerTest test = new RunWithIWorkerTest(testContext.getTargetInstance());
+        testContainer = createTestContainer(test);
+        testContainer.setGenerateWorkerLoop(true);
+
+        // the worker doesn't extend AbstractWorker, so the property is ignored
+        testContainer.invoke(TestPhase.RUN);
+
+        assertTrue(test.runWithWorkerCalled);
+    }
+
+    @Test
+    public void testRunWithWorker_withAbstractWorkerWithMultipleProbesWorker_withWorkloadSchedule() throws Exception {
+        MultiProbeWorkerTest test = new MultiProbeWorkerTest();
+        testContainer = new TestContainer(testContext, test, THREAD_COUNT);
+        testContainer.setWorkloadSchedule(new WorkloadSchedule(asList(
+                createWorkloadPhase("first", 10000, "FIRST_OPERATION", 1.0),
+                createWorkloadPhase("default", 10000, null, 0))));
+
+        testContainer.invoke(TestPhase.SETUP);
+        testContainer.invoke(TestPhase.RUN);
+
+        // the operation probes are created per phase, the first phase only selects the first operation
+        Map<String, Probe> probeMap = testContainer.getProbeMap();
+        assertEquals(3, probeMap.size());
+        assertEquals(THREAD_COUNT * ITERATION_COUNT, probeMap.get("FirstOperationProbe-first").getIntervalHistogram()
+                .getTotalCount());
+        assertNotNull(probeMap.get("FirstOperationProbe-default"));
+        assertNotNull(probeMap.get("SecondOperationProbe-default"));
+    }
+
+    @Test
+    public void testRunWithWorker_withAbstractWorkerWithMultipleProbesWorker_withPhaseSwitches() throws Exception {
+        // the phases have disjoint operations and are switched every few milliseconds while the workers are running
+        PhaseSwitchTest test = new PhaseSwitchTest();
+        testContainer = new TestContainer(testContext, test, THREAD_COUNT);
+        testContainer.setWorkloadSchedule(new WorkloadSchedule(asList(
+                createWorkloadPhase("first", 2, "FIRST_OPERATION", 1.0),
+                createWorkloadPhase("second", 2, "SECOND_OPERATION", 1.0))));
 
-        enum Operation {
+        testContainer.invoke(TestPhase.RUN);
+
+        assertEquals(0, test.missingProbeCount.get());
+        Map<String, Probe> probeMap = testContainer.getProbeMap();
+        assertTrue(probeMap.get("FirstOperationProbe-first").getIntervalHistogram().getTotalCount() > 0);
+        assertTrue(probeMap.get("SecondOperationProbe-second").getIntervalHistogram().getTotalCount() > 0);
+    }
+
+    private static class PhaseSwitchTest {
+
+        private static final int DURATION_MILLIS = 500;
+
+        private final OperationSelectorBuilder<MultiProbeWorkerTest.Operation> operationSelectorBuilder
+                = new OperationSelectorBuilder<MultiProbeWorkerTest.Operation>().addDefaultOperation(FIRST_OPERATION);
+        private final AtomicInteger missingProbeCount = new AtomicInteger();
+
+        @RunWithWorker
+        IWorker createWorker() {
+            final long stopTimestamp = System.currentTimeMillis() + DURATION_MILLIS;
+            return new AbstractWorkerWithMultipleProbes<MultiProbeWorkerTest.Operation>(operationSelectorBuilder) {
+
+                @Override
+                protected void timeStep(MultiProbeWorkerTest.Operation operation, Probe probe) throws Exception {
+                    if (probe == null) {
+                        missingProbeCount.incrementAndGet();
+                    } else {
+                        probe.recordValue(1);
+                    }
+                    if (System.currentTimeMillis() > stopTimestamp) {
+                        stopWorker();
+                    }
+                }
+            };
+        }
+    }
+
+    // public, so the generated worker loop can call the time step method of the worker
+    public static class MultiProbeWorkerTest {
+
+        public enum Operation {
             FIRST_OPERATION,
             SECOND_OPERATION
         }
@@ -187,7 +295,7 @@ public class TestContainer_RunTest extends AbstractTestContainerTest {
             return new Worker(operationSelectorBuilder, this);
         }
 
-        private static class Worker extends AbstractWorkerWithMultipleProbes<Operation> {
+        public static class Worker extends AbstractWorkerWithMultipleProbes<Operation> {
 
             private MultiProbeWorkerTest test;
 
@@ -197,7 +305,7 @@ public class TestContainer_RunTest extends AbstractTestContainerTest {
             }
 
             @Override
-            protected void timeStep(Operation operation, Probe probe) throws Exception {
+            public void timeStep(Operation operation, Probe probe) throws Exception {
                 test.runWithWorkerCalled = true;
                 if (getIteration() == ITERATION_COUNT) {
                     stopWorker();
@@ -208,6 +316,186 @@ public class TestContainer_RunTest extends AbstractTestContainerTest {
         }
     }
 
+    @Test
+    public void testRunWithWorker_withWorkloadSchedule() throws Exception {
+        PhaseWorkerTest test = new PhaseWorkerTest();
+        testContainer = new TestContainer(testContext, test, THREAD_COUNT);
+        testContainer.setWorkloadSchedule(new WorkloadSchedule(asList(
+                createWorkloadPhase("first", 200, "FIRST_OPERATION", 1.0),
+                createWorkloadPhase("second", 10000, "SECOND_OPERATION", 1.0))));
+
+        testContainer.invoke(TestPhase.RUN);
+
+        // the workers switch to the second operation after the first phase, which stops them
+        Map<String, Probe> probeMap = testContainer.getProbeMap();
+        assertEquals(2, probeMap.size());
+        assertTrue(probeMap.get("workerProbe-first").getIntervalHistogram().getTotalCount() > 0);
+        assertTrue(probeMap.get("workerProbe-second").getIntervalHistogram().getTotalCount() > 0);
+        assertEquals(0, testContainer.getTargetThroughput(), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRunWithWorker_withWorkloadSchedule_withUnknownOperation() throws Exception {
+        testContainer = new TestContainer(testContext, new PhaseWorkerTest(), THREAD_COUNT);
+        testContainer.setWorkloadSchedule(new WorkloadSchedule(asList(createWorkloadPhase("unknown", 200, "UNKNOWN", 1.0))));
+
+        testContainer.invoke(TestPhase.RUN);
+    }
+
+    private static class PhaseWorkerTest {
+
+        private final OperationSelectorBuilder<MultiProbeWorkerTest.Operation> operationSelectorBuilder
+                = new OperationSelectorBuilder<MultiProbeWorkerTest.Operation>().addDefaultOperation(FIRST_OPERATION);
+
+        @RunWithWorker
+        IWorker createWorker() {
+            return new AbstractWorker<MultiProbeWorkerTest.Operation>(operationSelectorBuilder) {
+
+                @Override
+                protected void timeStep(MultiProbeWorkerTest.Operation operation) throws Exception {
+                    if (operation == SECOND_OPERATION) {
+                        stopWorker();
+                    } else {
+                        sleepMillis(1);
+                    }
+                }
+            };
+        }
+    }
+
+    private static WorkloadPhase createWorkloadPhase(String name, long durationMillis, String operation, double probability) {
+        Map<String, Double> operationProbabilities = new HashMap<String, Double>();
+        if (operation != null) {
+            operationProbabilities.put(operation, probability);
+        }
+        return new WorkloadPhase(name, durationMillis, operationProbabilities, NO_TARGET_THROUGHPUT);
+    }
+
+    @Test
+    public void testRunWithWorker_withTargetThroughput() throws Exception {
+        // 100 ops/s on 2 Workers with 3 threads each, so each thread is clocked with 50/3 Hz
+        TargetThroughputTest test = new TargetThroughputTest();
+        testContainer = new TestContainer(testContext, test, THREAD_COUNT);
+        testContainer.setTargetThroughput(100, MetronomeType.SLEEPING);
+        testContainer.setTargetWorkerCount(2);
+
+        long started = System.nanoTime();
+        testContainer.invoke(TestPhase.RUN);
+        long elapsedNanos = System.nanoTime() - started;
+
+        // each thread executes ITERATION_COUNT iterations, which are at least ITERATION_COUNT - 1 intervals apart
+        long expectedNanos = (long) ((ITERATION_COUNT - 1) * SECONDS.toNanos(THREAD_COUNT) / 50.0);
+        assertTrue(format("expected at least %d ns, but was %d ns", expectedNanos, elapsedNanos), elapsedNanos >= expectedNanos);
+    }
+
+    @Test
+    public void testRunWithWorker_withChangedTargetThroughput() throws Exception {
+        // 6 ops/s on 2 Workers with 3 threads each, so each thread is clocked with 1 Hz
+        TargetThroughputTest test = new TargetThroughputTest();
+        testContainer = new TestContainer(testContext, test, THREAD_COUNT);
+        testContainer.setTargetThroughput(6, MetronomeType.SLEEPING);
+        testContainer.setTargetWorkerCount(2);
+
+        long started = System.nanoTime();
+        Thread runThread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    testContainer.invoke(TestPhase.RUN);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        runThread.start();
+
+        sleepMillis(100);
+        testContainer.setTargetThroughput(6000);
+        runThread.join();
+        long elapsedNanos = System.nanoTime() - started;
+
+        // with the initial target throughput the run would take at least ITERATION_COUNT - 1 seconds
+        long maxNanos = SECONDS.toNanos(ITERATION_COUNT / 2);
+        assertTrue(format("expected at most %d ns, but was %d ns", maxNanos, elapsedNanos), elapsedNanos < maxNanos);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetTargetThroughput_withNegativeValue() {
+        testContainer = createTestContainer(new BaseTest());
+
+        testContainer.setTargetThroughput(-1, MetronomeType.SLEEPING);
+    }
+
+    private static class TargetThroughputTest {
+
+        @RunWithWorker
+        IWorker createWorker() {
+            return new AbstractMonotonicWorker() {
+
+                @Override
+                protected void timeStep() throws Exception {
+                    if (getIteration() == ITERATION_COUNT - 1) {
+                        stopWorker();
+                    }
+                }
+            };
+        }
+    }
+
+    @Test
+    public void testRunWithWorker_withKeyDistribution() throws Exception {
+        // 99% of the operations go to the hot set, which is the first key
+        KeyDistributionTest test = new KeyDistributionTest();
+        testContainer = new TestContainer(testContext, test, THREAD_COUNT);
+        testContainer.setKeyDistribution(KeyDistributionType.HOTSPOT, 0.99);
+
+        testContainer.invoke(TestPhase.RUN);
+
+        int totalCount = THREAD_COUNT * KeyDistributionTest.ITERATIONS;
+        assertTrue(format("expected more than 90%% of %d operations on the hot key, but was %d", totalCount,
+                test.hotKeyCount.get()), test.hotKeyCount.get() > totalCount * 0.9);
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void testRunWithWorker_withKeyDistribution_withoutKeyCountField() throws Exception {
+        testContainer = new TestContainer(testContext, new RunWithWorkerTest(), THREAD_COUNT);
+        testContainer.setKeyDistribution(KeyDistributionType.ZIPFIAN, 0.99);
+
+        testContainer.invoke(TestPhase.RUN);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetKeyDistribution_withInvalidSkew() {
+        testContainer = createTestContainer(new BaseTest());
+
+        testContainer.setKeyDistribution(KeyDistributionType.ZIPFIAN, 1);
+    }
+
+    private static class KeyDistributionTest {
+
+        private static final int ITERATIONS = 1000;
+
+        private final AtomicInteger hotKeyCount = new AtomicInteger();
+
+        private int keyCount = 100;
+
+        @RunWithWorker
+        IWorker createWorker() {
+            return new AbstractMonotonicWorker() {
+
+                @Override
+                protected void timeStep() throws Exception {
+                    if (randomKeyIndex(keyCount) == 0) {
+                        hotKeyCount.incrementAndGet();
+                    }
+                    if (getIteration() == ITERATIONS - 1) {
+                        stopWorker();
+                    }
+                }
+            };
+        }
+    }
+
     @Test(expected = IllegalTestException.class)
     public void testRun_withMissingAnnotation() {
         createTestContainer(new MissingRunAnnotationTest());
@@ -0,0 +1,241 @@
+package com.hazelcast.simulator.test;
+
+import com.hazelcast.simulator.test.annotations.InjectTestContext;
+import com.hazelcast.simulator.test.annotations.Run;
+import com.hazelcast.simulator.test.annotations.TimeStep;
+import com.hazelcast.simulator.worker.distribution.KeyDistributionType;
+import com.hazelcast.simulator.worker.workload.WorkloadSchedule;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestContainer_TimeStepTest extends AbstractTestContainerTest {
+
+    private static final int THREAD_COUNT = 3;
+    private static final int ITERATION_COUNT = 1000;
+
+    @Test
+    public void testTimeStep() throws Exception {
+        SingleTimeStepTest test = new SingleTimeStepTest();
+        testContainer = new TestContainer(testContext, test, THREAD_COUNT);
+
+        testContainer.invoke(TestPhase.RUN);
+
+        assertTrue(test.iterations.get() >= ITERATION_COUNT);
+        assertTrue(testContainer.hasProbe("TimeStepProbe"));
+        assertTrue(testContainer.getProbeMap().get("TimeStepProbe").isThroughputProbe());
+        assertEquals(test.iterations.get(),
+                testContainer.getProbeMap().get("TimeStepProbe").getIntervalHistogram().getTotalCount());
+    }
+
+    @Test
+    public void testTimeStep_withThreadCountZero() throws Exception {
+        SingleTimeStepTest test = new SingleTimeStepTest();
+        testContainer = new TestContainer(testContext, test, 0);
+
+        testContainer.invoke(TestPhase.RUN);
+
+        assertEquals(0, test.iterations.get());
+    }
+
+    @Test
+    public void testTimeStep_withPrivateTestClass() throws Exception {
+        PrivateTimeStepTest test = new PrivateTimeStepTest();
+        testContainer = new TestContainer(testContext, test, THREAD_COUNT);
+
+        testContainer.invoke(TestPhase.RUN);
+
+        assertTrue(test.iterations.get() >= ITERATION_COUNT);
+        assertTrue(testContainer.hasProbe("TimeStepProbe"));
+    }
+
+    @Test
+    public void testTimeStep_withGenerateWorkerLoop() throws Exception {
+        SingleTimeStepTest test = new SingleTimeStepTest();
+        testContainer = new TestContainer(testContext, test, THREAD_COUNT);
+        testContainer.setGenerateWorkerLoop(true);
+
+        testContainer.invoke(TestPhase.RUN);
+
+        assertTrue(test.iterations.get() >= ITERATION_COUNT);
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void testTimeStep_withKeyDistribution() throws Exception {
+        testContainer = new TestContainer(testContext, new SingleTimeStepTest(), THREAD_COUNT);
+        testContainer.setKeyDistribution(KeyDistributionType.ZIPFIAN, 0.99);
+
+        testContainer.invoke(TestPhase.RUN);
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void testTimeStep_withWorkloadSchedule() throws Exception {
+        testContainer = new TestContainer(testContext, new SingleTimeStepTest(), THREAD_COUNT);
+        testContainer.setWorkloadSchedule(WorkloadSchedule.parse("first:1s;second:1s"));
+
+        testContainer.invoke(TestPhase.RUN);
+    }
+
+    static class SingleTimeStepTest {
+
+        final AtomicInteger iterations = new AtomicInteger();
+
+        @InjectTestContext
+        TestContext testContext;
+
+        @TimeStep
+        public void timeStep() {
+            if (iterations.incrementAndGet() == ITERATION_COUNT) {
+                testContext.stop();
+            }
+        }
+    }
+
+    private static class PrivateTimeStepTest extends SingleTimeStepTest {
+    }
+
+    @Test
+    public void testTimeStep_withProbabilities() throws Exception {
+        ProbabilityTest test = new ProbabilityTest();
+        testContainer = new TestContainer(testContext, test, THREAD_COUNT);
+
+        testContainer.invoke(TestPhase.RUN);
+
+        assertTrue(test.putCount.get() > 0);
+        assertTrue(test.getCount.get() > test.putCount.get());
+        assertEquals(0, test.neverCount.get());
+        assertTrue(testContainer.hasProbe("PutProbe"));
+        assertTrue(testContainer.hasProbe("GetProbe"));
+        assertFalse(testContainer.hasProbe("NeverProbe"));
+        assertEquals(test.putCount.get(), testContainer.getProbeMap().get("PutProbe").getIntervalHistogram().getTotalCount());
+        assertEquals(test.getCount.get(), testContainer.getProbeMap().get("GetProbe").getIntervalHistogram().getTotalCount());
+    }
+
+    static class ProbabilityTest {
+
+        final AtomicInteger iterations = new AtomicInteger();
+        final AtomicInteger putCount = new AtomicInteger();
+        final AtomicInteger getCount = new AtomicInteger();
+        final AtomicInteger neverCount = new AtomicInteger();
+
+        @InjectTestContext
+        TestContext testContext;
+
+        @TimeStep(prob = 0.1)
+        void put() {
+            putCount.incrementAndGet();
+            countIteration();
+        }
+
+        @TimeStep
+        void get() {
+            getCount.incrementAndGet();
+            countIteration();
+        }
+
+        @TimeStep(prob = 0)
+        void never() {
+            neverCount.incrementAndGet();
+        }
+
+        private void countIteration() {
+            if (iterations.incrementAndGet() == ITERATION_COUNT) {
+                testContext.stop();
+            }
+        }
+    }
+
+    @Test
+    public void testTimeStep_withThreadState() throws Exception {
+        ThreadStateTest test = new ThreadStateTest();
+        testContainer = new TestContainer(testContext, test, THREAD_COUNT);
+
+        testContainer.invoke(TestPhase.RUN);
+
+        assertEquals(THREAD_COUNT, test.threadStates.size());
+        Set<Thread> creators = new HashSet<Thread>();
+        for (ThreadStateTest.ThreadState threadState : test.threadStates) {
+            assertNotEquals(Thread.currentThread(), threadState.creator);
+            assertTrue(threadState.iterations > 0);
+            creators.add(threadState.creator);
+        }
+        assertEquals(THREAD_COUNT, creators.size());
+    }
+
+    static class ThreadStateTest {
+
+        final Set<ThreadState> threadStates = Collections.synchronizedSet(
+                Collections.newSetFromMap(new IdentityHashMap<ThreadState, Boolean>()));
+        final AtomicInteger iterations = new AtomicInteger();
+
+        @InjectTestContext
+        TestContext testContext;
+
+        @TimeStep(prob = 0.5)
+        void first(ThreadState threadState) {
+            timeStep(threadState);
+        }
+
+        @TimeStep(prob = 0.5)
+        void second(ThreadState threadState) {
+            timeStep(threadState);
+        }
+
+        private void timeStep(ThreadState threadState) {
+            threadStates.add(threadState);
+            threadState.iterations++;
+            // each worker thread has to run, before the test is stopped
+            if (iterations.incrementAndGet() >= ITERATION_COUNT && threadStates.size() == THREAD_COUNT) {
+                testContext.stop();
+            }
+        }
+
+        class ThreadState {
+
+            final Thread creator = Thread.currentThread();
+
+            int iterations;
+        }
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void testTimeStep_withRunMethod() {
+        createTestContainer(new TimeStepWithRunTest());
+    }
+
+    static class TimeStepWithRunTest {
+
+        @Run
+        void run() {
+        }
+
+        @TimeStep
+        void timeStep() {
+        }
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void testTimeStep_withInvalidProbabilities() {
+        createTestContainer(new InvalidProbabilitiesTest());
+    }
+
+    static class InvalidProbabilitiesTest {
+
+        @TimeStep(prob = 0.5)
+        void first() {
+        }
+
+        @TimeStep(prob = 0.2)
+        void second() {
+        }
+    }
+}
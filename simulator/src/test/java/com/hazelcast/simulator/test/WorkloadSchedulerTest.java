@@ -0,0 +1,80 @@
+package com.hazelcast.simulator.test;
+
+import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.worker.tasks.IWorkloadPhaseWorker;
+import com.hazelcast.simulator.worker.workload.WorkloadPhase;
+import com.hazelcast.simulator.worker.workload.WorkloadSchedule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static com.hazelcast.simulator.worker.workload.WorkloadPhase.NO_TARGET_THROUGHPUT;
+import static java.util.Arrays.asList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WorkloadSchedulerTest {
+
+    private static final long PHASE_DURATION_MILLIS = 100;
+    private static final int VERIFY_TIMEOUT_MILLIS = 5000;
+
+    private final TestContainer testContainer = mock(TestContainer.class);
+    private final Probe firstProbe = mock(Probe.class);
+    private final Probe secondProbe = mock(Probe.class);
+    private final IWorkloadPhaseWorker worker = mock(IWorkloadPhaseWorker.class);
+
+    private WorkloadSchedule schedule;
+    private WorkloadScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        when(testContainer.getTestContext()).thenReturn(new TestContextImpl("WorkloadSchedulerTest"));
+        when(testContainer.getTargetThroughput()).thenReturn(50.0);
+
+        schedule = new WorkloadSchedule(asList(
+                new WorkloadPhase("first", PHASE_DURATION_MILLIS, Collections.<String, Double>emptyMap(), 1000),
+                new WorkloadPhase("second", PHASE_DURATION_MILLIS, Collections.<String, Double>emptyMap(),
+                        NO_TARGET_THROUGHPUT)));
+        List<Probe> phaseWorkerProbes = asList(firstProbe, secondProbe);
+        scheduler = new WorkloadScheduler(testContainer, schedule, phaseWorkerProbes, null);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.stop();
+    }
+
+    @Test
+    public void testStart_appliesFirstPhase() {
+        scheduler.start();
+        scheduler.addWorker(worker);
+
+        verify(testContainer).setTargetThroughput(1000);
+        verify(worker).setWorkloadSchedule(schedule);
+        verify(worker).setWorkloadPhase(0, firstProbe, null);
+    }
+
+    @Test
+    public void testPhasesAreRepeated() {
+        scheduler.start();
+        scheduler.addWorker(worker);
+
+        verify(worker, timeout(VERIFY_TIMEOUT_MILLIS)).setWorkloadPhase(1, secondProbe, null);
+        verify(testContainer, timeout(VERIFY_TIMEOUT_MILLIS)).setTargetThroughput(50.0);
+        verify(worker, timeout(VERIFY_TIMEOUT_MILLIS).times(2)).setWorkloadPhase(0, firstProbe, null);
+    }
+
+    @Test
+    public void testStop_restoresTargetThroughput() {
+        scheduler.start();
+        scheduler.stop();
+
+        verify(testContainer, atLeastOnce()).setTargetThroughput(50.0);
+    }
+}
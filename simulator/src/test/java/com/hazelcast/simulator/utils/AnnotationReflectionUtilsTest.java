@@ -12,11 +12,13 @@ import org.junit.Test;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.List;
 
 import static com.hazelcast.simulator.utils.AnnotationReflectionUtils.ALWAYS_FILTER;
 import static com.hazelcast.simulator.utils.AnnotationReflectionUtils.getAtMostOneMethodWithoutArgs;
 import static com.hazelcast.simulator.utils.AnnotationReflectionUtils.getAtMostOneVoidMethodSkipArgsCheck;
 import static com.hazelcast.simulator.utils.AnnotationReflectionUtils.getAtMostOneVoidMethodWithoutArgs;
+import static com.hazelcast.simulator.utils.AnnotationReflectionUtils.getMethods;
 import static com.hazelcast.simulator.utils.AnnotationReflectionUtils.getProbeName;
 import static com.hazelcast.simulator.utils.AnnotationReflectionUtils.isThroughputProbe;
 import static com.hazelcast.simulator.utils.ReflectionUtils.getField;
@@ -131,6 +133,23 @@ public class AnnotationReflectionUtilsTest {
         getAtMostOneVoidMethodWithoutArgs(AnnotationTestClass.class, Setup.class);
     }
 
+    @Test
+    public void testGetMethods() {
+        List<Method> methods = getMethods(AnnotationTestClass.class, Run.class);
+        assertEquals(2, methods.size());
+    }
+
+    @Test
+    public void testGetMethods_nothingFound() {
+        List<Method> methods = getMethods(AnnotationTestClass.class, Verify.class);
+        assertTrue(methods.isEmpty());
+    }
+
+    @Test(expected = ReflectionException.class)
+    public void testGetMethods_staticMethodsFound() {
+        getMethods(AnnotationTestClass.class, RunWithWorker.class);
+    }
+
     @SuppressWarnings("unused")
     private static class AnnotationTestClass {
 
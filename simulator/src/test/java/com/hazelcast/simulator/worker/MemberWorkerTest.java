@@ -30,6 +30,7 @@ public class MemberWorkerTest {
     private static final int AGENT_INDEX = 1;
     private static final int WORKER_INDEX = 1;
     private static final int WORKER_PORT = 9001;
+    private static final int MAX_IN_FLIGHT_MESSAGES = 32;
 
     private MemberWorker worker;
 
@@ -72,7 +73,8 @@ public class MemberWorkerTest {
 
     @Test
     public void testConstructor_MemberWorker() throws Exception {
-        worker = new MemberWorker(MEMBER, PUBLIC_ADDRESS, AGENT_INDEX, WORKER_INDEX, WORKER_PORT, MEMBER_CONFIG_FILE, true, 10);
+        worker = new MemberWorker(MEMBER, PUBLIC_ADDRESS, AGENT_INDEX, WORKER_INDEX, WORKER_PORT, MEMBER_CONFIG_FILE,
+                true, 10, MAX_IN_FLIGHT_MESSAGES);
         assertMemberWorker();
     }
 
@@ -80,19 +82,22 @@ public class MemberWorkerTest {
     public void testConstructor_ClientWorker() throws Exception {
         Hazelcast.newHazelcastInstance();
 
-        worker = new MemberWorker(CLIENT, PUBLIC_ADDRESS, AGENT_INDEX, WORKER_INDEX, WORKER_PORT, CLIENT_CONFIG_FILE, true, 10);
+        worker = new MemberWorker(CLIENT, PUBLIC_ADDRESS, AGENT_INDEX, WORKER_INDEX, WORKER_PORT, CLIENT_CONFIG_FILE,
+                true, 10, MAX_IN_FLIGHT_MESSAGES);
         assertMemberWorker();
     }
 
     @Test
     public void testConstructor_noAutoCreateHzInstance() throws Exception {
-        worker = new MemberWorker(MEMBER, PUBLIC_ADDRESS, AGENT_INDEX, WORKER_INDEX, WORKER_PORT, "", false, 10);
+        worker = new MemberWorker(MEMBER, PUBLIC_ADDRESS, AGENT_INDEX, WORKER_INDEX, WORKER_PORT, "",
+                false, 10, MAX_IN_FLIGHT_MESSAGES);
         assertMemberWorker();
     }
 
     @Test
     public void testConstructor_noAutoCreateHzInstance_withPerformanceMonitor() throws Exception {
-        worker = new MemberWorker(MEMBER, PUBLIC_ADDRESS, AGENT_INDEX, WORKER_INDEX, WORKER_PORT, "", false, 10);
+        worker = new MemberWorker(MEMBER, PUBLIC_ADDRESS, AGENT_INDEX, WORKER_INDEX, WORKER_PORT, "",
+                false, 10, MAX_IN_FLIGHT_MESSAGES);
         assertMemberWorker();
 
         worker.startPerformanceMonitor();
@@ -101,7 +106,8 @@ public class MemberWorkerTest {
 
     @Test
     public void testConstructor_noAutoCreateHzInstance_withPerformanceMonitor_invalidInterval() throws Exception {
-        worker = new MemberWorker(MEMBER, PUBLIC_ADDRESS, AGENT_INDEX, WORKER_INDEX, WORKER_PORT, "", false, 0);
+        worker = new MemberWorker(MEMBER, PUBLIC_ADDRESS, AGENT_INDEX, WORKER_INDEX, WORKER_PORT, "",
+                false, 0, MAX_IN_FLIGHT_MESSAGES);
         assertMemberWorker();
 
         worker.startPerformanceMonitor();
@@ -119,6 +125,7 @@ public class MemberWorkerTest {
         System.setProperty("hzConfigFile", MEMBER_CONFIG_FILE);
         System.setProperty("autoCreateHzInstance", "true");
         System.setProperty("workerPerformanceMonitorIntervalSeconds", "10");
+        System.setProperty("maxInFlightMessages", String.valueOf(MAX_IN_FLIGHT_MESSAGES));
 
         worker = MemberWorker.startWorker();
         assertMemberWorker();
@@ -0,0 +1,35 @@
+package com.hazelcast.simulator.worker;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WorkerBootstrapTest {
+
+    @Test
+    public void testWarmup() {
+        WorkerBootstrap.warmup();
+    }
+
+    @Test
+    public void testReadSettings() throws Exception {
+        String settings = "workerId=worker-C_A1_W1\nworkerType=MEMBER\n";
+
+        Properties properties = WorkerBootstrap.readSettings(new ByteArrayInputStream(settings.getBytes("UTF-8")));
+
+        assertEquals(2, properties.size());
+        assertEquals("worker-C_A1_W1", properties.getProperty("workerId"));
+        assertEquals("MEMBER", properties.getProperty("workerType"));
+    }
+
+    @Test
+    public void testReadSettings_withClosedStream() throws Exception {
+        Properties properties = WorkerBootstrap.readSettings(new ByteArrayInputStream(new byte[0]));
+
+        assertTrue(properties.isEmpty());
+    }
+}
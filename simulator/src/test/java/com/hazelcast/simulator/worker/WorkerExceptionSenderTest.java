@@ -0,0 +1,162 @@
+package com.hazelcast.simulator.worker;
+
+import com.hazelcast.simulator.protocol.connector.WorkerConnector;
+import com.hazelcast.simulator.protocol.core.Response;
+import com.hazelcast.simulator.protocol.core.ResponseFuture;
+import com.hazelcast.simulator.protocol.core.ResponseFutureMap;
+import com.hazelcast.simulator.protocol.core.ResponseType;
+import com.hazelcast.simulator.protocol.core.SimulatorAddress;
+import com.hazelcast.simulator.protocol.operation.WorkerExceptionOperation;
+import com.hazelcast.simulator.utils.AssertTask;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.simulator.protocol.core.AddressLevel.AGENT;
+import static com.hazelcast.simulator.protocol.core.AddressLevel.WORKER;
+import static com.hazelcast.simulator.protocol.core.ResponseType.FAILURE_COORDINATOR_NOT_FOUND;
+import static com.hazelcast.simulator.protocol.core.ResponseType.SUCCESS;
+import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
+import static com.hazelcast.simulator.utils.TestUtils.assertTrueEventually;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WorkerExceptionSenderTest {
+
+    private static final long SEND_TIMEOUT_MILLIS = 100;
+
+    private final SimulatorAddress workerAddress = new SimulatorAddress(WORKER, 1, 1, 0);
+    private final SimulatorAddress agentAddress = new SimulatorAddress(AGENT, 1, 0, 0);
+    private final CountingFallback fallback = new CountingFallback();
+
+    private WorkerConnector workerConnector;
+    private WorkerExceptionSender exceptionSender;
+
+    @Before
+    public void setUp() {
+        workerConnector = mock(WorkerConnector.class);
+        when(workerConnector.getAddress()).thenReturn(workerAddress);
+        when(workerConnector.isAgentConnected()).thenReturn(true);
+
+        exceptionSender = new WorkerExceptionSender(workerConnector, SEND_TIMEOUT_MILLIS);
+    }
+
+    @After
+    public void tearDown() {
+        exceptionSender.shutdown();
+    }
+
+    @Test
+    public void testSend() {
+        when(workerConnector.writeAsync(eq(agentAddress), any(WorkerExceptionOperation.class)))
+                .thenReturn(createResponseFuture(SUCCESS));
+
+        exceptionSender.send("testId", "cause", fallback);
+
+        sleepMillis((int) SEND_TIMEOUT_MILLIS * 3);
+        assertEquals(0, fallback.count.get());
+    }
+
+    @Test
+    public void testSend_doesNotWaitForResponse() {
+        ResponseFuture future = createResponseFuture();
+        when(workerConnector.writeAsync(eq(agentAddress), any(WorkerExceptionOperation.class))).thenReturn(future);
+
+        exceptionSender.send("testId", "cause", fallback);
+        assertEquals(0, fallback.count.get());
+
+        future.set(new Response(1, workerAddress, agentAddress, SUCCESS));
+
+        sleepMillis((int) SEND_TIMEOUT_MILLIS * 3);
+        assertEquals(0, fallback.count.get());
+    }
+
+    @Test
+    public void testSend_withErrorResponse() {
+        when(workerConnector.writeAsync(eq(agentAddress), any(WorkerExceptionOperation.class)))
+                .thenReturn(createResponseFuture(FAILURE_COORDINATOR_NOT_FOUND));
+
+        exceptionSender.send("testId", "cause", fallback);
+
+        assertFallbackCountEventually(1);
+    }
+
+    @Test
+    public void testSend_withTimeout() {
+        when(workerConnector.writeAsync(eq(agentAddress), any(WorkerExceptionOperation.class)))
+                .thenReturn(createResponseFuture());
+
+        exceptionSender.send("testId", "cause", fallback);
+
+        assertFallbackCountEventually(1);
+    }
+
+    @Test
+    public void testSend_withResponseAfterTimeout() {
+        ResponseFuture future = createResponseFuture();
+        when(workerConnector.writeAsync(eq(agentAddress), any(WorkerExceptionOperation.class))).thenReturn(future);
+
+        exceptionSender.send("testId", "cause", fallback);
+        assertFallbackCountEventually(1);
+
+        future.set(new Response(1, workerAddress, agentAddress, FAILURE_COORDINATOR_NOT_FOUND));
+
+        assertEquals(1, fallback.count.get());
+    }
+
+    @Test
+    public void testSend_withWriteException() {
+        when(workerConnector.writeAsync(eq(agentAddress), any(WorkerExceptionOperation.class)))
+                .thenThrow(new IllegalStateException("expected"));
+
+        exceptionSender.send("testId", "cause", fallback);
+
+        assertEquals(1, fallback.count.get());
+    }
+
+    @Test
+    public void testSend_whenAgentIsNotConnected() {
+        when(workerConnector.isAgentConnected()).thenReturn(false);
+
+        exceptionSender.send("testId", "cause", fallback);
+
+        assertEquals(1, fallback.count.get());
+        verify(workerConnector, never()).writeAsync(any(SimulatorAddress.class), any(WorkerExceptionOperation.class));
+    }
+
+    private ResponseFuture createResponseFuture() {
+        return ResponseFuture.createInstance(new ResponseFutureMap(), workerAddress, 1, 0);
+    }
+
+    private ResponseFuture createResponseFuture(ResponseType responseType) {
+        ResponseFuture future = createResponseFuture();
+        future.set(new Response(1, workerAddress, agentAddress, responseType));
+        return future;
+    }
+
+    private void assertFallbackCountEventually(final int expectedCount) {
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(expectedCount, fallback.count.get());
+            }
+        });
+    }
+
+    private static final class CountingFallback implements Runnable {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public void run() {
+            count.incrementAndGet();
+        }
+    }
+}
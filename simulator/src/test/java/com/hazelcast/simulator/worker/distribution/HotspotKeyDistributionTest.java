@@ -0,0 +1,40 @@
+package com.hazelcast.simulator.worker.distribution;
+
+import org.junit.Test;
+
+import static com.hazelcast.simulator.worker.distribution.KeyDistributionTestUtils.SAMPLES;
+import static com.hazelcast.simulator.worker.distribution.KeyDistributionTestUtils.sample;
+import static org.junit.Assert.assertEquals;
+
+public class HotspotKeyDistributionTest {
+
+    private static final int KEY_COUNT = 100;
+
+    private final HotspotKeyDistribution distribution = new HotspotKeyDistribution(KEY_COUNT, 0.8);
+
+    @Test
+    public void testGetKeyCount() {
+        assertEquals(KEY_COUNT, distribution.getKeyCount());
+        assertEquals(20, distribution.getHotKeyCount());
+    }
+
+    @Test
+    public void testNextKeyIndex_hotSetGetsFractionOfOperations() {
+        int[] counts = sample(distribution);
+
+        int hotOperations = 0;
+        for (int i = 0; i < distribution.getHotKeyCount(); i++) {
+            hotOperations += counts[i];
+        }
+        assertEquals(0.8, hotOperations / (double) SAMPLES, 0.01);
+    }
+
+    @Test
+    public void testNextKeyIndex_withSingleKey() {
+        HotspotKeyDistribution distribution = new HotspotKeyDistribution(1, 0.8);
+        int[] counts = sample(distribution);
+
+        assertEquals(1, distribution.getHotKeyCount());
+        assertEquals(SAMPLES, counts[0]);
+    }
+}
@@ -0,0 +1,90 @@
+package com.hazelcast.simulator.worker.distribution;
+
+import org.junit.Test;
+
+import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
+import static com.hazelcast.simulator.worker.distribution.KeyDistributionFactory.DEFAULT_HOT_OPERATION_FRACTION;
+import static com.hazelcast.simulator.worker.distribution.KeyDistributionFactory.DEFAULT_ZIPFIAN_CONSTANT;
+import static com.hazelcast.simulator.worker.distribution.KeyDistributionFactory.createKeyDistribution;
+import static com.hazelcast.simulator.worker.distribution.KeyDistributionFactory.getDefaultSkew;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class KeyDistributionFactoryTest {
+
+    @Test
+    public void testConstructor() throws Exception {
+        invokePrivateConstructor(KeyDistributionFactory.class);
+    }
+
+    @Test
+    public void testGetDefaultSkew() {
+        assertEquals(0, getDefaultSkew(KeyDistributionType.UNIFORM), 0.0);
+        assertEquals(DEFAULT_ZIPFIAN_CONSTANT, getDefaultSkew(KeyDistributionType.ZIPFIAN), 0.0);
+        assertEquals(DEFAULT_ZIPFIAN_CONSTANT, getDefaultSkew(KeyDistributionType.SCRAMBLED_ZIPFIAN), 0.0);
+        assertEquals(DEFAULT_ZIPFIAN_CONSTANT, getDefaultSkew(KeyDistributionType.LATEST), 0.0);
+        assertEquals(DEFAULT_HOT_OPERATION_FRACTION, getDefaultSkew(KeyDistributionType.HOTSPOT), 0.0);
+    }
+
+    @Test
+    public void testCreateKeyDistribution_UNIFORM() {
+        KeyDistribution distribution = createKeyDistribution(KeyDistributionType.UNIFORM, 23);
+
+        assertTrue(distribution instanceof UniformKeyDistribution);
+        assertEquals(23, distribution.getKeyCount());
+    }
+
+    @Test
+    public void testCreateKeyDistribution_ZIPFIAN() {
+        KeyDistribution distribution = createKeyDistribution(KeyDistributionType.ZIPFIAN, 23);
+
+        assertTrue(distribution instanceof ZipfianKeyDistribution);
+        assertEquals(23, distribution.getKeyCount());
+    }
+
+    @Test
+    public void testCreateKeyDistribution_SCRAMBLED_ZIPFIAN() {
+        KeyDistribution distribution = createKeyDistribution(KeyDistributionType.SCRAMBLED_ZIPFIAN, 23);
+
+        assertTrue(distribution instanceof ScrambledZipfianKeyDistribution);
+        assertEquals(23, distribution.getKeyCount());
+    }
+
+    @Test
+    public void testCreateKeyDistribution_HOTSPOT() {
+        KeyDistribution distribution = createKeyDistribution(KeyDistributionType.HOTSPOT, 23);
+
+        assertTrue(distribution instanceof HotspotKeyDistribution);
+        assertEquals(23, distribution.getKeyCount());
+    }
+
+    @Test
+    public void testCreateKeyDistribution_LATEST() {
+        KeyDistribution distribution = createKeyDistribution(KeyDistributionType.LATEST, 23);
+
+        assertTrue(distribution instanceof LatestKeyDistribution);
+        assertEquals(23, distribution.getKeyCount());
+    }
+
+    @Test
+    public void testCreateKeyDistribution_UNIFORM_ignoresSkew() {
+        KeyDistribution distribution = createKeyDistribution(KeyDistributionType.UNIFORM, 23, 5);
+
+        assertTrue(distribution instanceof UniformKeyDistribution);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateKeyDistribution_withZeroKeyCount() {
+        createKeyDistribution(KeyDistributionType.UNIFORM, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateKeyDistribution_withZeroSkew() {
+        createKeyDistribution(KeyDistributionType.HOTSPOT, 23, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateKeyDistribution_withZipfianConstantOfOne() {
+        createKeyDistribution(KeyDistributionType.ZIPFIAN, 23, 1);
+    }
+}
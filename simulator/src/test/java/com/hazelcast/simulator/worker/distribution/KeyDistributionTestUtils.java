@@ -0,0 +1,29 @@
+package com.hazelcast.simulator.worker.distribution;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+final class KeyDistributionTestUtils {
+
+    static final int SAMPLES = 100000;
+
+    private KeyDistributionTestUtils() {
+    }
+
+    /**
+     * Samples the given {@link KeyDistribution} with a seeded {@link Random} and asserts that all key indexes are in range.
+     *
+     * @return the number of samples per key index
+     */
+    static int[] sample(KeyDistribution distribution) {
+        Random random = new Random(42);
+        int[] counts = new int[distribution.getKeyCount()];
+        for (int i = 0; i < SAMPLES; i++) {
+            int keyIndex = distribution.nextKeyIndex(random);
+            assertTrue("key index out of range: " + keyIndex, keyIndex >= 0 && keyIndex < counts.length);
+            counts[keyIndex]++;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,28 @@
+package com.hazelcast.simulator.worker.distribution;
+
+import org.junit.Test;
+
+import static com.hazelcast.simulator.worker.distribution.KeyDistributionTestUtils.sample;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatestKeyDistributionTest {
+
+    private static final int KEY_COUNT = 1000;
+
+    private final KeyDistribution distribution = new LatestKeyDistribution(KEY_COUNT, 0.99);
+
+    @Test
+    public void testGetKeyCount() {
+        assertEquals(KEY_COUNT, distribution.getKeyCount());
+    }
+
+    @Test
+    public void testNextKeyIndex_favorsHighestKeyIndexes() {
+        int[] counts = sample(distribution);
+
+        assertTrue(counts[KEY_COUNT - 1] > counts[KEY_COUNT - 2]);
+        assertTrue(counts[KEY_COUNT - 2] > counts[KEY_COUNT - 11]);
+        assertTrue(counts[KEY_COUNT - 11] > counts[0]);
+    }
+}
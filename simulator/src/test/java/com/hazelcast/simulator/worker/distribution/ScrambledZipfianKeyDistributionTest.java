@@ -0,0 +1,52 @@
+package com.hazelcast.simulator.worker.distribution;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static com.hazelcast.simulator.worker.distribution.KeyDistributionTestUtils.SAMPLES;
+import static com.hazelcast.simulator.worker.distribution.KeyDistributionTestUtils.sample;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ScrambledZipfianKeyDistributionTest {
+
+    private static final int KEY_COUNT = 1000;
+
+    private final KeyDistribution distribution = new ScrambledZipfianKeyDistribution(KEY_COUNT, 0.99);
+
+    @Test
+    public void testGetKeyCount() {
+        assertEquals(KEY_COUNT, distribution.getKeyCount());
+    }
+
+    @Test
+    public void testFnvHash64() {
+        assertEquals(ScrambledZipfianKeyDistribution.fnvHash64(23), ScrambledZipfianKeyDistribution.fnvHash64(23));
+        assertNotEquals(ScrambledZipfianKeyDistribution.fnvHash64(0), ScrambledZipfianKeyDistribution.fnvHash64(1));
+    }
+
+    @Test
+    public void testNextKeyIndex_isSkewed() {
+        int[] counts = sample(distribution);
+        Arrays.sort(counts);
+
+        // the most popular key gets at least as many operations as with the clustered zipfian distribution
+        assertTrue(counts[KEY_COUNT - 1] > SAMPLES / 10);
+        assertTrue(counts[KEY_COUNT - 1] > counts[KEY_COUNT / 2] * 10);
+    }
+
+    @Test
+    public void testNextKeyIndex_mostPopularKeyIsScattered() {
+        int[] counts = sample(distribution);
+
+        int mostPopularKeyIndex = 0;
+        for (int i = 1; i < KEY_COUNT; i++) {
+            if (counts[i] > counts[mostPopularKeyIndex]) {
+                mostPopularKeyIndex = i;
+            }
+        }
+        assertEquals((int) ((ScrambledZipfianKeyDistribution.fnvHash64(0) & Long.MAX_VALUE) % KEY_COUNT), mostPopularKeyIndex);
+    }
+}
@@ -0,0 +1,26 @@
+package com.hazelcast.simulator.worker.distribution;
+
+import org.junit.Test;
+
+import static com.hazelcast.simulator.worker.distribution.KeyDistributionTestUtils.SAMPLES;
+import static com.hazelcast.simulator.worker.distribution.KeyDistributionTestUtils.sample;
+import static org.junit.Assert.assertEquals;
+
+public class UniformKeyDistributionTest {
+
+    private final KeyDistribution distribution = new UniformKeyDistribution(10);
+
+    @Test
+    public void testGetKeyCount() {
+        assertEquals(10, distribution.getKeyCount());
+    }
+
+    @Test
+    public void testNextKeyIndex_isUniformlyDistributed() {
+        int[] counts = sample(distribution);
+
+        for (int count : counts) {
+            assertEquals(SAMPLES / 10, count, SAMPLES / 100);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.hazelcast.simulator.worker.distribution;
+
+import org.junit.Test;
+
+import static com.hazelcast.simulator.worker.distribution.KeyDistributionTestUtils.SAMPLES;
+import static com.hazelcast.simulator.worker.distribution.KeyDistributionTestUtils.sample;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ZipfianKeyDistributionTest {
+
+    private static final int KEY_COUNT = 1000;
+    private static final double ZIPFIAN_CONSTANT = 0.99;
+
+    private final ZipfianKeyDistribution distribution = new ZipfianKeyDistribution(KEY_COUNT, ZIPFIAN_CONSTANT);
+
+    @Test
+    public void testGetKeyCount() {
+        assertEquals(KEY_COUNT, distribution.getKeyCount());
+    }
+
+    @Test
+    public void testZeta() {
+        assertEquals(1.0, ZipfianKeyDistribution.zeta(1, ZIPFIAN_CONSTANT), 0.0);
+        assertEquals(1.0 + 1.0 / 2 + 1.0 / 3, ZipfianKeyDistribution.zeta(3, 1.0), 1e-9);
+    }
+
+    @Test
+    public void testNextKeyIndex_isZipfianDistributed() {
+        int[] counts = sample(distribution);
+
+        // the probability of the most popular key is 1 / zeta(n)
+        double expectedFirstKeyFraction = 1.0 / ZipfianKeyDistribution.zeta(KEY_COUNT, ZIPFIAN_CONSTANT);
+        assertEquals(expectedFirstKeyFraction, counts[0] / (double) SAMPLES, 0.01);
+
+        assertTrue(counts[0] > counts[1]);
+        assertTrue(counts[1] > counts[10]);
+        assertTrue(counts[10] > counts[KEY_COUNT - 1]);
+    }
+
+    @Test
+    public void testNextKeyIndex_withSingleKey() {
+        int[] counts = sample(new ZipfianKeyDistribution(1, ZIPFIAN_CONSTANT));
+
+        assertEquals(SAMPLES, counts[0]);
+    }
+
+    @Test
+    public void testNextKeyIndex_withTwoKeys() {
+        int[] counts = sample(new ZipfianKeyDistribution(2, ZIPFIAN_CONSTANT));
+
+        assertTrue(counts[0] > counts[1]);
+        assertTrue(counts[1] > 0);
+    }
+}
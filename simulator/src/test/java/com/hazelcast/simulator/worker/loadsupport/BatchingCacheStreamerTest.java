@@ -0,0 +1,54 @@
+package com.hazelcast.simulator.worker.loadsupport;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.Partition;
+import com.hazelcast.core.PartitionService;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.cache.Cache;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class BatchingCacheStreamerTest {
+
+    @SuppressWarnings("unchecked")
+    private final Cache<Integer, String> cache = mock(Cache.class);
+
+    private Streamer<Integer, String> streamer;
+
+    @Before
+    public void setUp() {
+        Partition partition = mock(Partition.class);
+        when(partition.getOwner()).thenReturn(mock(Member.class));
+
+        PartitionService partitionService = mock(PartitionService.class);
+        when(partitionService.getPartition(any())).thenReturn(partition);
+
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.getPartitionService()).thenReturn(partitionService);
+
+        streamer = StreamerFactory.getBatchingInstance(cache, hazelcastInstance);
+    }
+
+    @Test
+    public void testAwait() {
+        streamer.pushEntry(1, "value1");
+        streamer.pushEntry(2, "value2");
+
+        streamer.await();
+
+        Map<Integer, String> expectedBatch = new HashMap<Integer, String>();
+        expectedBatch.put(1, "value1");
+        expectedBatch.put(2, "value2");
+        verify(cache).putAll(expectedBatch);
+        verifyNoMoreInteractions(cache);
+    }
+}
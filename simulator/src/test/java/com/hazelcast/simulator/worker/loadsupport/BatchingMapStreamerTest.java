@@ -0,0 +1,223 @@
+package com.hazelcast.simulator.worker.loadsupport;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.Partition;
+import com.hazelcast.core.PartitionService;
+import com.hazelcast.simulator.utils.AssertTask;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hazelcast.simulator.utils.TestUtils.assertTrueEventually;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class BatchingMapStreamerTest {
+
+    private static final int BATCH_SIZE = 10;
+
+    @SuppressWarnings("unchecked")
+    private final IMap<Integer, String> map = mock(IMap.class);
+
+    private final List<Map<Integer, String>> batches = Collections.synchronizedList(new ArrayList<Map<Integer, String>>());
+
+    private final Member evenMember = mock(Member.class);
+    private final Member oddMember = mock(Member.class);
+
+    private Streamer<Integer, String> streamer;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        final Partition evenPartition = mock(Partition.class);
+        when(evenPartition.getOwner()).thenReturn(evenMember);
+        final Partition oddPartition = mock(Partition.class);
+        when(oddPartition.getOwner()).thenReturn(oddMember);
+
+        PartitionService partitionService = mock(PartitionService.class);
+        when(partitionService.getPartition(any())).thenAnswer(new Answer<Partition>() {
+            @Override
+            public Partition answer(InvocationOnMock invocation) throws Throwable {
+                Integer key = (Integer) invocation.getArguments()[0];
+                return (key % 2 == 0) ? evenPartition : oddPartition;
+            }
+        });
+
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.getPartitionService()).thenReturn(partitionService);
+
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                batches.add((Map<Integer, String>) invocation.getArguments()[0]);
+                return null;
+            }
+        }).when(map).putAll(anyMap());
+
+        streamer = StreamerFactory.getBatchingInstance(map, hazelcastInstance, BATCH_SIZE, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_withInvalidBatchSize() {
+        new BatchingMapStreamer<Integer, String>(map, mock(PartitionService.class), 0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_withInvalidMaxInFlightBatches() {
+        new BatchingMapStreamer<Integer, String>(map, mock(PartitionService.class), 1, 0);
+    }
+
+    @Test
+    public void testPushEntry_belowBatchSize() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            streamer.pushEntry(i, "value");
+        }
+
+        verifyZeroInteractions(map);
+    }
+
+    @Test
+    public void testAwait_storesRemainingEntries() {
+        streamer.pushEntry(1, "value1");
+        streamer.pushEntry(2, "value2");
+
+        streamer.await();
+
+        assertEquals(2, batches.size());
+        assertEquals(2, countEntries());
+    }
+
+    @Test
+    public void testAwait_groupsEntriesByPartitionOwner() {
+        int entryCount = 5 * BATCH_SIZE + 3;
+        for (int i = 0; i < entryCount; i++) {
+            streamer.pushEntry(i, "value" + i);
+        }
+
+        streamer.await();
+
+        assertEquals(entryCount, countEntries());
+        Map<Integer, String> allEntries = new HashMap<Integer, String>();
+        for (Map<Integer, String> batch : batches) {
+            assertTrue(batch.size() <= BATCH_SIZE);
+            assertSameOwner(batch);
+            allEntries.putAll(batch);
+        }
+        for (int i = 0; i < entryCount; i++) {
+            assertEquals("value" + i, allEntries.get(i));
+        }
+    }
+
+    @Test
+    public void testAwait_canBeReused() {
+        streamer.pushEntry(1, "value1");
+        streamer.await();
+
+        streamer.pushEntry(2, "value2");
+        streamer.await();
+
+        assertEquals(2, batches.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @SuppressWarnings("unchecked")
+    public void testAwait_withExceptionInBatch() {
+        doThrow(new IllegalArgumentException("expected exception")).when(map).putAll(anyMap());
+
+        streamer.pushEntry(1, "value");
+        streamer.await();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAwait_withExceptionInBatch_shutsDownExecutor() {
+        final AtomicReference<Thread> batchThread = new AtomicReference<Thread>();
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                batchThread.set(Thread.currentThread());
+                throw new IllegalArgumentException("expected exception");
+            }
+        }).when(map).putAll(anyMap());
+
+        // the first batch fails, before the remaining batch is submitted by await()
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            streamer.pushEntry(i * 2, "value");
+        }
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertNotNull(batchThread.get());
+                assertEquals(Thread.State.WAITING, batchThread.get().getState());
+            }
+        });
+        streamer.pushEntry(1, "value");
+
+        try {
+            streamer.await();
+            fail("Expected exception from await() after a failed batch");
+        } catch (IllegalArgumentException expected) {
+            assertTrueEventually(new AssertTask() {
+                @Override
+                public void run() throws Exception {
+                    assertFalse(batchThread.get().isAlive());
+                }
+            });
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPushEntry_afterExceptionInBatch() {
+        doThrow(new IllegalArgumentException("expected exception")).when(map).putAll(anyMap());
+
+        try {
+            for (int i = 0; i < 100 * BATCH_SIZE; i++) {
+                streamer.pushEntry(i, "value");
+            }
+            fail("Expected exception from pushEntry() after a failed batch");
+        } catch (IllegalArgumentException expected) {
+            verify(map, atLeastOnce()).putAll(anyMap());
+        }
+    }
+
+    private int countEntries() {
+        int count = 0;
+        for (Map<Integer, String> batch : batches) {
+            count += batch.size();
+        }
+        return count;
+    }
+
+    private static void assertSameOwner(Map<Integer, String> batch) {
+        int remainder = -1;
+        for (Integer key : batch.keySet()) {
+            if (remainder == -1) {
+                remainder = key % 2;
+            }
+            assertEquals(remainder, key % 2);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.hazelcast.simulator.worker.loadsupport;
 
 import com.hazelcast.cache.ICache;
+import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
 import org.junit.Test;
 
@@ -16,6 +17,7 @@ public class StreamerFactoryTest {
     private final IMap iMap = mock(IMap.class);
     private final ICache iCache = mock(ICache.class);
     private final Cache cache = mock(Cache.class);
+    private final HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
 
     @Test
     public void testConstructor() throws Exception {
@@ -87,4 +89,18 @@ public class StreamerFactoryTest {
         assertNotNull(streamer);
         assertTrue(streamer instanceof SyncCacheStreamer);
     }
+
+    @Test
+    public void testGetBatchingInstance_withMap() {
+        Streamer streamer = StreamerFactory.getBatchingInstance(iMap, hazelcastInstance);
+        assertNotNull(streamer);
+        assertTrue(streamer instanceof BatchingMapStreamer);
+    }
+
+    @Test
+    public void testGetBatchingInstance_withCache() {
+        Streamer streamer = StreamerFactory.getBatchingInstance(cache, hazelcastInstance);
+        assertNotNull(streamer);
+        assertTrue(streamer instanceof BatchingCacheStreamer);
+    }
 }
@@ -0,0 +1,103 @@
+package com.hazelcast.simulator.worker.loop;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+
+import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
+import static com.hazelcast.simulator.worker.loop.LoopClassCompiler.compileLoopClass;
+import static com.hazelcast.simulator.worker.loop.LoopClassCompiler.createSimpleClassName;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class LoopClassCompilerTest {
+
+    private static final String PACKAGE_NAME = LoopClassCompilerTest.class.getPackage().getName();
+
+    private final ClassLoader classLoader = LoopClassCompilerTest.class.getClassLoader();
+
+    @Before
+    public void setUp() {
+        assumeTrue(LoopClassCompiler.isAvailable());
+    }
+
+    @Test
+    public void testConstructor() throws Exception {
+        invokePrivateConstructor(LoopClassCompiler.class);
+    }
+
+    @Test
+    public void testCreateSimpleClassName() {
+        String first = createSimpleClassName("GeneratedLoop_", NestedClass.class);
+        String second = createSimpleClassName("GeneratedLoop_", NestedClass.class);
+
+        assertTrue(first.startsWith("GeneratedLoop_LoopClassCompilerTest_NestedClass_"));
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCompileLoopClass() throws Exception {
+        String className = PACKAGE_NAME + '.' + createSimpleClassName("GeneratedLoop_", NestedClass.class);
+
+        Class<? extends Callable> loopClass = compileLoopClass(className, new CallableGenerator(className, "42"),
+                Callable.class, classLoader, "no loop");
+
+        assertNotNull(loopClass);
+        assertEquals(className, loopClass.getName());
+        assertNotSame(classLoader, loopClass.getClassLoader());
+        assertEquals(42, loopClass.newInstance().call());
+    }
+
+    @Test
+    public void testCompileLoopClass_withInvalidSourceCode() {
+        String className = PACKAGE_NAME + '.' + createSimpleClassName("GeneratedLoop_", NestedClass.class);
+
+        assertNull(compileLoopClass(className, new CallableGenerator(className, "\"noInteger\" +"), Callable.class, classLoader,
+                "no loop"));
+    }
+
+    @Test
+    public void testCompileLoopClass_withUnsupportedClass() {
+        LoopCodeGenerator generator = new LoopCodeGenerator() {
+            @Override
+            protected void appendSourceCode() {
+                throw new IllegalArgumentException("expected");
+            }
+        };
+
+        assertNull(compileLoopClass(PACKAGE_NAME + ".UnsupportedLoop", generator, Callable.class, classLoader, "no loop"));
+    }
+
+    private static class NestedClass {
+    }
+
+    private static class CallableGenerator extends LoopCodeGenerator {
+
+        private final String className;
+        private final String returnValue;
+
+        CallableGenerator(String className, String returnValue) {
+            this.className = className;
+            this.returnValue = returnValue;
+        }
+
+        @Override
+        protected void appendSourceCode() {
+            appendLine(0, "package " + PACKAGE_NAME + ";");
+            appendLine(0, "");
+            appendLine(0, "public final class " + className.substring(PACKAGE_NAME.length() + 1)
+                    + " implements java.util.concurrent.Callable<Integer> {");
+            appendLine(1, "public Integer call() {");
+            appendLine(2, "return " + returnValue + ";");
+            appendLine(1, "}");
+            appendLine(0, "}");
+        }
+    }
+}
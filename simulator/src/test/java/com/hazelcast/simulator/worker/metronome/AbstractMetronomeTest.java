@@ -2,8 +2,12 @@ package com.hazelcast.simulator.worker.metronome;
 
 import org.junit.Test;
 
+import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
 import static com.hazelcast.simulator.worker.metronome.MetronomeFactory.withFixedFrequency;
 import static com.hazelcast.simulator.worker.metronome.MetronomeFactory.withFixedIntervalMs;
+import static com.hazelcast.simulator.worker.metronome.MetronomeFactory.withFixedRateIntervalMs;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public abstract class AbstractMetronomeTest {
@@ -91,4 +95,43 @@ public abstract class AbstractMetronomeTest {
             lastTimestamp = startTimestamp;
         }
     }
+
+    @Test
+    public void testWithFixedIntervalMs_returnsNoIntendedStart() {
+        Metronome metronome = getFixedIntervalMsMetronome(5);
+
+        assertEquals(0, metronome.waitForNext());
+    }
+
+    @Test
+    public void testWithFixedRateIntervalMs() {
+        int intervalMs = 50;
+        Metronome metronome = withFixedRateIntervalMs(intervalMs, getMetronomeType());
+        long lastIntendedStart = 0;
+        for (int i = 0; i < 10; i++) {
+            long intendedStart = metronome.waitForNext();
+            assertTrue(System.nanoTime() >= intendedStart);
+
+            if (lastIntendedStart != 0) {
+                assertEquals(MILLISECONDS.toNanos(intervalMs), intendedStart - lastIntendedStart);
+            }
+            lastIntendedStart = intendedStart;
+        }
+    }
+
+    @Test
+    public void testWithFixedRateIntervalMs_scheduleIsNotShiftedByDelays() {
+        int intervalMs = 10;
+        Metronome metronome = withFixedRateIntervalMs(intervalMs, getMetronomeType());
+
+        long firstIntendedStart = metronome.waitForNext();
+        // simulate a stalled operation, which takes longer than multiple intervals
+        sleepMillis(5 * intervalMs);
+        long secondIntendedStart = metronome.waitForNext();
+        long thirdIntendedStart = metronome.waitForNext();
+
+        assertEquals(MILLISECONDS.toNanos(intervalMs), secondIntendedStart - firstIntendedStart);
+        assertEquals(MILLISECONDS.toNanos(intervalMs), thirdIntendedStart - secondIntendedStart);
+        assertTrue(System.nanoTime() - thirdIntendedStart >= MILLISECONDS.toNanos(2 * intervalMs));
+    }
 }
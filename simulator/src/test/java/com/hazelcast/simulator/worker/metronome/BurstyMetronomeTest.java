@@ -0,0 +1,48 @@
+package com.hazelcast.simulator.worker.metronome;
+
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BurstyMetronomeTest {
+
+    @Test
+    public void testWaitForNext_withPauses() {
+        // 1000 Hz in bursts of 10 ms every 50 ms, so there are 50 operations every 200 us within a burst
+        Metronome metronome = new BurstyMetronome(MILLISECONDS.toNanos(1), MILLISECONDS.toNanos(10), MILLISECONDS.toNanos(40));
+
+        long lastIntendedStart = metronome.waitForNext();
+        int pauses = 0;
+        for (int i = 1; i < 200; i++) {
+            long intendedStart = metronome.waitForNext();
+            assertTrue(System.nanoTime() >= intendedStart);
+
+            long intervalNanos = intendedStart - lastIntendedStart;
+            if (i % 50 == 0) {
+                assertEquals(MICROSECONDS.toNanos(200) + MILLISECONDS.toNanos(40), intervalNanos);
+                pauses++;
+            } else {
+                assertEquals(MICROSECONDS.toNanos(200), intervalNanos);
+            }
+            lastIntendedStart = intendedStart;
+        }
+        assertEquals(3, pauses);
+    }
+
+    @Test
+    public void testWaitForNext_withIntervalLongerThanBurst_keepsAverageRate() {
+        // the interval within a burst equals the burst duration, so there is a single operation per burst
+        Metronome metronome = new BurstyMetronome(MILLISECONDS.toNanos(2), MILLISECONDS.toNanos(1), MILLISECONDS.toNanos(1));
+
+        long lastIntendedStart = metronome.waitForNext();
+        for (int i = 0; i < 10; i++) {
+            long intendedStart = metronome.waitForNext();
+
+            assertEquals(MILLISECONDS.toNanos(2), intendedStart - lastIntendedStart);
+            lastIntendedStart = intendedStart;
+        }
+    }
+}
@@ -81,4 +81,70 @@ public class MetronomeFactoryTest {
 
         assertTrue(metronome instanceof BusySpinningMetronome);
     }
+
+    @Test
+    public void testWithFixedRateIntervalMs_returnsEmptyMetronome() {
+        Metronome metronome = MetronomeFactory.withFixedRateIntervalMs(0, MetronomeType.SLEEPING);
+
+        assertTrue(metronome instanceof EmptyMetronome);
+    }
+
+    @Test
+    public void testWithFixedRateIntervalMs_returnsSleepingMetronome() {
+        Metronome metronome = MetronomeFactory.withFixedRateIntervalMs(23, MetronomeType.SLEEPING);
+
+        assertTrue(metronome instanceof SleepingMetronome);
+    }
+
+    @Test
+    public void testWithFixedRateFrequency_returnsEmptyMetronome() {
+        Metronome metronome = MetronomeFactory.withFixedRateFrequency(0, MetronomeType.BUSY_SPINNING);
+
+        assertTrue(metronome instanceof EmptyMetronome);
+    }
+
+    @Test
+    public void testWithFixedRateFrequency_returnsBusySpinningMetronome() {
+        Metronome metronome = MetronomeFactory.withFixedRateFrequency(23, MetronomeType.BUSY_SPINNING);
+
+        assertTrue(metronome instanceof BusySpinningMetronome);
+    }
+
+    @Test
+    public void testWithFixedRateFrequency_returnsPoissonMetronome() {
+        Metronome metronome = MetronomeFactory.withFixedRateFrequency(23, MetronomeType.POISSON);
+
+        assertTrue(metronome instanceof PoissonMetronome);
+    }
+
+    @Test
+    public void testWithFixedRateFrequency_returnsBurstyMetronome() {
+        Metronome metronome = MetronomeFactory.withFixedRateFrequency(23, MetronomeType.BURSTY);
+
+        assertTrue(metronome instanceof BurstyMetronome);
+    }
+
+    @Test
+    public void testWithBurstyFrequency_returnsEmptyMetronome() {
+        Metronome metronome = MetronomeFactory.withBurstyFrequency(0, 10, 20);
+
+        assertTrue(metronome instanceof EmptyMetronome);
+    }
+
+    @Test
+    public void testWithBurstyFrequency_returnsBurstyMetronome() {
+        Metronome metronome = MetronomeFactory.withBurstyFrequency(23, 10, 0);
+
+        assertTrue(metronome instanceof BurstyMetronome);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWithBurstyFrequency_withInvalidBurst() {
+        MetronomeFactory.withBurstyFrequency(23, 0, 20);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWithBurstyFrequency_withNegativePause() {
+        MetronomeFactory.withBurstyFrequency(23, 10, -1);
+    }
 }
@@ -0,0 +1,44 @@
+package com.hazelcast.simulator.worker.metronome;
+
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PoissonMetronomeTest {
+
+    private static final long INTERVAL_NANOS = MICROSECONDS.toNanos(100);
+
+    private final PoissonMetronome metronome = new PoissonMetronome(INTERVAL_NANOS);
+
+    @Test
+    public void testNextIntervalNanos_isExponentiallyDistributed() {
+        int samples = 100000;
+        long sum = 0;
+        int belowMean = 0;
+        for (int i = 0; i < samples; i++) {
+            long intervalNanos = metronome.nextIntervalNanos();
+            assertTrue("interval must not be negative, but was " + intervalNanos, intervalNanos >= 0);
+            sum += intervalNanos;
+            if (intervalNanos < INTERVAL_NANOS) {
+                belowMean++;
+            }
+        }
+
+        // the mean matches the interval and 1 - 1/e of the intervals are shorter than the mean
+        assertEquals(INTERVAL_NANOS, sum / (double) samples, INTERVAL_NANOS * 0.02);
+        assertEquals(1 - Math.exp(-1), belowMean / (double) samples, 0.01);
+    }
+
+    @Test
+    public void testWaitForNext() {
+        long lastIntendedStart = 0;
+        for (int i = 0; i < 100; i++) {
+            long intendedStart = metronome.waitForNext();
+            assertTrue(System.nanoTime() >= intendedStart);
+            assertTrue(intendedStart >= lastIntendedStart);
+            lastIntendedStart = intendedStart;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.hazelcast.simulator.worker.performance;
+
+import com.hazelcast.simulator.utils.AssertTask;
+import com.hazelcast.simulator.utils.FileUtilsException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
+import static com.hazelcast.simulator.utils.TestUtils.assertTrueEventually;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PerformanceLogWriterTest {
+
+    private final File file = new File("performanceLogWriterTest.txt");
+    private final File otherFile = new File("performanceLogWriterTest-other.txt");
+
+    private final PerformanceLogWriter logWriter = new PerformanceLogWriter(TimeUnit.MILLISECONDS.toNanos(100));
+
+    @After
+    public void tearDown() {
+        logWriter.close();
+
+        deleteQuiet(file);
+        deleteQuiet(otherFile);
+    }
+
+    @Test
+    public void testGetStream_returnsSameStream() {
+        assertSame(logWriter.getStream(file), logWriter.getStream(file));
+    }
+
+    @Test(expected = FileUtilsException.class)
+    public void testGetStream_withNotExistingDirectory() {
+        logWriter.getStream(new File("notExistingDirectory", "file.txt"));
+    }
+
+    @Test
+    public void testWrite_isBuffered() {
+        logWriter.write(file, "line");
+
+        assertEquals("", fileAsText(file));
+    }
+
+    @Test
+    public void testFlush() {
+        logWriter.write(file, "first\n");
+        logWriter.write(file, "second\n");
+        logWriter.write(otherFile, "other\n");
+
+        logWriter.flush();
+
+        assertEquals("first\nsecond\n", fileAsText(file));
+        assertEquals("other\n", fileAsText(otherFile));
+    }
+
+    @Test
+    public void testFlush_async() {
+        logWriter.start();
+
+        logWriter.write(file, "line");
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals("line", fileAsText(file));
+            }
+        });
+    }
+
+    @Test
+    public void testFlush_withWriteError() {
+        PrintStream stream = logWriter.getStream(file);
+        stream.close();
+        stream.print("line");
+
+        logWriter.flush();
+
+        assertTrue(logWriter.hasWriteError(file));
+        assertFalse(logWriter.hasWriteError(otherFile));
+    }
+
+    @Test
+    public void testClose_singleFile() {
+        PrintStream stream = logWriter.getStream(file);
+        logWriter.write(file, "line");
+        logWriter.write(otherFile, "other");
+
+        logWriter.close(file);
+
+        assertEquals("line", fileAsText(file));
+        assertEquals("", fileAsText(otherFile));
+        assertNotSame(stream, logWriter.getStream(file));
+    }
+
+    @Test
+    public void testClose_flushesStreams() {
+        logWriter.start();
+        logWriter.write(file, "line");
+
+        logWriter.close();
+
+        assertEquals("line", fileAsText(file));
+    }
+
+    @Test
+    public void testClose_withoutStart() {
+        logWriter.write(file, "line");
+
+        logWriter.close();
+
+        assertEquals("line", fileAsText(file));
+    }
+}
@@ -1,17 +1,156 @@
 package com.hazelcast.simulator.worker.performance;
 
 import com.hazelcast.simulator.test.TestException;
+import org.HdrHistogram.Histogram;
+import org.junit.After;
 import org.junit.Test;
 
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.simulator.probes.impl.HistogramUtils.fromCompressedBytes;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.LATENCY_PRECISION;
+import static com.hazelcast.simulator.probes.impl.ProbeImpl.MAXIMUM_LATENCY;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.fileAsText;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 public class PerformanceTrackerTest {
 
+    private static final String TEST_ID = "PerformanceTrackerTest";
+    private static final String PROBE_NAME = "probe";
+    private static final String SERVICE_TIME_PROBE_NAME = "probeServiceTime";
+
+    private final PerformanceLogWriter logWriter = new PerformanceLogWriter(TimeUnit.SECONDS.toNanos(1));
+
+    @After
+    public void tearDown() {
+        logWriter.close();
+
+        deleteQuiet("throughput-" + TEST_ID + ".txt");
+        deleteQuiet("latency-" + TEST_ID + "-" + PROBE_NAME + ".txt");
+        deleteQuiet("latency-" + TEST_ID + "-" + SERVICE_TIME_PROBE_NAME + ".txt");
+        deleteQuiet("latency-" + TEST_ID + "-aggregated.txt");
+    }
+
+    @Test
+    public void testAggregateIntervalHistograms() {
+        long started = System.currentTimeMillis();
+        PerformanceTracker tracker = new PerformanceTracker(logWriter, TEST_ID, singletonList(PROBE_NAME), started);
+
+        Map<String, Histogram> intervalHistograms = new HashMap<String, Histogram>();
+        intervalHistograms.put(PROBE_NAME, createHistogram(100, 10));
+        tracker.update(intervalHistograms, 10, started + 1000);
+
+        intervalHistograms = new HashMap<String, Histogram>();
+        intervalHistograms.put(PROBE_NAME, createHistogram(500, 20));
+        intervalHistograms.put(SERVICE_TIME_PROBE_NAME, createHistogram(50, 20));
+        tracker.update(intervalHistograms, 20, started + 2000);
+
+        Map<String, byte[]> histograms = tracker.aggregateIntervalHistograms(TEST_ID);
+
+        assertEquals(2, histograms.size());
+        Histogram probeHistogram = fromCompressedBytes(histograms.get(PROBE_NAME));
+        assertEquals(30, probeHistogram.getTotalCount());
+        assertEquals(10, probeHistogram.getCountAtValue(100));
+        assertEquals(20, probeHistogram.getCountAtValue(500));
+        assertEquals(20, fromCompressedBytes(histograms.get(SERVICE_TIME_PROBE_NAME)).getTotalCount());
+    }
+
+    @Test
+    public void testAggregateIntervalHistograms_withoutUpdate() {
+        PerformanceTracker tracker = new PerformanceTracker(logWriter, TEST_ID, singletonList(PROBE_NAME),
+                System.currentTimeMillis());
+
+        assertTrue(tracker.aggregateIntervalHistograms(TEST_ID).isEmpty());
+    }
+
+    @Test
+    public void testEncodeIntervalHistograms() {
+        long started = System.currentTimeMillis();
+        PerformanceTracker tracker = new PerformanceTracker(logWriter, TEST_ID, singletonList(PROBE_NAME), started);
+
+        Map<String, Histogram> intervalHistograms = new HashMap<String, Histogram>();
+        intervalHistograms.put(PROBE_NAME, createHistogram(100, 10));
+        intervalHistograms.put(SERVICE_TIME_PROBE_NAME, new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION));
+        tracker.update(intervalHistograms, 10, started + 1000);
+
+        Map<String, byte[]> histograms = tracker.encodeIntervalHistograms();
+
+        // empty interval histograms are not sent
+        assertEquals(1, histograms.size());
+        assertEquals(10, fromCompressedBytes(histograms.get(PROBE_NAME)).getCountAtValue(100));
+        assertTrue(tracker.encodeServiceTimeIntervalHistograms().isEmpty());
+    }
+
+    @Test
+    public void testEncodeServiceTimeIntervalHistograms() {
+        long started = System.currentTimeMillis();
+        PerformanceTracker tracker = new PerformanceTracker(logWriter, TEST_ID, singletonList(PROBE_NAME), started);
+
+        Map<String, Histogram> intervalHistograms = new HashMap<String, Histogram>();
+        intervalHistograms.put(PROBE_NAME, createHistogram(100, 10));
+        intervalHistograms.put(SERVICE_TIME_PROBE_NAME, createHistogram(50, 10));
+        tracker.update(intervalHistograms, 10, started + 1000);
+
+        Map<String, byte[]> histograms = tracker.encodeServiceTimeIntervalHistograms();
+
+        assertEquals(1, histograms.size());
+        assertEquals(10, fromCompressedBytes(histograms.get(SERVICE_TIME_PROBE_NAME)).getCountAtValue(50));
+    }
+
+    @Test
+    public void testGetIntervalSequence() {
+        long started = System.currentTimeMillis();
+        PerformanceTracker tracker = new PerformanceTracker(logWriter, TEST_ID, singletonList(PROBE_NAME), started);
+
+        Map<String, Histogram> intervalHistograms = new HashMap<String, Histogram>();
+        intervalHistograms.put(PROBE_NAME, createHistogram(100, 10));
+        tracker.update(intervalHistograms, 10, started + 1000);
+        assertEquals(0, tracker.getIntervalSequence());
+
+        tracker.update(intervalHistograms, 10, started + 2000);
+        assertEquals(1, tracker.getIntervalSequence());
+    }
+
+    @Test
+    public void testClose() {
+        long started = System.currentTimeMillis();
+        PerformanceTracker tracker = new PerformanceTracker(logWriter, TEST_ID, singletonList(PROBE_NAME), started);
+
+        Map<String, Histogram> intervalHistograms = new HashMap<String, Histogram>();
+        intervalHistograms.put(PROBE_NAME, createHistogram(100, 10));
+        tracker.update(intervalHistograms, 10, started + 1000);
+        tracker.writeStatsToFile("timestamp");
+
+        tracker.close();
+
+        File throughputFile = new File("throughput-" + TEST_ID + ".txt");
+        String throughput = fileAsText(throughputFile);
+        assertTrue(throughput.contains("timestamp"));
+        assertTrue(fileAsText(new File("latency-" + TEST_ID + "-" + PROBE_NAME + ".txt")).length() > 0);
+
+        // a closed tracker doesn't write or re-create its files anymore
+        tracker.writeStatsToFile("afterClose");
+        tracker.close();
+        assertEquals(throughput, fileAsText(throughputFile));
+
+        // the aggregated histograms are still available
+        assertEquals(10, fromCompressedBytes(tracker.aggregateIntervalHistograms(TEST_ID).get(PROBE_NAME)).getTotalCount());
+    }
+
     @Test(expected = TestException.class)
     public void testCreateHistogramLogWriter_withInvalidFilename() {
-        PerformanceTracker.createHistogramLogWriter("invalidFileName", ":\\//", System.currentTimeMillis());
+        PerformanceTracker.createHistogramLogWriter(logWriter, "invalidFileName", ":\\//", System.currentTimeMillis());
     }
 
-    @Test(expected = TestException.class)
-    public void testCreateHistogramLogReader_withInvalidFilename() {
-        PerformanceTracker.createHistogramLogReader("invalidFileName", ":\\//");
+    private static Histogram createHistogram(long latencyMicros, long count) {
+        Histogram histogram = new Histogram(MAXIMUM_LATENCY, LATENCY_PRECISION);
+        histogram.recordValueWithCount(latencyMicros, count);
+        return histogram;
     }
 }
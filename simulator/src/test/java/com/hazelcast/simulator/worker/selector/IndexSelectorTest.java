@@ -0,0 +1,88 @@
+package com.hazelcast.simulator.worker.selector;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class IndexSelectorTest {
+
+    private static final int ITERATIONS = 1000000;
+    private static final double TOLERANCE = 0.05;
+
+    @Test
+    public void testSelectIndex() {
+        double[] probabilities = new double[]{0.1, 0.2, 0.3, 0.4};
+        IndexSelector selector = new IndexSelector(probabilities);
+
+        assertProbabilities(selector, probabilities);
+    }
+
+    @Test
+    public void testSelectIndex_withSingleIndex() {
+        IndexSelector selector = new IndexSelector(new double[]{1.0});
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals(0, selector.selectIndex());
+        }
+    }
+
+    @Test
+    public void testSelectIndex_withZeroProbability() {
+        double[] probabilities = new double[]{0.5, 0.0, 0.5};
+        IndexSelector selector = new IndexSelector(probabilities);
+
+        assertProbabilities(selector, probabilities);
+    }
+
+    @Test
+    public void testSelectIndex_withSumOfProbabilitiesWithinInterval() {
+        IndexSelector selector = new IndexSelector(new double[]{0.333, 0.333, 0.333});
+
+        // the probabilities are normalized by their sum
+        assertProbabilities(selector, new double[]{1.0 / 3, 1.0 / 3, 1.0 / 3});
+    }
+
+    @Test
+    public void testCopyConstructor() {
+        double[] probabilities = new double[]{0.7, 0.3};
+        IndexSelector selector = new IndexSelector(new IndexSelector(probabilities));
+
+        assertProbabilities(selector, probabilities);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_withoutProbabilities() {
+        new IndexSelector(new double[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_withNegativeProbability() {
+        new IndexSelector(new double[]{1.5, -0.5});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_withNaNProbability() {
+        new IndexSelector(new double[]{Double.NaN, 1.0});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_sumOfProbabilitiesBelowLimit() {
+        new IndexSelector(new double[]{0.8, 0.19});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_sumOfProbabilitiesAboveLimit() {
+        new IndexSelector(new double[]{0.8, 0.21});
+    }
+
+    private static void assertProbabilities(IndexSelector selector, double[] probabilities) {
+        int[] counts = new int[probabilities.length];
+        for (int i = 0; i < ITERATIONS; i++) {
+            counts[selector.selectIndex()]++;
+        }
+        for (int index = 0; index < probabilities.length; index++) {
+            double expected = probabilities[index] * ITERATIONS;
+            assertEquals("index " + index, expected, counts[index], expected * TOLERANCE);
+        }
+    }
+}
@@ -18,6 +18,7 @@ public class OperationSelectorTest {
 
     private static final int ITERATIONS = 1000000;
     private static final double TOLERANCE = 0.05;
+    private static final double HIGH_PRECISION_TOLERANCE = 0.2;
 
     private OperationSelectorBuilder<Operation> builder;
     private OperationSelector<Operation> selector;
@@ -88,17 +89,16 @@ public class OperationSelectorTest {
     }
 
     @Test
-    public void testAddOperations_maxPrecisionHitsLimit() {
-        builder.addOperation(Operation.OP1, OperationSelectorBuilder.PROBABILITY_INTERVAL)
+    public void testAddOperations_highPrecision() {
+        builder.addOperation(Operation.OP1, 0.0005)
+               .addOperation(Operation.OP2, 0.0000001)
                .addDefaultOperation(Operation.DEFAULT)
                .build();
     }
 
     @Test(expected = IllegalArgumentException.class)
-    public void testAddOperations_maxPrecisionExceeded() {
-        builder.addOperation(Operation.OP1, OperationSelectorBuilder.PROBABILITY_INTERVAL / 2)
-               .addDefaultOperation(Operation.DEFAULT)
-               .build();
+    public void testAddOperation_NaN() {
+        builder.addOperation(Operation.OP1, Double.NaN);
     }
 
     @Test
@@ -118,6 +118,20 @@ public class OperationSelectorTest {
                 .build();
     }
 
+    @Test
+    public void testAddOperations_sumOfProbabilitiesWithinInterval() {
+        selector = builder.addOperation(Operation.OP1, 0.333)
+                          .addOperation(Operation.OP2, 0.333)
+                          .addOperation(Operation.OP3, 0.333)
+                          .build();
+
+        // the probabilities are normalized, so each operation is selected with a probability of 1/3
+        Map<Operation, Integer> opsStats = exerciseSelector(selector);
+        assertCountIsWithinTolerance(Operation.OP1, opsStats.get(Operation.OP1), 1.0 / 3);
+        assertCountIsWithinTolerance(Operation.OP2, opsStats.get(Operation.OP2), 1.0 / 3);
+        assertCountIsWithinTolerance(Operation.OP3, opsStats.get(Operation.OP3), 1.0 / 3);
+    }
+
     @Test
     public void testAddOperations_justDefaultOperation() {
         builder.addDefaultOperation(Operation.DEFAULT).build();
@@ -182,6 +196,46 @@ public class OperationSelectorTest {
         assertCountIsWithinTolerance(Operation.OP3, op3Count, op3Probability);
     }
 
+    @Test
+    public void testSelect_highPrecision() {
+        double op1Probability = 0.0005;
+
+        selector = builder.addOperation(Operation.OP1, op1Probability)
+                          .addDefaultOperation(Operation.DEFAULT)
+                          .build();
+
+        Map<Operation, Integer> opsStats = exerciseSelector(selector);
+        Integer op1Count = opsStats.get(Operation.OP1);
+        double expectedCount = ITERATIONS * op1Probability;
+        double lowerBound = expectedCount * (1 - HIGH_PRECISION_TOLERANCE);
+        double upperBound = expectedCount * (1 + HIGH_PRECISION_TOLERANCE);
+        assertTrue(format("Operation OP1 was selected %d times, but expected about %f", op1Count, expectedCount),
+                op1Count > lowerBound && op1Count < upperBound);
+    }
+
+    @Test
+    public void testSelect_manyOperations() {
+        double probability = 1.0 / Operation.values().length;
+        for (Operation operation : Operation.values()) {
+            builder.addOperation(operation, probability);
+        }
+        selector = builder.build();
+
+        Map<Operation, Integer> opsStats = exerciseSelector(selector);
+        for (Operation operation : Operation.values()) {
+            assertCountIsWithinTolerance(operation, opsStats.get(operation), probability);
+        }
+    }
+
+    @Test
+    public void testSelect_singleOperation() {
+        selector = builder.addDefaultOperation(Operation.DEFAULT).build();
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Operation.DEFAULT, selector.select());
+        }
+    }
+
     private void assertCountIsWithinTolerance(Operation op, int count, double probability) {
         double lowerBound = (ITERATIONS * probability - ITERATIONS * TOLERANCE);
         double upperBound = (ITERATIONS * probability + ITERATIONS * TOLERANCE);
@@ -0,0 +1,329 @@
+package com.hazelcast.simulator.worker.tasks;
+
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.test.TestContainer;
+import com.hazelcast.simulator.test.TestContextImpl;
+import com.hazelcast.simulator.test.TestException;
+import com.hazelcast.simulator.test.TestPhase;
+import com.hazelcast.simulator.test.annotations.RunWithWorker;
+import com.hazelcast.simulator.utils.AssertTask;
+import com.hazelcast.simulator.utils.ExceptionReporter;
+import com.hazelcast.simulator.worker.selector.OperationSelectorBuilder;
+import org.HdrHistogram.Histogram;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.TestUtils.assertTrueEventually;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AbstractBoundedAsyncWorkerTest {
+
+    private static final int DEFAULT_TEST_TIMEOUT = 30000;
+    private static final int MAX_IN_FLIGHT = 2;
+    private static final int ITERATION_COUNT = 20;
+
+    private enum Operation {
+        PENDING,
+        DELAYED,
+        FAILURE,
+        NO_FUTURE
+    }
+
+    private WorkerTest test;
+    private TestContextImpl testContext;
+    private TestContainer testContainer;
+
+    @Before
+    public void setUp() {
+        test = new WorkerTest();
+        testContext = new TestContextImpl("AbstractBoundedAsyncWorkerTest");
+        testContainer = new TestContainer(testContext, test, 1);
+
+        ExceptionReporter.reset();
+    }
+
+    @After
+    public void tearDown() {
+        try {
+            for (int i = 1; i <= ITERATION_COUNT; i++) {
+                deleteQuiet(i + ".exception");
+            }
+            ExceptionReporter.reset();
+        } finally {
+            test.scheduler.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_withZeroMaxInFlight() {
+        new NoFutureWorker(0);
+    }
+
+    @Test
+    public void testGetMaxInFlight() {
+        NoFutureWorker worker = new NoFutureWorker(MAX_IN_FLIGHT);
+
+        assertEquals(MAX_IN_FLIGHT, worker.getMaxInFlight());
+        assertEquals(0, worker.getInFlightCount());
+    }
+
+    @Test(timeout = DEFAULT_TEST_TIMEOUT)
+    public void testRun_boundsInFlightCalls() throws Exception {
+        test.operationSelectorBuilder.addDefaultOperation(Operation.PENDING);
+        Thread runThread = startRunThread();
+
+        assertPendingCount(MAX_IN_FLIGHT);
+        sleepMillis(100);
+        assertEquals(MAX_IN_FLIGHT, test.issued.get());
+
+        // a completed call frees a slot for the next call
+        test.pendingFutures.poll().complete("response");
+        assertPendingCount(MAX_IN_FLIGHT);
+        assertEquals(MAX_IN_FLIGHT + 1, test.issued.get());
+
+        // the worker waits for its outstanding calls before it stops
+        testContext.stop();
+        sleepMillis(100);
+        assertTrue(runThread.isAlive());
+        while (runThread.isAlive()) {
+            TestFuture future = test.pendingFutures.poll();
+            if (future != null) {
+                future.complete("response");
+            }
+            sleepMillis(1);
+        }
+
+        Probe probe = testContainer.getProbeMap().get(IWorker.DEFAULT_WORKER_PROBE_NAME);
+        assertEquals(test.issued.get(), probe.getIntervalHistogram().getTotalCount());
+        assertEquals(test.issued.get(), test.responses.get());
+    }
+
+    @Test(timeout = DEFAULT_TEST_TIMEOUT)
+    public void testRun_recordsLatencyFromIssueToCompletion() throws Exception {
+        test.operationSelectorBuilder.addDefaultOperation(Operation.DELAYED);
+
+        testContainer.invoke(TestPhase.RUN);
+
+        Probe probe = testContainer.getProbeMap().get(IWorker.DEFAULT_WORKER_PROBE_NAME);
+        Histogram histogram = probe.getIntervalHistogram();
+        assertEquals(ITERATION_COUNT, histogram.getTotalCount());
+        assertTrue("latency should include the delay of the call, but was " + histogram.getMinValue() + " us",
+                histogram.getMinValue() >= TimeUnit.MILLISECONDS.toMicros(WorkerTest.DELAY_MILLIS));
+        assertEquals(ITERATION_COUNT, test.responses.get());
+    }
+
+    @Test(timeout = DEFAULT_TEST_TIMEOUT)
+    public void testRun_onFailure() throws Exception {
+        test.operationSelectorBuilder.addDefaultOperation(Operation.FAILURE);
+
+        testContainer.invoke(TestPhase.RUN);
+
+        assertTrue(new File("1.exception").exists());
+        assertEquals(ITERATION_COUNT, test.failures.get());
+        Probe probe = testContainer.getProbeMap().get(IWorker.DEFAULT_WORKER_PROBE_NAME);
+        assertEquals(0, probe.getIntervalHistogram().getTotalCount());
+    }
+
+    @Test(timeout = DEFAULT_TEST_TIMEOUT)
+    public void testRun_withoutFuture() throws Exception {
+        test.operationSelectorBuilder.addDefaultOperation(Operation.NO_FUTURE);
+
+        testContainer.invoke(TestPhase.RUN);
+
+        assertEquals(ITERATION_COUNT, test.issued.get());
+        Probe probe = testContainer.getProbeMap().get(IWorker.DEFAULT_WORKER_PROBE_NAME);
+        assertEquals(0, probe.getIntervalHistogram().getTotalCount());
+    }
+
+    private Thread startRunThread() {
+        Thread runThread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    testContainer.invoke(TestPhase.RUN);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        runThread.start();
+        return runThread;
+    }
+
+    private void assertPendingCount(final int expectedCount) {
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(expectedCount, test.pendingFutures.size());
+            }
+        });
+    }
+
+    private static class WorkerTest {
+
+        private static final int DELAY_MILLIS = 10;
+
+        private final OperationSelectorBuilder<Operation> operationSelectorBuilder = new OperationSelectorBuilder<Operation>();
+        private final ScheduledExecutorService scheduler = newSingleThreadScheduledExecutor();
+        private final Queue<TestFuture> pendingFutures = new ConcurrentLinkedQueue<TestFuture>();
+
+        private final AtomicInteger issued = new AtomicInteger();
+        private final AtomicInteger responses = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+
+        @RunWithWorker
+        public Worker createWorker() {
+            return new Worker();
+        }
+
+        private class Worker extends AbstractBoundedAsyncWorker<Operation, String> {
+
+            Worker() {
+                super(operationSelectorBuilder, MAX_IN_FLIGHT);
+            }
+
+            @Override
+            protected ICompletableFuture<String> timeStepAsync(Operation operation) throws Exception {
+                if (operation != Operation.PENDING && getIteration() == ITERATION_COUNT - 1) {
+                    stopWorker();
+                }
+                issued.incrementAndGet();
+                final TestFuture future = new TestFuture();
+                switch (operation) {
+                    case PENDING:
+                        pendingFutures.add(future);
+                        return future;
+                    case DELAYED:
+                        scheduler.schedule(new Runnable() {
+                            @Override
+                            public void run() {
+                                future.complete("response");
+                            }
+                        }, DELAY_MILLIS, TimeUnit.MILLISECONDS);
+                        return future;
+                    case FAILURE:
+                        future.fail(new TestException("expected exception"));
+                        return future;
+                    case NO_FUTURE:
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException("Unsupported operation: " + operation);
+                }
+            }
+
+            @Override
+            protected void handleResponse(Operation operation, String response) {
+                responses.incrementAndGet();
+            }
+
+            @Override
+            protected void handleFailure(Operation operation, Throwable t) {
+                failures.incrementAndGet();
+            }
+        }
+    }
+
+    private static class NoFutureWorker extends AbstractBoundedAsyncWorker<Operation, String> {
+
+        NoFutureWorker(int maxInFlight) {
+            super(new OperationSelectorBuilder<Operation>().addDefaultOperation(Operation.NO_FUTURE), maxInFlight);
+        }
+
+        @Override
+        protected ICompletableFuture<String> timeStepAsync(Operation operation) {
+            return null;
+        }
+    }
+
+    /**
+     * Minimal {@link ICompletableFuture}, which is completed by the test and runs its callback on the completing thread.
+     */
+    private static class TestFuture implements ICompletableFuture<String> {
+
+        private ExecutionCallback<String> callback;
+        private String response;
+        private Throwable throwable;
+        private boolean done;
+
+        @Override
+        public synchronized void andThen(ExecutionCallback<String> callback) {
+            if (done) {
+                notifyCallback(callback);
+            } else {
+                this.callback = callback;
+            }
+        }
+
+        @Override
+        public void andThen(ExecutionCallback<String> callback, Executor executor) {
+            andThen(callback);
+        }
+
+        synchronized void complete(String response) {
+            this.response = response;
+            setDone();
+        }
+
+        synchronized void fail(Throwable throwable) {
+            this.throwable = throwable;
+            setDone();
+        }
+
+        private void setDone() {
+            done = true;
+            if (callback != null) {
+                notifyCallback(callback);
+            }
+        }
+
+        private void notifyCallback(ExecutionCallback<String> callback) {
+            if (throwable != null) {
+                callback.onFailure(throwable);
+            } else {
+                callback.onResponse(response);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public synchronized boolean isDone() {
+            return done;
+        }
+
+        @Override
+        public String get() throws InterruptedException, ExecutionException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.hazelcast.simulator.worker.tasks;
 
+import com.hazelcast.simulator.probes.Probe;
 import com.hazelcast.simulator.test.TestContainer;
 import com.hazelcast.simulator.test.TestContext;
 import com.hazelcast.simulator.test.TestContextImpl;
@@ -8,6 +9,7 @@ import com.hazelcast.simulator.test.TestPhase;
 import com.hazelcast.simulator.test.annotations.RunWithWorker;
 import com.hazelcast.simulator.test.annotations.Setup;
 import com.hazelcast.simulator.utils.ExceptionReporter;
+import com.hazelcast.simulator.worker.metronome.MetronomeType;
 import com.hazelcast.simulator.worker.selector.OperationSelectorBuilder;
 import org.junit.After;
 import org.junit.Before;
@@ -16,9 +18,12 @@ import org.junit.Test;
 import java.io.File;
 
 import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.worker.metronome.MetronomeFactory.withFixedIntervalMs;
+import static com.hazelcast.simulator.worker.metronome.MetronomeFactory.withFixedRateIntervalMs;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class AbstractWorkerTest {
@@ -110,6 +115,7 @@ public class AbstractWorkerTest {
         assertNotNull(test.randomInt);
         assertNotNull(test.randomIntWithBond);
         assertNotNull(test.randomLong);
+        assertTrue(test.randomKeyIndex >= 0 && test.randomKeyIndex < 1000);
     }
 
     @Test(timeout = DEFAULT_TEST_TIMEOUT)
@@ -123,16 +129,44 @@ public class AbstractWorkerTest {
         assertEquals(THREAD_COUNT + 1, test.workerCreated);
     }
 
+    @Test(timeout = DEFAULT_TEST_TIMEOUT)
+    public void testRun_withoutFixedRateMetronome() throws Exception {
+        test.operationSelectorBuilder.addDefaultOperation(Operation.ITERATION);
+
+        testContainer.invoke(TestPhase.SETUP);
+        testContainer.invoke(TestPhase.RUN);
+
+        Probe probe = testContainer.getProbeMap().get(IWorker.DEFAULT_WORKER_PROBE_NAME);
+        assertTrue(probe.getIntervalHistogram().getTotalCount() > 0);
+        assertNull(probe.getServiceTimeIntervalHistogram());
+    }
+
+    @Test(timeout = DEFAULT_TEST_TIMEOUT)
+    public void testRun_withFixedRateMetronome() throws Exception {
+        test.fixedRate = true;
+        test.operationSelectorBuilder.addDefaultOperation(Operation.ITERATION);
+
+        testContainer.invoke(TestPhase.SETUP);
+        testContainer.invoke(TestPhase.RUN);
+
+        Probe probe = testContainer.getProbeMap().get(IWorker.DEFAULT_WORKER_PROBE_NAME);
+        long latencyCount = probe.getIntervalHistogram().getTotalCount();
+        assertTrue(latencyCount > 0);
+        assertEquals(latencyCount, probe.getServiceTimeIntervalHistogram().getTotalCount());
+    }
+
     private static class WorkerTest {
 
         private final OperationSelectorBuilder<Operation> operationSelectorBuilder = new OperationSelectorBuilder<Operation>();
 
         private TestContext testContext;
+        private boolean fixedRate;
 
         private volatile int workerCreated;
         private volatile Integer randomInt;
         private volatile Integer randomIntWithBond;
         private volatile Long randomLong;
+        private volatile int randomKeyIndex = -1;
         private volatile long testIteration;
 
         @Setup
@@ -149,7 +183,8 @@ public class AbstractWorkerTest {
         private class Worker extends AbstractWorker<Operation> {
 
             Worker() {
-                super(operationSelectorBuilder);
+                super(operationSelectorBuilder, fixedRate ? withFixedRateIntervalMs(1, MetronomeType.SLEEPING)
+                        : withFixedIntervalMs(0));
             }
 
             @Override
@@ -167,6 +202,7 @@ public class AbstractWorkerTest {
                         randomInt = randomInt();
                         randomIntWithBond = randomInt(1000);
                         randomLong = getRandom().nextLong();
+                        randomKeyIndex = randomKeyIndex(1000);
                         stopTestContext();
                         break;
                     case ITERATION:
@@ -9,6 +9,7 @@ import com.hazelcast.simulator.test.TestPhase;
 import com.hazelcast.simulator.test.annotations.RunWithWorker;
 import com.hazelcast.simulator.test.annotations.Setup;
 import com.hazelcast.simulator.utils.ExceptionReporter;
+import com.hazelcast.simulator.worker.metronome.MetronomeType;
 import com.hazelcast.simulator.worker.selector.OperationSelectorBuilder;
 import org.HdrHistogram.Histogram;
 import org.junit.After;
@@ -18,6 +19,7 @@ import org.junit.Test;
 import java.io.File;
 
 import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.worker.metronome.MetronomeFactory.withFixedRateIntervalMs;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -142,11 +144,25 @@ public class AbstractWorkerWithProbeControlTest {
         assertEquals(THREAD_COUNT + 1, test.workerCreated);
     }
 
+    @Test(timeout = DEFAULT_TEST_TIMEOUT)
+    public void testGetIteration_withFixedRateMetronome() throws Exception {
+        test.fixedRate = true;
+        test.operationSelectorBuilder.addDefaultOperation(Operation.ITERATION);
+
+        testContainer.invoke(TestPhase.SETUP);
+        testContainer.invoke(TestPhase.RUN);
+
+        assertEquals(ITERATION_COUNT, test.testIteration);
+        Histogram intervalHistogram = test.probe.getIntervalHistogram();
+        assertEquals(THREAD_COUNT * ITERATION_COUNT, intervalHistogram.getTotalCount());
+    }
+
     private static class WorkerTest {
 
         private final OperationSelectorBuilder<Operation> operationSelectorBuilder = new OperationSelectorBuilder<Operation>();
 
         private TestContext testContext;
+        private boolean fixedRate;
 
         private volatile int workerCreated;
         private volatile Integer randomInt;
@@ -173,6 +189,9 @@ public class AbstractWorkerWithProbeControlTest {
             Worker(WorkerTest test) {
                 super(operationSelectorBuilder);
                 this.test = test;
+                if (fixedRate) {
+                    setMetronome(withFixedRateIntervalMs(1, MetronomeType.SLEEPING));
+                }
             }
 
             @Override
@@ -0,0 +1,91 @@
+package com.hazelcast.simulator.worker.tasks;
+
+import com.hazelcast.simulator.probes.Probe;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class IntendedStartProbeTest {
+
+    private Probe delegate;
+    private IntendedStartProbe probe;
+    private long intendedStarted;
+
+    @Before
+    public void setUp() {
+        delegate = mock(Probe.class);
+        probe = new IntendedStartProbe();
+        intendedStarted = System.nanoTime() - 1000;
+
+        assertSame(probe, probe.init(delegate, intendedStarted));
+    }
+
+    @Test
+    public void testIsThroughputProbe() {
+        when(delegate.isThroughputProbe()).thenReturn(true);
+
+        assertTrue(probe.isThroughputProbe());
+    }
+
+    @Test
+    public void testStartedAndDone() {
+        probe.started();
+        probe.done();
+
+        verify(delegate).done(eq(intendedStarted), anyLong());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDone_withoutStarted() {
+        probe.done();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDone_withoutStartedAfterReinit() {
+        probe.started();
+        probe.init(delegate, intendedStarted);
+
+        probe.done();
+    }
+
+    @Test
+    public void testDone_withStarted() {
+        probe.done(42);
+
+        verify(delegate).done(intendedStarted, 42);
+    }
+
+    @Test
+    public void testDone_withIntendedStarted() {
+        probe.done(23, 42);
+
+        verify(delegate).done(23, 42);
+    }
+
+    @Test
+    public void testRecordValue() {
+        probe.recordValue(500);
+
+        // the delay between the intended start and the invocation of the time step is added
+        ArgumentCaptor<Long> latency = ArgumentCaptor.forClass(Long.class);
+        verify(delegate).recordValue(latency.capture());
+        assertTrue(latency.getValue() >= 1500);
+    }
+
+    @Test
+    public void testGetIntervalHistograms() {
+        probe.getIntervalHistogram();
+        probe.getServiceTimeIntervalHistogram();
+
+        verify(delegate).getIntervalHistogram();
+        verify(delegate).getServiceTimeIntervalHistogram();
+    }
+}
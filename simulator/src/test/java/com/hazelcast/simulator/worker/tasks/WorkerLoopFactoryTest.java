@@ -0,0 +1,373 @@
+package com.hazelcast.simulator.worker.tasks;
+
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.test.TestContainer;
+import com.hazelcast.simulator.test.TestContextImpl;
+import com.hazelcast.simulator.test.TestPhase;
+import com.hazelcast.simulator.test.annotations.RunWithWorker;
+import com.hazelcast.simulator.worker.metronome.MetronomeType;
+import com.hazelcast.simulator.worker.selector.OperationSelectorBuilder;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.simulator.worker.metronome.MetronomeFactory.withFixedRateIntervalMs;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class WorkerLoopFactoryTest {
+
+    private static final int THREAD_COUNT = 3;
+    private static final int ITERATION_COUNT = 100;
+    private static final int DEFAULT_TEST_TIMEOUT = 30000;
+
+    public enum Operation {
+        FIRST,
+        SECOND
+    }
+
+    private final TestContextImpl testContext = new TestContextImpl("WorkerLoopFactoryTest");
+    private final OperationSelectorBuilder<Operation> operationSelectorBuilder = new OperationSelectorBuilder<Operation>()
+            .addOperation(Operation.FIRST, 0.5)
+            .addDefaultOperation(Operation.SECOND);
+
+    private final AtomicInteger generatedLoopCalls = new AtomicInteger();
+    private final AtomicInteger timeStepCalls = new AtomicInteger();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_withUnsupportedWorker() throws Exception {
+        new WorkerLoopFactory(LocalWorker.class);
+    }
+
+    @Test
+    public void testIsSupported() {
+        assertTrue(WorkerLoopFactory.isSupported(OperationWorker.class));
+        assertTrue(WorkerLoopFactory.isSupported(NoOperationWorker.class));
+        assertFalse(WorkerLoopFactory.isSupported(LocalWorker.class));
+    }
+
+    @Test
+    public void testIsGenerated() throws Exception {
+        assertTrue(new WorkerLoopFactory(OperationWorker.class).isGenerated());
+    }
+
+    @Test
+    public void testIsGenerated_withNonPublicWorker() throws Exception {
+        assertFalse(new WorkerLoopFactory(NonPublicWorker.class).isGenerated());
+    }
+
+    @Test
+    public void testIsGenerated_withNonPublicTimeStep() throws Exception {
+        assertFalse(new WorkerLoopFactory(NonPublicTimeStepWorker.class).isGenerated());
+    }
+
+    @Test
+    public void testIsGenerated_withDoRunWorker() throws Exception {
+        assertFalse(new WorkerLoopFactory(DoRunWorker.class).isGenerated());
+    }
+
+    @Test
+    public void testGetClassName() throws Exception {
+        WorkerLoopFactory first = new WorkerLoopFactory(OperationWorker.class);
+        WorkerLoopFactory second = new WorkerLoopFactory(OperationWorker.class);
+
+        assertTrue(first.getClassName().startsWith(getClass().getPackage().getName() + ".GeneratedWorkerLoop_"));
+        assertTrue(first.getClassName().contains("WorkerLoopFactoryTest_OperationWorker"));
+        assertNotEquals(first.getClassName(), second.getClassName());
+    }
+
+    @Test
+    public void testGetWorkerLoop_isDefinedInChildClassLoader() throws Exception {
+        ClassLoader classLoader = OperationWorker.class.getClassLoader();
+        WorkerLoopFactory first = new WorkerLoopFactory(OperationWorker.class);
+        WorkerLoopFactory second = new WorkerLoopFactory(OperationWorker.class);
+
+        ClassLoader firstClassLoader = first.getWorkerLoop().getClass().getClassLoader();
+        assertNotSame(classLoader, firstClassLoader);
+        assertSame(classLoader, firstClassLoader.getParent());
+        assertNotSame(firstClassLoader, second.getWorkerLoop().getClass().getClassLoader());
+    }
+
+    @Test
+    public void testGetLoopType() throws Exception {
+        assertLoopType(WorkerLoopType.OPERATION, OperationWorker.class);
+        assertLoopType(WorkerLoopType.MONOTONIC, MonotonicWorker.class);
+        assertLoopType(WorkerLoopType.MONOTONIC, NoOperationWorker.class);
+        assertLoopType(WorkerLoopType.PROBE_CONTROL, ProbeControlWorker.class);
+        assertLoopType(WorkerLoopType.MONOTONIC_PROBE_CONTROL, MonotonicProbeControlWorker.class);
+        assertLoopType(WorkerLoopType.MULTIPLE_PROBES, MultipleProbesWorker.class);
+        assertLoopType(WorkerLoopType.DO_RUN, DoRunWorker.class);
+        assertLoopType(WorkerLoopType.DO_RUN, AsyncWorker.class);
+    }
+
+    @Test(timeout = DEFAULT_TEST_TIMEOUT)
+    public void testRun_withOperationWorker() throws Exception {
+        TestContainer testContainer = runWithGeneratedLoop(new RunWithWorkerTest() {
+            @Override
+            IWorker createWorker() {
+                return new OperationWorker();
+            }
+        });
+
+        assertEquals(THREAD_COUNT * ITERATION_COUNT, getWorkerProbeCount(testContainer));
+    }
+
+    @Test(timeout = DEFAULT_TEST_TIMEOUT)
+    public void testRun_withOperationWorker_withFixedRateMetronome() throws Exception {
+        TestContainer testContainer = runWithGeneratedLoop(new RunWithWorkerTest() {
+            @Override
+            IWorker createWorker() {
+                OperationWorker worker = new OperationWorker();
+                worker.setMetronome(withFixedRateIntervalMs(1, MetronomeType.BUSY_SPINNING));
+                return worker;
+            }
+        });
+
+        Probe probe = testContainer.getProbeMap().get(IWorker.DEFAULT_WORKER_PROBE_NAME);
+        assertEquals(THREAD_COUNT * ITERATION_COUNT, probe.getIntervalHistogram().getTotalCount());
+        assertEquals(THREAD_COUNT * ITERATION_COUNT, probe.getServiceTimeIntervalHistogram().getTotalCount());
+    }
+
+    @Test(timeout = DEFAULT_TEST_TIMEOUT)
+    public void testRun_withMonotonicWorker() throws Exception {
+        TestContainer testContainer = runWithGeneratedLoop(new RunWithWorkerTest() {
+            @Override
+            IWorker createWorker() {
+                return new MonotonicWorker();
+            }
+        });
+
+        assertEquals(THREAD_COUNT * ITERATION_COUNT, getWorkerProbeCount(testContainer));
+    }
+
+    @Test(timeout = DEFAULT_TEST_TIMEOUT)
+    public void testRun_withProbeControlWorker() throws Exception {
+        TestContainer testContainer = runWithGeneratedLoop(new RunWithWorkerTest() {
+            @Override
+            IWorker createWorker() {
+                return new ProbeControlWorker();
+            }
+        });
+
+        assertEquals(THREAD_COUNT * ITERATION_COUNT, getWorkerProbeCount(testContainer));
+    }
+
+    @Test(timeout = DEFAULT_TEST_TIMEOUT)
+    public void testRun_withProbeControlWorker_withFixedRateMetronome() throws Exception {
+        TestContainer testContainer = runWithGeneratedLoop(new RunWithWorkerTest() {
+            @Override
+            IWorker createWorker() {
+                ProbeControlWorker worker = new ProbeControlWorker();
+                worker.setMetronome(withFixedRateIntervalMs(1, MetronomeType.BUSY_SPINNING));
+                return worker;
+            }
+        });
+
+        Probe probe = testContainer.getProbeMap().get(IWorker.DEFAULT_WORKER_PROBE_NAME);
+        assertEquals(THREAD_COUNT * ITERATION_COUNT, probe.getIntervalHistogram().getTotalCount());
+        assertEquals(THREAD_COUNT * ITERATION_COUNT, probe.getServiceTimeIntervalHistogram().getTotalCount());
+    }
+
+    @Test(timeout = DEFAULT_TEST_TIMEOUT)
+    public void testRun_withMonotonicProbeControlWorker() throws Exception {
+        TestContainer testContainer = runWithGeneratedLoop(new RunWithWorkerTest() {
+            @Override
+            IWorker createWorker() {
+                return new MonotonicProbeControlWorker();
+            }
+        });
+
+        assertEquals(THREAD_COUNT * ITERATION_COUNT, getWorkerProbeCount(testContainer));
+    }
+
+    @Test(timeout = DEFAULT_TEST_TIMEOUT)
+    public void testRun_withMultipleProbesWorker() throws Exception {
+        TestContainer testContainer = runWithGeneratedLoop(new RunWithWorkerTest() {
+            @Override
+            IWorker createWorker() {
+                return new MultipleProbesWorker();
+            }
+        });
+
+        long totalCount = 0;
+        for (Operation operation : Operation.values()) {
+            Probe probe = testContainer.getProbeMap().get(operation == Operation.FIRST ? "FirstProbe" : "SecondProbe");
+            totalCount += probe.getIntervalHistogram().getTotalCount();
+        }
+        assertEquals(THREAD_COUNT * ITERATION_COUNT, totalCount);
+    }
+
+    @Test(timeout = DEFAULT_TEST_TIMEOUT)
+    public void testRun_withDoRunWorker() throws Exception {
+        TestContainer testContainer = new TestContainer(testContext, new RunWithWorkerTest() {
+            @Override
+            IWorker createWorker() {
+                return new DoRunWorker();
+            }
+        }, THREAD_COUNT);
+        testContainer.setGenerateWorkerLoop(true);
+
+        testContainer.invoke(TestPhase.RUN);
+
+        assertEquals(THREAD_COUNT * ITERATION_COUNT, timeStepCalls.get());
+        assertEquals("the default loop should be used", 0, generatedLoopCalls.get());
+    }
+
+    private void assertLoopType(WorkerLoopType expectedLoopType, Class<? extends IWorker> workerClass) throws Exception {
+        assertEquals(expectedLoopType, new WorkerLoopFactory(workerClass).getLoopType());
+    }
+
+    private TestContainer runWithGeneratedLoop(RunWithWorkerTest test) throws Exception {
+        TestContainer testContainer = new TestContainer(testContext, test, THREAD_COUNT);
+        testContainer.setGenerateWorkerLoop(true);
+
+        testContainer.invoke(TestPhase.RUN);
+
+        assertEquals(THREAD_COUNT * ITERATION_COUNT, timeStepCalls.get());
+        assertEquals("all time steps should be called by the generated loop", timeStepCalls.get(), generatedLoopCalls.get());
+        return testContainer;
+    }
+
+    private static long getWorkerProbeCount(TestContainer testContainer) {
+        return testContainer.getProbeMap().get(IWorker.DEFAULT_WORKER_PROBE_NAME).getIntervalHistogram().getTotalCount();
+    }
+
+    private void timeStep(AbstractWorker worker) {
+        timeStepCalls.incrementAndGet();
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            if (element.getClassName().contains(".GeneratedWorkerLoop_")) {
+                generatedLoopCalls.incrementAndGet();
+                break;
+            }
+        }
+        if (worker.getIteration() == ITERATION_COUNT - 1) {
+            worker.stopWorker();
+        }
+    }
+
+    private abstract static class RunWithWorkerTest {
+
+        @RunWithWorker
+        abstract IWorker createWorker();
+    }
+
+    public class OperationWorker extends AbstractWorker<Operation> {
+
+        OperationWorker() {
+            super(operationSelectorBuilder);
+        }
+
+        @Override
+        public void timeStep(Operation operation) throws Exception {
+            WorkerLoopFactoryTest.this.timeStep(this);
+        }
+    }
+
+    public class MonotonicWorker extends AbstractMonotonicWorker {
+
+        @Override
+        public void timeStep() throws Exception {
+            WorkerLoopFactoryTest.this.timeStep(this);
+        }
+    }
+
+    public class ProbeControlWorker extends AbstractWorkerWithProbeControl<Operation> {
+
+        ProbeControlWorker() {
+            super(operationSelectorBuilder);
+        }
+
+        @Override
+        public void timeStep(Operation operation, Probe probe) throws Exception {
+            long started = System.nanoTime();
+            WorkerLoopFactoryTest.this.timeStep(this);
+            probe.done(started);
+        }
+    }
+
+    public class MonotonicProbeControlWorker extends AbstractMonotonicWorkerWithProbeControl {
+
+        @Override
+        public void timeStep(Probe probe) throws Exception {
+            long started = System.nanoTime();
+            WorkerLoopFactoryTest.this.timeStep(this);
+            probe.done(started);
+        }
+    }
+
+    public class MultipleProbesWorker extends AbstractWorkerWithMultipleProbes<Operation> {
+
+        MultipleProbesWorker() {
+            super(operationSelectorBuilder);
+        }
+
+        @Override
+        public void timeStep(Operation operation, Probe probe) throws Exception {
+            long started = System.nanoTime();
+            WorkerLoopFactoryTest.this.timeStep(this);
+            probe.done(started);
+        }
+    }
+
+    private class NonPublicWorker extends AbstractMonotonicWorker {
+
+        @Override
+        public void timeStep() throws Exception {
+            WorkerLoopFactoryTest.this.timeStep(this);
+        }
+    }
+
+    public class NonPublicTimeStepWorker extends AbstractMonotonicWorker {
+
+        @Override
+        protected void timeStep() throws Exception {
+            WorkerLoopFactoryTest.this.timeStep(this);
+        }
+    }
+
+    private class DoRunWorker extends AbstractWorker<Operation> {
+
+        DoRunWorker() {
+            super(operationSelectorBuilder);
+        }
+
+        @Override
+        protected void doRun() throws Exception {
+            timeStep(getRandomOperation());
+            increaseIteration();
+        }
+
+        @Override
+        protected void timeStep(Operation operation) throws Exception {
+            WorkerLoopFactoryTest.this.timeStep(this);
+        }
+    }
+
+    private class AsyncWorker extends AbstractBoundedAsyncWorker<Operation, Object> {
+
+        AsyncWorker() {
+            super(operationSelectorBuilder);
+        }
+
+        @Override
+        protected ICompletableFuture<Object> timeStepAsync(Operation operation) throws Exception {
+            return null;
+        }
+    }
+
+    private static class LocalWorker implements IWorker {
+
+        @Override
+        public void run() {
+        }
+
+        @Override
+        public void afterCompletion() {
+        }
+    }
+}
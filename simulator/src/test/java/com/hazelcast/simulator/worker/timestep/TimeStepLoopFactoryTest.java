@@ -0,0 +1,232 @@
+package com.hazelcast.simulator.worker.timestep;
+
+import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.probes.impl.ProbeImpl;
+import com.hazelcast.simulator.test.TestContext;
+import com.hazelcast.simulator.test.TestContextImpl;
+import com.hazelcast.simulator.test.annotations.TimeStep;
+import com.hazelcast.simulator.worker.loop.LoopClassCompiler;
+import com.hazelcast.simulator.worker.metronome.MetronomeType;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.hazelcast.simulator.utils.AnnotationReflectionUtils.getMethods;
+import static com.hazelcast.simulator.worker.metronome.MetronomeFactory.withFixedRateIntervalMs;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class TimeStepLoopFactoryTest {
+
+    private static final int ITERATION_COUNT = 100;
+
+    private final TestContext testContext = new TestContextImpl("TimeStepLoopFactoryTest");
+    private final Probe[] probes = new Probe[]{new ProbeImpl(true), new ProbeImpl(true)};
+
+    @Before
+    public void setUp() {
+        assumeTrue(LoopClassCompiler.isAvailable());
+    }
+
+    @Test
+    public void testGeneratedLoop() throws Exception {
+        TimeStepLoopFactory factory = createFactory(TimeStepTest.class, true);
+
+        assertTrue(factory.isGenerated());
+        assertTrue(factory.getClassName().startsWith(TimeStepTest.class.getPackage().getName() + ".GeneratedTimeStepLoop_"));
+        assertRunLoop(factory);
+    }
+
+    @Test
+    public void testGeneratedLoop_withSingleTimeStep() throws Exception {
+        SingleTimeStepTest test = new SingleTimeStepTest(testContext);
+        TimeStepLoopFactory factory = createFactory(SingleTimeStepTest.class, true);
+
+        factory.createLoop(testContext, test, probes).run();
+
+        assertEquals(ITERATION_COUNT, test.iterations);
+        assertEquals(ITERATION_COUNT, probes[0].getIntervalHistogram().getTotalCount());
+    }
+
+    @Test
+    public void testGeneratedLoop_createsNewClass() throws Exception {
+        TimeStepLoopFactory factory = createFactory(TimeStepTest.class, true);
+        TimeStepLoopFactory otherFactory = createFactory(TimeStepTest.class, true);
+
+        assertNotEquals(factory.getClassName(), otherFactory.getClassName());
+    }
+
+    @Test
+    public void testGeneratedLoop_withPrivateTestClass() throws Exception {
+        assertReflectionLoop(createFactory(PrivateTimeStepTest.class, true));
+    }
+
+    @Test
+    public void testGeneratedLoop_withPackagePrivateTestClass() throws Exception {
+        assertReflectionLoop(createFactory(PackagePrivateTimeStepTest.class, true));
+    }
+
+    @Test
+    public void testGeneratedLoop_withPackagePrivateTimeStepMethod() throws Exception {
+        assertReflectionLoop(createFactory(PackagePrivateMethodTest.class, true));
+    }
+
+    @Test
+    public void testReflectionLoop() throws Exception {
+        TimeStepLoopFactory factory = createFactory(TimeStepTest.class, false);
+
+        assertReflectionLoop(factory);
+        assertRunLoop(factory);
+    }
+
+    @Test
+    public void testReflectionLoop_withPrivateTestClass() throws Exception {
+        PrivateTimeStepTest test = new PrivateTimeStepTest(testContext);
+        TimeStepLoopFactory factory = createFactory(PrivateTimeStepTest.class, false);
+
+        factory.createLoop(testContext, test, probes).run();
+
+        assertEquals(ITERATION_COUNT, test.iterations);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReflectionLoop_withException() throws Exception {
+        ExceptionTest test = new ExceptionTest();
+        TimeStepLoopFactory factory = createFactory(ExceptionTest.class, false);
+
+        factory.createLoop(testContext, test, probes).run();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testGeneratedLoop_withException() throws Exception {
+        ExceptionTest test = new ExceptionTest();
+        TimeStepLoopFactory factory = createFactory(ExceptionTest.class, true);
+
+        factory.createLoop(testContext, test, probes).run();
+    }
+
+    @Test
+    public void testGeneratedLoop_withMetronome() throws Exception {
+        TimeStepTest test = new TimeStepTest(testContext);
+        TimeStepLoopFactory factory = createFactory(TimeStepTest.class, true);
+        TimeStepLoop loop = factory.createLoop(testContext, test, probes);
+        loop.setMetronome(withFixedRateIntervalMs(1, MetronomeType.BUSY_SPINNING));
+
+        loop.run();
+
+        long totalCount = probes[0].getIntervalHistogram().getTotalCount() + probes[1].getIntervalHistogram().getTotalCount();
+        assertEquals(ITERATION_COUNT, totalCount);
+        assertTrue(probes[0].getServiceTimeIntervalHistogram() != null || probes[1].getServiceTimeIntervalHistogram() != null);
+    }
+
+    private static void assertReflectionLoop(TimeStepLoopFactory factory) {
+        assertFalse(factory.isGenerated());
+        assertEquals(ReflectionTimeStepLoop.class.getName(), factory.getClassName());
+    }
+
+    private void assertRunLoop(TimeStepLoopFactory factory) throws Exception {
+        TimeStepTest test = new TimeStepTest(testContext);
+        TimeStepLoop loop = factory.createLoop(testContext, test, probes);
+
+        loop.run();
+
+        ThreadState threadState = (ThreadState) loop.getThreadState();
+        assertEquals(ITERATION_COUNT, test.firstCount + test.secondCount);
+        assertEquals(test.firstCount, threadState.firstCount);
+        assertTrue(test.firstCount > 0);
+        assertTrue(test.secondCount > 0);
+        assertEquals(test.firstCount, probes[0].getIntervalHistogram().getTotalCount());
+        assertEquals(test.secondCount, probes[1].getIntervalHistogram().getTotalCount());
+    }
+
+    private static TimeStepLoopFactory createFactory(Class<?> testClass, boolean generateLoop) throws Exception {
+        TimeStepModel model = new TimeStepModel(testClass, getMethods(testClass, TimeStep.class));
+        return new TimeStepLoopFactory(model, generateLoop);
+    }
+
+    public static class TimeStepTest {
+
+        private final TestContext testContext;
+
+        int firstCount;
+        int secondCount;
+
+        TimeStepTest(TestContext testContext) {
+            this.testContext = testContext;
+        }
+
+        @TimeStep(prob = 0.5)
+        public void first(ThreadState threadState) {
+            threadState.firstCount++;
+            firstCount++;
+            checkStop();
+        }
+
+        @TimeStep(prob = 0.5)
+        public int second() {
+            secondCount++;
+            checkStop();
+            return secondCount;
+        }
+
+        private void checkStop() {
+            if (firstCount + secondCount == ITERATION_COUNT) {
+                testContext.stop();
+            }
+        }
+    }
+
+    public static class ThreadState {
+
+        int firstCount;
+    }
+
+    public static class SingleTimeStepTest {
+
+        private final TestContext testContext;
+
+        int iterations;
+
+        SingleTimeStepTest(TestContext testContext) {
+            this.testContext = testContext;
+        }
+
+        @TimeStep
+        public void timeStep() {
+            if (++iterations == ITERATION_COUNT) {
+                testContext.stop();
+            }
+        }
+    }
+
+    private static class PrivateTimeStepTest extends SingleTimeStepTest {
+
+        PrivateTimeStepTest(TestContext testContext) {
+            super(testContext);
+        }
+    }
+
+    static class PackagePrivateTimeStepTest extends SingleTimeStepTest {
+
+        PackagePrivateTimeStepTest(TestContext testContext) {
+            super(testContext);
+        }
+    }
+
+    public static class PackagePrivateMethodTest {
+
+        @TimeStep
+        void timeStep() {
+        }
+    }
+
+    public static class ExceptionTest {
+
+        @TimeStep
+        public void timeStep() {
+            throw new IllegalStateException("expected");
+        }
+    }
+}
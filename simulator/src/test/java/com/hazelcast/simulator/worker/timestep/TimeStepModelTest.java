@@ -0,0 +1,251 @@
+package com.hazelcast.simulator.worker.timestep;
+
+import com.hazelcast.simulator.test.IllegalTestException;
+import com.hazelcast.simulator.test.annotations.TimeStep;
+import org.junit.Test;
+
+import static com.hazelcast.simulator.utils.AnnotationReflectionUtils.getMethods;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TimeStepModelTest {
+
+    private static final double DELTA = 0.0001;
+
+    @Test
+    public void testSingleTimeStep() {
+        TimeStepModel model = createModel(SingleTimeStepTest.class);
+
+        assertEquals(SingleTimeStepTest.class, model.getTestClass());
+        assertEquals(1, model.getTimeStepCount());
+        assertEquals("timeStep", model.getTimeStepMethods().get(0).getName());
+        assertEquals(1.0, model.getProbability(0), DELTA);
+        assertEquals("TimeStepProbe", model.getProbeName(0));
+        assertNull(model.getThreadStateClass());
+        assertNull(model.createThreadState(new SingleTimeStepTest()));
+    }
+
+    private static class SingleTimeStepTest {
+
+        @TimeStep
+        void timeStep() {
+        }
+    }
+
+    @Test
+    public void testProbabilities() {
+        TimeStepModel model = createModel(ProbabilityTest.class);
+
+        // the methods are sorted by name and the method with zero probability is skipped
+        assertEquals(3, model.getTimeStepCount());
+        assertEquals("get", model.getTimeStepMethods().get(0).getName());
+        assertEquals("put", model.getTimeStepMethods().get(1).getName());
+        assertEquals("remove", model.getTimeStepMethods().get(2).getName());
+        assertEquals(0.6, model.getProbability(0), DELTA);
+        assertEquals(0.3, model.getProbability(1), DELTA);
+        assertEquals(0.1, model.getProbability(2), DELTA);
+        assertEquals("GetProbe", model.getProbeName(0));
+        assertEquals("PutProbe", model.getProbeName(1));
+        assertEquals("RemoveProbe", model.getProbeName(2));
+    }
+
+    private static class ProbabilityTest {
+
+        @TimeStep(prob = 0.3)
+        void put() {
+        }
+
+        @TimeStep(prob = 0.1)
+        void remove() {
+        }
+
+        @TimeStep
+        void get() {
+        }
+
+        @TimeStep(prob = 0)
+        void clear() {
+        }
+    }
+
+    @Test
+    public void testNewSelector() {
+        TimeStepModel model = createModel(ProbabilityTest.class);
+
+        assertNotNull(model.newSelector());
+        assertNotSame(model.newSelector(), model.newSelector());
+    }
+
+    @Test
+    public void testThreadState() {
+        TimeStepModel model = createModel(ThreadStateTest.class);
+
+        assertEquals(ThreadState.class, model.getThreadStateClass());
+        Object threadState = model.createThreadState(new ThreadStateTest());
+        assertTrue(threadState instanceof ThreadState);
+        assertNotSame(threadState, model.createThreadState(new ThreadStateTest()));
+    }
+
+    private static class ThreadStateTest {
+
+        @TimeStep(prob = 0.5)
+        void first(ThreadState threadState) {
+        }
+
+        @TimeStep(prob = 0.5)
+        void second() {
+        }
+    }
+
+    private static class ThreadState {
+    }
+
+    @Test
+    public void testThreadState_withInnerClass() {
+        TimeStepModel model = createModel(InnerThreadStateTest.class);
+        InnerThreadStateTest test = new InnerThreadStateTest();
+
+        Object threadState = model.createThreadState(test);
+
+        assertTrue(threadState instanceof InnerThreadStateTest.InnerThreadState);
+        assertSame(test, ((InnerThreadStateTest.InnerThreadState) threadState).getTest());
+    }
+
+    private static class InnerThreadStateTest {
+
+        @TimeStep
+        void timeStep(InnerThreadState threadState) {
+        }
+
+        private class InnerThreadState {
+
+            InnerThreadStateTest getTest() {
+                return InnerThreadStateTest.this;
+            }
+        }
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void testMultipleDefaultProbabilities() {
+        createModel(MultipleDefaultProbabilitiesTest.class);
+    }
+
+    private static class MultipleDefaultProbabilitiesTest {
+
+        @TimeStep
+        void first() {
+        }
+
+        @TimeStep
+        void second() {
+        }
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void testProbabilitySumTooLow() {
+        createModel(ProbabilitySumTooLowTest.class);
+    }
+
+    private static class ProbabilitySumTooLowTest {
+
+        @TimeStep(prob = 0.5)
+        void first() {
+        }
+
+        @TimeStep(prob = 0.4)
+        void second() {
+        }
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void testProbabilitySumTooHigh() {
+        createModel(ProbabilitySumTooHighTest.class);
+    }
+
+    private static class ProbabilitySumTooHighTest {
+
+        @TimeStep(prob = 0.7)
+        void first() {
+        }
+
+        @TimeStep(prob = 0.4)
+        void second() {
+        }
+
+        @TimeStep
+        void third() {
+        }
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void testInvalidProbability() {
+        createModel(InvalidProbabilityTest.class);
+    }
+
+    private static class InvalidProbabilityTest {
+
+        @TimeStep(prob = 1.5)
+        void timeStep() {
+        }
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void testTooManyArguments() {
+        createModel(TooManyArgumentsTest.class);
+    }
+
+    private static class TooManyArgumentsTest {
+
+        @TimeStep
+        void timeStep(ThreadState threadState, ThreadState other) {
+        }
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void testDifferentThreadStates() {
+        createModel(DifferentThreadStatesTest.class);
+    }
+
+    private static class DifferentThreadStatesTest {
+
+        @TimeStep(prob = 0.5)
+        void first(ThreadState threadState) {
+        }
+
+        @TimeStep(prob = 0.5)
+        void second(String threadState) {
+        }
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void testThreadStateWithoutSupportedConstructor() {
+        createModel(ThreadStateWithoutSupportedConstructorTest.class);
+    }
+
+    private static class ThreadStateWithoutSupportedConstructorTest {
+
+        @TimeStep
+        void timeStep(Integer threadState) {
+        }
+    }
+
+    @Test(expected = IllegalTestException.class)
+    public void testAbstractThreadState() {
+        createModel(AbstractThreadStateTest.class);
+    }
+
+    private static class AbstractThreadStateTest {
+
+        @TimeStep
+        void timeStep(Runnable threadState) {
+        }
+    }
+
+    private static TimeStepModel createModel(Class<?> testClass) {
+        return new TimeStepModel(testClass, getMethods(testClass, TimeStep.class));
+    }
+}
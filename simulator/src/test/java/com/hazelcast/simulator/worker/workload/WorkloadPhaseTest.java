@@ -0,0 +1,115 @@
+package com.hazelcast.simulator.worker.workload;
+
+import com.hazelcast.simulator.worker.selector.OperationSelector;
+import com.hazelcast.simulator.worker.selector.OperationSelectorBuilder;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.simulator.worker.workload.WorkloadPhase.NO_TARGET_THROUGHPUT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class WorkloadPhaseTest {
+
+    private enum Operation {
+        GET,
+        PUT,
+        REMOVE
+    }
+
+    private final OperationSelectorBuilder<Operation> defaultBuilder = new OperationSelectorBuilder<Operation>()
+            .addOperation(Operation.GET, 0.5)
+            .addDefaultOperation(Operation.PUT);
+
+    @Test
+    public void testGetProbeName() {
+        WorkloadPhase phase = createPhase("readHeavy", Collections.<String, Double>emptyMap());
+
+        assertEquals("workerProbe-readHeavy", phase.getProbeName("workerProbe"));
+    }
+
+    @Test
+    public void testCreateOperationSelectorBuilder_withoutOperationMix() {
+        WorkloadPhase phase = createPhase("default", Collections.<String, Double>emptyMap());
+
+        assertSame(defaultBuilder, phase.createOperationSelectorBuilder(defaultBuilder));
+    }
+
+    @Test
+    public void testCreateOperationSelectorBuilder_withOperationMix() {
+        Map<String, Double> operationProbabilities = new HashMap<String, Double>();
+        operationProbabilities.put("REMOVE", 1.0);
+        WorkloadPhase phase = createPhase("remove", operationProbabilities);
+
+        OperationSelectorBuilder<Operation> builder = phase.createOperationSelectorBuilder(defaultBuilder);
+        OperationSelector<Operation> selector = builder.build();
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Operation.REMOVE, selector.select());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateOperationSelectorBuilder_withUnknownOperation() {
+        Map<String, Double> operationProbabilities = new HashMap<String, Double>();
+        operationProbabilities.put("CLEAR", 1.0);
+        WorkloadPhase phase = createPhase("clear", operationProbabilities);
+
+        phase.createOperationSelectorBuilder(defaultBuilder);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCreateOperationSelectorBuilder_withProbabilityMismatch() {
+        Map<String, Double> operationProbabilities = new HashMap<String, Double>();
+        operationProbabilities.put("GET", 0.5);
+        WorkloadPhase phase = createPhase("get", operationProbabilities);
+
+        phase.createOperationSelectorBuilder(defaultBuilder).build();
+    }
+
+    @Test
+    public void testGetOperations_withoutOperationMix() {
+        WorkloadPhase phase = createPhase("default", Collections.<String, Double>emptyMap());
+
+        Set<Enum> operations = phase.getOperations(defaultBuilder.getOperations());
+
+        assertEquals(defaultBuilder.getOperations(), operations);
+    }
+
+    @Test
+    public void testGetOperations_withOperationMix() {
+        Map<String, Double> operationProbabilities = new HashMap<String, Double>();
+        operationProbabilities.put("GET", 0.0);
+        operationProbabilities.put("REMOVE", 1.0);
+        WorkloadPhase phase = createPhase("remove", operationProbabilities);
+
+        Set<Enum> operations = phase.getOperations(defaultBuilder.getOperations());
+
+        assertEquals(1, operations.size());
+        assertTrue(operations.contains(Operation.REMOVE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_withEmptyName() {
+        createPhase("", Collections.<String, Double>emptyMap());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_withZeroDuration() {
+        new WorkloadPhase("phase", 0, Collections.<String, Double>emptyMap(), NO_TARGET_THROUGHPUT);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_withNegativeTargetThroughput() {
+        new WorkloadPhase("phase", 1000, Collections.<String, Double>emptyMap(), -5);
+    }
+
+    private static WorkloadPhase createPhase(String name, Map<String, Double> operationProbabilities) {
+        return new WorkloadPhase(name, 1000, operationProbabilities, NO_TARGET_THROUGHPUT);
+    }
+}
@@ -0,0 +1,93 @@
+package com.hazelcast.simulator.worker.workload;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WorkloadScheduleTest {
+
+    @Test
+    public void testParse() {
+        WorkloadSchedule schedule = WorkloadSchedule.parse("readHeavy:5m:GET=0.9,PUT=0.1; writeHeavy:30s:GET=0.2,PUT=0.8:5000");
+
+        assertEquals(2, schedule.getPhaseCount());
+
+        WorkloadPhase readHeavy = schedule.getPhase(0);
+        assertEquals("readHeavy", readHeavy.getName());
+        assertEquals(TimeUnit.MINUTES.toMillis(5), readHeavy.getDurationMillis());
+        assertEquals(0.9, readHeavy.getOperationProbabilities().get("GET"), 0.0);
+        assertEquals(0.1, readHeavy.getOperationProbabilities().get("PUT"), 0.0);
+        assertFalse(readHeavy.hasTargetThroughput());
+
+        WorkloadPhase writeHeavy = schedule.getPhase(1);
+        assertEquals("writeHeavy", writeHeavy.getName());
+        assertEquals(TimeUnit.SECONDS.toMillis(30), writeHeavy.getDurationMillis());
+        assertEquals(0.8, writeHeavy.getOperationProbabilities().get("PUT"), 0.0);
+        assertTrue(writeHeavy.hasTargetThroughput());
+        assertEquals(5000, writeHeavy.getTargetThroughput(), 0.0);
+    }
+
+    @Test
+    public void testParse_withDurationUnits() {
+        WorkloadSchedule schedule = WorkloadSchedule.parse("a:10;b:10s;c:2h");
+
+        assertEquals(TimeUnit.SECONDS.toMillis(10), schedule.getPhase(0).getDurationMillis());
+        assertEquals(TimeUnit.SECONDS.toMillis(10), schedule.getPhase(1).getDurationMillis());
+        assertEquals(TimeUnit.HOURS.toMillis(2), schedule.getPhase(2).getDurationMillis());
+    }
+
+    @Test
+    public void testParse_withoutOperationMix() {
+        WorkloadSchedule schedule = WorkloadSchedule.parse("warmup:1m;peak:1m::10000;");
+
+        assertEquals(2, schedule.getPhaseCount());
+        assertFalse(schedule.getPhase(0).hasOperationMix());
+        assertFalse(schedule.getPhase(0).hasTargetThroughput());
+        assertFalse(schedule.getPhase(1).hasOperationMix());
+        assertEquals(10000, schedule.getPhase(1).getTargetThroughput(), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParse_withEmptySchedule() {
+        WorkloadSchedule.parse(" ; ");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParse_withMissingDuration() {
+        WorkloadSchedule.parse("readHeavy");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParse_withTooManyFields() {
+        WorkloadSchedule.parse("readHeavy:1m:GET=1.0:100:foo");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParse_withInvalidDuration() {
+        WorkloadSchedule.parse("readHeavy:1x");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParse_withInvalidOperation() {
+        WorkloadSchedule.parse("readHeavy:1m:GET");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParse_withInvalidTargetThroughput() {
+        WorkloadSchedule.parse("readHeavy:1m::fast");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_withDuplicatePhaseNames() {
+        WorkloadPhase phase = new WorkloadPhase("phase", 1000, Collections.<String, Double>emptyMap(),
+                WorkloadPhase.NO_TARGET_THROUGHPUT);
+
+        new WorkloadSchedule(asList(phase, phase));
+    }
+}
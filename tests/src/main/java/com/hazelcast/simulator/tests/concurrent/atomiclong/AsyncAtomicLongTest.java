@@ -30,19 +30,13 @@ import com.hazelcast.simulator.test.annotations.Teardown;
 import com.hazelcast.simulator.test.annotations.Verify;
 import com.hazelcast.simulator.tests.helpers.KeyLocality;
 import com.hazelcast.simulator.utils.AssertTask;
-import com.hazelcast.simulator.worker.metronome.Metronome;
 import com.hazelcast.simulator.worker.metronome.MetronomeType;
 import com.hazelcast.simulator.worker.selector.OperationSelectorBuilder;
-import com.hazelcast.simulator.worker.tasks.AbstractAsyncWorker;
-
-import java.util.LinkedList;
-import java.util.List;
-import java.util.concurrent.TimeUnit;
+import com.hazelcast.simulator.worker.tasks.AbstractBoundedAsyncWorker;
 
 import static com.hazelcast.simulator.tests.helpers.HazelcastTestUtils.getOperationCountInformation;
 import static com.hazelcast.simulator.tests.helpers.HazelcastTestUtils.isClient;
 import static com.hazelcast.simulator.tests.helpers.HazelcastTestUtils.isMemberNode;
-import static com.hazelcast.simulator.tests.helpers.HazelcastTestUtils.rethrow;
 import static com.hazelcast.simulator.tests.helpers.KeyUtils.generateStringKeys;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepSeconds;
 import static com.hazelcast.simulator.utils.TestUtils.assertTrueEventually;
@@ -62,9 +56,15 @@ public class AsyncAtomicLongTest {
     public String basename = AsyncAtomicLongTest.class.getSimpleName();
     public KeyLocality keyLocality = KeyLocality.SHARED;
     public int countersLength = 1000;
-    public MetronomeType metronomeType = MetronomeType.SLEEPING;
-    public int metronomeIntervalMs = (int) TimeUnit.SECONDS.toMillis(1);
     public int assertEventuallySeconds = 300;
+    public int maxInFlight = AbstractBoundedAsyncWorker.DEFAULT_MAX_IN_FLIGHT;
+
+    // deprecated properties, use targetThroughput and maxInFlight instead (a positive batchSize is used as maxInFlight)
+    @Deprecated
+    public MetronomeType metronomeType = MetronomeType.SLEEPING;
+    @Deprecated
+    public int metronomeIntervalMs;
+    @Deprecated
     public int batchSize = -1;
 
     public double writeProb = 1.0;
@@ -138,63 +138,33 @@ public class AsyncAtomicLongTest {
         return new Worker();
     }
 
-    private class Worker extends AbstractAsyncWorker<Operation, Long> {
-
-        private final List<ICompletableFuture> batch = new LinkedList<ICompletableFuture>();
-        private final Metronome metronome = withFixedIntervalMs(metronomeIntervalMs, metronomeType);
+    private class Worker extends AbstractBoundedAsyncWorker<Operation, Long> {
 
         private long increments;
 
         public Worker() {
-            super(builder);
+            super(builder, (batchSize > 0) ? batchSize : maxInFlight);
+            if (metronomeIntervalMs > 0) {
+                setMetronome(withFixedIntervalMs(metronomeIntervalMs, metronomeType));
+            }
         }
 
         @Override
-        protected void timeStep(Operation operation) throws Exception {
+        protected ICompletableFuture<Long> timeStepAsync(Operation operation) throws Exception {
             if (isClient(targetInstance)) {
-                return;
+                return null;
             }
 
             AsyncAtomicLong counter = getRandomCounter();
-
-            ICompletableFuture<Long> future;
             switch (operation) {
                 case PUT:
                     increments++;
-                    future = counter.asyncIncrementAndGet();
-                    break;
+                    return counter.asyncIncrementAndGet();
                 case GET:
-                    future = counter.asyncGet();
-                    break;
+                    return counter.asyncGet();
                 default:
                     throw new UnsupportedOperationException();
             }
-            future.andThen(this);
-
-            if (batchSize > 0) {
-                batch.add(future);
-
-                if (batch.size() == batchSize) {
-                    for (ICompletableFuture batchFuture : batch) {
-                        try {
-                            batchFuture.get();
-                        } catch (Exception e) {
-                            throw rethrow(e);
-                        }
-                    }
-                    batch.clear();
-                }
-            }
-
-            metronome.waitForNext();
-        }
-
-        @Override
-        protected void handleResponse(Long response) {
-        }
-
-        @Override
-        protected void handleFailure(Throwable t) {
         }
 
         @Override
@@ -17,6 +17,7 @@ package com.hazelcast.simulator.tests.external;
 
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.ICountDownLatch;
+import com.hazelcast.core.IQueue;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 import com.hazelcast.simulator.probes.Probe;
@@ -29,7 +30,7 @@ import com.hazelcast.util.EmptyStatement;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
-import static com.hazelcast.simulator.tests.external.ExternalClientUtils.getLatencyResults;
+import static com.hazelcast.simulator.tests.external.ExternalClientUtils.drainLatencyHistograms;
 import static com.hazelcast.simulator.tests.external.ExternalClientUtils.getThroughputResults;
 import static com.hazelcast.simulator.tests.external.ExternalClientUtils.setCountDownLatch;
 import static com.hazelcast.simulator.tests.helpers.HazelcastTestUtils.isMemberNode;
@@ -37,6 +38,8 @@ import static java.lang.String.format;
 
 public class ExternalClientTest {
 
+    private static final int LATENCY_HISTOGRAM_DRAIN_INTERVAL_SECONDS = 1;
+
     private static final ILogger LOGGER = Logger.getLogger(ExternalClientTest.class);
 
     // properties
@@ -44,6 +47,7 @@ public class ExternalClientTest {
     public int waitForClientsCount = 0;
     public int waitIntervalSeconds = 60;
     public int expectedResultSize = 0;
+    public String latencyHistogramQueueName = "externalClientsLatencyHistograms";
 
     @InjectProbe
     private Probe externalClientProbe;
@@ -51,6 +55,7 @@ public class ExternalClientTest {
     private HazelcastInstance hazelcastInstance;
     private boolean isExternalResultsCollectorInstance;
     private ICountDownLatch clientsRunning;
+    private IQueue<String> latencyHistograms;
 
     @Setup
     public void setUp(TestContext testContext) {
@@ -67,6 +72,7 @@ public class ExternalClientTest {
         // determine one instance per cluster
         if (hazelcastInstance.getMap(basename).putIfAbsent(basename, true) == null) {
             isExternalResultsCollectorInstance = true;
+            latencyHistograms = hazelcastInstance.getQueue(latencyHistogramQueueName);
             LOGGER.info("This instance will collect all probe results from external clients");
         } else {
             LOGGER.info("This instance will not collect probe results");
@@ -79,22 +85,7 @@ public class ExternalClientTest {
             return;
         }
 
-        // wait for external clients to finish
-        while (true) {
-            try {
-                clientsRunning.await(waitIntervalSeconds, TimeUnit.SECONDS);
-            } catch (InterruptedException ignored) {
-                EmptyStatement.ignore(ignored);
-            }
-            long clientsRunningCount = clientsRunning.getCount();
-            if (clientsRunningCount > 0) {
-                long responseReceivedCount = waitForClientsCount - clientsRunningCount;
-                LOGGER.info(format("Got response from %d/%d clients, waiting...", responseReceivedCount, waitForClientsCount));
-            } else {
-                LOGGER.info(format("Got response from all %d clients, stopping now!", waitForClientsCount));
-                break;
-            }
-        }
+        waitForExternalClients();
 
         // just a single instance will collect the results from all external clients
         if (!isExternalResultsCollectorInstance) {
@@ -105,7 +96,39 @@ public class ExternalClientTest {
         // get probe results
         LOGGER.info("Collecting results from external clients...");
         getThroughputResults(hazelcastInstance, expectedResultSize);
-        getLatencyResults(hazelcastInstance, externalClientProbe, expectedResultSize);
+        int histogramCount = drainLatencyHistograms(latencyHistograms, externalClientProbe);
+        LOGGER.info(format("Merged %d remaining latency histograms of external clients", histogramCount));
         LOGGER.info("Result collecting ExternalClientTest done!");
     }
+
+    /**
+     * Waits for all external clients to finish. The result collecting instance merges their latency histograms meanwhile.
+     */
+    private void waitForExternalClients() {
+        int awaitSeconds = (isExternalResultsCollectorInstance ? LATENCY_HISTOGRAM_DRAIN_INTERVAL_SECONDS : waitIntervalSeconds);
+        int waitedSeconds = 0;
+        while (true) {
+            try {
+                clientsRunning.await(awaitSeconds, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+                EmptyStatement.ignore(ignored);
+            }
+            if (isExternalResultsCollectorInstance) {
+                drainLatencyHistograms(latencyHistograms, externalClientProbe);
+            }
+            waitedSeconds += awaitSeconds;
+            long clientsRunningCount = clientsRunning.getCount();
+            if (clientsRunningCount > 0) {
+                if (waitedSeconds >= waitIntervalSeconds) {
+                    long responseReceivedCount = waitForClientsCount - clientsRunningCount;
+                    LOGGER.info(format("Got response from %d/%d clients, waiting...", responseReceivedCount,
+                            waitForClientsCount));
+                    waitedSeconds = 0;
+                }
+            } else {
+                LOGGER.info(format("Got response from all %d clients, stopping now!", waitForClientsCount));
+                return;
+            }
+        }
+    }
 }
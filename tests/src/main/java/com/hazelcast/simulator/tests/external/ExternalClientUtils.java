@@ -18,12 +18,16 @@ package com.hazelcast.simulator.tests.external;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.ICountDownLatch;
 import com.hazelcast.core.IList;
+import com.hazelcast.core.IQueue;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.probes.impl.HistogramUtils;
+import org.HdrHistogram.Histogram;
 
 import java.util.concurrent.TimeUnit;
 
+import static com.hazelcast.simulator.probes.impl.HistogramUtils.decodeHistogram;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepMillis;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepSeconds;
 import static java.lang.String.format;
@@ -91,18 +95,31 @@ final class ExternalClientUtils {
                 totalInvocations, avgDuration, performance));
     }
 
-    static void getLatencyResults(HazelcastInstance hazelcastInstance, Probe probe, int expectedResultSize) {
-        IList<String> latencyLists = getResultList(hazelcastInstance, "externalClientsLatencyResults", expectedResultSize);
-
-        LOGGER.info(format("Collecting %d latency result lists...", latencyLists.size()));
-        for (String key : latencyLists) {
-            IList<Long> values = hazelcastInstance.getList(key);
-            LOGGER.info(format("Adding %d latency results...", values.size()));
-            for (Long latency : values) {
-                probe.recordValue(latency);
+    /**
+     * Merges the interval histograms, which have been published by the external clients, into a {@link Probe}.
+     *
+     * The external clients publish their latencies periodically as interval histograms with values in microseconds. Each
+     * histogram is encoded as compressed Base64 String, which is compatible to {@link HistogramUtils#encodeHistogram(Histogram)}
+     * and <tt>hdr_log_encode()</tt> of HdrHistogram_c. Since the queue is drained periodically during the run, the external
+     * latencies end up in the interval histograms of the probe like the latencies of a test in the Worker JVM.
+     *
+     * @param latencyHistograms the {@link IQueue} with the encoded interval histograms
+     * @param probe             the {@link Probe} to merge the histograms into
+     * @return the number of merged histograms
+     */
+    static int drainLatencyHistograms(IQueue<String> latencyHistograms, Probe probe) {
+        int histogramCount = 0;
+        String encodedHistogram = latencyHistograms.poll();
+        while (encodedHistogram != null) {
+            try {
+                probe.recordValues(decodeHistogram(encodedHistogram));
+                histogramCount++;
+            } catch (IllegalArgumentException e) {
+                LOGGER.warning("Could not decode latency histogram of external client: " + e.getMessage());
             }
+            encodedHistogram = latencyHistograms.poll();
         }
-        LOGGER.info("Done!");
+        return histogramCount;
     }
 
     static IList<String> getResultList(HazelcastInstance hazelcastInstance, String listName, int expectedResultSize) {
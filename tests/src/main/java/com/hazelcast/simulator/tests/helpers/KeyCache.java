@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.tests.helpers;
+
+import org.apache.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Checksum;
+
+import static com.hazelcast.simulator.utils.CommonUtils.closeQuietly;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static com.hazelcast.simulator.utils.FileUtils.ensureExistingDirectory;
+import static com.hazelcast.simulator.utils.FileUtils.newFile;
+import static com.hazelcast.simulator.utils.FileUtils.rename;
+import static java.lang.String.format;
+
+/**
+ * Caches generated keys on disk, so they can be reused by later runs with the same parameters.
+ *
+ * The cache is disabled by default. It's enabled by setting the system property {@value #KEY_CACHE_DIRECTORY_PROPERTY} on the
+ * Worker JVM, e.g. via the JVM options in the Coordinator. Since the keys are reused, all Workers on the same machine, which
+ * generate keys with the same parameters, share the same random keys.
+ *
+ * A cache file contains the key count, the keys and a CRC32 checksum of both as trailer. The file is written to a unique
+ * temporary file first, which is renamed when it's complete. So concurrent Workers don't write into the same file and a
+ * truncated or corrupted cache file is detected when it's read.
+ *
+ * All errors are logged and ignored, the keys will then just be generated again.
+ */
+final class KeyCache {
+
+    static final String KEY_CACHE_DIRECTORY_PROPERTY = "simulator.keyCacheDirectory";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Logger LOGGER = Logger.getLogger(KeyCache.class);
+
+    private KeyCache() {
+    }
+
+    /**
+     * Returns the cache file for the given name.
+     *
+     * @param name the name of the cache file
+     * @return the cache file or <tt>null</tt> if the cache is disabled
+     */
+    static File getCacheFile(String name) {
+        String directory = System.getProperty(KEY_CACHE_DIRECTORY_PROPERTY);
+        if (directory == null || directory.isEmpty()) {
+            return null;
+        }
+        return new File(newFile(directory), name);
+    }
+
+    static int[] readIntKeys(File file, int keyCount) {
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        Checksum checksum = new CRC32();
+        DataInputStream in = null;
+        try {
+            in = openInputStream(file, checksum);
+            if (in.readInt() != keyCount) {
+                return null;
+            }
+            int[] keys = new int[keyCount];
+            for (int i = 0; i < keyCount; i++) {
+                keys[i] = in.readInt();
+            }
+            if (!isValidTrailer(in, checksum)) {
+                LOGGER.warn("Invalid checksum of cache file " + file.getAbsolutePath() + ", the keys will be generated again");
+                return null;
+            }
+            LOGGER.info(format("Read %d keys from cache file %s", keyCount, file.getAbsolutePath()));
+            return keys;
+        } catch (IOException e) {
+            LOGGER.warn("Could not read keys from cache file " + file.getAbsolutePath(), e);
+            return null;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    static String[] readStringKeys(File file, int keyCount) {
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        Checksum checksum = new CRC32();
+        DataInputStream in = null;
+        try {
+            in = openInputStream(file, checksum);
+            if (in.readInt() != keyCount) {
+                return null;
+            }
+            String[] keys = new String[keyCount];
+            for (int i = 0; i < keyCount; i++) {
+                keys[i] = in.readUTF();
+            }
+            if (!isValidTrailer(in, checksum)) {
+                LOGGER.warn("Invalid checksum of cache file " + file.getAbsolutePath() + ", the keys will be generated again");
+                return null;
+            }
+            LOGGER.info(format("Read %d keys from cache file %s", keyCount, file.getAbsolutePath()));
+            return keys;
+        } catch (IOException e) {
+            LOGGER.warn("Could not read keys from cache file " + file.getAbsolutePath(), e);
+            return null;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    static void writeIntKeys(File file, int[] keys) {
+        if (file == null) {
+            return;
+        }
+        Checksum checksum = new CRC32();
+        File tmpFile = null;
+        DataOutputStream out = null;
+        try {
+            tmpFile = createTempFile(file);
+            out = openOutputStream(tmpFile, checksum);
+            out.writeInt(keys.length);
+            for (int key : keys) {
+                out.writeInt(key);
+            }
+            out.writeLong(checksum.getValue());
+            out.close();
+            rename(tmpFile, file);
+        } catch (Exception e) {
+            LOGGER.warn("Could not write keys to cache file " + file.getAbsolutePath(), e);
+        } finally {
+            closeQuietly(out);
+            deleteQuiet(tmpFile);
+        }
+    }
+
+    static void writeStringKeys(File file, String[] keys) {
+        if (file == null) {
+            return;
+        }
+        Checksum checksum = new CRC32();
+        File tmpFile = null;
+        DataOutputStream out = null;
+        try {
+            tmpFile = createTempFile(file);
+            out = openOutputStream(tmpFile, checksum);
+            out.writeInt(keys.length);
+            for (String key : keys) {
+                out.writeUTF(key);
+            }
+            out.writeLong(checksum.getValue());
+            out.close();
+            rename(tmpFile, file);
+        } catch (Exception e) {
+            LOGGER.warn("Could not write keys to cache file " + file.getAbsolutePath(), e);
+        } finally {
+            closeQuietly(out);
+            deleteQuiet(tmpFile);
+        }
+    }
+
+    private static boolean isValidTrailer(DataInputStream in, Checksum checksum) throws IOException {
+        // the checksum has to be retrieved before the trailer is read, since it's also passed through the checksum
+        long expectedChecksum = checksum.getValue();
+        return (in.readLong() == expectedChecksum && in.read() == -1);
+    }
+
+    private static File createTempFile(File file) throws IOException {
+        File directory = file.getParentFile();
+        ensureExistingDirectory(directory);
+        return File.createTempFile(file.getName() + '-', ".tmp", directory);
+    }
+
+    private static DataInputStream openInputStream(File file, Checksum checksum) throws IOException {
+        return new DataInputStream(new CheckedInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE),
+                checksum));
+    }
+
+    private static DataOutputStream openOutputStream(File file, Checksum checksum) throws IOException {
+        return new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE),
+                checksum));
+    }
+}
@@ -20,10 +20,17 @@ import com.hazelcast.core.Member;
 import com.hazelcast.core.Partition;
 import com.hazelcast.core.PartitionService;
 
-import java.util.HashSet;
-import java.util.Random;
-import java.util.Set;
-
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static com.hazelcast.simulator.tests.helpers.KeyCache.getCacheFile;
+import static com.hazelcast.simulator.tests.helpers.KeyCache.readIntKeys;
+import static com.hazelcast.simulator.tests.helpers.KeyCache.readStringKeys;
+import static com.hazelcast.simulator.tests.helpers.KeyCache.writeIntKeys;
+import static com.hazelcast.simulator.tests.helpers.KeyCache.writeStringKeys;
 import static com.hazelcast.simulator.utils.CommonUtils.sleepSeconds;
 import static com.hazelcast.simulator.utils.GeneratorUtils.generateString;
 import static java.lang.String.format;
@@ -54,35 +61,18 @@ public final class KeyUtils {
         return owner.equals(instance.getLocalEndpoint());
     }
 
-    private static KeyGenerator<Integer> newIntKeyGenerator(HazelcastInstance hz, KeyLocality keyLocality, int keyCount) {
-        switch (keyLocality) {
-            case LOCAL:
-                return new BalancedIntKeyGenerator(hz, keyLocality, keyCount);
-            case REMOTE:
-                return new BalancedIntKeyGenerator(hz, keyLocality, keyCount);
-            case RANDOM:
-                return new BalancedIntKeyGenerator(hz, keyLocality, keyCount);
-            case SINGLE_PARTITION:
-                return new SinglePartitionIntKeyGenerator();
-            default:
-                return new SharedIntKeyGenerator();
+    private static KeyGenerator<Integer> newIntKeyGenerator(KeyLocality keyLocality) {
+        if (keyLocality == KeyLocality.SINGLE_PARTITION) {
+            return new SinglePartitionIntKeyGenerator();
         }
+        return new SharedIntKeyGenerator();
     }
 
-    private static KeyGenerator<String> newStringKeyGenerator(
-            HazelcastInstance hz, KeyLocality keyLocality, int keyCount, int keyLength, String prefix) {
-        switch (keyLocality) {
-            case LOCAL:
-                return new BalancedStringKeyGenerator(hz, keyLocality, keyCount, keyLength, prefix);
-            case REMOTE:
-                return new BalancedStringKeyGenerator(hz, keyLocality, keyCount, keyLength, prefix);
-            case RANDOM:
-                return new BalancedStringKeyGenerator(hz, keyLocality, keyCount, keyLength, prefix);
-            case SINGLE_PARTITION:
-                return new SinglePartitionStringKeyGenerator(keyLength, prefix);
-            default:
-                return new SharedStringKeyGenerator(keyLength, prefix);
+    private static KeyGenerator<String> newStringKeyGenerator(KeyLocality keyLocality, int keyLength, String prefix) {
+        if (keyLocality == KeyLocality.SINGLE_PARTITION) {
+            return new SinglePartitionStringKeyGenerator(keyLength, prefix);
         }
+        return new SharedStringKeyGenerator(keyLength, prefix);
     }
 
     /**
@@ -90,13 +80,19 @@ public final class KeyUtils {
      *
      * If the instance is a client, keyLocality is ignored.
      *
+     * The balanced keys are generated in parallel and can be cached on disk, see {@link KeyCache}.
+     *
      * @param keyCount    the number of keys in the array
      * @param keyLocality if the key is local/remote/random
      * @param hz          the HazelcastInstance that is used for keyLocality
      * @return the created array of keys
      */
     public static int[] generateIntKeys(int keyCount, KeyLocality keyLocality, HazelcastInstance hz) {
-        KeyGenerator<Integer> keyGenerator = newIntKeyGenerator(hz, keyLocality, keyCount);
+        if (isBalanced(keyLocality)) {
+            return generateBalancedIntKeys(keyCount, keyLocality, hz);
+        }
+
+        KeyGenerator<Integer> keyGenerator = newIntKeyGenerator(keyLocality);
 
         int[] keys = new int[keyCount];
         for (int i = 0; i < keys.length; i++) {
@@ -114,8 +110,18 @@ public final class KeyUtils {
      * @return the created key
      */
     public static String generateStringKey(int keyLength, KeyLocality keyLocality, HazelcastInstance hz) {
-        KeyGenerator<String> keyGenerator = newStringKeyGenerator(hz, keyLocality, Integer.MAX_VALUE, keyLength, "");
-        return keyGenerator.next();
+        if (!isBalanced(keyLocality)) {
+            return newStringKeyGenerator(keyLocality, keyLength, "").next();
+        }
+
+        PartitionService partitionService = hz.getPartitionService();
+        int[] targetPartitions = getTargetPartitions(hz, keyLocality);
+        for (; ; ) {
+            String key = generateString(keyLength);
+            if (Arrays.binarySearch(targetPartitions, partitionService.getPartition(key).getPartitionId()) >= 0) {
+                return key;
+            }
+        }
     }
 
     /**
@@ -154,6 +160,8 @@ public final class KeyUtils {
      *
      * If the hz is a client, keyLocality is ignored.
      *
+     * The balanced keys are generated in parallel and can be cached on disk, see {@link KeyCache}.
+     *
      * @param prefix      prefix for the generated keys
      * @param keyCount    the number of keys in the array
      * @param keyLength   the length of each string key
@@ -163,8 +171,12 @@ public final class KeyUtils {
      */
     public static String[] generateStringKeys(String prefix, int keyCount, int keyLength, KeyLocality keyLocality,
                                               HazelcastInstance hz) {
+        if (isBalanced(keyLocality)) {
+            return generateBalancedStringKeys(prefix, keyCount, keyLength, keyLocality, hz);
+        }
+
         String[] keys = new String[keyCount];
-        KeyGenerator<String> keyGenerator = newStringKeyGenerator(hz, keyLocality, keyCount, keyLength, prefix);
+        KeyGenerator<String> keyGenerator = newStringKeyGenerator(keyLocality, keyLength, prefix);
         for (int i = 0; i < keys.length; i++) {
             keys[i] = keyGenerator.next();
         }
@@ -172,105 +184,90 @@ public final class KeyUtils {
         return keys;
     }
 
-    private interface KeyGenerator<K> {
-        K next();
+    private static boolean isBalanced(KeyLocality keyLocality) {
+        return keyLocality == KeyLocality.LOCAL || keyLocality == KeyLocality.REMOTE || keyLocality == KeyLocality.RANDOM;
     }
 
-    private abstract static class BalancedKeyGenerator<K> implements KeyGenerator<K> {
-
-        protected final Random random = new Random();
-        protected final HazelcastInstance hz;
-        protected final int keyCount;
-
-        private final Set<K>[] keysPerPartition;
-        private final PartitionService partitionService;
-        private final int maxKeysPerPartition;
-        private final KeyLocality keyLocality;
-
-        @SuppressWarnings("unchecked")
-        private BalancedKeyGenerator(HazelcastInstance hz, KeyLocality keyLocality, int keyCount) {
-            this.hz = hz;
-            this.keyLocality = keyLocality;
-            this.keyCount = keyCount;
-
-            this.partitionService = hz.getPartitionService();
+    private static int[] generateBalancedIntKeys(int keyCount, KeyLocality keyLocality, HazelcastInstance hz) {
+        PartitionService partitionService = hz.getPartitionService();
+        int partitionCount = partitionService.getPartitions().size();
+        int[] targetPartitions = getTargetPartitions(hz, keyLocality);
+
+        File cacheFile = getCacheFile(format("int-keys-%d-%s-%d-%08x.bin", keyCount, keyLocality, partitionCount,
+                Arrays.hashCode(targetPartitions)));
+        int[] keys = readIntKeys(cacheFile, keyCount);
+        if (keys == null) {
+            keys = new PartitionAwareKeyGenerator(partitionService, partitionCount, targetPartitions, keyCount).generateIntKeys();
+            writeIntKeys(cacheFile, keys);
+        }
+        return keys;
+    }
 
-            Set<Integer> targetPartitions = getTargetPartitions();
-            this.maxKeysPerPartition = (int) Math.ceil(keyCount / (float) targetPartitions.size());
+    private static String[] generateBalancedStringKeys(String prefix, int keyCount, int keyLength, KeyLocality keyLocality,
+                                                       HazelcastInstance hz) {
+        PartitionService partitionService = hz.getPartitionService();
+        int partitionCount = partitionService.getPartitions().size();
+        int[] targetPartitions = getTargetPartitions(hz, keyLocality);
+
+        File cacheFile = getCacheFile(format("string-keys-%d-%d-%08x-%s-%d-%08x.bin", keyCount, keyLength, prefix.hashCode(),
+                keyLocality, partitionCount, Arrays.hashCode(targetPartitions)));
+        String[] keys = readStringKeys(cacheFile, keyCount);
+        if (keys == null) {
+            PartitionAwareKeyGenerator generator = new PartitionAwareKeyGenerator(partitionService, partitionCount,
+                    targetPartitions, keyCount);
+            keys = generator.generateStringKeys(prefix, keyLength);
+            writeStringKeys(cacheFile, keys);
+        }
+        return keys;
+    }
 
-            int partitionCount = partitionService.getPartitions().size();
-            this.keysPerPartition = new Set[partitionCount];
-            for (Integer partitionId : targetPartitions) {
-                keysPerPartition[partitionId] = new HashSet<K>();
+    /**
+     * Returns the sorted ids of the partitions, which match the {@link KeyLocality} for the given {@link HazelcastInstance}.
+     */
+    private static int[] getTargetPartitions(HazelcastInstance hz, KeyLocality keyLocality) {
+        Member localMember = getLocalMember(hz);
+        Collection<Partition> partitions = hz.getPartitionService().getPartitions();
+        List<Integer> targetPartitions = new ArrayList<Integer>(partitions.size());
+        for (Partition partition : partitions) {
+            if (isTargetPartition(partition, localMember, keyLocality)) {
+                targetPartitions.add(partition.getPartitionId());
             }
         }
 
-        @Override
-        public final K next() {
-            for (; ; ) {
-                K key = generateKey();
-
-                Partition partition = partitionService.getPartition(key);
-
-                Set<K> keys = keysPerPartition[partition.getPartitionId()];
-                if (keys == null) {
-                    continue;
-                }
-
-                if (keys.contains(key)) {
-                    continue;
-                }
-
-                if (keys.size() == maxKeysPerPartition) {
-                    continue;
-                }
-
-                keys.add(key);
-                return key;
-            }
+        int[] result = new int[targetPartitions.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = targetPartitions.get(i);
         }
+        Arrays.sort(result);
+        return result;
+    }
 
-        protected abstract K generateKey();
-
-        private Set<Integer> getTargetPartitions() {
-            Set<Integer> targetPartitions = new HashSet<Integer>();
-            Member localMember = getLocalMember(hz);
-            switch (keyLocality) {
-                case LOCAL:
-                    for (Partition partition : partitionService.getPartitions()) {
-                        if (localMember == null || localMember.equals(partition.getOwner())) {
-                            targetPartitions.add(partition.getPartitionId());
-                        }
-                    }
-                    break;
-                case REMOTE:
-                    for (Partition partition : partitionService.getPartitions()) {
-                        if (localMember == null || !localMember.equals(partition.getOwner())) {
-                            targetPartitions.add(partition.getPartitionId());
-                        }
-                    }
-                    break;
-                case RANDOM:
-                    for (Partition partition : partitionService.getPartitions()) {
-                        targetPartitions.add(partition.getPartitionId());
-                    }
-                    break;
-                default:
-                    throw new IllegalArgumentException("Unsupported keyLocality: " + keyLocality);
-            }
-            return targetPartitions;
+    private static boolean isTargetPartition(Partition partition, Member localMember, KeyLocality keyLocality) {
+        switch (keyLocality) {
+            case LOCAL:
+                return localMember == null || localMember.equals(partition.getOwner());
+            case REMOTE:
+                return localMember == null || !localMember.equals(partition.getOwner());
+            case RANDOM:
+                return true;
+            default:
+                throw new IllegalArgumentException("Unsupported keyLocality: " + keyLocality);
         }
+    }
 
-        private Member getLocalMember(HazelcastInstance hz) {
-            try {
-                return hz.getCluster().getLocalMember();
-            } catch (UnsupportedOperationException ignore) {
-                // clients throw UnsupportedOperationExceptions
-                return null;
-            }
+    private static Member getLocalMember(HazelcastInstance hz) {
+        try {
+            return hz.getCluster().getLocalMember();
+        } catch (UnsupportedOperationException ignore) {
+            // clients throw UnsupportedOperationExceptions
+            return null;
         }
     }
 
+    private interface KeyGenerator<K> {
+        K next();
+    }
+
     private static final class SharedIntKeyGenerator implements KeyGenerator<Integer> {
 
         private int current;
@@ -291,40 +288,6 @@ public final class KeyUtils {
         }
     }
 
-    private static final class BalancedIntKeyGenerator extends BalancedKeyGenerator<Integer> {
-
-        private BalancedIntKeyGenerator(HazelcastInstance hz, KeyLocality keyLocality, int keyCount) {
-            super(hz, keyLocality, keyCount);
-        }
-
-        @Override
-        protected Integer generateKey() {
-            return random.nextInt(Integer.MAX_VALUE);
-        }
-    }
-
-    private static final class BalancedStringKeyGenerator extends BalancedKeyGenerator<String> {
-
-        private final int keyLength;
-        private final String prefix;
-
-        private BalancedStringKeyGenerator(
-                HazelcastInstance hz, KeyLocality keyLocality, int keyCount, int keyLength, String prefix) {
-            super(hz, keyLocality, keyCount);
-            this.keyLength = keyLength;
-            this.prefix = prefix;
-        }
-
-        @Override
-        protected String generateKey() {
-            if (prefix.length() == 0) {
-                return generateString(keyLength);
-            } else {
-                return prefix + generateString(keyLength - prefix.length());
-            }
-        }
-    }
-
     private static final class SinglePartitionStringKeyGenerator implements KeyGenerator<String> {
 
         private final String key;
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.tests.helpers;
+
+import com.hazelcast.core.PartitionService;
+import com.hazelcast.simulator.utils.ThreadSpawner;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static com.hazelcast.simulator.utils.GeneratorUtils.generateString;
+import static java.lang.Math.min;
+
+/**
+ * Generates keys, which are perfectly balanced over a set of target partitions.
+ *
+ * Random candidate keys are generated by multiple threads in parallel. The partition of a candidate is calculated locally by the
+ * {@link PartitionService}, so there are no remote calls. A candidate is accepted as long as its partition has not reached the
+ * maximum number of keys per partition. The accepted keys are stored in arrays per partition and are finally merged in random
+ * order.
+ *
+ * The int keys are unique by construction, since they are generated from a permutation of all non negative int values. The
+ * String keys are checked for duplicates per partition. Both generators try at most {@link Integer#MAX_VALUE} candidates and fail
+ * with an {@link IllegalStateException} if they could not fill all target partitions.
+ */
+final class PartitionAwareKeyGenerator {
+
+    private static final int THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+
+    // an odd stride makes (offset + i * stride) a permutation of the non negative int values
+    private static final int INT_KEY_STRIDE = 0x9E3779B1;
+
+    private final Random random = new Random();
+
+    private final PartitionService partitionService;
+    private final int[] slotPerPartition;
+    private final int targetPartitionCount;
+    private final int maxKeysPerPartition;
+    private final int keyCount;
+    private final int threadCount;
+
+    private final AtomicInteger filledPartitions = new AtomicInteger();
+
+    PartitionAwareKeyGenerator(PartitionService partitionService, int partitionCount, int[] targetPartitions, int keyCount) {
+        if (targetPartitions.length == 0) {
+            throw new IllegalStateException("There are no target partitions to generate keys for");
+        }
+        this.partitionService = partitionService;
+        this.targetPartitionCount = targetPartitions.length;
+        this.maxKeysPerPartition = (int) Math.ceil(keyCount / (double) targetPartitions.length);
+        this.keyCount = keyCount;
+        this.threadCount = min(THREAD_COUNT, targetPartitions.length);
+
+        this.slotPerPartition = new int[partitionCount];
+        Arrays.fill(slotPerPartition, -1);
+        for (int slot = 0; slot < targetPartitions.length; slot++) {
+            slotPerPartition[targetPartitions[slot]] = slot;
+        }
+    }
+
+    int[] generateIntKeys() {
+        if (keyCount == 0) {
+            return new int[0];
+        }
+        final int[][] keysPerPartition = new int[targetPartitionCount][maxKeysPerPartition];
+        final AtomicIntegerArray keyCounts = new AtomicIntegerArray(targetPartitionCount);
+        final int offset = random.nextInt(Integer.MAX_VALUE);
+
+        ThreadSpawner spawner = new ThreadSpawner("generateIntKeys", true);
+        for (int threadIndex = 0; threadIndex < threadCount; threadIndex++) {
+            final int firstIndex = threadIndex;
+            spawner.spawn(new Runnable() {
+                @Override
+                public void run() {
+                    for (long i = firstIndex; i <= Integer.MAX_VALUE && !isFilled(); i += threadCount) {
+                        int key = (offset + (int) i * INT_KEY_STRIDE) & Integer.MAX_VALUE;
+                        int slot = getSlot(key);
+                        if (slot < 0) {
+                            continue;
+                        }
+                        int index = reserveIndex(keyCounts, slot);
+                        if (index >= 0) {
+                            keysPerPartition[slot][index] = key;
+                        }
+                    }
+                }
+            });
+        }
+        spawner.awaitCompletion();
+        checkFilled();
+
+        int[] keys = new int[keyCount];
+        int keyIndex = 0;
+        for (int index = 0; index < maxKeysPerPartition; index++) {
+            for (int slot = 0; slot < targetPartitionCount && keyIndex < keyCount; slot++) {
+                keys[keyIndex++] = keysPerPartition[slot][index];
+            }
+        }
+        shuffle(keys);
+        return keys;
+    }
+
+    String[] generateStringKeys(final String prefix, final int keyLength) {
+        if (keyCount == 0) {
+            return new String[0];
+        }
+        final String[][] keysPerPartition = new String[targetPartitionCount][maxKeysPerPartition];
+        final int[] keyCounts = new int[targetPartitionCount];
+        final Set<String>[] uniqueKeys = createUniqueKeySets();
+        final int randomLength = keyLength - prefix.length();
+
+        ThreadSpawner spawner = new ThreadSpawner("generateStringKeys", true);
+        for (int threadIndex = 0; threadIndex < threadCount; threadIndex++) {
+            final int firstIndex = threadIndex;
+            spawner.spawn(new Runnable() {
+                @Override
+                public void run() {
+                    Random threadRandom = new Random();
+                    // the attempts are bounded like for the int keys, in case the key space is too small for unique keys
+                    for (long i = firstIndex; i <= Integer.MAX_VALUE && !isFilled(); i += threadCount) {
+                        String key = prefix + generateString(threadRandom, randomLength);
+                        int slot = getSlot(key);
+                        if (slot < 0) {
+                            continue;
+                        }
+                        Set<String> keys = uniqueKeys[slot];
+                        synchronized (keys) {
+                            int index = keyCounts[slot];
+                            if (index < maxKeysPerPartition && keys.add(key)) {
+                                keysPerPartition[slot][index] = key;
+                                keyCounts[slot] = index + 1;
+                                if (index + 1 == maxKeysPerPartition) {
+                                    filledPartitions.incrementAndGet();
+                                }
+                            }
+                        }
+                    }
+                }
+            });
+        }
+        spawner.awaitCompletion();
+        checkFilled();
+
+        String[] keys = new String[keyCount];
+        int keyIndex = 0;
+        for (int index = 0; index < maxKeysPerPartition; index++) {
+            for (int slot = 0; slot < targetPartitionCount && keyIndex < keyCount; slot++) {
+                keys[keyIndex++] = keysPerPartition[slot][index];
+            }
+        }
+        shuffle(keys);
+        return keys;
+    }
+
+    private boolean isFilled() {
+        return filledPartitions.get() == targetPartitionCount;
+    }
+
+    private void checkFilled() {
+        if (!isFilled()) {
+            throw new IllegalStateException("Could not generate " + keyCount + " unique keys for " + targetPartitionCount
+                    + " partitions");
+        }
+    }
+
+    private int getSlot(Object key) {
+        return slotPerPartition[partitionService.getPartition(key).getPartitionId()];
+    }
+
+    private int reserveIndex(AtomicIntegerArray keyCounts, int slot) {
+        for (; ; ) {
+            int index = keyCounts.get(slot);
+            if (index >= maxKeysPerPartition) {
+                return -1;
+            }
+            if (keyCounts.compareAndSet(slot, index, index + 1)) {
+                if (index + 1 == maxKeysPerPartition) {
+                    filledPartitions.incrementAndGet();
+                }
+                return index;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String>[] createUniqueKeySets() {
+        Set<String>[] uniqueKeys = new Set[targetPartitionCount];
+        for (int slot = 0; slot < targetPartitionCount; slot++) {
+            uniqueKeys[slot] = new HashSet<String>();
+        }
+        return uniqueKeys;
+    }
+
+    private void shuffle(int[] keys) {
+        for (int i = keys.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = tmp;
+        }
+    }
+
+    private void shuffle(String[] keys) {
+        for (int i = keys.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            String tmp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = tmp;
+        }
+    }
+}
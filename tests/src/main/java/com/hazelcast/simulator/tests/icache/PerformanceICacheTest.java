@@ -92,7 +92,7 @@ public class PerformanceICacheTest {
 
         @Override
         public void timeStep(Operation operation) {
-            Integer key = randomInt(keyCount);
+            Integer key = randomKeyIndex(keyCount);
             switch (operation) {
                 case PUT:
                     cache.put(key, value++);
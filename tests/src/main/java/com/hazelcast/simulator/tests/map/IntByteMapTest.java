@@ -107,7 +107,7 @@ public class IntByteMapTest {
 
         @Override
         protected void timeStep(Operation operation, Probe probe) throws Exception {
-            int key = keys[randomInt(keys.length)];
+            int key = keys[randomKeyIndex(keys.length)];
             long started;
 
             switch (operation) {
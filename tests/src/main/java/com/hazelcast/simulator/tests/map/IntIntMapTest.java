@@ -131,7 +131,7 @@ public class IntIntMapTest {
         }
 
         private int randomKey() {
-            return keys[randomInt(keys.length)];
+            return keys[randomKeyIndex(keys.length)];
         }
 
         private int randomValue() {
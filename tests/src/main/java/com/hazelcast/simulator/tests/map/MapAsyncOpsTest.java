@@ -16,6 +16,7 @@
 package com.hazelcast.simulator.tests.map;
 
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ICompletableFuture;
 import com.hazelcast.core.IList;
 import com.hazelcast.core.IMap;
 import com.hazelcast.logging.ILogger;
@@ -27,7 +28,7 @@ import com.hazelcast.simulator.test.annotations.Setup;
 import com.hazelcast.simulator.test.annotations.Verify;
 import com.hazelcast.simulator.tests.map.helpers.MapOperationCounter;
 import com.hazelcast.simulator.worker.selector.OperationSelectorBuilder;
-import com.hazelcast.simulator.worker.tasks.AbstractWorker;
+import com.hazelcast.simulator.worker.tasks.AbstractBoundedAsyncWorker;
 
 import java.util.concurrent.TimeUnit;
 
@@ -49,6 +50,7 @@ public class MapAsyncOpsTest {
     public String basename = MapAsyncOpsTest.class.getSimpleName();
     public int keyCount = 10;
     public int maxTTLExpirySeconds = 3;
+    public int maxInFlight = AbstractBoundedAsyncWorker.DEFAULT_MAX_IN_FLIGHT;
 
     public double putAsyncProb = 0.2;
     public double putAsyncTTLProb = 0.2;
@@ -96,41 +98,44 @@ public class MapAsyncOpsTest {
         return new Worker();
     }
 
-    private class Worker extends AbstractWorker<Operation> {
+    private class Worker extends AbstractBoundedAsyncWorker<Operation, Object> {
         public Worker() {
-            super(operationSelectorBuilder);
+            super(operationSelectorBuilder, maxInFlight);
         }
 
         @Override
-        protected void timeStep(Operation operation) throws Exception {
+        protected ICompletableFuture<Object> timeStepAsync(Operation operation) throws Exception {
             int key = randomInt(keyCount);
+            ICompletableFuture<Object> future;
             switch (operation) {
                 case PUT_ASYNC:
                     Object value = randomInt();
-                    map.putAsync(key, value);
+                    future = (ICompletableFuture<Object>) map.putAsync(key, value);
                     count.putAsyncCount.incrementAndGet();
                     break;
                 case PUT_ASYNC_TTL:
                     value = randomInt();
                     int delay = 1 + randomInt(maxTTLExpirySeconds);
-                    map.putAsync(key, value, delay, TimeUnit.SECONDS);
+                    future = (ICompletableFuture<Object>) map.putAsync(key, value, delay, TimeUnit.SECONDS);
                     count.putAsyncTTLCount.incrementAndGet();
                     break;
                 case GET_ASYNC:
-                    map.getAsync(key);
+                    future = (ICompletableFuture<Object>) map.getAsync(key);
                     count.getAsyncCount.incrementAndGet();
                     break;
                 case REMOVE_ASYNC:
-                    map.removeAsync(key);
+                    future = (ICompletableFuture<Object>) map.removeAsync(key);
                     count.removeAsyncCount.incrementAndGet();
                     break;
                 case DESTROY:
                     map.destroy();
                     count.destroyCount.incrementAndGet();
+                    future = null;
                     break;
                 default:
                     throw new UnsupportedOperationException();
             }
+            return future;
         }
 
         @Override
@@ -188,7 +188,7 @@ public class MapEntryListenerTest {
             int key;
 
             if (randomDistributionUniform) {
-                key = randomInt(keyCount);
+                key = randomKeyIndex(keyCount);
             } else {
                 key = keysZipfian.nextInt();
             }
@@ -108,7 +108,7 @@ public class MapEntryProcessorTest {
 
         @Override
         public void timeStep(Probe probe) {
-            int key = keys[randomInt(keys.length)];
+            int key = keys[randomKeyIndex(keys.length)];
 
             long increment = randomInt(100);
             int delayMs = calculateDelay();
@@ -82,7 +82,7 @@ public class MapLongPerformanceTest {
 
         @Override
         public void timeStep(Operation operation, Probe probe) {
-            Integer key = randomInt(keyCount);
+            Integer key = randomKeyIndex(keyCount);
 
             long started;
             switch (operation) {
@@ -152,7 +152,7 @@ public class StringStringMapMonotonicTest {
         }
 
         private String randomKey() {
-            return keys[randomInt(keys.length)];
+            return keys[randomKeyIndex(keys.length)];
         }
 
         private String randomValue() {
@@ -143,7 +143,7 @@ public class StringStringMapTest {
         }
 
         private String randomKey() {
-            return keys[randomInt(keys.length)];
+            return keys[randomKeyIndex(keys.length)];
         }
 
         private String randomValue() {
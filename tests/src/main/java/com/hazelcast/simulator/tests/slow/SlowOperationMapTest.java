@@ -182,7 +182,7 @@ public class SlowOperationMapTest {
         }
 
         private int randomKey() {
-            return keys[randomInt(keys.length)];
+            return keys[randomKeyIndex(keys.length)];
         }
 
         private int randomValue() {
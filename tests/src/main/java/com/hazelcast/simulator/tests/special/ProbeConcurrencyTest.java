@@ -17,29 +17,47 @@ package com.hazelcast.simulator.tests.special;
 
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
+import com.hazelcast.simulator.probes.Probe;
+import com.hazelcast.simulator.probes.impl.ProbeImpl;
+import com.hazelcast.simulator.probes.impl.ThreadLocalProbeImpl;
 import com.hazelcast.simulator.test.TestContext;
 import com.hazelcast.simulator.test.annotations.RunWithWorker;
 import com.hazelcast.simulator.test.annotations.Setup;
 import com.hazelcast.simulator.worker.tasks.AbstractMonotonicWorker;
 import com.hazelcast.simulator.worker.tasks.IWorker;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.Integer.parseInt;
+import static java.lang.String.format;
+
 /**
  * This test is to debug and check probe results from a very controlled test case.
  *
  * By adjusting the threadCount and maxOperations the invocation count of probes are absolutely predictable.
+ *
+ * The threadLocalProbes property switches from {@link ProbeImpl} to {@link ThreadLocalProbeImpl}. The {@link #main(String[])}
+ * method benchmarks both probe implementations with an increasing number of threads, to show their scaling curve.
  */
 public class ProbeConcurrencyTest {
 
     private static final ILogger LOGGER = Logger.getLogger(ProbeConcurrencyTest.class);
 
+    private static final int BENCHMARK_MAX_THREAD_COUNT = 64;
+    private static final int BENCHMARK_OPERATIONS_PER_THREAD = 10000000;
+    private static final long BENCHMARK_HARVEST_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
     // properties
     public String basename = ProbeConcurrencyTest.class.getSimpleName();
     public int threadCount = 0;
     public int maxOperations = 0;
+    public boolean threadLocalProbes = false;
 
     @Setup
     public void setUp(TestContext testContext) {
-        LOGGER.info("ThreadCount: " + threadCount + " max operations: " + maxOperations);
+        LOGGER.info("ThreadCount: " + threadCount + " max operations: " + maxOperations
+                + " thread local probes: " + threadLocalProbes);
     }
 
     @RunWithWorker
@@ -58,4 +76,63 @@ public class ProbeConcurrencyTest {
             }
         }
     }
+
+    /**
+     * Benchmarks the throughput of {@link ProbeImpl} and {@link ThreadLocalProbeImpl} with an increasing number of threads.
+     *
+     * The interval histograms are retrieved once per second during the benchmark, like the worker performance monitor does.
+     *
+     * @param args the maximum thread count (optional) and the number of operations per thread (optional)
+     */
+    public static void main(String[] args) throws Exception {
+        int maxThreadCount = (args.length > 0 ? parseInt(args[0]) : BENCHMARK_MAX_THREAD_COUNT);
+        int operationsPerThread = (args.length > 1 ? parseInt(args[1]) : BENCHMARK_OPERATIONS_PER_THREAD);
+
+        // warmup of both implementations
+        runBenchmark(new ProbeImpl(true), maxThreadCount, operationsPerThread);
+        runBenchmark(new ThreadLocalProbeImpl(true), maxThreadCount, operationsPerThread);
+
+        LOGGER.info("threads      ProbeImpl (ops/s)   ThreadLocalProbeImpl (ops/s)");
+        for (int threadCount = 1; threadCount <= maxThreadCount; threadCount *= 2) {
+            double probeThroughput = runBenchmark(new ProbeImpl(true), threadCount, operationsPerThread);
+            double threadLocalProbeThroughput = runBenchmark(new ThreadLocalProbeImpl(true), threadCount, operationsPerThread);
+            LOGGER.info(format("%7d %,22.0f %,30.0f", threadCount, probeThroughput, threadLocalProbeThroughput));
+        }
+    }
+
+    private static double runBenchmark(final Probe probe, int threadCount, final int operationsPerThread) throws Exception {
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int operation = 0; operation < operationsPerThread; operation++) {
+                        probe.started();
+                        probe.done();
+                    }
+                }
+            };
+            threads[i].start();
+        }
+
+        long started = System.nanoTime();
+        startLatch.countDown();
+        long operationCount = 0;
+        for (Thread thread : threads) {
+            while (thread.isAlive()) {
+                thread.join(BENCHMARK_HARVEST_INTERVAL_MILLIS);
+                operationCount += probe.getIntervalHistogram().getTotalCount();
+            }
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        operationCount += probe.getIntervalHistogram().getTotalCount();
+
+        return operationCount * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
 }
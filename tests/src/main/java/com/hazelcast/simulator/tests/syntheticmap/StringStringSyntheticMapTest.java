@@ -128,7 +128,7 @@ public class StringStringSyntheticMapTest {
         }
 
         private String randomKey() {
-            return keys[randomInt(keys.length)];
+            return keys[randomKeyIndex(keys.length)];
         }
 
         private String randomValue() {
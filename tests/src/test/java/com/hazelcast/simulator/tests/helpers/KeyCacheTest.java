@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.tests.helpers;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import static com.hazelcast.simulator.tests.helpers.KeyCache.KEY_CACHE_DIRECTORY_PROPERTY;
+import static com.hazelcast.simulator.tests.helpers.KeyCache.getCacheFile;
+import static com.hazelcast.simulator.tests.helpers.KeyCache.readIntKeys;
+import static com.hazelcast.simulator.tests.helpers.KeyCache.readStringKeys;
+import static com.hazelcast.simulator.tests.helpers.KeyCache.writeIntKeys;
+import static com.hazelcast.simulator.tests.helpers.KeyCache.writeStringKeys;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class KeyCacheTest {
+
+    private static final int[] INT_KEYS = {42, 23, Integer.MAX_VALUE, 0, 815};
+    private static final String[] STRING_KEYS = {"key1", "key2", "anotherKey", "", "lastKey"};
+
+    private final File cacheDirectory = new File("keyCache");
+    private final File cacheFile = new File(cacheDirectory, "keys");
+
+    @After
+    public void tearDown() {
+        System.clearProperty(KEY_CACHE_DIRECTORY_PROPERTY);
+        deleteQuiet(cacheDirectory);
+    }
+
+    @Test
+    public void testGetCacheFile_disabled() {
+        assertNull(getCacheFile("keys"));
+    }
+
+    @Test
+    public void testGetCacheFile() {
+        System.setProperty(KEY_CACHE_DIRECTORY_PROPERTY, cacheDirectory.getPath());
+
+        File file = getCacheFile("keys");
+
+        assertNotNull(file);
+        assertEquals(cacheFile.getAbsoluteFile(), file.getAbsoluteFile());
+    }
+
+    @Test
+    public void testIntKeys() {
+        writeIntKeys(cacheFile, INT_KEYS);
+
+        assertArrayEquals(INT_KEYS, readIntKeys(cacheFile, INT_KEYS.length));
+        // the temporary file has been renamed
+        assertEquals(1, cacheDirectory.list().length);
+    }
+
+    @Test
+    public void testIntKeys_withDifferentKeyCount() {
+        writeIntKeys(cacheFile, INT_KEYS);
+
+        assertNull(readIntKeys(cacheFile, INT_KEYS.length + 1));
+    }
+
+    @Test
+    public void testIntKeys_withTruncatedFile() throws Exception {
+        writeIntKeys(cacheFile, INT_KEYS);
+        truncate(cacheFile, 4);
+
+        assertNull(readIntKeys(cacheFile, INT_KEYS.length));
+    }
+
+    @Test
+    public void testIntKeys_withCorruptedFile() throws Exception {
+        writeIntKeys(cacheFile, INT_KEYS);
+        corrupt(cacheFile, 6);
+
+        assertNull(readIntKeys(cacheFile, INT_KEYS.length));
+    }
+
+    @Test
+    public void testIntKeys_withTrailingData() throws Exception {
+        writeIntKeys(cacheFile, INT_KEYS);
+        append(cacheFile);
+
+        assertNull(readIntKeys(cacheFile, INT_KEYS.length));
+    }
+
+    @Test
+    public void testReadIntKeys_withoutFile() {
+        assertNull(readIntKeys(null, INT_KEYS.length));
+        assertNull(readIntKeys(cacheFile, INT_KEYS.length));
+    }
+
+    @Test
+    public void testStringKeys() {
+        writeStringKeys(cacheFile, STRING_KEYS);
+
+        assertArrayEquals(STRING_KEYS, readStringKeys(cacheFile, STRING_KEYS.length));
+        assertEquals(1, cacheDirectory.list().length);
+    }
+
+    @Test
+    public void testStringKeys_withTruncatedFile() throws Exception {
+        writeStringKeys(cacheFile, STRING_KEYS);
+        truncate(cacheFile, 1);
+
+        assertNull(readStringKeys(cacheFile, STRING_KEYS.length));
+    }
+
+    @Test
+    public void testStringKeys_withCorruptedFile() throws Exception {
+        writeStringKeys(cacheFile, STRING_KEYS);
+        corrupt(cacheFile, 8);
+
+        assertNull(readStringKeys(cacheFile, STRING_KEYS.length));
+    }
+
+    @Test
+    public void testWriteKeys_overwritesExistingFile() {
+        writeIntKeys(cacheFile, new int[]{1, 2, 3, 4, 5});
+        writeIntKeys(cacheFile, INT_KEYS);
+
+        assertArrayEquals(INT_KEYS, readIntKeys(cacheFile, INT_KEYS.length));
+    }
+
+    @Test
+    public void testWriteKeys_withoutFile() {
+        writeIntKeys(null, INT_KEYS);
+        writeStringKeys(null, STRING_KEYS);
+    }
+
+    private static void truncate(File file, int bytes) throws Exception {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.setLength(randomAccessFile.length() - bytes);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    private static void corrupt(File file, int position) throws Exception {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.seek(position);
+            int value = randomAccessFile.read();
+            randomAccessFile.seek(position);
+            randomAccessFile.write(value ^ 0xFF);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    private static void append(File file) throws Exception {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.seek(randomAccessFile.length());
+            randomAccessFile.write(42);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+}
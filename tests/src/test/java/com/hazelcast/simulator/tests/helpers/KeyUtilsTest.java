@@ -26,15 +26,21 @@ import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.File;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
+import static com.hazelcast.simulator.tests.helpers.KeyCache.KEY_CACHE_DIRECTORY_PROPERTY;
 import static com.hazelcast.simulator.tests.helpers.KeyUtils.generateIntKeys;
 import static com.hazelcast.simulator.tests.helpers.KeyUtils.generateStringKey;
 import static com.hazelcast.simulator.tests.helpers.KeyUtils.generateStringKeys;
 import static com.hazelcast.simulator.tests.helpers.KeyUtils.isLocalKey;
+import static com.hazelcast.simulator.utils.FileUtils.deleteQuiet;
 import static com.hazelcast.simulator.utils.HazelcastUtils.warmupPartitions;
 import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
@@ -158,6 +164,51 @@ public class KeyUtilsTest {
         }
     }
 
+    @Test
+    public void generateIntKeys_whenRandom_uniqueKeys() {
+        int keyCount = 10000;
+        int[] keys = generateIntKeys(keyCount, KeyLocality.RANDOM, hz);
+
+        Set<Integer> uniqueKeys = new HashSet<Integer>();
+        for (int key : keys) {
+            assertTrue(key >= 0);
+            uniqueKeys.add(key);
+        }
+        assertEquals(keyCount, uniqueKeys.size());
+    }
+
+    @Test
+    public void generateIntKeys_whenKeyCountNotDivisibleByPartitionCount() {
+        int keyCount = 3 * PARTITION_COUNT + 3;
+        int[] keys = generateIntKeys(keyCount, KeyLocality.RANDOM, hz);
+
+        assertEquals(keyCount, keys.length);
+
+        int[] countPerPartition = new int[PARTITION_COUNT];
+        for (int key : keys) {
+            countPerPartition[hz.getPartitionService().getPartition(key).getPartitionId()]++;
+        }
+        for (int count : countPerPartition) {
+            assertTrue(count == 3 || count == 4);
+        }
+    }
+
+    @Test
+    public void generateIntKeys_withKeyCache() {
+        File cacheDirectory = new File("keyCache");
+        System.setProperty(KEY_CACHE_DIRECTORY_PROPERTY, cacheDirectory.getPath());
+        try {
+            int[] keys = generateIntKeys(100, KeyLocality.RANDOM, hz);
+            int[] cachedKeys = generateIntKeys(100, KeyLocality.RANDOM, hz);
+
+            assertArrayEquals(keys, cachedKeys);
+            assertEquals(1, cacheDirectory.list().length);
+        } finally {
+            System.clearProperty(KEY_CACHE_DIRECTORY_PROPERTY);
+            deleteQuiet(cacheDirectory);
+        }
+    }
+
     @Test
     public void generateIntKey_local_client() {
         int[] keys = generateIntKeys(2, KeyLocality.LOCAL, client);
@@ -302,6 +353,37 @@ public class KeyUtilsTest {
         }
     }
 
+    @Test
+    public void generateStringKeys_whenRandom_uniqueKeys() {
+        int keyCount = 10000;
+        String[] keys = generateStringKeys("prefix", keyCount, 10, KeyLocality.RANDOM, hz);
+
+        Set<String> uniqueKeys = new HashSet<String>();
+        for (String key : keys) {
+            assertEquals(10, key.length());
+            uniqueKeys.add(key);
+        }
+        assertEquals(keyCount, uniqueKeys.size());
+    }
+
+    @Test
+    public void generateStringKeys_withKeyCache() {
+        File cacheDirectory = new File("keyCache");
+        System.setProperty(KEY_CACHE_DIRECTORY_PROPERTY, cacheDirectory.getPath());
+        try {
+            String[] keys = generateStringKeys("prefix", 100, 10, KeyLocality.LOCAL, hz);
+            String[] cachedKeys = generateStringKeys("prefix", 100, 10, KeyLocality.LOCAL, hz);
+            String[] otherKeys = generateStringKeys("other", 100, 10, KeyLocality.LOCAL, hz);
+
+            assertArrayEquals(keys, cachedKeys);
+            assertTrue(otherKeys[0].startsWith("other"));
+            assertEquals(2, cacheDirectory.list().length);
+        } finally {
+            System.clearProperty(KEY_CACHE_DIRECTORY_PROPERTY);
+            deleteQuiet(cacheDirectory);
+        }
+    }
+
     @Test
     public void generateStringKeys_whenLocal_equalDistributionOverPartitions() {
         Map<Integer, Integer> countsPerPartition = new HashMap<Integer, Integer>();
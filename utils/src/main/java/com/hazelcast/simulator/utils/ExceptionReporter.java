@@ -27,7 +27,11 @@ import static com.hazelcast.simulator.utils.FileUtils.writeText;
 import static com.hazelcast.simulator.utils.FormatUtils.NEW_LINE;
 
 /**
- * Responsible for writing an exception to a file. Every exception file will have a unique name.
+ * Responsible for reporting an exception to the Agent.
+ *
+ * If an {@link ExceptionSender} is set, the exception is sent directly to the Agent, without blocking the reporting thread.
+ * Otherwise or if the exception could not be sent, it's written to a file, which is picked up by the Agent. Every exception
+ * file will have a unique name.
  */
 public final class ExceptionReporter {
 
@@ -37,11 +41,22 @@ public final class ExceptionReporter {
 
     private static final Logger LOGGER = Logger.getLogger(ExceptionReporter.class);
 
+    private static volatile ExceptionSender exceptionSender;
+
     private ExceptionReporter() {
     }
 
     /**
-     * Writes the cause to file.
+     * Sets the {@link ExceptionSender} to send exceptions directly to the Agent.
+     *
+     * @param sender the {@link ExceptionSender} or <tt>null</tt> if exceptions should just be written to a file
+     */
+    public static void setExceptionSender(ExceptionSender sender) {
+        exceptionSender = sender;
+    }
+
+    /**
+     * Sends the cause to the Agent or writes it to file.
      *
      * @param testId the id of the test that caused the exception. Is allowed to be <tt>null</tt> if it is not known which test
      *               caused the problem.
@@ -63,6 +78,16 @@ public final class ExceptionReporter {
 
         LOGGER.warn("Exception #" + exceptionCount + " detected", cause);
 
+        String stacktrace = throwableToString(cause);
+        ExceptionSender sender = exceptionSender;
+        if (sender != null) {
+            sender.send(testId, stacktrace, new WriteExceptionFileTask(exceptionCount, testId, stacktrace));
+        } else {
+            writeExceptionFile(exceptionCount, testId, stacktrace);
+        }
+    }
+
+    private static void writeExceptionFile(long exceptionCount, String testId, String stacktrace) {
         String targetFileName = exceptionCount + ".exception";
 
         File tmpFile = new File(targetFileName + ".tmp");
@@ -75,14 +100,33 @@ public final class ExceptionReporter {
             return;
         }
 
-        writeText(testId + NEW_LINE + throwableToString(cause), tmpFile);
+        writeText(testId + NEW_LINE + stacktrace, tmpFile);
 
         File file = new File(targetFileName);
         rename(tmpFile, file);
     }
 
+    private static final class WriteExceptionFileTask implements Runnable {
+
+        private final long exceptionCount;
+        private final String testId;
+        private final String stacktrace;
+
+        private WriteExceptionFileTask(long exceptionCount, String testId, String stacktrace) {
+            this.exceptionCount = exceptionCount;
+            this.testId = testId;
+            this.stacktrace = stacktrace;
+        }
+
+        @Override
+        public void run() {
+            writeExceptionFile(exceptionCount, testId, stacktrace);
+        }
+    }
+
     // just for testing
     public static void reset() {
         FAILURE_ID.set(0);
+        exceptionSender = null;
     }
 }
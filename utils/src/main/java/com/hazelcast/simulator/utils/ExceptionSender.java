@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.utils;
+
+/**
+ * Sends an exception which is reported via the {@link ExceptionReporter} directly to the Agent.
+ */
+public interface ExceptionSender {
+
+    /**
+     * Sends an exception to the Agent, without waiting for the Agent to confirm it.
+     *
+     * The fallback is executed at most once, if the exception could not be sent or if the Agent has not confirmed it in time.
+     * It may be executed by the calling thread.
+     *
+     * @param testId   the id of the test that caused the exception, can be <tt>null</tt>
+     * @param cause    the stacktrace of the exception
+     * @param fallback writes the exception to a file, if it doesn't reach the Agent
+     */
+    void send(String testId, String cause, Runnable fallback);
+}
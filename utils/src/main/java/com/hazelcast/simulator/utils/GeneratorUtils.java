@@ -41,9 +41,20 @@ public final class GeneratorUtils {
     }
 
     public static String generateString(int length) {
-        StringBuilder sb = new StringBuilder();
+        return generateString(RANDOM, length);
+    }
+
+    /**
+     * Generates a random String with the given {@link Random} instance, e.g. to avoid contention on the shared instance.
+     *
+     * @param random the {@link Random} instance to use
+     * @param length the length of the String
+     * @return the created String
+     */
+    public static String generateString(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
         for (int i = 0; i < length; i++) {
-            char c = ALPHABET.charAt(RANDOM.nextInt(ALPHABET.length()));
+            char c = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
             sb.append(c);
         }
 
@@ -38,8 +38,6 @@ class ExtendedJavaFileManager extends ForwardingJavaFileManager<JavaFileManager>
         super(fileManager);
         this.compiledCode = compiledCode;
         this.dynamicClassLoader = dynamicClassLoader;
-
-        dynamicClassLoader.setCode(compiledCode);
     }
 
     @Override
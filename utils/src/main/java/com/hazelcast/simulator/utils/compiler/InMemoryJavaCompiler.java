@@ -15,36 +15,116 @@
  */
 package com.hazelcast.simulator.utils.compiler;
 
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
 import javax.tools.JavaCompiler;
 import javax.tools.JavaFileObject;
 import javax.tools.StandardJavaFileManager;
 import javax.tools.ToolProvider;
-import java.util.Collections;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.List;
+
+import static com.hazelcast.simulator.utils.FormatUtils.NEW_LINE;
+import static java.lang.String.format;
+import static java.util.Collections.singletonList;
 
 /**
  * In-memory Java source code compiler.
  *
+ * The compiler uses the class path of the JVM, so the source code can use all classes which are available in the JVM. A JDK is
+ * required, see {@link #isAvailable()}.
+ *
  * @see <a href="https://github.com/trung/InMemoryJavaCompiler">InMemoryJavaCompiler GitHub Project</a>
  */
 public final class InMemoryJavaCompiler {
 
     static final JavaCompiler COMPILER = ToolProvider.getSystemJavaCompiler();
 
+    // annotation processors on the class path would write their output files to the working directory
+    private static final List<String> COMPILER_OPTIONS = singletonList("-proc:none");
+
     private InMemoryJavaCompiler() {
     }
 
+    /**
+     * Checks if a Java compiler is available, which is just the case if the JVM is running on a JDK.
+     *
+     * @return <tt>true</tt> if source code can be compiled, <tt>false</tt> otherwise
+     */
+    public static boolean isAvailable() {
+        return COMPILER != null;
+    }
+
+    /**
+     * Compiles the source code and loads the class with the {@link DynamicClassLoader}.
+     *
+     * @param className        the fully qualified name of the class
+     * @param sourceCodeInText the source code of the class
+     * @return the compiled class
+     * @throws IllegalArgumentException if the source code cannot be compiled
+     */
     public static Class<?> compile(String className, String sourceCodeInText) throws Exception {
+        DynamicClassLoader classLoader = DynamicClassLoader.getInstance();
+        classLoader.setCode(compileToByteCode(className, sourceCodeInText));
+
+        return classLoader.loadClass(className);
+    }
+
+    /**
+     * Compiles the source code and loads the class with a new child {@link ClassLoader} of the given {@link ClassLoader}.
+     *
+     * The class can use all public classes of the given {@link ClassLoader}, but it's not part of their runtime package, so it
+     * cannot access package private members. Each call creates a new {@link ClassLoader}, so the class can be unloaded as soon
+     * as it's no longer referenced.
+     *
+     * @param className        the fully qualified name of the class
+     * @param sourceCodeInText the source code of the class
+     * @param parent           the parent {@link ClassLoader} of the class
+     * @return the compiled class
+     * @throws IllegalArgumentException if the source code cannot be compiled
+     */
+    public static Class<?> compile(String className, String sourceCodeInText, final ClassLoader parent) throws Exception {
+        final CompiledCode compiledCode = compileToByteCode(className, sourceCodeInText);
+
+        ClassLoader classLoader = AccessController.doPrivileged(new PrivilegedAction<ClassLoader>() {
+            public ClassLoader run() {
+                return new SingleClassLoader(parent, compiledCode);
+            }
+        });
+        return classLoader.loadClass(className);
+    }
+
+    private static CompiledCode compileToByteCode(String className, String sourceCodeInText) throws Exception {
+        if (COMPILER == null) {
+            throw new IllegalStateException("No Java compiler is available, please use a JDK instead of a JRE");
+        }
+
         SourceCode sourceCode = new SourceCode(className, sourceCodeInText);
         CompiledCode compiledCode = new CompiledCode(className);
-        DynamicClassLoader classLoader = DynamicClassLoader.getInstance();
-        Iterable<? extends JavaFileObject> compilationUnits = Collections.singletonList(sourceCode);
+        Iterable<? extends JavaFileObject> compilationUnits = singletonList(sourceCode);
 
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
         StandardJavaFileManager standardJavaFileManager = COMPILER.getStandardFileManager(null, null, null);
-        ExtendedJavaFileManager fileManager = new ExtendedJavaFileManager(standardJavaFileManager, compiledCode, classLoader);
+        ExtendedJavaFileManager fileManager = new ExtendedJavaFileManager(standardJavaFileManager, compiledCode,
+                DynamicClassLoader.getInstance());
 
-        JavaCompiler.CompilationTask task = COMPILER.getTask(null, fileManager, null, null, null, compilationUnits);
-        task.call();
+        JavaCompiler.CompilationTask task = COMPILER.getTask(null, fileManager, diagnostics, COMPILER_OPTIONS, null,
+                compilationUnits);
+        if (!task.call()) {
+            throw new IllegalArgumentException(format("Could not compile %s:%s%s", className, NEW_LINE,
+                    formatErrors(diagnostics)));
+        }
+        return compiledCode;
+    }
 
-        return classLoader.loadClass(className);
+    private static String formatErrors(DiagnosticCollector<JavaFileObject> diagnostics) {
+        StringBuilder sb = new StringBuilder();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                sb.append(format("line %d: %s%s", diagnostic.getLineNumber(), diagnostic.getMessage(null), NEW_LINE));
+            }
+        }
+        return sb.toString();
     }
 }
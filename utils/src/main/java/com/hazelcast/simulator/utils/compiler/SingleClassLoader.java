@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2008-2016, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.simulator.utils.compiler;
+
+/**
+ * Throwaway {@link ClassLoader} which defines a single compiled class.
+ *
+ * All other classes are loaded by the parent {@link ClassLoader}. The compiled class can be unloaded together with this
+ * {@link ClassLoader}, as soon as both are no longer referenced.
+ */
+final class SingleClassLoader extends ClassLoader {
+
+    private final CompiledCode compiledCode;
+
+    SingleClassLoader(ClassLoader parent, CompiledCode compiledCode) {
+        super(parent);
+        this.compiledCode = compiledCode;
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        if (!compiledCode.getName().equals(name)) {
+            return super.findClass(name);
+        }
+        byte[] byteCode = compiledCode.getByteCode();
+        return defineClass(name, byteCode, 0, byteCode.length);
+    }
+}
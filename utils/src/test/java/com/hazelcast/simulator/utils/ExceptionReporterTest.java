@@ -3,6 +3,8 @@ package com.hazelcast.simulator.utils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import java.io.File;
 
@@ -14,6 +16,13 @@ import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstru
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.contains;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 public class ExceptionReporterTest {
 
@@ -52,6 +61,36 @@ public class ExceptionReporterTest {
         assertNotNull(fileAsText(EXCEPTION_FILE));
     }
 
+    @Test
+    public void testReport_withExceptionSender() {
+        ExceptionSender sender = mock(ExceptionSender.class);
+        ExceptionReporter.setExceptionSender(sender);
+
+        report("testID", new RuntimeException("Expected exception"));
+
+        verify(sender).send(eq("testID"), contains("Expected exception"), any(Runnable.class));
+        assertFalse(EXCEPTION_FILE.exists());
+    }
+
+    @Test
+    public void testReport_withExceptionSender_shouldWriteFileIfExceptionCouldNotBeSent() {
+        ExceptionSender sender = mock(ExceptionSender.class);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                ((Runnable) invocation.getArguments()[2]).run();
+                return null;
+            }
+        }).when(sender).send(anyString(), anyString(), any(Runnable.class));
+        ExceptionReporter.setExceptionSender(sender);
+
+        report("testID", new RuntimeException("Expected exception"));
+
+        verify(sender).send(eq("testID"), contains("Expected exception"), any(Runnable.class));
+        assertTrue(EXCEPTION_FILE.exists());
+        assertTrue(fileAsText(EXCEPTION_FILE).startsWith("testID"));
+    }
+
     @Test
     public void testReportTooManyExceptions() {
         ExceptionReporter.FAILURE_ID.set(ExceptionReporter.MAX_EXCEPTION_COUNT + 1);
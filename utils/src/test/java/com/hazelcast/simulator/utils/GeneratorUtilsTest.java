@@ -9,6 +9,7 @@ import static com.hazelcast.simulator.utils.GeneratorUtils.generateString;
 import static com.hazelcast.simulator.utils.GeneratorUtils.generateStrings;
 import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
 import static com.hazelcast.simulator.utils.TestUtils.assertEqualsStringFormat;
+import static org.junit.Assert.assertEquals;
 
 public class GeneratorUtilsTest {
 
@@ -41,6 +42,18 @@ public class GeneratorUtilsTest {
         assertEqualsStringFormat("Expected generated string length to be %d, but was %d", 42, actual.length());
     }
 
+    @Test
+    public void testGenerateString_withRandom() throws Exception {
+        String actual = generateString(new Random(), 42);
+
+        assertEqualsStringFormat("Expected generated string length to be %d, but was %d", 42, actual.length());
+    }
+
+    @Test
+    public void testGenerateString_withRandom_isDeterministicForSameSeed() throws Exception {
+        assertEquals(generateString(new Random(23), 42), generateString(new Random(23), 42));
+    }
+
     @Test
     public void testGenerateByteArray() throws Exception {
         byte[] actual = generateByteArray(new Random(), 23);
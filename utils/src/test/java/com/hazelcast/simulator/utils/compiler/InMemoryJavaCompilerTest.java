@@ -2,11 +2,16 @@ package com.hazelcast.simulator.utils.compiler;
 
 import org.junit.Test;
 
+import java.util.concurrent.Callable;
+
 import static com.hazelcast.simulator.utils.FormatUtils.NEW_LINE;
 import static com.hazelcast.simulator.utils.ReflectionUtils.invokePrivateConstructor;
 import static com.hazelcast.simulator.utils.compiler.InMemoryJavaCompiler.compile;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class InMemoryJavaCompilerTest {
 
@@ -29,6 +34,67 @@ public class InMemoryJavaCompilerTest {
         assertEquals(1, helloClass.getDeclaredMethods().length);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompile_withInvalidSourceCode() throws Exception {
+        String source = "package com.hazelcast.simulator.utils.compiler;" + NEW_LINE + NEW_LINE
+                + "public class InvalidClass {" + NEW_LINE + NEW_LINE
+                + "    public String hello() {" + NEW_LINE
+                + "        return 42;" + NEW_LINE
+                + "    }"
+                + '}';
+
+        compile("com.hazelcast.simulator.utils.compiler.InvalidClass", source);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCompile_withClassLoader() throws Exception {
+        String source = "package com.hazelcast.simulator.utils.compiler;" + NEW_LINE + NEW_LINE
+                + "public class ChildClass implements java.util.concurrent.Callable<Object> {" + NEW_LINE + NEW_LINE
+                + "    public Object call() {" + NEW_LINE
+                + "        return InMemoryJavaCompiler.class;" + NEW_LINE
+                + "    }"
+                + '}';
+        String className = "com.hazelcast.simulator.utils.compiler.ChildClass";
+        ClassLoader classLoader = InMemoryJavaCompilerTest.class.getClassLoader();
+
+        Class<?> first = compile(className, source, classLoader);
+        Class<?> second = compile(className, source, classLoader);
+
+        assertNotSame(classLoader, first.getClassLoader());
+        assertSame(classLoader, first.getClassLoader().getParent());
+        assertNotSame(first.getClassLoader(), second.getClassLoader());
+        assertNotSame(first, second);
+
+        Callable<Object> callable = (Callable<Object>) first.newInstance();
+        assertSame(InMemoryJavaCompiler.class, callable.call());
+    }
+
+    @Test(expected = IllegalAccessError.class)
+    public void testCompile_withClassLoader_withPackagePrivateAccess() throws Exception {
+        // the class is not part of the runtime package of the package private DynamicClassLoader
+        String source = "package com.hazelcast.simulator.utils.compiler;" + NEW_LINE + NEW_LINE
+                + "public class PackageAccessClass implements Runnable {" + NEW_LINE + NEW_LINE
+                + "    public void run() {" + NEW_LINE
+                + "        DynamicClassLoader.getInstance();" + NEW_LINE
+                + "    }"
+                + '}';
+        ClassLoader classLoader = InMemoryJavaCompilerTest.class.getClassLoader();
+
+        Class<?> packageAccessClass = compile("com.hazelcast.simulator.utils.compiler.PackageAccessClass", source, classLoader);
+        ((Runnable) packageAccessClass.newInstance()).run();
+    }
+
+    @Test(expected = ClassNotFoundException.class)
+    public void testSingleClassLoader() throws Exception {
+        new SingleClassLoader(null, new CompiledCode("CompiledClass")).findClass("NotCompiledClass");
+    }
+
+    @Test
+    public void testIsAvailable() {
+        assertTrue(InMemoryJavaCompiler.isAvailable());
+    }
+
     @Test(expected = ClassNotFoundException.class)
     public void testDynamicClassLoader() throws Exception {
         DynamicClassLoader.getInstance().findClass("NotCompiledClass");
@@ -15,6 +15,7 @@
  */
 package com.hazelcast.simulator.visualizer.ui;
 
+import com.hazelcast.simulator.probes.binary.ResultBinaryUtils;
 import com.hazelcast.simulator.visualizer.data.Model;
 import com.hazelcast.simulator.visualizer.io.ResultParserWorker;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -99,7 +100,8 @@ public final class MainUI extends JFrame {
             @Override
             public void actionPerformed(ActionEvent e) {
                 JFileChooser fileChooser = new JFileChooser(lastFileChooserDirectory);
-                fileChooser.setFileFilter(new ExtensionFileFilter("XML Files", "xml"));
+                fileChooser.addChoosableFileFilter(new ExtensionFileFilter("XML Files", "xml"));
+                fileChooser.setFileFilter(new ExtensionFileFilter("Probe Result Files", ResultBinaryUtils.FILE_EXTENSION));
                 int returnValue = fileChooser.showOpenDialog(null);
                 if (returnValue == JFileChooser.APPROVE_OPTION) {
                     lastFileChooserDirectory = fileChooser.getSelectedFile();